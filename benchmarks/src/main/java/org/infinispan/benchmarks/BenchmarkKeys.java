@@ -0,0 +1,49 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Keys shared by the benchmarks. The keys are created up front, so that the benchmarks measure the operations and not
+ * the allocation of the keys.
+ *
+ * @since 9.0
+ */
+public final class BenchmarkKeys {
+
+   private BenchmarkKeys() {
+   }
+
+   public static String[] strings(int count) {
+      String[] keys = new String[count];
+      for (int i = 0; i < count; i++) {
+         keys[i] = "key" + i;
+      }
+      return keys;
+   }
+
+   public static byte[][] byteArrays(int count, int size) {
+      byte[][] keys = new byte[count][size];
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      for (byte[] key : keys) {
+         random.nextBytes(key);
+      }
+      return keys;
+   }
+
+   /**
+    * Walks the keys in a random order, each benchmark thread starting from a different position.
+    */
+   @State(Scope.Thread)
+   public static class Index {
+      private int index = ThreadLocalRandom.current().nextInt();
+
+      public int next(int count) {
+         // Stepping by the golden ratio spreads consecutive calls over the whole key range
+         index += 0x9E3779B9;
+         return (index & Integer.MAX_VALUE) % count;
+      }
+   }
+}
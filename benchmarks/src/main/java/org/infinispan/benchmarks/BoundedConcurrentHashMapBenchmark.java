@@ -0,0 +1,87 @@
+package org.infinispan.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.EvictionListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the eviction policies of {@link BoundedEquivalentConcurrentHashMapV8}. The keys outnumber the capacity of
+ * the map, so that writes keep evicting entries and reads miss with a probability of about {@code 1 - maxSize/keyCount}.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoundedConcurrentHashMapBenchmark {
+
+   @Param({"LRU", "LIRS"})
+   Eviction eviction;
+
+   @Param("50000")
+   int maxSize;
+
+   @Param("100000")
+   int keyCount;
+
+   private BoundedEquivalentConcurrentHashMapV8<String, String> map;
+   private String[] keys;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      map = new BoundedEquivalentConcurrentHashMapV8<>(maxSize, eviction, new NoopEvictionListener<>(),
+            AnyEquivalence.getInstance(), AnyEquivalence.getInstance());
+      keys = BenchmarkKeys.strings(keyCount);
+      for (String key : keys) {
+         map.put(key, key);
+      }
+   }
+
+   @Benchmark
+   public String get(BenchmarkKeys.Index index) {
+      return map.get(keys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public String put(BenchmarkKeys.Index index) {
+      String key = keys[index.next(keyCount)];
+      return map.put(key, key);
+   }
+
+   private static class NoopEvictionListener<K, V> implements EvictionListener<K, V> {
+      @Override
+      public void onEntryEviction(Map<K, V> evicted) {
+      }
+
+      @Override
+      public void onEntryChosenForEviction(Map.Entry<K, V> entry) {
+      }
+
+      @Override
+      public void onEntryActivated(Object key) {
+      }
+
+      @Override
+      public void onEntryRemoved(Map.Entry<K, V> entry) {
+      }
+   }
+}
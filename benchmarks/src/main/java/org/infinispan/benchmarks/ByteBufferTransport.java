@@ -0,0 +1,125 @@
+package org.infinispan.benchmarks;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.commons.io.SignedNumeric;
+import org.infinispan.commons.io.UnsignedNumeric;
+
+/**
+ * A Hot Rod client transport over a heap {@link ByteBuffer}, so that the codec can be measured without a server.
+ * Requests are encoded into the buffer, and responses are decoded from it.
+ *
+ * @since 9.0
+ */
+public class ByteBufferTransport extends AbstractTransport {
+
+   private static final SocketAddress ADDRESS = InetSocketAddress.createUnresolved("localhost", 11222);
+
+   private final ByteBuffer buffer;
+
+   public ByteBufferTransport(int capacity) {
+      super(null);
+      this.buffer = ByteBuffer.allocate(capacity);
+   }
+
+   /**
+    * Discards the contents of the buffer, so that it can be written from the start.
+    */
+   public void clear() {
+      buffer.clear();
+   }
+
+   /**
+    * Replaces the contents of the buffer with the given bytes, so that they can be read from the start.
+    */
+   public void reset(byte[] contents) {
+      buffer.clear();
+      buffer.put(contents);
+      buffer.flip();
+   }
+
+   /**
+    * @return the bytes written since the buffer was last cleared
+    */
+   public byte[] toByteArray() {
+      return Arrays.copyOf(buffer.array(), buffer.position());
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      buffer.put((byte) toWrite);
+   }
+
+   @Override
+   public void writeVInt(int vint) {
+      UnsignedNumeric.writeUnsignedInt(buffer, vint);
+   }
+
+   @Override
+   public void writeSignedVInt(int toWrite) {
+      UnsignedNumeric.writeUnsignedInt(buffer, SignedNumeric.encode(toWrite));
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      UnsignedNumeric.writeUnsignedLong(buffer, l);
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      buffer.put(toAppend);
+   }
+
+   @Override
+   public long readVLong() {
+      return UnsignedNumeric.readUnsignedLong(buffer);
+   }
+
+   @Override
+   public int readVInt() {
+      return UnsignedNumeric.readUnsignedInt(buffer);
+   }
+
+   @Override
+   public short readByte() {
+      return (short) (buffer.get() & 0xFF);
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      byte[] bytes = new byte[size];
+      buffer.get(bytes);
+      return bytes;
+   }
+
+   @Override
+   public void flush() {
+   }
+
+   @Override
+   public void release() {
+   }
+
+   @Override
+   public byte[] dumpStream() {
+      return toByteArray();
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return ADDRESS;
+   }
+
+   @Override
+   public void invalidate() {
+   }
+
+   @Override
+   public boolean isValid() {
+      return true;
+   }
+}
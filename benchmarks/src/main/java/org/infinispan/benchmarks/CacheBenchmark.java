@@ -0,0 +1,75 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Cache#put(Object, Object)} and {@link Cache#get(Object)} on a local cache. A regular cache
+ * invokes every operation through the interceptor chain, while a simple cache goes straight to the data container,
+ * so comparing the two gives the cost of the chain itself.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+
+   @Param({"false", "true"})
+   boolean simpleCache;
+
+   @Param("100000")
+   int keyCount;
+
+   private EmbeddedCacheManager cacheManager;
+   private Cache<String, String> cache;
+   private String[] keys;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.simpleCache(simpleCache);
+      cacheManager = new DefaultCacheManager(builder.build());
+      cache = cacheManager.getCache();
+      keys = BenchmarkKeys.strings(keyCount);
+      for (String key : keys) {
+         cache.put(key, key);
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public String get(BenchmarkKeys.Index index) {
+      return cache.get(keys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public String put(BenchmarkKeys.Index index) {
+      String key = keys[index.next(keyCount)];
+      return cache.put(key, key);
+   }
+}
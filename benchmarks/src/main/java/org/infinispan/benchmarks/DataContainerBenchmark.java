@@ -0,0 +1,111 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.DefaultSegmentedDataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.EvictionStrategy;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link DataContainer} implementations directly, without the interceptor chain.
+ * <p>
+ * The containers are the ones created for a local cache with the matching configuration, except for the segmented
+ * container which is only used by clustered caches: that one is created here and wired with the components of the
+ * local cache.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataContainerBenchmark {
+
+   public enum ContainerType {
+      DEFAULT, BOUNDED, SEGMENTED, OFF_HEAP
+   }
+
+   @Param({"DEFAULT", "BOUNDED", "SEGMENTED", "OFF_HEAP"})
+   ContainerType containerType;
+
+   @Param("100000")
+   int keyCount;
+
+   private EmbeddedCacheManager cacheManager;
+   private DataContainer<Object, Object> container;
+   private Metadata metadata;
+   private String[] keys;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      if (containerType == ContainerType.BOUNDED) {
+         // Large enough to keep all the keys, so that only the bookkeeping of the eviction policy is measured
+         builder.eviction().strategy(EvictionStrategy.LRU).size(2L * keyCount);
+      } else if (containerType == ContainerType.OFF_HEAP) {
+         builder.memory().storageType(StorageType.OFF_HEAP);
+      }
+      cacheManager = new DefaultCacheManager(builder.build());
+      Cache<Object, Object> cache = cacheManager.getCache();
+      if (containerType == ContainerType.SEGMENTED) {
+         DefaultSegmentedDataContainer<Object, Object> segmented = new DefaultSegmentedDataContainer<>(
+               cache.getCacheConfiguration().clustering().hash().numSegments(),
+               cache.getCacheConfiguration().locking().concurrencyLevel(), AnyEquivalence.getInstance());
+         cache.getAdvancedCache().getComponentRegistry().wireDependencies(segmented);
+         container = segmented;
+      } else {
+         container = cache.getAdvancedCache().getDataContainer();
+      }
+      metadata = new EmbeddedMetadata.Builder().build();
+      keys = BenchmarkKeys.strings(keyCount);
+      for (String key : keys) {
+         container.put(key, key, metadata);
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      container.clear();
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public InternalCacheEntry<Object, Object> get(BenchmarkKeys.Index index) {
+      return container.get(keys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public InternalCacheEntry<Object, Object> peek(BenchmarkKeys.Index index) {
+      return container.peek(keys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public void put(BenchmarkKeys.Index index) {
+      String key = keys[index.next(keyCount)];
+      container.put(key, key, metadata);
+   }
+}
@@ -0,0 +1,90 @@
+package org.infinispan.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.distribution.ch.impl.DefaultConsistentHashFactory;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.jgroups.JGroupsAddress;
+import org.jgroups.util.UUID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link MurmurHash3} and the lookup of the owners of a key in a {@link ConsistentHash}, which are on the path
+ * of every operation in a clustered cache.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashBenchmark {
+
+   @Param("10000")
+   int keyCount;
+
+   @Param("32")
+   int keySize;
+
+   @Param("8")
+   int members;
+
+   @Param("2")
+   int numOwners;
+
+   @Param("256")
+   int numSegments;
+
+   private final MurmurHash3 hash = MurmurHash3.getInstance();
+   private ConsistentHash consistentHash;
+   private String[] keys;
+   private byte[][] byteArrayKeys;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      List<Address> addresses = new ArrayList<>(members);
+      for (int i = 0; i < members; i++) {
+         addresses.add(new JGroupsAddress(UUID.randomUUID()));
+      }
+      consistentHash = new DefaultConsistentHashFactory().create(hash, numOwners, numSegments, addresses, null);
+      keys = BenchmarkKeys.strings(keyCount);
+      byteArrayKeys = BenchmarkKeys.byteArrays(keyCount, keySize);
+   }
+
+   @Benchmark
+   public int murmurHash3Bytes(BenchmarkKeys.Index index) {
+      return hash.hash(byteArrayKeys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public int murmurHash3Object(BenchmarkKeys.Index index) {
+      return hash.hash(keys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public List<Address> locateOwners(BenchmarkKeys.Index index) {
+      return consistentHash.locateOwners(keys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public Address locatePrimaryOwner(BenchmarkKeys.Index index) {
+      return consistentHash.locatePrimaryOwner(keys[index.next(keyCount)]);
+   }
+}
@@ -0,0 +1,97 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.client.hotrod.impl.ConfigurationProperties;
+import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.CodecFactory;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the Hot Rod client codec: encoding a put request and decoding a get response, with the keys and values
+ * already marshalled. The bytes go through a {@link ByteBufferTransport}, so no server is needed.
+ *
+ * @since 9.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotRodCodecBenchmark {
+
+   @Param({ConfigurationProperties.PROTOCOL_VERSION_25, ConfigurationProperties.PROTOCOL_VERSION_20})
+   String protocolVersion;
+
+   @Param("32")
+   int keySize;
+
+   @Param("256")
+   int valueSize;
+
+   private final AtomicInteger topologyId = new AtomicInteger();
+   private Codec codec;
+   private byte[] cacheName;
+   private byte[] key;
+   private byte[] value;
+   private byte[] getResponse;
+   private ByteBufferTransport transport;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      codec = CodecFactory.getCodec(protocolVersion);
+      cacheName = "default".getBytes(HotRodConstants.HOTROD_STRING_CHARSET);
+      key = new byte[keySize];
+      value = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(key);
+      ThreadLocalRandom.current().nextBytes(value);
+      transport = new ByteBufferTransport(keySize + valueSize + 256);
+
+      // A message id of 0 is accepted for any request
+      transport.writeByte(HotRodConstants.RESPONSE_MAGIC);
+      transport.writeVLong(0);
+      transport.writeByte(HotRodConstants.GET_RESPONSE);
+      transport.writeByte(HotRodConstants.NO_ERROR_STATUS);
+      transport.writeByte((short) 0); // no topology change
+      transport.writeArray(value);
+      getResponse = transport.toByteArray();
+   }
+
+   private HeaderParams headerParams(short opCode) {
+      return new HeaderParams().opCode(opCode).cacheName(cacheName).flags(0)
+            .clientIntel(HotRodConstants.CLIENT_INTELLIGENCE_BASIC).topologyId(topologyId);
+   }
+
+   @Benchmark
+   public ByteBufferTransport encodePut() {
+      transport.clear();
+      codec.writeHeader(transport, headerParams(HotRodConstants.PUT_REQUEST));
+      transport.writeArray(key);
+      codec.writeExpirationParams(transport, -1, TimeUnit.SECONDS, -1, TimeUnit.SECONDS);
+      transport.writeArray(value);
+      return transport;
+   }
+
+   @Benchmark
+   public byte[] decodeGet() {
+      transport.reset(getResponse);
+      short status = codec.readHeader(transport, headerParams(HotRodConstants.GET_REQUEST));
+      return HotRodConstants.isSuccess(status) ? transport.readArray() : null;
+   }
+}
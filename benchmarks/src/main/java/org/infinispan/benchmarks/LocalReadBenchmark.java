@@ -0,0 +1,86 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures hits and misses of {@link Cache#get(Object)} on a local, non-transactional cache, which go through the
+ * whole interceptor chain while reusing the same invocation context and command on each thread.
+ * <p>
+ * Run it with the GC profiler, {@code -prof gc}, to get the bytes allocated per read in
+ * {@code gc.alloc.rate.norm}. Without statistics the reads should not allocate anything, so it should stay close
+ * to 0 with both isolation levels. With statistics enabled each read still allocates the return handler that
+ * records its duration. {@code LocalReadReuseTest} checks the allocations of the reads without statistics.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalReadBenchmark {
+
+   @Param({"READ_COMMITTED", "REPEATABLE_READ"})
+   IsolationLevel isolationLevel;
+
+   @Param({"false", "true"})
+   boolean statistics;
+
+   @Param("100000")
+   int keyCount;
+
+   private EmbeddedCacheManager cacheManager;
+   private Cache<String, String> cache;
+   private String[] keys;
+   private String[] missingKeys;
+
+   @Setup(Level.Trial)
+   public void setUp() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.locking().isolationLevel(isolationLevel);
+      builder.jmxStatistics().enabled(statistics);
+      cacheManager = new DefaultCacheManager(builder.build());
+      cache = cacheManager.getCache();
+      keys = BenchmarkKeys.strings(keyCount);
+      missingKeys = BenchmarkKeys.strings(2 * keyCount);
+      for (String key : keys) {
+         cache.put(key, key);
+      }
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public String hit(BenchmarkKeys.Index index) {
+      return cache.get(keys[index.next(keyCount)]);
+   }
+
+   @Benchmark
+   public String miss(BenchmarkKeys.Index index) {
+      // The second half of the keys is never put in the cache
+      return cache.get(missingKeys[keyCount + index.next(keyCount)]);
+   }
+}
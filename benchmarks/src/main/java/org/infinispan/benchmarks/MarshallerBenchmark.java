@@ -0,0 +1,94 @@
+package org.infinispan.benchmarks;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.entries.ImmortalCacheEntry;
+import org.infinispan.factories.KnownComponentNames;
+import org.infinispan.manager.DefaultCacheManager;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures round trips through the global marshaller, for a plain string, a byte array and an internal cache entry,
+ * which is written by one of the internal externalizers.
+ *
+ * @since 9.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MarshallerBenchmark {
+
+   public enum Payload {
+      STRING, BYTE_ARRAY, CACHE_ENTRY
+   }
+
+   @Param({"STRING", "BYTE_ARRAY", "CACHE_ENTRY"})
+   Payload payload;
+
+   @Param("256")
+   int size;
+
+   private EmbeddedCacheManager cacheManager;
+   private StreamingMarshaller marshaller;
+   private Object object;
+   private byte[] bytes;
+
+   @Setup(Level.Trial)
+   public void setUp() throws Exception {
+      cacheManager = new DefaultCacheManager();
+      marshaller = cacheManager.getGlobalComponentRegistry().getComponent(StreamingMarshaller.class,
+            KnownComponentNames.GLOBAL_MARSHALLER);
+      byte[] value = new byte[size];
+      ThreadLocalRandom.current().nextBytes(value);
+      switch (payload) {
+         case STRING:
+            object = new String(new char[size]).replace('\0', 'x');
+            break;
+         case BYTE_ARRAY:
+            object = value;
+            break;
+         case CACHE_ENTRY:
+            object = new ImmortalCacheEntry("key", value);
+            break;
+      }
+      bytes = marshaller.objectToByteBuffer(object);
+   }
+
+   @TearDown(Level.Trial)
+   public void tearDown() {
+      cacheManager.stop();
+   }
+
+   @Benchmark
+   public byte[] marshall() throws Exception {
+      return marshaller.objectToByteBuffer(object);
+   }
+
+   @Benchmark
+   public Object unmarshall() throws Exception {
+      return marshaller.objectFromByteBuffer(bytes);
+   }
+
+   @Benchmark
+   public Object roundTrip() throws Exception {
+      return marshaller.objectFromByteBuffer(marshaller.objectToByteBuffer(object));
+   }
+}
@@ -35,6 +35,11 @@ public ConfigurationBuilder addServers(String servers) {
       return builder.addServers(servers);
    }
 
+   @Override
+   public ConfigurationBuilder preferredServers(String servers) {
+      return builder.preferredServers(servers);
+   }
+
    @Override
    public ExecutorFactoryConfigurationBuilder asyncExecutorFactory() {
       return builder.asyncExecutorFactory();
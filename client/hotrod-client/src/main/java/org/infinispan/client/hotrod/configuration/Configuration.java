@@ -252,6 +252,7 @@ public Properties properties() {
       properties.setProperty("testOnBorrow", Boolean.toString(connectionPool().testOnBorrow()));
       properties.setProperty("testOnReturn", Boolean.toString(connectionPool().testOnReturn()));
       properties.setProperty("testWhileIdle", Boolean.toString(connectionPool().testWhileIdle()));
+      properties.setProperty("pipelinedConnections", Integer.toString(connectionPool().pipelinedConnections()));
 
       StringBuilder servers = new StringBuilder();
       for(ServerConfiguration server : servers()) {
@@ -262,6 +263,19 @@ public Properties properties() {
       }
       properties.setProperty(ConfigurationProperties.SERVER_LIST, servers.toString());
 
+      StringBuilder preferredServers = new StringBuilder();
+      for(ServerConfiguration server : servers()) {
+         if (server.preferredForReads()) {
+            if (preferredServers.length() > 0) {
+               preferredServers.append(";");
+            }
+            preferredServers.append(server.host()).append(":").append(server.port());
+         }
+      }
+      if (preferredServers.length() > 0) {
+         properties.setProperty(ConfigurationProperties.PREFERRED_SERVER_LIST, preferredServers.toString());
+      }
+
       properties.setProperty(ConfigurationProperties.USE_SSL, Boolean.toString(security.ssl().enabled()));
 
       if (security.ssl().keyStoreFileName() != null)
@@ -6,6 +6,7 @@
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -94,6 +95,23 @@ public ClusterConfigurationBuilder addCluster(String clusterName) {
 
    @Override
    public ConfigurationBuilder addServers(String servers) {
+      parseServers(servers, (host, port) -> this.addServer().host(host).port(port));
+      return this;
+   }
+
+   @Override
+   public ConfigurationBuilder preferredServers(String servers) {
+      parseServers(servers, (host, port) -> {
+         ServerConfigurationBuilder server = findServer(host, port);
+         if (server == null) {
+            server = this.addServer().host(host).port(port);
+         }
+         server.preferredForReads(true);
+      });
+      return this;
+   }
+
+   private void parseServers(String servers, BiConsumer<String, Integer> consumer) {
       for (String server : servers.split(";")) {
          Matcher matcher = ADDRESS_PATTERN.matcher(server.trim());
          if (matcher.matches()) {
@@ -104,13 +122,21 @@ public ConfigurationBuilder addServers(String servers) {
             int port = portString == null
                   ? ConfigurationProperties.DEFAULT_HOTROD_PORT
                   : Integer.parseInt(portString);
-            this.addServer().host(host).port(port);
+            consumer.accept(host, port);
          } else {
             throw log.parseErrorServerAddress(server);
          }
 
       }
-      return this;
+   }
+
+   private ServerConfigurationBuilder findServer(String host, int port) {
+      for (ServerConfigurationBuilder server : servers) {
+         if (server.host().equals(host) && server.port() == port) {
+            return server;
+         }
+      }
+      return null;
    }
 
    @Override
@@ -294,6 +320,9 @@ public ConfigurationBuilder withProperties(Properties properties) {
       this.protocolVersion(typed.getProperty(ConfigurationProperties.PROTOCOL_VERSION, protocolVersion));
       this.servers.clear();
       this.addServers(typed.getProperty(ConfigurationProperties.SERVER_LIST, ""));
+      if (typed.containsKey(ConfigurationProperties.PREFERRED_SERVER_LIST)) {
+         this.preferredServers(typed.getProperty(ConfigurationProperties.PREFERRED_SERVER_LIST));
+      }
       this.socketTimeout(typed.getIntProperty(ConfigurationProperties.SO_TIMEOUT, socketTimeout));
       this.tcpNoDelay(typed.getBooleanProperty(ConfigurationProperties.TCP_NO_DELAY, tcpNoDelay));
       this.tcpKeepAlive(typed.getBooleanProperty(ConfigurationProperties.TCP_KEEP_ALIVE, tcpKeepAlive));
@@ -379,7 +408,7 @@ public ConfigurationBuilder read(Configuration template) {
       this.protocolVersion = template.protocolVersion();
       this.servers.clear();
       for (ServerConfiguration server : template.servers()) {
-         this.addServer().host(server.host()).port(server.port());
+         this.addServer().host(server.host()).port(server.port()).preferredForReads(server.preferredForReads());
       }
       this.socketTimeout = template.socketTimeout();
       this.security.read(template.security());
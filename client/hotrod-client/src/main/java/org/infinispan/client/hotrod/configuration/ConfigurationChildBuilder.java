@@ -31,6 +31,12 @@ public interface ConfigurationChildBuilder {
     */
    ConfigurationBuilder addServers(String servers);
 
+   /**
+    * Marks a list of remote servers, in the form: host1[:port][;host2[:port]]..., as preferred for reads, adding the
+    * ones that were not added yet. See {@link ServerConfigurationBuilder#preferredForReads(boolean)}.
+    */
+   ConfigurationBuilder preferredServers(String servers);
+
    /**
     * Configuration for the executor service used for asynchronous work on the Transport, including
     * asynchronous marshalling and Cache 'async operations' such as Cache.putAsync().
@@ -26,6 +26,7 @@ public class ConnectionPoolConfigurationBuilder extends AbstractConfigurationChi
    private boolean testOnBorrow = false;
    private boolean testOnReturn = false;
    private boolean testWhileIdle = true;
+   private int pipelinedConnections = 0;
 
    ConnectionPoolConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -168,6 +169,19 @@ public ConnectionPoolConfigurationBuilder testWhileIdle(boolean testWhileIdle) {
       return this;
    }
 
+   /**
+    * Sets the number of connections per server on which single key operations are pipelined, i.e. sent without
+    * waiting for the responses of the previous requests, which are matched to their requests using the message id.
+    * Pipelined connections are non-blocking, so asynchronous operations complete as soon as their response is
+    * received instead of occupying a thread of the async executor. When non-positive, pipelining is disabled and all
+    * operations use the connections of the pool. Pipelining is not used when authentication is enabled. The default
+    * setting for this parameter is 0.
+    */
+   public ConnectionPoolConfigurationBuilder pipelinedConnections(int pipelinedConnections) {
+      this.pipelinedConnections = pipelinedConnections;
+      return this;
+   }
+
    /**
     * Configures the connection pool parameter according to properties
     */
@@ -186,6 +200,7 @@ public ConnectionPoolConfigurationBuilder withPoolProperties(Properties properti
       testOnBorrow(typed.getBooleanProperty("testOnBorrow", testOnBorrow));
       testOnReturn(typed.getBooleanProperty("testOnReturn", testOnReturn));
       testWhileIdle(typed.getBooleanProperty("testWhileIdle", testWhileIdle));
+      pipelinedConnections(typed.getIntProperty("pipelinedConnections", pipelinedConnections));
       return this;
    }
 
@@ -196,7 +211,7 @@ public void validate() {
    @Override
    public ConnectionPoolConfiguration create() {
       return new ConnectionPoolConfiguration(exhaustedAction, lifo, maxActive, maxTotal, maxWait, maxIdle, minIdle, numTestsPerEvictionRun, timeBetweenEvictionRuns,
-            minEvictableIdleTime, testOnBorrow, testOnReturn, testWhileIdle);
+            minEvictableIdleTime, testOnBorrow, testOnReturn, testWhileIdle, pipelinedConnections);
    }
 
    @Override
@@ -214,6 +229,7 @@ public ConnectionPoolConfigurationBuilder read(ConnectionPoolConfiguration templ
       testOnBorrow = template.testOnBorrow();
       testOnReturn = template.testOnReturn();
       testWhileIdle = template.testWhileIdle();
+      pipelinedConnections = template.pipelinedConnections();
       return this;
    }
 
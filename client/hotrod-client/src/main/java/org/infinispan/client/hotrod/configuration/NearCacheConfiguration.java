@@ -4,16 +4,32 @@ public class NearCacheConfiguration {
    // TODO: Consider an option to configure key equivalence function for near cache (e.g. for byte arrays)
    private final NearCacheMode mode;
    private final int maxEntries;
+   private final long maxBytes;
+   private final boolean bloomFilter;
 
    public NearCacheConfiguration(NearCacheMode mode, int maxEntries) {
+      this(mode, maxEntries, -1, false);
+   }
+
+   public NearCacheConfiguration(NearCacheMode mode, int maxEntries, long maxBytes, boolean bloomFilter) {
       this.mode = mode;
       this.maxEntries = maxEntries;
+      this.maxBytes = maxBytes;
+      this.bloomFilter = bloomFilter;
    }
 
    public int maxEntries() {
       return maxEntries;
    }
 
+   public long maxBytes() {
+      return maxBytes;
+   }
+
+   public boolean bloomFilter() {
+      return bloomFilter;
+   }
+
    public NearCacheMode mode() {
       return mode;
    }
@@ -23,6 +39,8 @@ public String toString() {
       return "NearCacheConfiguration{" +
             "mode=" + mode +
             ", maxEntries=" + maxEntries +
+            ", maxBytes=" + maxBytes +
+            ", bloomFilter=" + bloomFilter +
             '}';
    }
 }
@@ -10,6 +10,8 @@ public class NearCacheConfigurationBuilder extends AbstractConfigurationChildBui
 
    private NearCacheMode mode = NearCacheMode.DISABLED;
    private Integer maxEntries = null; // undefined
+   private long maxBytes = -1;
+   private boolean bloomFilter = false;
 
    protected NearCacheConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -20,6 +22,29 @@ public NearCacheConfigurationBuilder maxEntries(int maxEntries) {
       return this;
    }
 
+   /**
+    * Bounds the near cache by the approximate memory used by its entries instead of, or on top of, their number. The
+    * size of an entry is estimated from its marshalled key and value, so it is measured once, when it is stored.
+    * Entries are evicted in least recently used order. Defaults to -1, unbounded.
+    */
+   public NearCacheConfigurationBuilder maxBytes(long maxBytes) {
+      this.maxBytes = maxBytes;
+      return this;
+   }
+
+   /**
+    * Enables sending a Bloom filter of the near cached keys to the server, so that it only sends the invalidations
+    * of keys that this client may have cached, instead of those of every key in the cache. Defaults to false.
+    * <p>
+    * The filter is sent when the client listener is registered, so keys are only near cached once a filter that
+    * contains them has been registered. New keys are collected and a new filter is registered whenever they reach a
+    * sixteenth of {@link #maxEntries(int)}, which makes the first reads of a key go to the server.
+    */
+   public NearCacheConfigurationBuilder bloomFilter(boolean enable) {
+      this.bloomFilter = enable;
+      return this;
+   }
+
    public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
       this.mode = mode;
       return this;
@@ -27,19 +52,21 @@ public NearCacheConfigurationBuilder mode(NearCacheMode mode) {
 
    @Override
    public void validate() {
-      if (mode.enabled() && maxEntries == null)
+      if (mode.enabled() && maxEntries == null && maxBytes <= 0)
          throw log.nearCacheMaxEntriesUndefined();
    }
 
    @Override
    public NearCacheConfiguration create() {
-      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries.intValue());
+      return new NearCacheConfiguration(mode, maxEntries == null ? -1 : maxEntries.intValue(), maxBytes, bloomFilter);
    }
 
    @Override
    public Builder<?> read(NearCacheConfiguration template) {
       mode = template.mode();
       maxEntries = template.maxEntries();
+      maxBytes = template.maxBytes();
+      bloomFilter = template.bloomFilter();
       return this;
    }
 }
@@ -9,10 +9,16 @@
 public class ServerConfiguration {
    private final String host;
    private final int port;
+   private final boolean preferredForReads;
 
    ServerConfiguration(String host, int port) {
+      this(host, port, false);
+   }
+
+   ServerConfiguration(String host, int port, boolean preferredForReads) {
       this.host = host;
       this.port = port;
+      this.preferredForReads = preferredForReads;
    }
 
    public String host() {
@@ -23,4 +29,8 @@ public int port() {
       return port;
    }
 
+   public boolean preferredForReads() {
+      return preferredForReads;
+   }
+
 }
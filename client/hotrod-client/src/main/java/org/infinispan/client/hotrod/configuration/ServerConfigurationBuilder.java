@@ -16,6 +16,7 @@ public class ServerConfigurationBuilder extends AbstractConfigurationChildBuilde
 
    private String host;
    private int port = 11222;
+   private boolean preferredForReads;
 
    ServerConfigurationBuilder(ConfigurationBuilder builder) {
       super(builder);
@@ -31,6 +32,24 @@ public ServerConfigurationBuilder port(int port) {
       return this;
    }
 
+   /**
+    * Marks the server as close to the client, e.g. in the same availability zone. Reads of a key are sent to an owner
+    * of the key that is marked as preferred, if there is one, instead of the primary owner. Writes always go to the
+    * primary owner. Defaults to {@code false}.
+    */
+   public ServerConfigurationBuilder preferredForReads(boolean preferredForReads) {
+      this.preferredForReads = preferredForReads;
+      return this;
+   }
+
+   String host() {
+      return host;
+   }
+
+   int port() {
+      return port;
+   }
+
    @Override
    public void validate() {
       if (host == null || host.isEmpty()) {
@@ -40,13 +59,14 @@ public void validate() {
 
    @Override
    public ServerConfiguration create() {
-      return new ServerConfiguration(host, port);
+      return new ServerConfiguration(host, port, preferredForReads);
    }
 
    @Override
    public ServerConfigurationBuilder read(ServerConfiguration template) {
       this.host = template.host();
       this.port = template.port();
+      this.preferredForReads = template.preferredForReads();
 
       return this;
    }
@@ -19,6 +19,7 @@
 public class ConfigurationProperties {
    public static final String TRANSPORT_FACTORY = "infinispan.client.hotrod.transport_factory";
    public static final String SERVER_LIST = "infinispan.client.hotrod.server_list";
+   public static final String PREFERRED_SERVER_LIST = "infinispan.client.hotrod.preferred_server_list";
    public static final String MARSHALLER = "infinispan.client.hotrod.marshaller";
    public static final String ASYNC_EXECUTOR_FACTORY = "infinispan.client.hotrod.async_executor_factory";
    public static final String DEFAULT_EXECUTOR_FACTORY_POOL_SIZE = "infinispan.client.hotrod.default_executor_factory.pool_size";
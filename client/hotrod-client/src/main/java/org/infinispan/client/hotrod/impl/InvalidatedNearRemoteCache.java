@@ -93,6 +93,15 @@ public void clear() {
       nearcache.clear(); // Clear near cache too
    }
 
+   /**
+    * The near cache is read and invalidated by the synchronous operations, so the async operations must go through
+    * them.
+    */
+   @Override
+   protected boolean pipelineAsyncOperations() {
+      return false;
+   }
+
    @SuppressWarnings("unchecked")
    void invalidateNearCacheIfNeeded(boolean hasForceReturnValue, Object key, Object prev) {
       if (!hasForceReturnValue || prev != null)
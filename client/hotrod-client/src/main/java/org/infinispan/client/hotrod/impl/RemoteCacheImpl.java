@@ -13,6 +13,7 @@
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 import org.infinispan.client.hotrod.CacheTopologyInfo;
 import org.infinispan.client.hotrod.Flag;
@@ -27,6 +28,7 @@
 import org.infinispan.client.hotrod.exceptions.RemoteCacheManagerNotStartedException;
 import org.infinispan.client.hotrod.filter.Filters;
 import org.infinispan.client.hotrod.impl.iteration.RemoteCloseableIterator;
+import org.infinispan.client.hotrod.impl.operations.AbstractKeyOperation;
 import org.infinispan.client.hotrod.impl.operations.AddClientListenerOperation;
 import org.infinispan.client.hotrod.impl.operations.BulkGetKeysOperation;
 import org.infinispan.client.hotrod.impl.operations.BulkGetOperation;
@@ -112,6 +114,11 @@ public boolean removeWithVersion(K key, long version) {
    @Override
    public CompletableFuture<Boolean> removeWithVersionAsync(final K key, final long version) {
       assertRemoteCacheManagerIsStarted();
+      if (pipelineAsyncOperations()) {
+         RemoveIfUnmodifiedOperation<V> op = operationsFactory.newRemoveIfUnmodifiedOperation(
+            compatKeyIfNeeded(key), obj2bytes(key, true), version);
+         return executeAsync(op).thenApply(response -> response.getCode().isUpdated());
+      }
       return CompletableFuture.supplyAsync(() -> removeWithVersion(key, version), executorService);
    }
 
@@ -132,6 +139,11 @@ public boolean replaceWithVersion(K key, V newValue, long version, long lifespan
    @Override
    public CompletableFuture<Boolean> replaceWithVersionAsync(final K key, final V newValue, final long version, final int lifespanSeconds, final int maxIdleSeconds) {
       assertRemoteCacheManagerIsStarted();
+      if (pipelineAsyncOperations()) {
+         ReplaceIfUnmodifiedOperation op = operationsFactory.newReplaceIfUnmodifiedOperation(
+            compatKeyIfNeeded(key), obj2bytes(key, true), obj2bytes(newValue, false), lifespanSeconds, TimeUnit.SECONDS, maxIdleSeconds, TimeUnit.SECONDS, version);
+         return executeAsync(op).thenApply(response -> response.getCode().isUpdated());
+      }
       return CompletableFuture.supplyAsync(() ->
               replaceWithVersion(key, newValue, version, lifespanSeconds, maxIdleSeconds), executorService);
    }
@@ -290,6 +302,10 @@ public V replace(K key, V value, long lifespan, TimeUnit lifespanUnit, long maxI
    @Override
    public CompletableFuture<V> putAsync(final K key, final V value, final long lifespan, final TimeUnit lifespanUnit, final long maxIdle, final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (pipelineAsyncOperations()) {
+         return executeAsync(operationsFactory.newPutKeyValueOperation(compatKeyIfNeeded(key),
+            obj2bytes(key, true), obj2bytes(value, false), lifespan, lifespanUnit, maxIdle, maxIdleUnit));
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -307,6 +323,10 @@ public CompletableFuture<Void> clearAsync() {
    @Override
    public CompletableFuture<V> putIfAbsentAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (pipelineAsyncOperations()) {
+         return executeAsync(operationsFactory.newPutIfAbsentOperation(compatKeyIfNeeded(key),
+            obj2bytes(key, true), obj2bytes(value, false), lifespan, lifespanUnit, maxIdle, maxIdleUnit));
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -318,6 +338,9 @@ public CompletableFuture<V> putIfAbsentAsync(final K key,final V value,final lon
    @Override
    public CompletableFuture<V> removeAsync(final Object key) {
       assertRemoteCacheManagerIsStarted();
+      if (pipelineAsyncOperations()) {
+         return executeAsync(operationsFactory.newRemoveOperation(compatKeyIfNeeded(key), obj2bytes(key, true)));
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -329,6 +352,10 @@ public CompletableFuture<V> removeAsync(final Object key) {
    @Override
    public CompletableFuture<V> replaceAsync(final K key,final V value,final long lifespan,final TimeUnit lifespanUnit,final long maxIdle,final TimeUnit maxIdleUnit) {
       assertRemoteCacheManagerIsStarted();
+      if (pipelineAsyncOperations()) {
+         return executeAsync(operationsFactory.newReplaceOperation(compatKeyIfNeeded(key),
+            obj2bytes(key, true), obj2bytes(value, false), lifespan, lifespanUnit, maxIdle, maxIdleUnit));
+      }
       int flags = operationsFactory.flags();
       return CompletableFuture.supplyAsync(() -> {
          if (flags != 0)
@@ -482,9 +509,25 @@ public RemoteCache<K, V> withFlags(Flag... flags) {
    @Override
    public CompletableFuture<V> getAsync(final K key) {
       assertRemoteCacheManagerIsStarted();
+      if (pipelineAsyncOperations()) {
+         return executeAsync(operationsFactory.newGetKeyOperation(compatKeyIfNeeded(key), obj2bytes(key, true)));
+      }
       return CompletableFuture.supplyAsync(() -> get(key), executorService);
    }
 
+   /**
+    * @return {@code true} if the async single key operations should be pipelined by the transport instead of running
+    *         the synchronous operations in the async executor
+    */
+   protected boolean pipelineAsyncOperations() {
+      return operationsFactory.isPipelined();
+   }
+
+   private <T> CompletableFuture<T> executeAsync(AbstractKeyOperation<T> op) {
+      // Complete the returned future in the async executor, so that user callbacks don't run in the transport threads
+      return op.executeAsync().thenApplyAsync(Function.identity(), executorService);
+   }
+
    public PingOperation.PingResult ping() {
       return operationsFactory.newFaultTolerantPingOperation().execute();
    }
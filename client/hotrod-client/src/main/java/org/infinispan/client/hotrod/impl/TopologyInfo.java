@@ -94,11 +94,19 @@ public void updateTopology(SocketAddress[][] segmentOwners, int numSegments, sho
    }
 
    public Optional<SocketAddress> getHashAwareServer(Object key, byte[] cacheName) {
+      return getHashAwareServer(key, cacheName, Collections.emptySet());
+   }
+
+   /**
+    * Same as {@link #getHashAwareServer(Object, byte[])}, but prefers the owners of the key in {@code
+    * preferredServers} over the primary owner.
+    */
+   public Optional<SocketAddress> getHashAwareServer(Object key, byte[] cacheName, Set<SocketAddress> preferredServers) {
       Optional<SocketAddress> server = Optional.empty();
       if (isTopologyValid(cacheName)) {
          ConsistentHash consistentHash = consistentHashes.get(cacheName);
          if (consistentHash != null) {
-            server = Optional.of(consistentHash.getServer(key));
+            server = Optional.of(consistentHash.getServer(key, preferredServers));
             if (trace) {
                log.tracef("Using consistent hash for determining the server: " + server);
             }
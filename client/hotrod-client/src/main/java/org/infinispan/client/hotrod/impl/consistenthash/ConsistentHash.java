@@ -17,6 +17,14 @@ public interface ConsistentHash {
 
    SocketAddress getServer(Object key);
 
+   /**
+    * Returns the server to which a read of the key should be sent: an owner of the key that is in {@code
+    * preferredServers}, if the consistent hash knows about the backup owners, or {@link #getServer(Object)} otherwise.
+    */
+   default SocketAddress getServer(Object key, Set<SocketAddress> preferredServers) {
+      return getServer(key);
+   }
+
    /**
     * Computes hash code of a given object, and then normalizes it to ensure a positive
     * value is always returned.
@@ -50,6 +50,22 @@ public SocketAddress getServer(Object key) {
       return segmentOwners[segmentId][0];
    }
 
+   @Override
+   public SocketAddress getServer(Object key, Set<SocketAddress> preferredServers) {
+      if (preferredServers.isEmpty()) {
+         return getServer(key);
+      }
+      SocketAddress[] owners = segmentOwners[getSegment(key)];
+      for (SocketAddress owner : owners) {
+         if (preferredServers.contains(owner)) {
+            if (trace)
+               log.tracef("Using preferred owner %s for reading key %s", owner, Util.toStr(key));
+            return owner;
+         }
+      }
+      return owners[0];
+   }
+
    public int getSegment(Object key) {
       // The result must always be positive, so we make sure the dividend is positive first
       return getNormalizedHash(key) / segmentSize;
@@ -2,20 +2,32 @@
 
 import java.net.SocketAddress;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import net.jcip.annotations.Immutable;
+import org.infinispan.client.hotrod.exceptions.HotRodClientException;
+import org.infinispan.client.hotrod.exceptions.RemoteIllegalLifecycleStateException;
+import org.infinispan.client.hotrod.exceptions.RemoteNodeSuspectException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
 import org.infinispan.client.hotrod.impl.VersionedOperationResponse;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
 import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.PipelinedChannel;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.jboss.logging.BasicLogger;
 
 /**
  * Basic class for all hot rod operations that manipulate a key.
+ * <p>
+ * Subclasses write their request and read their response separately, so that when the {@link TransportFactory} is
+ * {@link TransportFactory#isPipelined() pipelined} the request can be sent on a {@link PipelinedChannel} and its
+ * response decoded whenever it arrives, without blocking a thread in between.
  *
  * @author Mircea.Markus@jboss.com
  * @since 4.1
@@ -38,20 +50,126 @@ protected AbstractKeyOperation(Codec codec, TransportFactory transportFactory,
    @Override
    protected Transport getTransport(int retryCount, Set<SocketAddress> failedServers) {
       if (retryCount == 0) {
-         return transportFactory.getTransport(key == null ? keyBytes : key, failedServers, cacheName);
+         Object routingKey = key == null ? keyBytes : key;
+         return isReadOnly() ? transportFactory.getReadTransport(routingKey, failedServers, cacheName) :
+               transportFactory.getTransport(routingKey, failedServers, cacheName);
       } else {
          return transportFactory.getTransport(failedServers, cacheName);
       }
    }
 
-   protected short sendKeyOperation(byte[] key, Transport transport, byte opCode, byte opRespCode) {
-      // 1) write [header][key length][key]
-      HeaderParams params = writeHeader(transport, opCode);
-      transport.writeArray(key);
+   @Override
+   public T execute() {
+      if (!transportFactory.isPipelined()) {
+         return super.execute();
+      }
+      try {
+         return executeAsync().get();
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new HotRodClientException(e);
+      } catch (ExecutionException e) {
+         if (e.getCause() instanceof RuntimeException) {
+            throw (RuntimeException) e.getCause();
+         }
+         throw new HotRodClientException(e.getCause());
+      }
+   }
+
+   /**
+    * Sends the request on a {@link PipelinedChannel}, so it does not wait for a pooled transport and does not block
+    * the invoking thread while waiting for the response. Failures are retried like in {@link #execute()}.
+    * <p>
+    * The returned future is completed by a Netty event loop thread, so dependent actions must not block.
+    */
+   public CompletableFuture<T> executeAsync() {
+      CompletableFuture<T> result = new CompletableFuture<>();
+      executeAsync(0, null, result);
+      return result;
+   }
+
+   private void executeAsync(int retryCount, Set<SocketAddress> failedServers, CompletableFuture<T> result) {
+      String currentClusterName = transportFactory.getCurrentClusterName();
+      CompletableFuture<T> attempt;
+      try {
+         Object routingKey = retryCount == 0 ? (key == null ? keyBytes : key) : null;
+         PipelinedChannel channel = isReadOnly() ?
+               transportFactory.getPipelinedReadChannel(routingKey, failedServers, cacheName) :
+               transportFactory.getPipelinedChannel(routingKey, failedServers, cacheName);
+         attempt = channel.send(this::writeRequest, this::readResponse);
+      } catch (RuntimeException e) {
+         attempt = new CompletableFuture<>();
+         attempt.completeExceptionally(e);
+      }
+      attempt.whenComplete((value, t) -> {
+         if (t == null) {
+            result.complete(value);
+            return;
+         }
+         Throwable cause = t instanceof CompletionException ? t.getCause() : t;
+         Set<SocketAddress> newFailedServers = failedServers;
+         int nextRetryCount;
+         try {
+            // Pipelined channels are shared, so they are only closed when the connection itself is broken
+            if (cause instanceof TransportException) {
+               TransportException te = (TransportException) cause;
+               newFailedServers = updateFailedServers(te.getServerAddress(), failedServers);
+               nextRetryCount = logTransportErrorAndThrowExceptionIfNeeded(retryCount, currentClusterName, te) + 1;
+            } else if (cause instanceof RemoteIllegalLifecycleStateException) {
+               RemoteIllegalLifecycleStateException e = (RemoteIllegalLifecycleStateException) cause;
+               newFailedServers = updateFailedServers(e.getServerAddress(), failedServers);
+               nextRetryCount = logTransportErrorAndThrowExceptionIfNeeded(retryCount, currentClusterName, e) + 1;
+            } else if (cause instanceof RemoteNodeSuspectException) {
+               logErrorAndThrowExceptionIfNeeded(retryCount, (RemoteNodeSuspectException) cause);
+               nextRetryCount = retryCount + 1;
+            } else {
+               result.completeExceptionally(cause);
+               return;
+            }
+         } catch (HotRodClientException e) {
+            result.completeExceptionally(e);
+            return;
+         }
+         if (shouldRetry(nextRetryCount)) {
+            executeAsync(nextRetryCount, newFailedServers, result);
+         } else {
+            result.completeExceptionally(cause);
+         }
+      });
+   }
+
+   @Override
+   protected T executeOperation(Transport transport) {
+      HeaderParams params = writeRequest(transport);
       transport.flush();
+      return readResponse(transport, params);
+   }
+
+   /**
+    * Writes the whole request, without flushing the transport.
+    *
+    * @return the parameters of the header, which must be passed to {@link #readResponse(Transport, HeaderParams)}
+    */
+   protected abstract HeaderParams writeRequest(Transport transport);
 
-      // 2) now read the header
-      return readHeaderAndValidate(transport, params);
+   /**
+    * Reads the whole response, header included, of a request written by {@link #writeRequest(Transport)}.
+    */
+   protected abstract T readResponse(Transport transport, HeaderParams params);
+
+   /**
+    * @return {@code true} if the operation only reads the key, so it can be sent to any owner of the key instead of
+    *       the primary owner.
+    */
+   protected boolean isReadOnly() {
+      return false;
+   }
+
+   //[header][key length][key]
+   protected HeaderParams writeKeyRequest(Transport transport, short opCode) {
+      HeaderParams params = writeHeader(transport, opCode);
+      transport.writeArray(keyBytes);
+      return params;
    }
 
    protected T returnPossiblePrevValue(Transport transport, short status) {
@@ -40,19 +40,10 @@ protected AbstractKeyValueOperation(Codec codec, TransportFactory transportFacto
    }
 
    //[header][key length][key][lifespan][max idle][value length][value]
-   protected short sendPutOperation(Transport transport, short opCode, byte opRespCode) {
-      // 1) write header
-      HeaderParams params = writeHeader(transport, opCode);
-
-      // 2) write key and value
-      transport.writeArray(keyBytes);
+   protected HeaderParams writeKeyValueRequest(Transport transport, short opCode) {
+      HeaderParams params = writeKeyRequest(transport, opCode);
       codec.writeExpirationParams(transport, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
       transport.writeArray(value);
-      transport.flush();
-
-      // 3) now read header
-
-      //return status (not error status for sure)
-      return readHeaderAndValidate(transport, params);
+      return params;
    }
 }
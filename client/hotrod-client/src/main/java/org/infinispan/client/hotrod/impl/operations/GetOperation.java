@@ -2,6 +2,7 @@
 
 import net.jcip.annotations.Immutable;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -23,9 +24,19 @@ public GetOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   public V executeOperation(Transport transport) {
+   protected boolean isReadOnly() {
+      return true;
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      return writeKeyRequest(transport, GET_REQUEST);
+   }
+
+   @Override
+   protected V readResponse(Transport transport, HeaderParams params) {
       V result = null;
-      short status = sendKeyOperation(keyBytes, transport, GET_REQUEST, GET_RESPONSE);
+      short status = readHeaderAndValidate(transport, params);
       if (HotRodConstants.isNotExist(status)) {
          result = null;
       } else {
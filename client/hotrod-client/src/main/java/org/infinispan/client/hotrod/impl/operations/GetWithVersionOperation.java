@@ -7,6 +7,7 @@
 import org.infinispan.client.hotrod.VersionedValue;
 import org.infinispan.client.hotrod.impl.VersionedValueImpl;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -33,8 +34,18 @@ public GetWithVersionOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   protected VersionedValue<V> executeOperation(Transport transport) {
-      short status = sendKeyOperation(keyBytes, transport, GET_WITH_VERSION, GET_WITH_VERSION_RESPONSE);
+   protected boolean isReadOnly() {
+      return true;
+   }
+
+   @Override
+   protected HeaderParams writeRequest(Transport transport) {
+      return writeKeyRequest(transport, GET_WITH_VERSION);
+   }
+
+   @Override
+   protected VersionedValue<V> readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       VersionedValue<V> result = null;
       if (HotRodConstants.isNotExist(status)) {
          result = null;
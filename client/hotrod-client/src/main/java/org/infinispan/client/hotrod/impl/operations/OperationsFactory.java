@@ -260,6 +260,10 @@ public boolean hasFlag(Flag flag) {
       return threadLocalFlags != null && (threadLocalFlags & flag.getFlagInt()) != 0;
    }
 
+   public boolean isPipelined() {
+      return transportFactory.isPipelined();
+   }
+
    public CacheTopologyInfo getCacheTopologyInfo() {
       return transportFactory.getCacheTopologyInfo(cacheNameBytes);
    }
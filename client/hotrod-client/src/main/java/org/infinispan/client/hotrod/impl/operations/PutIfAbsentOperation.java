@@ -6,6 +6,7 @@
 import net.jcip.annotations.Immutable;
 
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
@@ -32,8 +33,13 @@ public PutIfAbsentOperation(Codec codec, TransportFactory transportFactory,
    }
 
    @Override
-   protected V executeOperation(Transport transport) {
-      short status = sendPutOperation(transport, PUT_IF_ABSENT_REQUEST, PUT_IF_ABSENT_RESPONSE);
+   protected HeaderParams writeRequest(Transport transport) {
+      return writeKeyValueRequest(transport, PUT_IF_ABSENT_REQUEST);
+   }
+
+   @Override
+   protected V readResponse(Transport transport, HeaderParams params) {
+      short status = readHeaderAndValidate(transport, params);
       V previousValue = null;
       if (HotRodConstants.isNotExecuted(status)) {
          previousValue = returnPossiblePrevValue(transport, status);
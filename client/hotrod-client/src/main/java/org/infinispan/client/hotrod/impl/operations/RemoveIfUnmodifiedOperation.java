@@ -28,15 +28,17 @@ public RemoveIfUnmodifiedOperation(Codec codec, TransportFactory transportFactor
    }
 
    @Override
-   protected VersionedOperationResponse<V> executeOperation(Transport transport) {
-      // 1) write header
-      HeaderParams params = writeHeader(transport, REMOVE_IF_UNMODIFIED_REQUEST);
+   protected HeaderParams writeRequest(Transport transport) {
+      // 1) write header and key
+      HeaderParams params = writeKeyRequest(transport, REMOVE_IF_UNMODIFIED_REQUEST);
 
-      //2) write message body
-      transport.writeArray(keyBytes);
+      //2) write rest of message body
       transport.writeLong(version);
-      transport.flush();
+      return params;
+   }
 
+   @Override
+   protected VersionedOperationResponse<V> readResponse(Transport transport, HeaderParams params) {
       //process response and return
       return returnVersionedOperationResponse(transport, params);
    }
@@ -27,17 +27,19 @@ public ReplaceIfUnmodifiedOperation(Codec codec, TransportFactory transportFacto
    }
 
    @Override
-   protected VersionedOperationResponse executeOperation(Transport transport) {
-      // 1) write header
-      HeaderParams params = writeHeader(transport, REPLACE_IF_UNMODIFIED_REQUEST);
+   protected HeaderParams writeRequest(Transport transport) {
+      // 1) write header and key
+      HeaderParams params = writeKeyRequest(transport, REPLACE_IF_UNMODIFIED_REQUEST);
 
-      //2) write message body
-      transport.writeArray(keyBytes);
+      //2) write rest of message body
       codec.writeExpirationParams(transport, lifespan, lifespanTimeUnit, maxIdle, maxIdleTimeUnit);
       transport.writeLong(version);
       transport.writeArray(value);
-      transport.flush();
+      return params;
+   }
 
+   @Override
+   protected VersionedOperationResponse readResponse(Transport transport, HeaderParams params) {
       return returnVersionedOperationResponse(transport, params);
    }
 }
@@ -90,7 +90,7 @@ private void invalidateTransport(Transport transport, SocketAddress address) {
       }
    }
 
-   private Set<SocketAddress> updateFailedServers(SocketAddress address, Set<SocketAddress> failedServers) {
+   protected Set<SocketAddress> updateFailedServers(SocketAddress address, Set<SocketAddress> failedServers) {
       if (failedServers == null) {
          failedServers = new HashSet<SocketAddress>();
       }
@@ -58,6 +58,10 @@ public HeaderParams messageId(long messageId) {
       return this;
    }
 
+   public long getMessageId() {
+      return messageId;
+   }
+
    public HeaderParams topologyAge(int topologyAge) {
       this.topologyAge = topologyAge;
       return this;
@@ -13,6 +13,7 @@
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHash;
 import org.infinispan.client.hotrod.impl.consistenthash.ConsistentHashFactory;
 import org.infinispan.client.hotrod.impl.protocol.Codec;
+import org.infinispan.client.hotrod.impl.transport.netty.PipelinedChannel;
 import org.infinispan.client.hotrod.impl.transport.tcp.TcpTransportFactory.ClusterSwitchStatus;
 import org.infinispan.commons.marshall.Marshaller;
 
@@ -56,6 +57,34 @@ void updateHashFunction(SocketAddress[][] segmentOwners, int numSegments, short
 
    Transport getTransport(Object key, Set<SocketAddress> failedServers, byte[] cacheName);
 
+   /**
+    * Same as {@link #getTransport(Object, Set, byte[])}, for an operation that only reads the key and can therefore be
+    * sent to any owner of the key.
+    */
+   default Transport getReadTransport(Object key, Set<SocketAddress> failedServers, byte[] cacheName) {
+      return getTransport(key, failedServers, cacheName);
+   }
+
+   /**
+    * @return {@code true} if single key operations should be pipelined on the channels returned by
+    *         {@link #getPipelinedChannel(Object, Set, byte[])} instead of using pooled transports
+    */
+   boolean isPipelined();
+
+   /**
+    * Same as {@link #getTransport(Object, Set, byte[])}, but returns a channel on which requests can be pipelined.
+    * If {@code key} is {@code null} the server is chosen by the balancing strategy.
+    */
+   PipelinedChannel getPipelinedChannel(Object key, Set<SocketAddress> failedServers, byte[] cacheName);
+
+   /**
+    * Same as {@link #getPipelinedChannel(Object, Set, byte[])}, for an operation that only reads the key and can
+    * therefore be sent to any owner of the key.
+    */
+   default PipelinedChannel getPipelinedReadChannel(Object key, Set<SocketAddress> failedServers, byte[] cacheName) {
+      return getPipelinedChannel(key, failedServers, cacheName);
+   }
+
    boolean isTcpNoDelay();
 
    boolean isTcpKeepAlive();
@@ -0,0 +1,163 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import org.infinispan.client.hotrod.impl.transport.AbstractTransport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.commons.io.SignedNumeric;
+
+/**
+ * {@link org.infinispan.client.hotrod.impl.transport.Transport} view over a Netty {@link ByteBuf}, used to encode a
+ * request or decode a response of a {@link PipelinedChannel} with the operations' own marshalling code.
+ * <p>
+ * Nothing is sent by this transport: the request buffer is written to the channel once the operation has encoded it,
+ * so {@link #flush()} does nothing. When decoding, the buffer is the one handed over by Netty's
+ * {@link io.netty.handler.codec.ReplayingDecoder}, so reading past the end of the received data simply makes the
+ * decoder wait for more data.
+ *
+ * @since 9.0
+ */
+public class ByteBufTransport extends AbstractTransport {
+
+   private final Channel channel;
+   private final SocketAddress serverAddress;
+   private final ByteBuf buf;
+
+   ByteBufTransport(TransportFactory transportFactory, Channel channel, SocketAddress serverAddress, ByteBuf buf) {
+      super(transportFactory);
+      this.channel = channel;
+      this.serverAddress = serverAddress;
+      this.buf = buf;
+   }
+
+   @Override
+   public void writeByte(short toWrite) {
+      buf.writeByte(toWrite);
+   }
+
+   @Override
+   public void writeVInt(int vInt) {
+      while ((vInt & ~0x7F) != 0) {
+         buf.writeByte((vInt & 0x7F) | 0x80);
+         vInt >>>= 7;
+      }
+      buf.writeByte(vInt);
+   }
+
+   @Override
+   public void writeSignedVInt(int vInt) {
+      writeVInt(SignedNumeric.encode(vInt));
+   }
+
+   @Override
+   public void writeVLong(long l) {
+      while ((l & ~0x7F) != 0) {
+         buf.writeByte((int) ((l & 0x7F) | 0x80));
+         l >>>= 7;
+      }
+      buf.writeByte((int) l);
+   }
+
+   @Override
+   protected void writeBytes(byte[] toAppend) {
+      buf.writeBytes(toAppend);
+   }
+
+   @Override
+   public void writeLong(long longValue) {
+      buf.writeLong(longValue);
+   }
+
+   @Override
+   public long readVLong() {
+      byte b = buf.readByte();
+      long i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = buf.readByte();
+         i |= (b & 0x7FL) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public int readVInt() {
+      byte b = buf.readByte();
+      int i = b & 0x7F;
+      for (int shift = 7; (b & 0x80) != 0; shift += 7) {
+         b = buf.readByte();
+         i |= (b & 0x7F) << shift;
+      }
+      return i;
+   }
+
+   @Override
+   public short readByte() {
+      return buf.readUnsignedByte();
+   }
+
+   @Override
+   public byte[] readByteArray(int size) {
+      byte[] result = new byte[size];
+      buf.readBytes(result);
+      return result;
+   }
+
+   @Override
+   public long readLong() {
+      return buf.readLong();
+   }
+
+   @Override
+   public int readUnsignedShort() {
+      return buf.readUnsignedShort();
+   }
+
+   @Override
+   public int read4ByteInt() {
+      return buf.readInt();
+   }
+
+   @Override
+   public void flush() {
+      // The request is written to the channel by the PipelinedChannel
+   }
+
+   @Override
+   public void release() {
+      // Nothing to release, the buffer is owned by the PipelinedChannel
+   }
+
+   /**
+    * The size of the data received so far is only known by the decoder, so nothing is dumped.
+    */
+   @Override
+   public byte[] dumpStream() {
+      return new byte[0];
+   }
+
+   @Override
+   public SocketAddress getRemoteSocketAddress() {
+      return serverAddress;
+   }
+
+   /**
+    * The channel is shared by all the pipelined requests, so invalidating the transport closes it, failing all the
+    * requests still waiting for a response.
+    */
+   @Override
+   public void invalidate() {
+      channel.close();
+   }
+
+   @Override
+   public boolean isValid() {
+      return channel.isActive();
+   }
+
+   @Override
+   public String toString() {
+      return "ByteBufTransport{channel=" + channel + ", serverAddress=" + serverAddress + "}";
+   }
+}
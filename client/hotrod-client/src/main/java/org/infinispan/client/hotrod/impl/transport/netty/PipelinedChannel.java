@@ -0,0 +1,229 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.infinispan.client.hotrod.exceptions.InvalidResponseException;
+import org.infinispan.client.hotrod.exceptions.TransportException;
+import org.infinispan.client.hotrod.impl.protocol.HeaderParams;
+import org.infinispan.client.hotrod.impl.transport.Transport;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * A non-blocking connection to a Hot Rod server, shared by many concurrent requests.
+ * <p>
+ * Requests are written as soon as they are submitted, without waiting for the responses of the previous ones. Each
+ * response is matched to its request using the message id of the header, and decoded on the channel's event loop
+ * by the same code that reads the response of a blocking {@link Transport}. The future returned by
+ * {@link #send(Function, BiFunction)} is completed by the event loop as well, so callers must not block in its
+ * callbacks.
+ * <p>
+ * When a request times out, its future is failed but the request is kept until its response is received, so that the
+ * response can still be skipped. When the connection is closed, all the requests waiting for a response are failed
+ * with a {@link TransportException}.
+ *
+ * @since 9.0
+ */
+public class PipelinedChannel {
+
+   private static final Log log = LogFactory.getLog(PipelinedChannel.class, Log.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final TransportFactory transportFactory;
+   private final SocketAddress serverAddress;
+   private final ChannelFuture connectFuture;
+   private final ConcurrentMap<Long, PendingRequest<?>> pendingRequests = new ConcurrentHashMap<>();
+
+   PipelinedChannel(TransportFactory transportFactory, Bootstrap bootstrap, SocketAddress serverAddress) {
+      this.transportFactory = transportFactory;
+      this.serverAddress = serverAddress;
+      SSLContext sslContext = transportFactory.getSSLContext();
+      this.connectFuture = bootstrap.clone().handler(new ChannelInitializer<Channel>() {
+         @Override
+         protected void initChannel(Channel channel) throws Exception {
+            if (sslContext != null) {
+               SSLEngine sslEngine = sslContext.createSSLEngine();
+               sslEngine.setUseClientMode(true);
+               channel.pipeline().addLast("ssl", new SslHandler(sslEngine));
+            }
+            channel.pipeline().addLast("decoder", new ResponseDecoder());
+         }
+      }).connect(serverAddress);
+   }
+
+   /**
+    * Encodes a request with the given writer and sends it to the server.
+    *
+    * @param writer writes the request, header included, and returns the header parameters
+    * @param reader reads the response, header included, when it is received
+    * @return a future completed with the value returned by the reader, or with the exception thrown while sending the
+    *         request or reading the response
+    */
+   public <T> CompletableFuture<T> send(Function<Transport, HeaderParams> writer,
+         BiFunction<Transport, HeaderParams, T> reader) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      if (connectFuture.isDone()) {
+         write(writer, reader, future);
+      } else {
+         connectFuture.addListener(f -> write(writer, reader, future));
+      }
+      return future;
+   }
+
+   private <T> void write(Function<Transport, HeaderParams> writer, BiFunction<Transport, HeaderParams, T> reader,
+         CompletableFuture<T> future) {
+      if (!connectFuture.isSuccess()) {
+         future.completeExceptionally(new TransportException(
+               String.format("Could not connect to server: %s", serverAddress), connectFuture.cause(), serverAddress));
+         return;
+      }
+      Channel channel = connectFuture.channel();
+      ByteBuf buf = channel.alloc().buffer();
+      HeaderParams params;
+      try {
+         params = writer.apply(new ByteBufTransport(transportFactory, channel, serverAddress, buf));
+      } catch (RuntimeException e) {
+         buf.release();
+         future.completeExceptionally(e);
+         return;
+      }
+      long messageId = params.getMessageId();
+      pendingRequests.put(messageId, new PendingRequest<>(params, reader, future));
+      int timeout = transportFactory.getSoTimeout();
+      if (timeout > 0) {
+         ScheduledFuture<?> timeoutTask = channel.eventLoop().schedule(() -> {
+            future.completeExceptionally(new TransportException(new SocketTimeoutException(
+                  String.format("Timed out waiting for the response to messageId=%d", messageId)), serverAddress));
+         }, timeout, TimeUnit.MILLISECONDS);
+         future.whenComplete((v, t) -> timeoutTask.cancel(false));
+      }
+      channel.writeAndFlush(buf).addListener(f -> {
+         if (!f.isSuccess()) {
+            PendingRequest<?> request = pendingRequests.remove(messageId);
+            if (request != null) {
+               request.future.completeExceptionally(new TransportException(f.cause(), serverAddress));
+            }
+         }
+      });
+      if (trace)
+         log.tracef("Sent request messageId=%d to %s, %d requests pending", messageId, serverAddress, pendingRequests.size());
+   }
+
+   public SocketAddress getServerAddress() {
+      return serverAddress;
+   }
+
+   /**
+    * @return {@code true} if the connection failed or was closed, so a new one must be created
+    */
+   boolean isClosed() {
+      return connectFuture.isDone() && (!connectFuture.isSuccess() || !connectFuture.channel().isActive());
+   }
+
+   void close() {
+      connectFuture.channel().close();
+   }
+
+   private void failPendingRequests(TransportException e) {
+      for (Long messageId : pendingRequests.keySet()) {
+         PendingRequest<?> request = pendingRequests.remove(messageId);
+         if (request != null) {
+            request.future.completeExceptionally(e);
+         }
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "PipelinedChannel{serverAddress=" + serverAddress + ", pendingRequests=" + pendingRequests.size() + "}";
+   }
+
+   private static final class PendingRequest<T> {
+      final HeaderParams params;
+      final BiFunction<Transport, HeaderParams, T> reader;
+      final CompletableFuture<T> future;
+
+      PendingRequest(HeaderParams params, BiFunction<Transport, HeaderParams, T> reader, CompletableFuture<T> future) {
+         this.params = params;
+         this.reader = reader;
+         this.future = future;
+      }
+
+      void readResponse(Transport transport) {
+         T value;
+         try {
+            value = reader.apply(transport, params);
+         } catch (InvalidResponseException | TransportException e) {
+            // The position in the stream is unknown, so the connection cannot be used any more
+            future.completeExceptionally(e);
+            transport.invalidate();
+            return;
+         } catch (RuntimeException e) {
+            // Errors sent by the server, the whole response has been read
+            future.completeExceptionally(e);
+            return;
+         }
+         future.complete(value);
+      }
+   }
+
+   /**
+    * Reads one response at a time. If the response is not complete yet, reading past the received data makes the
+    * {@link ReplayingDecoder} rewind the buffer and decode the whole response again once more data is received.
+    */
+   private final class ResponseDecoder extends ReplayingDecoder<Void> {
+
+      @Override
+      protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+         ByteBufTransport transport = new ByteBufTransport(transportFactory, ctx.channel(), serverAddress, in);
+         // Peek at the message id, the whole header is read and validated by the operation
+         int start = in.readerIndex();
+         transport.readByte();
+         long messageId = transport.readVLong();
+         in.readerIndex(start);
+
+         PendingRequest<?> request = pendingRequests.get(messageId);
+         if (request == null) {
+            throw new InvalidResponseException(String.format("Received response for unknown messageId=%d", messageId));
+         }
+         request.readResponse(transport);
+         pendingRequests.remove(messageId);
+         if (trace)
+            log.tracef("Received response for messageId=%d from %s", messageId, serverAddress);
+      }
+
+      @Override
+      public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+         failPendingRequests(new TransportException(String.format("Connection to %s closed", serverAddress), serverAddress));
+         super.channelInactive(ctx);
+      }
+
+      @Override
+      public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+         log.debugf(cause, "Closing connection to %s", serverAddress);
+         failPendingRequests(new TransportException(cause, serverAddress));
+         ctx.close();
+      }
+   }
+}
@@ -0,0 +1,90 @@
+package org.infinispan.client.hotrod.impl.transport.netty;
+
+import java.net.SocketAddress;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+
+/**
+ * Keeps a fixed number of {@link PipelinedChannel}s per server. Connections are established lazily, the first time
+ * they are picked, and are replaced transparently once they fail or are closed. Requests are spread randomly over the
+ * connections of a server.
+ *
+ * @since 9.0
+ */
+public class PipelinedChannelPool {
+
+   private static final Log log = LogFactory.getLog(PipelinedChannelPool.class, Log.class);
+
+   private final TransportFactory transportFactory;
+   private final int connectionsPerServer;
+   private final EventLoopGroup eventLoopGroup;
+   private final Bootstrap bootstrap;
+   private final ConcurrentMap<SocketAddress, PipelinedChannel[]> channels = new ConcurrentHashMap<>();
+
+   public PipelinedChannelPool(TransportFactory transportFactory, int connectionsPerServer) {
+      this.transportFactory = transportFactory;
+      this.connectionsPerServer = connectionsPerServer;
+      this.eventLoopGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("HotRod-client-pipeline", true));
+      this.bootstrap = new Bootstrap()
+            .group(eventLoopGroup)
+            .channel(NioSocketChannel.class)
+            .option(ChannelOption.TCP_NODELAY, transportFactory.isTcpNoDelay())
+            .option(ChannelOption.SO_KEEPALIVE, transportFactory.isTcpKeepAlive())
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, transportFactory.getConnectTimeout());
+      if (log.isDebugEnabled()) {
+         log.debugf("Pipelining requests on %d connections per server", connectionsPerServer);
+      }
+   }
+
+   public PipelinedChannel getChannel(SocketAddress server) {
+      PipelinedChannel[] serverChannels = channels.computeIfAbsent(server, s -> new PipelinedChannel[connectionsPerServer]);
+      int index = ThreadLocalRandom.current().nextInt(connectionsPerServer);
+      synchronized (serverChannels) {
+         PipelinedChannel channel = serverChannels[index];
+         if (channel == null || channel.isClosed()) {
+            channel = new PipelinedChannel(transportFactory, bootstrap, server);
+            serverChannels[index] = channel;
+         }
+         return channel;
+      }
+   }
+
+   /**
+    * Closes the connections to a server that left the cluster.
+    */
+   public void close(SocketAddress server) {
+      PipelinedChannel[] serverChannels = channels.remove(server);
+      if (serverChannels != null) {
+         close(serverChannels);
+      }
+   }
+
+   public void close() {
+      for (PipelinedChannel[] serverChannels : channels.values()) {
+         close(serverChannels);
+      }
+      channels.clear();
+      eventLoopGroup.shutdownGracefully();
+   }
+
+   private void close(PipelinedChannel[] serverChannels) {
+      synchronized (serverChannels) {
+         for (PipelinedChannel channel : serverChannels) {
+            if (channel != null) {
+               channel.close();
+            }
+         }
+      }
+   }
+}
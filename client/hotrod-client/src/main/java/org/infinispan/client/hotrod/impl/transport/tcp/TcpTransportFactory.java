@@ -34,6 +34,8 @@
 import org.infinispan.client.hotrod.impl.protocol.HotRodConstants;
 import org.infinispan.client.hotrod.impl.transport.Transport;
 import org.infinispan.client.hotrod.impl.transport.TransportFactory;
+import org.infinispan.client.hotrod.impl.transport.netty.PipelinedChannel;
+import org.infinispan.client.hotrod.impl.transport.netty.PipelinedChannelPool;
 import org.infinispan.client.hotrod.logging.Log;
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.equivalence.AnyEquivalence;
@@ -61,10 +63,12 @@ public class TcpTransportFactory implements TransportFactory {
    private final Object lock = new Object();
    // The connection pool implementation is assumed to be thread-safe, so we need to synchronize just the access to this field and not the method calls
    private GenericKeyedObjectPool<SocketAddress, TcpTransport> connectionPool;
+   private volatile PipelinedChannelPool pipelinedChannels;
    // Per cache request balancing strategy
    private Map<byte[], FailoverRequestBalancingStrategy> balancers;
    private Configuration configuration;
    private Collection<SocketAddress> initialServers;
+   private volatile Set<SocketAddress> preferredServers = Collections.emptySet();
    // the primitive fields are often accessed separately from the rest so it makes sense not to require synchronization for them
    private volatile boolean tcpNoDelay;
    private volatile boolean tcpKeepAlive;
@@ -95,9 +99,15 @@ public void start(Codec codec, Configuration configuration, AtomicInteger defaul
          this.configuration = configuration;
          Collection<SocketAddress> servers = new ArrayList<>();
          initialServers = new ArrayList<>();
+         Set<SocketAddress> preferred = new HashSet<>();
          for(ServerConfiguration server : configuration.servers()) {
-            servers.add(new InetSocketAddress(server.host(), server.port()));
+            InetSocketAddress address = new InetSocketAddress(server.host(), server.port());
+            servers.add(address);
+            if (server.preferredForReads()) {
+               preferred.add(address);
+            }
          }
+         preferredServers = Collections.unmodifiableSet(preferred);
          initialServers.addAll(servers);
          if (!configuration.clusters().isEmpty()) {
             configuration.clusters().stream().forEach(cluster -> {
@@ -143,6 +153,14 @@ public void start(Codec codec, Configuration configuration, AtomicInteger defaul
                      connectionFactory,
                      configuration.connectionPool());
          createAndPreparePool(poolFactory);
+         int pipelinedConnections = configuration.connectionPool().pipelinedConnections();
+         if (pipelinedConnections > 0) {
+            if (configuration.security().authentication().enabled()) {
+               log.debug("Request pipelining is not supported with authentication, only pooled connections will be used");
+            } else {
+               pipelinedChannels = new PipelinedChannelPool(this, pipelinedConnections);
+            }
+         }
          balancers = CollectionFactory.makeMap(ByteArrayEquivalence.INSTANCE, AnyEquivalence.getInstance());
          addBalancer(RemoteCacheManager.cacheNameBytes());
 
@@ -205,6 +223,9 @@ public void destroy() {
          } catch (Exception e) {
             log.warn("Exception while shutting down the connection pool.", e);
          }
+         if (pipelinedChannels != null) {
+            pipelinedChannels.close();
+         }
       }
    }
 
@@ -278,6 +299,48 @@ public Transport getTransport(Object key, Set<SocketAddress> failedServers, byte
       return borrowTransportFromPool(server);
    }
 
+   @Override
+   public Transport getReadTransport(Object key, Set<SocketAddress> failedServers, byte[] cacheName) {
+      SocketAddress server;
+      synchronized (lock) {
+         Optional<SocketAddress> hashAwareServer = topologyInfo.getHashAwareServer(key, cacheName, preferredServers);
+         server = hashAwareServer.orElse(getNextServer(failedServers, cacheName));
+      }
+      return borrowTransportFromPool(server);
+   }
+
+   @Override
+   public boolean isPipelined() {
+      return pipelinedChannels != null;
+   }
+
+   @Override
+   public PipelinedChannel getPipelinedChannel(Object key, Set<SocketAddress> failedServers, byte[] cacheName) {
+      SocketAddress server;
+      synchronized (lock) {
+         if (key == null) {
+            server = getNextServer(failedServers, cacheName);
+         } else {
+            Optional<SocketAddress> hashAwareServer = topologyInfo.getHashAwareServer(key, cacheName);
+            server = hashAwareServer.orElse(getNextServer(failedServers, cacheName));
+         }
+      }
+      return pipelinedChannels.getChannel(server);
+   }
+
+   @Override
+   public PipelinedChannel getPipelinedReadChannel(Object key, Set<SocketAddress> failedServers, byte[] cacheName) {
+      if (key == null) {
+         return getPipelinedChannel(null, failedServers, cacheName);
+      }
+      SocketAddress server;
+      synchronized (lock) {
+         Optional<SocketAddress> hashAwareServer = topologyInfo.getHashAwareServer(key, cacheName, preferredServers);
+         server = hashAwareServer.orElse(getNextServer(failedServers, cacheName));
+      }
+      return pipelinedChannels.getChannel(server);
+   }
+
    @Override
    public void releaseTransport(Transport transport) {
       // The invalidateObject()/returnObject() calls could take a long time, so we hold the lock only until we get the connection pool reference
@@ -362,6 +425,9 @@ private Collection<SocketAddress> updateTopologyInfo(Collection<SocketAddress> n
       for (SocketAddress server : failedServers) {
          log.removingServer(server);
          connectionPool.clear(server);
+         if (pipelinedChannels != null) {
+            pipelinedChannels.close(server);
+         }
       }
 
       servers = Collections.unmodifiableList(new ArrayList(newServers));
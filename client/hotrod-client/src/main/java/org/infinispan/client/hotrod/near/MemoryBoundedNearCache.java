@@ -0,0 +1,99 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.VersionedValue;
+import org.infinispan.client.hotrod.configuration.NearCacheConfiguration;
+import org.infinispan.client.hotrod.logging.Log;
+import org.infinispan.client.hotrod.logging.LogFactory;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8;
+import org.infinispan.commons.util.concurrent.jdk8backported.BoundedEquivalentConcurrentHashMapV8.Eviction;
+import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Near cache bounded by the approximate memory used by its entries, evicted in LRU order.
+ * <p>
+ * The size of an entry is the size of its marshalled key and value, which is measured when it is stored and kept
+ * with the value, so that the eviction policy does not marshall it again when the entry is removed.
+ *
+ * @since 9.0
+ */
+final class MemoryBoundedNearCache<K, V> implements NearCache<K, V> {
+   private static final Log log = LogFactory.getLog(MemoryBoundedNearCache.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final ConcurrentMap<K, SizedValue<V>> cache;
+   private final Marshaller marshaller;
+
+   private MemoryBoundedNearCache(ConcurrentMap<K, SizedValue<V>> cache, Marshaller marshaller) {
+      this.cache = cache;
+      this.marshaller = marshaller;
+   }
+
+   public static <K, V> NearCache<K, V> create(NearCacheConfiguration config, Marshaller marshaller) {
+      EntrySizeCalculator<K, SizedValue<V>> sizeCalculator = (k, v) -> v.size;
+      return new MemoryBoundedNearCache<K, V>(new BoundedEquivalentConcurrentHashMapV8<>(config.maxBytes(),
+            Eviction.LRU, BoundedEquivalentConcurrentHashMapV8.getNullEvictionListener(),
+            AnyEquivalence.getInstance(), AnyEquivalence.getInstance(), sizeCalculator), marshaller);
+   }
+
+   @Override
+   public void put(K key, VersionedValue<V> value) {
+      SizedValue<V> sized = sized(key, value);
+      if (sized != null)
+         cache.put(key, sized);
+      else
+         cache.remove(key);
+   }
+
+   @Override
+   public void putIfAbsent(K key, VersionedValue<V> value) {
+      SizedValue<V> sized = sized(key, value);
+      if (sized != null)
+         cache.putIfAbsent(key, sized);
+   }
+
+   @Override
+   public void remove(K key) {
+      cache.remove(key);
+   }
+
+   @Override
+   public VersionedValue<V> get(K key) {
+      SizedValue<V> sized = cache.get(key);
+      return sized != null ? sized.value : null;
+   }
+
+   @Override
+   public void clear() {
+      cache.clear();
+   }
+
+   private SizedValue<V> sized(K key, VersionedValue<V> value) {
+      try {
+         long size = marshaller.objectToBuffer(key).getLength()
+               + marshaller.objectToBuffer(value.getValue()).getLength();
+         return new SizedValue<>(value, size);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return null;
+      } catch (Exception e) {
+         // Entries that cannot be weighed are not near cached
+         if (trace) log.tracef(e, "Unable to calculate the size of key=%s, not storing it in the near cache", key);
+         return null;
+      }
+   }
+
+   private static final class SizedValue<V> {
+      final VersionedValue<V> value;
+      final long size;
+
+      SizedValue(VersionedValue<V> value, long size) {
+         this.value = value;
+         this.size = size;
+      }
+   }
+
+}
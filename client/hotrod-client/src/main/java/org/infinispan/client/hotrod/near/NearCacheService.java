@@ -19,9 +19,11 @@
 import org.infinispan.client.hotrod.logging.LogFactory;
 import org.infinispan.commons.io.UnsignedNumeric;
 import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.commons.util.BloomFilter;
 import org.infinispan.commons.util.Util;
 
 import java.nio.ByteBuffer;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Near cache service, manages the lifecycle of the near cache.
@@ -32,11 +34,28 @@
    private static final Log log = LogFactory.getLog(NearCacheService.class);
    private static final boolean trace = log.isTraceEnabled();
 
+   /**
+    * Name of the server filter that only accepts events of keys in the Bloom filter passed as parameter.
+    */
+   public static final String BLOOM_FILTER_FACTORY_NAME = "___near-cache-bloom-filter";
+
+   // Number of keys the Bloom filter is sized for when the near cache is not bounded by number of entries
+   private static final int UNBOUNDED_FILTER_KEYS = 1024;
+
    private final NearCacheConfiguration config;
    private final ClientListenerNotifier listenerNotifier;
-   private Object listener;
-   private byte[] listenerId;
+   private volatile Object listener;
+   private volatile byte[] listenerId;
    private NearCache<K, V> cache;
+   private Marshaller marshaller;
+   private RemoteCache<K, V> remote;
+
+   // Keys accepted by the filter of the registered listener, only they can be near cached
+   private volatile BloomFilter registeredKeys;
+   // Keys read since the listener was registered, guarded by filterLock
+   private BloomFilter pendingKeys;
+   private int pendingCount;
+   private final ReentrantLock filterLock = new ReentrantLock();
 
    protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier listenerNotifier) {
       this.config = config;
@@ -44,8 +63,16 @@ protected NearCacheService(NearCacheConfiguration config, ClientListenerNotifier
    }
 
    public void start(RemoteCache<K, V> remote) {
+      this.remote = remote;
+      this.marshaller = remote.getRemoteCacheManager().getMarshaller();
       // Create near cache
       cache = createNearCache(config);
+      if (config.bloomFilter()) {
+         // Nothing can be near cached until the listener is registered with a filter containing the keys
+         pendingKeys = newBloomFilter();
+         registerBloomFilterListener(newBloomFilter());
+         return;
+      }
       // Add a listener that updates the near cache
       listener = createListener(remote);
       remote.addClientListener(listener);
@@ -70,11 +97,90 @@ public void stop(RemoteCache<K, V> remote) {
    }
 
    protected NearCache<K, V> createNearCache(NearCacheConfiguration config) {
+      if (config.maxBytes() > 0)
+         return MemoryBoundedNearCache.create(config, marshaller);
+
       return config.maxEntries() > 0
             ? BoundedConcurrentMapNearCache.<K, V>create(config)
             : ConcurrentMapNearCache.<K, V>create();
    }
 
+   private int filterKeys() {
+      return config.maxEntries() > 0 ? config.maxEntries() : UNBOUNDED_FILTER_KEYS;
+   }
+
+   private BloomFilter newBloomFilter() {
+      return BloomFilter.create(filterKeys());
+   }
+
+   /**
+    * Registers a listener whose events are filtered by the server with {@code keys}, and then removes the previous
+    * one, so that there is no window in which the invalidations of the keys already near cached are lost.
+    */
+   private void registerBloomFilterListener(BloomFilter keys) {
+      Object previous = listener;
+      Object next = new BloomFilterNearCacheListener<K, V>(this);
+      remote.addClientListener(next, new Object[]{keys.toBytes()}, null);
+      registeredKeys = keys;
+      listener = next;
+      listenerId = listenerNotifier.findListenerId(next);
+      if (previous != null)
+         remote.removeClientListener(previous);
+
+      if (trace)
+         log.tracef("Registered near cache listener with %s (listenerId=%s)", keys, Util.printArray(listenerId));
+   }
+
+   /**
+    * Returns whether the invalidations of the key are sent to this client, otherwise it is added to the keys of the
+    * next filter, which is registered once enough keys are pending.
+    */
+   private boolean isInvalidated(K key) {
+      byte[] keyBytes;
+      try {
+         keyBytes = marshaller.objectToByteBuffer(key);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return false;
+      } catch (Exception e) {
+         if (trace) log.tracef(e, "Unable to marshall key=%s, not storing it in the near cache", key);
+         return false;
+      }
+
+      if (registeredKeys.mightContain(keyBytes))
+         return true;
+
+      // The registration is a remote call, other threads skip it rather than wait
+      if (filterLock.tryLock()) {
+         try {
+            if (!pendingKeys.mightContain(keyBytes)) {
+               pendingKeys.add(keyBytes);
+               pendingCount++;
+            }
+            if (pendingCount >= Math.max(1, filterKeys() / 16))
+               updateBloomFilter();
+         } finally {
+            filterLock.unlock();
+         }
+      }
+      return false;
+   }
+
+   private void updateBloomFilter() {
+      BloomFilter current = registeredKeys;
+      BloomFilter keys;
+      if (current.insertions() + pendingCount > 2 * filterKeys()) {
+         // Evicted and invalidated keys are never removed from the filter, so start over before it matches everything
+         keys = pendingKeys;
+         cache.clear();
+      } else {
+         keys = current.union(pendingKeys);
+      }
+      pendingKeys = newBloomFilter();
+      pendingCount = 0;
+      registerBloomFilterListener(keys);
+   }
+
    public static <K, V> NearCacheService<K, V> create(
          NearCacheConfiguration config, ClientListenerNotifier listenerNotifier) {
       return new NearCacheService<K, V>(config, listenerNotifier);
@@ -82,7 +188,10 @@ public static <K, V> NearCacheService<K, V> create(
 
    @Override
    public void put(K key, VersionedValue<V> value) {
-       cache.put(key, value);
+      if (config.bloomFilter() && !isInvalidated(key))
+         return;
+
+      cache.put(key, value);
 
       if (trace)
          log.tracef("Put key=%s and value=%s in near cache (listenerId=%s)",
@@ -91,6 +200,9 @@ public void put(K key, VersionedValue<V> value) {
 
    @Override
    public void putIfAbsent(K key, VersionedValue<V> value) {
+      if (config.bloomFilter() && !isInvalidated(key))
+         return;
+
       cache.putIfAbsent(key, value);
 
       if (trace)
@@ -175,6 +287,17 @@ private void invalidate(K key) {
       }
    }
 
+   /**
+    * An invalidation listener whose events are filtered by the server with a Bloom filter of the keys this client may
+    * have near cached, passed as the filter parameter.
+    */
+   @ClientListener(filterFactoryName = BLOOM_FILTER_FACTORY_NAME)
+   private static class BloomFilterNearCacheListener<K, V> extends InvalidatedNearCacheListener<K, V> {
+      private BloomFilterNearCacheListener(NearCache<K, V> cache) {
+         super(cache);
+      }
+   }
+
    /**
     * An near cache listener that eagerly populates the near cache as cache
     * entries are created/modified in the server. It uses a converter in order
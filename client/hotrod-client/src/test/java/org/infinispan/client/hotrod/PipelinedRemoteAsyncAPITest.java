@@ -0,0 +1,59 @@
+package org.infinispan.client.hotrod;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.test.InternalRemoteCacheManager;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the async API tests with requests pipelined on a couple of non-blocking connections.
+ */
+@Test(groups = "functional", testName = "client.hotrod.PipelinedRemoteAsyncAPITest")
+public class PipelinedRemoteAsyncAPITest extends RemoteAsyncAPITest {
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.forceReturnValues(isForceReturnValuesViaConfiguration());
+      builder.connectionPool().pipelinedConnections(2);
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      return new InternalRemoteCacheManager(builder.build());
+   }
+
+   public void testManyOutstandingRequests() throws Exception {
+      int count = 1000;
+      List<CompletableFuture<String>> puts = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+         puts.add(remote().putAsync("k" + i, "v" + i));
+      }
+      for (CompletableFuture<String> put : puts) {
+         assertNull(put.get(10, TimeUnit.SECONDS));
+      }
+
+      List<CompletableFuture<String>> gets = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+         gets.add(remote().getAsync("k" + i));
+      }
+      for (int i = 0; i < count; i++) {
+         assertEquals("v" + i, gets.get(i).get(10, TimeUnit.SECONDS));
+      }
+   }
+
+   public void testSyncOperationsArePipelined() {
+      assertTrue(remote().getRemoteCacheManager().getConfiguration().connectionPool().pipelinedConnections() > 0);
+      assertNull(remote().put("sync", "v1"));
+      assertEquals("v1", remote().replace("sync", "v2"));
+      assertTrue(remote().containsKey("sync"));
+      assertEquals("v2", remote().get("sync"));
+      assertEquals("v2", remote().remove("sync"));
+      assertNull(remote().get("sync"));
+   }
+}
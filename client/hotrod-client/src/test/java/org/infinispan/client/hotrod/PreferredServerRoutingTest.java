@@ -0,0 +1,79 @@
+package org.infinispan.client.hotrod;
+
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.lifecycle.ComponentStatus;
+import org.infinispan.server.hotrod.HotRodServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.net.InetSocketAddress;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManager;
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killServers;
+import static org.infinispan.server.hotrod.test.HotRodTestingUtil.hotRodCacheConfiguration;
+import static org.infinispan.test.TestingUtil.blockUntilCacheStatusAchieved;
+import static org.infinispan.test.TestingUtil.blockUntilViewReceived;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+/**
+ * Tests that the reads of a key are sent to the owner of the key that the client prefers instead of the primary
+ * owner.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "client.hotrod.PreferredServerRoutingTest")
+public class PreferredServerRoutingTest extends HitsAwareCacheManagersTest {
+
+   private static final int NUM_KEYS = 20;
+
+   HotRodServer server1;
+   HotRodServer server2;
+   RemoteCacheManager rcm;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      // Both servers own all the keys
+      ConfigurationBuilder builder = hotRodCacheConfiguration(getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC));
+      builder.clustering().hash().numOwners(2);
+
+      server1 = addHotRodServer(builder);
+      server2 = addHotRodServer(builder);
+
+      blockUntilViewReceived(manager(0).getCache(), 2);
+      blockUntilCacheStatusAchieved(manager(0).getCache(), ComponentStatus.RUNNING, 10000);
+      blockUntilCacheStatusAchieved(manager(1).getCache(), ComponentStatus.RUNNING, 10000);
+
+      org.infinispan.client.hotrod.configuration.ConfigurationBuilder clientBuilder =
+            new org.infinispan.client.hotrod.configuration.ConfigurationBuilder();
+      clientBuilder.addServer().host(server1.getHost()).port(server1.getPort())
+            .addServer().host(server2.getHost()).port(server2.getPort()).preferredForReads(true);
+      rcm = new RemoteCacheManager(clientBuilder.build());
+   }
+
+   @AfterClass
+   @Override
+   protected void destroy() {
+      killRemoteCacheManager(rcm);
+      killServers(server1, server2);
+      super.destroy();
+   }
+
+   public void testReadsGoToPreferredServer() {
+      RemoteCache<String, String> cache = rcm.getCache();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache.put("k" + i, "v" + i);
+      }
+      addInterceptors();
+
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, cache.get("k" + i));
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertTrue(cache.containsKey("k" + i));
+      }
+      // Only the preferred server was hit, even for the keys whose primary owner is the other server
+      assertServerHit(new InetSocketAddress(server2.getHost(), server2.getPort()), null, 2 * NUM_KEYS);
+   }
+}
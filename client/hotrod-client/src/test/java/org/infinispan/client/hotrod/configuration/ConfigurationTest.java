@@ -2,6 +2,7 @@
 
 import static org.infinispan.client.hotrod.impl.ConfigurationProperties.*;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
 import static org.testng.AssertJUnit.assertTrue;
 
 import java.security.NoSuchAlgorithmException;
@@ -257,6 +258,24 @@ public void testParseServerAddresses() {
       assertServer("localhost", 8382, cfg.servers().get(5));
    }
 
+   public void testPreferredServers() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServers("1.1.1.1:9999;2.2.2.2");
+      builder.preferredServers("2.2.2.2;3.3.3.3:7777");
+      Configuration cfg = builder.build();
+      assertEquals(3, cfg.servers().size());
+      assertFalse(cfg.servers().get(0).preferredForReads());
+      assertTrue(cfg.servers().get(1).preferredForReads());
+      assertServer("3.3.3.3", 7777, cfg.servers().get(2));
+      assertTrue(cfg.servers().get(2).preferredForReads());
+
+      Configuration fromProperties = new ConfigurationBuilder().withProperties(cfg.properties()).build();
+      assertEquals(3, fromProperties.servers().size());
+      assertFalse(fromProperties.servers().get(0).preferredForReads());
+      assertTrue(fromProperties.servers().get(1).preferredForReads());
+      assertTrue(fromProperties.servers().get(2).preferredForReads());
+   }
+
    @Test(expectedExceptions = CacheConfigurationException.class,
          expectedExceptionsMessageRegExp = "ISPN(\\d)*: Invalid max_retries \\(value=-1\\). " +
                "Value should be greater or equal than zero.")
@@ -121,6 +121,12 @@ final AssertsNearCache<K, V> expectNearRemove(K key, AssertsNearCache<K, V>... a
       return this;
    }
 
+   AssertsNearCache<K, V> expectSingleNearRemove(K key) {
+      MockRemoveEvent remove = pollEvent(events);
+      assertEquals(key, remove.key);
+      return this;
+   }
+
    @SafeVarargs
    final AssertsNearCache<K, V> expectNearClear(AssertsNearCache<K, V>... affected) {
       expectNearClearInClient(this);
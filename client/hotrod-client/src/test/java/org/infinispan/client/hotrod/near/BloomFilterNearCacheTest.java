@@ -0,0 +1,56 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.RemoteCache;
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.testng.annotations.Test;
+
+import static org.infinispan.client.hotrod.test.HotRodClientTestingUtil.killRemoteCacheManager;
+
+@Test(groups = "functional", testName = "client.hotrod.near.BloomFilterNearCacheTest")
+public class BloomFilterNearCacheTest extends SingleHotRodServerTest {
+
+   AssertsNearCache<Integer, String> assertClient;
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      // A new filter is registered for every new key
+      builder.nearCache().mode(NearCacheMode.INVALIDATED).maxEntries(16).bloomFilter(true);
+      assertClient = AssertsNearCache.create(this.<byte[], Object>cache(), builder);
+      return assertClient.manager;
+   }
+
+   public void testOnlyKeysInFilterAreNearCachedAndInvalidated() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      RemoteCacheManager otherManager = new RemoteCacheManager(builder.build());
+      try {
+         RemoteCache<Integer, String> other = otherManager.getCache();
+         assertClient.expectNoNearEvents();
+         // The server does not send the invalidation, since the key is not in the filter
+         assertClient.put(1, "v1").expectSingleNearRemove(1);
+         // The first read adds the key to the filter, the next one can be near cached
+         assertClient.get(1, "v1").expectNearGetNull(1);
+         assertClient.get(1, "v1").expectNearGetNull(1).expectNearPutIfAbsent(1, "v1");
+         assertClient.get(1, "v1").expectNearGetValue(1, "v1");
+
+         other.put(1, "v2");
+         assertClient.expectSingleNearRemove(1);
+         assertClient.get(1, "v2").expectNearGetNull(1).expectNearPutIfAbsent(1, "v2");
+
+         // Invalidations of keys that are not in the filter are not sent
+         other.put(2, "v1");
+         other.put(1, "v3");
+         assertClient.expectSingleNearRemove(1);
+         assertClient.get(1, "v3").expectNearGetNull(1).expectNearPutIfAbsent(1, "v3");
+         assertClient.expectNoNearEvents();
+      } finally {
+         killRemoteCacheManager(otherManager);
+      }
+   }
+
+}
@@ -0,0 +1,38 @@
+package org.infinispan.client.hotrod.near;
+
+import org.infinispan.client.hotrod.RemoteCacheManager;
+import org.infinispan.client.hotrod.configuration.ConfigurationBuilder;
+import org.infinispan.client.hotrod.configuration.NearCacheMode;
+import org.infinispan.client.hotrod.test.SingleHotRodServerTest;
+import org.testng.annotations.Test;
+
+@Test(groups = "functional", testName = "client.hotrod.near.MemoryBoundedNearCacheTest")
+public class MemoryBoundedNearCacheTest extends SingleHotRodServerTest {
+
+   // Large enough for the overhead and marshalled key and value of a single entry
+   static final long MAX_BYTES = 300;
+   static final String VALUE = new String(new char[100]).replace('\0', 'v');
+
+   AssertsNearCache<Integer, String> assertClient;
+
+   @Override
+   protected RemoteCacheManager getRemoteCacheManager() {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.addServer().host("127.0.0.1").port(hotrodServer.getPort());
+      builder.nearCache().mode(NearCacheMode.INVALIDATED).maxBytes(MAX_BYTES);
+      assertClient = AssertsNearCache.create(this.<byte[], Object>cache(), builder);
+      return assertClient.manager;
+   }
+
+   public void testEvictAfterReachingMaxBytes() {
+      assertClient.expectNoNearEvents();
+      assertClient.put(1, VALUE).expectNearRemove(1);
+      assertClient.put(2, VALUE).expectNearRemove(2);
+      assertClient.get(1, VALUE).expectNearGetNull(1).expectNearPutIfAbsent(1, VALUE);
+      assertClient.get(1, VALUE).expectNearGetValue(1, VALUE);
+      assertClient.get(2, VALUE).expectNearGetNull(2).expectNearPutIfAbsent(2, VALUE);
+      assertClient.get(2, VALUE).expectNearGetValue(2, VALUE);
+      assertClient.get(1, VALUE).expectNearGetNull(1).expectNearPutIfAbsent(1, VALUE);
+   }
+
+}
@@ -0,0 +1,119 @@
+package org.infinispan.commons.util;
+
+import java.util.Arrays;
+
+import org.infinispan.commons.hash.MurmurHash3;
+
+/**
+ * A Bloom filter of byte arrays, sized for a false positive rate of about 1%.
+ * <p>
+ * Elements are hashed with {@link MurmurHash3#MurmurHash3_x64_128(byte[], int)}, so a filter built in one process can
+ * be shipped with {@link #toBytes()} and queried in another, e.g. by a server deciding which events a client needs.
+ * This class is not thread-safe.
+ *
+ * @since 9.0
+ */
+public final class BloomFilter {
+   private static final int SEED = 9001;
+   // -ln(0.01) / ln(2)^2 bits and ln(2) * bits / insertions hash functions per element give a 1% false positive rate
+   private static final double BITS_PER_ELEMENT = 9.6;
+   private static final int NUM_HASHES = 7;
+
+   private final long[] bits;
+   private final int numHashes;
+   private int insertions;
+
+   private BloomFilter(long[] bits, int numHashes, int insertions) {
+      this.bits = bits;
+      this.numHashes = numHashes;
+      this.insertions = insertions;
+   }
+
+   /**
+    * Creates an empty filter for the given number of elements. More elements can be added, but the false positive
+    * rate increases beyond it.
+    */
+   public static BloomFilter create(int expectedInsertions) {
+      long numBits = Math.max(64, (long) (Math.max(1, expectedInsertions) * BITS_PER_ELEMENT));
+      return new BloomFilter(new long[(int) ((numBits + 63) >>> 6)], NUM_HASHES, 0);
+   }
+
+   /**
+    * Reads a filter written with {@link #toBytes()}.
+    */
+   public static BloomFilter fromBytes(byte[] bytes) {
+      int numHashes = bytes[0];
+      long[] bits = new long[(bytes.length - 1) >>> 3];
+      for (int i = 0; i < bits.length; i++) {
+         long word = 0;
+         for (int j = 0; j < 8; j++)
+            word = (word << 8) | (bytes[1 + (i << 3) + j] & 0xFF);
+         bits[i] = word;
+      }
+      return new BloomFilter(bits, numHashes, -1);
+   }
+
+   public byte[] toBytes() {
+      byte[] bytes = new byte[1 + (bits.length << 3)];
+      bytes[0] = (byte) numHashes;
+      for (int i = 0; i < bits.length; i++) {
+         long word = bits[i];
+         for (int j = 7; j >= 0; j--) {
+            bytes[1 + (i << 3) + j] = (byte) word;
+            word >>>= 8;
+         }
+      }
+      return bytes;
+   }
+
+   public void add(byte[] element) {
+      long[] hash = MurmurHash3.MurmurHash3_x64_128(element, SEED);
+      long numBits = (long) bits.length << 6;
+      long combined = hash[0];
+      for (int i = 0; i < numHashes; i++) {
+         long bit = (combined & Long.MAX_VALUE) % numBits;
+         bits[(int) (bit >>> 6)] |= 1L << bit;
+         combined += hash[1];
+      }
+      insertions++;
+   }
+
+   public boolean mightContain(byte[] element) {
+      long[] hash = MurmurHash3.MurmurHash3_x64_128(element, SEED);
+      long numBits = (long) bits.length << 6;
+      long combined = hash[0];
+      for (int i = 0; i < numHashes; i++) {
+         long bit = (combined & Long.MAX_VALUE) % numBits;
+         if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0)
+            return false;
+         combined += hash[1];
+      }
+      return true;
+   }
+
+   /**
+    * Returns a new filter containing the elements of this filter and of {@code other}, which must have been created
+    * for the same number of elements.
+    */
+   public BloomFilter union(BloomFilter other) {
+      if (other.bits.length != bits.length || other.numHashes != numHashes)
+         throw new IllegalArgumentException("Filters have different sizes");
+
+      long[] unionBits = Arrays.copyOf(bits, bits.length);
+      for (int i = 0; i < unionBits.length; i++)
+         unionBits[i] |= other.bits[i];
+      return new BloomFilter(unionBits, numHashes, insertions + other.insertions);
+   }
+
+   /**
+    * Returns the number of elements added to this filter, counting duplicates, or -1 if it was read from bytes.
+    */
+   public int insertions() {
+      return insertions;
+   }
+
+   @Override
+   public String toString() {
+      return "BloomFilter{bits=" + ((long) bits.length << 6) + ", numHashes=" + numHashes + ", insertions=" + insertions + '}';
+   }
+}
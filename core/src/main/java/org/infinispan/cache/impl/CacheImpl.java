@@ -40,6 +40,7 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextContainer;
 import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.context.SingleKeyNonTxInvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.distribution.DistributionManager;
 import org.infinispan.eviction.EvictionManager;
@@ -156,6 +157,9 @@
    private PartitionHandlingManager partitionHandlingManager;
    private GlobalConfiguration globalCfg;
    private boolean isClassLoaderInContext;
+   // Only set for local, non-transactional caches
+   private volatile ThreadLocal<ReusableRead> reusableReads;
+   private boolean nonBlockingAsyncOps;
    private LocalTopologyManager localTopologyManager;
    private volatile boolean stopping = false;
 
@@ -417,6 +421,15 @@ final V get(Object key, EnumSet<Flag> explicitFlags, ClassLoader explicitClassLo
    @SuppressWarnings("unchecked")
    final V get(Object key, long explicitFlags, ClassLoader explicitClassLoader) {
       assertKeyNotNull(key);
+      ThreadLocal<ReusableRead> reusableReads = this.reusableReads;
+      if (reusableReads != null) {
+         ReusableRead read = reusableReads.get();
+         // A read nested in another one on the same thread, e.g. from a listener, needs its own context and command
+         if (!read.inUse) {
+            setInvocationContextClassLoader(read.ctx, explicitClassLoader);
+            return (V) read.invoke(invoker, key, explicitFlags);
+         }
+      }
       InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, 1);
       GetKeyValueCommand command = commandsFactory.buildGetKeyValueCommand(key, explicitFlags);
       return (V) invoker.invoke(ctx, command);
@@ -893,6 +906,19 @@ public void start() {
       isClassLoaderInContext = config.clustering().cacheMode().isClustered()
             || config.persistence().usingStores()
             || config.storeAsBinary().enabled();
+      // Local reads outside of a transaction never outlive the invocation, so each thread can keep reusing the
+      // same context and command instead of allocating new ones
+      if (!config.clustering().cacheMode().isClustered() && !config.transaction().transactionMode().isTransactional()) {
+         reusableReads = ThreadLocal.withInitial(() -> new ReusableRead(
+               (SingleKeyNonTxInvocationContext) invocationContextFactory.createSingleKeyNonTxInvocationContext(),
+               commandsFactory.buildGetKeyValueCommand(null, EnumUtil.EMPTY_BIT_SET)));
+      }
+      // Non-transactional distributed caches only wait for the remote owners and for the key locks asynchronously,
+      // so their async operations can be started on the caller's thread instead of occupying an async executor thread
+      nonBlockingAsyncOps = config.clustering().cacheMode().isDistributed()
+            && !config.transaction().transactionMode().isTransactional()
+            && !config.persistence().usingStores()
+            && config.customInterceptors().interceptors().isEmpty();
 
       if (log.isDebugEnabled()) log.debugf("Started cache %s on %s", getName(), getCacheManager().getAddress());
    }
@@ -940,6 +966,7 @@ private void performImmediateShutdown() {
       if (log.isDebugEnabled())
          log.debugf("Stopping cache %s on %s", getName(), getCacheManager().getAddress());
       componentRegistry.stop();
+      reusableReads = null;
    }
 
    public void performGracefulShutdown() {
@@ -1213,11 +1240,17 @@ final V put(K key, V value, Metadata metadata, long explicitFlags, ClassLoader e
    @SuppressWarnings("unchecked")
    private V putInternal(K key, V value, Metadata metadata,
          long explicitFlags, InvocationContext ctx) {
+      PutKeyValueCommand command = buildPutCommand(key, value, metadata, explicitFlags, ctx);
+      return (V) executeCommandAndCommitIfNeeded(ctx, command);
+   }
+
+   private PutKeyValueCommand buildPutCommand(K key, V value, Metadata metadata, long explicitFlags,
+         InvocationContext ctx) {
       long flags = addUnsafeFlags(explicitFlags);
       Metadata merged = applyDefaultMetadata(metadata);
       PutKeyValueCommand command = commandsFactory.buildPutKeyValueCommand(key, value, merged, flags);
       ctx.setLockOwner(command.getKeyLockOwner());
-      return (V) executeCommandAndCommitIfNeeded(ctx, command);
+      return command;
    }
 
    private long addIgnoreReturnValuesFlag(long flagBitSet) {
@@ -1385,6 +1418,10 @@ final CompletableFuture<V> putAsync(final K key, final V value, final Metadata m
 
    final CompletableFuture<V> putAsync(final K key, final V value, final Metadata metadata, final long explicitFlags, final ClassLoader explicitClassLoader) {
       assertKeyValueNotNull(key, value);
+      if (nonBlockingAsyncOps) {
+         InvocationContext ctx = getInvocationContextForWrite(explicitClassLoader, 1, false);
+         return (CompletableFuture<V>) invoker.invokeAsync(ctx, buildPutCommand(key, value, metadata, explicitFlags, ctx));
+      }
       final InvocationContext ctx = getInvocationContextWithImplicitTransactionForAsyncOps(false, explicitClassLoader, 1);
       return CompletableFuture.supplyAsync(() -> {
          try {
@@ -1586,6 +1623,11 @@ CompletableFuture<V> getAsync(final K key, final long explicitFlags, final Class
       // Optimization to not start a new thread only when the operation is cheap:
       if (asyncSkipsThread(explicitFlags, key)) {
          return wrapInFuture(get(key, explicitFlags, explicitClassLoader));
+      } else if (nonBlockingAsyncOps) {
+         assertKeyNotNull(key);
+         InvocationContext ctx = getInvocationContextForRead(explicitClassLoader, 1);
+         GetKeyValueCommand command = commandsFactory.buildGetKeyValueCommand(key, explicitFlags);
+         return (CompletableFuture<V>) invoker.invokeAsync(ctx, command);
       } else {
          return CompletableFuture.supplyAsync(() -> get(key, explicitFlags, explicitClassLoader), asyncExecutor);
       }
@@ -1836,4 +1878,33 @@ public Properties getConfigurationAsProperties() {
       return new PropertyFormatter().format(config);
    }
 
+   /**
+    * The context and command of a {@link #get(Object)}, reused by one thread for all its reads.
+    */
+   private static final class ReusableRead {
+      final SingleKeyNonTxInvocationContext ctx;
+      final GetKeyValueCommand command;
+      boolean inUse;
+
+      ReusableRead(SingleKeyNonTxInvocationContext ctx, GetKeyValueCommand command) {
+         this.ctx = ctx;
+         this.command = command;
+      }
+
+      Object invoke(SequentialInterceptorChain invoker, Object key, long flagsBitSet) {
+         inUse = true;
+         command.setKey(key);
+         command.setFlagsBitSet(flagsBitSet);
+         try {
+            return invoker.invoke(ctx, command);
+         } finally {
+            // Don't keep the key or the value reachable after the read
+            ctx.resetState();
+            command.setKey(null);
+            command.setRemotelyFetchedValue(null);
+            inUse = false;
+         }
+      }
+   }
+
 }
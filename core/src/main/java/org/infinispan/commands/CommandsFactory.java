@@ -46,12 +46,14 @@
 import org.infinispan.commons.api.functional.EntryView.ReadEntryView;
 import org.infinispan.commons.api.functional.EntryView.ReadWriteEntryView;
 import org.infinispan.commons.api.functional.EntryView.WriteEntryView;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.scopes.Scope;
 import org.infinispan.factories.scopes.Scopes;
 import org.infinispan.functional.impl.Params;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.AntiEntropyCommand;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
@@ -336,6 +338,14 @@ public interface CommandsFactory {
     */
    StateResponseCommand buildStateResponseCommand(Address sender, int viewId, Collection<StateChunk> stateChunks);
 
+   /**
+    * Builds an AntiEntropyCommand used by the primary owner of a segment to compare the segment with a backup owner,
+    * and to repair the backup owner's copy.
+    */
+   AntiEntropyCommand buildAntiEntropyCommand(AntiEntropyCommand.Type type, int topologyId, int segmentId, int level,
+                                              int[] indices, Collection<InternalCacheEntry> entries,
+                                              Collection<Object> removedKeys);
+
    /**
     * Retrieves the cache name this CommandFactory is set up to construct commands for.
     * @return the name of the cache this CommandFactory is set up to construct commands for.
@@ -60,6 +60,7 @@
 import org.infinispan.commons.marshall.SerializeFunctionWith;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContextFactory;
@@ -80,6 +81,8 @@
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.statetransfer.StateConsumer;
 import org.infinispan.statetransfer.StateProvider;
+import org.infinispan.statetransfer.AntiEntropyCommand;
+import org.infinispan.statetransfer.AntiEntropyManager;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
 import org.infinispan.statetransfer.StateTransferManager;
@@ -149,6 +152,7 @@ public class CommandsFactoryImpl implements CommandsFactory {
    private RecoveryManager recoveryManager;
    private StateProvider stateProvider;
    private StateConsumer stateConsumer;
+   private AntiEntropyManager antiEntropyManager;
    private LockManager lockManager;
    private InternalEntryFactory entryFactory;
    private StateTransferManager stateTransferManager;
@@ -207,6 +211,11 @@ public void setupDependencies(DataContainer container, CacheNotifier<Object, Obj
       this.externalizerTable = externalizerTable;
    }
 
+   @Inject
+   public void injectAntiEntropyManager(AntiEntropyManager antiEntropyManager) {
+      this.antiEntropyManager = antiEntropyManager;
+   }
+
    @Start(priority = 1)
    // needs to happen early on
    public void start() {
@@ -445,6 +454,9 @@ public void initializeReplicableCommand(ReplicableCommand c, boolean isRemote) {
          case StateResponseCommand.COMMAND_ID:
             ((StateResponseCommand) c).init(stateConsumer);
             break;
+         case AntiEntropyCommand.COMMAND_ID:
+            ((AntiEntropyCommand) c).init(antiEntropyManager);
+            break;
          case GetInDoubtTransactionsCommand.COMMAND_ID:
             GetInDoubtTransactionsCommand gptx = (GetInDoubtTransactionsCommand) c;
             gptx.init(recoveryManager);
@@ -547,6 +559,13 @@ public StateResponseCommand buildStateResponseCommand(Address sender, int topolo
       return new StateResponseCommand(cacheName, sender, topologyId, stateChunks);
    }
 
+   @Override
+   public AntiEntropyCommand buildAntiEntropyCommand(AntiEntropyCommand.Type type, int topologyId, int segmentId,
+                                                     int level, int[] indices, Collection<InternalCacheEntry> entries,
+                                                     Collection<Object> removedKeys) {
+      return new AntiEntropyCommand(cacheName, type, topologyId, segmentId, level, indices, entries, removedKeys);
+   }
+
    @Override
    public String getCacheName() {
       return cacheName.toString();
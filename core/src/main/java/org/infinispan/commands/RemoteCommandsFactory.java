@@ -52,6 +52,8 @@
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.manager.impl.ReplicableCommandManagerFunction;
 import org.infinispan.manager.impl.ReplicableCommandRunnable;
+import org.infinispan.remoting.transport.jgroups.BatchedRpcCommand;
+import org.infinispan.statetransfer.AntiEntropyCommand;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
 import org.infinispan.stream.impl.StreamRequestCommand;
@@ -61,6 +63,7 @@
 import org.infinispan.util.ByteString;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
+import org.infinispan.xsite.XSiteBatchCommand;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
 import org.infinispan.xsite.statetransfer.XSiteStateTransferControlCommand;
 
@@ -178,6 +181,9 @@ public ReplicableCommand fromStream(byte id, byte type) {
             case ReplicableCommandManagerFunction.COMMAND_ID:
                command = new ReplicableCommandManagerFunction();
                break;
+            case BatchedRpcCommand.COMMAND_ID:
+               command = new BatchedRpcCommand();
+               break;
             default:
                throw new CacheException("Unknown command id " + id + "!");
          }
@@ -251,6 +257,9 @@ public CacheRpcCommand fromStream(byte id, byte type, ByteString cacheName) {
             case StateResponseCommand.COMMAND_ID:
                command = new StateResponseCommand(cacheName);
                break;
+            case AntiEntropyCommand.COMMAND_ID:
+               command = new AntiEntropyCommand(cacheName);
+               break;
             case RemoveCacheCommand.COMMAND_ID:
                command = new RemoveCacheCommand(cacheName, cacheManager);
                break;
@@ -287,6 +296,9 @@ public CacheRpcCommand fromStream(byte id, byte type, ByteString cacheName) {
             case SingleXSiteRpcCommand.COMMAND_ID:
                command = new SingleXSiteRpcCommand(cacheName);
                break;
+            case XSiteBatchCommand.COMMAND_ID:
+               command = new XSiteBatchCommand(cacheName);
+               break;
             case ClusteredGetAllCommand.COMMAND_ID:
                command = new ClusteredGetAllCommand(cacheName);
                break;
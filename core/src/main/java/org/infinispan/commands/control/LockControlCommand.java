@@ -44,6 +44,7 @@ public class LockControlCommand extends AbstractTransactionBoundaryCommand imple
 
    private List<Object> keys;
    private boolean unlock = false;
+   private boolean shared = false;
    private long flags = EnumUtil.EMPTY_BIT_SET;
 
    private LockControlCommand() {
@@ -150,6 +151,7 @@ public byte getCommandId() {
    public void writeTo(ObjectOutput output) throws IOException {
       super.writeTo(output);
       output.writeBoolean(unlock);
+      output.writeBoolean(shared);
       MarshallUtil.marshallCollection(keys, output);
       output.writeLong(Flag.copyWithoutRemotableFlags(flags));
    }
@@ -159,6 +161,7 @@ public void writeTo(ObjectOutput output) throws IOException {
    public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
       super.readFrom(input);
       unlock = input.readBoolean();
+      shared = input.readBoolean();
       keys = MarshallUtil.unmarshallCollection(input, ArrayList::new);
       flags = input.readLong();
    }
@@ -171,6 +174,17 @@ public void setUnlock(boolean unlock) {
       this.unlock = unlock;
    }
 
+   /**
+    * @return {@code true} if the keys are locked in shared mode.
+    */
+   public boolean isShared() {
+      return shared;
+   }
+
+   public void setShared(boolean shared) {
+      this.shared = shared;
+   }
+
    @Override
    public boolean equals(Object o) {
       if (this == o) return true;
@@ -180,6 +194,7 @@ public boolean equals(Object o) {
       LockControlCommand that = (LockControlCommand) o;
 
       if (unlock != that.unlock) return false;
+      if (shared != that.shared) return false;
       if (flags != that.flags) return false;
       if (!keys.equals(that.keys)) return false;
 
@@ -191,6 +206,7 @@ public int hashCode() {
       int result = super.hashCode();
       result = 31 * result + keys.hashCode();
       result = 31 * result + (unlock ? 1 : 0);
+      result = 31 * result + (shared ? 1 : 0);
       result = 31 * result + (int) (flags ^ (flags >>> 32));
       return result;
    }
@@ -202,6 +218,7 @@ public String toString() {
          .append(", keys=").append(keys)
          .append(", flags=").append(EnumUtil.prettyPrintBitSet(flags, Flag.class))
          .append(", unlock=").append(unlock)
+         .append(", shared=").append(shared)
          .append(", gtx=").append(globalTx)
          .append("}")
          .toString();
@@ -246,4 +263,9 @@ public boolean hasZeroLockAcquisition() {
    public boolean hasSkipLocking() {
       return hasFlag(Flag.SKIP_LOCKING); //is it possible??
    }
+
+   @Override
+   public boolean hasSharedLocking() {
+      return shared;
+   }
 }
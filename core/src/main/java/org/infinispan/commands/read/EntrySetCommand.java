@@ -9,6 +9,7 @@
 import org.infinispan.commons.util.CloseableSpliterator;
 import org.infinispan.commons.util.Closeables;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.ForwardingCacheEntry;
 import org.infinispan.context.Flag;
@@ -23,6 +24,10 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Command implementation for {@link java.util.Map#entrySet()} functionality.
@@ -131,16 +136,27 @@ private ConsistentHash getConsistentHash(Cache<K, V> cache) {
          return null;
       }
 
+      private Function<Set<Integer>, Stream<CacheEntry<K, V>>> getSegmentSupplier() {
+         DataContainer<K, V> dc = cache.getAdvancedCache().getDataContainer();
+         if (dc instanceof SegmentedDataContainer) {
+            SegmentedDataContainer<K, V> segmentedContainer = (SegmentedDataContainer<K, V>) dc;
+            return segments -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                  new DataContainerRemoveIterator<>(cache, segmentedContainer.iterator(segments)),
+                  Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+         }
+         return null;
+      }
+
       @Override
       public CacheStream<CacheEntry<K, V>> stream() {
          return new LocalCacheStream<>(new EntryStreamSupplier<>(cache, getConsistentHash(cache),
-                 () -> super.stream()), false, cache.getAdvancedCache().getComponentRegistry());
+                 () -> super.stream(), getSegmentSupplier()), false, cache.getAdvancedCache().getComponentRegistry());
       }
 
       @Override
       public CacheStream<CacheEntry<K, V>> parallelStream() {
          return new LocalCacheStream<>(new EntryStreamSupplier<>(cache, getConsistentHash(cache),
-                 () -> super.stream()), true, cache.getAdvancedCache().getComponentRegistry());
+                 () -> super.stream(), getSegmentSupplier()), true, cache.getAdvancedCache().getComponentRegistry());
       }
    }
 
@@ -9,6 +9,7 @@
 import org.infinispan.commons.util.CloseableSpliterator;
 import org.infinispan.commons.util.Closeables;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
@@ -21,6 +22,8 @@
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 /**
@@ -98,11 +101,22 @@ public boolean remove(Object o) {
          return cache.remove(o) != null;
       }
 
+      private Function<Set<Integer>, Stream<K>> getSegmentSupplier() {
+         DataContainer<K, V> dc = cache.getAdvancedCache().getDataContainer();
+         if (dc instanceof SegmentedDataContainer) {
+            SegmentedDataContainer<K, V> segmentedContainer = (SegmentedDataContainer<K, V>) dc;
+            return segments -> StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                  new EntryToKeyIterator<>(new DataContainerRemoveIterator<>(cache, segmentedContainer.iterator(segments))),
+                  Spliterator.CONCURRENT | Spliterator.NONNULL | Spliterator.DISTINCT), false);
+         }
+         return null;
+      }
+
       @Override
       public CacheStream<K> stream() {
          DistributionManager dm = cache.getAdvancedCache().getDistributionManager();
          return new LocalCacheStream<>(new KeyStreamSupplier<>(cache, dm != null ? dm.getConsistentHash() : null,
-                 () -> StreamSupport.stream(spliterator(), false)), false,
+                 () -> StreamSupport.stream(spliterator(), false), getSegmentSupplier()), false,
                  cache.getAdvancedCache().getComponentRegistry());
       }
 
@@ -110,7 +124,7 @@ public CacheStream<K> stream() {
       public CacheStream<K> parallelStream() {
          DistributionManager dm = cache.getAdvancedCache().getDistributionManager();
          return new LocalCacheStream<>(new KeyStreamSupplier<>(cache, dm != null ? dm.getConsistentHash() : null,
-                 () -> StreamSupport.stream(spliterator(), false)), true,
+                 () -> StreamSupport.stream(spliterator(), false), getSegmentSupplier()), true,
                  cache.getAdvancedCache().getComponentRegistry());
       }
    }
@@ -112,8 +112,10 @@ public Object perform(InvocationContext ctx) throws Throwable {
    }
 
    private void acquireLocksIfNeeded() throws Throwable {
-      if (hasFlag(Flag.FORCE_WRITE_LOCK)) {
+      boolean forceReadLock = !hasFlag(Flag.FORCE_WRITE_LOCK) && hasFlag(Flag.FORCE_READ_LOCK);
+      if (hasFlag(Flag.FORCE_WRITE_LOCK) || forceReadLock) {
          LockControlCommand lockControlCommand = commandsFactory.buildLockControlCommand(keys, getFlagsBitSet(), gtx);
+         lockControlCommand.setShared(forceReadLock);
          lockControlCommand.init(invoker, icf, txTable);
          lockControlCommand.perform(null);
       }
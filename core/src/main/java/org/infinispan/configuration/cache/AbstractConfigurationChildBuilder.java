@@ -112,6 +112,11 @@ public CompatibilityModeConfigurationBuilder compatibility() {
       return builder.compatibility();
    }
 
+   @Override
+   public MemoryConfigurationBuilder memory() {
+      return builder.memory();
+   }
+
    protected ConfigurationBuilder getBuilder() {
       return builder;
    }
@@ -16,9 +16,12 @@ public class BackupConfiguration {
    public static final AttributeDefinition<String> FAILURE_POLICY_CLASS = AttributeDefinition.builder("failurePolicyClass", null, String.class).immutable().build();
    public static final AttributeDefinition<Boolean> USE_TWO_PHASE_COMMIT = AttributeDefinition.builder("useTwoPhaseCommit", false).immutable().build();
    public static final AttributeDefinition<Boolean> ENABLED = AttributeDefinition.builder("enabled", true).immutable().build();
+   public static final AttributeDefinition<Integer> ASYNC_BATCH_SIZE = AttributeDefinition.builder("asyncBatchSize", 0).immutable().build();
+   public static final AttributeDefinition<Long> ASYNC_BATCH_INTERVAL = AttributeDefinition.builder("asyncBatchInterval", 100l).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(BackupConfiguration.class, SITE, STRATEGY, REPLICATION_TIMEOUT, FAILURE_POLICY,  FAILURE_POLICY_CLASS, USE_TWO_PHASE_COMMIT, ENABLED);
+      return new AttributeSet(BackupConfiguration.class, SITE, STRATEGY, REPLICATION_TIMEOUT, FAILURE_POLICY,  FAILURE_POLICY_CLASS, USE_TWO_PHASE_COMMIT, ENABLED,
+            ASYNC_BATCH_SIZE, ASYNC_BATCH_INTERVAL);
    }
 
    private final Attribute<String> site;
@@ -28,6 +31,8 @@ static AttributeSet attributeDefinitionSet() {
    private final Attribute<String> failurePolicyClass;
    private final Attribute<Boolean> useTwoPhaseCommit;
    private final Attribute<Boolean> enabled;
+   private final Attribute<Integer> asyncBatchSize;
+   private final Attribute<Long> asyncBatchInterval;
    private final AttributeSet attributes;
    private final TakeOfflineConfiguration takeOfflineConfiguration;
    private final XSiteStateTransferConfiguration xSiteStateTransferConfiguration ;
@@ -43,6 +48,8 @@ public BackupConfiguration(AttributeSet attributes, TakeOfflineConfiguration tak
       this.failurePolicyClass = attributes.attribute(FAILURE_POLICY_CLASS);
       this.useTwoPhaseCommit = attributes.attribute(USE_TWO_PHASE_COMMIT);
       this.enabled = attributes.attribute(ENABLED);
+      this.asyncBatchSize = attributes.attribute(ASYNC_BATCH_SIZE);
+      this.asyncBatchInterval = attributes.attribute(ASYNC_BATCH_INTERVAL);
    }
 
    /**
@@ -103,6 +110,32 @@ public boolean enabled() {
       return enabled.get();
    }
 
+   /**
+    * The maximum number of distinct keys queued for an asynchronous backup before they are sent to the remote site in
+    * a single batch. 0 disables the queue and every modification is sent separately.
+    *
+    * @see BackupConfigurationBuilder#asyncBatchSize(int)
+    */
+   public int asyncBatchSize() {
+      return asyncBatchSize.get();
+   }
+
+   /**
+    * The interval, in milliseconds, at which the asynchronous backup queue is sent even if the batch is not full.
+    *
+    * @see BackupConfigurationBuilder#asyncBatchInterval(long)
+    */
+   public long asyncBatchInterval() {
+      return asyncBatchInterval.get();
+   }
+
+   /**
+    * @return {@code true} if the modifications are queued and sent to the remote site in batches.
+    */
+   public boolean isAsyncBatchingEnabled() {
+      return isAsyncBackup() && asyncBatchSize() > 0;
+   }
+
    public XSiteStateTransferConfiguration stateTransfer() {
       return xSiteStateTransferConfiguration;
    }
@@ -114,6 +114,31 @@ public BackupConfigurationBuilder enabled(boolean isEnabled) {
       return this;
    }
 
+   /**
+    * Queues the modifications for an asynchronous backup and sends them to the remote site in batches of up to
+    * {@code asyncBatchSize} distinct keys. Multiple modifications of the same key that are queued at the same time are
+    * coalesced, only the last one is sent. The modifications of a transaction are not applied atomically in the
+    * remote site.
+    * <p>
+    * Only valid with the {@link BackupConfiguration.BackupStrategy#ASYNC} strategy. Defaults to 0, which disables the
+    * queue.
+    */
+   public BackupConfigurationBuilder asyncBatchSize(int asyncBatchSize) {
+      attributes.attribute(ASYNC_BATCH_SIZE).set(asyncBatchSize);
+      return this;
+   }
+
+   /**
+    * The interval, in milliseconds, at which the asynchronous backup queue is sent to the remote site even if the
+    * batch is not full. Defaults to 100 milliseconds.
+    *
+    * @see #asyncBatchSize(int)
+    */
+   public BackupConfigurationBuilder asyncBatchInterval(long asyncBatchInterval) {
+      attributes.attribute(ASYNC_BATCH_INTERVAL).set(asyncBatchInterval);
+      return this;
+   }
+
    public XSiteStateTransferConfigurationBuilder stateTransfer() {
       return this.stateTransferBuilder;
    }
@@ -130,6 +155,16 @@ public void validate() {
       if (attributes.attribute(USE_TWO_PHASE_COMMIT).get() && attributes.attribute(STRATEGY).get() == BackupConfiguration.BackupStrategy.ASYNC) {
          throw log.twoPhaseCommitAsyncBackup();
       }
+      int asyncBatchSize = attributes.attribute(ASYNC_BATCH_SIZE).get();
+      if (asyncBatchSize < 0) {
+         throw log.invalidAsyncBatchSize(asyncBatchSize);
+      }
+      if (asyncBatchSize > 0 && attributes.attribute(STRATEGY).get() == BackupConfiguration.BackupStrategy.SYNC) {
+         throw log.asyncBatchSyncBackup();
+      }
+      if (attributes.attribute(ASYNC_BATCH_INTERVAL).get() <= 0) {
+         throw log.invalidAsyncBatchInterval(attributes.attribute(ASYNC_BATCH_INTERVAL).get());
+      }
    }
 
    @Override
@@ -17,12 +17,25 @@ public class ClusteringConfiguration {
    public static final AttributeDefinition<CacheMode> CACHE_MODE = AttributeDefinition.builder("cacheMode",  CacheMode.LOCAL).immutable().build();
    public static final AttributeDefinition<Long> REMOTE_TIMEOUT =
          AttributeDefinition.builder("remoteTimeout", TimeUnit.SECONDS.toMillis(15)).build();
+   public static final AttributeDefinition<Boolean> STAGGERED_GETS =
+         AttributeDefinition.builder("staggeredGets", false).immutable().build();
+   public static final AttributeDefinition<Double> STAGGERED_GET_PERCENTILE =
+         AttributeDefinition.builder("staggeredGetPercentile", 95d).immutable().build();
+   public static final AttributeDefinition<Boolean> TOPOLOGY_AWARE_READS =
+         AttributeDefinition.builder("topologyAwareReads", false).immutable().build();
+   public static final AttributeDefinition<Long> ANTI_ENTROPY_INTERVAL =
+         AttributeDefinition.builder("antiEntropyInterval", 0L).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ClusteringConfiguration.class, CACHE_MODE);
+      return new AttributeSet(ClusteringConfiguration.class, CACHE_MODE, STAGGERED_GETS, STAGGERED_GET_PERCENTILE,
+            TOPOLOGY_AWARE_READS, ANTI_ENTROPY_INTERVAL);
    }
 
    private final Attribute<CacheMode> cacheMode;
+   private final Attribute<Boolean> staggeredGets;
+   private final Attribute<Double> staggeredGetPercentile;
+   private final Attribute<Boolean> topologyAwareReads;
+   private final Attribute<Long> antiEntropyInterval;
    private final HashConfiguration hashConfiguration;
    private final L1Configuration l1Configuration;
    private final StateTransferConfiguration stateTransferConfiguration;
@@ -35,6 +48,10 @@ static AttributeSet attributeDefinitionSet() {
          PartitionHandlingConfiguration partitionHandlingStrategy) {
       this.attributes = attributes.checkProtection();
       this.cacheMode = attributes.attribute(CACHE_MODE);
+      this.staggeredGets = attributes.attribute(STAGGERED_GETS);
+      this.staggeredGetPercentile = attributes.attribute(STAGGERED_GET_PERCENTILE);
+      this.topologyAwareReads = attributes.attribute(TOPOLOGY_AWARE_READS);
+      this.antiEntropyInterval = attributes.attribute(ANTI_ENTROPY_INTERVAL);
       this.hashConfiguration = hashConfiguration;
       this.l1Configuration = l1Configuration;
       this.stateTransferConfiguration = stateTransferConfiguration;
@@ -65,6 +82,37 @@ public void remoteTimeout(long timeoutMillis) {
       syncConfiguration.replTimeout(timeoutMillis);
    }
 
+   /**
+    * Whether remote gets in a distributed cache are sent to one owner at a time, starting with the owner that
+    * has been replying the fastest.
+    */
+   public boolean staggeredGets() {
+      return staggeredGets.get();
+   }
+
+   /**
+    * The percentile of an owner's response times after which a staggered remote get is also sent to the next owner.
+    */
+   public double staggeredGetPercentile() {
+      return staggeredGetPercentile.get();
+   }
+
+   /**
+    * Whether remote gets in a distributed cache are sent to the owner closest to the local node in the cluster
+    * topology (same machine, then same rack, then same site) first.
+    */
+   public boolean topologyAwareReads() {
+      return topologyAwareReads.get();
+   }
+
+   /**
+    * The interval, in milliseconds, between the comparisons of a segment's copies on its owners. 0 means that the
+    * owners' copies are never compared.
+    */
+   public long antiEntropyInterval() {
+      return antiEntropyInterval.get();
+   }
+
    /**
     * Configures cluster's behaviour in the presence of partitions or node failures.
     */
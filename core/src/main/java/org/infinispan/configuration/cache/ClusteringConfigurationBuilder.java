@@ -9,8 +9,12 @@
 import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
+import static org.infinispan.configuration.cache.ClusteringConfiguration.ANTI_ENTROPY_INTERVAL;
 import static org.infinispan.configuration.cache.ClusteringConfiguration.CACHE_MODE;
 import static org.infinispan.configuration.cache.ClusteringConfiguration.REMOTE_TIMEOUT;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.STAGGERED_GETS;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.STAGGERED_GET_PERCENTILE;
+import static org.infinispan.configuration.cache.ClusteringConfiguration.TOPOLOGY_AWARE_READS;
 
 /**
  * Defines clustered characteristics of the cache.
@@ -68,6 +72,55 @@ public ClusteringConfigurationBuilder remoteTimeout(long l, TimeUnit unit) {
       return remoteTimeout(unit.toMillis(l));
    }
 
+   /**
+    * If enabled, remote gets in a distributed cache are sent to the owner that has been replying the fastest, and
+    * the next owner is only asked if the reply does not arrive within the {@link #staggeredGetPercentile(double)}
+    * of the first owner's response times. If disabled (the default), remote gets are sent to all the owners at once.
+    */
+   public ClusteringConfigurationBuilder staggeredGets(boolean enabled) {
+      attributes.attribute(STAGGERED_GETS).set(enabled);
+      return this;
+   }
+
+   /**
+    * The percentile of an owner's response times after which a staggered remote get is also sent to the next owner.
+    * Must be between 0 and 100, exclusive. Defaults to 95.
+    */
+   public ClusteringConfigurationBuilder staggeredGetPercentile(double percentile) {
+      attributes.attribute(STAGGERED_GET_PERCENTILE).set(percentile);
+      return this;
+   }
+
+   /**
+    * If enabled, remote gets in a distributed cache are sent first to the owner closest to the local node, using the
+    * machine, rack and site ids of the transport: an owner on the same machine is preferred to one in the same rack,
+    * which is preferred to one in the same site. The other owners are only asked if the closest one does not have a
+    * valid response, or if it does not reply within the {@link #staggeredGetPercentile(double)} of its response
+    * times. Combined with {@link #staggeredGets(boolean)}, the owners are ordered by distance first and by
+    * response time second. Disabled by default.
+    */
+   public ClusteringConfigurationBuilder topologyAwareReads(boolean enabled) {
+      attributes.attribute(TOPOLOGY_AWARE_READS).set(enabled);
+      return this;
+   }
+
+   /**
+    * If greater than 0, every owner of a segment compares its copy with the copies of the other owners, one segment
+    * every {@code interval} milliseconds, and the primary owner's copy of the keys that differ overwrites the backup
+    * owners' copies. Only applies to distributed and replicated caches. Defaults to 0, i.e. disabled.
+    */
+   public ClusteringConfigurationBuilder antiEntropyInterval(long interval) {
+      attributes.attribute(ANTI_ENTROPY_INTERVAL).set(interval);
+      return this;
+   }
+
+   /**
+    * Same as {@link #antiEntropyInterval(long)}, in the given unit.
+    */
+   public ClusteringConfigurationBuilder antiEntropyInterval(long interval, TimeUnit unit) {
+      return antiEntropyInterval(unit.toMillis(interval));
+   }
+
 
    /**
     * Configure hash sub element
@@ -110,6 +163,13 @@ public PartitionHandlingConfigurationBuilder partitionHandling() {
    @Override
    public
    void validate() {
+      double percentile = attributes.attribute(STAGGERED_GET_PERCENTILE).get();
+      if (percentile <= 0 || percentile >= 100) {
+         throw log.invalidStaggeredGetPercentile(percentile);
+      }
+      if (attributes.attribute(ANTI_ENTROPY_INTERVAL).get() < 0) {
+         throw log.invalidAntiEntropyInterval(attributes.attribute(ANTI_ENTROPY_INTERVAL).get());
+      }
       for (Builder<?> validatable : Arrays.asList(hashConfigurationBuilder, l1ConfigurationBuilder,
                           syncConfigurationBuilder, stateTransferConfigurationBuilder, partitionHandlingConfigurationBuilder)) {
          validatable.validate();
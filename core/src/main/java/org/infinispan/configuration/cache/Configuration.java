@@ -36,6 +36,7 @@ public static AttributeSet attributeDefinitionSet() {
    private final SecurityConfiguration securityConfiguration;
    private final SitesConfiguration sitesConfiguration;
    private final CompatibilityModeConfiguration compatibilityConfiguration;
+   private final MemoryConfiguration memoryConfiguration;
    private final AttributeSet attributes;
    private final boolean template;
 
@@ -54,6 +55,7 @@ public static AttributeSet attributeDefinitionSet() {
                  VersioningConfiguration versioningConfiguration,
                  SitesConfiguration sitesConfiguration,
                  CompatibilityModeConfiguration compatibilityConfiguration,
+                 MemoryConfiguration memoryConfiguration,
                  List<?> modules) {
       this.template = template;
       this.attributes = attributes.checkProtection();
@@ -76,6 +78,7 @@ public static AttributeSet attributeDefinitionSet() {
       this.securityConfiguration = securityConfiguration;
       this.sitesConfiguration = sitesConfiguration;
       this.compatibilityConfiguration = compatibilityConfiguration;
+      this.memoryConfiguration = memoryConfiguration;
       Map<Class<?>, Object> modulesMap = new HashMap<Class<?>, Object>();
       for(Object module : modules) {
          modulesMap.put(module.getClass(), module);
@@ -172,6 +175,10 @@ public CompatibilityModeConfiguration compatibility() {
       return compatibilityConfiguration;
    }
 
+   public MemoryConfiguration memory() {
+      return memoryConfiguration;
+   }
+
    public boolean isTemplate() {
       return template;
    }
@@ -199,6 +206,7 @@ public String toString() {
             ", unsafe=" + unsafeConfiguration +
             ", sites=" + sitesConfiguration +
             ", compatibility=" + compatibilityConfiguration +
+            ", memory=" + memoryConfiguration +
             '}';
    }
 
@@ -222,6 +230,7 @@ public int hashCode() {
             + ((invocationBatchingConfiguration == null) ? 0 : invocationBatchingConfiguration.hashCode());
       result = prime * result + ((jmxStatisticsConfiguration == null) ? 0 : jmxStatisticsConfiguration.hashCode());
       result = prime * result + ((lockingConfiguration == null) ? 0 : lockingConfiguration.hashCode());
+      result = prime * result + ((memoryConfiguration == null) ? 0 : memoryConfiguration.hashCode());
       result = prime * result + ((moduleConfiguration == null) ? 0 : moduleConfiguration.hashCode());
       result = prime * result + ((persistenceConfiguration == null) ? 0 : persistenceConfiguration.hashCode());
       result = prime * result + ((securityConfiguration == null) ? 0 : securityConfiguration.hashCode());
@@ -303,6 +312,11 @@ public boolean equals(Object obj) {
             return false;
       } else if (!lockingConfiguration.equals(other.lockingConfiguration))
          return false;
+      if (memoryConfiguration == null) {
+         if (other.memoryConfiguration != null)
+            return false;
+      } else if (!memoryConfiguration.equals(other.memoryConfiguration))
+         return false;
       if (moduleConfiguration == null) {
          if (other.moduleConfiguration != null)
             return false;
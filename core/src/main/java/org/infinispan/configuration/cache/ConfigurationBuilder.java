@@ -38,6 +38,7 @@ public class ConfigurationBuilder implements ConfigurationChildBuilder {
    private final List<Builder<?>> modules = new ArrayList<Builder<?>>();
    private final SitesConfigurationBuilder sites;
    private final CompatibilityModeConfigurationBuilder compatibility;
+   private final MemoryConfigurationBuilder memory;
    private final AttributeSet attributes;
 
    private boolean template = false;
@@ -62,6 +63,7 @@ public ConfigurationBuilder() {
       this.unsafe = new UnsafeConfigurationBuilder(this);
       this.sites = new SitesConfigurationBuilder(this);
       this.compatibility = new CompatibilityModeConfigurationBuilder(this);
+      this.memory = new MemoryConfigurationBuilder(this);
    }
 
    @Override
@@ -165,6 +167,11 @@ public CompatibilityModeConfigurationBuilder compatibility() {
       return compatibility;
    }
 
+   @Override
+   public MemoryConfigurationBuilder memory() {
+      return memory;
+   }
+
    public List<Builder<?>> modules() {
       return modules;
    }
@@ -199,7 +206,7 @@ public void validate() {
       for (Builder<?> validatable:
             asList(clustering, customInterceptors, dataContainer, deadlockDetection, eviction, expiration, indexing,
                    invocationBatching, jmxStatistics, persistence, locking, storeAsBinary, transaction,
-                   versioning, unsafe, sites, compatibility)) {
+                   versioning, unsafe, sites, compatibility, memory)) {
          validatable.validate();
       }
       for (Builder<?> m : modules) {
@@ -225,7 +232,7 @@ public void validate(GlobalConfiguration globalConfig) {
       for (ConfigurationChildBuilder validatable:
             asList(clustering, customInterceptors, dataContainer, deadlockDetection, eviction, expiration, indexing,
                    invocationBatching, jmxStatistics, persistence, locking, storeAsBinary, transaction,
-                   versioning, unsafe, sites, compatibility)) {
+                   versioning, unsafe, sites, compatibility, memory)) {
          validatable.validate(globalConfig);
       }
       // Modules cannot be checked with GlobalConfiguration
@@ -253,7 +260,7 @@ public Configuration build(boolean validate) {
                expiration.create(), indexing.create(), invocationBatching.create(),
                jmxStatistics.create(), persistence.create(), locking.create(), security.create(),
                storeAsBinary.create(), transaction.create(), unsafe.create(), versioning.create(), sites.create(),
-               compatibility.create(),
+               compatibility.create(), memory.create(),
                modulesConfig);
    }
 
@@ -277,6 +284,7 @@ public ConfigurationBuilder read(Configuration template) {
       this.sites.read(template.sites());
       this.versioning.read(template.versioning());
       this.compatibility.read(template.compatibility());
+      this.memory.read(template.memory());
 
       for (Object c : template.modules().values()) {
          Builder<Object> builder = this.addModule(ConfigurationUtils.builderFor(c));
@@ -308,6 +316,7 @@ public String toString() {
             ", unsafe=" + unsafe +
             ", sites=" + sites +
             ", compatibility=" + compatibility +
+            ", memory=" + memory +
             '}';
    }
 
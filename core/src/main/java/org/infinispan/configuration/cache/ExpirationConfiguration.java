@@ -14,15 +14,17 @@ public class ExpirationConfiguration {
    public static final AttributeDefinition<Long> MAX_IDLE = AttributeDefinition.builder("maxIdle", -1l).build();
    public static final AttributeDefinition<Boolean> REAPER_ENABLED = AttributeDefinition.builder("reaperEnabled", true).immutable().build();
    public static final AttributeDefinition<Long> WAKEUP_INTERVAL = AttributeDefinition.builder("wakeUpInterval", TimeUnit.MINUTES.toMillis(1)).build();
+   public static final AttributeDefinition<Boolean> INDEXED = AttributeDefinition.builder("indexed", false).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL);
+      return new AttributeSet(ExpirationConfiguration.class, LIFESPAN, MAX_IDLE, REAPER_ENABLED, WAKEUP_INTERVAL, INDEXED);
    }
 
    private final Attribute<Long> lifespan;
    private final Attribute<Long> maxIdle;
    private final Attribute<Boolean> reaperEnabled;
    private final Attribute<Long> wakeUpInterval;
+   private final Attribute<Boolean> indexed;
    private final AttributeSet attributes;
 
    ExpirationConfiguration(AttributeSet attributes) {
@@ -31,6 +33,7 @@ static AttributeSet attributeDefinitionSet() {
       maxIdle = attributes.attribute(MAX_IDLE);
       reaperEnabled = attributes.attribute(REAPER_ENABLED);
       wakeUpInterval = attributes.attribute(WAKEUP_INTERVAL);
+      indexed = attributes.attribute(INDEXED);
    }
 
    /**
@@ -71,6 +74,14 @@ public long wakeUpInterval() {
       return wakeUpInterval.get();
    }
 
+   /**
+    * Whether entries that can expire are tracked in a timer wheel ordered by expiration time, so that the reaper only
+    * visits the entries that are due instead of scanning the whole data container.
+    */
+   public boolean indexed() {
+      return indexed.get();
+   }
+
    @Override
    public String toString() {
       return "ExpirationConfiguration [attributes=" + attributes + "]";
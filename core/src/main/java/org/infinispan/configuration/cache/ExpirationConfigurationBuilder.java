@@ -120,6 +120,15 @@ public ExpirationConfigurationBuilder wakeUpInterval(long l, TimeUnit unit) {
       return wakeUpInterval(unit.toMillis(l));
    }
 
+   /**
+    * Track entries that can expire in a timer wheel ordered by expiration time, so that the reaper only visits the
+    * entries that are due instead of scanning the whole data container. Requires the reaper to be enabled.
+    */
+   public ExpirationConfigurationBuilder indexed(boolean indexed) {
+      attributes.attribute(INDEXED).set(indexed);
+      return this;
+   }
+
    @Override
    public void validate() {
    }
@@ -0,0 +1,78 @@
+package org.infinispan.configuration.cache;
+
+import org.infinispan.commons.configuration.attributes.Attribute;
+import org.infinispan.commons.configuration.attributes.AttributeDefinition;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+
+/**
+ * Controls how the data container stores entries in memory.
+ *
+ * @since 9.0
+ */
+public class MemoryConfiguration {
+   public static final AttributeDefinition<StorageType> STORAGE_TYPE = AttributeDefinition.builder("storageType", StorageType.OBJECT).immutable().build();
+   public static final AttributeDefinition<Integer> ADDRESS_COUNT = AttributeDefinition.builder("addressCount", 1 << 20).immutable().build();
+
+   static AttributeSet attributeDefinitionSet() {
+      return new AttributeSet(MemoryConfiguration.class, STORAGE_TYPE, ADDRESS_COUNT);
+   }
+
+   private final Attribute<StorageType> storageType;
+   private final Attribute<Integer> addressCount;
+   private final AttributeSet attributes;
+
+   MemoryConfiguration(AttributeSet attributes) {
+      this.attributes = attributes.checkProtection();
+      storageType = attributes.attribute(STORAGE_TYPE);
+      addressCount = attributes.attribute(ADDRESS_COUNT);
+   }
+
+   /**
+    * The type of storage used by the data container.
+    */
+   public StorageType storageType() {
+      return storageType.get();
+   }
+
+   /**
+    * The number of addresses allocated by the off-heap data container to locate entries. Only used when the storage
+    * type is {@link StorageType#OFF_HEAP}.
+    */
+   public int addressCount() {
+      return addressCount.get();
+   }
+
+   public AttributeSet attributes() {
+      return attributes;
+   }
+
+   @Override
+   public String toString() {
+      return "MemoryConfiguration [attributes=" + attributes + "]";
+   }
+
+   @Override
+   public boolean equals(Object obj) {
+      if (this == obj)
+         return true;
+      if (obj == null)
+         return false;
+      if (getClass() != obj.getClass())
+         return false;
+      MemoryConfiguration other = (MemoryConfiguration) obj;
+      if (attributes == null) {
+         if (other.attributes != null)
+            return false;
+      } else if (!attributes.equals(other.attributes))
+         return false;
+      return true;
+   }
+
+   @Override
+   public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((attributes == null) ? 0 : attributes.hashCode());
+      return result;
+   }
+}
@@ -0,0 +1,79 @@
+package org.infinispan.configuration.cache;
+
+import static org.infinispan.configuration.cache.MemoryConfiguration.ADDRESS_COUNT;
+import static org.infinispan.configuration.cache.MemoryConfiguration.STORAGE_TYPE;
+
+import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.commons.configuration.Builder;
+import org.infinispan.commons.configuration.attributes.AttributeSet;
+import org.infinispan.configuration.global.GlobalConfiguration;
+
+/**
+ * Controls how the data container stores entries in memory.
+ *
+ * @since 9.0
+ */
+public class MemoryConfigurationBuilder extends AbstractConfigurationChildBuilder implements Builder<MemoryConfiguration> {
+
+   private final AttributeSet attributes;
+
+   MemoryConfigurationBuilder(ConfigurationBuilder builder) {
+      super(builder);
+      attributes = MemoryConfiguration.attributeDefinitionSet();
+   }
+
+   /**
+    * Sets the type of storage used by the data container. When set to {@link StorageType#OFF_HEAP} keys and values are
+    * marshalled and stored in native memory, so they must be marshallable by the cache marshaller. Eviction, when
+    * enabled, always uses an LRU approximation regardless of the configured strategy.
+    */
+   public MemoryConfigurationBuilder storageType(StorageType storageType) {
+      attributes.attribute(STORAGE_TYPE).set(storageType);
+      return this;
+   }
+
+   public StorageType storageType() {
+      return attributes.attribute(STORAGE_TYPE).get();
+   }
+
+   /**
+    * Number of addresses allocated by the off-heap data container to locate entries, rounded up to the next power of
+    * two. Each address uses 8 bytes of native memory, and a higher count reduces the number of collisions.
+    */
+   public MemoryConfigurationBuilder addressCount(int addressCount) {
+      attributes.attribute(ADDRESS_COUNT).set(addressCount);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      if (attributes.attribute(STORAGE_TYPE).get() == StorageType.OFF_HEAP) {
+         if (attributes.attribute(ADDRESS_COUNT).get() <= 0) {
+            throw new CacheConfigurationException("Off-heap address count must be greater than zero");
+         }
+         if (getBuilder().dataContainer().create().dataContainer() != null) {
+            throw new CacheConfigurationException("Off-heap storage cannot be used together with a custom data container");
+         }
+      }
+   }
+
+   @Override
+   public void validate(GlobalConfiguration globalConfig) {
+   }
+
+   @Override
+   public MemoryConfiguration create() {
+      return new MemoryConfiguration(attributes.protect());
+   }
+
+   @Override
+   public MemoryConfigurationBuilder read(MemoryConfiguration template) {
+      this.attributes.read(template.attributes());
+      return this;
+   }
+
+   @Override
+   public String toString() {
+      return this.getClass().getSimpleName() + attributes;
+   }
+}
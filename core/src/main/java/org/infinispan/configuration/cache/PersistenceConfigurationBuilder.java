@@ -14,6 +14,7 @@
 import java.util.concurrent.TimeUnit;
 
 import static org.infinispan.configuration.cache.PersistenceConfiguration.PASSIVATION;
+import static org.infinispan.configuration.cache.PersistenceConfiguration.PRELOAD_THREADS;
 
 /**
  * Configuration for cache stores.
@@ -48,6 +49,15 @@ boolean passivation() {
       return attributes.attribute(PASSIVATION).get();
    }
 
+   /**
+    * The number of threads used to preload the cache. If greater than 1, the entries read from the store are written
+    * directly to the data container by that many threads, bypassing the interceptor chain. Defaults to 1.
+    */
+   public PersistenceConfigurationBuilder preloadThreads(int preloadThreads) {
+      attributes.attribute(PRELOAD_THREADS).set(preloadThreads);
+      return this;
+   }
+
    /**
     * Adds a cache loader which uses the specified builder class to build its configuration
     */
@@ -101,6 +111,8 @@ public PersistenceConfigurationBuilder clearStores() {
 
    @Override
    public void validate() {
+      if (attributes.attribute(PRELOAD_THREADS).get() < 1)
+         throw new CacheConfigurationException("The number of preload threads must be at least 1!");
       int numFetchPersistentState = 0;
       for (StoreConfigurationBuilder<?, ?> b : stores) {
          b.validate();
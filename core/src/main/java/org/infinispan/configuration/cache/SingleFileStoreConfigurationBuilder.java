@@ -2,8 +2,10 @@
 
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.FRAGMENTATION_FACTOR;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.LOCATION;
+import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAPPED_INDEX;
 import static org.infinispan.configuration.cache.SingleFileStoreConfiguration.MAX_ENTRIES;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 /**
  * Single file cache store configuration builder.
@@ -67,6 +69,25 @@ public SingleFileStoreConfigurationBuilder fragmentationFactor(float fragmentati
       return this;
    }
 
+   /**
+    * Keeps the hashes of the keys and their positions in the file in a memory-mapped index next to the data file,
+    * instead of keeping the keys in the heap. The index is persisted when the store is stopped, so that the store
+    * does not have to read the whole file when it is started again. Cannot be used together with
+    * {@link #maxEntries(int)}.
+    */
+   public SingleFileStoreConfigurationBuilder mappedIndex(boolean mappedIndex) {
+      attributes.attribute(MAPPED_INDEX).set(mappedIndex);
+      return this;
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (attributes.attribute(MAPPED_INDEX).get() && attributes.attribute(MAX_ENTRIES).get() > 0) {
+         throw new CacheConfigurationException("The mapped index of the single file store cannot be used with max-entries");
+      }
+   }
+
    @Override
    public SingleFileStoreConfiguration create() {
       return new SingleFileStoreConfiguration(attributes.protect(), async.create(), singletonStore.create());
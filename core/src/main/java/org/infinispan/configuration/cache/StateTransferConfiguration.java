@@ -17,15 +17,24 @@ public class StateTransferConfiguration {
    public static final AttributeDefinition<Boolean> FETCH_IN_MEMORY_STATE = AttributeDefinition.builder("fetchInMemoryState", true).immutable().build();
    public static final AttributeDefinition<Long> TIMEOUT = AttributeDefinition.builder("timeout", TimeUnit.MINUTES.toMillis(4)).immutable().build();
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder("chunkSize", 512).immutable().build();
+   public static final AttributeDefinition<Boolean> PIPELINED = AttributeDefinition.builder("pipelined", false).immutable().build();
+   public static final AttributeDefinition<Integer> CHUNK_BYTES = AttributeDefinition.builder("chunkBytes", 1024 * 1024).immutable().build();
+   public static final AttributeDefinition<Integer> MAX_IN_FLIGHT_BYTES = AttributeDefinition.builder("maxInFlightBytes", 16 * 1024 * 1024).immutable().build();
+   public static final AttributeDefinition<Integer> PARALLEL_SEGMENTS = AttributeDefinition.builder("parallelSegments", 4).immutable().build();
 
    static final AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(StoreAsBinaryConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER);
+      return new AttributeSet(StoreAsBinaryConfiguration.class, FETCH_IN_MEMORY_STATE, TIMEOUT, CHUNK_SIZE, AWAIT_INITIAL_TRANSFER,
+            PIPELINED, CHUNK_BYTES, MAX_IN_FLIGHT_BYTES, PARALLEL_SEGMENTS);
    }
 
    private final Attribute<Boolean> awaitInitialTransfer;
    private final Attribute<Boolean> fetchInMemoryState;
    private final Attribute<Long> timeout;
    private final Attribute<Integer> chunkSize;
+   private final Attribute<Boolean> pipelined;
+   private final Attribute<Integer> chunkBytes;
+   private final Attribute<Integer> maxInFlightBytes;
+   private final Attribute<Integer> parallelSegments;
    private final AttributeSet attributes;
 
    StateTransferConfiguration(AttributeSet attributes) {
@@ -34,6 +43,10 @@ static final AttributeSet attributeDefinitionSet() {
       fetchInMemoryState = attributes.attribute(FETCH_IN_MEMORY_STATE);
       timeout = attributes.attribute(TIMEOUT);
       chunkSize = attributes.attribute(CHUNK_SIZE);
+      pipelined = attributes.attribute(PIPELINED);
+      chunkBytes = attributes.attribute(CHUNK_BYTES);
+      maxInFlightBytes = attributes.attribute(MAX_IN_FLIGHT_BYTES);
+      parallelSegments = attributes.attribute(PARALLEL_SEGMENTS);
    }
 
    /**
@@ -73,6 +86,37 @@ public int chunkSize() {
       return chunkSize.get();
    }
 
+   /**
+    * If {@code true}, each node sends several segments concurrently, and the state is transferred in chunks of
+    * {@link #chunkBytes()} bytes, keeping up to {@link #maxInFlightBytes()} bytes of chunks that were not applied yet
+    * by the receiver in flight. {@link #chunkSize()} is ignored.
+    */
+   public boolean pipelined() {
+      return pipelined.get();
+   }
+
+   /**
+    * The size of the keys and values sent in one chunk, when the state transfer is pipelined.
+    */
+   public int chunkBytes() {
+      return chunkBytes.get();
+   }
+
+   /**
+    * The maximum size of the keys and values of the chunks sent to a node and not yet applied by it, when the state
+    * transfer is pipelined.
+    */
+   public int maxInFlightBytes() {
+      return maxInFlightBytes.get();
+   }
+
+   /**
+    * The number of segments sent concurrently to a node, when the state transfer is pipelined.
+    */
+   public int parallelSegments() {
+      return parallelSegments.get();
+   }
+
    /**
     * If {@code true}, this will cause the first call to method {@code CacheManager.getCache()} on the joiner node to
     * block and wait until the joining is complete and the cache has finished receiving state from neighboring caches
@@ -60,6 +60,42 @@ public StateTransferConfigurationBuilder chunkSize(int i) {
       return this;
    }
 
+   /**
+    * If {@code true}, each node sends several segments concurrently, and the state is transferred in chunks of
+    * {@link #chunkBytes(int)} bytes, keeping up to {@link #maxInFlightBytes(int)} bytes of chunks that were not applied
+    * yet by the receiver in flight. {@link #chunkSize(int)} is ignored.
+    */
+   public StateTransferConfigurationBuilder pipelined(boolean b) {
+      attributes.attribute(PIPELINED).set(b);
+      return this;
+   }
+
+   /**
+    * The size of the keys and values sent in one chunk, when the state transfer is pipelined. The size of a
+    * {@code byte[]} is its length, and the size of any other object is the length of its marshalled form.
+    */
+   public StateTransferConfigurationBuilder chunkBytes(int i) {
+      attributes.attribute(CHUNK_BYTES).set(i);
+      return this;
+   }
+
+   /**
+    * The maximum size of the keys and values of the chunks sent to a node and not yet applied by it, when the state
+    * transfer is pipelined. A chunk bigger than this limit is sent alone.
+    */
+   public StateTransferConfigurationBuilder maxInFlightBytes(int i) {
+      attributes.attribute(MAX_IN_FLIGHT_BYTES).set(i);
+      return this;
+   }
+
+   /**
+    * The number of segments sent concurrently to a node, when the state transfer is pipelined.
+    */
+   public StateTransferConfigurationBuilder parallelSegments(int i) {
+      attributes.attribute(PARALLEL_SEGMENTS).set(i);
+      return this;
+   }
+
    /**
     * This is the maximum amount of time - in milliseconds - to wait for state from neighboring
     * caches, before throwing an exception and aborting startup.
@@ -82,6 +118,15 @@ public void validate() {
       if (attributes.attribute(CHUNK_SIZE).get() <= 0) {
          throw new CacheConfigurationException("chunkSize can not be <= 0");
       }
+      if (attributes.attribute(CHUNK_BYTES).get() <= 0) {
+         throw new CacheConfigurationException("chunkBytes can not be <= 0");
+      }
+      if (attributes.attribute(MAX_IN_FLIGHT_BYTES).get() <= 0) {
+         throw new CacheConfigurationException("maxInFlightBytes can not be <= 0");
+      }
+      if (attributes.attribute(PARALLEL_SEGMENTS).get() <= 0) {
+         throw new CacheConfigurationException("parallelSegments can not be <= 0");
+      }
 
       Attribute<Boolean> awaitInitialTransfer = attributes.attribute(AWAIT_INITIAL_TRANSFER);
       if (awaitInitialTransfer.isModified() && awaitInitialTransfer.get()
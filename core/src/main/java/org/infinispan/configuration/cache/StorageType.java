@@ -0,0 +1,17 @@
+package org.infinispan.configuration.cache;
+
+/**
+ * Enumeration defining the various storage types for the data container.
+ *
+ * @since 9.0
+ */
+public enum StorageType {
+   /**
+    * Entries are stored in Java heap as regular Java objects.
+    */
+   OBJECT,
+   /**
+    * Entries are marshalled and stored in native memory outside of the Java heap.
+    */
+   OFF_HEAP
+}
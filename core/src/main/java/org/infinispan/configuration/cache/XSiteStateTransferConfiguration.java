@@ -17,20 +17,27 @@ public class XSiteStateTransferConfiguration {
    public static final long DEFAULT_TIMEOUT = TimeUnit.MINUTES.toMillis(20);
    public static final int DEFAULT_MAX_RETRIES = 30;
    public static final long DEFAULT_WAIT_TIME = TimeUnit.SECONDS.toMillis(2);
+   public static final int DEFAULT_PARALLEL_SEGMENTS = 1;
+   public static final long DEFAULT_MAX_BANDWIDTH = 0;
 
    public static final AttributeDefinition<Integer> CHUNK_SIZE = AttributeDefinition.builder("chunkSize", DEFAULT_CHUNK_SIZE).immutable().build();
    public static final AttributeDefinition<Long> TIMEOUT = AttributeDefinition.builder("timeout", DEFAULT_TIMEOUT).build();
    public static final AttributeDefinition<Integer> MAX_RETRIES = AttributeDefinition.builder("maxRetries", DEFAULT_MAX_RETRIES).build();
    public static final AttributeDefinition<Long> WAIT_TIME = AttributeDefinition.builder("waitTime", DEFAULT_WAIT_TIME).build();
+   public static final AttributeDefinition<Integer> PARALLEL_SEGMENTS = AttributeDefinition.builder("parallelSegments", DEFAULT_PARALLEL_SEGMENTS).immutable().build();
+   public static final AttributeDefinition<Long> MAX_BANDWIDTH = AttributeDefinition.builder("maxBandwidth", DEFAULT_MAX_BANDWIDTH).immutable().build();
 
    static AttributeSet attributeDefinitionSet() {
-      return new AttributeSet(XSiteStateTransferConfiguration.class, CHUNK_SIZE, TIMEOUT, MAX_RETRIES, WAIT_TIME);
+      return new AttributeSet(XSiteStateTransferConfiguration.class, CHUNK_SIZE, TIMEOUT, MAX_RETRIES, WAIT_TIME,
+                              PARALLEL_SEGMENTS, MAX_BANDWIDTH);
    }
 
    private final Attribute<Integer> chunkSize;
    private final Attribute<Long> timeout;
    private final Attribute<Integer> maxRetries;
    private final Attribute<Long> waitTime;
+   private final Attribute<Integer> parallelSegments;
+   private final Attribute<Long> maxBandwidth;
    private final AttributeSet attributes;
 
    public XSiteStateTransferConfiguration(AttributeSet attributes) {
@@ -39,6 +46,8 @@ public XSiteStateTransferConfiguration(AttributeSet attributes) {
       timeout = attributes.attribute(TIMEOUT);
       maxRetries = attributes.attribute(MAX_RETRIES);
       waitTime = attributes.attribute(WAIT_TIME);
+      parallelSegments = attributes.attribute(PARALLEL_SEGMENTS);
+      maxBandwidth = attributes.attribute(MAX_BANDWIDTH);
    }
 
    public int chunkSize() {
@@ -57,6 +66,20 @@ public long waitTime() {
       return waitTime.get();
    }
 
+   /**
+    * @see XSiteStateTransferConfigurationBuilder#parallelSegments(int)
+    */
+   public int parallelSegments() {
+      return parallelSegments.get();
+   }
+
+   /**
+    * @see XSiteStateTransferConfigurationBuilder#maxBandwidth(long)
+    */
+   public long maxBandwidth() {
+      return maxBandwidth.get();
+   }
+
    @Override
    public boolean equals(Object obj) {
       if (this == obj)
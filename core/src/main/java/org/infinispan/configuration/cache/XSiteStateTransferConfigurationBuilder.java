@@ -19,6 +19,8 @@ public class XSiteStateTransferConfigurationBuilder extends AbstractConfiguratio
    public static final long DEFAULT_TIMEOUT = TIMEOUT.getDefaultValue();
    public static final int DEFAULT_MAX_RETRIES = MAX_RETRIES.getDefaultValue();
    public static final long DEFAULT_WAIT_TIME = WAIT_TIME.getDefaultValue();
+   public static final int DEFAULT_PARALLEL_SEGMENTS = PARALLEL_SEGMENTS.getDefaultValue();
+   public static final long DEFAULT_MAX_BANDWIDTH = MAX_BANDWIDTH.getDefaultValue();
    private final BackupConfigurationBuilder backupConfigurationBuilder;
    private final AttributeSet attributes;
 
@@ -37,6 +39,12 @@ public void validate() {
       if (attributes.attribute(WAIT_TIME).get() <= 0) {
          throw new CacheConfigurationException("Waiting time between retries must be higher or equals than 1 (one).");
       }
+      if (attributes.attribute(PARALLEL_SEGMENTS).get() <= 0) {
+         throw new CacheConfigurationException("Parallel segments must be higher or equals than 1 (one).");
+      }
+      if (attributes.attribute(MAX_BANDWIDTH).get() < 0) {
+         throw new CacheConfigurationException("Maximum bandwidth must be higher or equals than 0 (zero).");
+      }
    }
 
    @Override
@@ -78,6 +86,25 @@ public final XSiteStateTransferConfigurationBuilder waitTime(long waitingTimeBet
       return this;
    }
 
+   /**
+    * The number of segments each node pushes to the remote site concurrently. Each segment is sent in its own chunks,
+    * so this is also the maximum number of chunks each node has in flight. Only used when the data container is
+    * segmented, otherwise the state is pushed one chunk at a time. Default value is 1.
+    */
+   public final XSiteStateTransferConfigurationBuilder parallelSegments(int parallelSegments) {
+      attributes.attribute(PARALLEL_SEGMENTS).set(parallelSegments);
+      return this;
+   }
+
+   /**
+    * The maximum number of bytes per second each node pushes to the remote site. The size of a chunk is the size
+    * of its entries marshalled with the cache marshaller. A value of 0 (zero) means that the bandwidth is not limited. Default value is 0.
+    */
+   public final XSiteStateTransferConfigurationBuilder maxBandwidth(long bytesPerSecond) {
+      attributes.attribute(MAX_BANDWIDTH).set(bytesPerSecond);
+      return this;
+   }
+
    public final BackupConfigurationBuilder backup() {
       return backupConfigurationBuilder;
    }
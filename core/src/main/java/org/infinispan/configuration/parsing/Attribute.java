@@ -15,9 +15,13 @@ public enum Attribute {
     // KEEP THESE IN ALPHABETICAL ORDER!
 
     ACQUIRE_TIMEOUT("acquire-timeout"),
+    ADDRESS_COUNT("address-count"),
     AFTER("after"),
     ALIASES("aliases"),
     ALLOW_DUPLICATE_DOMAINS("duplicate-domains"),
+    ANTI_ENTROPY_INTERVAL("anti-entropy-interval"),
+    ASYNC_BATCH_INTERVAL("async-batch-interval"),
+    ASYNC_BATCH_SIZE("async-batch-size"),
     ASYNC_EXECUTOR("async-executor"),
     @Deprecated
     ASYNC_MARSHALLING("async-marshalling"),
@@ -28,6 +32,7 @@ public enum Attribute {
     BACKUP_FAILURE_POLICY("failure-policy"),
     BEFORE("before"),
     CAPACITY_FACTOR("capacity"),
+    CHUNK_BYTES("chunk-bytes"),
     CHUNK_SIZE("chunk-size"),
     CLASS("class"),
     CLUSTER("cluster"),
@@ -50,6 +55,7 @@ public enum Attribute {
     GROUP_NAME("group-name"),
     ID("id"),
     INDEX("index"),
+    INDEXED("indexed"),
     INITIAL_CLUSTER_SIZE("initial-cluster-size"),
     INITIAL_CLUSTER_TIMEOUT("initial-cluster-timeout"),
     INTERVAL("interval"),
@@ -67,10 +73,13 @@ public enum Attribute {
     LOCK_TIMEOUT("lock-timeout"),
     LOCKING("locking"),
     MACHINE_ID("machine"),
+    MAPPED_INDEX("mapped-index"),
     MAPPER("mapper"),
     MARSHALLER_CLASS("marshaller"),
+    MAX_BANDWIDTH("max-bandwidth"),
     MAX_ENTRIES("max-entries"),
     MAX_IDLE("max-idle"),
+    MAX_IN_FLIGHT_BYTES("max-in-flight-bytes"),
     MAX_RETRIES("max-retries"),
     MAX_THREADS("max-threads"),
     MBEAN_SERVER_LOOKUP("mbean-server-lookup"),
@@ -83,12 +92,15 @@ public enum Attribute {
     NOTIFICATIONS("notifications"),
     ON_REHASH("onRehash"),
     OWNERS("owners"),
+    PARALLEL_SEGMENTS("parallel-segments"),
     PATH("path"),
     PASSIVATION("passivation"),
     PERMISSIONS("permissions"),
     PERSISTENCE_EXECUTOR("persistence-executor"),
+    PIPELINED("pipelined"),
     POSITION("position"),
     PRELOAD("preload"),
+    PRELOAD_THREADS("preload-threads"),
     PRIORITY("priority"),
     PURGE("purge"),
     @Deprecated
@@ -118,10 +130,13 @@ public enum Attribute {
     SITE("site"),
     SIZE("size"),
     SPIN_DURATION("deadlock-detection-spin"),
+    STAGGERED_GET_PERCENTILE("staggered-get-percentile"),
+    STAGGERED_GETS("staggered-gets"),
     STATISTICS("statistics"),
     STATISTICS_AVAILABLE("statistics-available"),
     START("start"),
     STATE_TRANSFER_EXECUTOR("state-transfer-executor"),
+    STORAGE_TYPE("storage-type"),
     STORE_KEYS_AS_BINARY("keys"),
     STORE_VALUES_AS_BINARY("values"),
     STRATEGY("strategy"),
@@ -135,6 +150,7 @@ public enum Attribute {
     THREAD_POLICY("thread-policy"),
     THREAD_POOL_SIZE("thread-pool-size"),
     TIMEOUT("timeout"),
+    TOPOLOGY_AWARE_READS("topology-aware-reads"),
     TOTAL_ORDER_EXECUTOR("total-order-executor"),
     TRANSACTION_MANAGER_LOOKUP_CLASS("transaction-manager-lookup"),
     TRANSACTION_PROTOCOL("protocol"),
@@ -60,6 +60,7 @@ public enum Element {
     PERSISTENCE("persistence"),
     PERSISTENT_LOCATION("persistent-location"),
     LOCKING("locking"),
+    MEMORY("memory"),
     MODULES("modules"),
     PROPERTIES("properties"),
     PROPERTY("property"),
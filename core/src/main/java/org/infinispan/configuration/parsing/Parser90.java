@@ -27,6 +27,7 @@
 import org.infinispan.configuration.cache.PartitionHandlingConfigurationBuilder;
 import org.infinispan.configuration.cache.SecurityConfigurationBuilder;
 import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.configuration.cache.StoreConfigurationBuilder;
 import org.infinispan.configuration.cache.VersioningScheme;
 import org.infinispan.configuration.global.GlobalAuthorizationConfigurationBuilder;
@@ -1271,6 +1272,14 @@ private void parseBackup(XMLExtendedStreamReader reader, ConfigurationBuilder bu
                backup.failurePolicyClass(value);
                break;
             }
+            case ASYNC_BATCH_SIZE: {
+               backup.asyncBatchSize(Integer.parseInt(value));
+               break;
+            }
+            case ASYNC_BATCH_INTERVAL: {
+               backup.asyncBatchInterval(Long.parseLong(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1337,6 +1346,12 @@ private void parseXSiteStateTransfer(XMLExtendedStreamReader reader, BackupConfi
             case WAIT_TIME:
                backup.stateTransfer().waitTime(Long.parseLong(value));
                break;
+            case PARALLEL_SEGMENTS:
+               backup.stateTransfer().parallelSegments(Integer.parseInt(value));
+               break;
+            case MAX_BANDWIDTH:
+               backup.stateTransfer().maxBandwidth(Long.parseLong(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -1425,6 +1440,10 @@ protected void parseCacheElement(XMLExtendedStreamReader reader, Element element
             this.parseExpiration(reader, builder);
             break;
          }
+         case MEMORY: {
+            this.parseMemory(reader, builder);
+            break;
+         }
          case PERSISTENCE: {
             this.parsePersistence(reader, holder);
             break;
@@ -1746,6 +1765,28 @@ protected void parseEviction(XMLExtendedStreamReader reader, ConfigurationBuilde
       ParseUtils.requireNoContent(reader);
    }
 
+   private void parseMemory(XMLExtendedStreamReader reader, ConfigurationBuilder builder) throws XMLStreamException {
+      for (int i = 0; i < reader.getAttributeCount(); i++) {
+         ParseUtils.requireNoNamespaceAttribute(reader, i);
+         String value = replaceProperties(reader.getAttributeValue(i));
+         Attribute attribute = Attribute.forName(reader.getAttributeLocalName(i));
+         switch (attribute) {
+            case STORAGE_TYPE: {
+               builder.memory().storageType(StorageType.valueOf(value));
+               break;
+            }
+            case ADDRESS_COUNT: {
+               builder.memory().addressCount(Integer.parseInt(value));
+               break;
+            }
+            default: {
+               throw ParseUtils.unexpectedAttribute(reader, i);
+            }
+         }
+      }
+      ParseUtils.requireNoContent(reader);
+   }
+
    private void parseExpiration(XMLExtendedStreamReader reader, ConfigurationBuilder builder) throws XMLStreamException {
       for (int i = 0; i < reader.getAttributeCount(); i++) {
          String value = replaceProperties(reader.getAttributeValue(i));
@@ -1763,6 +1804,10 @@ private void parseExpiration(XMLExtendedStreamReader reader, ConfigurationBuilde
                builder.expiration().wakeUpInterval(Long.parseLong(value));
                break;
             }
+            case INDEXED: {
+               builder.expiration().indexed(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1822,6 +1867,10 @@ private void parseClusteredCacheAttribute(XMLExtendedStreamReader reader,
             builder.clustering().remoteTimeout(Long.parseLong(value));
             break;
          }
+         case ANTI_ENTROPY_INTERVAL: {
+            builder.clustering().antiEntropyInterval(Long.parseLong(value));
+            break;
+         }
          default: {
             this.parseCacheAttribute(reader, index, attribute, value, builder);
          }
@@ -1891,6 +1940,22 @@ private void parseStateTransfer(XMLExtendedStreamReader reader, ConfigurationBui
                builder.clustering().stateTransfer().chunkSize(Integer.parseInt(value));
                break;
             }
+            case PIPELINED: {
+               builder.clustering().stateTransfer().pipelined(Boolean.parseBoolean(value));
+               break;
+            }
+            case CHUNK_BYTES: {
+               builder.clustering().stateTransfer().chunkBytes(Integer.parseInt(value));
+               break;
+            }
+            case MAX_IN_FLIGHT_BYTES: {
+               builder.clustering().stateTransfer().maxInFlightBytes(Integer.parseInt(value));
+               break;
+            }
+            case PARALLEL_SEGMENTS: {
+               builder.clustering().stateTransfer().parallelSegments(Integer.parseInt(value));
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedAttribute(reader, i);
             }
@@ -1946,6 +2011,18 @@ private void parseDistributedCache(XMLExtendedStreamReader reader, Configuration
                }
                break;
             }
+            case STAGGERED_GETS: {
+               builder.clustering().staggeredGets(Boolean.parseBoolean(value));
+               break;
+            }
+            case STAGGERED_GET_PERCENTILE: {
+               builder.clustering().staggeredGetPercentile(Double.parseDouble(value));
+               break;
+            }
+            case TOPOLOGY_AWARE_READS: {
+               builder.clustering().topologyAwareReads(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                this.parseClusteredCacheAttribute(reader, i, attribute, value, builder, baseCacheMode);
             }
@@ -2030,6 +2107,9 @@ private void parsePersistence(final XMLExtendedStreamReader reader, final Config
             case PASSIVATION:
                builder.persistence().passivation(Boolean.parseBoolean(value));
                break;
+            case PRELOAD_THREADS:
+               builder.persistence().preloadThreads(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -2099,6 +2179,10 @@ protected void parseFileStore(XMLExtendedStreamReader reader, ConfigurationBuild
                storeBuilder.fragmentationFactor(Float.parseFloat(value));
                break;
             }
+            case MAPPED_INDEX: {
+               storeBuilder.mappedIndex(Boolean.parseBoolean(value));
+               break;
+            }
             default: {
                parseStoreAttribute(reader, i, storeBuilder);
             }
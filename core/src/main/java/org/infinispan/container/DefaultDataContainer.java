@@ -227,6 +227,9 @@ public void put(K k, V v, Metadata metadata) {
          activator.onUpdate(key, entry == null);
          return copy;
       });
+      if (copy.canExpire()) {
+         expirationManager.trackExpiration(copy);
+      }
    }
 
    @Override
@@ -331,6 +334,9 @@ public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
          activator.onUpdate(k, oldEntry == null);
          if (trace)
             log.tracef("Store %s in container", newEntry);
+         if (newEntry.canExpire()) {
+            expirationManager.trackExpiration(newEntry);
+         }
          return newEntry;
       });
    }
@@ -0,0 +1,589 @@
+package org.infinispan.container;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.PeekableMap;
+import org.infinispan.commons.util.concurrent.ParallelIterableMap;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * Unbounded {@link SegmentedDataContainer} that keeps a separate concurrent map for each segment.
+ * <p>
+ * The per segment maps are stored in an array indexed by segment id, so looking up the map for a key only costs the
+ * computation of its segment. Entries of a segment that has not been added yet are stored in a map created on demand.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class DefaultSegmentedDataContainer<K, V> implements SegmentedDataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(DefaultSegmentedDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private static final int SEGMENT_INITIAL_CAPACITY = 16;
+
+   private final AtomicReferenceArray<ConcurrentMap<K, InternalCacheEntry<K, V>>> maps;
+   private final int concurrencyLevel;
+   private final Equivalence<? super K> keyEquivalence;
+
+   protected InternalEntryFactory entryFactory;
+   private KeyPartitioner keyPartitioner;
+   private PassivationManager passivator;
+   private ActivationManager activator;
+   private TimeService timeService;
+   private ExpirationManager<K, V> expirationManager;
+
+   public DefaultSegmentedDataContainer(int numSegments, int concurrencyLevel) {
+      this(numSegments, concurrencyLevel, AnyEquivalence.getInstance());
+   }
+
+   public DefaultSegmentedDataContainer(int numSegments, int concurrencyLevel, Equivalence<? super K> keyEquivalence) {
+      this.maps = new AtomicReferenceArray<>(numSegments);
+      this.concurrencyLevel = concurrencyLevel;
+      this.keyEquivalence = keyEquivalence;
+   }
+
+   @Inject
+   public void initialize(KeyPartitioner keyPartitioner, PassivationManager passivator,
+                          InternalEntryFactory entryFactory, ActivationManager activator, TimeService timeService,
+                          ExpirationManager<K, V> expirationManager) {
+      this.keyPartitioner = keyPartitioner;
+      this.passivator = passivator;
+      this.entryFactory = entryFactory;
+      this.activator = activator;
+      this.timeService = timeService;
+      this.expirationManager = expirationManager;
+   }
+
+   private ConcurrentMap<K, InternalCacheEntry<K, V>> newSegmentMap() {
+      return CollectionFactory.makeConcurrentParallelMap(SEGMENT_INITIAL_CAPACITY, concurrencyLevel, keyEquivalence,
+            AnyEquivalence.getInstance());
+   }
+
+   private ConcurrentMap<K, InternalCacheEntry<K, V>> getMap(Object key) {
+      return maps.get(keyPartitioner.getSegment(key));
+   }
+
+   private ConcurrentMap<K, InternalCacheEntry<K, V>> getOrCreateMap(Object key) {
+      int segment = keyPartitioner.getSegment(key);
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segment);
+      if (map == null) {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> newMap = newSegmentMap();
+         if (maps.compareAndSet(segment, null, newMap)) {
+            map = newMap;
+         } else {
+            map = maps.get(segment);
+         }
+      }
+      return map;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object key) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMap(key);
+      if (map == null) {
+         return null;
+      }
+      if (map instanceof PeekableMap) {
+         return ((PeekableMap<K, InternalCacheEntry<K, V>>) map).peek(key);
+      }
+      return map.get(key);
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMap(k);
+      InternalCacheEntry<K, V> e = map != null ? map.get(k) : null;
+      if (e != null && e.canExpire()) {
+         long currentTimeMillis = timeService.wallClockTime();
+         if (e.isExpired(currentTimeMillis)) {
+            expirationManager.handleInMemoryExpiration(e, currentTimeMillis);
+            e = null;
+         } else {
+            e.touch(currentTimeMillis);
+         }
+      }
+      return e;
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      boolean l1Entry = false;
+      if (metadata instanceof L1Metadata) {
+         metadata = ((L1Metadata) metadata).metadata();
+         l1Entry = true;
+      }
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getOrCreateMap(k);
+      InternalCacheEntry<K, V> e = map.get(k);
+
+      if (trace) {
+         log.tracef("Creating new ICE for writing. Existing=%s, metadata=%s, new value=%s", e, metadata, v);
+      }
+      final InternalCacheEntry<K, V> copy;
+      if (l1Entry) {
+         copy = entryFactory.createL1(k, v, metadata);
+      } else if (e != null) {
+         copy = entryFactory.update(e, v, metadata);
+      } else {
+         // this is a brand-new entry
+         copy = entryFactory.create(k, v, metadata);
+      }
+
+      if (trace)
+         log.tracef("Store %s in container", copy);
+
+      map.compute(copy.getKey(), (key, entry) -> {
+         activator.onUpdate(key, entry == null);
+         return copy;
+      });
+      if (copy.canExpire()) {
+         expirationManager.trackExpiration(copy);
+      }
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      InternalCacheEntry<K, V> ice = peek(k);
+      if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMap(k);
+         if (map != null) {
+            map.remove(k);
+         }
+         ice = null;
+      }
+      return ice != null;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMap(k);
+      if (map == null) {
+         activator.onRemove(k, true);
+         return null;
+      }
+      final InternalCacheEntry<K, V>[] reference = new InternalCacheEntry[1];
+      map.compute((K) k, (key, entry) -> {
+         activator.onRemove(key, entry == null);
+         reference[0] = entry;
+         return null;
+      });
+      InternalCacheEntry<K, V> e = reference[0];
+      return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
+   }
+
+   @Override
+   public int size() {
+      return count(iterator());
+   }
+
+   @Override
+   public int size(Set<Integer> segments) {
+      return count(iterator(segments));
+   }
+
+   private static int count(Iterator<?> iterator) {
+      int size = 0;
+      // We have to loop through to make sure to remove expired entries
+      while (iterator.hasNext()) {
+         iterator.next();
+         if (++size == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+      }
+      return size;
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      return sizeIncludingExpired(IntStream.range(0, maps.length()).iterator());
+   }
+
+   @Override
+   public int sizeIncludingExpired(Set<Integer> segments) {
+      return sizeIncludingExpired(segments.stream().mapToInt(Integer::intValue).iterator());
+   }
+
+   private int sizeIncludingExpired(PrimitiveIterator.OfInt segments) {
+      long size = 0;
+      while (segments.hasNext()) {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segments.nextInt());
+         if (map != null) {
+            size += map.size();
+         }
+      }
+      return size > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) size;
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing data container");
+      for (int i = 0; i < maps.length(); i++) {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(i);
+         if (map != null) {
+            map.clear();
+         }
+      }
+   }
+
+   @Override
+   public void addSegments(Set<Integer> segments) {
+      if (trace) log.tracef("Adding segments %s to data container", segments);
+      for (Integer segment : segments) {
+         if (maps.get(segment) == null) {
+            maps.compareAndSet(segment, null, newSegmentMap());
+         }
+      }
+   }
+
+   @Override
+   public void removeSegments(Set<Integer> segments) {
+      if (trace) log.tracef("Removing segments %s from data container", segments);
+      for (Integer segment : segments) {
+         ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.getAndSet(segment, null);
+         if (map != null) {
+            map.clear();
+         }
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void purgeExpired() {
+      // Just calls to expiration manager to handle this
+      expirationManager.processExpiration();
+   }
+
+   @Override
+   public void evict(K key) {
+      ConcurrentMap<K, InternalCacheEntry<K, V>> map = getMap(key);
+      if (map != null) {
+         map.computeIfPresent(key, (o, entry) -> {
+            passivator.passivate(entry);
+            return null;
+         });
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      return getOrCreateMap(key).compute(key, (k, oldEntry) -> {
+         InternalCacheEntry<K, V> newEntry = action.compute(k, oldEntry, entryFactory);
+         if (newEntry == oldEntry) {
+            return oldEntry;
+         } else if (newEntry == null) {
+            activator.onRemove(k, false);
+            return null;
+         }
+         activator.onUpdate(k, oldEntry == null);
+         if (trace)
+            log.tracef("Store %s in container", newEntry);
+         if (newEntry.canExpire()) {
+            expirationManager.trackExpiration(newEntry);
+         }
+         return newEntry;
+      });
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator(new SegmentValuesIterator(IntStream.range(0, maps.length()).iterator()), false);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      return new EntryIterator(new SegmentValuesIterator(IntStream.range(0, maps.length()).iterator()), true);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator(Set<Integer> segments) {
+      return new EntryIterator(new SegmentValuesIterator(segments.stream().mapToInt(Integer::intValue).iterator()),
+            false);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(Set<Integer> segments) {
+      return new EntryIterator(new SegmentValuesIterator(segments.stream().mapToInt(Integer::intValue).iterator()),
+            true);
+   }
+
+   @Override
+   public void executeTask(final KeyFilter<? super K> filter, final BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (int i = 0; i < maps.length(); i++) {
+         ParallelIterableMap<K, InternalCacheEntry<K, V>> map = (ParallelIterableMap<K, InternalCacheEntry<K, V>>) maps.get(i);
+         if (map != null) {
+            map.forEach(32, (K key, InternalCacheEntry<K, V> value) -> {
+               if (filter.accept(key)) {
+                  action.accept(key, value);
+               }
+            });
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public void executeTask(final KeyValueFilter<? super K, ? super V> filter, final BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (int i = 0; i < maps.length(); i++) {
+         ParallelIterableMap<K, InternalCacheEntry<K, V>> map = (ParallelIterableMap<K, InternalCacheEntry<K, V>>) maps.get(i);
+         if (map != null) {
+            map.forEach(32, (K key, InternalCacheEntry<K, V> value) -> {
+               if (filter.accept(key, value.getValue(), value.getMetadata())) {
+                  action.accept(key, value);
+               }
+            });
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   /**
+    * Iterates over the values of the maps of the given segments, one segment after the other. Segments that are
+    * removed while iterating are skipped if the iteration didn't reach them yet.
+    */
+   private class SegmentValuesIterator implements Iterator<InternalCacheEntry<K, V>> {
+      private final PrimitiveIterator.OfInt segments;
+      private Iterator<InternalCacheEntry<K, V>> current = Collections.emptyIterator();
+
+      SegmentValuesIterator(PrimitiveIterator.OfInt segments) {
+         this.segments = segments;
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (!current.hasNext()) {
+            if (!segments.hasNext()) {
+               return false;
+            }
+            ConcurrentMap<K, InternalCacheEntry<K, V>> map = maps.get(segments.nextInt());
+            if (map != null) {
+               current = map.values().iterator();
+            }
+         }
+         return true;
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return current.next();
+      }
+   }
+
+   private class ImmutableEntryIterator extends EntryIterator {
+      ImmutableEntryIterator(Iterator<InternalCacheEntry<K, V>> it) {
+         super(it, true);
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         return CoreImmutables.immutableInternalCacheEntry(super.next());
+      }
+   }
+
+   private class EntryIterator implements Iterator<InternalCacheEntry<K, V>> {
+
+      private final Iterator<InternalCacheEntry<K, V>> it;
+      private final boolean includeExpired;
+
+      private InternalCacheEntry<K, V> next;
+
+      EntryIterator(Iterator<InternalCacheEntry<K, V>> it, boolean includeExpired) {
+         this.it = it;
+         this.includeExpired = includeExpired;
+      }
+
+      private InternalCacheEntry<K, V> getNext() {
+         boolean initializedTime = false;
+         long now = 0;
+         while (it.hasNext()) {
+            InternalCacheEntry<K, V> entry = it.next();
+            if (includeExpired || !entry.canExpire()) {
+               return entry;
+            } else {
+               if (!initializedTime) {
+                  now = timeService.wallClockTime();
+                  initializedTime = true;
+               }
+               if (!entry.isExpired(now)) {
+                  return entry;
+               }
+            }
+         }
+         return null;
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (next == null) {
+            next = getNext();
+         }
+         if (next == null) {
+            throw new NoSuchElementException();
+         }
+         InternalCacheEntry<K, V> toReturn = next;
+         next = null;
+         return toReturn;
+      }
+
+      @Override
+      public boolean hasNext() {
+         if (next == null) {
+            next = getNext();
+         }
+         return next != null;
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class KeySet extends AbstractSet<K> {
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public Iterator<K> iterator() {
+         Iterator<InternalCacheEntry<K, V>> it = iteratorIncludingExpired();
+         return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public K next() {
+               return it.next().getKey();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class EntrySet extends AbstractSet<InternalCacheEntry<K, V>> {
+
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+
+         @SuppressWarnings("rawtypes")
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         if (ice == null) {
+            return false;
+         }
+         return ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         return new ImmutableEntryIterator(new SegmentValuesIterator(IntStream.range(0, maps.length()).iterator()));
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Collection
+    */
+   private class Values extends AbstractCollection<V> {
+      @Override
+      public Iterator<V> iterator() {
+         Iterator<InternalCacheEntry<K, V>> it = iteratorIncludingExpired();
+         return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public V next() {
+               return it.next().getValue();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+}
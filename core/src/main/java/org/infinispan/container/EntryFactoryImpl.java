@@ -32,6 +32,7 @@ public class EntryFactoryImpl implements EntryFactory {
    private final boolean trace = log.isTraceEnabled();
    
    private boolean useRepeatableRead;
+   private boolean isClustered;
    private DataContainer container;
    private boolean isL1Enabled; //cache the value
    private Configuration configuration;
@@ -52,6 +53,7 @@ public void injectDependencies(DataContainer dataContainer, Configuration config
    public void init() {
       useRepeatableRead = configuration.locking().isolationLevel() == IsolationLevel.REPEATABLE_READ;
       isL1Enabled = configuration.clustering().l1().enabled();
+      isClustered = configuration.clustering().cacheMode().isClustered();
    }
 
    @Override
@@ -62,7 +64,8 @@ public final CacheEntry wrapEntryForReading(InvocationContext ctx, Object key, C
 
          // With repeatable read, we need to create a RepeatableReadEntry
          // Otherwise we can store the InternalCacheEntry directly in the context
-         if (useRepeatableRead) {
+         // A local read outside a transaction is never repeated, so it doesn't need a copy of the entry either
+         if (useRepeatableRead && (ctx.isInTxScope() || isClustered)) {
             cacheEntry = createWrappedEntry(key, cacheEntry, ctx, false);
          }
          if (cacheEntry != null) {
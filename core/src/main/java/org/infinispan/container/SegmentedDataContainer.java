@@ -0,0 +1,70 @@
+package org.infinispan.container;
+
+import java.util.Iterator;
+import java.util.Set;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+
+/**
+ * A {@link DataContainer} that partitions its entries by segment, so that operations which only care about a few
+ * segments (state transfer, segment filtered streams, removal of no longer owned data) only have to touch the entries
+ * of those segments instead of the whole container.
+ * <p>
+ * Segments are computed using the cache's {@link org.infinispan.distribution.ch.KeyPartitioner}. Segments that have
+ * not been added explicitly are still created on demand the first time an entry is written to them (e.g. L1 entries),
+ * so {@link #addSegments(Set)} is only an optimization and never a prerequisite for writes.
+ *
+ * @since 9.0
+ */
+public interface SegmentedDataContainer<K, V> extends DataContainer<K, V> {
+
+   /**
+    * Same as {@link DataContainer#iterator()} except that only entries belonging to the given segments are returned.
+    * Expired entries are not returned.
+    *
+    * @param segments the segments whose entries should be returned
+    * @return iterator over the non expired entries of the given segments
+    */
+   Iterator<InternalCacheEntry<K, V>> iterator(Set<Integer> segments);
+
+   /**
+    * Same as {@link DataContainer#iteratorIncludingExpired()} except that only entries belonging to the given segments
+    * are returned.
+    *
+    * @param segments the segments whose entries should be returned
+    * @return iterator over all the entries of the given segments, including expired ones
+    */
+   Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired(Set<Integer> segments);
+
+   /**
+    * Same as {@link DataContainer#size()} but only counts the entries belonging to the given segments.
+    *
+    * @param segments the segments to count
+    * @return number of non expired entries in the given segments
+    */
+   int size(Set<Integer> segments);
+
+   /**
+    * Same as {@link DataContainer#sizeIncludingExpired()} but only counts the entries belonging to the given segments.
+    *
+    * @param segments the segments to count
+    * @return number of entries in the given segments, including expired ones
+    */
+   int sizeIncludingExpired(Set<Integer> segments);
+
+   /**
+    * Allocates the storage for the given segments, if not already present. Invoked when the local node becomes an
+    * owner of new segments.
+    *
+    * @param segments the segments that are now owned
+    */
+   void addSegments(Set<Integer> segments);
+
+   /**
+    * Drops the given segments along with all the entries they contain. No passivation or notification is performed
+    * for the discarded entries, so callers must make sure any cache store or listener cleanup has already happened.
+    *
+    * @param segments the segments that are no longer owned
+    */
+   void removeSegments(Set<Integer> segments);
+}
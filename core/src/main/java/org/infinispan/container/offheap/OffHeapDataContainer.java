@@ -0,0 +1,983 @@
+package org.infinispan.container.offheap;
+
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+
+import java.io.IOException;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.logging.Log;
+import org.infinispan.commons.logging.LogFactory;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.Util;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.entries.L1InternalCacheEntry;
+import org.infinispan.container.entries.metadata.L1MetadataInternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.filter.KeyFilter;
+import org.infinispan.filter.KeyValueFilter;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.L1Metadata;
+import org.infinispan.util.CoreImmutables;
+import org.infinispan.util.TimeService;
+
+/**
+ * A {@link DataContainer} that stores its entries in native memory instead of the Java heap.
+ * <p>
+ * Keys, values and (when needed) metadata are marshalled with the cache marshaller and copied into a native memory
+ * block per entry. Entries are located through a fixed size table of native addresses (the address count), where
+ * every address is the head of a chain of entries whose marshalled keys hash to that slot. As keys are compared in
+ * their marshalled form, two keys are considered equal only if they marshall to the same bytes.
+ * <p>
+ * Slots are guarded by a set of striped read/write locks. When the container is bounded, entries are additionally
+ * linked in an off-heap LRU list which is used to pick eviction victims, either by entry count or by the number of
+ * native bytes allocated depending on the {@link EvictionType}.
+ * <p>
+ * Entries returned from this container are copies materialized on every read, therefore modifications done to them
+ * are not reflected in the container unless they are written back through {@link #put(Object, Object, Metadata)} or
+ * {@link #compute(Object, ComputeAction)}.
+ *
+ * @since 9.0
+ */
+@ThreadSafe
+public class OffHeapDataContainer<K, V> implements DataContainer<K, V> {
+
+   private static final Log log = LogFactory.getLog(OffHeapDataContainer.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   // Layout of an entry in native memory
+   private static final int NEXT_OFFSET = 0;
+   private static final int LRU_PREVIOUS_OFFSET = 8;
+   private static final int LRU_NEXT_OFFSET = 16;
+   private static final int HASH_OFFSET = 24;
+   private static final int FLAGS_OFFSET = 28;
+   private static final int KEY_LENGTH_OFFSET = 32;
+   private static final int VALUE_LENGTH_OFFSET = 36;
+   private static final int METADATA_LENGTH_OFFSET = 40;
+   private static final int CREATED_OFFSET = 48;
+   private static final int LAST_USED_OFFSET = 56;
+   private static final int LIFESPAN_OFFSET = 64;
+   private static final int MAX_IDLE_OFFSET = 72;
+   private static final int HEADER_SIZE = 80;
+
+   private static final int L1_FLAG = 1;
+
+   private final int addressCount;
+   private final ReadWriteLock[] locks;
+   private final EvictionType evictionType;
+   private final boolean bounded;
+   private volatile long maxSize;
+
+   private final AtomicLong count = new AtomicLong();
+   private final AtomicLong allocatedBytes = new AtomicLong();
+
+   // Guards the LRU list, only used when the container is bounded
+   private final Lock lruLock = new ReentrantLock();
+   private long lruHead;
+   private long lruTail;
+
+   private volatile long bucketsAddress;
+
+   private StreamingMarshaller marshaller;
+   private InternalEntryFactory entryFactory;
+   private EvictionManager evictionManager;
+   private PassivationManager passivator;
+   private ActivationManager activator;
+   private TimeService timeService;
+   private ExpirationManager<K, V> expirationManager;
+
+   /**
+    * Creates an unbounded off-heap container.
+    *
+    * @param addressCount     number of slots in the address table, rounded up to the next power of two
+    * @param concurrencyLevel number of lock stripes guarding the slots, rounded up to the next power of two
+    */
+   public OffHeapDataContainer(int addressCount, int concurrencyLevel) {
+      this(addressCount, concurrencyLevel, -1, EvictionType.COUNT);
+   }
+
+   /**
+    * Creates an off-heap container which evicts entries once {@code maxSize} is reached.
+    *
+    * @param addressCount     number of slots in the address table, rounded up to the next power of two
+    * @param concurrencyLevel number of lock stripes guarding the slots, rounded up to the next power of two
+    * @param maxSize          the maximum number of entries or bytes, depending on the {@code evictionType}. A negative
+    *                         value means the container is unbounded
+    * @param evictionType     whether {@code maxSize} is expressed in entries or in allocated native bytes
+    */
+   public OffHeapDataContainer(int addressCount, int concurrencyLevel, long maxSize, EvictionType evictionType) {
+      this.addressCount = Util.findNextHighestPowerOfTwo(addressCount);
+      int lockCount = Math.min(Util.findNextHighestPowerOfTwo(concurrencyLevel), this.addressCount);
+      this.locks = new ReadWriteLock[lockCount];
+      for (int i = 0; i < lockCount; ++i) {
+         locks[i] = new ReentrantReadWriteLock();
+      }
+      this.maxSize = maxSize;
+      this.bounded = maxSize >= 0;
+      this.evictionType = evictionType;
+      allocate();
+   }
+
+   @Inject
+   public void initialize(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
+                          InternalEntryFactory entryFactory, EvictionManager evictionManager,
+                          PassivationManager passivator, ActivationManager activator, TimeService timeService,
+                          ExpirationManager<K, V> expirationManager) {
+      this.marshaller = marshaller;
+      this.entryFactory = entryFactory;
+      this.evictionManager = evictionManager;
+      this.passivator = passivator;
+      this.activator = activator;
+      this.timeService = timeService;
+      this.expirationManager = expirationManager;
+   }
+
+   @Start(priority = 1) // Must be ready before the persistence manager preloads entries
+   public void allocate() {
+      if (bucketsAddress == 0) {
+         bucketsAddress = OffHeapMemory.allocateZeroed(((long) addressCount) << 3);
+      }
+   }
+
+   @Stop(priority = 1000) // After clear
+   public void deallocate() {
+      if (bucketsAddress != 0) {
+         clear();
+         OffHeapMemory.free(bucketsAddress);
+         bucketsAddress = 0;
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> get(Object k) {
+      byte[] keyBytes = toBytes(k);
+      int hash = hash(keyBytes);
+      int bucket = bucket(hash);
+      InternalCacheEntry<K, V> entry;
+      long now = 0;
+      boolean expired = false;
+      Lock lock = lockFor(bucket).readLock();
+      lock.lock();
+      try {
+         long address = find(bucket, keyBytes, hash);
+         if (address == 0) {
+            return null;
+         }
+         entry = toEntry(address, (K) k);
+         if (entry.canExpire()) {
+            now = timeService.wallClockTime();
+            if (entry.isExpired(now)) {
+               expired = true;
+            } else {
+               entry.touch(now);
+               OffHeapMemory.putLongVolatile(address + LAST_USED_OFFSET, now);
+            }
+         }
+         if (bounded && !expired) {
+            lruMoveToTail(address);
+         }
+      } finally {
+         lock.unlock();
+      }
+      if (expired) {
+         expirationManager.handleInMemoryExpiration(entry, now);
+         return null;
+      }
+      return entry;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> peek(Object k) {
+      byte[] keyBytes = toBytes(k);
+      int hash = hash(keyBytes);
+      int bucket = bucket(hash);
+      Lock lock = lockFor(bucket).readLock();
+      lock.lock();
+      try {
+         long address = find(bucket, keyBytes, hash);
+         return address == 0 ? null : toEntry(address, (K) k);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public void put(K k, V v, Metadata metadata) {
+      boolean l1Entry = false;
+      if (metadata instanceof L1Metadata) {
+         metadata = ((L1Metadata) metadata).metadata();
+         l1Entry = true;
+      }
+      InternalCacheEntry<K, V> entry = l1Entry ? entryFactory.createL1(k, v, metadata) : entryFactory.create(k, v, metadata);
+      if (trace)
+         log.tracef("Store %s in container", entry);
+
+      byte[] keyBytes = toBytes(k);
+      int hash = hash(keyBytes);
+      int bucket = bucket(hash);
+      // Marshall and copy outside of the lock
+      long newAddress = allocateEntry(keyBytes, hash, entry);
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         boolean created = store(bucket, keyBytes, hash, newAddress);
+         activator.onUpdate(k, created);
+      } finally {
+         lock.unlock();
+      }
+      if (entry.canExpire()) {
+         expirationManager.trackExpiration(entry);
+      }
+      evictIfNeeded();
+   }
+
+   @Override
+   public boolean containsKey(Object k) {
+      InternalCacheEntry<K, V> ice = peek(k);
+      if (ice != null && ice.canExpire() && ice.isExpired(timeService.wallClockTime())) {
+         removeEntry(k, false);
+         ice = null;
+      }
+      return ice != null;
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> remove(Object k) {
+      InternalCacheEntry<K, V> e = removeEntry(k, true);
+      return e == null || (e.canExpire() && e.isExpired(timeService.wallClockTime())) ? null : e;
+   }
+
+   private InternalCacheEntry<K, V> removeEntry(Object k, boolean notifyActivation) {
+      byte[] keyBytes = toBytes(k);
+      int hash = hash(keyBytes);
+      int bucket = bucket(hash);
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         long slot = slot(bucket);
+         long previous = 0;
+         long address = OffHeapMemory.getLong(slot);
+         while (address != 0) {
+            long next = OffHeapMemory.getLong(address + NEXT_OFFSET);
+            if (matches(address, keyBytes, hash)) {
+               InternalCacheEntry<K, V> entry = toEntry(address, (K) k);
+               unlink(slot, previous, address);
+               if (notifyActivation) {
+                  activator.onRemove(k, false);
+               }
+               return entry;
+            }
+            previous = address;
+            address = next;
+         }
+         if (notifyActivation) {
+            activator.onRemove(k, true);
+         }
+         return null;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public int size() {
+      int size = 0;
+      // We have to loop through to make sure to remove expired entries
+      for (Iterator<InternalCacheEntry<K, V>> iter = iterator(); iter.hasNext(); ) {
+         iter.next();
+         if (++size == Integer.MAX_VALUE) return Integer.MAX_VALUE;
+      }
+      return size;
+   }
+
+   @Override
+   public int sizeIncludingExpired() {
+      return (int) Math.min(count.get(), Integer.MAX_VALUE);
+   }
+
+   @Override
+   public void clear() {
+      log.tracef("Clearing off-heap data container");
+      for (ReadWriteLock lock : locks) {
+         lock.writeLock().lock();
+      }
+      try {
+         if (bucketsAddress == 0) {
+            return;
+         }
+         for (int bucket = 0; bucket < addressCount; ++bucket) {
+            long slot = slot(bucket);
+            long address = OffHeapMemory.getLong(slot);
+            while (address != 0) {
+               long next = OffHeapMemory.getLong(address + NEXT_OFFSET);
+               OffHeapMemory.free(address);
+               address = next;
+            }
+            OffHeapMemory.putLong(slot, 0);
+         }
+         lruLock.lock();
+         try {
+            lruHead = 0;
+            lruTail = 0;
+         } finally {
+            lruLock.unlock();
+         }
+         count.set(0);
+         allocatedBytes.set(0);
+      } finally {
+         for (ReadWriteLock lock : locks) {
+            lock.writeLock().unlock();
+         }
+      }
+   }
+
+   @Override
+   public Set<K> keySet() {
+      return new KeySet();
+   }
+
+   @Override
+   public Collection<V> values() {
+      return new Values();
+   }
+
+   @Override
+   public Set<InternalCacheEntry<K, V>> entrySet() {
+      return new EntrySet();
+   }
+
+   @Override
+   public void purgeExpired() {
+      // Just calls to expiration manager to handle this
+      expirationManager.processExpiration();
+   }
+
+   @Override
+   public void evict(K key) {
+      byte[] keyBytes = toBytes(key);
+      int hash = hash(keyBytes);
+      int bucket = bucket(hash);
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         long slot = slot(bucket);
+         long previous = 0;
+         long address = OffHeapMemory.getLong(slot);
+         while (address != 0) {
+            if (matches(address, keyBytes, hash)) {
+               passivator.passivate(toEntry(address, key));
+               unlink(slot, previous, address);
+               return;
+            }
+            previous = address;
+            address = OffHeapMemory.getLong(address + NEXT_OFFSET);
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   @Override
+   public InternalCacheEntry<K, V> compute(K key, ComputeAction<K, V> action) {
+      byte[] keyBytes = toBytes(key);
+      int hash = hash(keyBytes);
+      int bucket = bucket(hash);
+      InternalCacheEntry<K, V> newEntry;
+      Lock lock = lockFor(bucket).writeLock();
+      lock.lock();
+      try {
+         long slot = slot(bucket);
+         long previous = 0;
+         long address = OffHeapMemory.getLong(slot);
+         while (address != 0 && !matches(address, keyBytes, hash)) {
+            previous = address;
+            address = OffHeapMemory.getLong(address + NEXT_OFFSET);
+         }
+         InternalCacheEntry<K, V> oldEntry = address == 0 ? null : toEntry(address, key);
+         Object oldValue = null;
+         Metadata oldMetadata = null;
+         long oldCreated = 0, oldLastUsed = 0;
+         if (oldEntry != null) {
+            oldValue = oldEntry.getValue();
+            oldMetadata = oldEntry.getMetadata();
+            oldCreated = oldEntry.getCreated();
+            oldLastUsed = oldEntry.getLastUsed();
+         }
+         newEntry = action.compute(key, oldEntry, entryFactory);
+         if (newEntry == null) {
+            if (address != 0) {
+               unlink(slot, previous, address);
+               activator.onRemove(key, false);
+            }
+            return null;
+         }
+         // The old entry is a copy, so it's only written back if the action updated it in place
+         if (newEntry == oldEntry && oldValue == newEntry.getValue() && oldMetadata == newEntry.getMetadata()
+               && oldCreated == newEntry.getCreated() && oldLastUsed == newEntry.getLastUsed()) {
+            return oldEntry;
+         }
+         if (trace)
+            log.tracef("Store %s in container", newEntry);
+         store(bucket, keyBytes, hash, allocateEntry(keyBytes, hash, newEntry));
+         activator.onUpdate(key, oldEntry == null);
+      } finally {
+         lock.unlock();
+      }
+      if (newEntry.canExpire()) {
+         expirationManager.trackExpiration(newEntry);
+      }
+      evictIfNeeded();
+      return newEntry;
+   }
+
+   @Override
+   public void executeTask(KeyFilter<? super K> filter, BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (int bucket = 0; bucket < addressCount; ++bucket) {
+         for (InternalCacheEntry<K, V> entry : readBucket(bucket, true, 0)) {
+            if (filter.accept(entry.getKey())) {
+               action.accept(entry.getKey(), entry);
+            }
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public void executeTask(KeyValueFilter<? super K, ? super V> filter, BiConsumer<? super K, InternalCacheEntry<K, V>> action)
+         throws InterruptedException {
+      if (filter == null)
+         throw new IllegalArgumentException("No filter specified");
+      if (action == null)
+         throw new IllegalArgumentException("No action specified");
+
+      for (int bucket = 0; bucket < addressCount; ++bucket) {
+         for (InternalCacheEntry<K, V> entry : readBucket(bucket, true, 0)) {
+            if (filter.accept(entry.getKey(), entry.getValue(), entry.getMetadata())) {
+               action.accept(entry.getKey(), entry);
+            }
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+         }
+      }
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iterator() {
+      return new EntryIterator(false);
+   }
+
+   @Override
+   public Iterator<InternalCacheEntry<K, V>> iteratorIncludingExpired() {
+      return new EntryIterator(true);
+   }
+
+   @Override
+   public long capacity() {
+      if (!bounded) {
+         throw new UnsupportedOperationException();
+      }
+      return maxSize;
+   }
+
+   @Override
+   public void resize(long newSize) {
+      if (!bounded) {
+         throw log.cannotResizeUnboundedContainer();
+      }
+      maxSize = newSize;
+      evictIfNeeded();
+   }
+
+   /**
+    * @return the number of bytes of native memory currently allocated for entries
+    */
+   public long allocatedBytes() {
+      return allocatedBytes.get();
+   }
+
+   private long slot(int bucket) {
+      return bucketsAddress + (((long) bucket) << 3);
+   }
+
+   private int bucket(int hash) {
+      return (hash ^ (hash >>> 16)) & (addressCount - 1);
+   }
+
+   private ReadWriteLock lockFor(int bucket) {
+      return locks[bucket & (locks.length - 1)];
+   }
+
+   private static int hash(byte[] keyBytes) {
+      return MurmurHash3.getInstance().hash(keyBytes);
+   }
+
+   private long find(int bucket, byte[] keyBytes, int hash) {
+      long address = OffHeapMemory.getLong(slot(bucket));
+      while (address != 0) {
+         if (matches(address, keyBytes, hash)) {
+            return address;
+         }
+         address = OffHeapMemory.getLong(address + NEXT_OFFSET);
+      }
+      return 0;
+   }
+
+   private static boolean matches(long address, byte[] keyBytes, int hash) {
+      return OffHeapMemory.getInt(address + HASH_OFFSET) == hash
+            && OffHeapMemory.getInt(address + KEY_LENGTH_OFFSET) == keyBytes.length
+            && OffHeapMemory.equals(address + HEADER_SIZE, keyBytes);
+   }
+
+   private static long entrySize(long address) {
+      return HEADER_SIZE + (long) OffHeapMemory.getInt(address + KEY_LENGTH_OFFSET)
+            + OffHeapMemory.getInt(address + VALUE_LENGTH_OFFSET) + OffHeapMemory.getInt(address + METADATA_LENGTH_OFFSET);
+   }
+
+   /**
+    * Links the entry at {@code newAddress} in the given bucket, replacing any entry with the same key. Must be invoked
+    * while holding the write lock for the bucket.
+    *
+    * @return {@code true} if there was no previous entry for the key
+    */
+   private boolean store(int bucket, byte[] keyBytes, int hash, long newAddress) {
+      long slot = slot(bucket);
+      long previous = 0;
+      long address = OffHeapMemory.getLong(slot);
+      while (address != 0) {
+         long next = OffHeapMemory.getLong(address + NEXT_OFFSET);
+         if (matches(address, keyBytes, hash)) {
+            OffHeapMemory.putLong(newAddress + NEXT_OFFSET, next);
+            link(slot, previous, newAddress);
+            release(address);
+            if (bounded) {
+               lruAddLast(newAddress);
+            }
+            return false;
+         }
+         previous = address;
+         address = next;
+      }
+      OffHeapMemory.putLong(newAddress + NEXT_OFFSET, OffHeapMemory.getLong(slot));
+      OffHeapMemory.putLong(slot, newAddress);
+      if (bounded) {
+         lruAddLast(newAddress);
+      }
+      count.incrementAndGet();
+      return true;
+   }
+
+   /**
+    * Removes the entry from the bucket chain and frees its memory. Must be invoked while holding the write lock for
+    * the bucket.
+    */
+   private void unlink(long slot, long previous, long address) {
+      link(slot, previous, OffHeapMemory.getLong(address + NEXT_OFFSET));
+      release(address);
+      count.decrementAndGet();
+   }
+
+   private static void link(long slot, long previous, long address) {
+      if (previous == 0) {
+         OffHeapMemory.putLong(slot, address);
+      } else {
+         OffHeapMemory.putLong(previous + NEXT_OFFSET, address);
+      }
+   }
+
+   private void release(long address) {
+      if (bounded) {
+         lruRemove(address);
+      }
+      allocatedBytes.addAndGet(-entrySize(address));
+      OffHeapMemory.free(address);
+   }
+
+   private long allocateEntry(byte[] keyBytes, int hash, InternalCacheEntry<K, V> entry) {
+      byte[] valueBytes = toBytes(entry.getValue());
+      Metadata metadata = entry.getMetadata();
+      // Plain lifespan and max idle are kept in the header, only marshall metadata carrying more information
+      byte[] metadataBytes = metadata == null || (metadata.version() == null && metadata instanceof EmbeddedMetadata) ?
+            Util.EMPTY_BYTE_ARRAY : toBytes(metadata);
+      long size = HEADER_SIZE + (long) keyBytes.length + valueBytes.length + metadataBytes.length;
+      long address = OffHeapMemory.allocate(size);
+      OffHeapMemory.putLong(address + NEXT_OFFSET, 0);
+      OffHeapMemory.putLong(address + LRU_PREVIOUS_OFFSET, 0);
+      OffHeapMemory.putLong(address + LRU_NEXT_OFFSET, 0);
+      OffHeapMemory.putInt(address + HASH_OFFSET, hash);
+      OffHeapMemory.putInt(address + FLAGS_OFFSET, entry.isL1Entry() ? L1_FLAG : 0);
+      OffHeapMemory.putInt(address + KEY_LENGTH_OFFSET, keyBytes.length);
+      OffHeapMemory.putInt(address + VALUE_LENGTH_OFFSET, valueBytes.length);
+      OffHeapMemory.putInt(address + METADATA_LENGTH_OFFSET, metadataBytes.length);
+      OffHeapMemory.putLong(address + CREATED_OFFSET, entry.getCreated());
+      OffHeapMemory.putLong(address + LAST_USED_OFFSET, entry.getLastUsed());
+      OffHeapMemory.putLong(address + LIFESPAN_OFFSET, entry.getLifespan());
+      OffHeapMemory.putLong(address + MAX_IDLE_OFFSET, entry.getMaxIdle());
+      long offset = address + HEADER_SIZE;
+      OffHeapMemory.putBytes(offset, keyBytes);
+      offset += keyBytes.length;
+      OffHeapMemory.putBytes(offset, valueBytes);
+      offset += valueBytes.length;
+      OffHeapMemory.putBytes(offset, metadataBytes);
+      allocatedBytes.addAndGet(size);
+      return address;
+   }
+
+   /**
+    * Materializes the entry stored at the given address. Must be invoked while holding a lock for its bucket.
+    *
+    * @param key the key of the entry if already known by the caller, {@code null} to unmarshall it
+    */
+   private InternalCacheEntry<K, V> toEntry(long address, K key) {
+      int keyLength = OffHeapMemory.getInt(address + KEY_LENGTH_OFFSET);
+      int valueLength = OffHeapMemory.getInt(address + VALUE_LENGTH_OFFSET);
+      int metadataLength = OffHeapMemory.getInt(address + METADATA_LENGTH_OFFSET);
+      long created = OffHeapMemory.getLong(address + CREATED_OFFSET);
+      long lastUsed = OffHeapMemory.getLongVolatile(address + LAST_USED_OFFSET);
+      long lifespan = OffHeapMemory.getLong(address + LIFESPAN_OFFSET);
+      long maxIdle = OffHeapMemory.getLong(address + MAX_IDLE_OFFSET);
+      long offset = address + HEADER_SIZE;
+      if (key == null) {
+         key = (K) fromBytes(OffHeapMemory.getBytes(offset, keyLength));
+      }
+      offset += keyLength;
+      V value = (V) fromBytes(OffHeapMemory.getBytes(offset, valueLength));
+      offset += valueLength;
+      Metadata metadata = metadataLength == 0 ? null : (Metadata) fromBytes(OffHeapMemory.getBytes(offset, metadataLength));
+      if ((OffHeapMemory.getInt(address + FLAGS_OFFSET) & L1_FLAG) != 0) {
+         return metadata == null ? new L1InternalCacheEntry(key, value, lifespan, created) :
+               new L1MetadataInternalCacheEntry(key, value, metadata, created);
+      }
+      if (metadata == null) {
+         metadata = new EmbeddedMetadata.Builder().lifespan(lifespan).maxIdle(maxIdle).build();
+      }
+      return entryFactory.create(key, value, metadata, created, lifespan, lastUsed, maxIdle);
+   }
+
+   /**
+    * Materializes all the entries of a bucket, so they can be consumed without holding any lock.
+    */
+   private List<InternalCacheEntry<K, V>> readBucket(int bucket, boolean includeExpired, long now) {
+      Lock lock = lockFor(bucket).readLock();
+      lock.lock();
+      try {
+         long address = OffHeapMemory.getLong(slot(bucket));
+         if (address == 0) {
+            return Collections.emptyList();
+         }
+         List<InternalCacheEntry<K, V>> entries = new ArrayList<>(2);
+         while (address != 0) {
+            InternalCacheEntry<K, V> entry = toEntry(address, null);
+            if (includeExpired || !entry.canExpire() || !entry.isExpired(now)) {
+               entries.add(entry);
+            }
+            address = OffHeapMemory.getLong(address + NEXT_OFFSET);
+         }
+         return entries;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private long currentSize() {
+      return evictionType == EvictionType.MEMORY ? allocatedBytes.get() : count.get();
+   }
+
+   /**
+    * Evicts the least recently used entries until the container is within its bounds. Must be invoked without holding
+    * any bucket lock.
+    */
+   private void evictIfNeeded() {
+      if (!bounded) {
+         return;
+      }
+      while (currentSize() > maxSize) {
+         long victim;
+         int hash;
+         byte[] keyBytes;
+         lruLock.lock();
+         try {
+            victim = lruHead;
+            if (victim == 0) {
+               return;
+            }
+            // Entries are removed from the LRU list before being freed, so the victim is still valid here
+            hash = OffHeapMemory.getInt(victim + HASH_OFFSET);
+            keyBytes = OffHeapMemory.getBytes(victim + HEADER_SIZE, OffHeapMemory.getInt(victim + KEY_LENGTH_OFFSET));
+         } finally {
+            lruLock.unlock();
+         }
+         int bucket = bucket(hash);
+         InternalCacheEntry<K, V> evicted = null;
+         Lock lock = lockFor(bucket).writeLock();
+         lock.lock();
+         try {
+            long slot = slot(bucket);
+            long previous = 0;
+            long address = OffHeapMemory.getLong(slot);
+            while (address != 0 && address != victim) {
+               previous = address;
+               address = OffHeapMemory.getLong(address + NEXT_OFFSET);
+            }
+            // The victim may have been removed concurrently, and its memory reused for another entry once the LRU lock
+            // was released: only evict it if it still holds the same key, otherwise just pick the next one
+            if (address != 0 && matches(address, keyBytes, hash)) {
+               evicted = toEntry(address, null);
+               passivator.passivate(evicted);
+               unlink(slot, previous, address);
+            }
+         } finally {
+            lock.unlock();
+         }
+         if (evicted != null) {
+            if (trace)
+               log.tracef("Evicted %s from container", evicted);
+            evictionManager.onEntryEviction(Collections.singletonMap(evicted.getKey(), evicted));
+         }
+      }
+   }
+
+   private void lruAddLast(long address) {
+      lruLock.lock();
+      try {
+         OffHeapMemory.putLong(address + LRU_PREVIOUS_OFFSET, lruTail);
+         OffHeapMemory.putLong(address + LRU_NEXT_OFFSET, 0);
+         if (lruTail == 0) {
+            lruHead = address;
+         } else {
+            OffHeapMemory.putLong(lruTail + LRU_NEXT_OFFSET, address);
+         }
+         lruTail = address;
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   private void lruRemove(long address) {
+      lruLock.lock();
+      try {
+         unlinkFromLru(address);
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   private void lruMoveToTail(long address) {
+      lruLock.lock();
+      try {
+         if (lruTail != address) {
+            unlinkFromLru(address);
+            OffHeapMemory.putLong(address + LRU_PREVIOUS_OFFSET, lruTail);
+            OffHeapMemory.putLong(address + LRU_NEXT_OFFSET, 0);
+            if (lruTail == 0) {
+               lruHead = address;
+            } else {
+               OffHeapMemory.putLong(lruTail + LRU_NEXT_OFFSET, address);
+            }
+            lruTail = address;
+         }
+      } finally {
+         lruLock.unlock();
+      }
+   }
+
+   // Must hold lruLock
+   private void unlinkFromLru(long address) {
+      long previous = OffHeapMemory.getLong(address + LRU_PREVIOUS_OFFSET);
+      long next = OffHeapMemory.getLong(address + LRU_NEXT_OFFSET);
+      if (previous == 0) {
+         lruHead = next;
+      } else {
+         OffHeapMemory.putLong(previous + LRU_NEXT_OFFSET, next);
+      }
+      if (next == 0) {
+         lruTail = previous;
+      } else {
+         OffHeapMemory.putLong(next + LRU_PREVIOUS_OFFSET, previous);
+      }
+   }
+
+   private byte[] toBytes(Object o) {
+      try {
+         return marshaller.objectToByteBuffer(o);
+      } catch (IOException e) {
+         throw new CacheException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new CacheException(e);
+      }
+   }
+
+   private Object fromBytes(byte[] bytes) {
+      try {
+         return marshaller.objectFromByteBuffer(bytes);
+      } catch (IOException | ClassNotFoundException e) {
+         throw new CacheException(e);
+      }
+   }
+
+   private class EntryIterator implements Iterator<InternalCacheEntry<K, V>> {
+
+      private final boolean includeExpired;
+      private final long now;
+      private int bucket;
+      private Iterator<InternalCacheEntry<K, V>> current = Collections.emptyIterator();
+
+      EntryIterator(boolean includeExpired) {
+         this.includeExpired = includeExpired;
+         this.now = includeExpired ? 0 : timeService.wallClockTime();
+      }
+
+      @Override
+      public boolean hasNext() {
+         while (!current.hasNext() && bucket < addressCount) {
+            current = readBucket(bucket++, includeExpired, now).iterator();
+         }
+         return current.hasNext();
+      }
+
+      @Override
+      public InternalCacheEntry<K, V> next() {
+         if (!hasNext()) {
+            throw new NoSuchElementException();
+         }
+         return current.next();
+      }
+
+      @Override
+      public void remove() {
+         throw new UnsupportedOperationException();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class KeySet extends AbstractSet<K> {
+      @Override
+      public boolean contains(Object o) {
+         return peek(o) != null;
+      }
+
+      @Override
+      public Iterator<K> iterator() {
+         Iterator<InternalCacheEntry<K, V>> it = iteratorIncludingExpired();
+         return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public K next() {
+               return it.next().getKey();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Set
+    */
+   private class EntrySet extends AbstractSet<InternalCacheEntry<K, V>> {
+      @Override
+      public boolean contains(Object o) {
+         if (!(o instanceof Map.Entry)) {
+            return false;
+         }
+
+         Map.Entry e = (Map.Entry) o;
+         InternalCacheEntry ice = peek(e.getKey());
+         return ice != null && ice.getValue().equals(e.getValue());
+      }
+
+      @Override
+      public Iterator<InternalCacheEntry<K, V>> iterator() {
+         Iterator<InternalCacheEntry<K, V>> it = OffHeapDataContainer.this.iterator();
+         return new Iterator<InternalCacheEntry<K, V>>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public InternalCacheEntry<K, V> next() {
+               return CoreImmutables.immutableInternalCacheEntry(it.next());
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+
+   /**
+    * Minimal implementation needed for unmodifiable Collection
+    */
+   private class Values extends AbstractCollection<V> {
+      @Override
+      public Iterator<V> iterator() {
+         Iterator<InternalCacheEntry<K, V>> it = OffHeapDataContainer.this.iterator();
+         return new Iterator<V>() {
+            @Override
+            public boolean hasNext() {
+               return it.hasNext();
+            }
+
+            @Override
+            public V next() {
+               return it.next().getValue();
+            }
+         };
+      }
+
+      @Override
+      public int size() {
+         return sizeIncludingExpired();
+      }
+   }
+}
@@ -0,0 +1,111 @@
+package org.infinispan.container.offheap;
+
+import java.lang.reflect.Field;
+import java.security.AccessController;
+import java.security.PrivilegedActionException;
+import java.security.PrivilegedExceptionAction;
+
+import sun.misc.Unsafe;
+
+/**
+ * Thin wrapper around {@link Unsafe} used to allocate, free and access native memory for the off-heap data container.
+ * <p>
+ * All addresses handled by this class are raw native addresses and no bounds checking is performed, so callers must
+ * make sure they only access memory they have previously allocated.
+ *
+ * @since 9.0
+ */
+final class OffHeapMemory {
+
+   private static final Unsafe UNSAFE = getUnsafe();
+   private static final long BYTE_ARRAY_BASE_OFFSET = Unsafe.ARRAY_BYTE_BASE_OFFSET;
+
+   private OffHeapMemory() { }
+
+   static long allocate(long size) {
+      return UNSAFE.allocateMemory(size);
+   }
+
+   static long allocateZeroed(long size) {
+      long address = UNSAFE.allocateMemory(size);
+      UNSAFE.setMemory(address, size, (byte) 0);
+      return address;
+   }
+
+   static void free(long address) {
+      UNSAFE.freeMemory(address);
+   }
+
+   static long getLong(long address) {
+      return UNSAFE.getLong(address);
+   }
+
+   static long getLongVolatile(long address) {
+      return UNSAFE.getLongVolatile(null, address);
+   }
+
+   static void putLong(long address, long value) {
+      UNSAFE.putLong(address, value);
+   }
+
+   static void putLongVolatile(long address, long value) {
+      UNSAFE.putLongVolatile(null, address, value);
+   }
+
+   static int getInt(long address) {
+      return UNSAFE.getInt(address);
+   }
+
+   static void putInt(long address, int value) {
+      UNSAFE.putInt(address, value);
+   }
+
+   static void putBytes(long address, byte[] bytes) {
+      UNSAFE.copyMemory(bytes, BYTE_ARRAY_BASE_OFFSET, null, address, bytes.length);
+   }
+
+   static byte[] getBytes(long address, int length) {
+      byte[] bytes = new byte[length];
+      UNSAFE.copyMemory(null, address, bytes, BYTE_ARRAY_BASE_OFFSET, length);
+      return bytes;
+   }
+
+   /**
+    * Compares {@code bytes.length} bytes starting at the given native address against the provided array.
+    */
+   static boolean equals(long address, byte[] bytes) {
+      int length = bytes.length;
+      int i = 0;
+      for (; i + 8 <= length; i += 8) {
+         if (UNSAFE.getLong(address + i) != UNSAFE.getLong(bytes, BYTE_ARRAY_BASE_OFFSET + i)) {
+            return false;
+         }
+      }
+      for (; i < length; i++) {
+         if (UNSAFE.getByte(address + i) != bytes[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private static Unsafe getUnsafe() {
+      try {
+         return Unsafe.getUnsafe();
+      } catch (SecurityException tryReflectionInstead) {
+      }
+      try {
+         return AccessController.doPrivileged((PrivilegedExceptionAction<Unsafe>) () -> {
+            for (Field f : Unsafe.class.getDeclaredFields()) {
+               f.setAccessible(true);
+               Object x = f.get(null);
+               if (Unsafe.class.isInstance(x))
+                  return Unsafe.class.cast(x);
+            }
+            throw new NoSuchFieldError("the Unsafe");
+         });
+      } catch (PrivilegedActionException e) {
+         throw new RuntimeException("Could not initialize intrinsics", e.getCause());
+      }
+   }
+}
@@ -52,6 +52,21 @@ public InequalVersionComparisonResult compareTo(EntryVersion other) {
       }
    }
 
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      SimpleClusteredVersion that = (SimpleClusteredVersion) o;
+
+      return topologyId == that.topologyId && version == that.version;
+   }
+
+   @Override
+   public int hashCode() {
+      return 31 * topologyId + (int) (version ^ (version >>> 32));
+   }
+
    @Override
    public String toString() {
       return "SimpleClusteredVersion{" +
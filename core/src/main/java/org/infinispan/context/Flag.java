@@ -268,7 +268,18 @@ public enum Flag {
     * that such a thing happened.  This flag was created purely for internal Infinispan usage, and should not be
     * used by clients calling into Infinispan.
     */
-   COMMAND_RETRY
+   COMMAND_RETRY,
+
+   /**
+    * Forces a read lock, even if the invocation is a read operation. The lock is shared with the other transactions
+    * reading the entry with this flag, but not with the transactions writing it, and it is held until the end of the
+    * transaction. Only used in pessimistic transactional caches, and ignored if {@link #FORCE_WRITE_LOCK} is used too.
+    * <p>
+    * If the transaction later writes the entry, the lock is upgraded to a write lock.
+    *
+    * @since 9.0
+    */
+   FORCE_READ_LOCK
 
    ;
 
@@ -35,4 +35,10 @@ public interface InvocationContextContainer {
     * Must be called as each thread exists the interceptor chain.
     */
    void clearThreadLocal();
+
+   /**
+    * @return {@code true} if {@link #setThreadLocal(InvocationContext)} would associate the context with the calling
+    * thread, i.e. if the invocation must run with a class loader other than the configured one.
+    */
+   boolean isThreadLocalRequired(InvocationContext context);
 }
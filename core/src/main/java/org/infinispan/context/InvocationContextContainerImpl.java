@@ -52,7 +52,8 @@ public void clearThreadLocal() {
       ctxHolder.remove();
    }
 
-   private boolean isThreadLocalRequired(InvocationContext context) {
+   @Override
+   public boolean isThreadLocalRequired(InvocationContext context) {
       return context.getClassLoader() != null &&
             context.getClassLoader() != configuredClassLoader;
    }
@@ -156,10 +156,15 @@ public boolean isEntryRemovedInContext(final Object key) {
       return ce != null && ce.isRemoved() && ce.isChanged();
    }
 
+   /**
+    * Clears the keys, entries and locks of the last invocation, so that the context can be reused for another one.
+    */
    public void resetState() {
       this.key = null;
       this.cacheEntry = null;
       this.isLocked = false;
+      this.lockOwner = null;
+      resetInvocationState();
    }
 
 }
@@ -6,7 +6,7 @@
 import org.infinispan.remoting.transport.Address;
 
 import java.util.Collection;
-import java.util.concurrent.Future;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Manages the L1 Cache, in particular recording anyone who is going to cache an
@@ -24,7 +24,13 @@ public interface L1Manager {
     */
    void addRequestor(Object key, Address requestor);
 
-   Future<?> flushCache(Collection<Object> key, Address origin, boolean assumeOriginKeptEntryInL1);
+   /**
+    * Invalidates the given keys on the nodes that requested them.
+    *
+    * @return A future that completes when the invalidation has been acknowledged, or {@code null} if there was no
+    * node to invalidate.
+    */
+   CompletableFuture<?> flushCache(Collection<Object> key, Address origin, boolean assumeOriginKeptEntryInL1);
 
    /**
     * Registers the given write synchronizer to be notified whenever a remote value is looked up for the given key.
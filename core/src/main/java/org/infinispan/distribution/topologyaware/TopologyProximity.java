@@ -0,0 +1,74 @@
+package org.infinispan.distribution.topologyaware;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.TopologyAwareAddress;
+
+/**
+ * Orders the members of the cluster by how close they are to a node in the cluster topology.
+ * <p>
+ * The distance between two nodes is the {@link TopologyLevel} of the smallest group that contains both: 0 for the
+ * same node, 1 for the same machine, 2 for the same rack and 3 for the same site. Nodes in different sites, or nodes
+ * without topology information, are at the maximum distance.
+ *
+ * @since 9.0
+ */
+public final class TopologyProximity {
+   public static final int MAX_DISTANCE = TopologyLevel.values().length;
+
+   private TopologyProximity() {
+   }
+
+   public static int distance(Address origin, Address target) {
+      if (origin.equals(target)) {
+         return TopologyLevel.NODE.ordinal();
+      }
+      if (!(origin instanceof TopologyAwareAddress) || !(target instanceof TopologyAwareAddress)) {
+         return MAX_DISTANCE;
+      }
+      TopologyAwareAddress taOrigin = (TopologyAwareAddress) origin;
+      TopologyAwareAddress taTarget = (TopologyAwareAddress) target;
+      if (taOrigin.isSameMachine(taTarget)) {
+         return TopologyLevel.MACHINE.ordinal();
+      } else if (taOrigin.isSameRack(taTarget)) {
+         return TopologyLevel.RACK.ordinal();
+      } else if (taOrigin.isSameSite(taTarget)) {
+         return TopologyLevel.SITE.ordinal();
+      }
+      return MAX_DISTANCE;
+   }
+
+   /**
+    * @return A comparator that orders the nodes by their distance from {@code origin}, closest first.
+    */
+   public static Comparator<Address> closestTo(Address origin) {
+      return Comparator.comparingInt(target -> distance(origin, target));
+   }
+
+   /**
+    * Sorts the nodes by their distance from {@code origin}. The sort is stable, so nodes at the same distance keep
+    * their order, e.g. the primary owner stays before the backup owners.
+    */
+   public static void sortByDistance(Address origin, List<Address> targets) {
+      targets.sort(closestTo(origin));
+   }
+
+   /**
+    * @return The node closest to {@code origin}, or the first of the closest nodes if there are several.
+    */
+   public static Address closest(Address origin, Collection<Address> targets) {
+      Address closest = null;
+      int closestDistance = Integer.MAX_VALUE;
+      for (Address target : targets) {
+         int distance = distance(origin, target);
+         if (distance < closestDistance) {
+            closest = target;
+            closestDistance = distance;
+         }
+      }
+      return closest;
+   }
+}
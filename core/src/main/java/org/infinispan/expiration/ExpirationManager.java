@@ -72,4 +72,12 @@
     * @param key the key to use
     */
    void unregisterWrite(K key);
+
+   /**
+    * This is to be invoked by the data container after an entry that can expire has been stored, so that an
+    * expiration index can keep track of when it expires.  The default implementation does nothing.
+    * @param entry the entry that was stored
+    */
+   default void trackExpiration(InternalCacheEntry<K, V> entry) {
+   }
 }
@@ -4,7 +4,6 @@
 import org.infinispan.AdvancedCache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.RemoveExpiredCommand;
-import org.infinispan.commons.util.Util;
 import org.infinispan.container.entries.ExpiryHelper;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.InvocationContext;
@@ -19,11 +18,9 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
-import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Allows for cluster based expirations to occur.  This provides guarantees that when an entry is expired that it will
@@ -36,6 +33,9 @@
  * Cache stores however do not supply the value or metadata information which means if an entry is purged from the cache
  * store that it will forcibly remove the value even if a concurrent write updated it just before.  This will be
  * addressed by future SPI changes to the cache store.
+ * <p>
+ * The reaper visits entries the same way as {@link ExpirationManagerImpl}, so when the expiration index is enabled the
+ * cluster wide removals are only issued for the entries the index reports as due.
  * @param <K>
  * @param <V>
  */
@@ -55,38 +55,14 @@ public void inject(AdvancedCache<K, V> cache,
    }
 
    @Override
-   public void processExpiration() {
-      long start = 0;
-      if (!Thread.currentThread().isInterrupted()) {
-         try {
-            if (trace) {
-               log.trace("Purging data container of expired entries");
-               start = timeService.time();
-            }
-            long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.canExpire()) {
-                  if (ExpiryHelper.isExpiredMortal(e.getLifespan(), e.getCreated(), currentTimeMillis)) {
-                     handleLifespanExpireEntry(e, true);
-                  } else if (ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis)) {
-                     super.handleInMemoryExpiration(e, currentTimeMillis);
-                  }
-               }
-            }
-            if (trace) {
-               log.tracef("Purging data container completed in %s",
-                       Util.prettyPrintTime(timeService.timeDuration(start, TimeUnit.MILLISECONDS)));
-            }
-         } catch (Exception e) {
-            log.exceptionPurgingDataContainer(e);
+   protected void expireIfNeeded(InternalCacheEntry<K, V> e, long currentTimeMillis) {
+      if (e.canExpire()) {
+         if (ExpiryHelper.isExpiredMortal(e.getLifespan(), e.getCreated(), currentTimeMillis)) {
+            handleLifespanExpireEntry(e, true);
+         } else if (ExpiryHelper.isExpiredTransient(e.getMaxIdle(), e.getLastUsed(), currentTimeMillis)) {
+            super.handleInMemoryExpiration(e, currentTimeMillis);
          }
       }
-
-      if (!Thread.currentThread().isInterrupted()) {
-         persistenceManager.purgeExpired();
-      }
    }
 
    void handleLifespanExpireEntry(InternalCacheEntry<K, V> entry, boolean sync) {
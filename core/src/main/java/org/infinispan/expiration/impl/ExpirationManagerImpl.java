@@ -13,6 +13,10 @@
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
@@ -28,7 +32,14 @@
 import java.util.concurrent.TimeUnit;
 
 @ThreadSafe
+@MBean(objectName = "ExpirationManager", description = "Component that handles the expiration of cache entries.")
 public class ExpirationManagerImpl<K, V> implements ExpirationManager<K, V> {
+   /**
+    * Number of buckets of the expiration index; with the default wake up interval it covers about 8 hours.
+    */
+   static final int EXPIRATION_INDEX_WHEEL_SIZE = 512;
+   static final long DEFAULT_EXPIRATION_INDEX_TICK = TimeUnit.SECONDS.toMillis(1);
+
    protected static final Log log = LogFactory.getLog(ExpirationManagerImpl.class);
    protected static final boolean trace = log.isTraceEnabled();
    protected ScheduledFuture <?> expirationTask;
@@ -51,6 +62,14 @@
     */
    protected ConcurrentMap<K, Object> expiring;
 
+   /**
+    * Keys of the entries that can expire, ordered by expiration time. Only present if the expiration index is enabled,
+    * in which case {@link #processExpiration()} only visits the entries that are due instead of the whole container.
+    */
+   protected ExpirationTimerWheel<K> expirationIndex;
+   private volatile long lastExpirationLag;
+   private volatile int lastExpiredCount;
+
    @Inject
    public void initialize(@ComponentName(KnownComponentNames.EXPIRATION_SCHEDULED_EXECUTOR)
          ScheduledExecutorService executor, Cache<K, V> cache, Configuration cfg, DataContainer<K, V> dataContainer,
@@ -72,6 +91,13 @@ void initialize(ScheduledExecutorService executor, String cacheName, Configurati
 
       this.expiring = new EquivalentConcurrentHashMapV8<>(cfg.dataContainer().keyEquivalence(),
               cfg.dataContainer().valueEquivalence());
+      // The index must exist before the container is populated (e.g. by preloading), so it can't wait for start()
+      if (cfg.expiration().indexed()) {
+         long wakeUpInterval = cfg.expiration().wakeUpInterval();
+         this.expirationIndex = new ExpirationTimerWheel<>(
+               wakeUpInterval > 0 ? wakeUpInterval : DEFAULT_EXPIRATION_INDEX_TICK, EXPIRATION_INDEX_WHEEL_SIZE,
+               timeService.wallClockTime(), cfg.dataContainer().keyEquivalence());
+      }
    }
 
 
@@ -103,11 +129,12 @@ public void processExpiration() {
                start = timeService.time();
             }
             long currentTimeMillis = timeService.wallClockTime();
-            for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
-                 purgeCandidates.hasNext();) {
-               InternalCacheEntry<K, V> e = purgeCandidates.next();
-               if (e.isExpired(currentTimeMillis)) {
-                  handleInMemoryExpiration(e, currentTimeMillis);
+            if (expirationIndex != null) {
+               processIndexedExpiration(currentTimeMillis);
+            } else {
+               for (Iterator<InternalCacheEntry<K, V>> purgeCandidates = dataContainer.iteratorIncludingExpired();
+                    purgeCandidates.hasNext();) {
+                  expireIfNeeded(purgeCandidates.next(), currentTimeMillis);
                }
             }
             if (trace) {
@@ -124,6 +151,79 @@ public void processExpiration() {
       }
    }
 
+   private void processIndexedExpiration(long currentTimeMillis) {
+      long[] lag = new long[1];
+      int[] expired = new int[1];
+      int due = expirationIndex.drainExpired(currentTimeMillis, (key, expiryTime) -> {
+         InternalCacheEntry<K, V> e = dataContainer.peek(key);
+         if (e == null || !e.canExpire()) {
+            // The entry was removed or replaced by an immortal one
+            return;
+         }
+         if (e.isExpired(currentTimeMillis)) {
+            lag[0] = Math.max(lag[0], currentTimeMillis - e.getExpiryTime());
+            expired[0]++;
+            expireIfNeeded(e, currentTimeMillis);
+            if (dataContainer.peek(key) != null) {
+               // Either the entry was written concurrently or its removal did not happen, check again on the next run
+               expirationIndex.schedule(key, currentTimeMillis);
+            }
+         } else {
+            // The entry was updated or touched since it was indexed
+            expirationIndex.schedule(key, e.getExpiryTime());
+         }
+      });
+      lastExpirationLag = lag[0];
+      lastExpiredCount = expired[0];
+      if (trace) {
+         log.tracef("Visited %d indexed entries, %d of which were expired", due, expired[0]);
+      }
+   }
+
+   /**
+    * Invoked for every entry visited by {@link #processExpiration()}, expires it if needed.
+    */
+   protected void expireIfNeeded(InternalCacheEntry<K, V> e, long currentTimeMillis) {
+      if (e.isExpired(currentTimeMillis)) {
+         handleInMemoryExpiration(e, currentTimeMillis);
+      }
+   }
+
+   @Override
+   public void trackExpiration(InternalCacheEntry<K, V> entry) {
+      if (expirationIndex != null) {
+         expirationIndex.schedule(entry.getKey(), entry.getExpiryTime());
+      }
+   }
+
+   @ManagedAttribute(
+         description = "Number of keys tracked by the expiration index, including keys whose entries were removed or updated since, or -1 if the index is disabled",
+         displayName = "Expiration index size",
+         displayType = DisplayType.DETAIL
+   )
+   public long getExpirationIndexSize() {
+      return expirationIndex != null ? expirationIndex.size() : -1;
+   }
+
+   @ManagedAttribute(
+         description = "Maximum delay between the expiration time of an entry and its removal by the last run of the expiration reaper, or -1 if the index is disabled",
+         displayName = "Expiration lag",
+         units = Units.MILLISECONDS,
+         displayType = DisplayType.DETAIL
+   )
+   public long getExpirationLag() {
+      return expirationIndex != null ? lastExpirationLag : -1;
+   }
+
+   @ManagedAttribute(
+         description = "Number of expired entries found by the last run of the expiration reaper, or -1 if the index is disabled",
+         displayName = "Entries expired in the last run",
+         displayType = DisplayType.DETAIL
+   )
+   public int getLastExpiredCount() {
+      return expirationIndex != null ? lastExpiredCount : -1;
+   }
+
    @Override
    public boolean isEnabled() {
       return enabled;
@@ -132,10 +232,12 @@ public boolean isEnabled() {
    @Override
    public void handleInMemoryExpiration(InternalCacheEntry<K, V> entry, long currentTime) {
       dataContainer.compute(entry.getKey(), ((k, oldEntry, factory) -> {
-         if (entry == oldEntry) {
-            synchronized (entry) {
-               if (entry.isExpired(currentTime)) {
-                  deleteFromStoresAndNotify(k, entry.getValue(), entry.getMetadata());
+         // Containers storing entries off-heap return a new instance on every read, so an expired entry might not be
+         // the same instance we were given
+         if (entry == oldEntry || (oldEntry != null && oldEntry.isExpired(currentTime))) {
+            synchronized (oldEntry) {
+               if (oldEntry.isExpired(currentTime)) {
+                  deleteFromStoresAndNotify(k, oldEntry.getValue(), oldEntry.getMetadata());
                }
             }
             return null;
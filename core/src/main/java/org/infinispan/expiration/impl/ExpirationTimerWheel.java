@@ -0,0 +1,112 @@
+package org.infinispan.expiration.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ObjLongConsumer;
+
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.util.concurrent.jdk8backported.EquivalentConcurrentHashMapV8;
+
+/**
+ * Hashed timing wheel holding the keys of the entries that can expire, ordered by expiration time.
+ * <p>
+ * The wheel has a fixed number of buckets, each covering one tick of {@code tickMillis}. A key is stored in the bucket
+ * of the tick its expiration time falls into, wrapping around the wheel, together with that expiration time. Keys
+ * expiring more than one revolution in the future share the bucket with the ones due in the current revolution, and
+ * are simply left in place when the bucket is visited too early.
+ * <p>
+ * The wheel is only a hint: writers never remove keys from it, so keys may be stale (removed or updated entries) and
+ * the same key may be present in more than one bucket. Callers must always check the actual entry of a key returned by
+ * {@link #drainExpired(long, ObjLongConsumer)} and reschedule it if it is not expired yet.
+ *
+ * @since 9.0
+ */
+final class ExpirationTimerWheel<K> {
+
+   private final long tickMillis;
+   private final int mask;
+   private final ConcurrentMap<K, Long>[] buckets;
+
+   /**
+    * The last tick whose bucket was fully drained. Keys due before it are added to the next tick instead.
+    */
+   private volatile long processedTick;
+
+   @SuppressWarnings("unchecked")
+   ExpirationTimerWheel(long tickMillis, int wheelSize, long currentTimeMillis, Equivalence<? super K> keyEquivalence) {
+      if (tickMillis <= 0) {
+         throw new IllegalArgumentException("tickMillis must be strictly positive");
+      }
+      if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+         throw new IllegalArgumentException("wheelSize must be a positive power of 2");
+      }
+      this.tickMillis = tickMillis;
+      this.mask = wheelSize - 1;
+      this.buckets = new ConcurrentMap[wheelSize];
+      for (int i = 0; i < wheelSize; i++) {
+         buckets[i] = new EquivalentConcurrentHashMapV8<>(keyEquivalence, AnyEquivalence.getInstance());
+      }
+      this.processedTick = currentTimeMillis / tickMillis - 1;
+   }
+
+   /**
+    * Tracks the given key, which expires at the given wall clock time.
+    */
+   void schedule(K key, long expiryTime) {
+      long tick = Math.max(expiryTime / tickMillis, processedTick + 1);
+      buckets[(int) (tick & mask)].put(key, expiryTime);
+   }
+
+   /**
+    * Removes all the keys due at or before the given time and passes them to the consumer, together with the
+    * expiration time they were scheduled with. Only the buckets of the ticks elapsed since the previous invocation are
+    * visited.
+    *
+    * @return the number of keys passed to the consumer
+    */
+   int drainExpired(long currentTimeMillis, ObjLongConsumer<K> consumer) {
+      long currentTick = currentTimeMillis / tickMillis;
+      long fromTick = processedTick + 1;
+      // No need to visit a bucket more than once per invocation
+      long toTick = Math.min(currentTick, fromTick + mask);
+      int drained = 0;
+      for (long tick = fromTick; tick <= toTick; tick++) {
+         ConcurrentMap<K, Long> bucket = buckets[(int) (tick & mask)];
+         for (Map.Entry<K, Long> entry : bucket.entrySet()) {
+            Long expiryTime = entry.getValue();
+            // Only remove the key if it wasn't rescheduled in the same bucket concurrently
+            if (expiryTime <= currentTimeMillis && bucket.remove(entry.getKey(), expiryTime)) {
+               consumer.accept(entry.getKey(), expiryTime);
+               drained++;
+            }
+         }
+         // The current tick is only partially elapsed, so it must be visited again on the next invocation
+         if (tick < currentTick) {
+            processedTick = tick;
+         }
+      }
+      if (toTick < currentTick) {
+         // We went around the whole wheel, so every bucket has been visited
+         processedTick = currentTick - 1;
+      }
+      return drained;
+   }
+
+   /**
+    * @return the number of keys currently tracked, including stale ones
+    */
+   long size() {
+      long size = 0;
+      for (ConcurrentMap<K, Long> bucket : buckets) {
+         size += bucket.size();
+      }
+      return size;
+   }
+
+   void clear() {
+      for (ConcurrentMap<K, Long> bucket : buckets) {
+         bucket.clear();
+      }
+   }
+}
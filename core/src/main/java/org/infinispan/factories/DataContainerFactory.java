@@ -3,9 +3,13 @@
 import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.util.concurrent.jdk8backported.EntrySizeCalculator;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.EvictionConfiguration;
+import org.infinispan.configuration.cache.StorageType;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.DefaultSegmentedDataContainer;
+import org.infinispan.container.offheap.OffHeapDataContainer;
 import org.infinispan.container.entries.MarshalledValueEntrySizeCalculator;
 import org.infinispan.container.entries.PrimitiveEntrySizeCalculator;
 import org.infinispan.eviction.EvictionStrategy;
@@ -28,6 +32,8 @@ public class DataContainerFactory extends AbstractNamedCacheComponentFactory imp
    public <T> T construct(Class<T> componentType) {
       if (configuration.dataContainer().dataContainer() != null) {
          return (T) configuration.dataContainer().dataContainer();
+      } else if (configuration.memory().storageType() == StorageType.OFF_HEAP) {
+         return (T) createOffHeapContainer();
       } else {
          EvictionStrategy st = configuration.eviction().strategy();
          int level = configuration.locking().concurrencyLevel();
@@ -38,15 +44,13 @@ public <T> T construct(Class<T> componentType) {
 
          //handle case when < 0 value signifies unbounded container
          if(thresholdSize < 0) {
-            return (T) DefaultDataContainer.unBoundedDataContainer(
-                    level, keyEquivalence);
+            return (T) createUnboundedContainer(level, keyEquivalence);
          }
 
          DefaultDataContainer dataContainer;
          switch (st) {
             case NONE:
-               return (T) DefaultDataContainer.unBoundedDataContainer(
-                     level, keyEquivalence);
+               return (T) createUnboundedContainer(level, keyEquivalence);
             case UNORDERED:
             case LRU:
 
@@ -79,4 +83,30 @@ public <T> T construct(Class<T> componentType) {
          return (T) dataContainer;
       }
    }
+
+   private DataContainer createUnboundedContainer(int level, Equivalence keyEquivalence) {
+      CacheMode cacheMode = configuration.clustering().cacheMode();
+      if (cacheMode.isDistributed() || cacheMode.isReplicated()) {
+         // State transfer and distributed streams work on whole segments, so keep the entries partitioned the same way
+         return new DefaultSegmentedDataContainer(configuration.clustering().hash().numSegments(), level,
+               keyEquivalence);
+      }
+      return DefaultDataContainer.unBoundedDataContainer(level, keyEquivalence);
+   }
+
+   private OffHeapDataContainer createOffHeapContainer() {
+      int level = configuration.locking().concurrencyLevel();
+      int addressCount = configuration.memory().addressCount();
+      long thresholdSize = configuration.eviction().size();
+      if (thresholdSize < 0 || !configuration.eviction().strategy().isEnabled()) {
+         return new OffHeapDataContainer(addressCount, level);
+      }
+      // Off-heap eviction is always LRU based, regardless of the configured strategy
+      OffHeapDataContainer dataContainer = new OffHeapDataContainer(addressCount, level, thresholdSize,
+            configuration.eviction().type());
+      configuration.eviction().attributes().attribute(EvictionConfiguration.SIZE).addListener((newSize, old) -> {
+         dataContainer.resize(newSize.get());
+      });
+      return dataContainer;
+   }
 }
@@ -1,20 +1,23 @@
 package org.infinispan.factories;
 
 import org.infinispan.commons.CacheConfigurationException;
+import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.factories.annotations.DefaultFactoryFor;
 import org.infinispan.statetransfer.*;
 
 /**
  * Constructs {@link org.infinispan.statetransfer.StateTransferManager},
  * {@link org.infinispan.statetransfer.StateConsumer}
- * and {@link org.infinispan.statetransfer.StateProvider} instances.
+ * {@link org.infinispan.statetransfer.StateProvider}
+ * and {@link org.infinispan.statetransfer.AntiEntropyManager} instances.
  *
  * @author Manik Surtani (<a href="mailto:manik@jboss.org">manik@jboss.org</a>)
  * @author Dan Berindei &lt;dan@infinispan.org&gt;
  * @author anistor@redhat.com
  * @since 4.0
  */
-@DefaultFactoryFor(classes = {StateTransferManager.class, StateConsumer.class, StateProvider.class})
+@DefaultFactoryFor(classes = {StateTransferManager.class, StateConsumer.class, StateProvider.class,
+                              AntiEntropyManager.class})
 public class StateTransferComponentFactory extends AbstractNamedCacheComponentFactory implements AutoInstantiableFactory {
    @Override
    public <T> T construct(Class<T> componentType) {
@@ -27,6 +30,11 @@ public <T> T construct(Class<T> componentType) {
          return componentType.cast(new StateProviderImpl());
       } else if (componentType.equals(StateConsumer.class)) {
          return componentType.cast(new StateConsumerImpl());
+      } else if (componentType.equals(AntiEntropyManager.class)) {
+         CacheMode cacheMode = configuration.clustering().cacheMode();
+         if (configuration.clustering().antiEntropyInterval() <= 0 || cacheMode.isInvalidation())
+            return null;
+         return componentType.cast(new AntiEntropyManagerImpl());
       }
 
       throw new CacheConfigurationException("Don't know how to create a " + componentType.getName());
@@ -40,7 +40,13 @@ public interface SequentialInterceptor {
     *
     * <p>Thread safety: The interceptor must only invoke methods on the context or command in the thread
     * calling {@link #visitCommand(InvocationContext, VisitableCommand)} or
-    * {@link ReturnHandler#handle(InvocationContext, VisitableCommand, Object, Throwable)}.</p>
+    * {@link ReturnHandler#handle(InvocationContext, VisitableCommand, Object, Throwable)}, or in a callback
+    * that completes the future they returned (e.g. a {@code thenCompose} stage of an asynchronous RPC).
+    * The invocation is suspended until that future completes, so the callback can also call
+    * {@link SequentialInvocationContext#shortCircuit(Object)} to set the result.</p>
+    *
+    * <p>If the future completes exceptionally, the remaining interceptors are skipped and the exception is passed
+    * to the return handlers, just like an exception thrown by {@code visitCommand}.</p>
     */
    CompletableFuture<Void> visitCommand(InvocationContext ctx, VisitableCommand command) throws Throwable;
 
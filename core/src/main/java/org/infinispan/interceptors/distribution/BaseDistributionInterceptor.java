@@ -1,7 +1,6 @@
 package org.infinispan.interceptors.distribution;
 
 import org.infinispan.commands.FlagAffectedCommand;
-import org.infinispan.commands.ReplicableCommand;
 import org.infinispan.commands.functional.ReadOnlyManyCommand;
 import org.infinispan.commands.read.AbstractDataCommand;
 import org.infinispan.commands.read.GetAllCommand;
@@ -24,6 +23,8 @@
 import org.infinispan.distribution.RemoteValueRetrievedListener;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.distribution.group.GroupManager;
+import org.infinispan.distribution.topologyaware.TopologyProximity;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.interceptors.impl.ClusteringInterceptor;
@@ -41,6 +42,7 @@
 import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.rpc.RpcOptionsBuilder;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.Transport;
 import org.infinispan.remoting.transport.jgroups.SuspectException;
 import org.infinispan.statetransfer.OutdatedTopologyException;
 import org.infinispan.topology.CacheTopology;
@@ -50,14 +52,21 @@
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import static org.infinispan.commons.util.Util.toStr;
+import static org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR;
 
 /**
  * Base class for distribution of entries across a cluster.
@@ -75,6 +84,10 @@ public abstract class BaseDistributionInterceptor extends ClusteringInterceptor
    protected RemoteValueRetrievedListener rvrl;
    protected boolean isL1Enabled;
    private GroupManager groupManager;
+   private ScheduledExecutorService timeoutExecutor;
+   private boolean staggeredGets;
+   private double staggeredGetPercentile;
+   private boolean topologyAwareReads;
 
    private static final Log log = LogFactory.getLog(BaseDistributionInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -86,11 +99,13 @@ protected Log getLog() {
 
    @Inject
    public void injectDependencies(DistributionManager distributionManager, ClusteringDependentLogic cdl,
-                                  RemoteValueRetrievedListener rvrl, GroupManager groupManager) {
+                                  RemoteValueRetrievedListener rvrl, GroupManager groupManager,
+                                  @ComponentName(TIMEOUT_SCHEDULE_EXECUTOR) ScheduledExecutorService timeoutExecutor) {
       this.dm = distributionManager;
       this.cdl = cdl;
       this.rvrl = rvrl;
       this.groupManager = groupManager;
+      this.timeoutExecutor = timeoutExecutor;
    }
 
 
@@ -98,6 +113,9 @@ public void injectDependencies(DistributionManager distributionManager, Clusteri
    public void configure() {
       // Can't rely on the super injectConfiguration() to be called before our injectDependencies() method2
       isL1Enabled = cacheConfiguration.clustering().l1().enabled();
+      staggeredGets = cacheConfiguration.clustering().staggeredGets();
+      staggeredGetPercentile = cacheConfiguration.clustering().staggeredGetPercentile();
+      topologyAwareReads = cacheConfiguration.clustering().topologyAwareReads();
    }
 
    @Override
@@ -107,85 +125,204 @@ public final CompletableFuture<Void> visitGetKeysInGroupCommand(InvocationContex
          //don't go remote if we are an owner.
          return ctx.continueInvocation();
       }
-      Map<Address, Response> responseMap = rpcManager.invokeRemotely(Collections.singleton(groupManager.getPrimaryOwner(groupName)), command,
-                                                                     rpcManager.getDefaultRpcOptions(true));
-      if (!responseMap.isEmpty()) {
-         Response response = responseMap.values().iterator().next();
-         if (response instanceof SuccessfulResponse) {
-            //noinspection unchecked
-            List<CacheEntry> cacheEntries = (List<CacheEntry>) ((SuccessfulResponse) response).getResponseValue();
-            for (CacheEntry entry : cacheEntries) {
-               entryFactory.wrapExternalEntry(ctx, entry.getKey(), entry, EntryFactory.Wrap.STORE, false);
+      CompletableFuture<Map<Address, Response>> remoteFuture = rpcManager.invokeRemotelyAsync(
+            Collections.singleton(groupManager.getPrimaryOwner(groupName)), command, rpcManager.getDefaultRpcOptions(true));
+      return remoteFuture.thenAccept(responseMap -> {
+         if (!responseMap.isEmpty()) {
+            Response response = responseMap.values().iterator().next();
+            if (response instanceof SuccessfulResponse) {
+               //noinspection unchecked
+               List<CacheEntry> cacheEntries = (List<CacheEntry>) ((SuccessfulResponse) response).getResponseValue();
+               for (CacheEntry entry : cacheEntries) {
+                  entryFactory.wrapExternalEntry(ctx, entry.getKey(), entry, EntryFactory.Wrap.STORE, false);
+               }
             }
          }
-      }
-      return ctx.continueInvocation();
+      });
    }
 
    @Override
    public final CompletableFuture<Void> visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
       if (ctx.isOriginLocal() && !isLocalModeForced(command)) {
-         rpcManager.invokeRemotely(null, command, rpcManager.getDefaultRpcOptions(isSynchronous(command)));
+         return rpcManager.invokeRemotelyAsync(null, command, rpcManager.getDefaultRpcOptions(isSynchronous(command)))
+               .thenAccept(responses -> {});
       }
       return ctx.continueInvocation();
    }
 
-   protected final InternalCacheEntry retrieveFromRemoteSource(Object key, InvocationContext ctx, boolean acquireRemoteLock, FlagAffectedCommand command, boolean isWrite) throws Exception {
+   /**
+    * Fetches the entry from the read owners of the key, or from the pending read owners if the read owners no
+    * longer have it because of a topology change.
+    *
+    * @return A future that completes with the remote entry, or with {@code null} if no owner has a valid value.
+    */
+   protected final CompletableFuture<InternalCacheEntry> retrieveFromRemoteSource(Object key, InvocationContext ctx,
+         boolean acquireRemoteLock, FlagAffectedCommand command, boolean isWrite) {
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext)ctx).getGlobalTransaction() : null;
       ClusteredGetCommand get = cf.buildClusteredGetCommand(key, command.getFlagsBitSet(), acquireRemoteLock, gtx);
       get.setWrite(isWrite);
 
       RpcOptionsBuilder rpcOptionsBuilder = rpcManager.getRpcOptionsBuilder(ResponseMode.WAIT_FOR_VALID_RESPONSE, DeliverOrder.NONE);
-      int lastTopologyId = -1;
-      InternalCacheEntry value = null;
-      while (value == null) {
-         final CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
-         final int currentTopologyId = cacheTopology.getTopologyId();
+      return retrieveFromRemoteSource(key, get, rpcOptionsBuilder, -1);
+   }
 
-         if (trace) {
-            log.tracef("Perform remote get for key %s. topologyId=%s, currentTopologyId=%s",
-                       key, lastTopologyId, currentTopologyId);
-         }
-         List<Address> targets;
-         if (lastTopologyId < currentTopologyId) {
-            // Cache topology has changed or it is the first time.
-            lastTopologyId = currentTopologyId;
-            targets = new ArrayList<>(cacheTopology.getReadConsistentHash().locateOwners(key));
-         } else if (lastTopologyId == currentTopologyId && cacheTopology.getPendingCH() != null) {
-            // Same topologyId, but the owners could have already installed the next topology
-            // Lets try with pending consistent owners (the read owners in the next topology)
-            lastTopologyId = currentTopologyId + 1;
-            targets = new ArrayList<>(cacheTopology.getPendingCH().locateOwners(key));
-            // Remove already contacted nodes
-            targets.removeAll(cacheTopology.getReadConsistentHash().locateOwners(key));
-            if (targets.isEmpty()) {
-               if (trace) {
-                  log.tracef("No valid values found for key '%s' (topologyId=%s).", key, currentTopologyId);
-               }
-               break;
-            }
-         } else { // lastTopologyId > currentTopologyId || cacheTopology.getPendingCH() == null
-            // We have not received a valid value from the pending CH owners either, and the topology id hasn't changed
+   private CompletableFuture<InternalCacheEntry> retrieveFromRemoteSource(Object key, ClusteredGetCommand get,
+         RpcOptionsBuilder rpcOptionsBuilder, int lastTopologyId) {
+      final CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
+      final int currentTopologyId = cacheTopology.getTopologyId();
+
+      if (trace) {
+         log.tracef("Perform remote get for key %s. topologyId=%s, currentTopologyId=%s",
+                    key, lastTopologyId, currentTopologyId);
+      }
+      List<Address> targets;
+      int nextTopologyId;
+      if (lastTopologyId < currentTopologyId) {
+         // Cache topology has changed or it is the first time.
+         nextTopologyId = currentTopologyId;
+         targets = new ArrayList<>(cacheTopology.getReadConsistentHash().locateOwners(key));
+      } else if (lastTopologyId == currentTopologyId && cacheTopology.getPendingCH() != null) {
+         // Same topologyId, but the owners could have already installed the next topology
+         // Lets try with pending consistent owners (the read owners in the next topology)
+         nextTopologyId = currentTopologyId + 1;
+         targets = new ArrayList<>(cacheTopology.getPendingCH().locateOwners(key));
+         // Remove already contacted nodes
+         targets.removeAll(cacheTopology.getReadConsistentHash().locateOwners(key));
+         if (targets.isEmpty()) {
             if (trace) {
                log.tracef("No valid values found for key '%s' (topologyId=%s).", key, currentTopologyId);
             }
-            break;
+            return CompletableFuture.completedFuture(null);
+         }
+      } else { // lastTopologyId > currentTopologyId || cacheTopology.getPendingCH() == null
+         // We have not received a valid value from the pending CH owners either, and the topology id hasn't changed
+         if (trace) {
+            log.tracef("No valid values found for key '%s' (topologyId=%s).", key, currentTopologyId);
          }
+         return CompletableFuture.completedFuture(null);
+      }
 
-         value = invokeClusterGetCommandRemotely(targets, rpcOptionsBuilder, get, key);
+      // Retry from the RPC callback instead of blocking the caller until the owners reply
+      return invokeClusterGetCommandRemotely(targets, rpcOptionsBuilder, get, key).thenCompose(value -> {
          if (trace) {
             log.tracef("Remote get of key '%s' (topologyId=%s) returns %s", key, currentTopologyId, value);
          }
-      }
-      return value;
+         if (value != null) {
+            return CompletableFuture.completedFuture(value);
+         }
+         return retrieveFromRemoteSource(key, get, rpcOptionsBuilder, nextTopologyId);
+      });
    }
 
-   private InternalCacheEntry invokeClusterGetCommandRemotely(List<Address> targets, RpcOptionsBuilder rpcOptionsBuilder,
-                                                      ClusteredGetCommand get, Object key) {
+   private CompletableFuture<InternalCacheEntry> invokeClusterGetCommandRemotely(List<Address> targets,
+         RpcOptionsBuilder rpcOptionsBuilder, ClusteredGetCommand get, Object key) {
+      // Topology-aware reads ask the closest owner first, but don't wait for its reply longer than a staggered get
+      if ((staggeredGets || topologyAwareReads) && targets.size() > 1) {
+         return new StaggeredGet(targets, rpcOptionsBuilder, get, key).start();
+      }
       ResponseFilter filter = new ClusteredGetResponseValidityFilter(targets, rpcManager.getAddress());
       RpcOptions options = rpcOptionsBuilder.responseFilter(filter).build();
-      Map<Address, Response> responses = rpcManager.invokeRemotely(targets, get, options);
+      return rpcManager.invokeRemotelyAsync(targets, get, options)
+            .thenApply(responses -> clusteredGetResponseToEntry(responses, key));
+   }
+
+   /**
+    * Sends a remote get to one owner at a time, fastest first, and moves on to the next owner when the previous one
+    * replies with an invalid response or does not reply within the configured percentile of its response times.
+    * The first successful response wins, even if it does not have a value. With topology-aware reads, the closest
+    * owners are asked first.
+    */
+   private class StaggeredGet {
+      private final List<Address> targets;
+      private final List<RpcOptions> options;
+      private final ClusteredGetCommand get;
+      private final Object key;
+      private final CompletableFuture<InternalCacheEntry> result = new CompletableFuture<>();
+      private final AtomicInteger sent = new AtomicInteger();
+      private final AtomicInteger failed = new AtomicInteger();
+      private volatile Throwable lastFailure;
+
+      StaggeredGet(List<Address> targets, RpcOptionsBuilder rpcOptionsBuilder, ClusteredGetCommand get, Object key) {
+         Transport transport = rpcManager.getTransport();
+         Map<Address, Long> estimates = new HashMap<>();
+         for (Address target : targets) {
+            estimates.put(target, transport.estimateResponseTime(target, staggeredGetPercentile));
+         }
+         // Owners without an estimate go first, so that they are timed too
+         Comparator<Address> byEstimate = Comparator.comparing(estimates::get);
+         targets.sort(topologyAwareReads ?
+               TopologyProximity.closestTo(rpcManager.getAddress()).thenComparing(byEstimate) : byEstimate);
+         this.targets = targets;
+         // The builder is not thread-safe, and the next owners are asked from the timeout executor
+         this.options = new ArrayList<>(targets.size());
+         for (Address target : targets) {
+            options.add(rpcOptionsBuilder.responseFilter(
+                  new ClusteredGetResponseValidityFilter(Collections.singletonList(target), rpcManager.getAddress()))
+                  .build());
+         }
+         this.get = get;
+         this.key = key;
+      }
+
+      CompletableFuture<InternalCacheEntry> start() {
+         sendNext();
+         return result;
+      }
+
+      private void sendNext() {
+         int index = sent.getAndIncrement();
+         if (index >= targets.size() || result.isDone())
+            return;
+
+         Address target = targets.get(index);
+         if (trace) log.tracef("Staggered remote get of key %s sent to %s", key, target);
+         try {
+            rpcManager.invokeRemotelyAsync(Collections.singletonList(target), get, options.get(index))
+                  .whenComplete(this::handleResponses);
+         } catch (Throwable t) {
+            handleResponses(null, t);
+         }
+
+         if (index + 1 < targets.size()) {
+            long delay = rpcManager.getTransport().estimateResponseTime(target, staggeredGetPercentile);
+            if (delay > 0) {
+               timeoutExecutor.schedule(this::sendNext, delay, TimeUnit.NANOSECONDS);
+            } else {
+               sendNext();
+            }
+         }
+      }
+
+      private void handleResponses(Map<Address, Response> responses, Throwable throwable) {
+         if (result.isDone())
+            return;
+
+         if (throwable == null) {
+            for (Response response : responses.values()) {
+               if (response instanceof SuccessfulResponse) {
+                  result.complete(clusteredGetResponseToEntry(responses, key));
+                  return;
+               }
+            }
+         } else {
+            lastFailure = throwable;
+         }
+
+         if (failed.incrementAndGet() == targets.size()) {
+            Throwable failure = lastFailure;
+            if (failure != null) {
+               result.completeExceptionally(failure);
+            } else {
+               result.complete(clusteredGetResponseToEntry(Collections.emptyMap(), key));
+            }
+         } else {
+            // Don't wait for the delay to expire, the owner won't reply again
+            sendNext();
+         }
+      }
+   }
 
+   private InternalCacheEntry clusteredGetResponseToEntry(Map<Address, Response> responses, Object key) {
       if (!responses.isEmpty()) {
          for (Response r : responses.values()) {
             if (r instanceof SuccessfulResponse) {
@@ -212,14 +349,16 @@ private InternalCacheEntry invokeClusterGetCommandRemotely(List<Address> targets
       return null;
    }
 
-   protected Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Set<?> requestedKeys, InvocationContext ctx, long flagsBitSet) throws Throwable {
+   protected CompletableFuture<Map<Object, InternalCacheEntry>> retrieveFromRemoteSources(Set<?> requestedKeys,
+         InvocationContext ctx, long flagsBitSet) {
       GlobalTransaction gtx = ctx.isInTxScope() ? ((TxInvocationContext)ctx).getGlobalTransaction() : null;
       CacheTopology cacheTopology = stateTransferManager.getCacheTopology();
       ConsistentHash ch = cacheTopology.getReadConsistentHash();
 
       Map<Address, List<Object>> ownerKeys = new HashMap<>();
       for (Object key : requestedKeys) {
-         Address owner = ch.locatePrimaryOwner(key);
+         Address owner = topologyAwareReads ?
+               TopologyProximity.closest(rpcManager.getAddress(), ch.locateOwners(key)) : ch.locatePrimaryOwner(key);
          List<Object> requestedKeysFromNode = ownerKeys.get(owner);
          if (requestedKeysFromNode == null) {
             ownerKeys.put(owner, requestedKeysFromNode = new ArrayList<>());
@@ -227,25 +366,28 @@ protected Map<Object, InternalCacheEntry> retrieveFromRemoteSources(Set<?> reque
          requestedKeysFromNode.add(key);
       }
 
-      Map<Address, ReplicableCommand> commands = new HashMap<>();
-      for (Map.Entry<Address, List<Object>> entry : ownerKeys.entrySet()) {
-         List<Object> keys = entry.getValue();
-         ClusteredGetAllCommand remoteGetAll = cf.buildClusteredGetAllCommand(keys, flagsBitSet, gtx);
-         commands.put(entry.getKey(), remoteGetAll);
-      }
-
       RpcOptionsBuilder rpcOptionsBuilder = rpcManager.getRpcOptionsBuilder(
             ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE);
       RpcOptions options = rpcOptionsBuilder.build();
-      Map<Address, Response> responses = rpcManager.invokeRemotely(commands, options);
-
-      Map<Object, InternalCacheEntry> entries = new HashMap<>();
-      for (Map.Entry<Address, Response> entry : responses.entrySet()) {
-         updateWithValues(((ClusteredGetAllCommand) commands.get(entry.getKey())).getKeys(),
-               entry.getValue(), entries);
+      List<ClusteredGetAllCommand> commands = new ArrayList<>(ownerKeys.size());
+      List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(ownerKeys.size());
+      for (Map.Entry<Address, List<Object>> entry : ownerKeys.entrySet()) {
+         List<Object> keys = entry.getValue();
+         ClusteredGetAllCommand remoteGetAll = cf.buildClusteredGetAllCommand(keys, flagsBitSet, gtx);
+         commands.add(remoteGetAll);
+         futures.add(rpcManager.invokeRemotelyAsync(Collections.singletonList(entry.getKey()), remoteGetAll, options));
       }
 
-      return entries;
+      CompletableFuture<Void> allFuture = CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+      return allFuture.thenApply(v -> {
+         Map<Object, InternalCacheEntry> entries = new HashMap<>();
+         for (int i = 0; i < commands.size(); i++) {
+            for (Response response : futures.get(i).join().values()) {
+               updateWithValues(commands.get(i).getKeys(), response, entries);
+            }
+         }
+         return entries;
+      });
    }
 
    private void updateWithValues(List<?> keys, Response r, Map<Object, InternalCacheEntry> entries) {
@@ -278,11 +420,20 @@ protected final CompletableFuture<Void> handleNonTxWriteCommand(InvocationContex
       }
 
       // see if we need to load values from remote sources first
-      remoteGetBeforeWrite(ctx, command, command.getKey());
+      CompletableFuture<Void> remoteGetFuture = remoteGetBeforeWrite(ctx, command, command.getKey());
 
       // invoke the command locally, we need to know if it's successful or not
-      Object localResult = ctx.forkInvocationSync(command);
+      return remoteGetFuture.thenCompose(v -> ctx.forkInvocation(command,
+            (rCtx, rCommand, localResult, throwable) -> {
+               if (throwable != null)
+                  throw throwable;
+
+               return handleNonTxWriteReturn(rCtx, (DataWriteCommand) rCommand, localResult);
+            }));
+   }
 
+   private CompletableFuture<Void> handleNonTxWriteReturn(InvocationContext ctx, DataWriteCommand command,
+         Object localResult) {
       // if this is local mode then skip distributing
       if (isLocalModeForced(command)) {
          return ctx.shortCircuit(localResult);
@@ -316,15 +467,7 @@ protected final CompletableFuture<Void> handleNonTxWriteCommand(InvocationContex
                return ctx.shortCircuit(localResult);
             }
             List<Address> recipients = cdl.getOwners(command.getKey());
-            // Ignore the previous value on the backup owners
-            command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
-            try {
-               rpcManager.invokeRemotely(recipients, command, determineRpcOptionsForBackupReplication(rpcManager,
-                                                                                                      isSync, recipients));
-            } finally {
-               // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
-               command.setValueMatcher(valueMatcher.matcherForRetry());
-            }
+            return replicateToBackupOwners(ctx, command, valueMatcher, recipients, isSync, localResult);
          }
          return ctx.shortCircuit(localResult);
       } else {
@@ -339,57 +482,67 @@ protected final CompletableFuture<Void> handleNonTxWriteCommand(InvocationContex
             // check if a single owner has been configured and the target for the key is the local address
             boolean isSingleOwnerAndLocal = cacheConfiguration.clustering().hash().numOwners() == 1;
             if (!isSingleOwnerAndLocal) {
-               // Ignore the previous value on the backup owners
-               command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
-               try {
-                  rpcManager.invokeRemotely(recipients, command, determineRpcOptionsForBackupReplication(rpcManager,
-                                                                                                         isSync, recipients));
-               } finally {
-                  // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
-                  command.setValueMatcher(valueMatcher.matcherForRetry());
-               }
+               return replicateToBackupOwners(ctx, command, valueMatcher, recipients, isSync, localResult);
             }
             return ctx.shortCircuit(localResult);
          } else {
             if (trace) log.tracef("I'm not the primary owner, so sending the command to the primary owner(%s) in order to be forwarded", primaryOwner);
             boolean isSyncForwarding = isSync || command.isReturnValueExpected();
 
-            Map<Address, Response> addressResponseMap;
-            try {
-               addressResponseMap = rpcManager.invokeRemotely(Collections.singletonList(primaryOwner), command,
-                     rpcManager.getDefaultRpcOptions(isSyncForwarding));
-            } catch (RemoteException e) {
-               Throwable ce = e;
-               while (ce instanceof RemoteException) {
-                  ce = ce.getCause();
-               }
-               if (ce instanceof OutdatedTopologyException) {
-                  // If the primary owner throws an OutdatedTopologyException, it must be because the command succeeded there
-                  if (trace) log.tracef("Changing the value matching policy from %s to %s (original value was %s)",
-                        command.getValueMatcher(), valueMatcher.matcherForRetry(), valueMatcher);
-                  command.setValueMatcher(valueMatcher.matcherForRetry());
+            CompletableFuture<Map<Address, Response>> remoteFuture = rpcManager.invokeRemotelyAsync(
+                  Collections.singletonList(primaryOwner), command, rpcManager.getDefaultRpcOptions(isSyncForwarding));
+            return remoteFuture.handle((addressResponseMap, throwable) -> {
+               if (throwable != null) {
+                  Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                  if (cause instanceof RemoteException) {
+                     Throwable ce = cause;
+                     while (ce instanceof RemoteException) {
+                        ce = ce.getCause();
+                     }
+                     if (ce instanceof OutdatedTopologyException) {
+                        // If the primary owner throws an OutdatedTopologyException, it must be because the command succeeded there
+                        if (trace) log.tracef("Changing the value matching policy from %s to %s (original value was %s)",
+                              command.getValueMatcher(), valueMatcher.matcherForRetry(), valueMatcher);
+                        command.setValueMatcher(valueMatcher.matcherForRetry());
+                     }
+                  } else if (cause instanceof SuspectException) {
+                     // If the primary owner became suspected, we don't know if it was able to replicate it's data properly
+                     // to all backup owners and notify all listeners, thus we need to retry with new matcher in case if
+                     // it had updated the backup owners
+                     if (trace) log.tracef("Primary owner suspected - Changing the value matching policy from %s to %s " +
+                                                 "(original value was %s)", command.getValueMatcher(),
+                                           valueMatcher.matcherForRetry(), valueMatcher);
+                     command.setValueMatcher(valueMatcher.matcherForRetry());
+                  }
+                  throw new CompletionException(cause);
                }
-               throw e;
-            } catch (SuspectException e) {
-               // If the primary owner became suspected, we don't know if it was able to replicate it's data properly
-               // to all backup owners and notify all listeners, thus we need to retry with new matcher in case if
-               // it had updated the backup owners
-               if (trace) log.tracef("Primary owner suspected - Changing the value matching policy from %s to %s " +
-                                           "(original value was %s)", command.getValueMatcher(),
-                                     valueMatcher.matcherForRetry(), valueMatcher);
-               command.setValueMatcher(valueMatcher.matcherForRetry());
-               throw e;
-            }
-            if (!isSyncForwarding)
-               return ctx.shortCircuit(localResult);
+               if (!isSyncForwarding)
+                  return ctx.shortCircuit(localResult);
 
-            Object primaryResult = getResponseFromPrimaryOwner(primaryOwner, addressResponseMap);
-            command.updateStatusFromRemoteResponse(primaryResult);
-            return ctx.shortCircuit(primaryResult);
+               Object primaryResult = getResponseFromPrimaryOwner(primaryOwner, addressResponseMap);
+               command.updateStatusFromRemoteResponse(primaryResult);
+               return ctx.shortCircuit(primaryResult);
+            }).thenCompose(Function.identity());
          }
       }
    }
 
+   private CompletableFuture<Void> replicateToBackupOwners(InvocationContext ctx, DataWriteCommand command,
+         ValueMatcher valueMatcher, List<Address> recipients, boolean isSync, Object localResult) {
+      // Ignore the previous value on the backup owners
+      command.setValueMatcher(ValueMatcher.MATCH_ALWAYS);
+      CompletableFuture<Map<Address, Response>> remoteFuture;
+      try {
+         // The command is marshalled before invokeRemotelyAsync returns, so the value matcher can be changed back
+         remoteFuture = rpcManager.invokeRemotelyAsync(recipients, command,
+               determineRpcOptionsForBackupReplication(rpcManager, isSync, recipients));
+      } finally {
+         // Switch to the retry policy, in case the primary owner changed and the write already succeeded on the new primary
+         command.setValueMatcher(valueMatcher.matcherForRetry());
+      }
+      return remoteFuture.thenCompose(responses -> ctx.shortCircuit(localResult));
+   }
+
    private RpcOptions determineRpcOptionsForBackupReplication(RpcManager rpc, boolean isSync, List<Address> recipients) {
       RpcOptions options;
       if (isSync) {
@@ -466,20 +619,21 @@ public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllC
             }
          }
 
-         boolean missingRemoteValues = false;
-         if (!requestedKeys.isEmpty()) {
-            if (trace) {
-               log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
-            }
+         if (requestedKeys.isEmpty()) {
+            return ctx.continueInvocation();
+         }
+         if (trace) {
+            log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
+         }
 
-            Map<Object, InternalCacheEntry> justRetrieved = retrieveFromRemoteSources(
-                  requestedKeys, ctx, command.getFlagsBitSet());
+         return retrieveFromRemoteSources(requestedKeys, ctx, command.getFlagsBitSet()).thenAccept(justRetrieved -> {
             Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
             if (previouslyFetched != null) {
                previouslyFetched.putAll(justRetrieved);
             } else {
                command.setRemotelyFetched(justRetrieved);
             }
+            boolean missingRemoteValues = false;
             for (Object key : requestedKeys) {
                if (!justRetrieved.containsKey(key)) {
                   missingRemoteValues = true;
@@ -489,12 +643,11 @@ public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllC
                                                  false);
                }
             }
-         }
 
-         if (missingRemoteValues) {
-            throw new OutdatedTopologyException("Remote values are missing because of a topology change");
-         }
-         return ctx.continueInvocation();
+            if (missingRemoteValues) {
+               throw new OutdatedTopologyException("Remote values are missing because of a topology change");
+            }
+         });
       } else { // remote
          int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
          boolean topologyChanged = currentTopologyId != commandTopologyId && commandTopologyId != -1;
@@ -560,20 +713,21 @@ public CompletableFuture<Void> visitReadOnlyManyCommand(InvocationContext ctx, R
             }
          }
 
-         boolean missingRemoteValues = false;
-         if (!requestedKeys.isEmpty()) {
-            if (trace) {
-               log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
-            }
+         if (requestedKeys.isEmpty()) {
+            return ctx.continueInvocation();
+         }
+         if (trace) {
+            log.tracef("Fetching entries for keys %s from remote nodes", requestedKeys);
+         }
 
-            Map<Object, InternalCacheEntry> justRetrieved = retrieveFromRemoteSources(
-               requestedKeys, ctx, command.getFlagsBitSet());
+         return retrieveFromRemoteSources(requestedKeys, ctx, command.getFlagsBitSet()).thenAccept(justRetrieved -> {
             Map<Object, InternalCacheEntry> previouslyFetched = command.getRemotelyFetched();
             if (previouslyFetched != null) {
                previouslyFetched.putAll(justRetrieved);
             } else {
                command.setRemotelyFetched(justRetrieved);
             }
+            boolean missingRemoteValues = false;
             for (Object key : requestedKeys) {
                if (!justRetrieved.containsKey(key)) {
                   missingRemoteValues = true;
@@ -583,12 +737,11 @@ public CompletableFuture<Void> visitReadOnlyManyCommand(InvocationContext ctx, R
                                                  false);
                }
             }
-         }
 
-         if (missingRemoteValues) {
-            throw new OutdatedTopologyException("Remote values are missing because of a topology change");
-         }
-         return ctx.continueInvocation();
+            if (missingRemoteValues) {
+               throw new OutdatedTopologyException("Remote values are missing because of a topology change");
+            }
+         });
       } else { // remote
          int currentTopologyId = stateTransferManager.getCacheTopology().getTopologyId();
          boolean topologyChanged = currentTopologyId != commandTopologyId && commandTopologyId != -1;
@@ -622,7 +775,12 @@ protected boolean valueIsMissing(CacheEntry entry) {
       return entry == null || (entry.isNull() && !entry.isRemoved() && !entry.skipLookup());
    }
 
-   protected abstract void remoteGetBeforeWrite(InvocationContext ctx, WriteCommand command, Object key) throws Throwable;
+   /**
+    * Fetches the previous value of the key from a remote owner, if the write command needs it.
+    *
+    * @return A future that completes when the entry has been wrapped in the context.
+    */
+   protected abstract CompletableFuture<Void> remoteGetBeforeWrite(InvocationContext ctx, WriteCommand command, Object key) throws Throwable;
 
    /**
     * @return {@code true} if the value is not available on the local node and a read command is allowed to
@@ -26,8 +26,8 @@
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 /**
  * L1 based interceptor that flushes the L1 cache at the end after a transaction/entry is committed to the data
@@ -76,40 +76,48 @@ public CompletableFuture<Void> visitRemoveCommand(InvocationContext ctx, RemoveC
    }
 
    public CompletableFuture<Void> visitDataWriteCommand(InvocationContext ctx, DataWriteCommand command, boolean assumeOriginKeptEntryInL1) throws Throwable {
-      Object returnValue = ctx.forkInvocationSync(command);
-      Object key;
-      if (shouldUpdateOnWriteCommand(command) && command.isSuccessful() &&
-            cdl.localNodeIsOwner((key = command.getKey()))) {
-         if (trace) {
-            log.trace("Sending additional invalidation for requestors if necessary.");
+      return ctx.forkInvocation(command, (rCtx, rCommand, returnValue, throwable) -> {
+         if (throwable != null)
+            throw throwable;
+
+         Object key;
+         if (shouldUpdateOnWriteCommand(command) && command.isSuccessful() &&
+               cdl.localNodeIsOwner((key = command.getKey()))) {
+            if (trace) {
+               log.trace("Sending additional invalidation for requestors if necessary.");
+            }
+            // Send out a last attempt L1 invalidation in case if someone cached the L1
+            // value after they already received an invalidation
+            return shortCircuitAfter(rCtx, l1Manager.flushCache(Collections.singleton(key), rCtx.getOrigin(),
+                                                                assumeOriginKeptEntryInL1), returnValue);
          }
-         // Send out a last attempt L1 invalidation in case if someone cached the L1
-         // value after they already received an invalidation
-         blockOnL1FutureIfNeeded(l1Manager.flushCache(Collections.singleton(key), ctx.getOrigin(),
-                                                      assumeOriginKeptEntryInL1));
-      }
-      return ctx.shortCircuit(returnValue);
+         return rCtx.shortCircuit(returnValue);
+      });
    }
 
    @Override
    public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
-      Object returnValue = ctx.forkInvocationSync(command);
-      if (shouldUpdateOnWriteCommand(command)) {
-         Set<Object> keys = command.getMap().keySet();
-         Set<Object> toInvalidate = new HashSet<Object>(keys.size());
-         for (Object k : keys) {
-            if (cdl.localNodeIsOwner(k)) {
-               toInvalidate.add(k);
+      return ctx.forkInvocation(command, (rCtx, rCommand, returnValue, throwable) -> {
+         if (throwable != null)
+            throw throwable;
+
+         if (shouldUpdateOnWriteCommand(command)) {
+            Set<Object> keys = command.getMap().keySet();
+            Set<Object> toInvalidate = new HashSet<Object>(keys.size());
+            for (Object k : keys) {
+               if (cdl.localNodeIsOwner(k)) {
+                  toInvalidate.add(k);
+               }
             }
-         }
-         if (!toInvalidate.isEmpty()) {
-            if (trace) {
-               log.trace("Sending additional invalidation for requestors if necessary.");
+            if (!toInvalidate.isEmpty()) {
+               if (trace) {
+                  log.trace("Sending additional invalidation for requestors if necessary.");
+               }
+               return shortCircuitAfter(rCtx, l1Manager.flushCache(toInvalidate, rCtx.getOrigin(), true), returnValue);
             }
-            blockOnL1FutureIfNeeded(l1Manager.flushCache(toInvalidate, ctx.getOrigin(), true));
          }
-      }
-      return ctx.shortCircuit(returnValue);
+         return rCtx.shortCircuit(returnValue);
+      });
    }
 
    private boolean shouldUpdateOnWriteCommand(WriteCommand command) {
@@ -118,21 +126,28 @@ private boolean shouldUpdateOnWriteCommand(WriteCommand command) {
 
    @Override
    public CompletableFuture<Void> visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
-      Object retVal = ctx.forkInvocationSync(command);
-      if (command.isOnePhaseCommit()) {
-         blockOnL1FutureIfNeededTx(handleLastChanceL1InvalidationOnCommit(ctx));
-      }
-      return ctx.shortCircuit(retVal);
+      return ctx.forkInvocation(command, (rCtx, rCommand, retVal, throwable) -> {
+         if (throwable != null)
+            throw throwable;
+
+         if (command.isOnePhaseCommit()) {
+            return shortCircuitAfterTx(ctx, handleLastChanceL1InvalidationOnCommit(ctx), retVal);
+         }
+         return rCtx.shortCircuit(retVal);
+      });
    }
 
    @Override
    public CompletableFuture<Void> visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
-      Object retVal = ctx.forkInvocationSync(command);
-      blockOnL1FutureIfNeededTx(handleLastChanceL1InvalidationOnCommit(ctx));
-      return ctx.shortCircuit(retVal);
+      return ctx.forkInvocation(command, (rCtx, rCommand, retVal, throwable) -> {
+         if (throwable != null)
+            throw throwable;
+
+         return shortCircuitAfterTx(ctx, handleLastChanceL1InvalidationOnCommit(ctx), retVal);
+      });
    }
 
-   private Future<?> handleLastChanceL1InvalidationOnCommit(TxInvocationContext ctx) {
+   private CompletableFuture<?> handleLastChanceL1InvalidationOnCommit(TxInvocationContext ctx) {
       if (shouldFlushL1(ctx)) {
          if (trace) {
             log.tracef("Sending additional invalidation for requestors if necessary.");
@@ -146,25 +161,31 @@ private boolean shouldFlushL1(TxInvocationContext ctx) {
       return !ctx.getAffectedKeys().isEmpty();
    }
 
-   private void blockOnL1FutureIfNeededTx(Future<?> f) {
+   private CompletableFuture<Void> shortCircuitAfterTx(InvocationContext ctx, CompletableFuture<?> f, Object returnValue) {
       if (configuration.transaction().syncCommitPhase()) {
-         blockOnL1FutureIfNeeded(f);
+         return shortCircuitAfter(ctx, f, returnValue);
       }
+      return ctx.shortCircuit(returnValue);
    }
 
-   private void blockOnL1FutureIfNeeded(Future<?> f) {
-      if (f != null) {
-         try {
-            f.get();
-         } catch (InterruptedException e) {
-            getLog().failedInvalidatingRemoteCache(e);
-         } catch (ExecutionException e) {
+   /**
+    * Short-circuits with {@code returnValue} once the invalidation completes. Invalidation failures are only logged,
+    * they do not fail the command.
+    */
+   private CompletableFuture<Void> shortCircuitAfter(InvocationContext ctx, CompletableFuture<?> f, Object returnValue) {
+      if (f == null) {
+         return ctx.shortCircuit(returnValue);
+      }
+      return f.handle((rv, t) -> {
+         if (t != null) {
+            Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
             // Ignore SuspectExceptions - if the node has gone away then there is nothing to invalidate anyway.
-            if (!(e.getCause() instanceof SuspectException)) {
-               getLog().failedInvalidatingRemoteCache(e);
+            if (!(cause instanceof SuspectException)) {
+               getLog().failedInvalidatingRemoteCache(new ExecutionException(cause));
             }
          }
-      }
+         return null;
+      }).thenCompose(v -> ctx.shortCircuit(returnValue));
    }
 
    @Override
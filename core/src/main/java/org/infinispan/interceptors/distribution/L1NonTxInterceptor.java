@@ -121,14 +121,13 @@ private CompletableFuture<Void> visitDataReadCommand(InvocationContext ctx, Abst
 
    protected CompletableFuture<Void> performCommandWithL1WriteIfAble(InvocationContext ctx, DataCommand command, boolean isEntry,
                                                 boolean shouldAlwaysRunNextInterceptor, boolean registerL1) throws Throwable {
-      Object returnValue;
       if (ctx.isOriginLocal()) {
          Object key = command.getKey();
          // If the command isn't going to return a remote value - just pass it down the interceptor chain
          if (skipL1Lookup(command, key)) {
-            returnValue = ctx.forkInvocationSync(command);
+            return ctx.continueInvocation();
          } else {
-            returnValue = performL1Lookup(ctx, shouldAlwaysRunNextInterceptor, key, command, isEntry);
+            return performL1Lookup(ctx, shouldAlwaysRunNextInterceptor, key, command, isEntry);
          }
       } else {
          // If this is a remote command, and we found a value in our cache
@@ -136,13 +135,12 @@ protected CompletableFuture<Void> performCommandWithL1WriteIfAble(InvocationCont
          if (registerL1) {
             l1Manager.addRequestor(command.getKey(), ctx.getOrigin());
          }
-         returnValue = ctx.forkInvocationSync(command);
+         return ctx.continueInvocation();
       }
-      return ctx.shortCircuit(returnValue);
    }
 
-   protected Object performL1Lookup(InvocationContext ctx, boolean runInterceptorOnConflict, Object key,
-                                     DataCommand command, boolean isEntry) throws Throwable {
+   protected CompletableFuture<Void> performL1Lookup(InvocationContext ctx, boolean runInterceptorOnConflict, Object key,
+                                                     DataCommand command, boolean isEntry) throws Throwable {
       // Most times the putIfAbsent will be successful, so not doing a get first
       L1WriteSynchronizer l1WriteSync = new L1WriteSynchronizer(dataContainer, l1Lifespan, stateTransferLock,
                                                                 cdl);
@@ -155,22 +153,26 @@ protected Object performL1Lookup(InvocationContext ctx, boolean runInterceptorOn
          try {
             // Note this is the same synchronizer we just created that is registered with the L1Manager
             l1Manager.registerL1WriteSynchronizer(key, l1WriteSync);
-            Object returnValue;
-            try {
-               returnValue = ctx.forkInvocationSync(command);
-            }
-            finally {
-               l1Manager.unregisterL1WriteSynchronizer(key, l1WriteSync);
-            }
-            return returnValue;
          }
          catch (Throwable t) {
             l1WriteSync.retrievalEncounteredException(t);
-            throw t;
-         }
-         finally {
             concurrentWrites.remove(key);
+            throw t;
          }
+         // The remote get may complete asynchronously, so the synchronizer is released by the return handler
+         return ctx.forkInvocation(command, (rCtx, rCommand, rv, throwable) -> {
+            try {
+               l1Manager.unregisterL1WriteSynchronizer(key, l1WriteSync);
+               if (throwable != null) {
+                  l1WriteSync.retrievalEncounteredException(throwable);
+                  throw throwable;
+               }
+            }
+            finally {
+               concurrentWrites.remove(key);
+            }
+            return rCtx.shortCircuit(rv);
+         });
       } else {
          if (trace) {
             log.tracef("Found current request for key %s, waiting for their invocation's response", key);
@@ -193,7 +195,7 @@ protected Object performL1Lookup(InvocationContext ctx, boolean runInterceptorOn
                // Always run next interceptor if a timeout occurs
                returnValue = ctx.forkInvocationSync(command);
             }
-            return returnValue;
+            return ctx.shortCircuit(returnValue);
          }
          catch (ExecutionException e) {
             throw e.getCause();
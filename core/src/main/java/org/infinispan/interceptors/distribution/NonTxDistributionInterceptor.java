@@ -19,7 +19,6 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
-import org.infinispan.commons.CacheException;
 import org.infinispan.container.EntryFactory;
 import org.infinispan.container.entries.CacheEntry;
 import org.infinispan.container.entries.InternalCacheEntry;
@@ -33,6 +32,7 @@
 import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.remoting.rpc.RpcOptions;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -46,9 +46,7 @@
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletionException;
 
 /**
  * Non-transactional interceptor used by distributed caches that support concurrent writes.
@@ -86,29 +84,33 @@ private <T extends AbstractDataCommand & RemoteFetchingCommand> CompletableFutur
          CacheEntry entry = ctx.lookupEntry(key);
          if (valueIsMissing(entry)) {
             // First try to fetch from remote owners
-            InternalCacheEntry remoteEntry = null;
             if (readNeedsRemoteValue(ctx, command)) {
                if (trace) log.tracef("Doing a remote get for key %s", key);
-               remoteEntry = retrieveFromRemoteSource(key, ctx, false, command, false);
-               command.setRemotelyFetchedValue(remoteEntry);
-               if (remoteEntry != null) {
-                  entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.STORE, false);
-               }
-            }
-            if (remoteEntry == null) {
-               // Then search for the entry in the local data container, in case we became an owner after
-               // EntryWrappingInterceptor and the local node is now the only owner.
-               // TODO Check fails if the entry was passivated
-               InternalCacheEntry localEntry = fetchValueLocallyIfAvailable(dm.getReadConsistentHash(), key);
-               if (localEntry != null) {
-                  entryFactory.wrapExternalEntry(ctx, key, localEntry, EntryFactory.Wrap.STORE, false);
-               }
+               return retrieveFromRemoteSource(key, ctx, false, command, false).thenAccept(remoteEntry -> {
+                  command.setRemotelyFetchedValue(remoteEntry);
+                  if (remoteEntry != null) {
+                     entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.STORE, false);
+                  } else {
+                     wrapLocalEntryIfAvailable(ctx, key);
+                  }
+               });
             }
+            wrapLocalEntryIfAvailable(ctx, key);
          }
       }
       return ctx.continueInvocation();
    }
 
+   private void wrapLocalEntryIfAvailable(InvocationContext ctx, Object key) {
+      // Search for the entry in the local data container, in case we became an owner after
+      // EntryWrappingInterceptor and the local node is now the only owner.
+      // TODO Check fails if the entry was passivated
+      InternalCacheEntry localEntry = fetchValueLocallyIfAvailable(dm.getReadConsistentHash(), key);
+      if (localEntry != null) {
+         entryFactory.wrapExternalEntry(ctx, key, localEntry, EntryFactory.Wrap.STORE, false);
+      }
+   }
+
    @Override
    public CompletableFuture<Void> visitPutKeyValueCommand(InvocationContext ctx, PutKeyValueCommand command) throws Throwable {
       return handleNonTxWriteCommand(ctx, command);
@@ -119,6 +121,7 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
       Map<Object, Object> originalMap = command.getMap();
       ConsistentHash ch = dm.getConsistentHash();
       Address localAddress = rpcManager.getAddress();
+      CompletableFuture<Void> primaryFuture = ctx.continueInvocation();
       if (ctx.isOriginLocal()) {
          // TODO: if async we don't need to do futures...
          RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
@@ -148,67 +151,10 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
                futures.add(future);
             }
          }
-         if (futures.size() > 0) {
-            CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-            CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-            try {
-               compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-            } catch (ExecutionException e) {
-               throw new RemoteException("Exception while processing put on primary owner", e.getCause());
-            } catch (TimeoutException e) {
-               throw new CacheException(e);
-            }
-         }
-      }
-
-      if (!command.isForwarded() && ch.getNumOwners() > 1) {
-         Map<Address, Map<Object, Object>> backupOwnerEntries = new HashMap<>();
-         for (Entry<Object, Object> entry : originalMap.entrySet()) {
-            Object key = entry.getKey();
-            List<Address> addresses = ch.locateOwners(key);
-            if (localAddress.equals(addresses.get(0))) {
-               for (int i = 1; i < addresses.size(); ++i) {
-                  Address address = addresses.get(i);
-                  Map<Object, Object> entries = backupOwnerEntries.get(address);
-                  if (entries == null) {
-                     entries = new HashMap<>();
-                     backupOwnerEntries.put(address, entries);
-                  }
-                  entries.put(key, entry.getValue());
-               }
-            }
-         }
-
-         int backupOwnerSize = backupOwnerEntries.size();
-         if (backupOwnerSize > 0) {
-            List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(backupOwnerSize);
-            RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
-            command.addFlag(Flag.SKIP_LOCKING);
-            command.setForwarded(true);
-
-            for (Entry<Address, Map<Object, Object>> addressEntry : backupOwnerEntries.entrySet()) {
-               PutMapCommand copy = new PutMapCommand(command);
-               copy.setMap(addressEntry.getValue());
-               CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
-                       Collections.singletonList(addressEntry.getKey()), copy, options);
-               futures.add(future);
-            }
-            command.setForwarded(false);
-            if (futures.size() > 0) {
-               CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-               CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-               try {
-                  compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               } catch (ExecutionException e) {
-                  throw new RemoteException("Exception while processing put on backup owner", e.getCause());
-               } catch (TimeoutException e) {
-                  throw new CacheException(e);
-               }
-            }
-         }
+         primaryFuture = allOf(futures, "Exception while processing put on primary owner");
       }
 
-      return ctx.continueInvocation();
+      return primaryFuture.thenCompose(v -> putMapOnBackupOwners(command, originalMap, ch, localAddress));
    }
 
    @Override
@@ -238,17 +184,17 @@ public CompletableFuture<Void> visitReadOnlyKeyCommand(InvocationContext ctx, Re
          CacheEntry entry = ctx.lookupEntry(key);
          if (valueIsMissing(entry)) {
             // First try to fetch from remote owners
-            InternalCacheEntry remoteEntry = null;
             if (readNeedsRemoteValue(ctx, command)) {
                if (trace)
                   log.tracef("Doing a remote get for key %s", key);
-               remoteEntry = retrieveFromRemoteSource(key, ctx, false, command, false);
-               // TODO Do we need to do something else instead of setRemotelyFetchedValue?
-               // command.setRemotelyFetchedValue(remoteEntry);
-               if (remoteEntry != null) {
-                  entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.STORE, false);
-               }
-               return ctx.shortCircuit(command.perform(remoteEntry));
+               return retrieveFromRemoteSource(key, ctx, false, command, false).thenCompose(remoteEntry -> {
+                  // TODO Do we need to do something else instead of setRemotelyFetchedValue?
+                  // command.setRemotelyFetchedValue(remoteEntry);
+                  if (remoteEntry != null) {
+                     entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.STORE, false);
+                  }
+                  return ctx.shortCircuit(command.perform(remoteEntry));
+               });
             }
 
             // Then search for the entry in the local data container, in case we became an owner after
@@ -276,6 +222,7 @@ public CompletableFuture<Void> visitWriteOnlyManyEntriesCommand(InvocationContex
       Map<Object, Object> originalMap = command.getEntries();
       ConsistentHash ch = dm.getConsistentHash();
       Address localAddress = rpcManager.getAddress();
+      CompletableFuture<Void> primaryFuture = ctx.continueInvocation();
       if (ctx.isOriginLocal()) {
          List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(
             rpcManager.getMembers().size() - 1);
@@ -298,81 +245,54 @@ public CompletableFuture<Void> visitWriteOnlyManyEntriesCommand(InvocationContex
                }
             }
          }
-         if (futures.size() > 0) {
-            CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-            CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-            try {
-               compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-            } catch (ExecutionException e) {
-               throw new RemoteException("Exception while processing put on primary owner", e.getCause());
-            } catch (TimeoutException e) {
-               throw new CacheException(e);
-            }
-         }
+         primaryFuture = allOf(futures, "Exception while processing put on primary owner");
       }
 
-      if (!command.isForwarded() && ch.getNumOwners() > 1) {
-         // Now we find all the segments that we own and map our backups to those
-         Map<Address, Set<Integer>> backupOwnerSegments = new HashMap<>();
-         int segmentCount = ch.getNumSegments();
-         for (int i = 0; i < segmentCount; ++i) {
-            Iterator<Address> iter = ch.locateOwnersForSegment(i).iterator();
+      return primaryFuture.thenCompose(v -> writeOnlyManyEntriesOnBackupOwners(command, originalMap, ch, localAddress));
+   }
 
-            if (iter.next().equals(localAddress)) {
-               while (iter.hasNext()) {
-                  Address backupOwner = iter.next();
-                  Set<Integer> segments = backupOwnerSegments.get(backupOwner);
-                  if (segments == null) {
-                     backupOwnerSegments.put(backupOwner, (segments = new HashSet<>()));
-                  }
-                  segments.add(i);
-               }
+   @Override
+   public CompletableFuture<Void> visitWriteOnlyManyCommand(InvocationContext ctx, WriteOnlyManyCommand command) throws Throwable {
+      // TODO: Refactor this, visitWriteOnlyManyCommand and visitPutMapCommand...
+      Set<Object> originalMap = command.getKeys();
+      ConsistentHash ch = dm.getConsistentHash();
+      Address localAddress = rpcManager.getAddress();
+      CompletableFuture<Void> primaryFuture = ctx.continueInvocation();
+      if (ctx.isOriginLocal()) {
+         List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(
+            rpcManager.getMembers().size() - 1);
+         // TODO: if async we don't need to do futures...
+         RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
+         for (Address member : rpcManager.getMembers()) {
+            if (member.equals(rpcManager.getAddress())) {
+               continue;
             }
-         }
-
-         int backupOwnerSize = backupOwnerSegments.size();
-         if (backupOwnerSize > 0) {
-            List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(backupOwnerSize);
-            RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
-            command.addFlag(Flag.SKIP_LOCKING);
-            command.setForwarded(true);
-
-            for (Entry<Address, Set<Integer>> entry : backupOwnerSegments.entrySet()) {
-               Set<Integer> segments = entry.getValue();
-               Map<Object, Object> segmentEntriesMap =
-                  new ReadOnlySegmentAwareMap<>(originalMap, ch, segments);
-               if (!segmentEntriesMap.isEmpty()) {
-                  WriteOnlyManyEntriesCommand copy = new WriteOnlyManyEntriesCommand(command);
-                  copy.setEntries(segmentEntriesMap);
+            Set<Integer> segments = ch.getPrimarySegmentsForOwner(member);
+            if (!segments.isEmpty()) {
+               Set<Object> segmentKeysSet =
+                  new ReadOnlySegmentAwareSet<>(originalMap, ch, segments);
+               if (!segmentKeysSet.isEmpty()) {
+                  WriteOnlyManyCommand copy = new WriteOnlyManyCommand(command);
+                  copy.setKeys(segmentKeysSet);
                   CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
-                     Collections.singletonList(entry.getKey()), copy, options);
+                     Collections.singletonList(member), copy, options);
                   futures.add(future);
                }
             }
-            command.setForwarded(false);
-            if (futures.size() > 0) {
-               CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-               CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-               try {
-                  compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               } catch (ExecutionException e) {
-                  throw new RemoteException("Exception while processing put on backup owner", e.getCause());
-               } catch (TimeoutException e) {
-                  throw new CacheException(e);
-               }
-            }
          }
+         primaryFuture = allOf(futures, "Exception while processing put on primary owner");
       }
 
-      return ctx.continueInvocation();
+      return primaryFuture.thenCompose(v -> writeOnlyManyOnBackupOwners(command, originalMap, ch, localAddress));
    }
 
    @Override
-   public CompletableFuture<Void> visitWriteOnlyManyCommand(InvocationContext ctx, WriteOnlyManyCommand command) throws Throwable {
-      // TODO: Refactor this, visitWriteOnlyManyCommand and visitPutMapCommand...
+   public CompletableFuture<Void> visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) throws Throwable {
+      // TODO: Refactor to avoid code duplication
       Set<Object> originalMap = command.getKeys();
       ConsistentHash ch = dm.getConsistentHash();
       Address localAddress = rpcManager.getAddress();
+      CompletableFuture<Void> primaryFuture = ctx.continueInvocation();
       if (ctx.isOriginLocal()) {
          List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(
             rpcManager.getMembers().size() - 1);
@@ -387,7 +307,7 @@ public CompletableFuture<Void> visitWriteOnlyManyCommand(InvocationContext ctx,
                Set<Object> segmentKeysSet =
                   new ReadOnlySegmentAwareSet<>(originalMap, ch, segments);
                if (!segmentKeysSet.isEmpty()) {
-                  WriteOnlyManyCommand copy = new WriteOnlyManyCommand(command);
+                  ReadWriteManyCommand copy = new ReadWriteManyCommand(command);
                   copy.setKeys(segmentKeysSet);
                   CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
                      Collections.singletonList(member), copy, options);
@@ -395,19 +315,114 @@ public CompletableFuture<Void> visitWriteOnlyManyCommand(InvocationContext ctx,
                }
             }
          }
-         if (futures.size() > 0) {
-            CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-            CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-            try {
-               compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-            } catch (ExecutionException e) {
-               throw new RemoteException("Exception while processing put on primary owner", e.getCause());
-            } catch (TimeoutException e) {
-               throw new CacheException(e);
+         primaryFuture = allOf(futures, "Exception while processing put on primary owner").thenAccept(v -> {
+            // NOTE: Variation from WriteOnlyManyCommand, we care about returns!
+            // TODO: Take into account when refactoring
+            for (CompletableFuture<Map<Address,Response>> future : futures) {
+               Map<Address, Response> responses = future.join();
+               for (Response response : responses.values()) {
+                  if (response.isSuccessful()) {
+                     SuccessfulResponse success = (SuccessfulResponse) response;
+                     command.addAllRemoteReturns((List<?>) success.getResponseValue());
+                  }
+               }
+            }
+         });
+      }
+
+      return primaryFuture.thenCompose(v -> readWriteManyOnBackupOwners(command, originalMap, ch, localAddress));
+   }
+
+   @Override
+   public CompletableFuture<Void> visitReadWriteManyEntriesCommand(InvocationContext ctx, ReadWriteManyEntriesCommand command) throws Throwable {
+      // TODO: Refactor to avoid code duplication
+      Map<Object, Object> originalMap = command.getEntries();
+      ConsistentHash ch = dm.getConsistentHash();
+      Address localAddress = rpcManager.getAddress();
+      CompletableFuture<Void> primaryFuture = ctx.continueInvocation();
+      if (ctx.isOriginLocal()) {
+         List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(
+            rpcManager.getMembers().size() - 1);
+         // TODO: if async we don't need to do futures...
+         RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
+         for (Address member : rpcManager.getMembers()) {
+            if (member.equals(rpcManager.getAddress())) {
+               continue;
+            }
+            Set<Integer> segments = ch.getPrimarySegmentsForOwner(member);
+            if (!segments.isEmpty()) {
+               Map<Object, Object> segmentEntriesMap =
+                  new ReadOnlySegmentAwareMap<>(originalMap, ch, segments);
+               if (!segmentEntriesMap.isEmpty()) {
+                  ReadWriteManyEntriesCommand copy = new ReadWriteManyEntriesCommand(command);
+                  copy.setEntries(segmentEntriesMap);
+                  CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
+                     Collections.singletonList(member), copy, options);
+                  futures.add(future);
+               }
             }
          }
+         primaryFuture = allOf(futures, "Exception while processing put on primary owner").thenAccept(v -> {
+            // NOTE: Variation from WriteOnlyManyCommand, we care about returns!
+            // TODO: Take into account when refactoring
+            for (CompletableFuture<Map<Address,Response>> future : futures) {
+               Map<Address, Response> responses = future.join();
+               for (Response response : responses.values()) {
+                  if (response.isSuccessful()) {
+                     SuccessfulResponse success = (SuccessfulResponse) response;
+                     command.addAllRemoteReturns((List<?>) success.getResponseValue());
+                  }
+               }
+            }
+         });
       }
 
+      return primaryFuture.thenCompose(v -> readWriteManyEntriesOnBackupOwners(command, originalMap, ch, localAddress));
+   }
+
+   private CompletableFuture<Void> putMapOnBackupOwners(PutMapCommand command, Map<Object, Object> originalMap,
+         ConsistentHash ch, Address localAddress) {
+      if (!command.isForwarded() && ch.getNumOwners() > 1) {
+         Map<Address, Map<Object, Object>> backupOwnerEntries = new HashMap<>();
+         for (Entry<Object, Object> entry : originalMap.entrySet()) {
+            Object key = entry.getKey();
+            List<Address> addresses = ch.locateOwners(key);
+            if (localAddress.equals(addresses.get(0))) {
+               for (int i = 1; i < addresses.size(); ++i) {
+                  Address address = addresses.get(i);
+                  Map<Object, Object> entries = backupOwnerEntries.get(address);
+                  if (entries == null) {
+                     entries = new HashMap<>();
+                     backupOwnerEntries.put(address, entries);
+                  }
+                  entries.put(key, entry.getValue());
+               }
+            }
+         }
+
+         int backupOwnerSize = backupOwnerEntries.size();
+         if (backupOwnerSize > 0) {
+            List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(backupOwnerSize);
+            RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
+            command.addFlag(Flag.SKIP_LOCKING);
+            command.setForwarded(true);
+
+            for (Entry<Address, Map<Object, Object>> addressEntry : backupOwnerEntries.entrySet()) {
+               PutMapCommand copy = new PutMapCommand(command);
+               copy.setMap(addressEntry.getValue());
+               CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
+                       Collections.singletonList(addressEntry.getKey()), copy, options);
+               futures.add(future);
+            }
+            command.setForwarded(false);
+            return allOf(futures, "Exception while processing put on backup owner");
+         }
+      }
+      return CompletableFutures.completedNull();
+   }
+
+   private CompletableFuture<Void> writeOnlyManyEntriesOnBackupOwners(WriteOnlyManyEntriesCommand command, Map<Object, Object> originalMap,
+         ConsistentHash ch, Address localAddress) {
       if (!command.isForwarded() && ch.getNumOwners() > 1) {
          // Now we find all the segments that we own and map our backups to those
          Map<Address, Set<Integer>> backupOwnerSegments = new HashMap<>();
@@ -436,86 +451,72 @@ public CompletableFuture<Void> visitWriteOnlyManyCommand(InvocationContext ctx,
 
             for (Entry<Address, Set<Integer>> entry : backupOwnerSegments.entrySet()) {
                Set<Integer> segments = entry.getValue();
-               Set<Object> segmentKeysSet =
-                  new ReadOnlySegmentAwareSet<>(originalMap, ch, segments);
-               if (!segmentKeysSet.isEmpty()) {
-                  WriteOnlyManyCommand copy = new WriteOnlyManyCommand(command);
-                  copy.setKeys(segmentKeysSet);
+               Map<Object, Object> segmentEntriesMap =
+                  new ReadOnlySegmentAwareMap<>(originalMap, ch, segments);
+               if (!segmentEntriesMap.isEmpty()) {
+                  WriteOnlyManyEntriesCommand copy = new WriteOnlyManyEntriesCommand(command);
+                  copy.setEntries(segmentEntriesMap);
                   CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
                      Collections.singletonList(entry.getKey()), copy, options);
                   futures.add(future);
                }
             }
             command.setForwarded(false);
-            if (futures.size() > 0) {
-               CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-               CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-               try {
-                  compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               } catch (ExecutionException e) {
-                  throw new RemoteException("Exception while processing put on backup owner", e.getCause());
-               } catch (TimeoutException e) {
-                  throw new CacheException(e);
-               }
-            }
+            return allOf(futures, "Exception while processing put on backup owner");
          }
       }
-
-      return ctx.continueInvocation();
+      return CompletableFutures.completedNull();
    }
 
-   @Override
-   public CompletableFuture<Void> visitReadWriteManyCommand(InvocationContext ctx, ReadWriteManyCommand command) throws Throwable {
-      // TODO: Refactor to avoid code duplication
-      Set<Object> originalMap = command.getKeys();
-      ConsistentHash ch = dm.getConsistentHash();
-      Address localAddress = rpcManager.getAddress();
-      if (ctx.isOriginLocal()) {
-         List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(
-            rpcManager.getMembers().size() - 1);
-         // TODO: if async we don't need to do futures...
-         RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
-         for (Address member : rpcManager.getMembers()) {
-            if (member.equals(rpcManager.getAddress())) {
-               continue;
+   private CompletableFuture<Void> writeOnlyManyOnBackupOwners(WriteOnlyManyCommand command, Set<Object> originalMap,
+         ConsistentHash ch, Address localAddress) {
+      if (!command.isForwarded() && ch.getNumOwners() > 1) {
+         // Now we find all the segments that we own and map our backups to those
+         Map<Address, Set<Integer>> backupOwnerSegments = new HashMap<>();
+         int segmentCount = ch.getNumSegments();
+         for (int i = 0; i < segmentCount; ++i) {
+            Iterator<Address> iter = ch.locateOwnersForSegment(i).iterator();
+
+            if (iter.next().equals(localAddress)) {
+               while (iter.hasNext()) {
+                  Address backupOwner = iter.next();
+                  Set<Integer> segments = backupOwnerSegments.get(backupOwner);
+                  if (segments == null) {
+                     backupOwnerSegments.put(backupOwner, (segments = new HashSet<>()));
+                  }
+                  segments.add(i);
+               }
             }
-            Set<Integer> segments = ch.getPrimarySegmentsForOwner(member);
-            if (!segments.isEmpty()) {
+         }
+
+         int backupOwnerSize = backupOwnerSegments.size();
+         if (backupOwnerSize > 0) {
+            List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(backupOwnerSize);
+            RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
+            command.addFlag(Flag.SKIP_LOCKING);
+            command.setForwarded(true);
+
+            for (Entry<Address, Set<Integer>> entry : backupOwnerSegments.entrySet()) {
+               Set<Integer> segments = entry.getValue();
                Set<Object> segmentKeysSet =
                   new ReadOnlySegmentAwareSet<>(originalMap, ch, segments);
                if (!segmentKeysSet.isEmpty()) {
-                  ReadWriteManyCommand copy = new ReadWriteManyCommand(command);
+                  WriteOnlyManyCommand copy = new WriteOnlyManyCommand(command);
                   copy.setKeys(segmentKeysSet);
                   CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
-                     Collections.singletonList(member), copy, options);
+                     Collections.singletonList(entry.getKey()), copy, options);
                   futures.add(future);
                }
             }
-         }
-         if (futures.size() > 0) {
-            CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-            CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-            try {
-               compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               // NOTE: Variation from WriteOnlyManyCommand, we care about returns!
-               // TODO: Take into account when refactoring
-               for (CompletableFuture<Map<Address,Response>> future : futures) {
-                  Map<Address, Response> responses = future.get();
-                  for (Response response : responses.values()) {
-                     if (response.isSuccessful()) {
-                        SuccessfulResponse success = (SuccessfulResponse) response;
-                        command.addAllRemoteReturns((List<?>) success.getResponseValue());
-                     }
-                  }
-               }
-            } catch (ExecutionException e) {
-               throw new RemoteException("Exception while processing put on primary owner", e.getCause());
-            } catch (TimeoutException e) {
-               throw new CacheException(e);
-            }
+            command.setForwarded(false);
+            return allOf(futures, "Exception while processing put on backup owner");
          }
       }
+      return CompletableFutures.completedNull();
+   }
 
+   private CompletableFuture<Void> readWriteManyOnBackupOwners(ReadWriteManyCommand command, Set<Object> originalMap,
+         ConsistentHash ch, Address localAddress) {
       if (!command.isForwarded() && ch.getNumOwners() > 1) {
          // Now we find all the segments that we own and map our backups to those
          Map<Address, Set<Integer>> backupOwnerSegments = new HashMap<>();
@@ -555,75 +556,14 @@ public CompletableFuture<Void> visitReadWriteManyCommand(InvocationContext ctx,
                }
             }
             command.setForwarded(false);
-            if (futures.size() > 0) {
-               CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-               CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-               try {
-                  compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               } catch (ExecutionException e) {
-                  throw new RemoteException("Exception while processing put on backup owner", e.getCause());
-               } catch (TimeoutException e) {
-                  throw new CacheException(e);
-               }
-            }
+            return allOf(futures, "Exception while processing put on backup owner");
          }
       }
-
-      return ctx.continueInvocation();
+      return CompletableFutures.completedNull();
    }
 
-   @Override
-   public CompletableFuture<Void> visitReadWriteManyEntriesCommand(InvocationContext ctx, ReadWriteManyEntriesCommand command) throws Throwable {
-      // TODO: Refactor to avoid code duplication
-      Map<Object, Object> originalMap = command.getEntries();
-      ConsistentHash ch = dm.getConsistentHash();
-      Address localAddress = rpcManager.getAddress();
-      if (ctx.isOriginLocal()) {
-         List<CompletableFuture<Map<Address, Response>>> futures = new ArrayList<>(
-            rpcManager.getMembers().size() - 1);
-         // TODO: if async we don't need to do futures...
-         RpcOptions options = rpcManager.getDefaultRpcOptions(isSynchronous(command));
-         for (Address member : rpcManager.getMembers()) {
-            if (member.equals(rpcManager.getAddress())) {
-               continue;
-            }
-            Set<Integer> segments = ch.getPrimarySegmentsForOwner(member);
-            if (!segments.isEmpty()) {
-               Map<Object, Object> segmentEntriesMap =
-                  new ReadOnlySegmentAwareMap<>(originalMap, ch, segments);
-               if (!segmentEntriesMap.isEmpty()) {
-                  ReadWriteManyEntriesCommand copy = new ReadWriteManyEntriesCommand(command);
-                  copy.setEntries(segmentEntriesMap);
-                  CompletableFuture<Map<Address, Response>> future = rpcManager.invokeRemotelyAsync(
-                     Collections.singletonList(member), copy, options);
-                  futures.add(future);
-               }
-            }
-         }
-         if (futures.size() > 0) {
-            CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-            CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-            try {
-               compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               // NOTE: Variation from WriteOnlyManyCommand, we care about returns!
-               // TODO: Take into account when refactoring
-               for (CompletableFuture<Map<Address,Response>> future : futures) {
-                  Map<Address, Response> responses = future.get();
-                  for (Response response : responses.values()) {
-                     if (response.isSuccessful()) {
-                        SuccessfulResponse success = (SuccessfulResponse) response;
-                        command.addAllRemoteReturns((List<?>) success.getResponseValue());
-                     }
-                  }
-               }
-            } catch (ExecutionException e) {
-               throw new RemoteException("Exception while processing put on primary owner", e.getCause());
-            } catch (TimeoutException e) {
-               throw new CacheException(e);
-            }
-         }
-      }
-
+   private CompletableFuture<Void> readWriteManyEntriesOnBackupOwners(ReadWriteManyEntriesCommand command, Map<Object, Object> originalMap,
+         ConsistentHash ch, Address localAddress) {
       if (!command.isForwarded() && ch.getNumOwners() > 1) {
          // Now we find all the segments that we own and map our backups to those
          Map<Address, Set<Integer>> backupOwnerSegments = new HashMap<>();
@@ -663,21 +603,22 @@ public CompletableFuture<Void> visitReadWriteManyEntriesCommand(InvocationContex
                }
             }
             command.setForwarded(false);
-            if (futures.size() > 0) {
-               CompletableFuture[] futuresArray = new CompletableFuture[futures.size()];
-               CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(futuresArray));
-               try {
-                  compFuture.get(options.timeout(), TimeUnit.MILLISECONDS);
-               } catch (ExecutionException e) {
-                  throw new RemoteException("Exception while processing put on backup owner", e.getCause());
-               } catch (TimeoutException e) {
-                  throw new CacheException(e);
-               }
-            }
+            return allOf(futures, "Exception while processing put on backup owner");
          }
       }
+      return CompletableFutures.completedNull();
+   }
 
-      return ctx.continueInvocation();
+   private static CompletableFuture<Void> allOf(List<CompletableFuture<Map<Address, Response>>> futures,
+         String failureMessage) {
+      CompletableFuture<Void> compFuture = CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+      return compFuture.handle((v, throwable) -> {
+         if (throwable != null) {
+            Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+            throw new RemoteException(failureMessage, cause);
+         }
+         return null;
+      });
    }
 
    @Override
@@ -690,33 +631,28 @@ public CompletableFuture<Void> visitWriteOnlyKeyCommand(InvocationContext ctx, W
       return handleNonTxWriteCommand(ctx, command);
    }
 
-   protected void remoteGetBeforeWrite(InvocationContext ctx, WriteCommand command, Object key) throws
-         Throwable {
+   protected CompletableFuture<Void> remoteGetBeforeWrite(InvocationContext ctx, WriteCommand command, Object key)
+         throws Throwable {
       CacheEntry entry = ctx.lookupEntry(key);
       if (!valueIsMissing(entry)) {
-         return;
+         return ctx.continueInvocation();
       }
-      InternalCacheEntry remoteEntry = null;
       if (writeNeedsRemoteValue(ctx, command, key)) {
          // First try to fetch from remote owners
          if (!isValueAvailableLocally(dm.getReadConsistentHash(), key)) {
             if (trace) log.tracef("Doing a remote get for key %s", key);
-            remoteEntry = retrieveFromRemoteSource(key, ctx, false, command, false);
-            if (remoteEntry != null) {
-               entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.STORE, false);
-            }
-         }
-         if (remoteEntry == null) {
-            // Then search for the entry in the local data container, in case we became an owner after
-            // EntryWrappingInterceptor and the local node is now the only owner.
-            // We can skip the local lookup if the operation doesn't need the previous values
-            // TODO Check fails if the entry was passivated
-            InternalCacheEntry localEntry = fetchValueLocallyIfAvailable(dm.getReadConsistentHash(), key);
-            if (localEntry != null) {
-               entryFactory.wrapExternalEntry(ctx, key, localEntry, EntryFactory.Wrap.STORE, false);
-            }
+            return retrieveFromRemoteSource(key, ctx, false, command, false).thenAccept(remoteEntry -> {
+               if (remoteEntry != null) {
+                  entryFactory.wrapExternalEntry(ctx, key, remoteEntry, EntryFactory.Wrap.STORE, false);
+               } else {
+                  wrapLocalEntryIfAvailable(ctx, key);
+               }
+            });
          }
+         // We can skip the local lookup if the operation doesn't need the previous values
+         wrapLocalEntryIfAvailable(ctx, key);
       }
+      return ctx.continueInvocation();
    }
 
    protected boolean writeNeedsRemoteValue(InvocationContext ctx, WriteCommand command, Object key) {
@@ -27,6 +27,7 @@
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.interceptors.SequentialInterceptor;
 import org.infinispan.partitionhandling.impl.PartitionHandlingManager;
 import org.infinispan.remoting.inboundhandler.DeliverOrder;
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
@@ -39,6 +40,7 @@
 import org.infinispan.transaction.LockingMode;
 import org.infinispan.transaction.impl.LocalTransaction;
 import org.infinispan.transaction.xa.GlobalTransaction;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -80,26 +82,24 @@ public void start() {
 
    @Override
    public CompletableFuture<Void> visitReplaceCommand(InvocationContext ctx, ReplaceCommand command) throws Throwable {
-      try {
-         return ctx.shortCircuit(handleTxWriteCommand(ctx, command, command.getKey()));
-      } finally {
-         if (ctx.isOriginLocal()) {
-            // If the state transfer interceptor has to retry the command, it should ignore the previous value.
-            command.setValueMatcher(command.isSuccessful() ? ValueMatcher.MATCH_ALWAYS : ValueMatcher.MATCH_NEVER);
-         }
-      }
+      return handleTxWriteCommand(ctx, command, command.getKey(), (rCtx, rCommand, rv, throwable) -> {
+         updateMatcherForRetry(rCtx, command);
+         if (throwable != null)
+            throw throwable;
+
+         return rCtx.shortCircuit(rv);
+      });
    }
 
    @Override
    public CompletableFuture<Void> visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
-      try {
-         return ctx.shortCircuit(handleTxWriteCommand(ctx, command, command.getKey()));
-      } finally {
-         if (ctx.isOriginLocal()) {
-            // If the state transfer interceptor has to retry the command, it should ignore the previous value.
-            command.setValueMatcher(command.isSuccessful() ? ValueMatcher.MATCH_ALWAYS : ValueMatcher.MATCH_NEVER);
-         }
-      }
+      return handleTxWriteCommand(ctx, command, command.getKey(), (rCtx, rCommand, rv, throwable) -> {
+         updateMatcherForRetry(rCtx, command);
+         if (throwable != null)
+            throw throwable;
+
+         return rCtx.shortCircuit(rv);
+      });
    }
 
    @Override
@@ -108,12 +108,20 @@ public CompletableFuture<Void> visitPutKeyValueCommand(InvocationContext ctx, Pu
          return handleNonTxWriteCommand(ctx, command);
       }
 
-      Object returnValue = handleTxWriteCommand(ctx, command, command.getKey());
+      return handleTxWriteCommand(ctx, command, command.getKey(), (rCtx, rCommand, rv, throwable) -> {
+         if (throwable != null)
+            throw throwable;
+
+         updateMatcherForRetry(rCtx, command);
+         return rCtx.shortCircuit(rv);
+      });
+   }
+
+   private void updateMatcherForRetry(InvocationContext ctx, WriteCommand command) {
       if (ctx.isOriginLocal()) {
          // If the state transfer interceptor has to retry the command, it should ignore the previous value.
          command.setValueMatcher(command.isSuccessful() ? ValueMatcher.MATCH_ALWAYS : ValueMatcher.MATCH_NEVER);
       }
-      return ctx.shortCircuit(returnValue);
    }
 
    @Override
@@ -137,13 +145,14 @@ private CompletableFuture<Void> visitGetCommand(InvocationContext ctx, AbstractD
       CacheEntry entry = ctx.lookupEntry(key);
       // If the cache entry has the value lock flag set, skip the remote get.
       if (ctx.isOriginLocal() && valueIsMissing(entry)) {
-         InternalCacheEntry remoteEntry = null;
          if (readNeedsRemoteValue(ctx, command)) {
-            remoteEntry = remoteGet(ctx, key, false, command);
-         }
-         if (remoteEntry == null) {
-            localGet(ctx, key, false);
+            return remoteGet(ctx, key, false, command).thenAccept(remoteEntry -> {
+               if (remoteEntry == null) {
+                  localGet(ctx, key, false);
+               }
+            });
          }
+         localGet(ctx, key, false);
       }
 
       return ctx.continueInvocation();
@@ -158,9 +167,9 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
                .getMembers() : affectedNodes);
          log.tracef("Registered remote locks acquired %s", affectedNodes);
          RpcOptions rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE).build();
-         Map<Address, Response> responseMap = rpcManager.invokeRemotely(affectedNodes, command, rpcOptions);
-         checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx,
-                                 ((LocalTxInvocationContext) ctx).getRemoteLocksAcquired());
+         return rpcManager.invokeRemotelyAsync(affectedNodes, command, rpcOptions).thenAccept(responseMap ->
+               checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx,
+                                       ((LocalTxInvocationContext) ctx).getRemoteLocksAcquired()));
       }
       return ctx.continueInvocation();
    }
@@ -170,42 +179,65 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
    public CompletableFuture<Void> visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
       if (shouldInvokeRemoteTxCommand(ctx)) {
          Collection<Address> recipients = getCommitNodes(ctx);
-         Map<Address, Response> responseMap =
-               rpcManager.invokeRemotely(recipients, command, createCommitRpcOptions());
-         checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx, recipients);
+         return rpcManager.invokeRemotelyAsync(recipients, command, createCommitRpcOptions()).thenAccept(responseMap ->
+               checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx, recipients));
       }
       return ctx.continueInvocation();
    }
 
    @Override
    public CompletableFuture<Void> visitPrepareCommand(TxInvocationContext ctx, PrepareCommand command) throws Throwable {
-      Object retVal = ctx.forkInvocationSync(command);
-
-      if (shouldInvokeRemoteTxCommand(ctx)) {
-         Collection<Address> recipients = cdl.getOwners(getAffectedKeysFromContext(ctx));
-         prepareOnAffectedNodes(ctx, command, recipients);
-         ((LocalTxInvocationContext) ctx).remoteLocksAcquired(
-               recipients == null ? dm.getWriteConsistentHash().getMembers() : recipients);
-      }
-      return ctx.shortCircuit(retVal);
+      return ctx.forkInvocation(command, (rCtx, rCommand, retVal, throwable) -> {
+         if (throwable != null)
+            throw throwable;
+
+         if (shouldInvokeRemoteTxCommand(ctx)) {
+            Collection<Address> recipients = getAffectedNodes(ctx);
+            return prepareOnAffectedNodes(ctx, command, recipients).thenCompose(v -> {
+               ((LocalTxInvocationContext) ctx).remoteLocksAcquired(
+                     recipients == null ? dm.getWriteConsistentHash().getMembers() : recipients);
+               return ctx.shortCircuit(retVal);
+            });
+         }
+         return ctx.shortCircuit(retVal);
+      });
    }
 
-   protected void prepareOnAffectedNodes(TxInvocationContext<?> ctx, PrepareCommand command, Collection<Address> recipients) {
+   /**
+    * Sends the prepare command to the owners of the keys modified by the transaction.
+    *
+    * @return A future that completes when the owners have replied, or when the prepare has been sent if the cache is
+    * asynchronous.
+    */
+   protected CompletableFuture<Void> prepareOnAffectedNodes(TxInvocationContext<?> ctx, PrepareCommand command,
+         Collection<Address> recipients) {
+      CompletableFuture<Map<Address, Response>> remoteFuture;
       try {
          // this method will return immediately if we're the only member (because exclude_self=true)
-         Map<Address, Response> responseMap = rpcManager.invokeRemotely(recipients, command, createPrepareRpcOptions());
-         checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx, recipients);
-      } finally {
+         remoteFuture = rpcManager.invokeRemotelyAsync(recipients, command, createPrepareRpcOptions());
+      } catch (Throwable t) {
          transactionRemotelyPrepared(ctx);
+         throw t;
       }
+      return remoteFuture.handle((responseMap, throwable) -> {
+         try {
+            if (throwable != null)
+               throw CompletableFutures.asCompletionException(throwable);
+
+            checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx, recipients);
+            return null;
+         } finally {
+            transactionRemotelyPrepared(ctx);
+         }
+      });
    }
 
    @Override
    public CompletableFuture<Void> visitRollbackCommand(TxInvocationContext ctx, RollbackCommand command) throws Throwable {
       if (shouldInvokeRemoteTxCommand(ctx)) {
          Collection<Address> recipients = getCommitNodes(ctx);
-         Map<Address, Response> responseMap = rpcManager.invokeRemotely(recipients, command, createRollbackRpcOptions());
-         checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx, recipients);
+         return rpcManager.invokeRemotelyAsync(recipients, command, createRollbackRpcOptions()).thenAccept(responseMap ->
+               checkTxCommandResponses(responseMap, command, (LocalTxInvocationContext) ctx, recipients));
       }
 
       return ctx.continueInvocation();
@@ -213,11 +245,20 @@ public CompletableFuture<Void> visitRollbackCommand(TxInvocationContext ctx, Rol
 
    private Collection<Address> getCommitNodes(TxInvocationContext ctx) {
       LocalTransaction localTx = (LocalTransaction) ctx.getCacheTransaction();
-      Collection<Address> affectedNodes = cdl.getOwners(getAffectedKeysFromContext(ctx));
+      Collection<Address> affectedNodes = getAffectedNodes(ctx);
       List<Address> members = dm.getConsistentHash().getMembers();
       return localTx.getCommitNodes(affectedNodes, rpcManager.getTopologyId(), members);
    }
 
+   /**
+    * @return the owners of the keys modified by the transaction and the primary owners of the keys it locked in shared
+    * mode, or {@code null} if all the members are affected.
+    */
+   private Collection<Address> getAffectedNodes(TxInvocationContext ctx) {
+      LocalTransaction localTx = (LocalTransaction) ctx.getCacheTransaction();
+      return localTx.addReadLockOwners(cdl.getOwners(getAffectedKeysFromContext(ctx)), cdl::getPrimaryOwner);
+   }
+
    protected void checkTxCommandResponses(Map<Address, Response> responseMap, TransactionBoundaryCommand command,
                                           LocalTxInvocationContext context, Collection<Address> recipients) {
       OutdatedTopologyException outdatedTopologyException = null;
@@ -276,11 +317,12 @@ private boolean checkCacheNotFoundResponseInPartitionHandling(TransactionBoundar
     * If we are within one transaction we won't do any replication as replication would only be performed at commit
     * time. If the operation didn't originate locally we won't do any replication either.
     */
-   private Object handleTxWriteCommand(InvocationContext ctx, WriteCommand command, Object key) throws Throwable {
+   private CompletableFuture<Void> handleTxWriteCommand(InvocationContext ctx, WriteCommand command, Object key,
+         SequentialInterceptor.ForkReturnHandler returnHandler) throws Throwable {
       // see if we need to load values from remote sources first
-      remoteGetBeforeWrite(ctx, command, key);
+      CompletableFuture<Void> remoteGetFuture = remoteGetBeforeWrite(ctx, command, key);
 
-      return ctx.forkInvocationSync(command);
+      return remoteGetFuture.thenCompose(v -> ctx.forkInvocation(command, returnHandler));
    }
 
    @Override
@@ -304,8 +346,7 @@ protected boolean writeNeedsRemoteValue(InvocationContext ctx, WriteCommand comm
       }
    }
 
-   private void localGet(InvocationContext ctx, Object key, boolean isWrite)
-         throws Throwable {
+   private void localGet(InvocationContext ctx, Object key, boolean isWrite) {
       // TODO Check fails if the entry was passivated
       InternalCacheEntry ice = fetchValueLocallyIfAvailable(dm.getReadConsistentHash(), key);
       if (ice != null) {
@@ -314,44 +355,46 @@ private void localGet(InvocationContext ctx, Object key, boolean isWrite)
       }
    }
 
-   protected void remoteGetBeforeWrite(InvocationContext ctx, WriteCommand command, Object key) throws Throwable {
+   protected CompletableFuture<Void> remoteGetBeforeWrite(InvocationContext ctx, WriteCommand command, Object key)
+         throws Throwable {
       CacheEntry entry = ctx.lookupEntry(key);
       if (!valueIsMissing(entry)) {
          // The entry already exists in the context, and it shouldn't be re-fetched
-         return;
+         return ctx.continueInvocation();
       }
-      InternalCacheEntry remoteEntry = null;
       if (writeNeedsRemoteValue(ctx, command, key)) {
          // Normally looking the value up in the local data container doesn't help, because we already
          // tried to read it in the EntryWrappingInterceptor.
          // But if we became an owner in the read CH after EntryWrappingInterceptor, we may not find the value
          // on the remote nodes (e.g. because the local node is now the only owner).
          if (!isValueAvailableLocally(dm.getReadConsistentHash(), key)) {
-            remoteEntry = remoteGet(ctx, key, true, command);
-         }
-         if (remoteEntry == null) {
-            localGet(ctx, key, true);
+            return remoteGet(ctx, key, true, command).thenAccept(remoteEntry -> {
+               if (remoteEntry == null) {
+                  localGet(ctx, key, true);
+               }
+            });
          }
+         localGet(ctx, key, true);
       }
+      return ctx.continueInvocation();
    }
 
-   protected InternalCacheEntry remoteGet(InvocationContext ctx, Object key, boolean isWrite,
-                                          FlagAffectedCommand command) throws Throwable {
+   protected CompletableFuture<InternalCacheEntry> remoteGet(InvocationContext ctx, Object key, boolean isWrite,
+                                                             FlagAffectedCommand command) {
       if (trace) log.tracef("Doing a remote get for key %s", key);
 
       // attempt a remote lookup
-      InternalCacheEntry ice = retrieveFromRemoteSource(key, ctx, false, command, isWrite);
+      return retrieveFromRemoteSource(key, ctx, false, command, isWrite).thenApply(ice -> {
+         if (ice != null) {
+            if (useClusteredWriteSkewCheck && ctx.isInTxScope()) {
+               ((TxInvocationContext) ctx).getCacheTransaction().putLookedUpRemoteVersion(key, ice.getMetadata().version());
+            }
 
-      if (ice != null) {
-         if (useClusteredWriteSkewCheck && ctx.isInTxScope()) {
-            ((TxInvocationContext) ctx).getCacheTransaction().putLookedUpRemoteVersion(key, ice.getMetadata().version());
+            EntryFactory.Wrap wrap = isWrite ? EntryFactory.Wrap.WRAP_NON_NULL : EntryFactory.Wrap.STORE;
+            entryFactory.wrapExternalEntry(ctx, key, ice, wrap, false);
          }
-
-         EntryFactory.Wrap wrap = isWrite ? EntryFactory.Wrap.WRAP_NON_NULL : EntryFactory.Wrap.STORE;
-         entryFactory.wrapExternalEntry(ctx, key, ice, wrap, false);
          return ice;
-      }
-      return null;
+      });
    }
 
    private RpcOptions createCommitRpcOptions() {
@@ -6,11 +6,13 @@
 import org.infinispan.remoting.responses.Response;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.transaction.xa.CacheTransaction;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 import java.util.Collection;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.infinispan.transaction.impl.WriteSkewHelper.readVersionsFromResponse;
 
@@ -29,17 +31,30 @@ protected Log getLog() {
    }
 
    @Override
-   protected void prepareOnAffectedNodes(TxInvocationContext<?> ctx, PrepareCommand command, Collection<Address> recipients) {
+   protected CompletableFuture<Void> prepareOnAffectedNodes(TxInvocationContext<?> ctx, PrepareCommand command,
+         Collection<Address> recipients) {
       // Perform the RPC
+      CompletableFuture<Map<Address, Response>> remoteFuture;
       try {
-         Map<Address, Response> resps = rpcManager.invokeRemotely(recipients, command, createPrepareRpcOptions());
-         checkTxCommandResponses(resps, command, (LocalTxInvocationContext) ctx, recipients);
-
-         // Now store newly generated versions from lock owners for use during the commit phase.
-         CacheTransaction ct = ctx.getCacheTransaction();
-         for (Response r : resps.values()) readVersionsFromResponse(r, ct);
-      } finally {
+         remoteFuture = rpcManager.invokeRemotelyAsync(recipients, command, createPrepareRpcOptions());
+      } catch (Throwable t) {
          transactionRemotelyPrepared(ctx);
+         throw t;
       }
+      return remoteFuture.handle((resps, throwable) -> {
+         try {
+            if (throwable != null)
+               throw CompletableFutures.asCompletionException(throwable);
+
+            checkTxCommandResponses(resps, command, (LocalTxInvocationContext) ctx, recipients);
+
+            // Now store newly generated versions from lock owners for use during the commit phase.
+            CacheTransaction ct = ctx.getCacheTransaction();
+            for (Response r : resps.values()) readVersionsFromResponse(r, ct);
+            return null;
+         } finally {
+            transactionRemotelyPrepared(ctx);
+         }
+      });
    }
 }
@@ -13,6 +13,7 @@
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * This base class implements the {@link org.infinispan.context.SequentialInvocationContext} methods.
@@ -93,6 +94,18 @@ public Object forkInvocationSync(VisitableCommand newCommand) throws Throwable {
       }
    }
 
+   /**
+    * Clears the state left by the last invocation, so that the context can be reused for another one.
+    * Must not be called while an invocation is in progress.
+    */
+   protected void resetInvocationState() {
+      nextInterceptor = null;
+      nextReturnHandler = null;
+      future = null;
+      action = INVOKE_NEXT;
+      actionValue = null;
+   }
+
    CompletableFuture<Object> invoke(VisitableCommand command, InterceptorListNode firstInterceptor) {
       future = new CompletableFuture<>();
       nextInterceptor = firstInterceptor;
@@ -116,6 +129,19 @@ private void invokeNextWithContext(VisitableCommand command, Object returnValue,
 
    private void invokeNext(VisitableCommand command, Object returnValue, Throwable throwable) {
       InterceptorListNode interceptorNode = this.nextInterceptor;
+      if (throwable != null) {
+         // An interceptor or return handler completed its future exceptionally.
+         // Skip the remaining interceptors, just like when visitCommand throws an exception.
+         if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+         }
+         if (trace)
+            log.tracef("Asynchronous invocation of %s failed with exception %s", className(command), throwable);
+         returnValue = null;
+         action = INVOKE_NEXT;
+         interceptorNode = null;
+         nextInterceptor = null;
+      }
       while (true) {
          if (action == FORK_INVOCATION) {
             // forkInvocation start
@@ -210,11 +236,14 @@ private void invokeNext(VisitableCommand command, Object returnValue, Throwable
                   }
                }
             } catch (Throwable t) {
+               throwable = t;
+               if (t instanceof CompletionException && t.getCause() != null) {
+                  throwable = t.getCause();
+               }
                if (trace)
-                  log.tracef("Return handler %s threw exception %s", className(returnHandler), t);
+                  log.tracef("Return handler %s threw exception %s", className(returnHandler), throwable);
                // Reset the return value to avoid confusion
                returnValue = null;
-               throwable = t;
                // In case this was a fork return handler and nextInterceptor got reset
                // Skip the remaining interceptors
                interceptorNode = null;
@@ -266,8 +295,8 @@ private Object doInvokeNextSync(VisitableCommand command, InterceptorListNode in
       } else {
          nextVisitFuture = interceptor.visitCommand(this, command);
       }
-      if (!nextVisitFuture.isDone()) {
-         CompletableFutures.await(nextVisitFuture);
+      if (!nextVisitFuture.isDone() || nextVisitFuture.isCompletedExceptionally()) {
+         awaitSync(nextVisitFuture);
       }
       return this.handleActionSync(command, interceptorNode);
    }
@@ -311,7 +340,7 @@ private Object handleOnReturnActionSync(VisitableCommand command,
       }
       CompletableFuture<Object> handlerFuture = returnHandler.handle(this, command, returnValue, throwable);
       if (handlerFuture != null) {
-         return CompletableFutures.await(handlerFuture);
+         return awaitSync(handlerFuture);
       } else {
          if (throwable != null)
             throw throwable;
@@ -332,11 +361,24 @@ private Object handleForkActionSync(ForkInfo forkInfo,
       CompletableFuture<Void> handlerFuture =
             forkInfo.forkReturnHandler.handle(this, forkInfo.savedCommand, returnValue, throwable);
       if (!handlerFuture.isDone()) {
-         CompletableFutures.await(handlerFuture);
+         awaitSync(handlerFuture);
       }
       return handleActionSync(forkInfo.savedCommand, interceptorNode);
    }
 
+   /**
+    * Waits for an interceptor or return handler that continues asynchronously during a synchronous invocation,
+    * and throws the exception it completed with instead of wrapping it in an {@link ExecutionException}.
+    */
+   private <T> T awaitSync(CompletableFuture<T> future) throws Throwable {
+      try {
+         return CompletableFutures.await(future);
+      } catch (ExecutionException e) {
+         action = INVOKE_NEXT;
+         throw e.getCause();
+      }
+   }
+
    private static <T, E extends Throwable> void completeFuture(CompletableFuture<T> future, T returnValue,
          E exception) {
       if (exception == null) {
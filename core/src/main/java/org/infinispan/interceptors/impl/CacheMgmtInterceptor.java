@@ -86,80 +86,73 @@ public final CompletableFuture<Void> visitGetCacheEntryCommand(InvocationContext
       return visitDataReadCommand(ctx, command);
    }
    private CompletableFuture<Void> visitDataReadCommand(InvocationContext ctx, AbstractDataCommand command) throws Throwable {
-      long start = 0;
-      boolean statisticsEnabled = getStatisticsEnabled(command);
-      if (statisticsEnabled)
-         start = timeService.time();
-
-      Object retval = ctx.forkInvocationSync(command);
-
-      if (statisticsEnabled && ctx.isOriginLocal()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-         if (retval == null) {
-            missTimes.add(intervalMilliseconds);
-            misses.increment();
-         } else {
-            hitTimes.add(intervalMilliseconds);
-            hits.increment();
-         }
+      if (!getStatisticsEnabled(command)) {
+         return ctx.continueInvocation();
       }
-
-      return ctx.shortCircuit(retval);
+      long start = timeService.time();
+
+      return ctx.onReturn((rCtx, rCommand, retval, throwable) -> {
+         if (throwable == null && rCtx.isOriginLocal()) {
+            long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            if (retval == null) {
+               missTimes.add(intervalMilliseconds);
+               misses.increment();
+            } else {
+               hitTimes.add(intervalMilliseconds);
+               hits.increment();
+            }
+         }
+         return null;
+      });
    }
 
    @SuppressWarnings("unchecked")
    @Override
    public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
-      long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
-      if (statisticsEnabled)
-         start = timeService.time();
-
-      Object retval = ctx.forkInvocationSync(command);
-
-      if (statisticsEnabled && ctx.isOriginLocal()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-         int requests = command.getKeys().size();
-         int hitCount = 0;
-         for (Entry<Object, Object> entry : ((Map<Object, Object>) retval).entrySet()) {
-            if (entry.getValue() != null) {
-               hitCount++;
+      long start = statisticsEnabled ? timeService.time() : 0;
+
+      return ctx.onReturn((rCtx, rCommand, retval, throwable) -> {
+         if (throwable == null && statisticsEnabled && rCtx.isOriginLocal()) {
+            long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            int requests = command.getKeys().size();
+            int hitCount = 0;
+            for (Entry<Object, Object> entry : ((Map<Object, Object>) retval).entrySet()) {
+               if (entry.getValue() != null) {
+                  hitCount++;
+               }
             }
-         }
          
-         int missCount = requests - hitCount;
-         if (hitCount > 0) {
-            hits.add(hitCount);
-            hitTimes.add(intervalMilliseconds * hitCount / requests);
-         }
-         if (missCount > 0) {
-            misses.add(missCount);
-            missTimes.add(intervalMilliseconds * missCount / requests);
+            int missCount = requests - hitCount;
+            if (hitCount > 0) {
+               hits.add(hitCount);
+               hitTimes.add(intervalMilliseconds * hitCount / requests);
+            }
+            if (missCount > 0) {
+               misses.add(missCount);
+               missTimes.add(intervalMilliseconds * missCount / requests);
+            }
          }
-      }
-
-      return ctx.shortCircuit(retval);
+         return null;
+      });
    }
 
    @Override
    public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
-      long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
-      if (statisticsEnabled)
-         start = timeService.time();
-
-      final Object retval = ctx.forkInvocationSync(command);
-
-      if (statisticsEnabled && ctx.isOriginLocal()) {
-         final long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-         final Map<Object, Object> data = command.getMap();
-         if (data != null && !data.isEmpty()) {
-            storeTimes.add(intervalMilliseconds);
-            stores.add(data.size());
+      long start = statisticsEnabled ? timeService.time() : 0;
+
+      return ctx.onReturn((rCtx, rCommand, retval, throwable) -> {
+         if (throwable == null && statisticsEnabled && rCtx.isOriginLocal()) {
+            final long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            final Map<Object, Object> data = command.getMap();
+            if (data != null && !data.isEmpty()) {
+               storeTimes.add(intervalMilliseconds);
+               stores.add(data.size());
+            }
          }
-      }
-
-      return ctx.shortCircuit(retval);
+         return null;
+      });
    }
 
    @Override
@@ -174,46 +167,40 @@ public CompletableFuture<Void> visitReplaceCommand(InvocationContext ctx, Replac
    }
 
    private CompletableFuture<Void> updateStoreStatistics(InvocationContext ctx, WriteCommand command) throws Throwable {
-      long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
-      if (statisticsEnabled)
-         start = timeService.time();
-
-      Object retval = ctx.forkInvocationSync(command);
-
-      if (statisticsEnabled && ctx.isOriginLocal() && command.isSuccessful()) {
-         long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
-         storeTimes.add(intervalMilliseconds);
-         stores.increment();
-      }
+      long start = statisticsEnabled ? timeService.time() : 0;
 
-      return ctx.shortCircuit(retval);
+      return ctx.onReturn((rCtx, rCommand, retval, throwable) -> {
+         if (throwable == null && statisticsEnabled && rCtx.isOriginLocal() && command.isSuccessful()) {
+            long intervalMilliseconds = timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+            storeTimes.add(intervalMilliseconds);
+            stores.increment();
+         }
+         return null;
+      });
    }
 
    @Override
    public CompletableFuture<Void> visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
-      long start = 0;
       boolean statisticsEnabled = getStatisticsEnabled(command);
-      if (statisticsEnabled)
-         start = timeService.time();
-
-      Object retval = ctx.forkInvocationSync(command);
-
-      if (statisticsEnabled && ctx.isOriginLocal()) {
-         if (command.isConditional()) {
-            if (command.isSuccessful())
-               increaseRemoveHits(start);
-            else
-               increaseRemoveMisses();
-         } else {
-            if (retval == null)
-               increaseRemoveMisses();
-            else
-               increaseRemoveHits(start);
+      long start = statisticsEnabled ? timeService.time() : 0;
+
+      return ctx.onReturn((rCtx, rCommand, retval, throwable) -> {
+         if (throwable == null && statisticsEnabled && rCtx.isOriginLocal()) {
+            if (command.isConditional()) {
+               if (command.isSuccessful())
+                  increaseRemoveHits(start);
+               else
+                  increaseRemoveMisses();
+            } else {
+               if (retval == null)
+                  increaseRemoveMisses();
+               else
+                  increaseRemoveHits(start);
+            }
          }
-      }
-
-      return ctx.shortCircuit(retval);
+         return null;
+      });
    }
 
    private void increaseRemoveHits(long start) {
@@ -20,7 +20,10 @@
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.api.functional.Param;
 import org.infinispan.commons.api.functional.Param.PersistenceMode;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
 import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.PersistenceConfiguration;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.CacheEntry;
@@ -39,6 +42,7 @@
 import org.infinispan.jmx.annotations.ManagedAttribute;
 import org.infinispan.jmx.annotations.ManagedOperation;
 import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryImpl;
 import org.infinispan.metadata.EmbeddedMetadata;
 import org.infinispan.metadata.Metadata;
@@ -51,8 +55,11 @@
 import javax.transaction.SystemException;
 import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -81,6 +88,7 @@ public class CacheWriterInterceptor extends JmxStatsCommandInterceptor {
    private InternalEntryFactory entryFactory;
    private TransactionManager transactionManager;
    private StreamingMarshaller marshaller;
+   private Equivalence<Object> keyEquivalence;
    protected volatile boolean enabled = true;
 
    private static final Log log = LogFactory.getLog(CacheWriterInterceptor.class);
@@ -102,6 +110,7 @@ protected void init(PersistenceManager pm, InternalEntryFactory entryFactory, Tr
    protected void start() {
       this.setStatisticsEnabled(cacheConfiguration.jmxStatistics().enabled());
       loaderConfig = cacheConfiguration.persistence();
+      keyEquivalence = cacheConfiguration.dataContainer().keyEquivalence();
    }
    @Override
    public CompletableFuture<Void> visitCommitCommand(TxInvocationContext ctx, CommitCommand command) throws Throwable {
@@ -205,11 +214,13 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
       if (!isStoreEnabled(command) || ctx.isInTxScope()) return ctx.shortCircuit(returnValue);
 
       Map<Object, Object> map = command.getMap();
+      List<Object> keys = new ArrayList<>(map.size());
       for (Object key : map.keySet()) {
          if (isProperWriter(ctx, command, key)) {
-            storeEntry(ctx, key, command);
+            keys.add(key);
          }
       }
+      storeEntries(ctx, keys, command);
       if (getStatisticsEnabled()) cacheStores.getAndAdd(map.size());
       return ctx.shortCircuit(returnValue);
    }
@@ -263,21 +274,25 @@ public CompletableFuture<Void> visitWriteOnlyManyEntriesCommand(InvocationContex
       switch (persistMode.get()) {
          case PERSIST:
             Map<Object, Object> map = command.getEntries();
-            int storedCount = 0;
+            List<Object> removedKeys = new ArrayList<>();
+            List<Object> storedKeys = new ArrayList<>(map.size());
             for (Object key : map.keySet()) {
                CacheEntry entry = ctx.lookupEntry(key);
                if (entry != null) {
                   if (entry.isRemoved()) {
-                     boolean resp = persistenceManager.deleteFromAllStores(key, BOTH);
-                     if (trace) getLog().tracef("Removed entry under key %s and got response %s from CacheStore", key, resp);
+                     removedKeys.add(key);
                   } else if (entry.isChanged() && isProperWriter(ctx, command, key)) {
-                     storeEntry(ctx, key, command);
-                     storedCount++;
+                     storedKeys.add(key);
                   }
                }
             }
+            if (!removedKeys.isEmpty()) {
+               persistenceManager.deleteBatchFromAllStores(removedKeys, BOTH);
+               if (trace) getLog().tracef("Removed entries under keys %s from CacheStore", removedKeys);
+            }
+            storeEntries(ctx, storedKeys, command);
 
-            if (getStatisticsEnabled()) cacheStores.getAndAdd(storedCount);
+            if (getStatisticsEnabled()) cacheStores.getAndAdd(storedKeys.size());
          case SKIP:
             log.trace("Skipping cache store since persistence mode parameter is SKIP");
       }
@@ -299,6 +314,7 @@ protected final void store(TxInvocationContext ctx) throws Throwable {
             cacheCommand.acceptVisitor(ctx, modsBuilder);
          }
       }
+      modsBuilder.flush();
       if (getStatisticsEnabled() && modsBuilder.putCount > 0) {
          cacheStores.getAndAdd(modsBuilder.putCount);
       }
@@ -323,10 +339,18 @@ protected boolean isProperWriter(InvocationContext ctx, FlagAffectedCommand comm
       return true;
    }
 
+   /**
+    * Collects the modifications of a transaction and writes them to the stores in batches. Only the last modification
+    * of each key is written, with the exception of clear, which flushes all the modifications preceding it.
+    */
    public class Updater extends AbstractVisitor {
 
       protected final boolean generateStatistics;
       int putCount;
+      private final Map<Object, MarshalledEntry> pendingWrites = CollectionFactory.makeMap(keyEquivalence,
+            AnyEquivalence.getInstance());
+      private final Set<Object> pendingPrivateWrites = CollectionFactory.makeSet(keyEquivalence);
+      private final Set<Object> pendingRemovals = CollectionFactory.makeSet(keyEquivalence);
 
       public Updater(boolean generateStatistics) {
          this.generateStatistics = generateStatistics;
@@ -352,7 +376,7 @@ public Object visitApplyDeltaCommand(InvocationContext ctx, ApplyDeltaCommand co
                ice = entryFactory.create(entry);
             }
             MarshalledEntryImpl marshalledEntry = new MarshalledEntryImpl(ice.getKey(), ice.getValue(), internalMetadata(ice), marshaller);
-            persistenceManager.writeToAllStores(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            addWrite(marshalledEntry, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
          }
          return null;
       }
@@ -374,13 +398,16 @@ public Object visitPutMapCommand(InvocationContext ctx, PutMapCommand command) t
       public Object visitRemoveCommand(InvocationContext ctx, RemoveCommand command) throws Throwable {
          Object key = command.getKey();
          if (isProperWriter(ctx, command, key)) {
-            persistenceManager.deleteFromAllStores(key, BOTH);
+            pendingWrites.remove(key);
+            pendingPrivateWrites.remove(key);
+            pendingRemovals.add(key);
          }
          return null;
       }
 
       @Override
       public Object visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
+         flush();
          persistenceManager.clearAllStores(ctx.isOriginLocal() ? PRIVATE : BOTH);
          return null;
       }
@@ -390,10 +417,45 @@ protected Object visitSingleStore(InvocationContext ctx, FlagAffectedCommand com
             if (generateStatistics) putCount++;
             InternalCacheValue sv = getStoredValue(key, ctx);
             MarshalledEntryImpl me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
-            persistenceManager.writeToAllStores(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE) ? PRIVATE : BOTH);
+            addWrite(me, command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE));
          }
          return null;
       }
+
+      private void addWrite(MarshalledEntry entry, boolean skipSharedStores) {
+         Object key = entry.getKey();
+         pendingRemovals.remove(key);
+         pendingWrites.put(key, entry);
+         if (skipSharedStores) {
+            pendingPrivateWrites.add(key);
+         } else {
+            pendingPrivateWrites.remove(key);
+         }
+      }
+
+      /**
+       * Writes the modifications collected so far to the stores.
+       */
+      public void flush() {
+         if (!pendingWrites.isEmpty()) {
+            List<MarshalledEntry> privateEntries = new ArrayList<>(pendingPrivateWrites.size());
+            List<MarshalledEntry> entries = new ArrayList<>(pendingWrites.size());
+            for (MarshalledEntry entry : pendingWrites.values()) {
+               if (pendingPrivateWrites.contains(entry.getKey())) {
+                  privateEntries.add(entry);
+               } else {
+                  entries.add(entry);
+               }
+            }
+            writeBatch(privateEntries, entries);
+            pendingWrites.clear();
+            pendingPrivateWrites.clear();
+         }
+         if (!pendingRemovals.isEmpty()) {
+            persistenceManager.deleteBatchFromAllStores(new ArrayList<>(pendingRemovals), BOTH);
+            pendingRemovals.clear();
+         }
+      }
    }
 
    @Override
@@ -421,6 +483,36 @@ void storeEntry(InvocationContext ctx, Object key, FlagAffectedCommand command)
       if (trace) getLog().tracef("Stored entry %s under key %s", sv, key);
    }
 
+   /**
+    * Same as {@link #storeEntry(InvocationContext, Object, FlagAffectedCommand)}, but writes the entries to the stores
+    * as a batch.
+    */
+   void storeEntries(InvocationContext ctx, Collection<Object> keys, FlagAffectedCommand command) {
+      if (keys.isEmpty())
+         return;
+
+      List<MarshalledEntry> privateEntries = new ArrayList<>();
+      List<MarshalledEntry> entries = new ArrayList<>(keys.size());
+      for (Object key : keys) {
+         InternalCacheValue sv = getStoredValue(key, ctx);
+         MarshalledEntry me = new MarshalledEntryImpl(key, sv.getValue(), internalMetadata(sv), marshaller);
+         if (skipSharedStores(ctx, key, command)) {
+            privateEntries.add(me);
+         } else {
+            entries.add(me);
+         }
+      }
+      writeBatch(privateEntries, entries);
+      if (trace) getLog().tracef("Stored entries under keys %s", keys);
+   }
+
+   private void writeBatch(List<MarshalledEntry> privateEntries, List<MarshalledEntry> entries) {
+      if (!privateEntries.isEmpty())
+         persistenceManager.writeBatchToAllStores(privateEntries, PRIVATE);
+      if (!entries.isEmpty())
+         persistenceManager.writeBatchToAllStores(entries, BOTH);
+   }
+
    protected boolean skipSharedStores(InvocationContext ctx, Object key, FlagAffectedCommand command) {
       return !ctx.isOriginLocal() || command.hasFlag(Flag.SKIP_SHARED_CACHE_STORE);
    }
@@ -49,6 +49,7 @@
 import org.infinispan.filter.CompositeKeyFilter;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.DDSequentialInterceptor;
+import org.infinispan.interceptors.SequentialInterceptor;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.statetransfer.OutdatedTopologyException;
@@ -90,6 +91,10 @@ public class EntryWrappingInterceptor extends DDSequentialInterceptor {
 
    private static final Log log = LogFactory.getLog(EntryWrappingInterceptor.class);
    private static final boolean trace = log.isTraceEnabled();
+   private final SequentialInterceptor.ReturnHandler dataReadReturnHandler = (rCtx, rCommand, rv, throwable) -> {
+      afterDataRead(rCtx, (AbstractDataCommand) rCommand);
+      return null;
+   };
    private static final EnumSet<Flag> EVICT_FLAGS =
          EnumSet.of(Flag.SKIP_OWNERSHIP_CHECK, Flag.CACHE_MODE_LOCAL);
 
@@ -150,16 +155,21 @@ public final CompletableFuture<Void> visitGetCacheEntryCommand(InvocationContext
    private CompletableFuture<Void> visitDataReadCommand(InvocationContext ctx, AbstractDataCommand command) throws Throwable {
       try {
          entryFactory.wrapEntryForReading(ctx, command.getKey(), null);
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } finally {
-         //needed because entries might be added in L1
-         if (!ctx.isInTxScope())
-            commitContextEntries(ctx, command, null);
-         else {
-            CacheEntry entry = ctx.lookupEntry(command.getKey());
-            if (entry != null) {
-               entry.setSkipLookup(true);
-            }
+      } catch (Throwable t) {
+         afterDataRead(ctx, command);
+         throw t;
+      }
+      return ctx.onReturn(dataReadReturnHandler);
+   }
+
+   private void afterDataRead(InvocationContext ctx, AbstractDataCommand command) {
+      //needed because entries might be added in L1
+      if (!ctx.isInTxScope())
+         commitContextEntries(ctx, command, null);
+      else {
+         CacheEntry entry = ctx.lookupEntry(command.getKey());
+         if (entry != null) {
+            entry.setSkipLookup(true);
          }
       }
    }
@@ -197,7 +207,7 @@ public final CompletableFuture<Void> visitInvalidateCommand(InvocationContext ct
 
    @Override
    public final CompletableFuture<Void> visitClearCommand(InvocationContext ctx, ClearCommand command) throws Throwable {
-      return ctx.shortCircuit(invokeNextAndApplyChanges(ctx, command, command.getMetadata()));
+      return invokeNextAndApplyChanges(ctx, command, command.getMetadata());
    }
 
    @Override
@@ -346,19 +356,11 @@ public CompletableFuture<Void> visitReadOnlyKeyCommand(InvocationContext ctx, Re
          if (entry == null && cdl.localNodeIsOwner(command.getKey())) {
             entryFactory.wrapEntryForReading(ctx, command.getKey(), NullCacheEntry.getInstance());
          }
-
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } finally {
-         //needed because entries might be added in L1
-         if (!ctx.isInTxScope())
-            commitContextEntries(ctx, command, null);
-         else {
-            CacheEntry entry = ctx.lookupEntry(command.getKey());
-            if (entry != null) {
-               entry.setSkipLookup(true);
-            }
-         }
+      } catch (Throwable t) {
+         afterDataRead(ctx, command);
+         throw t;
       }
+      return ctx.onReturn(dataReadReturnHandler);
    }
 
    @Override
@@ -511,9 +513,16 @@ private void stopStateTransferIfNeeded(FlagAffectedCommand command) {
       }
    }
 
-   private Object invokeNextAndApplyChanges(InvocationContext ctx, FlagAffectedCommand command, Metadata metadata) throws Throwable {
-      final Object result = ctx.forkInvocationSync(command);
+   private CompletableFuture<Void> invokeNextAndApplyChanges(InvocationContext ctx, FlagAffectedCommand command, Metadata metadata) {
+      return ctx.onReturn((rCtx, rCommand, rv, throwable) -> {
+         if (throwable == null) {
+            applyChanges(rCtx, command, metadata, rv);
+         }
+         return null;
+      });
+   }
 
+   private void applyChanges(InvocationContext ctx, FlagAffectedCommand command, Metadata metadata, Object result) {
       if (!ctx.isInTxScope()) {
          stateTransferLock.acquireSharedTopologyLock();
          try {
@@ -553,23 +562,27 @@ private Object invokeNextAndApplyChanges(InvocationContext ctx, FlagAffectedComm
       }
 
       if (trace) log.tracef("The return value is %s", result);
-      return result;
    }
 
    /**
     * Locks the value for the keys accessed by the command to avoid being override from a remote get.
     */
    private CompletableFuture<Void> setSkipRemoteGetsAndInvokeNextForPutMapCommand(InvocationContext context, WriteCommand command) throws Throwable {
-      Object retVal = invokeNextAndApplyChanges(context, command, command.getMetadata());
-      if (context.isInTxScope()) {
-         for (Object key : command.getAffectedKeys()) {
-            CacheEntry entry = context.lookupEntry(key);
-            if (entry != null) {
-               entry.setSkipLookup(true);
+      return context.onReturn((rCtx, rCommand, rv, throwable) -> {
+         if (throwable != null)
+            return null;
+
+         applyChanges(rCtx, command, command.getMetadata(), rv);
+         if (rCtx.isInTxScope()) {
+            for (Object key : command.getAffectedKeys()) {
+               CacheEntry entry = rCtx.lookupEntry(key);
+               if (entry != null) {
+                  entry.setSkipLookup(true);
+               }
             }
          }
-      }
-      return context.shortCircuit(retVal);
+         return null;
+      });
    }
 
    /**
@@ -577,14 +590,19 @@ private CompletableFuture<Void> setSkipRemoteGetsAndInvokeNextForPutMapCommand(I
     */
    private CompletableFuture<Void> setSkipRemoteGetsAndInvokeNextForDataCommand(InvocationContext context, DataWriteCommand command,
                                                                Metadata metadata) throws Throwable {
-      Object retVal = invokeNextAndApplyChanges(context, command, metadata);
-      if (context.isInTxScope()) {
-         CacheEntry entry = context.lookupEntry(command.getKey());
-         if (entry != null) {
-            entry.setSkipLookup(true);
+      return context.onReturn((rCtx, rCommand, rv, throwable) -> {
+         if (throwable != null)
+            return null;
+
+         applyChanges(rCtx, command, metadata, rv);
+         if (rCtx.isInTxScope()) {
+            CacheEntry entry = rCtx.lookupEntry(command.getKey());
+            if (entry != null) {
+               entry.setSkipLookup(true);
+            }
          }
-      }
-      return context.shortCircuit(retVal);
+         return null;
+      });
    }
 
    private final class EntryWrappingVisitor extends AbstractVisitor {
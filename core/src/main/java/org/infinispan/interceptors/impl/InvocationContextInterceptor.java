@@ -17,6 +17,7 @@
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.interceptors.DDSequentialInterceptor;
+import org.infinispan.interceptors.SequentialInterceptor.ReturnHandler;
 import org.infinispan.interceptors.totalorder.RetryPrepareException;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.manager.CacheContainer;
@@ -51,6 +52,14 @@ public class InvocationContextInterceptor extends DDSequentialInterceptor {
    private static final boolean trace = log.isTraceEnabled();
    private volatile boolean shuttingDown = false;
 
+   // Allocated once, so that reads that complete synchronously don't allocate a return handler
+   private final ReturnHandler exceptionReturnHandler = (rCtx, rCommand, rv, throwable) -> {
+      if (throwable == null) {
+         return null;
+      }
+      return CompletableFuture.completedFuture(handleException(rCtx, rCommand, throwable));
+   };
+
    @Start(priority = 1)
    private void setStartStatus() {
       shuttingDown = false;
@@ -71,9 +80,53 @@ public void init(TransactionManager tm, ComponentRegistry componentRegistry, Tra
 
    @Override
    public CompletableFuture<Void> handleDefault(InvocationContext ctx, VisitableCommand command) throws Throwable {
+      if (canInvokeAsync(ctx)) {
+         return handleAllAsync(ctx, command);
+      }
       return ctx.shortCircuit(handleAll(ctx, command));
    }
 
+   /**
+    * The class loader thread-local and the transaction manager are bound to the calling thread, so only
+    * non-transactional invocations that don't need them can let the rest of the chain complete asynchronously.
+    */
+   private boolean canInvokeAsync(InvocationContext ctx) {
+      return !ctx.isInTxScope() && !invocationContextContainer.isThreadLocalRequired(ctx);
+   }
+
+   private CompletableFuture<Void> handleAllAsync(InvocationContext ctx, VisitableCommand command) throws Throwable {
+      if (!checkStatus(ctx, command)) {
+         return ctx.shortCircuit(null);
+      }
+
+      // The NDC only covers the part of the invocation that runs in the calling thread
+      LogFactory.pushNDC(componentRegistry.getCacheName(), trace);
+      try {
+         if (trace) log.tracef("Invoked with command %s and InvocationContext [%s]", command, ctx);
+         return ctx.onReturn(exceptionReturnHandler);
+      } finally {
+         LogFactory.popNDC(trace);
+      }
+   }
+
+   /**
+    * @return {@code false} if the command should be ignored because of the cache status.
+    */
+   private boolean checkStatus(InvocationContext ctx, VisitableCommand command) throws Exception {
+      ComponentStatus status = componentRegistry.getStatus();
+      if (command.ignoreCommandOnStatus(status)) {
+         log.debugf("Status: %s : Ignoring %s command", status, command);
+         return false;
+      }
+
+      if (status.isTerminated()) {
+         throw log.cacheIsTerminated(getCacheNamePrefix());
+      } else if (stoppingAndNotAllowed(status, ctx)) {
+         throw log.cacheIsStopping(getCacheNamePrefix());
+      }
+      return true;
+   }
+
    @Override
    public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx, LockControlCommand lcc) throws Throwable {
       Object retval = handleAll(ctx, lcc);
@@ -82,18 +135,10 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
 
    private Object handleAll(InvocationContext ctx, VisitableCommand command) throws Throwable {
       try {
-         ComponentStatus status = componentRegistry.getStatus();
-         if (command.ignoreCommandOnStatus(status)) {
-            log.debugf("Status: %s : Ignoring %s command", status, command);
+         if (!checkStatus(ctx, command)) {
             return null;
          }
 
-         if (status.isTerminated()) {
-            throw log.cacheIsTerminated(getCacheNamePrefix());
-         } else if (stoppingAndNotAllowed(status, ctx)) {
-            throw log.cacheIsStopping(getCacheNamePrefix());
-         }
-
          LogFactory.pushNDC(componentRegistry.getCacheName(), trace);
 
          invocationContextContainer.setThreadLocal(ctx);
@@ -103,40 +148,8 @@ private Object handleAll(InvocationContext ctx, VisitableCommand command) throws
 
             try {
                return ctx.forkInvocationSync(command);
-            } catch (InvalidCacheUsageException ex) {
-               throw ex; // Propagate back client usage errors regardless of flag
             } catch (Throwable th) {
-               // Only check for fail silently if there's a failure :)
-               boolean suppressExceptions = (command instanceof FlagAffectedCommand)
-                     && ((FlagAffectedCommand) command).hasFlag(Flag.FAIL_SILENTLY);
-               // If we are shutting down there is every possibility that the invocation fails.
-               suppressExceptions = suppressExceptions || shuttingDown;
-               if (suppressExceptions) {
-                  if (shuttingDown)
-                     log.trace("Exception while executing code, but we're shutting down so failing silently.", th);
-                  else
-                     log.trace("Exception while executing code, failing silently...", th);
-                  return null;
-               } else {
-                  if (th instanceof WriteSkewException) {
-                     // We log this as DEBUG rather than ERROR - see ISPN-2076
-                     log.debug("Exception executing call", th);
-                  } else if (th instanceof OutdatedTopologyException) {
-                     log.outdatedTopology(th);
-                  } else if (th instanceof RetryPrepareException) {
-                     log.debugf("Retrying total order prepare command for transaction %s, affected keys %s",
-                           ctx.getLockOwner(), extractWrittenKeys(ctx, command));
-                  } else {
-                     Collection<Object> affectedKeys = extractWrittenKeys(ctx, command);
-                     log.executionError(command.getClass().getSimpleName(), affectedKeys, th);
-                  }
-                  if (ctx.isInTxScope() && ctx.isOriginLocal()) {
-                     if (trace) log.trace("Transaction marked for rollback as exception was received.");
-                     markTxForRollbackAndRethrow(ctx, th);
-                     throw new IllegalStateException("This should not be reached");
-                  }
-                  throw th;
-               }
+               return handleException(ctx, command, th);
             }
          } finally {
             LogFactory.popNDC(trace);
@@ -146,6 +159,43 @@ private Object handleAll(InvocationContext ctx, VisitableCommand command) throws
       }
    }
 
+   private Object handleException(InvocationContext ctx, VisitableCommand command, Throwable th) throws Throwable {
+      if (th instanceof InvalidCacheUsageException) {
+         throw th; // Propagate back client usage errors regardless of flag
+      }
+      // Only check for fail silently if there's a failure :)
+      boolean suppressExceptions = (command instanceof FlagAffectedCommand)
+            && ((FlagAffectedCommand) command).hasFlag(Flag.FAIL_SILENTLY);
+      // If we are shutting down there is every possibility that the invocation fails.
+      suppressExceptions = suppressExceptions || shuttingDown;
+      if (suppressExceptions) {
+         if (shuttingDown)
+            log.trace("Exception while executing code, but we're shutting down so failing silently.", th);
+         else
+            log.trace("Exception while executing code, failing silently...", th);
+         return null;
+      } else {
+         if (th instanceof WriteSkewException) {
+            // We log this as DEBUG rather than ERROR - see ISPN-2076
+            log.debug("Exception executing call", th);
+         } else if (th instanceof OutdatedTopologyException) {
+            log.outdatedTopology(th);
+         } else if (th instanceof RetryPrepareException) {
+            log.debugf("Retrying total order prepare command for transaction %s, affected keys %s",
+                  ctx.getLockOwner(), extractWrittenKeys(ctx, command));
+         } else {
+            Collection<Object> affectedKeys = extractWrittenKeys(ctx, command);
+            log.executionError(command.getClass().getSimpleName(), affectedKeys, th);
+         }
+         if (ctx.isInTxScope() && ctx.isOriginLocal()) {
+            if (trace) log.trace("Transaction marked for rollback as exception was received.");
+            markTxForRollbackAndRethrow(ctx, th);
+            throw new IllegalStateException("This should not be reached");
+         }
+         throw th;
+      }
+   }
+
    private Collection<Object> extractWrittenKeys(InvocationContext ctx, VisitableCommand command) {
       if (command instanceof WriteCommand) {
          return ((WriteCommand) command).getAffectedKeys();
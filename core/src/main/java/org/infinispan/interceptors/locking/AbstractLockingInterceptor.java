@@ -20,8 +20,10 @@
 import org.infinispan.context.InvocationContext;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.DDSequentialInterceptor;
+import org.infinispan.interceptors.SequentialInterceptor;
 import org.infinispan.util.concurrent.TimeoutException;
 import org.infinispan.util.concurrent.locks.LockManager;
+import org.infinispan.util.concurrent.locks.LockPromise;
 import org.infinispan.util.concurrent.locks.LockUtil;
 import org.infinispan.util.logging.Log;
 
@@ -45,6 +47,14 @@ public abstract class AbstractLockingInterceptor extends DDSequentialInterceptor
    protected DataContainer<Object, Object> dataContainer;
    protected ClusteringDependentLogic cdl;
 
+   /**
+    * Releases the locks acquired by a non-transactional invocation once it completes, possibly asynchronously.
+    */
+   protected final SequentialInterceptor.ReturnHandler unlockAllReturnHandler = (rCtx, rCommand, rv, throwable) -> {
+      lockManager.unlockAll(rCtx);
+      return null;
+   };
+
    protected abstract Log getLog();
 
    @Inject
@@ -91,15 +101,37 @@ public CompletableFuture<Void> visitGetCacheEntryCommand(InvocationContext ctx,
 
    // We need this method in here because of putForExternalRead
    protected final CompletableFuture<Void> visitNonTxDataWriteCommand(InvocationContext ctx, DataWriteCommand command) throws Throwable {
+      if (hasSkipLocking(command) || !shouldLockKey(command.getKey())) {
+         return ctx.onReturn(unlockAllReturnHandler);
+      }
+      LockPromise lockPromise;
       try {
-         if (hasSkipLocking(command) || !shouldLockKey(command.getKey())) {
-            return ctx.shortCircuit(ctx.forkInvocationSync(command));
+         ctx.addLockedKey(command.getKey());
+         lockPromise = lockManager.lock(command.getKey(), ctx.getLockOwner(), getLockTimeoutMillis(command),
+                                        TimeUnit.MILLISECONDS);
+         if (lockPromise.isAvailable()) {
+            lockPromise.lock();
+            return ctx.onReturn(unlockAllReturnHandler);
          }
-         lockAndRecord(ctx, command.getKey(), getLockTimeoutMillis(command));
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } finally {
+      } catch (Throwable t) {
          lockManager.unlockAll(ctx);
+         throw t;
       }
+      // Don't block the invoking thread while another invocation holds the lock, the invocation continues
+      // in the thread that releases it (or in the lock timeout thread)
+      CompletableFuture<Void> lockFuture = new CompletableFuture<>();
+      ctx.onReturn(unlockAllReturnHandler);
+      lockPromise.addListener(state -> {
+         try {
+            lockPromise.lock();
+            lockFuture.complete(null);
+         } catch (Throwable t) {
+            // The return handler is not registered if the interceptor fails
+            lockManager.unlockAll(ctx);
+            lockFuture.completeExceptionally(t);
+         }
+      });
+      return lockFuture;
    }
 
    @Override
@@ -192,6 +192,42 @@ private void checkPendingAndLockKey(InvocationContext ctx, Object key, long lock
       lockAndRecord(ctx, key, remaining);
    }
 
+   /**
+    * Same as {@link #lockAllOrRegisterBackupLock(TxInvocationContext, Collection, long)} but the keys are locked in
+    * shared mode.
+    * <p>
+    * The backup owners do not register a backup lock for the keys locked in shared mode. If the primary owner leaves,
+    * the new primary owner does not wait for the readers of the key before granting the lock to a writer.
+    *
+    * @return a collection with the keys locked.
+    */
+   protected final Collection<Object> lockAllSharedIfPrimaryOwner(TxInvocationContext<?> ctx, Collection<?> keys,
+                                                                  long lockTimeout) throws InterruptedException {
+      if (keys.isEmpty()) {
+         return Collections.emptyList();
+      }
+
+      Collection<Object> keysToLock = new ArrayList<>(keys.size());
+      for (Object key : keys) {
+         if (LockUtil.getLockOwnership(key, cdl) == LockUtil.LockOwnership.PRIMARY) {
+            keysToLock.add(key);
+         }
+      }
+
+      if (keysToLock.isEmpty()) {
+         return Collections.emptyList();
+      }
+
+      if (trace) {
+         getLog().tracef("Acquiring shared locks on %s.", keysToLock);
+      }
+      final long remaining = pendingLockManager.awaitPendingTransactionsForAllKeys(ctx, keysToLock, lockTimeout,
+                                                                                   TimeUnit.MILLISECONDS);
+      keysToLock.forEach(ctx::addLockedKey);
+      lockManager.lockAllShared(keysToLock, ctx.getLockOwner(), remaining, TimeUnit.MILLISECONDS).lock();
+      return keysToLock;
+   }
+
    private void checkPendingAndLockAllKeys(InvocationContext ctx, Collection<Object> keys, long lockTimeout)
          throws InterruptedException {
       final long remaining = pendingLockManager.awaitPendingTransactionsForAllKeys((TxInvocationContext<?>) ctx, keys,
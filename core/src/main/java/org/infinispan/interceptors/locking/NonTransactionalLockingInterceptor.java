@@ -28,11 +28,8 @@ protected Log getLog() {
    @Override
    protected final CompletableFuture<Void> visitDataReadCommand(InvocationContext ctx, DataCommand command) throws Throwable {
       assertNonTransactional(ctx);
-      try {
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } finally {
-         lockManager.unlockAll(ctx);//possibly needed because of L1 locks being acquired
-      }
+      //possibly needed because of L1 locks being acquired
+      return ctx.onReturn(unlockAllReturnHandler);
    }
 
    @Override
@@ -44,11 +41,8 @@ protected CompletableFuture<Void> visitDataWriteCommand(InvocationContext ctx, D
    @Override
    public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
       assertNonTransactional(ctx);
-      try {
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } finally {
-         lockManager.unlockAll(ctx);//possibly needed because of L1 locks being acquired
-      }
+      //possibly needed because of L1 locks being acquired
+      return ctx.onReturn(unlockAllReturnHandler);
    }
 
    public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapCommand command) throws Throwable {
@@ -57,10 +51,11 @@ public CompletableFuture<Void> visitPutMapCommand(InvocationContext ctx, PutMapC
          if (!command.isForwarded() && !hasSkipLocking(command)) {
             lockAllAndRecord(ctx, command.getMap().keySet().stream().filter(this::shouldLockKey), getLockTimeoutMillis(command));
          }
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } finally {
+      } catch (Throwable t) {
          lockManager.unlockAll(ctx);
+         throw t;
       }
+      return ctx.onReturn(unlockAllReturnHandler);
    }
 
    private void assertNonTransactional(InvocationContext ctx) {
@@ -24,6 +24,7 @@
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
@@ -64,11 +65,17 @@ public void init(CommandsFactory factory, StateTransferManager stateTransferMana
    @Override
    protected final CompletableFuture<Void> visitDataReadCommand(InvocationContext ctx, DataCommand command) throws Throwable {
       try {
-         if (ctx.isInTxScope() && command.hasFlag(Flag.FORCE_WRITE_LOCK) && !hasSkipLocking(command)) {
+         if (ctx.isInTxScope() && !hasSkipLocking(command)) {
             Object key = command.getKey();
-            acquireRemoteIfNeeded(ctx, key, command);
-            lockOrRegisterBackupLock((TxInvocationContext<?>) ctx, key, getLockTimeoutMillis(command));
-            ((TxInvocationContext<?>) ctx).addAffectedKey(key);
+            if (command.hasFlag(Flag.FORCE_WRITE_LOCK)) {
+               acquireRemoteIfNeeded(ctx, key, command);
+               lockOrRegisterBackupLock((TxInvocationContext<?>) ctx, key, getLockTimeoutMillis(command));
+               ((TxInvocationContext<?>) ctx).addAffectedKey(key);
+            } else if (command.hasFlag(Flag.FORCE_READ_LOCK)) {
+               Collection<Object> keys = Collections.singletonList(key);
+               acquireAllRemoteSharedIfNeeded(ctx, keys, command);
+               lockAllSharedIfPrimaryOwner((TxInvocationContext<?>) ctx, keys, getLockTimeoutMillis(command));
+            }
          }
          return ctx.shortCircuit(ctx.forkInvocationSync(command));
       } catch (Throwable t) {
@@ -82,10 +89,15 @@ protected final CompletableFuture<Void> visitDataReadCommand(InvocationContext c
    @Override
    public CompletableFuture<Void> visitGetAllCommand(InvocationContext ctx, GetAllCommand command) throws Throwable {
       try {
-         if (ctx.isInTxScope() && command.hasFlag(Flag.FORCE_WRITE_LOCK) && !hasSkipLocking(command)) {
-            acquireAllRemoteIfNeeded(ctx, command.getKeys(), command);
-            //noinspection unchecked
-            lockAllOrRegisterBackupLock((TxInvocationContext<?>) ctx, (Collection<Object>) command.getKeys(), getLockTimeoutMillis(command));
+         if (ctx.isInTxScope() && !hasSkipLocking(command)) {
+            if (command.hasFlag(Flag.FORCE_WRITE_LOCK)) {
+               acquireAllRemoteIfNeeded(ctx, command.getKeys(), command);
+               //noinspection unchecked
+               lockAllOrRegisterBackupLock((TxInvocationContext<?>) ctx, (Collection<Object>) command.getKeys(), getLockTimeoutMillis(command));
+            } else if (command.hasFlag(Flag.FORCE_READ_LOCK)) {
+               acquireAllRemoteSharedIfNeeded(ctx, command.getKeys(), command);
+               lockAllSharedIfPrimaryOwner((TxInvocationContext<?>) ctx, command.getKeys(), getLockTimeoutMillis(command));
+            }
          }
          return ctx.shortCircuit(ctx.forkInvocationSync(command));
       } catch (Throwable t) {
@@ -168,15 +180,19 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
          if (ctx.isOriginLocal()) {
             final boolean isSingleKeyAndLocal = !command.multipleKeys() && cdl.localNodeIsPrimaryOwner(command.getSingleKey());
             boolean needBackupLocks = !isSingleKeyAndLocal || isStateTransferInProgress();
+            LocalTransaction localTx = (LocalTransaction) ctx.getCacheTransaction();
             if (needBackupLocks && !command.hasFlag(Flag.CACHE_MODE_LOCAL)) {
-               LocalTransaction localTx = (LocalTransaction) ctx.getCacheTransaction();
-               if (!localTx.getAffectedKeys().containsAll(command.getKeys())) {
+               if (!hasRemoteLocks(localTx, command.getKeys(), command.isShared())) {
                   ctx.forkInvocationSync(command);
                } else {
                   log.tracef("Already own locks on keys: %s, skipping remote call", command.getKeys());
                }
             }
-            ((TxInvocationContext<?>) ctx).addAllAffectedKeys(command.getKeys());
+            if (command.isShared()) {
+               localTx.addAllReadLockedKeys(command.getKeys());
+            } else {
+               ((TxInvocationContext<?>) ctx).addAllAffectedKeys(command.getKeys());
+            }
          }
 
          if (command.isUnlock()) {
@@ -186,7 +202,11 @@ public CompletableFuture<Void> visitLockControlCommand(TxInvocationContext ctx,
             return ctx.shortCircuit(Boolean.FALSE);
          }
 
-         lockAllOrRegisterBackupLock(ctx, command.getKeys(), getLockTimeoutMillis(command));
+         if (command.isShared()) {
+            lockAllSharedIfPrimaryOwner(ctx, command.getKeys(), getLockTimeoutMillis(command));
+         } else {
+            lockAllOrRegisterBackupLock(ctx, command.getKeys(), getLockTimeoutMillis(command));
+         }
          return ctx.shortCircuit(Boolean.TRUE);
       } catch (Throwable te) {
          releaseLocksOnFailureBeforePrepare(ctx);
@@ -211,6 +231,26 @@ private void acquireAllRemoteIfNeeded(InvocationContext ctx, Collection<?> keys,
       ((TxInvocationContext<?>) ctx).addAllAffectedKeys(keys);
    }
 
+   /**
+    * Acquires the shared locks in the primary owners of the keys. The keys are not marked as affected, so a later write
+    * in the same transaction still acquires the exclusive locks (upgrading the shared locks).
+    */
+   private void acquireAllRemoteSharedIfNeeded(InvocationContext ctx, Collection<?> keys, LocalFlagAffectedCommand command) throws Throwable {
+      boolean needRemoteLocks = ctx.isOriginLocal() && (!isLockOwner(keys) || isStateTransferInProgress());
+      if (needRemoteLocks && !command.hasFlag(Flag.CACHE_MODE_LOCAL)) {
+         final TxInvocationContext txContext = (TxInvocationContext) ctx;
+         LocalTransaction localTransaction = (LocalTransaction) txContext.getCacheTransaction();
+         if (hasRemoteLocks(localTransaction, keys, true)) {
+            log.tracef("We already have shared lock for keys %s, skip remote lock acquisition", keys);
+            return;
+         }
+         LockControlCommand lcc = cf.buildLockControlCommand(keys, command.getFlagsBitSet(), txContext.getGlobalTransaction());
+         lcc.setShared(true);
+         ctx.forkInvocationSync(lcc);
+         localTransaction.addAllReadLockedKeys(keys);
+      }
+   }
+
    private void acquireRemoteIfNeeded(InvocationContext ctx, Object key, LocalFlagAffectedCommand command) throws Throwable {
       boolean needBackupLocks = ctx.isOriginLocal() && (!isLockOwner(key) || isStateTransferInProgress());
       if (needBackupLocks && !command.hasFlag(Flag.CACHE_MODE_LOCAL)) {
@@ -226,6 +266,12 @@ private void acquireRemoteIfNeeded(InvocationContext ctx, Object key, LocalFlagA
       }
    }
 
+   private static boolean hasRemoteLocks(LocalTransaction localTransaction, Collection<?> keys, boolean shared) {
+      //an exclusive lock covers a shared lock, but not the other way around
+      return localTransaction.getAffectedKeys().containsAll(keys) ||
+            (shared && localTransaction.areKeysReadLocked(keys));
+   }
+
    private boolean isLockOwner(Collection<?> keys) {
       for (Object key : keys) {
          if (LockUtil.getLockOwnership(key, cdl) != LockUtil.LockOwnership.PRIMARY) {
@@ -10,6 +10,7 @@
 import org.infinispan.interceptors.distribution.VersionedDistributionInterceptor;
 import org.infinispan.remoting.responses.KeysValidateFilter;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.concurrent.CompletableFutures;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -48,13 +49,14 @@ public CompletableFuture<Void> visitCommitCommand(TxInvocationContext ctx, Commi
    }
 
    @Override
-   protected void prepareOnAffectedNodes(TxInvocationContext<?> ctx, PrepareCommand command, Collection<Address> recipients) {
+   protected CompletableFuture<Void> prepareOnAffectedNodes(TxInvocationContext<?> ctx, PrepareCommand command,
+         Collection<Address> recipients) {
       if (trace) {
          log.tracef("Total Order Anycast transaction %s with Total Order", command.getGlobalTransaction().globalId());
       }
 
       if (!ctx.hasModifications()) {
-         return;
+         return CompletableFutures.completedNull();
       }
 
       if (!ctx.isOriginLocal()) {
@@ -73,6 +75,8 @@ protected void prepareOnAffectedNodes(TxInvocationContext<?> ctx, PrepareCommand
       } finally {
          transactionRemotelyPrepared(ctx);
       }
+      // The total order protocol needs the responses before the prepare returns, so this RPC stays synchronous
+      return CompletableFutures.completedNull();
    }
 
    @Override
@@ -36,6 +36,7 @@
 import org.infinispan.factories.KnownComponentNames;
 import org.infinispan.lifecycle.ComponentStatus;
 import org.infinispan.marshall.core.Ids;
+import org.infinispan.statetransfer.AntiEntropyCommand;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
 import org.infinispan.stream.impl.StreamRequestCommand;
@@ -44,6 +45,7 @@
 import org.infinispan.util.ByteString;
 import org.infinispan.xsite.SingleXSiteRpcCommand;
 import org.infinispan.xsite.XSiteAdminCommand;
+import org.infinispan.xsite.XSiteBatchCommand;
 import org.infinispan.xsite.statetransfer.XSiteStatePushCommand;
 import org.infinispan.xsite.statetransfer.XSiteStateTransferControlCommand;
 
@@ -90,7 +92,7 @@ public Set<Class<? extends CacheRpcCommand>> getTypeClasses() {
       //noinspection unchecked
       Set<Class<? extends CacheRpcCommand>> coreCommands = Util.asSet(DistributedExecuteCommand.class,
                LockControlCommand.class,
-               StateRequestCommand.class, StateResponseCommand.class, ClusteredGetCommand.class,
+               StateRequestCommand.class, StateResponseCommand.class, AntiEntropyCommand.class, ClusteredGetCommand.class,
                MultipleRpcCommand.class, SingleRpcCommand.class, CommitCommand.class,
                PrepareCommand.class, RollbackCommand.class, RemoveCacheCommand.class,
                TxCompletionNotificationCommand.class, GetInDoubtTransactionsCommand.class,
@@ -100,7 +102,7 @@ public Set<Class<? extends CacheRpcCommand>> getTypeClasses() {
                TotalOrderVersionedPrepareCommand.class, TotalOrderCommitCommand.class,
                TotalOrderVersionedCommitCommand.class, TotalOrderRollbackCommand.class,
                XSiteStateTransferControlCommand.class, XSiteStatePushCommand.class, SingleXSiteRpcCommand.class,
-               ClusteredGetAllCommand.class,
+               XSiteBatchCommand.class, ClusteredGetAllCommand.class,
                StreamRequestCommand.class, StreamSegmentResponseCommand.class, StreamResponseCommand.class);
       // Only interested in cache specific replicable commands
       coreCommands.addAll(gcr.getModuleProperties().moduleCacheRpcCommands());
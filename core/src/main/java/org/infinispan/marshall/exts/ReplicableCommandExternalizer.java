@@ -23,6 +23,7 @@
 import org.infinispan.manager.impl.ReplicableCommandRunnable;
 import org.infinispan.manager.impl.ReplicableCommandManagerFunction;
 import org.infinispan.marshall.core.Ids;
+import org.infinispan.remoting.transport.jgroups.BatchedRpcCommand;
 import org.infinispan.topology.CacheTopologyControlCommand;
 import org.infinispan.util.ByteString;
 
@@ -119,7 +120,7 @@ public Set<Class<? extends ReplicableCommand>> getTypeClasses() {
             WriteOnlyKeyCommand.class, WriteOnlyKeyValueCommand.class,
             WriteOnlyManyCommand.class, WriteOnlyManyEntriesCommand.class,
             ReadWriteManyCommand.class, ReadWriteManyEntriesCommand.class, ReplicableCommandRunnable.class,
-            ReplicableCommandManagerFunction.class);
+            ReplicableCommandManagerFunction.class, BatchedRpcCommand.class);
       // Search only those commands that replicable and not cache specific replicable commands
       Collection<Class<? extends ReplicableCommand>> moduleCommands = globalComponentRegistry.getModuleProperties().moduleOnlyReplicableCommands();
       if (moduleCommands != null && !moduleCommands.isEmpty()) coreCommands.addAll(moduleCommands);
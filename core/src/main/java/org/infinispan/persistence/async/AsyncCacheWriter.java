@@ -151,19 +151,48 @@ public boolean delete(Object key) {
       return true;
    }
 
+   @Override
+   public void writeBatch(Iterable entries) {
+      List<Modification> mods = new ArrayList<>();
+      for (Object entry : entries) {
+         MarshalledEntry me = (MarshalledEntry) entry;
+         mods.add(new Store(me.getKey(), me));
+      }
+      put(mods);
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      List<Modification> mods = new ArrayList<>();
+      for (Object key : keys) {
+         mods.add(new Remove(key));
+      }
+      put(mods);
+   }
+
+   /**
+    * Applies the modifications to the underlying store. Stores and removals are passed to the store as batches, which
+    * is safe because the modifications were coalesced by key and so a key appears at most once.
+    */
    protected void applyModificationsSync(List<Modification> mods) throws PersistenceException {
+      List<MarshalledEntry> stores = new ArrayList<>(mods.size());
+      List<Object> removes = new ArrayList<>();
       for (Modification m : mods) {
          switch (m.getType()) {
             case STORE:
-               actual.write(((Store) m).getStoredValue());
+               stores.add(((Store) m).getStoredValue());
                break;
             case REMOVE:
-               actual.delete(((Remove) m).getKey());
+               removes.add(((Remove) m).getKey());
                break;
             default:
                throw new IllegalArgumentException("Unknown modification type " + m.getType());
          }
       }
+      if (!stores.isEmpty())
+         actual.writeBatch(stores);
+      if (!removes.isEmpty())
+         actual.deleteBatch(removes);
    }
 
 
@@ -190,6 +219,23 @@ private void put(Modification mod, int count) {
       }
    }
 
+   private void put(List<Modification> mods) {
+      if (mods.isEmpty())
+         return;
+      stateLock.writeLock(mods.size());
+      try {
+         if (trace)
+            log.tracef("Queue modifications: %s", mods);
+
+         assertNotStopped();
+         State s = state.get();
+         for (Modification mod : mods)
+            s.put(mod);
+      } finally {
+         stateLock.writeUnlock();
+      }
+   }
+
    public AtomicReference<State> getState() {
       return state;
    }
@@ -0,0 +1,159 @@
+package org.infinispan.persistence.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The free blocks of a {@link SingleFileStore} data file, kept off-heap in bins by size class.
+ * <p>
+ * There are four size classes for every power of two, starting at {@link #MIN_SIZE} bytes, so a block allocated for
+ * an entry is at most 25% larger than the entry. Each bin is a stack of 12-byte records (the offset and the size of
+ * the block) in a direct buffer, and a free block is kept in the bin of the largest size class that fits in it.
+ * <p>
+ * This class is not thread safe, callers must synchronize on the instance.
+ *
+ * @since 9.0
+ */
+class FreeSpaceBins {
+   static final int MIN_SIZE = 128;
+   // Classes above 95 would overflow an int
+   static final int NUM_CLASSES = 96;
+
+   private static final int RECORD_SIZE = 8 + 4;
+   private static final int INITIAL_RECORDS = 16;
+
+   private final ByteBuffer[] bins = new ByteBuffer[NUM_CLASSES];
+   private long count;
+
+   /**
+    * @return The smallest size class whose blocks can hold {@code len} bytes. Lengths larger than the largest size
+    *       class return {@link #NUM_CLASSES}.
+    */
+   static int sizeClass(int len) {
+      if (len <= MIN_SIZE)
+         return 0;
+      // MIN_SIZE << group < len <= MIN_SIZE << (group + 1)
+      int group = 31 - Integer.numberOfLeadingZeros(len - 1) - 7;
+      int step = (MIN_SIZE / 4) << group;
+      int sub = (len - (MIN_SIZE << group) + step - 1) / step;
+      return Math.min(group * 4 + sub, NUM_CLASSES);
+   }
+
+   static int classSize(int sizeClass) {
+      int group = sizeClass / 4;
+      return (MIN_SIZE << group) + (sizeClass % 4) * ((MIN_SIZE / 4) << group);
+   }
+
+   /**
+    * @return The size of the block allocated for an entry of {@code len} bytes.
+    */
+   static int blockSize(int len) {
+      int sizeClass = sizeClass(len);
+      return sizeClass < NUM_CLASSES ? classSize(sizeClass) : len;
+   }
+
+   /**
+    * Adds a free block to the bin of the largest size class that fits in it.
+    *
+    * @return {@code false} if the block is smaller than {@link #MIN_SIZE}, and cannot be reused.
+    */
+   boolean add(long offset, int size) {
+      if (size < MIN_SIZE)
+         return false;
+      int sizeClass = sizeClass(size);
+      if (sizeClass == NUM_CLASSES || classSize(sizeClass) > size)
+         sizeClass--;
+      ByteBuffer bin = bins[sizeClass];
+      if (bin == null) {
+         bin = ByteBuffer.allocateDirect(INITIAL_RECORDS * RECORD_SIZE);
+         bins[sizeClass] = bin;
+      } else if (bin.remaining() < RECORD_SIZE) {
+         ByteBuffer larger = ByteBuffer.allocateDirect(bin.capacity() * 2);
+         bin.flip();
+         larger.put(bin);
+         bin = larger;
+         bins[sizeClass] = bin;
+      }
+      bin.putLong(offset).putInt(size);
+      count++;
+      return true;
+   }
+
+   boolean isEmpty(int sizeClass) {
+      ByteBuffer bin = bins[sizeClass];
+      return bin == null || bin.position() == 0;
+   }
+
+   /**
+    * @return The offset of the last block added to the bin.
+    */
+   long peekOffset(int sizeClass) {
+      ByteBuffer bin = bins[sizeClass];
+      return bin.getLong(bin.position() - RECORD_SIZE);
+   }
+
+   /**
+    * @return The size of the last block added to the bin.
+    */
+   int peekSize(int sizeClass) {
+      ByteBuffer bin = bins[sizeClass];
+      return bin.getInt(bin.position() - 4);
+   }
+
+   /**
+    * Removes the last block added to the bin.
+    */
+   void pop(int sizeClass) {
+      ByteBuffer bin = bins[sizeClass];
+      bin.position(bin.position() - RECORD_SIZE);
+      count--;
+   }
+
+   long count() {
+      return count;
+   }
+
+   void clear() {
+      for (int i = 0; i < NUM_CLASSES; i++) {
+         bins[i] = null;
+      }
+      count = 0;
+   }
+
+   /**
+    * Writes the records of all the free blocks to {@code channel}, starting at {@code position}.
+    */
+   void writeTo(FileChannel channel, long position) throws IOException {
+      for (ByteBuffer bin : bins) {
+         if (bin != null && bin.position() > 0) {
+            ByteBuffer records = bin.duplicate();
+            records.flip();
+            while (records.hasRemaining()) {
+               position += channel.write(records, position);
+            }
+         }
+      }
+   }
+
+   /**
+    * Reads {@code count} records written by {@link #writeTo(FileChannel, long)}.
+    */
+   void readFrom(FileChannel channel, long position, long count) throws IOException {
+      ByteBuffer records = ByteBuffer.allocate(1024 * RECORD_SIZE);
+      long remaining = count;
+      while (remaining > 0) {
+         records.clear().limit((int) Math.min(remaining, 1024) * RECORD_SIZE);
+         while (records.hasRemaining()) {
+            if (channel.read(records, position + records.position()) < 0)
+               throw new IOException("Unexpected end of the free block list");
+         }
+         position += records.limit();
+         records.flip();
+         while (records.hasRemaining()) {
+            add(records.getLong(), records.getInt());
+            remaining--;
+         }
+      }
+   }
+}
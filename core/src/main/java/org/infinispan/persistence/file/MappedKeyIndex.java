@@ -0,0 +1,409 @@
+package org.infinispan.persistence.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+import org.infinispan.commons.hash.MurmurHash3;
+
+/**
+ * An open-addressing hash table in a memory-mapped file, mapping the fingerprints of the serialized keys of a
+ * {@link SingleFileStore} to the offsets of their entries in the data file.
+ * <p>
+ * Each slot takes 24 bytes: the 64-bit fingerprint of the key, the offset of the entry (0 if the slot is empty) and the
+ * expiry time of the entry. Different keys may have the same fingerprint, so lookups take a predicate that checks the
+ * key stored at an offset. Collisions are resolved by linear probing, and removals shift the following slots back
+ * instead of leaving tombstones.
+ * <p>
+ * The file starts with a header holding the capacity, the number of entries, the length of the data file and the
+ * number of free block records that follow the table. These are only valid if the index was closed cleanly, otherwise
+ * the index must be rebuilt from the data file.
+ * <p>
+ * Lookups can run concurrently, modifications are exclusive. {@link #grow()} and {@link #clear()} require the caller
+ * to stop all the other accesses to the index.
+ *
+ * @since 9.0
+ */
+class MappedKeyIndex {
+   private static final byte[] MAGIC = new byte[]{'F', 'C', 'I', '1'};
+   private static final int CLEAN_POS = 4;
+   private static final int CAPACITY_POS = 8;
+   private static final int SIZE_POS = 16;
+   private static final int DATA_LENGTH_POS = 24;
+   private static final int FREE_BLOCKS_POS = 32;
+   private static final int HEADER_SIZE = 64;
+
+   private static final int SLOT_SIZE = 8 + 8 + 8;
+   private static final int OFFSET_POS = 8;
+   private static final int EXPIRY_POS = 16;
+   // 16M slots, or 384 MB, per mapped region
+   private static final int REGION_SHIFT = 24;
+   private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+   private static final int FINGERPRINT_SEED = 9001;
+
+   static final long MIN_CAPACITY = 1024;
+
+   private File file;
+   private final ReadWriteLock lock = new ReentrantReadWriteLock();
+   private final RandomAccessFile raf;
+   private final MappedByteBuffer header;
+   private final MappedByteBuffer[] regions;
+   private final long capacity;
+   private final long mask;
+   private long size;
+
+   private MappedKeyIndex(File file, RandomAccessFile raf, long capacity) throws IOException {
+      this.file = file;
+      this.raf = raf;
+      this.capacity = capacity;
+      this.mask = capacity - 1;
+      FileChannel channel = raf.getChannel();
+      this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+      int numRegions = (int) ((capacity + REGION_MASK) >>> REGION_SHIFT);
+      this.regions = new MappedByteBuffer[numRegions];
+      for (int i = 0; i < numRegions; i++) {
+         long regionSlots = Math.min(capacity - ((long) i << REGION_SHIFT), 1L << REGION_SHIFT);
+         regions[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+               HEADER_SIZE + ((long) i << REGION_SHIFT) * SLOT_SIZE, regionSlots * SLOT_SIZE);
+      }
+   }
+
+   /**
+    * Creates an empty index, replacing {@code file} if it exists.
+    */
+   static MappedKeyIndex create(File file, long capacity) throws IOException {
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      try {
+         raf.setLength(0);
+         raf.setLength(HEADER_SIZE + capacity * SLOT_SIZE);
+         MappedKeyIndex index = new MappedKeyIndex(file, raf, capacity);
+         index.header.put(MAGIC);
+         index.header.putLong(CAPACITY_POS, capacity);
+         return index;
+      } catch (IOException | RuntimeException e) {
+         raf.close();
+         throw e;
+      }
+   }
+
+   /**
+    * @return The index in {@code file}, or {@code null} if the file does not contain an index.
+    */
+   static MappedKeyIndex open(File file) throws IOException {
+      if (!file.exists() || file.length() < HEADER_SIZE)
+         return null;
+      RandomAccessFile raf = new RandomAccessFile(file, "rw");
+      try {
+         byte[] magic = new byte[MAGIC.length];
+         raf.readFully(magic);
+         raf.seek(CAPACITY_POS);
+         long capacity = raf.readLong();
+         if (!Arrays.equals(MAGIC, magic) || Long.bitCount(capacity) != 1 || capacity < MIN_CAPACITY ||
+               raf.length() < HEADER_SIZE + capacity * SLOT_SIZE) {
+            raf.close();
+            return null;
+         }
+         MappedKeyIndex index = new MappedKeyIndex(file, raf, capacity);
+         index.size = index.header.getLong(SIZE_POS);
+         return index;
+      } catch (IOException | RuntimeException e) {
+         raf.close();
+         throw e;
+      }
+   }
+
+   static long fingerprint(byte[] key) {
+      return MurmurHash3.MurmurHash3_x64_64(key, FINGERPRINT_SEED);
+   }
+
+   boolean isClean() {
+      return header.getInt(CLEAN_POS) != 0;
+   }
+
+   /**
+    * @return The length of the data file when the index was closed.
+    */
+   long dataLength() {
+      return header.getLong(DATA_LENGTH_POS);
+   }
+
+   /**
+    * @return The number of free block records written after the table when the index was closed.
+    */
+   long freeBlocks() {
+      return header.getLong(FREE_BLOCKS_POS);
+   }
+
+   /**
+    * @return The position of the free block records, right after the table.
+    */
+   long tableEnd() {
+      return HEADER_SIZE + capacity * SLOT_SIZE;
+   }
+
+   FileChannel getChannel() {
+      return raf.getChannel();
+   }
+
+   /**
+    * Marks the index as being modified, so that it is rebuilt if the store is not stopped cleanly. Also drops the
+    * free block records, which are only valid until the data file is modified.
+    */
+   void markDirty() throws IOException {
+      header.putInt(CLEAN_POS, 0);
+      header.force();
+      raf.setLength(tableEnd());
+   }
+
+   /**
+    * Writes the table to disk and marks the index as clean.
+    */
+   void close(long dataLength, long freeBlocks) throws IOException {
+      for (MappedByteBuffer region : regions) {
+         region.force();
+      }
+      header.putLong(SIZE_POS, size);
+      header.putLong(DATA_LENGTH_POS, dataLength);
+      header.putLong(FREE_BLOCKS_POS, freeBlocks);
+      header.force();
+      // The header must reach the disk only after the table
+      header.putInt(CLEAN_POS, 1);
+      header.force();
+      raf.close();
+   }
+
+   /**
+    * Closes the index without marking it as clean.
+    */
+   void discard() throws IOException {
+      raf.close();
+   }
+
+   long size() {
+      lock.readLock().lock();
+      try {
+         return size;
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   boolean needsGrow() {
+      return size() > capacity / 2;
+   }
+
+   /**
+    * @return {@code true} if the index must grow before more entries are added.
+    */
+   boolean isNearlyFull() {
+      return size() > capacity / 4 * 3;
+   }
+
+   /**
+    * @return The offset of the entry whose fingerprint is {@code fingerprint} and whose offset matches {@code
+    *       isKey}, or 0 if there is none.
+    */
+   long find(long fingerprint, LongPredicate isKey) {
+      lock.readLock().lock();
+      try {
+         for (long slot = fingerprint & mask; ; slot = (slot + 1) & mask) {
+            long offset = offset(slot);
+            if (offset == 0)
+               return 0;
+            if (fingerprint(slot) == fingerprint && isKey.test(offset))
+               return offset;
+         }
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   boolean contains(long fingerprint, long offset) {
+      lock.readLock().lock();
+      try {
+         return slotOf(fingerprint, offset) >= 0;
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Adds an entry, the caller must make sure that the key is not in the index yet.
+    */
+   void insert(long fingerprint, long offset, long expiryTime) {
+      lock.writeLock().lock();
+      try {
+         if (size >= capacity - 1)
+            throw new IllegalStateException("The index of the single file store is full");
+         long slot = fingerprint & mask;
+         while (offset(slot) != 0) {
+            slot = (slot + 1) & mask;
+         }
+         set(slot, fingerprint, offset, expiryTime);
+         size++;
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Moves an entry to a new offset.
+    *
+    * @return {@code false} if the entry is not in the index.
+    */
+   boolean replace(long fingerprint, long oldOffset, long newOffset, long expiryTime) {
+      lock.writeLock().lock();
+      try {
+         long slot = slotOf(fingerprint, oldOffset);
+         if (slot < 0)
+            return false;
+         set(slot, fingerprint, newOffset, expiryTime);
+         return true;
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * @return {@code false} if the entry is not in the index.
+    */
+   boolean remove(long fingerprint, long offset) {
+      lock.writeLock().lock();
+      try {
+         long hole = slotOf(fingerprint, offset);
+         if (hole < 0)
+            return false;
+         // Shift back the following entries that are not at their home slot, until an empty slot
+         for (long slot = (hole + 1) & mask; offset(slot) != 0; slot = (slot + 1) & mask) {
+            long home = fingerprint(slot) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+               set(hole, fingerprint(slot), offset(slot), expiryTime(slot));
+               hole = slot;
+            }
+         }
+         set(hole, 0, 0, 0);
+         size--;
+         return true;
+      } finally {
+         lock.writeLock().unlock();
+      }
+   }
+
+   /**
+    * Copies the entries of the slots starting at {@code fromSlot} to {@code batch}, until the batch is full.
+    *
+    * @return The slot to continue the scan from, or -1 if the scan reached the end of the table.
+    */
+   long scan(long fromSlot, Batch batch) {
+      batch.size = 0;
+      lock.readLock().lock();
+      try {
+         long slot = fromSlot;
+         for (; slot < capacity && batch.size < batch.offsets.length; slot++) {
+            long offset = offset(slot);
+            if (offset != 0) {
+               batch.fingerprints[batch.size] = fingerprint(slot);
+               batch.offsets[batch.size] = offset;
+               batch.expiryTimes[batch.size] = expiryTime(slot);
+               batch.size++;
+            }
+         }
+         return slot < capacity ? slot : -1;
+      } finally {
+         lock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Doubles the capacity of the index. This index is discarded and must not be used afterwards.
+    */
+   MappedKeyIndex grow() throws IOException {
+      File tmp = new File(file.getPath() + ".tmp");
+      MappedKeyIndex grown = create(tmp, capacity * 2);
+      for (long slot = 0; slot < capacity; slot++) {
+         long offset = offset(slot);
+         if (offset != 0) {
+            grown.insert(fingerprint(slot), offset, expiryTime(slot));
+         }
+      }
+      discard();
+      Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      grown.file = file;
+      return grown;
+   }
+
+   void clear() {
+      byte[] zeros = new byte[64 * SLOT_SIZE];
+      for (MappedByteBuffer region : regions) {
+         for (int pos = 0; pos < region.capacity(); pos += zeros.length) {
+            ByteBuffer slice = region.duplicate();
+            slice.position(pos);
+            slice.put(zeros, 0, Math.min(zeros.length, region.capacity() - pos));
+         }
+      }
+      size = 0;
+   }
+
+   private long slotOf(long fingerprint, long offset) {
+      for (long slot = fingerprint & mask; ; slot = (slot + 1) & mask) {
+         long slotOffset = offset(slot);
+         if (slotOffset == 0)
+            return -1;
+         if (slotOffset == offset && fingerprint(slot) == fingerprint)
+            return slot;
+      }
+   }
+
+   private MappedByteBuffer region(long slot) {
+      return regions[(int) (slot >>> REGION_SHIFT)];
+   }
+
+   private static int position(long slot) {
+      return (int) (slot & REGION_MASK) * SLOT_SIZE;
+   }
+
+   private long fingerprint(long slot) {
+      return region(slot).getLong(position(slot));
+   }
+
+   private long offset(long slot) {
+      return region(slot).getLong(position(slot) + OFFSET_POS);
+   }
+
+   private long expiryTime(long slot) {
+      return region(slot).getLong(position(slot) + EXPIRY_POS);
+   }
+
+   private void set(long slot, long fingerprint, long offset, long expiryTime) {
+      MappedByteBuffer region = region(slot);
+      int position = position(slot);
+      region.putLong(position, fingerprint);
+      region.putLong(position + OFFSET_POS, offset);
+      region.putLong(position + EXPIRY_POS, expiryTime);
+   }
+
+   /**
+    * The entries copied by {@link #scan(long, Batch)}.
+    */
+   static class Batch {
+      final long[] fingerprints;
+      final long[] offsets;
+      final long[] expiryTimes;
+      int size;
+
+      Batch(int capacity) {
+         fingerprints = new long[capacity];
+         offsets = new long[capacity];
+         expiryTimes = new long[capacity];
+      }
+   }
+}
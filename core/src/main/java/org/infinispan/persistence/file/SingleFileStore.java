@@ -17,6 +17,7 @@
 import org.infinispan.persistence.spi.PersistenceException;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.locks.StripedLock;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -36,7 +37,8 @@
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -60,6 +62,13 @@
  * data loss, and data can be recomputed or re-queried from the original data
  * source.
  * <p/>
+ * If {@link SingleFileStoreConfiguration#mappedIndex()} is enabled, the keys and file positions are instead kept in
+ * a memory-mapped hash table in <tt>&lt;location&gt;/&lt;cache name&gt;.idx</tt>, see {@link MappedKeyIndex}, and
+ * the free blocks of the file are kept off-heap, see {@link FreeSpaceBins}. The index only holds the hashes of the
+ * serialized keys, so keys are compared by their serialized form, and every lookup reads the key from the file to
+ * check it. The index is written to disk when the store is stopped, so that the next start does not have to read
+ * the whole file.
+ * <p/>
  * This class is fully thread safe, yet allows for concurrent load / store
  * of individual cache entries.
  *
@@ -77,6 +86,10 @@
    private static final int KEYLEN_POS = 4;
    private static final int KEY_POS = 4 + 4 + 4 + 4 + 8;
    private static final int SMALLEST_ENTRY_SIZE = 128;
+   // How many larger size classes allocate() checks for a free block
+   private static final int SIZE_CLASS_SEARCH = 4;
+   private static final int SCAN_BATCH_SIZE = 1024;
+   private static final long GROW_LOCK_TIMEOUT = 1000;
 
    private SingleFileStoreConfiguration configuration;
 
@@ -86,12 +99,20 @@
    private Map<K, FileEntry> entries;
    private SortedSet<FileEntry> freeList;
    private long filePos = MAGIC.length;
+   private boolean indexRebuilt;
    private File file;
    private float fragmentationFactor = .75f;
    // Prevent clear() from truncating the file after a write() allocated the entry but before it wrote the data
-   private ReadWriteLock resizeLock = new ReentrantReadWriteLock();
+   // With the mapped index, it also prevents the index from growing during a lookup or a scan
+   private ReentrantReadWriteLock resizeLock = new ReentrantReadWriteLock();
    private TimeService timeService;
 
+   // Only used with the memory-mapped index, instead of entries and freeList
+   private MappedKeyIndex index;
+   private FreeSpaceBins freeBins;
+   // Locked by key fingerprint, so that the space of an entry is not reused while it is being read
+   private StripedLock keyLocks;
+
    @Override
    public void init(InitializationContext ctx) {
       this.ctx = ctx;
@@ -116,19 +137,37 @@ public void start() {
          }
          channel = new RandomAccessFile(file, "rw").getChannel();
 
-         // initialize data structures
-         entries = newEntryMap();
-         freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
-
          // check file format and read persistent state if enabled for the cache
          byte[] header = new byte[MAGIC.length];
-         if (channel.read(ByteBuffer.wrap(header), 0) == MAGIC.length && Arrays.equals(MAGIC, header)) {
-            rebuildIndex();
-            processFreeEntries();
+         boolean validFile = channel.read(ByteBuffer.wrap(header), 0) == MAGIC.length && Arrays.equals(MAGIC, header);
+         File indexFile = new File(location, ctx.getCache().getName() + ".idx");
+         if (configuration.mappedIndex()) {
+            freeBins = new FreeSpaceBins();
+            keyLocks = new StripedLock();
+            if (validFile) {
+               openMappedIndex(indexFile);
+            } else {
+               index = MappedKeyIndex.create(indexFile, MappedKeyIndex.MIN_CAPACITY);
+               clear();
+            }
+            index.markDirty();
+         } else {
+            // an index left by a previous run with the mapped index is out of date as soon as the file is modified
+            if (indexFile.exists() && !indexFile.delete())
+               log.tracef("Could not delete index file %s", indexFile);
+
+            // initialize data structures
+            entries = newEntryMap();
+            freeList = Collections.synchronizedSortedSet(new TreeSet<FileEntry>());
+
+            if (validFile) {
+               rebuildIndex();
+               processFreeEntries();
+            }
+            else
+               clear(); // otherwise (unknown file format or no preload) just reset the file
          }
-         else
-            clear(); // otherwise (unknown file format or no preload) just reset the file
-         
+
          // Initialize the fragmentation factor
          fragmentationFactor = configuration.fragmentationFactor();
       } catch (Exception e) {
@@ -154,13 +193,26 @@ private <Key> Map<Key, FileEntry> newEntryMap() {
    public void stop() {
       try {
          if (channel != null) {
-            log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), entries.size(), channel.size());
+            log.tracef("Stopping store %s, size = %d, file size = %d", ctx.getCache().getName(), size(), channel.size());
+
+            if (index != null) {
+               // the last entry may be shorter than its block, extend the file so that its size matches the index
+               if (channel.size() < filePos)
+                  channel.write(ByteBuffer.wrap(new byte[1]), filePos - 1);
+               // the index is only valid if the data it points to is on disk
+               channel.force(true);
+               freeBins.writeTo(index.getChannel(), index.tableEnd());
+               index.close(filePos, freeBins.count());
+            }
 
             // reset state
             channel.close();
             channel = null;
             entries = null;
             freeList = null;
+            index = null;
+            freeBins = null;
+            keyLocks = null;
             filePos = MAGIC.length;
          }
       } catch (Exception e) {
@@ -218,12 +270,76 @@ private void rebuildIndex() throws Exception {
       }
    }
 
+   /**
+    * Opens the mapped index written when the store was last stopped, or rebuilds it if the store was not stopped
+    * cleanly.
+    */
+   private void openMappedIndex(File indexFile) throws Exception {
+      long fileSize = channel.size();
+      index = MappedKeyIndex.open(indexFile);
+      if (index != null && index.isClean() && index.dataLength() == fileSize) {
+         freeBins.readFrom(index.getChannel(), index.tableEnd(), index.freeBlocks());
+         filePos = fileSize;
+         indexRebuilt = false;
+         log.tracef("Opened index %s with %d entries and %d free blocks", indexFile, index.size(), freeBins.count());
+         return;
+      }
+
+      if (index != null)
+         index.discard();
+      log.tracef("Rebuilding index %s", indexFile);
+      indexRebuilt = true;
+      index = MappedKeyIndex.create(indexFile, MappedKeyIndex.MIN_CAPACITY);
+      ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+      for (; ; ) {
+         buf.clear().limit(KEY_POS);
+         channel.read(buf, filePos);
+         if (buf.remaining() > 0)
+            return;
+         buf.flip();
+
+         long offset = filePos;
+         int entrySize = buf.getInt();
+         int keyLen = buf.getInt();
+         int dataLen = buf.getInt();
+         int metadataLen = buf.getInt();
+         long expiryTime = buf.getLong();
+         if (entrySize < KEY_POS + keyLen + dataLen + metadataLen) {
+            throw log.errorReadingFileStore(file.getPath(), filePos);
+         }
+         filePos += entrySize;
+
+         if (keyLen > 0) {
+            ByteBuffer keyBuf = ByteBuffer.allocate(keyLen);
+            channel.read(keyBuf, offset + KEY_POS);
+            byte[] key = keyBuf.array();
+            long fingerprint = MappedKeyIndex.fingerprint(key);
+            EntryHeader previous = new EntryHeader();
+            long previousOffset = index.find(fingerprint, o -> readHeaderAndKey(o, key, previous));
+            if (previousOffset != 0) {
+               // the entry was written again before the old copy was freed
+               index.replace(fingerprint, previousOffset, offset, expiryTime);
+               freeMapped(previousOffset, previous.size);
+            } else {
+               index.insert(fingerprint, offset, expiryTime);
+               if (index.needsGrow())
+                  index = index.grow();
+            }
+         } else {
+            freeBins.add(offset, entrySize);
+         }
+      }
+   }
+
    /**
     * The base class implementation calls {@link #load(Object)} for this, we can do better because
     * we keep all keys in memory.
     */
    @Override
    public boolean contains(Object key) {
+      if (index != null) {
+         return loadMapped(key, false, false) != null;
+      }
       FileEntry entry = entries.get(key);
       return entry != null && !entry.isExpired(timeService.wallClockTime());
    }
@@ -291,15 +407,19 @@ private FileEntry allocateExistingEntry(FileEntry free, int len) {
     * Writes a new free entry to the file and also adds it to the free list
     */
    private void addNewFreeEntry(FileEntry fe) throws IOException {
+      writeFreeBlock(fe.offset, fe.size);
+      freeList.add(fe);
+   }
+
+   private void writeFreeBlock(long offset, int size) throws IOException {
       ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
-      buf.putInt(fe.size);
+      buf.putInt(size);
       buf.putInt(0);
       buf.putInt(0);
       buf.putInt(0);
       buf.putLong(-1);
       buf.flip();
-      channel.write(buf, fe.offset);
-      freeList.add(fe);
+      channel.write(buf, offset);
    }
 
    /**
@@ -322,56 +442,238 @@ private void free(FileEntry fe) throws IOException {
 
    @Override
    public void write(MarshalledEntry<? extends K, ? extends V> marshalledEntry) {
+      resizeLock.readLock().lock();
       try {
-         // serialize cache value
-         org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
-         org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
-         org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
-
-         // allocate file entry and store in cache file
-         int metadataLength = metadata == null ? 0 : metadata.getLength();
-         int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
-         FileEntry newEntry;
-         FileEntry oldEntry = null;
-         resizeLock.readLock().lock();
-         try {
-            newEntry = allocate(len);
-            long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
-            newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
-
-            ByteBuffer buf = ByteBuffer.allocate(len);
-            buf.putInt(newEntry.size);
-            buf.putInt(newEntry.keyLen);
-            buf.putInt(newEntry.dataLen);
-            buf.putInt(newEntry.metadataLen);
-            buf.putLong(newEntry.expiryTime);
-            buf.put(key.getBuf(), key.getOffset(), key.getLength());
-            buf.put(data.getBuf(), data.getOffset(), data.getLength());
-            if (metadata != null)
-               buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
-            buf.flip();
-            channel.write(buf, newEntry.offset);
-            if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
-
-            // add the new entry to in-memory index
-            oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
-
-            // if we added an entry, check if we need to evict something
-            if (oldEntry == null)
-               oldEntry = evict();
-         } finally {
-            // in case we replaced or evicted an entry, add to freeList
-            try {
-               free(oldEntry);
-            } finally {
-               resizeLock.readLock().unlock();
-            }
+         if (index != null)
+            writeMapped(marshalledEntry);
+         else
+            writeEntry(marshalledEntry);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+      growMappedIndexIfNeeded();
+   }
+
+   /**
+    * Writes all the entries while holding the {@code resizeLock} only once.
+    */
+   @Override
+   public void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> marshalledEntries) {
+      resizeLock.readLock().lock();
+      try {
+         for (MarshalledEntry<? extends K, ? extends V> marshalledEntry : marshalledEntries) {
+            if (index != null)
+               writeMapped(marshalledEntry);
+            else
+               writeEntry(marshalledEntry);
          }
       } catch (Exception e) {
          throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+      growMappedIndexIfNeeded();
+   }
+
+   /**
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    */
+   private void writeEntry(MarshalledEntry<? extends K, ? extends V> marshalledEntry) throws IOException {
+      // serialize cache value
+      org.infinispan.commons.io.ByteBuffer key = marshalledEntry.getKeyBytes();
+      org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+      org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+
+      // allocate file entry and store in cache file
+      int metadataLength = metadata == null ? 0 : metadata.getLength();
+      int len = KEY_POS + key.getLength() + data.getLength() + metadataLength;
+      FileEntry newEntry;
+      FileEntry oldEntry = null;
+      try {
+         newEntry = allocate(len);
+         long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+         newEntry = new FileEntry(newEntry, key.getLength(), data.getLength(), metadataLength, expiryTime);
+
+         ByteBuffer buf = ByteBuffer.allocate(len);
+         buf.putInt(newEntry.size);
+         buf.putInt(newEntry.keyLen);
+         buf.putInt(newEntry.dataLen);
+         buf.putInt(newEntry.metadataLen);
+         buf.putLong(newEntry.expiryTime);
+         buf.put(key.getBuf(), key.getOffset(), key.getLength());
+         buf.put(data.getBuf(), data.getOffset(), data.getLength());
+         if (metadata != null)
+            buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
+         buf.flip();
+         channel.write(buf, newEntry.offset);
+         if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
+
+         // add the new entry to in-memory index
+         oldEntry = entries.put(marshalledEntry.getKey(), newEntry);
+
+         // if we added an entry, check if we need to evict something
+         if (oldEntry == null)
+            oldEntry = evict();
+      } finally {
+         // in case we replaced or evicted an entry, add to freeList
+         free(oldEntry);
+      }
+   }
+
+   /**
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    */
+   private void writeMapped(MarshalledEntry<? extends K, ? extends V> marshalledEntry) throws IOException {
+      org.infinispan.commons.io.ByteBuffer keyBytes = marshalledEntry.getKeyBytes();
+      org.infinispan.commons.io.ByteBuffer data = marshalledEntry.getValueBytes();
+      org.infinispan.commons.io.ByteBuffer metadata = marshalledEntry.getMetadataBytes();
+      byte[] key = toArray(keyBytes);
+      long fingerprint = MappedKeyIndex.fingerprint(key);
+
+      int metadataLength = metadata == null ? 0 : metadata.getLength();
+      int len = KEY_POS + key.length + data.getLength() + metadataLength;
+      long expiryTime = metadata != null ? marshalledEntry.getMetadata().expiryTime() : -1;
+
+      keyLocks.acquireLock(fingerprint, true);
+      try {
+         FileEntry newEntry = allocateMapped(len);
+         ByteBuffer buf = ByteBuffer.allocate(len);
+         buf.putInt(newEntry.size);
+         buf.putInt(key.length);
+         buf.putInt(data.getLength());
+         buf.putInt(metadataLength);
+         buf.putLong(expiryTime);
+         buf.put(key);
+         buf.put(data.getBuf(), data.getOffset(), data.getLength());
+         if (metadata != null)
+            buf.put(metadata.getBuf(), metadata.getOffset(), metadata.getLength());
+         buf.flip();
+         channel.write(buf, newEntry.offset);
+         if (trace) log.tracef("Wrote entry %s:%d at %d:%d", marshalledEntry.getKey(), len, newEntry.offset, newEntry.size);
+
+         EntryHeader oldHeader = new EntryHeader();
+         long oldOffset = index.find(fingerprint, offset -> readHeaderAndKey(offset, key, oldHeader));
+         if (oldOffset != 0) {
+            index.replace(fingerprint, oldOffset, newEntry.offset, expiryTime);
+            freeMapped(oldOffset, oldHeader.size);
+         } else {
+            index.insert(fingerprint, newEntry.offset, expiryTime);
+         }
+      } finally {
+         keyLocks.releaseLock(fingerprint);
+      }
+   }
+
+   /**
+    * Allocates the requested space in the file, rounded up to its size class.
+    */
+   private FileEntry allocateMapped(int len) throws IOException {
+      int size = FreeSpaceBins.blockSize(len);
+      synchronized (freeBins) {
+         int sizeClass = FreeSpaceBins.sizeClass(len);
+         for (int c = sizeClass; c < Math.min(sizeClass + SIZE_CLASS_SEARCH, FreeSpaceBins.NUM_CLASSES); c++) {
+            if (freeBins.isEmpty(c))
+               continue;
+            long offset = freeBins.peekOffset(c);
+            int freeSize = freeBins.peekSize(c);
+            freeBins.pop(c);
+            int remainder = freeSize - size;
+            if (remainder >= FreeSpaceBins.MIN_SIZE) {
+               writeFreeBlock(offset + size, remainder);
+               freeBins.add(offset + size, remainder);
+               return new FileEntry(offset, size);
+            }
+            return new FileEntry(offset, freeSize);
+         }
+
+         FileEntry fe = new FileEntry(filePos, size);
+         filePos += size;
+         return fe;
       }
    }
 
+   /**
+    * Frees the block at {@code offset}. Blocks smaller than the smallest size class, which can only have been written
+    * without the mapped index, are not reused.
+    * <p/>
+    * Note: Caller must hold the write lock of the key.
+    */
+   private void freeMapped(long offset, int size) throws IOException {
+      channel.write(ByteBuffer.wrap(ZERO_INT), offset + KEYLEN_POS);
+      synchronized (freeBins) {
+         freeBins.add(offset, size);
+      }
+   }
+
+   /**
+    * Reads the header and the key of the entry at {@code offset} into {@code header}.
+    *
+    * @return {@code true} if the entry holds {@code key}.
+    */
+   private boolean readHeaderAndKey(long offset, byte[] key, EntryHeader header) {
+      try {
+         ByteBuffer buf = ByteBuffer.allocate(KEY_POS + key.length);
+         channel.read(buf, offset);
+         buf.flip();
+         header.read(buf);
+         if (header.keyLen != key.length || buf.remaining() < key.length)
+            return false;
+         for (int i = 0; i < key.length; i++) {
+            if (buf.get() != key[i])
+               return false;
+         }
+         return true;
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private void growMappedIndexIfNeeded() {
+      if (index == null || !index.needsGrow())
+         return;
+      Lock lock = resizeLock.writeLock();
+      // Wait for the concurrent scans only if the index is nearly full, and never if this thread is scanning.
+      // The wait is bounded, as the scan may be waiting for this thread, e.g. if it is writing from a process() task
+      try {
+         long timeout = index.isNearlyFull() && resizeLock.getReadHoldCount() == 0 ? GROW_LOCK_TIMEOUT : 0;
+         if (!lock.tryLock(timeout, TimeUnit.MILLISECONDS))
+            return;
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return;
+      }
+      try {
+         if (index != null && index.needsGrow()) {
+            index = index.grow();
+            if (trace) log.tracef("Index grown to %d entries", index.size());
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   private byte[] marshallKey(Object key) {
+      try {
+         return toArray(ctx.getMarshaller().objectToBuffer(key));
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new PersistenceException(e);
+      }
+   }
+
+   private static byte[] toArray(org.infinispan.commons.io.ByteBuffer bytes) {
+      byte[] buf = bytes.getBuf();
+      if (bytes.getOffset() == 0 && bytes.getLength() == buf.length)
+         return buf;
+      return Arrays.copyOfRange(buf, bytes.getOffset(), bytes.getOffset() + bytes.getLength());
+   }
+
    /**
     * Try to evict an entry if the capacity of the cache store is reached.
     *
@@ -395,6 +697,17 @@ private FileEntry evict() {
    public void clear() {
       resizeLock.writeLock().lock();
       try {
+         if (index != null) {
+            synchronized (freeBins) {
+               index.clear();
+               freeBins.clear();
+               if (trace) log.tracef("Truncating file, current size is %d", filePos);
+               channel.truncate(0);
+               channel.write(ByteBuffer.wrap(MAGIC), 0);
+               filePos = MAGIC.length;
+            }
+            return;
+         }
          synchronized (entries) {
             synchronized (freeList) {
                // wait until all readers are done reading file entries
@@ -425,6 +738,8 @@ public void clear() {
    public boolean delete(Object key) {
       resizeLock.readLock().lock();
       try {
+         if (index != null)
+            return deleteMapped(key);
          FileEntry fe = entries.remove(key);
          free(fe);
          return fe != null;
@@ -435,11 +750,78 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable<Object> keys) {
+      resizeLock.readLock().lock();
+      try {
+         for (Object key : keys) {
+            if (index != null)
+               deleteMapped(key);
+            else
+               free(entries.remove(key));
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * Note: Caller must hold the {@code resizeLock} in shared mode.
+    */
+   private boolean deleteMapped(Object key) throws IOException {
+      byte[] keyBytes = marshallKey(key);
+      long fingerprint = MappedKeyIndex.fingerprint(keyBytes);
+      keyLocks.acquireLock(fingerprint, true);
+      try {
+         EntryHeader header = new EntryHeader();
+         long offset = index.find(fingerprint, o -> readHeaderAndKey(o, keyBytes, header));
+         if (offset == 0)
+            return false;
+         index.remove(fingerprint, offset);
+         freeMapped(offset, header.size);
+         if (trace) log.tracef("Deleted entry at %d:%d", offset, header.size);
+         return true;
+      } finally {
+         keyLocks.releaseLock(fingerprint);
+      }
+   }
+
    @Override
    public MarshalledEntry<K, V> load(Object key) {
+      if (index != null)
+         return loadMapped(key, true, true);
       return _load(key, true, true);
    }
 
+   private MarshalledEntry<K, V> loadMapped(Object key, boolean loadValue, boolean loadMetadata) {
+      byte[] keyBytes = marshallKey(key);
+      long fingerprint = MappedKeyIndex.fingerprint(keyBytes);
+      byte[] data;
+      EntryHeader header = new EntryHeader();
+      resizeLock.readLock().lock();
+      try {
+         keyLocks.acquireLock(fingerprint, false);
+         try {
+            long offset = index.find(fingerprint, o -> readHeaderAndKey(o, keyBytes, header));
+            if (offset == 0 || header.isExpired(timeService.wallClockTime()))
+               return null;
+            if (!loadValue && !loadMetadata)
+               return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (org.infinispan.commons.io.ByteBuffer) null, (org.infinispan.commons.io.ByteBuffer) null);
+            data = new byte[header.keyLen + header.dataLen + (loadMetadata ? header.metadataLen : 0)];
+            channel.read(ByteBuffer.wrap(data), offset + KEY_POS);
+         } finally {
+            keyLocks.releaseLock(fingerprint);
+         }
+      } catch (IOException e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+      return newMarshalledEntry(data, header.keyLen, header.dataLen, header.metadataLen, loadValue, loadMetadata);
+   }
+
    private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadMetadata) {
       final FileEntry fe;
       resizeLock.readLock().lock();
@@ -489,13 +871,20 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
       }
 
       if (trace) log.tracef("Read entry %s at %d:%d", key, fe.offset, fe.actualSize());
+      return newMarshalledEntry(data, fe.keyLen, fe.dataLen, fe.metadataLen, loadValue, loadMetadata);
+   }
+
+   private MarshalledEntry<K, V> newMarshalledEntry(byte[] data, int keyLen, int dataLen, int metadataLen,
+                                                    boolean loadValue, boolean loadMetadata) {
       ByteBufferFactory factory = ctx.getByteBufferFactory();
-      org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, fe.keyLen);
+      org.infinispan.commons.io.ByteBuffer keyBb = factory.newByteBuffer(data, 0, keyLen);
+      org.infinispan.commons.io.ByteBuffer valueBb = null;
+      org.infinispan.commons.io.ByteBuffer metadataBb = null;
       if (loadValue) {
-         valueBb = factory.newByteBuffer(data, fe.keyLen, fe.dataLen);
+         valueBb = factory.newByteBuffer(data, keyLen, dataLen);
       }
-      if (loadMetadata && fe.metadataLen > 0) {
-         metadataBb = factory.newByteBuffer(data, fe.keyLen + fe.dataLen, fe.metadataLen);
+      if (loadMetadata && metadataLen > 0) {
+         metadataBb = factory.newByteBuffer(data, keyLen + dataLen, metadataLen);
       }
       return ctx.getMarshalledEntryFactory().newMarshalledEntry(keyBb, valueBb, metadataBb);
    }
@@ -503,6 +892,10 @@ private MarshalledEntry<K, V> _load(Object key, boolean loadValue, boolean loadM
    @Override
    public void process(KeyFilter<? super K> filter, final CacheLoaderTask<K, V> task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       filter = PersistenceUtil.notNull(filter);
+      if (index != null) {
+         processMapped(filter, task, executor, fetchValue, fetchMetadata);
+         return;
+      }
       ArrayList<KeyValuePair<K, FileEntry>> keysToLoad = new ArrayList<>(entries.size());
       synchronized (entries) {
          for (Map.Entry<K, FileEntry> e : entries.entrySet()) {
@@ -550,6 +943,82 @@ public Void call() throws Exception {
       }
    }
 
+   /**
+    * Scans the index in batches, and reads the entries of each batch in a separate task.
+    */
+   private void processMapped(KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                              boolean fetchValue, boolean fetchMetadata) {
+      ExecutorAllCompletionService eacs = new ExecutorAllCompletionService(executor);
+      TaskContextImpl taskContext = new TaskContextImpl();
+      // The tasks run while this thread holds the lock, so the index cannot grow during the scan
+      resizeLock.readLock().lock();
+      try {
+         long slot = 0;
+         while (slot >= 0 && !taskContext.isStopped()) {
+            MappedKeyIndex.Batch batch = new MappedKeyIndex.Batch(SCAN_BATCH_SIZE);
+            slot = index.scan(slot, batch);
+            eacs.submit(() -> {
+               try {
+                  long now = timeService.wallClockTime();
+                  for (int i = 0; i < batch.size && !taskContext.isStopped(); i++) {
+                     MarshalledEntry<K, V> marshalledEntry = loadMapped(batch.fingerprints[i], batch.offsets[i], now,
+                           filter, fetchValue, fetchMetadata);
+                     if (marshalledEntry != null) {
+                        task.processEntry(marshalledEntry, taskContext);
+                     }
+                  }
+                  return null;
+               } catch (Exception e) {
+                  log.errorExecutingParallelStoreTask(e);
+                  throw e;
+               }
+            });
+         }
+         eacs.waitUntilAllCompleted();
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+      if (eacs.isExceptionThrown()) {
+         throw new PersistenceException("Execution exception!", eacs.getFirstException());
+      }
+   }
+
+   /**
+    * Loads the entry at {@code offset}, if it is still in the index and its key is accepted by the filter.
+    */
+   private MarshalledEntry<K, V> loadMapped(long fingerprint, long offset, long now, KeyFilter<? super K> filter,
+                                            boolean loadValue, boolean loadMetadata) throws Exception {
+      EntryHeader header = new EntryHeader();
+      K key;
+      byte[] data;
+      keyLocks.acquireLock(fingerprint, false);
+      try {
+         if (!index.contains(fingerprint, offset))
+            return null;
+         ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+         channel.read(buf, offset);
+         buf.flip();
+         header.read(buf);
+         if (header.isExpired(now))
+            return null;
+         data = new byte[header.keyLen + (loadValue || loadMetadata ? header.dataLen : 0) +
+               (loadMetadata ? header.metadataLen : 0)];
+         channel.read(ByteBuffer.wrap(data, 0, header.keyLen), offset + KEY_POS);
+         key = (K) ctx.getMarshaller().objectFromByteBuffer(data, 0, header.keyLen);
+         if (!filter.accept(key))
+            return null;
+         if (data.length > header.keyLen) {
+            channel.read(ByteBuffer.wrap(data, header.keyLen, data.length - header.keyLen),
+                  offset + KEY_POS + header.keyLen);
+         }
+      } finally {
+         keyLocks.releaseLock(fingerprint);
+      }
+      if (!loadValue && !loadMetadata)
+         return ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (org.infinispan.commons.io.ByteBuffer) null, (org.infinispan.commons.io.ByteBuffer) null);
+      return newMarshalledEntry(data, header.keyLen, header.dataLen, header.metadataLen, loadValue, loadMetadata);
+   }
+
    /**
     * Manipulates the free entries for optimizing disk space.
     */
@@ -660,6 +1129,10 @@ private void mergeFreeEntries(List<FileEntry> entries) {
    @Override
    public void purge(Executor threadPool, final PurgeListener task) {
       long now = timeService.wallClockTime();
+      if (index != null) {
+         purgeMapped(now, task);
+         return;
+      }
       List<KeyValuePair<Object, FileEntry>> entriesToPurge = new ArrayList<KeyValuePair<Object, FileEntry>>();
       synchronized (entries) {
          for (Iterator<Map.Entry<K, FileEntry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
@@ -697,8 +1170,61 @@ public void purge(Executor threadPool, final PurgeListener task) {
       }
    }
 
+   /**
+    * Free blocks are not merged with the mapped index, as they are only reused within their size class.
+    */
+   private void purgeMapped(long now, PurgeListener task) {
+      resizeLock.readLock().lock();
+      try {
+         MappedKeyIndex.Batch batch = new MappedKeyIndex.Batch(SCAN_BATCH_SIZE);
+         long slot = 0;
+         while (slot >= 0) {
+            slot = index.scan(slot, batch);
+            for (int i = 0; i < batch.size; i++) {
+               long expiryTime = batch.expiryTimes[i];
+               if (expiryTime > 0 && expiryTime < now) {
+                  Object key = purgeMapped(batch.fingerprints[i], batch.offsets[i], now, task != null);
+                  if (key != null) task.entryPurged(key);
+               }
+            }
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      } finally {
+         resizeLock.readLock().unlock();
+      }
+   }
+
+   /**
+    * @return The key of the purged entry, if it was purged and {@code needKey} is {@code true}.
+    */
+   private Object purgeMapped(long fingerprint, long offset, long now, boolean needKey) throws Exception {
+      byte[] key;
+      keyLocks.acquireLock(fingerprint, true);
+      try {
+         if (!index.contains(fingerprint, offset))
+            return null;
+         EntryHeader header = new EntryHeader();
+         ByteBuffer buf = ByteBuffer.allocate(KEY_POS);
+         channel.read(buf, offset);
+         buf.flip();
+         header.read(buf);
+         if (!header.isExpired(now))
+            return null;
+         key = new byte[needKey ? header.keyLen : 0];
+         channel.read(ByteBuffer.wrap(key), offset + KEY_POS);
+         index.remove(fingerprint, offset);
+         freeMapped(offset, header.size);
+      } finally {
+         keyLocks.releaseLock(fingerprint);
+      }
+      return needKey ? ctx.getMarshaller().objectFromByteBuffer(key) : null;
+   }
+
    @Override
    public int size() {
+      if (index != null)
+         return (int) Math.min(index.size(), Integer.MAX_VALUE);
       return entries.size();
    }
 
@@ -714,10 +1240,40 @@ long getFileSize() {
       return filePos;
    }
 
+   /**
+    * @return true if the mapped index had to be rebuilt from the data file when the store was last started
+    */
+   boolean isIndexRebuilt() {
+      return indexRebuilt;
+   }
+
    public SingleFileStoreConfiguration getConfiguration() {
       return configuration;
    }
 
+   /**
+    * The header of an entry in the cache file, read when using the mapped index. See {@link FileEntry} for the format.
+    */
+   private static class EntryHeader {
+      private int size;
+      private int keyLen;
+      private int dataLen;
+      private int metadataLen;
+      private long expiryTime;
+
+      void read(ByteBuffer buf) {
+         size = buf.getInt();
+         keyLen = buf.getInt();
+         dataLen = buf.getInt();
+         metadataLen = buf.getInt();
+         expiryTime = buf.getLong();
+      }
+
+      boolean isExpired(long now) {
+         return expiryTime > 0 && expiryTime < now;
+      }
+   }
+
    /**
     * Helper class to represent an entry in the cache file.
     * <p/>
@@ -0,0 +1,228 @@
+package org.infinispan.persistence.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.marshall.core.MarshalledEntry;
+import org.infinispan.metadata.InternalMetadata;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.metadata.impl.InternalMetadataImpl;
+import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Preloads the entries of a store directly into the data container, using several threads.
+ * <p>
+ * The thread iterating over the store only reads the keys and groups the entries in batches by segment, so that each
+ * batch only touches a few segments of the data container. The batches are handed over to workers running in the
+ * persistence executor, which unmarshall the values, build the {@link InternalCacheEntry} instances with the
+ * timestamps read from the store and write them to the data container, bypassing the interceptor chain. When all the
+ * workers are busy the iterating thread writes the batch itself, so the preload makes progress even when the executor
+ * cannot run any worker.
+ * <p>
+ * If a set of segments is given, the entries of the other segments are skipped without reading their values.
+ *
+ * @since 9.0
+ */
+class ParallelPreloader {
+   private static final Log log = LogFactory.getLog(ParallelPreloader.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   static final int BATCH_SIZE = 128;
+   // Tells a worker to stop, compared by identity
+   private static final List<MarshalledEntry<Object, Object>> END = new ArrayList<>(0);
+
+   private final DataContainer<Object, Object> dataContainer;
+   private final InternalEntryFactory entryFactory;
+   private final KeyPartitioner keyPartitioner;
+   private final Executor executor;
+   private final TimeService timeService;
+   private final int threads;
+   private final long maxEntries;
+   private final Set<Integer> segments;
+   private final AtomicLong preloadedEntries;
+   private final AtomicLong skippedEntries;
+
+   private final BlockingQueue<List<MarshalledEntry<Object, Object>>> batches;
+   private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+   // The fields below are only accessed by the iterating thread
+   private final List<MarshalledEntry<Object, Object>>[] pending;
+   private long readEntries;
+
+   /**
+    * @param segments The segments to preload, or {@code null} to preload all the entries.
+    * @param preloadedEntries Incremented for every entry written to the data container.
+    * @param skippedEntries Incremented for every entry skipped because its segment is not preloaded.
+    */
+   @SuppressWarnings("unchecked")
+   ParallelPreloader(DataContainer<Object, Object> dataContainer, InternalEntryFactory entryFactory,
+                     KeyPartitioner keyPartitioner, Executor executor, TimeService timeService, int threads,
+                     long maxEntries, Set<Integer> segments, AtomicLong preloadedEntries, AtomicLong skippedEntries) {
+      this.dataContainer = dataContainer;
+      this.entryFactory = entryFactory;
+      this.keyPartitioner = keyPartitioner;
+      this.executor = executor;
+      this.timeService = timeService;
+      this.threads = threads;
+      this.maxEntries = maxEntries;
+      this.segments = segments;
+      this.preloadedEntries = preloadedEntries;
+      this.skippedEntries = skippedEntries;
+      this.batches = new ArrayBlockingQueue<>(2 * threads);
+      this.pending = new List[threads];
+   }
+
+   void preload(AdvancedCacheLoader<Object, Object> loader) {
+      CountDownLatch workersDone = new CountDownLatch(threads);
+      int workers = 0;
+      try {
+         for (; workers < threads; workers++) {
+            executor.execute(new Worker(workersDone));
+         }
+      } catch (RejectedExecutionException e) {
+         log.debugf("Preloading with %d workers instead of %d, the persistence executor rejected the others", workers, threads);
+         for (int i = workers; i < threads; i++) {
+            workersDone.countDown();
+         }
+      }
+
+      try {
+         if (segments != null && loader instanceof SegmentedAdvancedCacheLoader) {
+            ((SegmentedAdvancedCacheLoader<Object, Object>) loader).process(segments, this::accept, this::read,
+                  new WithinThreadExecutor(), true, true);
+         } else {
+            loader.process(segments != null ? this::accept : null, this::read, new WithinThreadExecutor(), true, true);
+         }
+         for (int i = 0; i < pending.length; i++) {
+            if (pending[i] != null) {
+               dispatch(pending[i]);
+               pending[i] = null;
+            }
+         }
+         List<MarshalledEntry<Object, Object>> batch;
+         while ((batch = batches.poll()) != null) {
+            write(batch);
+         }
+      } catch (Throwable t) {
+         error.compareAndSet(null, t);
+      } finally {
+         try {
+            // The queue is only left with batches after an error. It holds twice as many batches as there are
+            // workers, so this never blocks
+            batches.clear();
+            for (int i = 0; i < workers; i++) {
+               batches.put(END);
+            }
+            workersDone.await();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error.compareAndSet(null, e);
+         }
+      }
+
+      Throwable t = error.get();
+      if (t != null) {
+         throw t instanceof PersistenceException ? (PersistenceException) t : new PersistenceException("Unable to preload!", t);
+      }
+   }
+
+   private boolean accept(Object key) {
+      if (segments.contains(keyPartitioner.getSegment(key))) {
+         return true;
+      }
+      skippedEntries.incrementAndGet();
+      return false;
+   }
+
+   private void read(MarshalledEntry<Object, Object> entry, AdvancedCacheLoader.TaskContext taskContext) {
+      if (readEntries++ >= maxEntries || error.get() != null) {
+         taskContext.stop();
+         return;
+      }
+      int partition = keyPartitioner.getSegment(entry.getKey()) % threads;
+      List<MarshalledEntry<Object, Object>> batch = pending[partition];
+      if (batch == null) {
+         batch = new ArrayList<>(BATCH_SIZE);
+         pending[partition] = batch;
+      }
+      batch.add(entry);
+      if (batch.size() == BATCH_SIZE) {
+         pending[partition] = null;
+         dispatch(batch);
+      }
+   }
+
+   private void dispatch(List<MarshalledEntry<Object, Object>> batch) {
+      if (!batches.offer(batch)) {
+         write(batch);
+      }
+   }
+
+   private void write(List<MarshalledEntry<Object, Object>> batch) {
+      long now = timeService.wallClockTime();
+      for (MarshalledEntry<Object, Object> me : batch) {
+         Object key = me.getKey();
+         InternalMetadata metadata = me.getMetadata();
+         InternalCacheEntry<Object, Object> entry;
+         if (metadata == null) {
+            entry = entryFactory.create(key, me.getValue(), (Metadata) null);
+         } else if (metadata.isExpired(now)) {
+            continue;
+         } else {
+            //the downcast will go away with ISPN-3460
+            entry = entryFactory.create(key, me.getValue(), ((InternalMetadataImpl) metadata).actual(),
+                  metadata.created(), metadata.lifespan(), metadata.lastUsed(), metadata.maxIdle());
+         }
+         dataContainer.compute(key, (k, oldEntry, factory) -> entry);
+         preloadedEntries.incrementAndGet();
+      }
+      if (trace) log.tracef("Preloaded a batch of %d entries", batch.size());
+   }
+
+   private class Worker implements Runnable {
+      private final CountDownLatch done;
+
+      Worker(CountDownLatch done) {
+         this.done = done;
+      }
+
+      @Override
+      public void run() {
+         try {
+            List<MarshalledEntry<Object, Object>> batch;
+            while ((batch = batches.take()) != END) {
+               // Keep draining the queue after an error, so that the iterating thread does not block
+               if (error.get() == null) {
+                  try {
+                     write(batch);
+                  } catch (Throwable t) {
+                     error.compareAndSet(null, t);
+                  }
+               }
+            }
+         } catch (InterruptedException e) {
+            error.compareAndSet(null, e);
+         } finally {
+            done.countDown();
+         }
+      }
+   }
+}
@@ -46,6 +46,12 @@ public interface PersistenceManager extends Lifecycle {
 
    boolean deleteFromAllStores(Object key, AccessMode mode);
 
+   /**
+    * Removes all the given keys from the stores allowed by the access mode, using
+    * {@link org.infinispan.persistence.spi.CacheWriter#deleteBatch(Iterable)}.
+    */
+   void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode);
+
    void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata);
 
    void processOnAllStores(Executor executor, KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata);
@@ -58,6 +64,12 @@ public interface PersistenceManager extends Lifecycle {
 
    void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes);
 
+   /**
+    * Writes all the given entries to the stores allowed by the access mode, using
+    * {@link org.infinispan.persistence.spi.CacheWriter#writeBatch(Iterable)}.
+    */
+   void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode modes);
+
    /**
     * Returns the store one configured with fetch persistent state, or null if none exist.
     */
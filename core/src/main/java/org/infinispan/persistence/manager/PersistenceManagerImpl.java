@@ -9,8 +9,15 @@
 import org.infinispan.configuration.cache.EvictionConfigurationBuilder;
 import org.infinispan.configuration.cache.Index;
 import org.infinispan.configuration.cache.StoreConfiguration;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.ch.impl.ConsistentHashPersistenceConstants;
+import org.infinispan.distribution.ch.impl.DefaultConsistentHash;
+import org.infinispan.distribution.ch.impl.DefaultConsistentHashFactory;
 import org.infinispan.eviction.EvictionType;
 import org.infinispan.expiration.ExpirationManager;
 import org.infinispan.factories.annotations.ComponentName;
@@ -18,10 +25,18 @@
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.KeyFilter;
+import org.infinispan.globalstate.GlobalStateManager;
+import org.infinispan.globalstate.ScopedPersistentState;
 import org.infinispan.interceptors.SequentialInterceptor;
 import org.infinispan.interceptors.SequentialInterceptorChain;
 import org.infinispan.interceptors.impl.CacheLoaderInterceptor;
 import org.infinispan.interceptors.impl.CacheWriterInterceptor;
+import org.infinispan.jmx.annotations.DataType;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.marshall.core.MarshalledEntryFactory;
 import org.infinispan.metadata.Metadata;
@@ -44,6 +59,8 @@
 import org.infinispan.persistence.support.DelegatingCacheLoader;
 import org.infinispan.persistence.support.DelegatingCacheWriter;
 import org.infinispan.persistence.support.SingletonCacheWriter;
+import org.infinispan.topology.LocalTopologyManager;
+import org.infinispan.topology.PersistentUUID;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
@@ -57,6 +74,7 @@
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -67,6 +85,7 @@
 import static org.infinispan.factories.KnownComponentNames.PERSISTENCE_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.BOTH;
 
+@MBean(objectName = "PersistenceManager", description = "Component that manages the cache loaders and writers of the cache.")
 public class PersistenceManagerImpl implements PersistenceManager {
 
    private static final Log log = LogFactory.getLog(PersistenceManagerImpl.class);
@@ -99,6 +118,17 @@ public class PersistenceManagerImpl implements PersistenceManager {
    private MarshalledEntryFactory marshalledEntryFactory;
    private volatile boolean clearOnStop;
 
+   private DataContainer<Object, Object> dataContainer;
+   private InternalEntryFactory entryFactory;
+   private KeyPartitioner keyPartitioner;
+   private GlobalStateManager globalStateManager;
+   private LocalTopologyManager localTopologyManager;
+   private final AtomicLong preloadedEntries = new AtomicLong();
+   private final AtomicLong preloadSkippedEntries = new AtomicLong();
+   private volatile boolean preloading;
+   private volatile long preloadStart;
+   private volatile long preloadDuration;
+
    @Inject
    public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
                       Configuration configuration, TransactionManager transactionManager,
@@ -119,6 +149,17 @@ public void inject(AdvancedCache<Object, Object> cache, @ComponentName(CACHE_MAR
       this.advanedListener = new AdvancedPurgeListener(expirationManager);
    }
 
+   @Inject
+   public void injectPreloadDependencies(DataContainer<Object, Object> dataContainer, InternalEntryFactory entryFactory,
+                                         KeyPartitioner keyPartitioner, GlobalStateManager globalStateManager,
+                                         LocalTopologyManager localTopologyManager) {
+      this.dataContainer = dataContainer;
+      this.entryFactory = entryFactory;
+      this.keyPartitioner = keyPartitioner;
+      this.globalStateManager = globalStateManager;
+      this.localTopologyManager = localTopologyManager;
+   }
+
    @Override
    @Start(priority = 10)
    public void start() {
@@ -227,24 +268,76 @@ public void preload() {
          return;
 
       long start = timeService.time();
+      preloadStart = start;
+      preloadedEntries.set(0);
+      preloadSkippedEntries.set(0);
+      preloading = true;
+      try {
+         final long maxEntries = getMaxEntries();
+         int threads = configuration.persistence().preloadThreads();
+         if (threads > 1 && canPreloadDirectly()) {
+            new ParallelPreloader(dataContainer, entryFactory, keyPartitioner, persistenceExecutor, timeService, threads,
+                                  maxEntries, getPreloadSegments(), preloadedEntries, preloadSkippedEntries)
+                  .preload(preloadCl);
+         } else {
+            final AtomicInteger loadedEntries = new AtomicInteger(0);
+            final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
+            preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
+               @Override
+               public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+                  if (loadedEntries.getAndIncrement() >= maxEntries) {
+                     taskContext.stop();
+                     return;
+                  }
+                  Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
+                  preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
+                  preloadedEntries.incrementAndGet();
+               }
+            }, new WithinThreadExecutor(), true, true);
+         }
+      } finally {
+         preloadDuration = timeService.timeDuration(start, MILLISECONDS);
+         preloading = false;
+      }
 
+      log.debugf("Preloaded %s keys in %s", preloadedEntries, Util.prettyPrintTime(preloadDuration));
+   }
 
-      final long maxEntries = getMaxEntries();
-      final AtomicInteger loadedEntries = new AtomicInteger(0);
-      final AdvancedCache<Object, Object> flaggedCache = getCacheForStateInsertion();
-      preloadCl.process(null, new AdvancedCacheLoader.CacheLoaderTask() {
-         @Override
-         public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-            if (loadedEntries.getAndIncrement() >= maxEntries) {
-               taskContext.stop();
-               return;
-            }
-            Metadata metadata = me.getMetadata() != null ? ((InternalMetadataImpl)me.getMetadata()).actual() : null; //the downcast will go away with ISPN-3460
-            preloadKey(flaggedCache, me.getKey(), me.getValue(), metadata);
-         }
-      }, new WithinThreadExecutor(), true, true);
+   @ManagedAttribute(
+         description = "Whether the cache is being preloaded from the store",
+         displayName = "Preload in progress",
+         dataType = DataType.TRAIT
+   )
+   public boolean isPreloading() {
+      return preloading;
+   }
 
-      log.debugf("Preloaded %s keys in %s", loadedEntries, Util.prettyPrintTime(timeService.timeDuration(start, MILLISECONDS)));
+   @ManagedAttribute(
+         description = "Number of entries preloaded from the store",
+         displayName = "Preloaded entries",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getPreloadedEntries() {
+      return preloadedEntries.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of entries not preloaded because the node does not own them",
+         displayName = "Preload skipped entries",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.DETAIL
+   )
+   public long getPreloadSkippedEntries() {
+      return preloadSkippedEntries.get();
+   }
+
+   @ManagedAttribute(
+         description = "Time spent preloading the cache, so far if the preload is in progress",
+         displayName = "Preload duration",
+         units = Units.MILLISECONDS
+   )
+   public long getPreloadDuration() {
+      return preloading ? timeService.timeDuration(preloadStart, MILLISECONDS) : preloadDuration;
    }
 
    @Override
@@ -413,6 +506,20 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
       }
    }
 
+   @Override
+   public void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               w.deleteBatch(keys);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task,
                                   boolean fetchValue, boolean fetchMetadata) {
@@ -486,6 +593,20 @@ public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode mode) {
       }
    }
 
+   @Override
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode mode) {
+      storesMutex.readLock().lock();
+      try {
+         for (CacheWriter w : writers) {
+            if (mode.canPerform(configMap.get(w))) {
+               w.writeBatch(entries);
+            }
+         }
+      } finally {
+         storesMutex.readLock().unlock();
+      }
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       storesMutex.readLock().lock();
@@ -654,6 +775,41 @@ private AdvancedCache<Object, Object> getCacheForStateInsertion() {
             .withFlags(flags.toArray(new Flag[flags.size()]));
    }
 
+   /**
+    * Writing directly to the data container skips the interceptors that index, convert or activate the entries.
+    */
+   private boolean canPreloadDirectly() {
+      return !configuration.indexing().index().isEnabled() && !configuration.compatibility().enabled() &&
+            !configuration.persistence().passivation();
+   }
+
+   /**
+    * The node has not joined the cluster yet when the cache is preloaded, so it only knows which segments it owns if
+    * the consistent hash was persisted by a graceful shutdown of the cluster.
+    *
+    * @return The segments owned by this node, or {@code null} if all the entries must be preloaded.
+    */
+   private Set<Integer> getPreloadSegments() {
+      if (!configuration.clustering().cacheMode().isDistributed() || globalStateManager == null ||
+            localTopologyManager == null) {
+         return null;
+      }
+      Optional<ScopedPersistentState> state = globalStateManager.readScopedState(cache.getName());
+      if (!state.isPresent() ||
+            !DefaultConsistentHash.class.getName().equals(state.get().getProperty(ConsistentHashPersistenceConstants.STATE_CONSISTENT_HASH))) {
+         return null;
+      }
+      ConsistentHash ch = new DefaultConsistentHashFactory().fromPersistentState(state.get());
+      PersistentUUID localUUID = localTopologyManager.getPersistentUUID();
+      if (ch.getNumSegments() != configuration.clustering().hash().numSegments() ||
+            !ch.getMembers().contains(localUUID)) {
+         return null;
+      }
+      Set<Integer> segments = ch.getSegmentsForOwner(localUUID);
+      log.debugf("Preloading only the segments %s owned by this node in the persisted consistent hash", segments);
+      return segments;
+   }
+
    private boolean localIndexingEnabled() {
       return configuration.indexing().index() == Index.LOCAL;
    }
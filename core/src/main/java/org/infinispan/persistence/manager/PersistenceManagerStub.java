@@ -56,6 +56,10 @@ public boolean deleteFromAllStores(Object key, AccessMode mode) {
       return false;
    }
 
+   @Override
+   public void deleteBatchFromAllStores(Iterable<Object> keys, AccessMode mode) {
+   }
+
    @Override
    public void processOnAllStores(KeyFilter keyFilter, AdvancedCacheLoader.CacheLoaderTask task, boolean fetchValue, boolean fetchMetadata) {
    }
@@ -81,6 +85,10 @@ public MarshalledEntry loadFromAllStores(Object key, InvocationContext context)
    public void writeToAllStores(MarshalledEntry marshalledEntry, AccessMode modes) {
    }
 
+   @Override
+   public void writeBatchToAllStores(Iterable<MarshalledEntry> entries, AccessMode modes) {
+   }
+
    @Override
    public AdvancedCacheLoader getStateTransferProvider() {
       return null;
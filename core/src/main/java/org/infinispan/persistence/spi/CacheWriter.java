@@ -35,4 +35,37 @@
     * @throws PersistenceException in case of an error, e.g. communicating with the external storage
     */
    boolean delete(Object key);
+
+   /**
+    * Persists all the provided entries to the storage. Implementations that can group several modifications in a
+    * single round-trip or transaction against the external storage (e.g. JDBC batches) should override this method;
+    * the default implementation simply invokes {@link #write(MarshalledEntry)} for each entry.
+    * <p>
+    * The writes are not required to be atomic: if a {@link PersistenceException} is thrown, some of the entries may
+    * have been persisted already.
+    *
+    * @param entries the entries to persist; a key appears at most once
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void writeBatch(Iterable<MarshalledEntry<? extends K, ? extends V>> entries) {
+      for (MarshalledEntry<? extends K, ? extends V> entry : entries) {
+         write(entry);
+      }
+   }
+
+   /**
+    * Removes all the provided keys from the storage. Implementations that can group several modifications in a single
+    * round-trip or transaction against the external storage should override this method; the default implementation
+    * simply invokes {@link #delete(Object)} for each key.
+    *
+    * @param keys the keys to remove; a key appears at most once
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    * @since 9.0
+    */
+   default void deleteBatch(Iterable<Object> keys) {
+      for (Object key : keys) {
+         delete(key);
+      }
+   }
 }
@@ -0,0 +1,39 @@
+package org.infinispan.persistence.spi;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.infinispan.commons.util.Experimental;
+import org.infinispan.filter.KeyFilter;
+
+import net.jcip.annotations.ThreadSafe;
+
+/**
+ * An {@link AdvancedCacheLoader} that keeps track of the segment of each stored entry, so that it can iterate over
+ * the entries of some segments without reading the others, e.g. during state transfer.
+ *
+ * @param <K>
+ * @param <V>
+ * @since 9.0
+ */
+@ThreadSafe
+@Experimental
+public interface SegmentedAdvancedCacheLoader<K, V> extends AdvancedCacheLoader<K, V> {
+
+   /**
+    * Same as {@link AdvancedCacheLoader#process(KeyFilter, CacheLoaderTask, Executor, boolean, boolean)}, but only the
+    * entries mapped to the given segments by the cache's {@link org.infinispan.distribution.ch.KeyPartitioner} are
+    * passed to the task. Implementations may iterate over more entries if the segments are not known for some of them,
+    * so the callers should still check the segment of each entry.
+    *
+    * @param segments      the segments to iterate over
+    * @param filter        to validate which entries should be feed into the task. Might be null.
+    * @param task          callback to be invoked in parallel for each stored entry that passes the filter check
+    * @param executor      an external thread pool to be used for parallel iteration
+    * @param fetchValue    whether or not to fetch the value from the persistent store
+    * @param fetchMetadata whether or not to fetch the metadata from the persistent store
+    * @throws PersistenceException in case of an error, e.g. communicating with the external storage
+    */
+   void process(Set<Integer> segments, KeyFilter<? super K> filter, CacheLoaderTask<K, V> task, Executor executor,
+                boolean fetchValue, boolean fetchMetadata);
+}
@@ -63,9 +63,16 @@ protected ActionStatus init(ActionState state) {
          keysToLock.forEach(context::addLockedKey);
       }
 
-      LockPromise promise = keysToLock.size() == 1 ?
-            lockManager.lock(keysToLock.get(0), lockOwner, timeout, TimeUnit.MILLISECONDS) :
-            lockManager.lockAll(keysToLock, lockOwner, timeout, TimeUnit.MILLISECONDS);
+      final LockPromise promise;
+      if (state.getCommand().hasSharedLocking()) {
+         promise = keysToLock.size() == 1 ?
+               lockManager.lockShared(keysToLock.get(0), lockOwner, timeout, TimeUnit.MILLISECONDS) :
+               lockManager.lockAllShared(keysToLock, lockOwner, timeout, TimeUnit.MILLISECONDS);
+      } else {
+         promise = keysToLock.size() == 1 ?
+               lockManager.lock(keysToLock.get(0), lockOwner, timeout, TimeUnit.MILLISECONDS) :
+               lockManager.lockAll(keysToLock, lockOwner, timeout, TimeUnit.MILLISECONDS);
+      }
 
       lockPromise = promise;
       if (!promise.isAvailable()) {
@@ -118,6 +118,11 @@ public void checkTotalOrderSupported() {
       actual.checkTotalOrderSupported();
    }
 
+   @Override
+   public long estimateResponseTime(Address member, double percentile) {
+      return actual.estimateResponseTime(member, percentile);
+   }
+
    @Override
    public Log getLog() {
       return actual.getLog();
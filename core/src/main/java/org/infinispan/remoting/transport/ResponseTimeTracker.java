@@ -0,0 +1,80 @@
+package org.infinispan.remoting.transport;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps an exponentially weighted moving average of the response times of each cluster member.
+ * <p>
+ * Both the mean and the variance of the response times are smoothed, and percentiles are estimated assuming a
+ * normal distribution, which is good enough to rank the members and to decide how long to wait for a reply before
+ * asking another member.
+ *
+ * @since 9.0
+ */
+public class ResponseTimeTracker {
+   /**
+    * Weight of a new sample, the same value TCP uses for smoothing the round-trip time.
+    */
+   private static final double ALPHA = 0.125;
+
+   private final ConcurrentMap<Address, Estimate> estimates = new ConcurrentHashMap<>();
+
+   /**
+    * Records the time it took {@code member} to reply to a request.
+    */
+   public void recordResponseTime(Address member, long durationNanos) {
+      estimates.compute(member, (address, estimate) -> estimate == null ?
+            new Estimate(durationNanos, 0) : estimate.update(durationNanos));
+   }
+
+   /**
+    * @return The estimated time, in nanoseconds, within which {@code percentile} percent of the replies of
+    *       {@code member} arrive, or {@code -1} if no response time was recorded for {@code member}.
+    */
+   public long estimateResponseTime(Address member, double percentile) {
+      Estimate estimate = estimates.get(member);
+      if (estimate == null)
+         return -1;
+      double value = estimate.mean + normalQuantile(percentile / 100) * Math.sqrt(estimate.variance);
+      return Math.max(0, (long) value);
+   }
+
+   /**
+    * Forgets the response times of the nodes that are no longer in the cluster.
+    */
+   public void retainAll(Collection<Address> members) {
+      estimates.keySet().retainAll(members);
+   }
+
+   /**
+    * Rational approximation of the inverse of the standard normal distribution, from Abramowitz and Stegun,
+    * formula 26.2.23. The absolute error is below 4.5e-4.
+    */
+   static double normalQuantile(double p) {
+      if (p <= 0 || p >= 1)
+         throw new IllegalArgumentException("Probability must be between 0 and 1, exclusive: " + p);
+      if (p < 0.5)
+         return -normalQuantile(1 - p);
+      double t = Math.sqrt(-2 * Math.log(1 - p));
+      return t - (2.515517 + 0.802853 * t + 0.010328 * t * t) /
+            (1 + 1.432788 * t + 0.189269 * t * t + 0.001308 * t * t * t);
+   }
+
+   private static final class Estimate {
+      final double mean;
+      final double variance;
+
+      Estimate(double mean, double variance) {
+         this.mean = mean;
+         this.variance = variance;
+      }
+
+      Estimate update(long sample) {
+         double diff = sample - mean;
+         double increment = ALPHA * diff;
+         return new Estimate(mean + increment, (1 - ALPHA) * (variance + diff * increment));
+      }
+   }
+}
@@ -132,4 +132,13 @@ Map<Address, Response> invokeRemotely(Map<Address, ReplicableCommand> rpcCommand
     * protocol stack.
     */
    void checkTotalOrderSupported();
+
+   /**
+    * @return The estimated time, in nanoseconds, within which {@code percentile} percent of the replies of
+    *       {@code member} to remote gets arrive, or {@code -1} if the transport does not track the response times of {@code member}.
+    * @since 9.0
+    */
+   default long estimateResponseTime(Address member, double percentile) {
+      return -1;
+   }
 }
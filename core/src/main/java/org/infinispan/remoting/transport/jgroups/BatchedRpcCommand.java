@@ -0,0 +1,98 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.context.InvocationContext;
+import org.jgroups.util.Buffer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Envelope for several commands sent to the same node in a single message by the {@link CommandBatcher}.
+ * <p>
+ * The commands are kept in their marshalled form, and the receiving {@link CommandAwareRpcDispatcher} unmarshalls
+ * and handles each of them separately. The reply is a {@link org.infinispan.remoting.responses.SuccessfulResponse}
+ * with the list of the commands' responses, in the same order as the commands.
+ *
+ * @since 9.0
+ */
+public class BatchedRpcCommand implements ReplicableCommand {
+
+   public static final byte COMMAND_ID = 61;
+
+   private byte[][] commands;
+
+   public BatchedRpcCommand() {
+   }
+
+   BatchedRpcCommand(List<Buffer> buffers) {
+      commands = new byte[buffers.size()][];
+      for (int i = 0; i < commands.length; i++) {
+         Buffer buffer = buffers.get(i);
+         if (buffer.getOffset() == 0 && buffer.getLength() == buffer.getBuf().length) {
+            commands[i] = buffer.getBuf();
+         } else {
+            commands[i] = Arrays.copyOfRange(buffer.getBuf(), buffer.getOffset(),
+                  buffer.getOffset() + buffer.getLength());
+         }
+      }
+   }
+
+   public int size() {
+      return commands.length;
+   }
+
+   /**
+    * @return The marshalled form of the {@code index}-th command.
+    */
+   public byte[] getCommand(int index) {
+      return commands[index];
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      // The commands are handled one by one by the dispatcher
+      throw new UnsupportedOperationException();
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeInt(commands.length);
+      for (byte[] command : commands) {
+         output.writeInt(command.length);
+         output.write(command);
+      }
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      commands = new byte[input.readInt()][];
+      for (int i = 0; i < commands.length; i++) {
+         commands[i] = new byte[input.readInt()];
+         input.readFully(commands[i]);
+      }
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return false;
+   }
+
+   @Override
+   public String toString() {
+      return "BatchedRpcCommand{commands=" + commands.length + "}";
+   }
+}
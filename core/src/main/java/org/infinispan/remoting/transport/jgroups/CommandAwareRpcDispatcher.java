@@ -11,6 +11,7 @@
 import org.infinispan.remoting.responses.CacheNotFoundResponse;
 import org.infinispan.remoting.responses.ExceptionResponse;
 import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
@@ -36,11 +37,13 @@
 import org.jgroups.util.RspList;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.infinispan.remoting.transport.jgroups.JGroupsTransport.fromJGroupsAddress;
 
@@ -142,6 +145,18 @@ public SingleResponseFuture invokeRemoteCommand(Address recipient, ReplicableCom
       }
    }
 
+   /**
+    * Sends an already marshalled command to a single recipient.
+    */
+   SingleResponseFuture invokeRemoteBuffer(Address recipient, Buffer buf, boolean rsvp, ResponseMode mode,
+                                           long timeout, DeliverOrder deliverOrder) {
+      try {
+         return processSingleCall(buf, rsvp, timeout, recipient, mode, deliverOrder);
+      } catch (Exception e) {
+         return rethrowAsCacheException(e);
+      }
+   }
+
    public <T> T rethrowAsCacheException(Throwable t) {
       if (t instanceof CacheException)
          throw (CacheException) t;
@@ -162,6 +177,8 @@ public void handle(Message req, org.jgroups.blocks.Response response) throws Exc
                throw new NullPointerException("Unable to execute a null command!  Message was " + req);
             if (req.getSrc() instanceof SiteAddress) {
                executeCommandFromRemoteSite(cmd, req, response);
+            } else if (cmd instanceof BatchedRpcCommand) {
+               executeBatchFromLocalCluster((BatchedRpcCommand) cmd, req, response);
             } else {
                executeCommandFromLocalCluster(cmd, req, response);
             }
@@ -196,6 +213,37 @@ private void executeCommandFromLocalCluster(final ReplicableCommand cmd, final M
       handler.handleFromCluster(fromJGroupsAddress(req.getSrc()), cmd, reply, decodeDeliverMode(req));
    }
 
+   private void executeBatchFromLocalCluster(final BatchedRpcCommand batch, final Message req,
+                                             final org.jgroups.blocks.Response response) {
+      org.infinispan.remoting.transport.Address origin = fromJGroupsAddress(req.getSrc());
+      DeliverOrder deliverOrder = decodeDeliverMode(req);
+      int size = batch.size();
+      Object[] responses = new Object[size];
+      AtomicInteger remaining = new AtomicInteger(size);
+      for (int i = 0; i < size; i++) {
+         final int index = i;
+         Reply reply = returnValue -> {
+            responses[index] = returnValue;
+            if (remaining.decrementAndGet() == 0) {
+               CommandAwareRpcDispatcher.this.reply(response,
+                     SuccessfulResponse.create(new ArrayList<>(Arrays.asList(responses))), batch);
+            }
+         };
+         ReplicableCommand cmd = null;
+         try {
+            byte[] bytes = batch.getCommand(i);
+            cmd = (ReplicableCommand) req_marshaller.objectFromBuffer(bytes, 0, bytes.length);
+            handler.handleFromCluster(origin, cmd, reply, deliverOrder);
+         } catch (Throwable x) {
+            if (cmd == null)
+               log.errorUnMarshallingCommand(x);
+            else
+               log.exceptionHandlingCommand(cmd, x);
+            reply.reply(new ExceptionResponse(new CacheException("Problems invoking command.", x)));
+         }
+      }
+   }
+
    private static DeliverOrder decodeDeliverMode(Message request) {
       boolean noTotalOrder = request.isFlagSet(Message.Flag.NO_TOTAL_ORDER);
       boolean oob = request.isFlagSet(Message.Flag.OOB);
@@ -260,6 +308,10 @@ protected static Message constructMessage(Buffer buf, Address recipient,Response
       return msg;
    }
 
+   Buffer marshallCall(ReplicableCommand command) {
+      return marshallCall(req_marshaller, command);
+   }
+
    Buffer marshallCall(Marshaller marshaller, ReplicableCommand command) {
       Buffer buf;
       try {
@@ -282,6 +334,11 @@ private SingleResponseFuture processSingleCall(ReplicableCommand command, long t
       // Replay capability requires responses from all members!
       Buffer buf;
       buf = marshallCall(marshaller, command);
+      return processSingleCall(buf, rsvp, timeout, destination, mode, deliverOrder);
+   }
+
+   private SingleResponseFuture processSingleCall(Buffer buf, boolean rsvp, long timeout, Address destination,
+                                                  ResponseMode mode, DeliverOrder deliverOrder) throws Exception {
       Message msg = constructMessage(buf, destination, mode, rsvp, deliverOrder);
       NotifyingFuture<Response> request = sendMessageWithFuture(msg, new RequestOptions(mode, timeout));
       if (mode == ResponseMode.GET_NONE)
@@ -424,7 +481,7 @@ private RspListFuture processCalls(ReplicableCommand command, boolean broadcast,
       return retval;
    }
 
-   private static boolean isRsvpCommand(ReplicableCommand command) {
+   static boolean isRsvpCommand(ReplicableCommand command) {
       return command instanceof FlagAffectedCommand
             && ((FlagAffectedCommand) command).hasFlag(Flag.GUARANTEED_DELIVERY);
    }
@@ -0,0 +1,201 @@
+package org.infinispan.remoting.transport.jgroups;
+
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+import org.jgroups.Address;
+import org.jgroups.blocks.ResponseMode;
+import org.jgroups.util.Buffer;
+import org.jgroups.util.Rsp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces the synchronous unicast commands sent to the same node within a short window into a single
+ * {@link BatchedRpcCommand} message, and splits the reply back into the responses of the individual commands.
+ * <p>
+ * Only commands without ordering guarantees ({@link DeliverOrder#NONE}) are batched, so the batches can be sent
+ * independently of the other messages. The commands are marshalled when they are submitted, because the caller
+ * may modify them as soon as the RPC is started. A batch is sent when its window expires, or as soon as its
+ * commands exceed the byte budget.
+ *
+ * @since 9.0
+ */
+class CommandBatcher {
+   private static final Log log = LogFactory.getLog(CommandBatcher.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   private final CommandAwareRpcDispatcher dispatcher;
+   private final ScheduledExecutorService timeoutExecutor;
+   private final long windowNanos;
+   private final int maxBytes;
+   private final ConcurrentMap<Address, Batch> batches = new ConcurrentHashMap<>();
+
+   CommandBatcher(CommandAwareRpcDispatcher dispatcher, ScheduledExecutorService timeoutExecutor, long windowNanos,
+         int maxBytes) {
+      this.dispatcher = dispatcher;
+      this.timeoutExecutor = timeoutExecutor;
+      this.windowNanos = windowNanos;
+      this.maxBytes = maxBytes;
+   }
+
+   /**
+    * Queues a synchronous command for {@code destination}.
+    *
+    * @return A future that completes with the response of the command, like
+    *       {@link CommandAwareRpcDispatcher#invokeRemoteCommand(Address, ReplicableCommand, ResponseMode, long, DeliverOrder)}.
+    */
+   CompletableFuture<Rsp<Response>> submit(Address destination, ReplicableCommand command, long timeout) {
+      if (CommandAwareRpcDispatcher.isRsvpCommand(command)) {
+         return dispatcher.invokeRemoteCommand(destination, command, ResponseMode.GET_ALL, timeout, DeliverOrder.NONE);
+      }
+
+      PendingCommand pending = new PendingCommand(dispatcher.marshallCall(command), timeout);
+      Batch full = null;
+      Batch started = null;
+      while (true) {
+         Batch batch = batches.computeIfAbsent(destination, Batch::new);
+         synchronized (batch) {
+            if (batch.sent) {
+               // Another thread is sending it, try again with a new batch
+               continue;
+            }
+            batch.add(pending);
+            if (batch.bytes >= maxBytes) {
+               batch.sent = true;
+               batches.remove(destination, batch);
+               full = batch;
+            } else if (batch.commands.size() == 1) {
+               started = batch;
+            }
+         }
+         break;
+      }
+      if (full != null) {
+         send(full);
+      } else if (started != null) {
+         Batch batch = started;
+         timeoutExecutor.schedule(() -> flush(batch), windowNanos, TimeUnit.NANOSECONDS);
+      }
+      return pending.future;
+   }
+
+   /**
+    * Fails the commands that have not been sent yet.
+    */
+   void stop() {
+      for (Batch batch : batches.values()) {
+         synchronized (batch) {
+            if (batch.sent)
+               continue;
+            batch.sent = true;
+            batches.remove(batch.destination, batch);
+         }
+         CacheException exception = new CacheException("The transport has been stopped");
+         for (PendingCommand pending : batch.commands) {
+            pending.future.completeExceptionally(exception);
+         }
+      }
+   }
+
+   private void flush(Batch batch) {
+      synchronized (batch) {
+         if (batch.sent)
+            return;
+         batch.sent = true;
+         batches.remove(batch.destination, batch);
+      }
+      send(batch);
+   }
+
+   private void send(Batch batch) {
+      List<PendingCommand> commands = batch.commands;
+      try {
+         if (commands.size() == 1) {
+            PendingCommand pending = commands.get(0);
+            dispatcher.invokeRemoteBuffer(batch.destination, pending.buffer, false, ResponseMode.GET_ALL,
+                  pending.timeout, DeliverOrder.NONE).whenComplete((rsp, throwable) -> {
+               if (throwable != null) {
+                  pending.future.completeExceptionally(throwable);
+               } else {
+                  pending.future.complete(rsp);
+               }
+            });
+            return;
+         }
+
+         List<Buffer> buffers = new ArrayList<>(commands.size());
+         long timeout = 0;
+         for (PendingCommand pending : commands) {
+            buffers.add(pending.buffer);
+            timeout = Math.max(timeout, pending.timeout);
+         }
+         if (trace) log.tracef("Sending a batch of %d commands to %s", commands.size(), batch.destination);
+         dispatcher.invokeRemoteCommand(batch.destination, new BatchedRpcCommand(buffers), ResponseMode.GET_ALL,
+               timeout, DeliverOrder.NONE).whenComplete((rsp, throwable) -> splitResponse(commands, rsp, throwable));
+      } catch (Throwable t) {
+         for (PendingCommand pending : commands) {
+            pending.future.completeExceptionally(t);
+         }
+      }
+   }
+
+   private void splitResponse(List<PendingCommand> commands, Rsp<Response> rsp, Throwable throwable) {
+      if (throwable != null) {
+         for (PendingCommand pending : commands) {
+            pending.future.completeExceptionally(throwable);
+         }
+         return;
+      }
+      Response response = rsp.getValue();
+      if (rsp.wasReceived() && response instanceof SuccessfulResponse) {
+         List<?> responses = (List<?>) ((SuccessfulResponse) response).getResponseValue();
+         for (int i = 0; i < commands.size(); i++) {
+            commands.get(i).future.complete(new Rsp<>(rsp.getSender(), (Response) responses.get(i)));
+         }
+      } else {
+         // The whole batch failed, every command gets the same outcome
+         for (PendingCommand pending : commands) {
+            pending.future.complete(rsp);
+         }
+      }
+   }
+
+   private static final class PendingCommand {
+      final Buffer buffer;
+      final long timeout;
+      final CompletableFuture<Rsp<Response>> future = new CompletableFuture<>();
+
+      PendingCommand(Buffer buffer, long timeout) {
+         this.buffer = buffer;
+         this.timeout = timeout;
+      }
+   }
+
+   private static final class Batch {
+      final Address destination;
+      final List<PendingCommand> commands = new ArrayList<>();
+      int bytes;
+      // Guarded by this
+      boolean sent;
+
+      Batch(Address destination) {
+         this.destination = destination;
+      }
+
+      void add(PendingCommand pending) {
+         commands.add(pending);
+         bytes += pending.buffer.getLength();
+      }
+   }
+}
@@ -1,6 +1,7 @@
 package org.infinispan.remoting.transport.jgroups;
 
 import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
 import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.marshall.StreamingMarshaller;
@@ -28,6 +29,7 @@
 import org.infinispan.remoting.transport.AbstractTransport;
 import org.infinispan.remoting.transport.Address;
 import org.infinispan.remoting.transport.BackupResponse;
+import org.infinispan.remoting.transport.ResponseTimeTracker;
 import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.BlockingTaskAwareExecutorService;
 import org.infinispan.util.concurrent.CompletableFutures;
@@ -102,6 +104,16 @@ public class JGroupsTransport extends AbstractTransport implements MembershipLis
    public static final String CONFIGURATION_XML = "configurationXml";
    public static final String CONFIGURATION_FILE = "configurationFile";
    public static final String CHANNEL_LOOKUP = "channelLookup";
+   /**
+    * Transport property enabling the batching of synchronous unicast commands without ordering guarantees.
+    * Commands sent to the same node within this many microseconds are sent in a single message. Disabled by default.
+    */
+   public static final String BATCHING_WINDOW = "batchingWindowMicros";
+   /**
+    * Transport property limiting the size of a batch, in marshalled bytes. A batch that reaches it is sent without
+    * waiting for the rest of the {@link #BATCHING_WINDOW}. Defaults to 16384.
+    */
+   public static final String BATCHING_MAX_BYTES = "batchingMaxBytes";
    protected static final String DEFAULT_JGROUPS_CONFIGURATION_FILE = "default-configs/default-jgroups-udp.xml";
 
    private static final Log log = LogFactory.getLog(JGroupsTransport.class);
@@ -109,6 +121,7 @@ public class JGroupsTransport extends AbstractTransport implements MembershipLis
 
    protected boolean connectChannel = true, disconnectChannel = true, closeChannel = true;
    protected CommandAwareRpcDispatcher dispatcher;
+   private volatile CommandBatcher batcher;
    protected TypedProperties props;
    protected StreamingMarshaller marshaller;
    protected CacheManagerNotifier notifier;
@@ -116,6 +129,7 @@ public class JGroupsTransport extends AbstractTransport implements MembershipLis
    protected TimeService timeService;
    protected InboundInvocationHandler globalHandler;
    private ScheduledExecutorService timeoutExecutor;
+   private final ResponseTimeTracker responseTimeTracker = new ResponseTimeTracker();
 
    private boolean globalStatsEnabled;
    private MBeanServer mbeanServer;
@@ -269,6 +283,11 @@ public boolean waitForView(int viewId, long timeout, TimeUnit timeUnit) throws I
 
    @Override
    public void stop() {
+      CommandBatcher batcher = this.batcher;
+      if (batcher != null) {
+         this.batcher = null;
+         batcher.stop();
+      }
       if (channel != null) {
          channel.getProtocolStack().getTransport().unregisterProbeHandler(handler);
       }
@@ -384,6 +403,12 @@ protected void initRPCDispatcher() {
       dispatcher.setRequestMarshaller(adapter);
       dispatcher.setResponseMarshaller(adapter);
       dispatcher.start();
+
+      long batchingWindow = props.getLongProperty(BATCHING_WINDOW, 0);
+      if (batchingWindow > 0) {
+         batcher = new CommandBatcher(dispatcher, timeoutExecutor, TimeUnit.MICROSECONDS.toNanos(batchingWindow),
+               props.getIntProperty(BATCHING_MAX_BYTES, 16384));
+      }
    }
 
    // This is per CM, so the CL in use should be the CM CL
@@ -589,8 +614,12 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
       List<Address> localMembers = this.members;
       int membersSize = localMembers.size();
       boolean broadcast = membersSize > 2 && (jgAddressList == null || recipients.size() == membersSize);
+      long startNanos = timeService.time();
+      // Only the remote gets are timed: the estimates are used to stagger them, and writes take longer
+      boolean recordResponseTime = rpcCommand instanceof ClusteredGetCommand && jgAddressList != null &&
+            jgAddressList.size() == 1;
       CompletableFuture<RspList<Response>> rspListFuture = null;
-      SingleResponseFuture singleResponseFuture = null;
+      CompletableFuture<Rsp<Response>> singleResponseFuture = null;
       org.jgroups.Address singleJGAddress = null;
 
       if (broadcast) {
@@ -624,7 +653,11 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
             return CompletableFutures.returnEmptyMap();
          }
 
-         if (singleRecipient) {
+         CommandBatcher batcher = this.batcher;
+         if (singleRecipient && batcher != null && mode == ResponseMode.SYNCHRONOUS &&
+               deliverOrder == DeliverOrder.NONE) {
+            singleResponseFuture = batcher.submit(singleJGAddress, rpcCommand, timeout);
+         } else if (singleRecipient) {
             singleResponseFuture = dispatcher
                   .invokeRemoteCommand(singleJGAddress, rpcCommand, toJGroupsMode(mode), timeout,
                         deliverOrder);
@@ -645,6 +678,9 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
             if (trace)
                log.tracef("Responses: %s", rsp);
             Address sender = fromJGroupsAddress(rsp.getSender());
+            if (recordResponseTime && rsp.wasReceived()) {
+               responseTimeTracker.recordResponseTime(sender, timeService.timeDuration(startNanos, TimeUnit.NANOSECONDS));
+            }
             Response response = checkRsp(rsp, sender, ignoreTimeout(responseFilter), false);
             return Collections.singletonMap(sender, response);
          });
@@ -660,6 +696,10 @@ public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<
             for (Rsp<Response> rsp : rsps.values()) {
                hasResponses |= rsp.wasReceived();
                Address sender = fromJGroupsAddress(rsp.getSender());
+               if (recordResponseTime && rsp.wasReceived()) {
+                  // The time is only meaningful for the target when it is the only one
+                  responseTimeTracker.recordResponseTime(sender, timeService.timeDuration(startNanos, TimeUnit.NANOSECONDS));
+               }
                Response response = checkRsp(rsp, sender, ignoreTimeout(responseFilter), ignoreLeavers);
                if (response != null) {
                   hasValidResponses = true;
@@ -883,6 +923,7 @@ public void viewAccepted(View newView) {
 
          // we need a defensive copy anyway
          members = fromJGroupsAddressList(newMembers);
+         responseTimeTracker.retainAll(members);
 
          // Delta view debug log for large cluster
          if (log.isDebugEnabled() && oldMembers != null) {
@@ -990,6 +1031,11 @@ public Channel getChannel() {
       return channel;
    }
 
+   @Override
+   public long estimateResponseTime(Address member, double percentile) {
+      return responseTimeTracker.estimateResponseTime(member, percentile);
+   }
+
    @Override
    public final void checkTotalOrderSupported() {
       //For replicated and distributed tx caches, we use TOA as total order protocol.
@@ -0,0 +1,196 @@
+package org.infinispan.statetransfer;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.infinispan.commands.remote.BaseRpcCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.MarshallUtil;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.util.ByteString;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Sent by the primary owner of a segment to a backup owner, to compare their copies of the segment and to repair the
+ * backup's copy.
+ *
+ * @since 9.0
+ */
+public class AntiEntropyCommand extends BaseRpcCommand {
+
+   private static final Log log = LogFactory.getLog(AntiEntropyCommand.class);
+
+   public enum Type {
+      /**
+       * Requests the hashes of some nodes of a level of the segment's tree. Requesting the root rebuilds the tree.
+       */
+      GET_HASHES,
+      /**
+       * Requests the hashes of the entries in some leaves of the segment's tree.
+       */
+      GET_KEY_HASHES,
+      /**
+       * Overwrites the backup's copy of some keys with the primary's copy.
+       */
+      REPAIR;
+
+      private static final Type[] CACHED_VALUES = values();
+   }
+
+   public static final byte COMMAND_ID = 62;
+
+   private Type type;
+
+   private int topologyId;
+
+   private int segmentId;
+
+   private int level;
+
+   private int[] indices;
+
+   private Collection<InternalCacheEntry> entries;
+
+   private Collection<Object> removedKeys;
+
+   private AntiEntropyManager antiEntropyManager;
+
+   private AntiEntropyCommand() {
+      super(null);  // for command id uniqueness test
+   }
+
+   public AntiEntropyCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public AntiEntropyCommand(ByteString cacheName, Type type, int topologyId, int segmentId, int level, int[] indices,
+                             Collection<InternalCacheEntry> entries, Collection<Object> removedKeys) {
+      super(cacheName);
+      this.type = type;
+      this.topologyId = topologyId;
+      this.segmentId = segmentId;
+      this.level = level;
+      this.indices = indices;
+      this.entries = entries;
+      this.removedKeys = removedKeys;
+   }
+
+   public void init(AntiEntropyManager antiEntropyManager) {
+      this.antiEntropyManager = antiEntropyManager;
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      final boolean trace = log.isTraceEnabled();
+      LogFactory.pushNDC(cacheName, trace);
+      try {
+         if (antiEntropyManager == null) {
+            throw new CacheException("Anti-entropy is not enabled on this node");
+         }
+         switch (type) {
+            case GET_HASHES:
+               return antiEntropyManager.getHashes(getOrigin(), topologyId, segmentId, level, indices);
+            case GET_KEY_HASHES:
+               return antiEntropyManager.getKeyHashes(getOrigin(), topologyId, segmentId, indices);
+            case REPAIR:
+               return antiEntropyManager.applyRepair(getOrigin(), topologyId, segmentId, entries, removedKeys);
+            default:
+               throw new CacheException("Unknown anti-entropy command type: " + type);
+         }
+      } finally {
+         LogFactory.popNDC(trace);
+      }
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return true;
+   }
+
+   @Override
+   public boolean canBlock() {
+      // The hashes are computed by iterating over the segment, and the repair writes to the data container
+      return true;
+   }
+
+   public Type getType() {
+      return type;
+   }
+
+   public int getSegmentId() {
+      return segmentId;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      MarshallUtil.marshallEnum(type, output);
+      output.writeInt(topologyId);
+      output.writeInt(segmentId);
+      switch (type) {
+         case GET_HASHES:
+            output.writeInt(level);
+            // fall through
+         case GET_KEY_HASHES:
+            output.writeInt(indices.length);
+            for (int index : indices) {
+               output.writeInt(index);
+            }
+            return;
+         case REPAIR:
+            MarshallUtil.marshallCollection(entries, output);
+            MarshallUtil.marshallCollection(removedKeys, output);
+            return;
+         default:
+            throw new IllegalStateException("Unknown anti-entropy command type: " + type);
+      }
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      type = MarshallUtil.unmarshallEnum(input, ordinal -> Type.CACHED_VALUES[ordinal]);
+      topologyId = input.readInt();
+      segmentId = input.readInt();
+      switch (type) {
+         case GET_HASHES:
+            level = input.readInt();
+            // fall through
+         case GET_KEY_HASHES:
+            indices = new int[input.readInt()];
+            for (int i = 0; i < indices.length; i++) {
+               indices[i] = input.readInt();
+            }
+            return;
+         case REPAIR:
+            entries = MarshallUtil.unmarshallCollection(input, ArrayList::new);
+            removedKeys = MarshallUtil.unmarshallCollection(input, ArrayList::new);
+            return;
+         default:
+            throw new IllegalStateException("Unknown anti-entropy command type: " + type);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "AntiEntropyCommand{" +
+            "cache=" + cacheName +
+            ", origin=" + getOrigin() +
+            ", type=" + type +
+            ", topologyId=" + topologyId +
+            ", segmentId=" + segmentId +
+            ", level=" + level +
+            ", indices=" + (indices == null ? 0 : indices.length) +
+            ", entries=" + (entries == null ? 0 : entries.size()) +
+            ", removedKeys=" + (removedKeys == null ? 0 : removedKeys.size()) +
+            '}';
+   }
+}
@@ -0,0 +1,65 @@
+package org.infinispan.statetransfer;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.factories.scopes.Scope;
+import org.infinispan.factories.scopes.Scopes;
+import org.infinispan.remoting.transport.Address;
+
+/**
+ * Periodically compares the copies of the segments owned by the local node with the copies of the other owners, and
+ * repairs the copies that diverged.
+ * <p>
+ * The primary owner of a segment is the one that starts the comparison, and its copy is the one that wins: the backup
+ * owners' copies of the keys that differ are overwritten with the primary owner's copy, or removed. The owners only
+ * exchange the hashes of the {@link SegmentMerkleTree} nodes that differ and then the keys of the leaves that differ,
+ * so the cost of a comparison depends on the number of differences rather than on the size of the segment.
+ * <p>
+ * Only present in distributed and replicated caches, when
+ * {@link org.infinispan.configuration.cache.ClusteringConfiguration#antiEntropyInterval()} is greater than 0.
+ *
+ * @since 9.0
+ */
+@Scope(Scopes.NAMED_CACHE)
+public interface AntiEntropyManager {
+
+   /**
+    * Compares the next segment for which the local node is the primary owner with its backup owners.
+    *
+    * @return {@code true} if a segment was compared, {@code false} if the comparison was skipped, e.g. because a
+    *       rebalance is in progress.
+    */
+   boolean checkNextSegment() throws InterruptedException;
+
+   /**
+    * Compares a segment with its backup owners. Does nothing if the local node is not the primary owner of the
+    * segment.
+    *
+    * @return {@code true} if the segment was compared.
+    */
+   boolean checkSegment(int segmentId) throws InterruptedException;
+
+   /**
+    * @return The hashes of the given nodes of a level of the local tree of the segment, or {@code null} if the local
+    *       topology is not {@code topologyId}.
+    */
+   long[] getHashes(Address origin, int topologyId, int segmentId, int level, int[] indices)
+         throws InterruptedException;
+
+   /**
+    * @return The hashes of the local entries in the given leaves of the segment's tree, by key, or {@code null} if
+    *       the local topology is not {@code topologyId}.
+    */
+   Map<Object, Long> getKeyHashes(Address origin, int topologyId, int segmentId, int[] leaves)
+         throws InterruptedException;
+
+   /**
+    * Overwrites the local copy of the given keys with the primary owner's copy.
+    *
+    * @return The number of repaired keys, or {@code null} if the local topology is not {@code topologyId}.
+    */
+   Integer applyRepair(Address origin, int topologyId, int segmentId, Collection<InternalCacheEntry> entries,
+                       Collection<Object> removedKeys);
+}
@@ -0,0 +1,599 @@
+package org.infinispan.statetransfer;
+
+import static org.infinispan.context.Flag.CACHE_MODE_LOCAL;
+import static org.infinispan.context.Flag.IGNORE_RETURN_VALUES;
+import static org.infinispan.context.Flag.PUT_FOR_STATE_TRANSFER;
+import static org.infinispan.context.Flag.SKIP_LOCKING;
+import static org.infinispan.context.Flag.SKIP_OWNERSHIP_CHECK;
+import static org.infinispan.context.Flag.SKIP_REMOTE_LOOKUP;
+import static org.infinispan.context.Flag.SKIP_SHARED_CACHE_STORE;
+import static org.infinispan.context.Flag.SKIP_XSITE_BACKUP;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+import static org.infinispan.factories.KnownComponentNames.STATE_TRANSFER_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commands.write.InvalidateCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.equivalence.AnyEquivalence;
+import org.infinispan.commons.equivalence.Equivalence;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.commons.util.CollectionFactory;
+import org.infinispan.commons.util.EnumUtil;
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.context.InvocationContextFactory;
+import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.factories.annotations.ComponentName;
+import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
+import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.jmx.annotations.DisplayType;
+import org.infinispan.jmx.annotations.MBean;
+import org.infinispan.jmx.annotations.ManagedAttribute;
+import org.infinispan.jmx.annotations.ManagedOperation;
+import org.infinispan.jmx.annotations.MeasurementType;
+import org.infinispan.jmx.annotations.Units;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.responses.SuccessfulResponse;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.topology.CacheTopology;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * {@link AntiEntropyManager} implementation that compares one segment every
+ * {@link org.infinispan.configuration.cache.ClusteringConfiguration#antiEntropyInterval()} milliseconds, so that the
+ * comparisons never use more than one state transfer thread, and the cache can limit their impact by increasing the
+ * interval. Segments are not compared while a rebalance is in progress.
+ *
+ * @since 9.0
+ */
+@MBean(objectName = "AntiEntropy", description = "Component that repairs the differences between the owners of a segment")
+public class AntiEntropyManagerImpl implements AntiEntropyManager {
+
+   private static final Log log = LogFactory.getLog(AntiEntropyManagerImpl.class);
+   private static final boolean trace = log.isTraceEnabled();
+
+   // Same as the state transfer, so that the repair is discarded if a regular write updates the key concurrently
+   private static final long REPAIR_FLAGS = EnumUtil.bitSetOf(PUT_FOR_STATE_TRANSFER, CACHE_MODE_LOCAL,
+                                                              IGNORE_RETURN_VALUES, SKIP_REMOTE_LOOKUP,
+                                                              SKIP_SHARED_CACHE_STORE, SKIP_OWNERSHIP_CHECK,
+                                                              SKIP_XSITE_BACKUP);
+
+   private String cacheName;
+   private Cache<?, ?> cache;
+   private Configuration configuration;
+   private ScheduledExecutorService timeoutExecutor;
+   private ExecutorService stateTransferExecutor;
+   private StateTransferManager stateTransferManager;
+   private RpcManager rpcManager;
+   private CommandsFactory commandsFactory;
+   private DataContainer<Object, Object> dataContainer;
+   private KeyPartitioner keyPartitioner;
+   private LockManager lockManager;
+   private InterceptorChain interceptorChain;
+   private InvocationContextFactory icf;
+   private TransactionManager transactionManager;
+   private StreamingMarshaller marshaller;
+
+   private Equivalence<Object> keyEquivalence;
+   private RpcOptions rpcOptions;
+   private ScheduledFuture<?> checkTask;
+   private final AtomicBoolean checkInProgress = new AtomicBoolean();
+   // Only accessed by the thread that holds checkInProgress
+   private int nextSegment;
+
+   // The tree that was built for the last root hash request of each primary owner
+   private final ConcurrentMap<Address, SegmentTree> requestedTrees = new ConcurrentHashMap<>();
+
+   private final AtomicLong segmentsCompared = new AtomicLong();
+   private final AtomicLong segmentsMismatched = new AtomicLong();
+   private final AtomicLong keysRepaired = new AtomicLong();
+   private final AtomicLong hashesExchanged = new AtomicLong();
+   private final AtomicLong roundsCompleted = new AtomicLong();
+   private volatile int progress;
+
+   @Inject
+   public void init(Cache<?, ?> cache, Configuration configuration,
+                    @ComponentName(TIMEOUT_SCHEDULE_EXECUTOR) ScheduledExecutorService timeoutExecutor,
+                    @ComponentName(STATE_TRANSFER_EXECUTOR) ExecutorService stateTransferExecutor,
+                    StateTransferManager stateTransferManager, RpcManager rpcManager,
+                    CommandsFactory commandsFactory, DataContainer<Object, Object> dataContainer,
+                    KeyPartitioner keyPartitioner, LockManager lockManager, InterceptorChain interceptorChain,
+                    InvocationContextFactory icf, TransactionManager transactionManager,
+                    @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
+      this.cache = cache;
+      this.cacheName = cache.getName();
+      this.configuration = configuration;
+      this.timeoutExecutor = timeoutExecutor;
+      this.stateTransferExecutor = stateTransferExecutor;
+      this.stateTransferManager = stateTransferManager;
+      this.rpcManager = rpcManager;
+      this.commandsFactory = commandsFactory;
+      this.dataContainer = dataContainer;
+      this.keyPartitioner = keyPartitioner;
+      this.lockManager = lockManager;
+      this.interceptorChain = interceptorChain;
+      this.icf = icf;
+      this.transactionManager = transactionManager;
+      this.marshaller = marshaller;
+   }
+
+   @Start
+   public void start() {
+      rpcOptions = rpcManager.getDefaultRpcOptions(true);
+      keyEquivalence = configuration.dataContainer().keyEquivalence();
+      long interval = configuration.clustering().antiEntropyInterval();
+      checkTask = timeoutExecutor.scheduleWithFixedDelay(this::scheduleCheck, interval, interval, TimeUnit.MILLISECONDS);
+   }
+
+   @Stop
+   public void stop() {
+      if (checkTask != null) {
+         checkTask.cancel(false);
+      }
+      requestedTrees.clear();
+   }
+
+   private void scheduleCheck() {
+      // The timeout executor is shared, so it must not block
+      if (!checkInProgress.compareAndSet(false, true)) {
+         return;
+      }
+      try {
+         stateTransferExecutor.execute(() -> {
+            LogFactory.pushNDC(cacheName, trace);
+            try {
+               checkNextSegment();
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            } catch (Throwable t) {
+               if (cache.getStatus().allowInvocations()) {
+                  log.debugf(t, "Anti-entropy check of cache %s failed", cacheName);
+               }
+            } finally {
+               checkInProgress.set(false);
+               LogFactory.popNDC(trace);
+            }
+         });
+      } catch (RejectedExecutionException e) {
+         checkInProgress.set(false);
+      }
+   }
+
+   @Override
+   public boolean checkNextSegment() throws InterruptedException {
+      CacheTopology topology = stateTransferManager.getCacheTopology();
+      if (topology == null || topology.getPendingCH() != null) {
+         if (trace) log.tracef("Skipping the anti-entropy check of cache %s, a rebalance is in progress", cacheName);
+         return false;
+      }
+      ConsistentHash ch = topology.getCurrentCH();
+      int numSegments = ch.getNumSegments();
+      for (int i = 0; i < numSegments; i++) {
+         int segmentId = nextSegment % numSegments;
+         nextSegment = segmentId + 1;
+         if (nextSegment == numSegments) {
+            nextSegment = 0;
+            roundsCompleted.incrementAndGet();
+         }
+         progress = nextSegment * 100 / numSegments;
+         if (isPrimaryWithBackups(ch, segmentId)) {
+            return compareWithBackups(topology, segmentId);
+         }
+      }
+      return false;
+   }
+
+   @Override
+   public boolean checkSegment(int segmentId) throws InterruptedException {
+      CacheTopology topology = stateTransferManager.getCacheTopology();
+      if (topology == null || topology.getPendingCH() != null || !isPrimaryWithBackups(topology.getCurrentCH(), segmentId))
+         return false;
+      return compareWithBackups(topology, segmentId);
+   }
+
+   private boolean isPrimaryWithBackups(ConsistentHash ch, int segmentId) {
+      List<Address> owners = ch.locateOwnersForSegment(segmentId);
+      return owners.size() > 1 && owners.get(0).equals(rpcManager.getAddress());
+   }
+
+   private boolean compareWithBackups(CacheTopology topology, int segmentId) throws InterruptedException {
+      SegmentMerkleTree localTree = buildTree(segmentId);
+      List<Address> owners = topology.getCurrentCH().locateOwnersForSegment(segmentId);
+      boolean compared = true;
+      boolean mismatched = false;
+      for (Address backup : owners.subList(1, owners.size())) {
+         Set<Object> differentKeys = findDifferentKeys(backup, topology.getTopologyId(), segmentId, localTree);
+         if (differentKeys == null) {
+            compared = false;
+         } else if (!differentKeys.isEmpty()) {
+            mismatched = true;
+            log.debugf("Segment %d of cache %s has %d different keys on node %s, repairing them", segmentId,
+                  cacheName, differentKeys.size(), backup);
+            repair(backup, topology.getTopologyId(), segmentId, differentKeys);
+         }
+      }
+      if (compared) {
+         segmentsCompared.incrementAndGet();
+      }
+      if (mismatched) {
+         segmentsMismatched.incrementAndGet();
+      }
+      return compared;
+   }
+
+   /**
+    * @return The keys whose entries differ between the local node and the backup, or {@code null} if the backup
+    *       could not compare them.
+    */
+   private Set<Object> findDifferentKeys(Address backup, int topologyId, int segmentId, SegmentMerkleTree localTree)
+         throws InterruptedException {
+      int[] nodes = {0};
+      int level = 0;
+      while (true) {
+         long[] remoteHashes = (long[]) invoke(backup, commandsFactory.buildAntiEntropyCommand(
+               AntiEntropyCommand.Type.GET_HASHES, topologyId, segmentId, level, nodes, null, null));
+         if (remoteHashes == null)
+            return null;
+         hashesExchanged.addAndGet(nodes.length);
+
+         long[] localHashes = localTree.getHashes(level, nodes);
+         int numDifferent = 0;
+         for (int i = 0; i < nodes.length; i++) {
+            if (localHashes[i] != remoteHashes[i]) {
+               nodes[numDifferent++] = nodes[i];
+            }
+         }
+         if (numDifferent == 0)
+            return Collections.emptySet();
+
+         nodes = Arrays.copyOf(nodes, numDifferent);
+         if (level == SegmentMerkleTree.DEPTH)
+            break;
+         nodes = SegmentMerkleTree.children(nodes);
+         level++;
+      }
+
+      // nodes are the leaves that differ
+      Map<Object, Long> receivedKeyHashes = (Map<Object, Long>) invoke(backup, commandsFactory.buildAntiEntropyCommand(
+            AntiEntropyCommand.Type.GET_KEY_HASHES, topologyId, segmentId, level, nodes, null, null));
+      if (receivedKeyHashes == null)
+         return null;
+      hashesExchanged.addAndGet(receivedKeyHashes.size());
+
+      // The received keys are copies, so they must be compared with the local ones by content
+      Map<Object, Long> remoteKeyHashes = CollectionFactory.makeMap(receivedKeyHashes, keyEquivalence,
+            AnyEquivalence.getInstance());
+      Map<Object, Long> localKeyHashes = computeKeyHashes(segmentId, nodes);
+      Set<Object> differentKeys = CollectionFactory.makeSet(keyEquivalence);
+      for (Map.Entry<Object, Long> e : localKeyHashes.entrySet()) {
+         if (!e.getValue().equals(remoteKeyHashes.get(e.getKey()))) {
+            differentKeys.add(e.getKey());
+         }
+      }
+      for (Object key : remoteKeyHashes.keySet()) {
+         if (!localKeyHashes.containsKey(key)) {
+            differentKeys.add(key);
+         }
+      }
+      return differentKeys;
+   }
+
+   private void repair(Address backup, int topologyId, int segmentId, Set<Object> keys) throws InterruptedException {
+      // Lock the keys, so that the backup can't receive a newer write before the repair
+      Object lockOwner = new Object();
+      lockManager.lockAll(keys, lockOwner, configuration.locking().lockAcquisitionTimeout(), TimeUnit.MILLISECONDS)
+            .lock();
+      try {
+         CacheTopology topology = stateTransferManager.getCacheTopology();
+         if (topology == null || topology.getTopologyId() != topologyId) {
+            log.debugf("Not repairing segment %d of cache %s, the topology has changed", segmentId, cacheName);
+            return;
+         }
+         List<InternalCacheEntry> entries = new ArrayList<>();
+         List<Object> removedKeys = new ArrayList<>();
+         for (Object key : keys) {
+            InternalCacheEntry entry = dataContainer.peek(key);
+            if (entry != null) {
+               entries.add(entry);
+            } else {
+               removedKeys.add(key);
+            }
+         }
+         Integer repaired = (Integer) invoke(backup, commandsFactory.buildAntiEntropyCommand(
+               AntiEntropyCommand.Type.REPAIR, topologyId, segmentId, 0, null, entries, removedKeys));
+         if (repaired != null) {
+            keysRepaired.addAndGet(repaired);
+         }
+      } finally {
+         lockManager.unlockAll(keys, lockOwner);
+      }
+   }
+
+   private Object invoke(Address backup, AntiEntropyCommand command) {
+      try {
+         Response response = rpcManager.invokeRemotely(Collections.singleton(backup), command, rpcOptions).get(backup);
+         if (response instanceof SuccessfulResponse) {
+            return ((SuccessfulResponse) response).getResponseValue();
+         }
+         log.debugf("Anti-entropy request %s of cache %s failed on node %s: %s", command.getType(), cacheName, backup,
+               response);
+      } catch (CacheException e) {
+         log.debugf(e, "Anti-entropy request %s of cache %s failed on node %s", command.getType(), cacheName, backup);
+      }
+      return null;
+   }
+
+   @Override
+   public long[] getHashes(Address origin, int topologyId, int segmentId, int level, int[] indices)
+         throws InterruptedException {
+      if (!isCurrentTopology(topologyId))
+         return null;
+
+      SegmentTree requested = requestedTrees.get(origin);
+      if (level == 0 || requested == null || requested.topologyId != topologyId || requested.segmentId != segmentId) {
+         // The primary owner starts the comparison of a segment by requesting the root
+         requested = new SegmentTree(topologyId, segmentId, buildTree(segmentId));
+         requestedTrees.put(origin, requested);
+      }
+      return requested.tree.getHashes(level, indices);
+   }
+
+   @Override
+   public Map<Object, Long> getKeyHashes(Address origin, int topologyId, int segmentId, int[] leaves)
+         throws InterruptedException {
+      if (!isCurrentTopology(topologyId))
+         return null;
+
+      requestedTrees.remove(origin);
+      // The reply is marshalled, so it must not use the key equivalence
+      return new HashMap<>(computeKeyHashes(segmentId, leaves));
+   }
+
+   @Override
+   public Integer applyRepair(Address origin, int topologyId, int segmentId, Collection<InternalCacheEntry> entries,
+                              Collection<Object> removedKeys) {
+      if (!isCurrentTopology(topologyId))
+         return null;
+
+      if (trace) log.tracef("Repairing %d entries and removing %d keys of segment %d of cache %s", entries.size(),
+            removedKeys.size(), segmentId, cacheName);
+      int repaired = 0;
+      boolean transactional = transactionManager != null;
+      for (InternalCacheEntry e : entries) {
+         try {
+            InvocationContext ctx;
+            if (transactional) {
+               transactionManager.begin();
+               ctx = icf.createInvocationContext(transactionManager.getTransaction(), true);
+               ((TxInvocationContext) ctx).getCacheTransaction().setStateTransferFlag(PUT_FOR_STATE_TRANSFER);
+            } else {
+               ctx = icf.createSingleKeyNonTxInvocationContext();
+            }
+
+            PutKeyValueCommand put = commandsFactory.buildPutKeyValueCommand(e.getKey(), e.getValue(), e.getMetadata(),
+                  REPAIR_FLAGS);
+            ctx.setLockOwner(put.getKeyLockOwner());
+            interceptorChain.invoke(ctx, put);
+
+            if (transactional) {
+               transactionManager.commit();
+            }
+            repaired++;
+         } catch (Exception ex) {
+            if (!cache.getStatus().allowInvocations()) {
+               log.debugf("Cache %s is shutting down, stopping the repair", cacheName);
+               return repaired;
+            }
+            log.debugf(ex, "Failed to repair key %s of cache %s", e.getKey(), cacheName);
+         } finally {
+            try {
+               if (transactional && transactionManager.getTransaction() != null) {
+                  transactionManager.rollback();
+               }
+            } catch (SystemException e1) {
+               // Ignore
+            }
+         }
+      }
+
+      if (!removedKeys.isEmpty()) {
+         try {
+            InvalidateCommand invalidateCmd = commandsFactory.buildInvalidateCommand(
+                  EnumUtil.bitSetOf(CACHE_MODE_LOCAL, SKIP_LOCKING), removedKeys.toArray());
+            InvocationContext ctx = icf.createNonTxInvocationContext();
+            ctx.setLockOwner(invalidateCmd.getKeyLockOwner());
+            interceptorChain.invoke(ctx, invalidateCmd);
+            repaired += removedKeys.size();
+         } catch (CacheException ex) {
+            log.failedToInvalidateKeys(ex);
+         }
+      }
+      return repaired;
+   }
+
+   private boolean isCurrentTopology(int topologyId) {
+      CacheTopology topology = stateTransferManager.getCacheTopology();
+      if (topology == null || topology.getTopologyId() != topologyId) {
+         if (trace) log.tracef("Ignoring anti-entropy request of cache %s with topology %d, the local topology is %s",
+               cacheName, topologyId, topology != null ? topology.getTopologyId() : null);
+         return false;
+      }
+      return true;
+   }
+
+   private SegmentMerkleTree buildTree(int segmentId) throws InterruptedException {
+      SegmentMerkleTree tree = new SegmentMerkleTree(marshaller);
+      Iterator<InternalCacheEntry<Object, Object>> it = segmentIterator(segmentId);
+      while (it.hasNext()) {
+         tree.add(it.next());
+      }
+      return tree.build();
+   }
+
+   private Map<Object, Long> computeKeyHashes(int segmentId, int[] leaves) throws InterruptedException {
+      Set<Integer> leafSet = new HashSet<>(leaves.length);
+      for (int leaf : leaves) {
+         leafSet.add(leaf);
+      }
+      Map<Object, Long> keyHashes = CollectionFactory.makeMap(keyEquivalence, AnyEquivalence.getInstance());
+      Iterator<InternalCacheEntry<Object, Object>> it = segmentIterator(segmentId);
+      while (it.hasNext()) {
+         InternalCacheEntry<Object, Object> entry = it.next();
+         long keyHash = SegmentMerkleTree.keyHash(marshaller, entry.getKey());
+         if (leafSet.contains(SegmentMerkleTree.leafIndex(keyHash))) {
+            keyHashes.put(entry.getKey(), SegmentMerkleTree.entryHash(marshaller, keyHash, entry));
+         }
+      }
+      return keyHashes;
+   }
+
+   private Iterator<InternalCacheEntry<Object, Object>> segmentIterator(int segmentId) {
+      if (dataContainer instanceof SegmentedDataContainer) {
+         return ((SegmentedDataContainer<Object, Object>) dataContainer).iterator(Collections.singleton(segmentId));
+      }
+      Iterator<InternalCacheEntry<Object, Object>> all = dataContainer.iterator();
+      return new Iterator<InternalCacheEntry<Object, Object>>() {
+         private InternalCacheEntry<Object, Object> next = advance();
+
+         private InternalCacheEntry<Object, Object> advance() {
+            while (all.hasNext()) {
+               InternalCacheEntry<Object, Object> entry = all.next();
+               if (keyPartitioner.getSegment(entry.getKey()) == segmentId)
+                  return entry;
+            }
+            return null;
+         }
+
+         @Override
+         public boolean hasNext() {
+            return next != null;
+         }
+
+         @Override
+         public InternalCacheEntry<Object, Object> next() {
+            InternalCacheEntry<Object, Object> entry = next;
+            if (entry == null)
+               throw new NoSuchElementException();
+            next = advance();
+            return entry;
+         }
+      };
+   }
+
+   @ManagedAttribute(
+         description = "Number of segment comparisons between the local node, as primary owner, and all the backup owners",
+         displayName = "Segments compared",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getSegmentsCompared() {
+      return segmentsCompared.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of segment comparisons that found differences between the owners",
+         displayName = "Segments mismatched",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getSegmentsMismatched() {
+      return segmentsMismatched.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of keys overwritten or removed on the backup owners",
+         displayName = "Keys repaired",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getKeysRepaired() {
+      return keysRepaired.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of tree node and key hashes received from the backup owners",
+         displayName = "Hashes exchanged",
+         measurementType = MeasurementType.TRENDSUP,
+         displayType = DisplayType.DETAIL
+   )
+   public long getHashesExchanged() {
+      return hashesExchanged.get();
+   }
+
+   @ManagedAttribute(
+         description = "Number of times all the segments were checked",
+         displayName = "Rounds completed",
+         measurementType = MeasurementType.TRENDSUP
+   )
+   public long getRoundsCompleted() {
+      return roundsCompleted.get();
+   }
+
+   @ManagedAttribute(
+         description = "Percentage of the segments checked in the current round",
+         displayName = "Round progress",
+         units = Units.PERCENTAGE
+   )
+   public int getProgress() {
+      return progress;
+   }
+
+   @ManagedOperation(
+         description = "Resets statistics gathered by this component",
+         displayName = "Reset statistics"
+   )
+   public void resetStatistics() {
+      segmentsCompared.set(0);
+      segmentsMismatched.set(0);
+      keysRepaired.set(0);
+      hashesExchanged.set(0);
+      roundsCompleted.set(0);
+   }
+
+   private static class SegmentTree {
+      final int topologyId;
+      final int segmentId;
+      final SegmentMerkleTree tree;
+
+      SegmentTree(int topologyId, int segmentId, SegmentMerkleTree tree) {
+         this.topologyId = topologyId;
+         this.segmentId = segmentId;
+         this.tree = tree;
+      }
+   }
+}
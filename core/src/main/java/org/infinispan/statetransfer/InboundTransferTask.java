@@ -123,6 +123,10 @@ public Address getSource() {
       return source;
    }
 
+   public int getTopologyId() {
+      return topologyId;
+   }
+
    /**
     * Send START_STATE_TRANSFER request to source node.
     *
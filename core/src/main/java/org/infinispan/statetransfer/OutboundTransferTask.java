@@ -4,12 +4,14 @@
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.InternalEntryFactory;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.persistence.spi.AdvancedCacheLoader;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.remoting.rpc.ResponseMode;
 import org.infinispan.remoting.rpc.RpcManager;
@@ -43,27 +45,27 @@ public class OutboundTransferTask implements Runnable {
 
    private final StateProviderImpl stateProvider;
 
-   private final int topologyId;
+   protected final int topologyId;
 
-   private final Address destination;
+   protected final Address destination;
 
-   private final Set<Integer> segments = new CopyOnWriteArraySet<Integer>();
+   protected final Set<Integer> segments = new CopyOnWriteArraySet<Integer>();
 
    private final int stateTransferChunkSize;
 
-   private final ConsistentHash readCh;
+   protected final ConsistentHash readCh;
 
-   private final DataContainer<Object, Object> dataContainer;
+   protected final DataContainer<Object, Object> dataContainer;
 
    private final PersistenceManager persistenceManager;
 
-   private final RpcManager rpcManager;
+   protected final RpcManager rpcManager;
 
-   private final CommandsFactory commandsFactory;
+   protected final CommandsFactory commandsFactory;
 
    private final long timeout;
 
-   private final String cacheName;
+   protected final String cacheName;
 
    private final Map<Integer, List<InternalCacheEntry>> entriesBySegment = CollectionFactory.makeConcurrentMap();
 
@@ -77,7 +79,7 @@ public class OutboundTransferTask implements Runnable {
     */
    private FutureTask<Void> runnableFuture;
 
-   private final RpcOptions rpcOptions;
+   protected final RpcOptions rpcOptions;
 
    private InternalEntryFactory entryFactory;
 
@@ -140,38 +142,8 @@ public int getTopologyId() {
    //todo [anistor] check thread interrupt status in loops to implement faster cancellation
    public void run() {
       try {
-         // send data container entries
-         for (InternalCacheEntry ice : dataContainer) {
-            Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
-            int segmentId = readCh.getSegment(key);
-            if (segments.contains(segmentId)) {
-               sendEntry(ice, segmentId);
-            }
-         }
-
-         AdvancedCacheLoader stProvider = persistenceManager.getStateTransferProvider();
-         if (stProvider != null) {
-            try {
-               CollectionKeyFilter filter = new CollectionKeyFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
-               AdvancedCacheLoader.CacheLoaderTask task = new AdvancedCacheLoader.CacheLoaderTask() {
-                  @Override
-                  public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
-                        int segmentId = readCh.getSegment(me.getKey());
-                        if (segments.contains(segmentId)) {
-                           try {
-                              InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
-                              sendEntry(icv, segmentId);
-                           } catch (CacheException e) {
-                              log.failedLoadingValueFromCacheStore(me.getKey(), e);
-                           }
-                        }
-                     }
-                  };
-               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
-            } catch (CacheException e) {
-               log.failedLoadingKeysFromCacheStore(e);
-            }
-         }
+         sendDataContainerEntries();
+         sendStoreEntries();
 
          // send the last chunk of all segments
          sendEntries(true);
@@ -188,7 +160,61 @@ public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext tas
       }
    }
 
-   private void sendEntry(InternalCacheEntry ice, int segmentId) {
+   protected void sendDataContainerEntries() throws InterruptedException {
+      if (dataContainer instanceof SegmentedDataContainer) {
+         // only visit the requested segments, one segment at a time
+         SegmentedDataContainer<Object, Object> segmentedContainer = (SegmentedDataContainer<Object, Object>) dataContainer;
+         for (Integer segmentId : segments) {
+            Iterator<InternalCacheEntry<Object, Object>> it =
+                  segmentedContainer.iterator(Collections.singleton(segmentId));
+            while (it.hasNext()) {
+               sendEntry(it.next(), segmentId);
+            }
+         }
+      } else {
+         for (InternalCacheEntry ice : dataContainer) {
+            Object key = ice.getKey();  //todo [anistor] should we check for expired entries?
+            int segmentId = readCh.getSegment(key);
+            if (segments.contains(segmentId)) {
+               sendEntry(ice, segmentId);
+            }
+         }
+      }
+   }
+
+   protected void sendStoreEntries() {
+      AdvancedCacheLoader stProvider = persistenceManager.getStateTransferProvider();
+      if (stProvider != null) {
+         try {
+            CollectionKeyFilter filter = new CollectionKeyFilter(new ReadOnlyDataContainerBackedKeySet(dataContainer));
+            AdvancedCacheLoader.CacheLoaderTask task = new AdvancedCacheLoader.CacheLoaderTask() {
+               @Override
+               public void processEntry(MarshalledEntry me, AdvancedCacheLoader.TaskContext taskContext) throws InterruptedException {
+                     int segmentId = readCh.getSegment(me.getKey());
+                     if (segments.contains(segmentId)) {
+                        try {
+                           InternalCacheEntry icv = entryFactory.create(me.getKey(), me.getValue(), me.getMetadata());
+                           sendEntry(icv, segmentId);
+                        } catch (CacheException e) {
+                           log.failedLoadingValueFromCacheStore(me.getKey(), e);
+                        }
+                     }
+                  }
+               };
+            if (stProvider instanceof SegmentedAdvancedCacheLoader) {
+               // only read the requested segments from the store
+               ((SegmentedAdvancedCacheLoader) stProvider).process(new HashSet<>(segments), filter, task,
+                     new WithinThreadExecutor(), true, true);
+            } else {
+               stProvider.process(filter, task, new WithinThreadExecutor(), true, true);
+            }
+         } catch (CacheException e) {
+            log.failedLoadingKeysFromCacheStore(e);
+         }
+      }
+   }
+
+   protected void sendEntry(InternalCacheEntry ice, int segmentId) throws InterruptedException {
       // send if we have a full chunk
       if (accumulatedEntries >= stateTransferChunkSize) {
          sendEntries(false);
@@ -204,7 +230,7 @@ private void sendEntry(InternalCacheEntry ice, int segmentId) {
       accumulatedEntries++;
    }
 
-   private void sendEntries(boolean isLast) {
+   protected void sendEntries(boolean isLast) throws InterruptedException {
       List<StateChunk> chunks = new ArrayList<StateChunk>();
       for (Map.Entry<Integer, List<InternalCacheEntry>> e : entriesBySegment.entrySet()) {
          List<InternalCacheEntry> entries = e.getValue();
@@ -232,20 +258,28 @@ private void sendEntries(boolean isLast) {
             }
          }
 
-         StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
-         // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
-         try {
-            rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
-         } catch (SuspectException e) {
-            log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
-            cancel();
-         } catch (Exception e) {
-            if (isCancelled()) {
-               log.debugf("Stopping cancelled transfer of segments %s of cache %s to node %s", segments, cacheName, destination);
-            } else {
-               log.errorf(e, "Failed to send entries to node %s : %s", destination, e.getMessage());
-            }
-         }
+         sendChunks(chunks);
+      }
+   }
+
+   protected void sendChunks(List<StateChunk> chunks) {
+      StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
+      // send synchronously, in order. it is important that the last chunk is received last in order to correctly detect completion of the stream of chunks
+      try {
+         rpcManager.invokeRemotely(Collections.singleton(destination), cmd, rpcOptions);
+      } catch (Exception e) {
+         handleSendFailure(e);
+      }
+   }
+
+   protected void handleSendFailure(Throwable t) {
+      if (t instanceof SuspectException) {
+         log.debugf("Node %s left cache %s while we were sending state to it, cancelling transfer.", destination, cacheName);
+         cancel();
+      } else if (isCancelled()) {
+         log.debugf("Stopping cancelled transfer of segments %s of cache %s to node %s", segments, cacheName, destination);
+      } else {
+         log.errorf(t, "Failed to send entries to node %s : %s", destination, t.getMessage());
       }
    }
 
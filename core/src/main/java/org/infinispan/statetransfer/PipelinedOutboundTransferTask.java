@@ -0,0 +1,321 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.commands.CommandsFactory;
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.SegmentedDataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Outbound state transfer task that sends several segments concurrently and keeps several chunks in flight.
+ * <p>
+ * Up to {@code parallelSegments} workers iterate over the requested segments of a {@link SegmentedDataContainer},
+ * one segment at a time. The chunks are sized by the size of their keys and values rather than by the number of
+ * entries, and are sent asynchronously, as long as the total size of the unacknowledged chunks stays below
+ * {@code maxInFlightBytes}. Since the receiver replies only after it has applied a chunk, the replies act as
+ * credits for the next chunks. The last chunks of all the segments are sent only after every other chunk was
+ * acknowledged.
+ * <p>
+ * The workers block while they wait for credits, so their executor should not be shared with other components. If it
+ * rejects a worker, or if it is {@code null}, the remaining segments are sent by the other workers.
+ *
+ * @since 9.0
+ */
+public class PipelinedOutboundTransferTask extends OutboundTransferTask {
+
+   private static final Log log = LogFactory.getLog(PipelinedOutboundTransferTask.class);
+
+   private final boolean trace = log.isTraceEnabled();
+
+   private final ExecutorService executorService;
+
+   private final StreamingMarshaller marshaller;
+
+   private final int chunkBytes;
+
+   private final int maxInFlightBytes;
+
+   private final int parallelSegments;
+
+   /**
+    * Each permit is one byte of the unacknowledged chunks.
+    */
+   private final Semaphore credits;
+
+   /**
+    * Accumulates the entries that are not sent by a segment worker, i.e. the store entries.
+    */
+   private final ChunkBuilder sharedChunks = new ChunkBuilder();
+
+   public PipelinedOutboundTransferTask(Address destination, Set<Integer> segments, int stateTransferChunkSize,
+                                        int topologyId, ConsistentHash readCh, StateProviderImpl stateProvider,
+                                        DataContainer dataContainer, PersistenceManager persistenceManager,
+                                        RpcManager rpcManager, CommandsFactory commandsFactory, InternalEntryFactory ef,
+                                        long timeout, String cacheName, ExecutorService executorService,
+                                        StreamingMarshaller marshaller, int chunkBytes, int maxInFlightBytes,
+                                        int parallelSegments) {
+      super(destination, segments, stateTransferChunkSize, topologyId, readCh, stateProvider, dataContainer,
+            persistenceManager, rpcManager, commandsFactory, ef, timeout, cacheName);
+      if (chunkBytes <= 0 || maxInFlightBytes <= 0 || parallelSegments <= 0) {
+         throw new IllegalArgumentException("chunkBytes, maxInFlightBytes and parallelSegments must be greater than 0");
+      }
+      this.executorService = executorService;
+      this.marshaller = marshaller;
+      this.chunkBytes = chunkBytes;
+      this.maxInFlightBytes = maxInFlightBytes;
+      this.parallelSegments = parallelSegments;
+      this.credits = new Semaphore(maxInFlightBytes);
+   }
+
+   @Override
+   protected void sendDataContainerEntries() throws InterruptedException {
+      if (!(dataContainer instanceof SegmentedDataContainer)) {
+         // the entries of all segments are mixed together, so they can only be sent from this thread
+         super.sendDataContainerEntries();
+         return;
+      }
+
+      Queue<Integer> pendingSegments = new ConcurrentLinkedQueue<Integer>(segments);
+      int numWorkers = Math.min(parallelSegments, pendingSegments.size());
+      List<SegmentWorker> workers = new ArrayList<SegmentWorker>(numWorkers - 1);
+      for (int i = 1; i < numWorkers && executorService != null; i++) {
+         SegmentWorker worker = new SegmentWorker(pendingSegments);
+         try {
+            executorService.execute(worker);
+         } catch (RejectedExecutionException e) {
+            // the remaining segments will be sent by the workers that did start
+            break;
+         }
+         workers.add(worker);
+      }
+      new SegmentWorker(pendingSegments).run();
+      for (SegmentWorker worker : workers) {
+         worker.awaitCompletion();
+      }
+   }
+
+   @Override
+   protected void sendEntry(InternalCacheEntry ice, int segmentId) throws InterruptedException {
+      sharedChunks.add(segmentId, ice);
+      if (sharedChunks.bytes >= chunkBytes) {
+         sendAsync(sharedChunks);
+      }
+   }
+
+   @Override
+   protected void sendEntries(boolean isLast) throws InterruptedException {
+      if (!sharedChunks.isEmpty()) {
+         sendAsync(sharedChunks);
+      }
+      if (!isLast) {
+         return;
+      }
+
+      // wait for all the chunks to be applied, so that the receiver sees the last chunk of each segment last
+      credits.acquire(maxInFlightBytes);
+      credits.release(maxInFlightBytes);
+
+      List<StateChunk> chunks = new ArrayList<StateChunk>(segments.size());
+      for (int segmentId : segments) {
+         chunks.add(new StateChunk(segmentId, Collections.<InternalCacheEntry>emptyList(), true));
+      }
+      if (!chunks.isEmpty()) {
+         if (trace) {
+            log.tracef("Sending last chunk of segments %s of cache %s to node %s", segments, cacheName, destination);
+         }
+         sendChunks(chunks);
+      }
+   }
+
+   private void sendAsync(ChunkBuilder builder) throws InterruptedException {
+      List<StateChunk> chunks = builder.build();
+      // a chunk bigger than the in-flight limit is sent alone
+      final int permits = Math.min(builder.bytes, maxInFlightBytes);
+      builder.clear();
+      credits.acquire(permits);
+      if (isCancelled()) {
+         credits.release(permits);
+         return;
+      }
+
+      if (trace) {
+         log.tracef("Sending chunks of segments %s of cache %s to node %s (%d bytes)", chunkSegments(chunks), cacheName,
+               destination, permits);
+      }
+      StateResponseCommand cmd = commandsFactory.buildStateResponseCommand(rpcManager.getAddress(), topologyId, chunks);
+      try {
+         rpcManager.invokeRemotelyAsync(Collections.singleton(destination), cmd, rpcOptions)
+               .whenComplete((responses, throwable) -> {
+                  credits.release(permits);
+                  if (throwable != null) {
+                     handleSendFailure(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                  }
+               });
+      } catch (Exception e) {
+         credits.release(permits);
+         handleSendFailure(e);
+      }
+   }
+
+   private int entrySize(InternalCacheEntry ice) throws InterruptedException {
+      return size(ice.getKey()) + size(ice.getValue());
+   }
+
+   /**
+    * The size of a key or value: the length of a {@code byte[]}, or the length of the marshalled object otherwise.
+    */
+   private int size(Object o) throws InterruptedException {
+      if (o == null) {
+         return 0;
+      } else if (o instanceof byte[]) {
+         return ((byte[]) o).length;
+      }
+      try {
+         return marshaller.objectToBuffer(o).getLength();
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall " + o, e);
+      }
+   }
+
+   private static List<Integer> chunkSegments(List<StateChunk> chunks) {
+      List<Integer> chunkSegments = new ArrayList<Integer>(chunks.size());
+      for (StateChunk chunk : chunks) {
+         chunkSegments.add(chunk.getSegmentId());
+      }
+      return chunkSegments;
+   }
+
+   @Override
+   public String toString() {
+      return "PipelinedOutboundTransferTask{" +
+            "topologyId=" + topologyId +
+            ", destination=" + destination +
+            ", segments=" + segments +
+            ", chunkBytes=" + chunkBytes +
+            ", maxInFlightBytes=" + maxInFlightBytes +
+            ", parallelSegments=" + parallelSegments +
+            ", cacheName='" + cacheName + '\'' +
+            '}';
+   }
+
+   /**
+    * Accumulates the entries of one or more segments, until their size reaches {@code chunkBytes}.
+    */
+   private final class ChunkBuilder {
+      private final Map<Integer, List<InternalCacheEntry>> entriesBySegment = new HashMap<Integer, List<InternalCacheEntry>>();
+      private int bytes;
+
+      void add(int segmentId, InternalCacheEntry ice) throws InterruptedException {
+         List<InternalCacheEntry> entries = entriesBySegment.get(segmentId);
+         if (entries == null) {
+            entries = new ArrayList<InternalCacheEntry>();
+            entriesBySegment.put(segmentId, entries);
+         }
+         entries.add(ice);
+         bytes += entrySize(ice);
+      }
+
+      boolean isEmpty() {
+         return entriesBySegment.isEmpty();
+      }
+
+      List<StateChunk> build() {
+         List<StateChunk> chunks = new ArrayList<StateChunk>(entriesBySegment.size());
+         for (Map.Entry<Integer, List<InternalCacheEntry>> e : entriesBySegment.entrySet()) {
+            chunks.add(new StateChunk(e.getKey(), e.getValue(), false));
+         }
+         return chunks;
+      }
+
+      void clear() {
+         entriesBySegment.clear();
+         bytes = 0;
+      }
+   }
+
+   /**
+    * Sends the data container entries of the segments it takes from a shared queue. A worker that was not started
+    * by the executor by the time the task thread is done is claimed by the task thread, which does not wait for it.
+    */
+   private final class SegmentWorker implements Runnable {
+      private final Queue<Integer> pendingSegments;
+      private final AtomicBoolean claimed = new AtomicBoolean();
+      private final CountDownLatch done = new CountDownLatch(1);
+      private final ChunkBuilder builder = new ChunkBuilder();
+
+      SegmentWorker(Queue<Integer> pendingSegments) {
+         this.pendingSegments = pendingSegments;
+      }
+
+      @Override
+      public void run() {
+         if (!claimed.compareAndSet(false, true)) {
+            return;
+         }
+         try {
+            sendSegments();
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         } catch (Throwable t) {
+            handleSendFailure(t);
+         } finally {
+            done.countDown();
+         }
+      }
+
+      void awaitCompletion() throws InterruptedException {
+         if (claimed.compareAndSet(false, true)) {
+            // the queue is already empty
+            return;
+         }
+         done.await();
+      }
+
+      private void sendSegments() throws InterruptedException {
+         SegmentedDataContainer<Object, Object> segmentedContainer = (SegmentedDataContainer<Object, Object>) dataContainer;
+         Integer segmentId;
+         while ((segmentId = pendingSegments.poll()) != null && !isCancelled()) {
+            if (!segments.contains(segmentId)) {
+               // the segment was cancelled
+               continue;
+            }
+            Iterator<InternalCacheEntry<Object, Object>> it =
+                  segmentedContainer.iterator(Collections.singleton(segmentId));
+            while (it.hasNext()) {
+               builder.add(segmentId, it.next());
+               if (builder.bytes >= chunkBytes) {
+                  sendAsync(builder);
+               }
+            }
+            if (!builder.isEmpty()) {
+               sendAsync(builder);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,114 @@
+package org.infinispan.statetransfer;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.container.versioning.EntryVersion;
+
+/**
+ * A hash tree over the entries of a segment, used by the {@link AntiEntropyManager} to find the entries that differ
+ * between two owners of a segment without sending all the keys.
+ * <p>
+ * Every entry is hashed to one of the {@link #NUM_LEAVES} leaves by its key, so the leaves of two owners cover the
+ * same keys. The keys, values and versions are hashed in their marshalled form, so the hashes of two owners only
+ * depend on the entries' contents, and not on the {@code hashCode()} of their classes. A leaf's hash is the sum of its entries' hashes, so it does not depend on the iteration order, and an
+ * inner node's hash combines the hashes of its {@link #FANOUT} children. Two owners only need to compare the children
+ * of the nodes whose hashes differ, level by level, and then the keys of the leaves whose hashes differ.
+ *
+ * @since 9.0
+ */
+class SegmentMerkleTree {
+   static final int FANOUT = 16;
+   static final int DEPTH = 3;
+   static final int NUM_LEAVES = 1 << (4 * DEPTH);
+
+   private final StreamingMarshaller marshaller;
+   // levels[0] is the root, levels[DEPTH] are the leaves
+   private final long[][] levels = new long[DEPTH + 1][];
+   private int size;
+   private boolean built;
+
+   SegmentMerkleTree(StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+      for (int level = 0, width = 1; level <= DEPTH; level++, width *= FANOUT) {
+         levels[level] = new long[width];
+      }
+   }
+
+   void add(InternalCacheEntry entry) throws InterruptedException {
+      if (built)
+         throw new IllegalStateException("The tree was already built");
+      long keyHash = keyHash(marshaller, entry.getKey());
+      levels[DEPTH][leafIndex(keyHash)] += entryHash(marshaller, keyHash, entry);
+      size++;
+   }
+
+   /**
+    * Computes the hashes of the inner nodes from the hashes of the leaves. Must be invoked after all the entries
+    * were {@link #add(InternalCacheEntry) added}, and before reading the hashes.
+    */
+   SegmentMerkleTree build() {
+      for (int level = DEPTH - 1; level >= 0; level--) {
+         long[] nodes = levels[level];
+         long[] children = levels[level + 1];
+         for (int i = 0; i < nodes.length; i++) {
+            long h = 1;
+            for (int c = i * FANOUT; c < (i + 1) * FANOUT; c++) {
+               h = 31 * h + children[c];
+            }
+            nodes[i] = SegmentTransferProgress.mix(h);
+         }
+      }
+      levels[0][0] = SegmentTransferProgress.mix(31 * levels[0][0] + size);
+      built = true;
+      return this;
+   }
+
+   long[] getHashes(int level, int[] indices) {
+      if (!built)
+         throw new IllegalStateException("The tree was not built");
+      long[] nodes = levels[level];
+      long[] hashes = new long[indices.length];
+      for (int i = 0; i < indices.length; i++) {
+         hashes[i] = nodes[indices[i]];
+      }
+      return hashes;
+   }
+
+   int size() {
+      return size;
+   }
+
+   /**
+    * @return The indices of the children of the given nodes, in the next level.
+    */
+   static int[] children(int[] indices) {
+      int[] children = new int[indices.length * FANOUT];
+      for (int i = 0; i < indices.length; i++) {
+         for (int c = 0; c < FANOUT; c++) {
+            children[i * FANOUT + c] = indices[i] * FANOUT + c;
+         }
+      }
+      return children;
+   }
+
+   static long keyHash(StreamingMarshaller marshaller, Object key) throws InterruptedException {
+      return SegmentTransferProgress.contentHash(marshaller, key);
+   }
+
+   static int leafIndex(long keyHash) {
+      return (int) (SegmentTransferProgress.mix(keyHash) & (NUM_LEAVES - 1));
+   }
+
+   /**
+    * Hashes the key, the value and the version of an entry.
+    *
+    * @param keyHash the {@link #keyHash(StreamingMarshaller, Object) hash} of the entry's key
+    */
+   static long entryHash(StreamingMarshaller marshaller, long keyHash, InternalCacheEntry entry)
+         throws InterruptedException {
+      EntryVersion version = entry.getMetadata() != null ? entry.getMetadata().version() : null;
+      long h = 31 * keyHash + SegmentTransferProgress.contentHash(marshaller, entry.getValue());
+      long versionHash = version != null ? SegmentTransferProgress.contentHash(marshaller, version) : 0;
+      return SegmentTransferProgress.mix(31 * h + versionHash);
+   }
+}
@@ -0,0 +1,143 @@
+package org.infinispan.statetransfer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.infinispan.commons.CacheException;
+import org.infinispan.commons.hash.MurmurHash3;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.container.SegmentedDataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.globalstate.GlobalStateManager;
+import org.infinispan.globalstate.ScopedPersistentState;
+import org.infinispan.globalstate.impl.ScopedPersistentStateImpl;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Keeps track of the segments that were completely received by the local node in the global persistent state. A restarting node uses it to find the segments that it might not need
+ * to fetch again, because its persistent store already has their contents.
+ * <p>
+ * Having received a segment is only a hint: whether the segment can really be skipped is decided by comparing the
+ * {@link #segmentDigest(SegmentedDataContainer, int, StreamingMarshaller) digests} of the local and of the source's
+ * copy of the segment.
+ *
+ * @since 9.0
+ */
+class SegmentTransferProgress {
+   private static final Log log = LogFactory.getLog(SegmentTransferProgress.class);
+
+   private static final String SCOPE_SUFFIX = "___segments";
+   private static final String NUM_SEGMENTS = "segments";
+   private static final String COMPLETED_SEGMENTS = "completed";
+   private static final int HASH_SEED = 9001;
+
+   private final GlobalStateManager globalStateManager;
+   private final String scope;
+   private final int numSegments;
+   private final Set<Integer> completedSegments = new HashSet<>();
+
+   SegmentTransferProgress(GlobalStateManager globalStateManager, String cacheName, int numSegments) {
+      this.globalStateManager = globalStateManager;
+      this.scope = cacheName + SCOPE_SUFFIX;
+      this.numSegments = numSegments;
+
+      Optional<ScopedPersistentState> persistentState = globalStateManager.readScopedState(scope);
+      persistentState.ifPresent(state -> {
+         String persistedNumSegments = state.getProperty(NUM_SEGMENTS);
+         if (persistedNumSegments == null || Integer.parseInt(persistedNumSegments) != numSegments) {
+            // The segments do not map to the same keys any more
+            log.debugf("Ignoring the received segments of cache %s, the number of segments has changed", cacheName);
+            return;
+         }
+         String persistedSegments = state.getProperty(COMPLETED_SEGMENTS);
+         if (persistedSegments != null && !persistedSegments.isEmpty()) {
+            for (String segmentId : persistedSegments.split(",")) {
+               completedSegments.add(Integer.valueOf(segmentId));
+            }
+         }
+      });
+      if (!completedSegments.isEmpty()) {
+         log.debugf("Cache %s has completely received segments %s before restarting", cacheName, completedSegments);
+      }
+   }
+
+   /**
+    * @return The subset of {@code segments} that were completely received.
+    */
+   synchronized Set<Integer> getCompletedSegments(Collection<Integer> segments) {
+      Set<Integer> result = new HashSet<>();
+      for (Integer segmentId : segments) {
+         if (completedSegments.contains(segmentId)) {
+            result.add(segmentId);
+         }
+      }
+      return result;
+   }
+
+   synchronized void segmentsCompleted(Collection<Integer> segments) {
+      if (completedSegments.addAll(segments)) {
+         persist();
+      }
+   }
+
+   /**
+    * Forgets the segments that are being received again, or are no longer owned by the local node.
+    */
+   synchronized void segmentsRemoved(Collection<Integer> segments) {
+      if (completedSegments.removeAll(segments)) {
+         persist();
+      }
+   }
+
+   private void persist() {
+      ScopedPersistentState state = new ScopedPersistentStateImpl(scope);
+      state.setProperty(NUM_SEGMENTS, numSegments);
+      state.setProperty(COMPLETED_SEGMENTS, completedSegments.stream().map(String::valueOf).collect(Collectors.joining(",")));
+      globalStateManager.writeScopedState(state);
+   }
+
+   /**
+    * Computes a digest of the entries of a segment that does not depend on the iteration order. The digest is based
+    * on the marshalled keys and values, so it does not depend on the {@code hashCode()} of the key and value classes.
+    */
+   static long segmentDigest(SegmentedDataContainer<Object, Object> dataContainer, int segmentId,
+                             StreamingMarshaller marshaller) throws InterruptedException {
+      long sum = 0;
+      long count = 0;
+      Iterator<InternalCacheEntry<Object, Object>> it = dataContainer.iterator(Collections.singleton(segmentId));
+      while (it.hasNext()) {
+         InternalCacheEntry<Object, Object> entry = it.next();
+         sum += mix(31 * contentHash(marshaller, entry.getKey()) + contentHash(marshaller, entry.getValue()));
+         count++;
+      }
+      return 31 * sum + count;
+   }
+
+   /**
+    * @return A 64-bit MurmurHash3 of the marshalled form of {@code o}.
+    */
+   static long contentHash(StreamingMarshaller marshaller, Object o) throws InterruptedException {
+      try {
+         return MurmurHash3.MurmurHash3_x64_64(marshaller.objectToByteBuffer(o), HASH_SEED);
+      } catch (IOException e) {
+         throw new CacheException("Unable to marshall " + o, e);
+      }
+   }
+
+   // The MurmurHash3 64-bit finalizer, so that summing the entry hashes does not cancel them out
+   static long mix(long h) {
+      h ^= h >>> 33;
+      h *= 0xff51afd7ed558ccdL;
+      h ^= h >>> 33;
+      h *= 0xc4ceb9fe1a85ec53L;
+      h ^= h >>> 33;
+      return h;
+   }
+}
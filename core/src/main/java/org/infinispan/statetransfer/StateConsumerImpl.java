@@ -6,10 +6,13 @@
 import org.infinispan.commands.write.InvalidateCommand;
 import org.infinispan.commands.write.PutKeyValueCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.configuration.cache.CacheMode;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StoreConfiguration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
@@ -23,6 +26,7 @@
 import org.infinispan.factories.annotations.Start;
 import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.KeyFilter;
+import org.infinispan.globalstate.GlobalStateManager;
 import org.infinispan.interceptors.InterceptorChain;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.notifications.cachelistener.CacheNotifier;
@@ -77,6 +81,7 @@
 import static org.infinispan.context.Flag.SKIP_REMOTE_LOOKUP;
 import static org.infinispan.context.Flag.SKIP_SHARED_CACHE_STORE;
 import static org.infinispan.context.Flag.SKIP_XSITE_BACKUP;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 import static org.infinispan.factories.KnownComponentNames.STATE_TRANSFER_EXECUTOR;
 import static org.infinispan.persistence.manager.PersistenceManager.AccessMode.PRIVATE;
 
@@ -120,6 +125,13 @@ public class StateConsumerImpl implements StateConsumer {
    private volatile KeyInvalidationListener keyInvalidationListener; //for test purpose only!
    private CommitManager commitManager;
    private ExecutorService stateTransferExecutor;
+   private GlobalStateManager globalStateManager;   // optional
+
+   /**
+    * The segments received before a restart, if the segments can be kept across restarts.
+    */
+   private SegmentTransferProgress transferProgress;
+   private StreamingMarshaller marshaller;
 
    private volatile CacheTopology cacheTopology;
 
@@ -224,6 +236,13 @@ public void init(Cache cache,
       stateRequestCompletionService = new SemaphoreCompletionService<>(stateTransferExecutor, 1);
    }
 
+   @Inject
+   public void injectGlobalStateManager(GlobalStateManager globalStateManager,
+                                        @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
+      this.globalStateManager = globalStateManager;
+      this.marshaller = marshaller;
+   }
+
    public boolean hasActiveTransfers() {
       synchronized (transferMapsLock) {
          return !transfersBySource.isEmpty();
@@ -297,6 +316,10 @@ public void onTopologyUpdate(final CacheTopology cacheTopology, final boolean is
       final ConsistentHash newWriteCh = cacheTopology.getWriteConsistentHash();
       final ConsistentHash previousReadCh = this.cacheTopology != null ? this.cacheTopology.getReadConsistentHash() : null;
       final ConsistentHash previousWriteCh = this.cacheTopology != null ? this.cacheTopology.getWriteConsistentHash() : null;
+      if (dataContainer instanceof SegmentedDataContainer) {
+         // Allocate the new segments before any state or write for them can arrive
+         ((SegmentedDataContainer<Object, Object>) dataContainer).addSegments(getOwnedSegments(newWriteCh));
+      }
       // Ensures writes to the data container use the right consistent hash
       // No need for a try/finally block, since it's just an assignment
       stateTransferLock.acquireExclusiveTopologyLock();
@@ -665,6 +688,15 @@ public void start() {
       //rpc options does not changes in runtime. we can use always the same instance.
       rpcOptions = rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS)
             .timeout(timeout, TimeUnit.MILLISECONDS).build();
+
+      // The received segments can only be reused if the data container gets the store's contents on restart,
+      // and has all the entries of the segments (i.e. no eviction)
+      if (isFetchEnabled && globalStateManager != null && dataContainer instanceof SegmentedDataContainer
+            && configuration.persistence().stores().stream().anyMatch(StoreConfiguration::preload)
+            && !configuration.eviction().strategy().isEnabled()) {
+         transferProgress = new SegmentTransferProgress(globalStateManager, cacheName,
+               configuration.clustering().hash().numSegments());
+      }
    }
 
    @Stop(priority = 0)
@@ -863,10 +895,67 @@ private void requestSegments(Set<Integer> segments, Map<Address, Set<Integer>> s
       }
 
       for (Map.Entry<Address, Set<Integer>> e : sources.entrySet()) {
+         if (transferProgress != null) {
+            skipUnchangedSegments(e.getKey(), e.getValue());
+            if (e.getValue().isEmpty())
+               continue;
+         }
          addTransfer(e.getKey(), e.getValue());
       }
    }
 
+   /**
+    * Removes from {@code segments} the segments that were received before a restart, and whose local copy has the
+    * same digest as the copy on {@code source}.
+    */
+   private void skipUnchangedSegments(Address source, Set<Integer> segments) {
+      Set<Integer> candidates = transferProgress.getCompletedSegments(segments);
+      if (candidates.isEmpty())
+         return;
+
+      int topologyId = cacheTopology.getTopologyId();
+      Map<Integer, Long> sourceDigests;
+      try {
+         StateRequestCommand cmd = commandsFactory.buildStateRequestCommand(StateRequestCommand.Type.GET_SEGMENT_DIGESTS,
+               rpcManager.getAddress(), topologyId, candidates);
+         Response response = rpcManager.invokeRemotely(Collections.singleton(source), cmd, rpcOptions).get(source);
+         if (!(response instanceof SuccessfulResponse)) {
+            log.debugf("Could not retrieve the digests of segments %s of cache %s from node %s: %s", candidates,
+                  cacheName, source, response);
+            return;
+         }
+         sourceDigests = (Map<Integer, Long>) ((SuccessfulResponse) response).getResponseValue();
+      } catch (CacheException e) {
+         log.debugf(e, "Could not retrieve the digests of segments %s of cache %s from node %s", candidates, cacheName,
+               source);
+         return;
+      }
+
+      SegmentedDataContainer<Object, Object> segmentedContainer = (SegmentedDataContainer<Object, Object>) dataContainer;
+      Set<Integer> unchangedSegments = new HashSet<>();
+      try {
+         for (Integer segmentId : candidates) {
+            Long sourceDigest = sourceDigests.get(segmentId);
+            if (sourceDigest != null
+                  && sourceDigest == SegmentTransferProgress.segmentDigest(segmentedContainer, segmentId, marshaller)) {
+               unchangedSegments.add(segmentId);
+            }
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         return;
+      } catch (CacheException e) {
+         log.debugf(e, "Could not compute the digests of segments %s of cache %s", candidates, cacheName);
+         return;
+      }
+      if (!unchangedSegments.isEmpty()) {
+         log.debugf("Not requesting segments %s of cache %s from node %s, the local copy is up to date",
+               unchangedSegments, cacheName, source);
+         segments.removeAll(unchangedSegments);
+         transferProgress.segmentsCompleted(unchangedSegments);
+      }
+   }
+
 
    private void retryTransferTask(InboundTransferTask task) {
       if (trace) log.tracef("Retrying failed task: %s", task);
@@ -928,16 +1017,29 @@ private void removeStaleData(final Set<Integer> removedSegments) throws Interrup
       if (removedSegments.isEmpty())
          return;
 
+      if (transferProgress != null) {
+         transferProgress.segmentsRemoved(removedSegments);
+      }
+
       // Keys that we used to own, and need to be removed from the data container AND the cache stores
       final ConcurrentHashSet<Object> keysToRemove = new ConcurrentHashSet<Object>();
 
-      dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
-         Object key = ice.getKey();
-         int keySegment = getSegment(key);
-         if (removedSegments.contains(keySegment)) {
-            keysToRemove.add(key);
+      if (dataContainer instanceof SegmentedDataContainer) {
+         // Only visit the segments being removed instead of the whole container
+         Iterator<InternalCacheEntry<Object, Object>> it =
+               ((SegmentedDataContainer<Object, Object>) dataContainer).iteratorIncludingExpired(removedSegments);
+         while (it.hasNext()) {
+            keysToRemove.add(it.next().getKey());
          }
-      });
+      } else {
+         dataContainer.executeTask(KeyFilter.ACCEPT_ALL_FILTER, (o, ice) -> {
+            Object key = ice.getKey();
+            int keySegment = getSegment(key);
+            if (removedSegments.contains(keySegment)) {
+               keysToRemove.add(key);
+            }
+         });
+      }
 
       // gather all keys from cache store that belong to the segments that are being removed/moved to L1
       if (!removedSegments.isEmpty()) {
@@ -962,6 +1064,7 @@ public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.Ta
          }
       }
 
+      boolean invalidated = true;
       if (!keysToRemove.isEmpty()) {
          try {
             InvalidateCommand invalidateCmd = commandsFactory.buildInvalidateCommand(EnumUtil.bitSetOf(CACHE_MODE_LOCAL, SKIP_LOCKING), keysToRemove.toArray());
@@ -972,8 +1075,14 @@ public void processEntry(MarshalledEntry marshalledEntry, AdvancedCacheLoader.Ta
             if (trace) log.tracef("Removed %d keys, data container now has %d keys", keysToRemove.size(), dataContainer.size());
          } catch (CacheException e) {
             log.failedToInvalidateKeys(e);
+            invalidated = false;
          }
       }
+
+      // The segments are dropped only once their entries were invalidated from the cache stores too
+      if (invalidated && dataContainer instanceof SegmentedDataContainer) {
+         ((SegmentedDataContainer<Object, Object>) dataContainer).removeSegments(removedSegments);
+      }
    }
 
    /**
@@ -1030,6 +1139,10 @@ private InboundTransferTask addTransfer(Address source, Set<Integer> segmentsFro
             }
             return null;
          }
+         if (transferProgress != null) {
+            // the segments will only be complete again after the transfer
+            transferProgress.segmentsRemoved(segmentsFromSource);
+         }
 
          inboundTransfer = new InboundTransferTask(segmentsFromSource, source,
                cacheTopology.getTopologyId(), this, rpcManager, commandsFactory, timeout, cacheName);
@@ -1103,6 +1216,9 @@ private void retryOrNotifyCompletion(InboundTransferTask inboundTransfer) {
          retryTransferTask(inboundTransfer);
       } else {
          if (trace) log.tracef("Inbound transfer finished: %s", inboundTransfer);
+         if (transferProgress != null && inboundTransfer.isCompletedSuccessfully()) {
+            transferProgress.segmentsCompleted(inboundTransfer.getSegments());
+         }
          notifyEndOfRebalanceIfNeeded(cacheTopology.getTopologyId(), cacheTopology.getRebalanceId());
       }
    }
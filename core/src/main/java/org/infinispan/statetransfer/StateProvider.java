@@ -8,6 +8,7 @@
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -43,6 +44,18 @@ public interface StateProvider {
 
    Collection<DistributedCallable> getClusterListenersToInstall();
 
+   /**
+    * Computes a digest of the local entries of each of the given segments, so that a restarted node can check if its
+    * own copy of the segments is up to date. This is invoked in response to a StateRequestCommand of type
+    * StateRequestCommand.Type.GET_SEGMENT_DIGESTS.
+    *
+    * @param destination the address of the requester
+    * @param topologyId
+    * @param segments
+    * @return the digest of each segment, or an empty map if the digests cannot be computed
+    */
+   Map<Integer, Long> getSegmentDigests(Address destination, int topologyId, Set<Integer> segments) throws InterruptedException;
+
    /**
     * Start to send cache entries that belong to the given set of segments. This is invoked in response to a
     * StateRequestCommand of type StateRequestCommand.Type.START_STATE_TRANSFER.
@@ -3,9 +3,12 @@
 import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.StateTransferConfiguration;
 import org.infinispan.container.DataContainer;
 import org.infinispan.container.InternalEntryFactory;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.distexec.DistributedCallable;
 import org.infinispan.distribution.ch.ConsistentHash;
 import org.infinispan.factories.annotations.ComponentName;
@@ -26,9 +29,14 @@
 
 import java.util.*;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 
 /**
  * {@link StateProvider} implementation.
@@ -55,6 +63,12 @@ public class StateProviderImpl implements StateProvider {
    private InternalEntryFactory entryFactory;
    private long timeout;
    private int chunkSize;
+   private StreamingMarshaller marshaller;
+
+   /**
+    * Runs the segment workers of the pipelined outbound transfers, {@code null} if they don't use any.
+    */
+   private volatile ExecutorService segmentWorkerExecutor;
 
    private StateConsumer stateConsumer;
 
@@ -97,6 +111,11 @@ public void init(Cache cache,
       this.chunkSize = configuration.clustering().stateTransfer().chunkSize();
    }
 
+   @Inject
+   public void injectMarshaller(@ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller) {
+      this.marshaller = marshaller;
+   }
+
    public boolean isStateTransferInProgress() {
       synchronized (transfersByDestination) {
          return !transfersByDestination.isEmpty();
@@ -128,6 +147,25 @@ public void onTopologyUpdate(CacheTopology cacheTopology, boolean isRebalance) {
    @Start(priority = 60)
    @Override
    public void start() {
+      StateTransferConfiguration stateTransferConfiguration = configuration.clustering().stateTransfer();
+      int maxSegmentWorkers = stateTransferConfiguration.parallelSegments() - 1;
+      if (stateTransferConfiguration.pipelined() && maxSegmentWorkers > 0) {
+         // The segment workers wait for the receiver to apply their chunks, so they must not take threads from
+         // a shared executor. There is no queue: if all the threads are busy, the task thread sends the segments.
+         ThreadPoolExecutor executor = new ThreadPoolExecutor(maxSegmentWorkers, maxSegmentWorkers, 60L,
+               TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger threadId = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+               Thread t = new Thread(r, "StateTransferSegmentWorker-" + cacheName + "-" + threadId.getAndIncrement());
+               t.setDaemon(true);
+               return t;
+            }
+         });
+         executor.allowCoreThreadTimeOut(true);
+         segmentWorkerExecutor = executor;
+      }
    }
 
    @Stop(priority = 0)
@@ -150,6 +188,11 @@ public void stop() {
       } catch (Throwable t) {
          log.errorf(t, "Failed to stop StateProvider of cache %s on node %s", cacheName, rpcManager.getAddress());
       }
+      if (segmentWorkerExecutor != null) {
+         // interrupt the workers waiting for credits
+         segmentWorkerExecutor.shutdownNow();
+         segmentWorkerExecutor = null;
+      }
    }
 
    public List<TransactionInfo> getTransactionsForSegments(Address destination, int requestTopologyId, Set<Integer> segments) throws InterruptedException {
@@ -183,6 +226,26 @@ public Collection<DistributedCallable> getClusterListenersToInstall() {
       return clusterCacheNotifier.retrieveClusterListenerCallablesToInstall();
    }
 
+   @Override
+   public Map<Integer, Long> getSegmentDigests(Address destination, int topologyId, Set<Integer> segments)
+         throws InterruptedException {
+      if (!(dataContainer instanceof SegmentedDataContainer)) {
+         return Collections.emptyMap();
+      }
+      // make sure the writes to the segments are replicated to the requester as well
+      getCacheTopology(topologyId, destination, false);
+
+      SegmentedDataContainer<Object, Object> segmentedContainer = (SegmentedDataContainer<Object, Object>) dataContainer;
+      Map<Integer, Long> digests = new HashMap<>(segments.size());
+      for (Integer segmentId : segments) {
+         digests.put(segmentId, SegmentTransferProgress.segmentDigest(segmentedContainer, segmentId, marshaller));
+      }
+      if (trace) {
+         log.tracef("Computed digests %s for segments requested by node %s", digests, destination);
+      }
+      return digests;
+   }
+
    private CacheTopology getCacheTopology(int requestTopologyId, Address destination, boolean isReqForTransactions) throws InterruptedException {
       CacheTopology cacheTopology = stateConsumer.getCacheTopology();
       int currentTopologyId = cacheTopology != null ? cacheTopology.getTopologyId() : -1;
@@ -276,8 +339,17 @@ public void startOutboundTransfer(Address destination, int requestTopologyId, Se
       final CacheTopology cacheTopology = getCacheTopology(requestTopologyId, destination, false);
 
       // the destination node must already have an InboundTransferTask waiting for these segments
-      OutboundTransferTask outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, requestTopologyId,
-            cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName);
+      OutboundTransferTask outboundTransfer;
+      StateTransferConfiguration stateTransferConfiguration = configuration.clustering().stateTransfer();
+      if (stateTransferConfiguration.pipelined()) {
+         outboundTransfer = new PipelinedOutboundTransferTask(destination, segments, chunkSize, requestTopologyId,
+               cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory,
+               entryFactory, timeout, cacheName, segmentWorkerExecutor, marshaller, stateTransferConfiguration.chunkBytes(),
+               stateTransferConfiguration.maxInFlightBytes(), stateTransferConfiguration.parallelSegments());
+      } else {
+         outboundTransfer = new OutboundTransferTask(destination, segments, chunkSize, requestTopologyId,
+               cacheTopology.getReadConsistentHash(), this, dataContainer, persistenceManager, rpcManager, commandsFactory, entryFactory, timeout, cacheName);
+      }
       addTransfer(outboundTransfer);
       outboundTransfer.execute(executorService);
    }
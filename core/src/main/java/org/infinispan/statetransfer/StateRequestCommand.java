@@ -30,7 +30,8 @@ public enum Type {
       GET_TRANSACTIONS,
       GET_CACHE_LISTENERS,
       START_STATE_TRANSFER,
-      CANCEL_STATE_TRANSFER;
+      CANCEL_STATE_TRANSFER,
+      GET_SEGMENT_DIGESTS;
 
       private static final Type[] CACHED_VALUES = values();
    }
@@ -86,6 +87,9 @@ public Object perform(InvocationContext ctx) throws Throwable {
 
             case GET_CACHE_LISTENERS:
                return stateProvider.getClusterListenersToInstall();
+
+            case GET_SEGMENT_DIGESTS:
+               return stateProvider.getSegmentDigests(getOrigin(), topologyId, segments);
             default:
                throw new CacheException("Unknown state request command type: " + type);
          }
@@ -134,6 +138,7 @@ public void writeTo(ObjectOutput output) throws IOException {
          case GET_TRANSACTIONS:
          case START_STATE_TRANSFER:
          case CANCEL_STATE_TRANSFER:
+         case GET_SEGMENT_DIGESTS:
             output.writeObject(getOrigin());
             MarshallUtil.marshallCollection(segments, output);
             return;
@@ -151,6 +156,7 @@ public void readFrom(ObjectInput input) throws IOException, ClassNotFoundExcepti
          case GET_TRANSACTIONS:
          case CANCEL_STATE_TRANSFER:
          case START_STATE_TRANSFER:
+         case GET_SEGMENT_DIGESTS:
             setOrigin((Address) input.readObject());
             segments = MarshallUtil.unmarshallCollectionUnbounded(input, HashSet::new);
          case GET_CACHE_LISTENERS:
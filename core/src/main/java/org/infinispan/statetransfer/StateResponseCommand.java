@@ -60,6 +60,10 @@ public void init(StateConsumer stateConsumer) {
       this.stateConsumer = stateConsumer;
    }
 
+   public Collection<StateChunk> getStateChunks() {
+      return stateChunks;
+   }
+
    @Override
    public Object perform(InvocationContext ctx) throws Throwable {
       final boolean trace = log.isTraceEnabled();
@@ -179,15 +179,12 @@ private CompletableFuture<Void> visitReadCommand(InvocationContext ctx, FlagAffe
       CacheTopology beginTopology = stateTransferManager.getCacheTopology();
       consistentHashUpdater.accept(beginTopology.getReadConsistentHash());
       updateTopologyId(command);
-      try {
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } catch (CacheException e) {
-         Throwable ce = e;
-         while (ce instanceof RemoteException) {
-            ce = ce.getCause();
-         }
-         if (!(ce instanceof OutdatedTopologyException) && !(ce instanceof SuspectException))
-            throw e;
+      return ctx.forkInvocation(command, (rCtx, rCommand, rv, throwable) -> {
+         if (throwable == null)
+            return rCtx.shortCircuit(rv);
+
+         if (!isRetryableTopologyException(throwable))
+            throw throwable;
 
          // We increment the topology id so that updateTopologyIdAndWaitForTransactionData waits for the next topology.
          // Without this, we could retry the command too fast and we could get the OutdatedTopologyException again.
@@ -196,8 +193,19 @@ private CompletableFuture<Void> visitReadCommand(InvocationContext ctx, FlagAffe
          command.setTopologyId(newTopologyId);
          waitForTopology(newTopologyId);
 
-         return visitReadCommand(ctx, command, consistentHashUpdater);
+         return visitReadCommand(rCtx, command, consistentHashUpdater);
+      });
+   }
+
+   private static boolean isRetryableTopologyException(Throwable throwable) {
+      if (!(throwable instanceof CacheException))
+         return false;
+
+      Throwable ce = throwable;
+      while (ce instanceof RemoteException) {
+         ce = ce.getCause();
       }
+      return ce instanceof OutdatedTopologyException || ce instanceof SuspectException;
    }
 
    @Override
@@ -231,13 +239,19 @@ private CompletableFuture<Void> handleTxCommand(TxInvocationContext ctx, Transac
       }
       updateTopologyId(command);
 
+      return ctx.forkInvocation(command, (rCtx, rCommand, rv, throwable) ->
+            handleTxReturn(ctx, command, origin, rv, throwable));
+   }
+
+   private CompletableFuture<Void> handleTxReturn(TxInvocationContext ctx, TransactionBoundaryCommand command,
+         Address origin, Object localResult, Throwable throwable) throws Throwable {
       int retryTopologyId = -1;
-      Object localResult = null;
-      try {
-         localResult = ctx.forkInvocationSync(command);
-      } catch (OutdatedTopologyException e) {
+      if (throwable instanceof OutdatedTopologyException) {
          // This can only happen on the originator
          retryTopologyId = Math.max(currentTopologyId(), command.getTopologyId() + 1);
+         localResult = null;
+      } else if (throwable != null) {
+         throw throwable;
       }
 
       // We need to forward the command to the new owners, if the command was asynchronous
@@ -301,13 +315,19 @@ private CompletableFuture<Void> handleTxWriteCommand(InvocationContext ctx, Writ
       }
       updateTopologyId(command);
 
+      return ctx.forkInvocation(command, (rCtx, rCommand, rv, throwable) ->
+            handleTxWriteReturn(ctx, command, rv, throwable));
+   }
+
+   private CompletableFuture<Void> handleTxWriteReturn(InvocationContext ctx, WriteCommand command, Object localResult,
+         Throwable throwable) throws Throwable {
       int retryTopologyId = -1;
-      Object localResult = null;
-      try {
-         localResult = ctx.forkInvocationSync(command);
-      } catch (OutdatedTopologyException e) {
+      if (throwable instanceof OutdatedTopologyException) {
          // This can only happen on the originator
          retryTopologyId = Math.max(currentTopologyId(), command.getTopologyId() + 1);
+         localResult = null;
+      } else if (throwable != null) {
+         throw throwable;
       }
 
       if (ctx.isOriginLocal()) {
@@ -355,15 +375,12 @@ private CompletableFuture<Void> handleNonTxWriteCommand(InvocationContext ctx, W
       }
 
       int commandTopologyId = command.getTopologyId();
-      try {
-         return ctx.shortCircuit(ctx.forkInvocationSync(command));
-      } catch (CacheException e) {
-         Throwable ce = e;
-         while (ce instanceof RemoteException) {
-            ce = ce.getCause();
-         }
-         if (!(ce instanceof OutdatedTopologyException) && !(ce instanceof SuspectException))
-            throw e;
+      return ctx.forkInvocation(command, (rCtx, rCommand, rv, throwable) -> {
+         if (throwable == null)
+            return rCtx.shortCircuit(rv);
+
+         if (!isRetryableTopologyException(throwable))
+            throw throwable;
 
          // We increment the topology id so that updateTopologyIdAndWaitForTransactionData waits for the next topology.
          // Without this, we could retry the command too fast and we could get the OutdatedTopologyException again.
@@ -375,8 +392,8 @@ private CompletableFuture<Void> handleNonTxWriteCommand(InvocationContext ctx, W
          waitForTransactionData(newTopologyId);
 
          command.addFlag(Flag.COMMAND_RETRY);
-         return handleNonTxWriteCommand(ctx, command);
-      }
+         return handleNonTxWriteCommand(rCtx, command);
+      });
    }
 
    @Override
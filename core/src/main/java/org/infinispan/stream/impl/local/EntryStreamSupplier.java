@@ -12,6 +12,7 @@
 
 import java.util.BitSet;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -26,11 +27,22 @@
    private final Cache<K, V> cache;
    private final ConsistentHash hash;
    private final Supplier<Stream<CacheEntry<K, V>>> supplier;
+   private final Function<Set<Integer>, Stream<CacheEntry<K, V>>> segmentSupplier;
 
    public EntryStreamSupplier(Cache<K, V> cache, ConsistentHash hash, Supplier<Stream<CacheEntry<K, V>>> supplier) {
+      this(cache, hash, supplier, null);
+   }
+
+   /**
+    * @param segmentSupplier if not null, used to build the stream when only a segment filter is applied, so that only
+    *                        the entries of those segments are retrieved instead of filtering the whole container
+    */
+   public EntryStreamSupplier(Cache<K, V> cache, ConsistentHash hash, Supplier<Stream<CacheEntry<K, V>>> supplier,
+         Function<Set<Integer>, Stream<CacheEntry<K, V>>> segmentSupplier) {
       this.cache = cache;
       this.hash = hash;
       this.supplier = supplier;
+      this.segmentSupplier = segmentSupplier;
    }
 
    @Override
@@ -43,6 +55,11 @@ public Stream<CacheEntry<K, V>> buildStream(Set<Integer> segmentsToFilter, Set<?
             log.tracef("Applying key filtering %s", keysToFilter);
          }
          stream = keysToFilter.stream().map(advancedCache::getCacheEntry).filter(e -> e != null);
+      } else if (segmentsToFilter != null && hash != null && segmentSupplier != null) {
+         if (trace) {
+            log.tracef("Retrieving only entries of segments %s", segmentsToFilter);
+         }
+         return segmentSupplier.apply(segmentsToFilter);
       } else {
          stream = supplier.get();
       }
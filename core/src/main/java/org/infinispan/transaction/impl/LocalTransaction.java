@@ -20,6 +20,7 @@
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
  * Object that holds transaction's state on the node where it originated; as opposed to {@link RemoteTransaction}.
@@ -35,6 +36,7 @@ public abstract class LocalTransaction extends AbstractCacheTransaction {
 
    private Set<Address> remoteLockedNodes;
    private Set<Object> readKeys = null;
+   private Set<Object> readLockedKeys = null;
 
    private final Transaction transaction;
 
@@ -162,6 +164,42 @@ public boolean keyRead(Object key) {
       return readKeys != null && readKeys.contains(key);
    }
 
+   /**
+    * Records the keys locked in shared mode, in the primary owners of the keys.
+    */
+   public void addAllReadLockedKeys(Collection<?> keys) {
+      if (readLockedKeys == null) readLockedKeys = new HashSet<>(keys.size());
+      readLockedKeys.addAll(keys);
+   }
+
+   /**
+    * @return {@code true} if all the {@code keys} are locked in shared mode, in the primary owners of the keys.
+    */
+   public boolean areKeysReadLocked(Collection<?> keys) {
+      return readLockedKeys != null && readLockedKeys.containsAll(keys);
+   }
+
+   /**
+    * Adds the primary owners of the keys locked in shared mode to the {@code owners} of the keys modified by this
+    * transaction. The primary owners hold the shared locks, so they must take part in the completion of the
+    * transaction even if it does not modify any of their keys.
+    *
+    * @param owners       the owners of the modified keys, or {@code null} if all the members are affected.
+    * @param primaryOwner returns the primary owner of a key.
+    * @return the owners of the modified keys and the primary owners of the keys locked in shared mode, or {@code null}
+    * if all the members are affected.
+    */
+   public Collection<Address> addReadLockOwners(Collection<Address> owners, Function<Object, Address> primaryOwner) {
+      if (owners == null || readLockedKeys == null || readLockedKeys.isEmpty()) {
+         return owners;
+      }
+      Set<Address> allOwners = new HashSet<>(owners);
+      for (Object key : readLockedKeys) {
+         allOwners.add(primaryOwner.apply(key));
+      }
+      return allOwners;
+   }
+
    public void setStateTransferFlag(Flag stateTransferFlag) {
       if (this.getStateTransferFlag() == null &&
             (stateTransferFlag == Flag.PUT_FOR_STATE_TRANSFER ||
@@ -6,6 +6,7 @@
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -21,17 +22,34 @@
 public class CompletableFutures {
 
    private static final CompletableFuture completedEmptyMapFuture = CompletableFuture.completedFuture(Collections.emptyMap());
+   private static final CompletableFuture<Void> completedNullFuture = CompletableFuture.completedFuture(null);
    public static final long BIG_DELAY_NANOS = TimeUnit.DAYS.toNanos(1);
 
    public static <K,V> CompletableFuture<Map<K, V>> returnEmptyMap() {
       return completedEmptyMapFuture;
    }
 
+   /**
+    * Returns a shared future already completed with {@code null}, for methods that only sometimes continue
+    * asynchronously.
+    */
+   public static CompletableFuture<Void> completedNull() {
+      return completedNullFuture;
+   }
+
    public static <T> CompletableFuture<List<T>> sequence(List<CompletableFuture<T>> futures) {
       CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
       return all.thenApply(v -> futures.stream().map(future -> future.join()).collect(Collectors.<T> toList()));
    }
 
+   /**
+    * Wraps {@code t} in a {@link CompletionException}, unless it already is one, so that it can be rethrown from a
+    * completion stage without changing the exception seen by the dependent stages.
+    */
+   public static CompletionException asCompletionException(Throwable t) {
+      return t instanceof CompletionException ? (CompletionException) t : new CompletionException(t);
+   }
+
    public static <T> CompletableFuture<T> completedExceptionFuture(Throwable ex) {
       CompletableFuture<T> future = new CompletableFuture<>();
       future.completeExceptionally(ex);
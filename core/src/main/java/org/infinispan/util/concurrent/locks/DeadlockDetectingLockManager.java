@@ -83,6 +83,22 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
       return super.lockAll(keys, lockOwner, time, unit);
    }
 
+   @Override
+   public KeyAwareLockPromise lockShared(Object key, Object lockOwner, long time, TimeUnit unit) {
+      if (lockOwner instanceof DldGlobalTransaction) {
+         ((DldGlobalTransaction) lockOwner).setLockIntention(Collections.singleton(key));
+      }
+      return super.lockShared(key, lockOwner, time, unit);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAllShared(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      if (lockOwner instanceof DldGlobalTransaction) {
+         ((DldGlobalTransaction) lockOwner).setLockIntention(new HashSet<>(keys));
+      }
+      return super.lockAllShared(keys, lockOwner, time, unit);
+   }
+
    @Override
    public void run() {
       lockContainer.deadlockCheck(this);
@@ -43,6 +43,32 @@ public interface LockManager {
     */
    KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit);
 
+   /**
+    * Same as {@link #lock(Object, Object, long, TimeUnit)} but the lock is acquired in shared mode.
+    * <p>
+    * Many lock owners can hold the shared lock of a {@code key} at the same time, but not while other lock owner holds
+    * the exclusive lock. If the {@code lockOwner} already holds the exclusive lock, it is kept. If the {@code lockOwner}
+    * holds the shared lock and later invokes {@link #lock(Object, Object, long, TimeUnit)}, the lock is upgraded.
+    *
+    * @param key       key to lock.
+    * @param lockOwner the owner of the lock.
+    * @param time      the maximum time to wait for the lock
+    * @param unit      the time unit of the {@code time} argument
+    * @return the {@link KeyAwareLockPromise} associated to this keys.
+    */
+   KeyAwareLockPromise lockShared(Object key, Object lockOwner, long time, TimeUnit unit);
+
+   /**
+    * Same as {@link #lockShared(Object, Object, long, TimeUnit)} but for multiple keys.
+    *
+    * @param keys      keys to lock.
+    * @param lockOwner the owner of the lock.
+    * @param time      the maximum time to wait for the lock
+    * @param unit      the time unit of the {@code time} argument
+    * @return the {@link KeyAwareLockPromise} associated to this keys.
+    */
+   KeyAwareLockPromise lockAllShared(Collection<?> keys, Object lockOwner, long time, TimeUnit unit);
+
    /**
     * Releases the lock for the {@code key} if the {@code lockOwner} is the lock owner.
     *
@@ -67,7 +93,7 @@ public interface LockManager {
    void unlockAll(InvocationContext context);
 
    /**
-    * Tests if the {@code lockOwner} owns a lock on the {@code key}.
+    * Tests if the {@code lockOwner} owns a lock, exclusive or shared, on the {@code key}.
     *
     * @param key       key to test.
     * @param lockOwner the owner of the lock.
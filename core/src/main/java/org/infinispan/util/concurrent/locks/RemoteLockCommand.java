@@ -44,4 +44,13 @@ public interface RemoteLockCommand {
     * @return {@code true} if locks should be acquired for the keys in {@link #getKeysToLock()}.
     */
    boolean hasSkipLocking();
+
+   /**
+    * It checks if the locks for the keys in {@link #getKeysToLock()} should be acquired in shared mode.
+    *
+    * @return {@code true} if the locks should be acquired in shared mode, {@code false} for exclusive mode.
+    */
+   default boolean hasSharedLocking() {
+      return false;
+   }
 }
@@ -66,20 +66,38 @@ public void inject(LockContainer container, Configuration configuration,
 
    @Override
    public KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit) {
+      return lock(key, lockOwner, time, unit, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      return lockAll(keys, lockOwner, time, unit, false);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockShared(Object key, Object lockOwner, long time, TimeUnit unit) {
+      return lock(key, lockOwner, time, unit, true);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAllShared(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      return lockAll(keys, lockOwner, time, unit, true);
+   }
+
+   private KeyAwareLockPromise lock(Object key, Object lockOwner, long time, TimeUnit unit, boolean shared) {
       Objects.requireNonNull(key, "Key must be non null");
       Objects.requireNonNull(lockOwner, "Lock owner must be non null");
       Objects.requireNonNull(unit, "Time unit must be non null");
 
       if (trace) {
-         log.tracef("Lock key=%s for owner=%s. timeout=%s (%s)", key, lockOwner, time, unit);
+         log.tracef("Lock key=%s for owner=%s. timeout=%s (%s), shared=%s", key, lockOwner, time, unit, shared);
       }
 
-      ExtendedLockPromise promise = lockContainer.acquire(key, lockOwner, time, unit);
+      ExtendedLockPromise promise = acquire(key, lockOwner, time, unit, shared);
       return new KeyAwareExtendedLockPromise(promise, key, unit.toMillis(time)).scheduleLockTimeoutTask(scheduler);
    }
 
-   @Override
-   public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+   private KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long time, TimeUnit unit, boolean shared) {
       Objects.requireNonNull(keys, "Keys must be non null");
       Objects.requireNonNull(lockOwner, "Lock owner must be non null");
       Objects.requireNonNull(unit, "Time unit must be non null");
@@ -91,18 +109,18 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
          return KeyAwareLockPromise.NO_OP;
       } else if (keys.size() == 1) {
          //although will have the cost of creating an iterator, at least, we don't need to enter the synchronized section.
-         return lock(keys.iterator().next(), lockOwner, time, unit);
+         return lock(keys.iterator().next(), lockOwner, time, unit, shared);
       }
 
       final Set<Object> uniqueKeys = filterDistinctKeys(keys);
 
       if (uniqueKeys.size() == 1) {
          //although will have the cost of creating an iterator, at least, we don't need to enter the synchronized section.
-         return lock(uniqueKeys.iterator().next(), lockOwner, time, unit);
+         return lock(uniqueKeys.iterator().next(), lockOwner, time, unit, shared);
       }
 
       if (trace) {
-         log.tracef("Lock all keys=%s for owner=%s. timeout=%s (%s)", uniqueKeys, lockOwner, time, unit);
+         log.tracef("Lock all keys=%s for owner=%s. timeout=%s (%s), shared=%s", uniqueKeys, lockOwner, time, unit, shared);
       }
 
       final CompositeLockPromise compositeLockPromise = new CompositeLockPromise(uniqueKeys.size());
@@ -110,13 +128,19 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
       //ordering will not solve the problem since acquire() is non-blocking and each lock owner can iterate faster/slower than the other.
       synchronized (this) {
          for (Object key : uniqueKeys) {
-            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(lockContainer.acquire(key, lockOwner, time, unit), key, unit.toMillis(time)));
+            compositeLockPromise.addLock(new KeyAwareExtendedLockPromise(acquire(key, lockOwner, time, unit, shared), key, unit.toMillis(time)));
          }
       }
       compositeLockPromise.markListAsFinal();
       return compositeLockPromise.scheduleLockTimeoutTask(scheduler, time, unit);
    }
 
+   private ExtendedLockPromise acquire(Object key, Object lockOwner, long time, TimeUnit unit, boolean shared) {
+      return shared ?
+            lockContainer.acquireShared(key, lockOwner, time, unit) :
+            lockContainer.acquire(key, lockOwner, time, unit);
+   }
+
    private Set<Object> filterDistinctKeys(Collection<?> collection) {
       if (collection instanceof Set) {
          //noinspection unchecked
@@ -155,8 +179,8 @@ public void unlockAll(InvocationContext context) {
 
    @Override
    public boolean ownsLock(Object key, Object lockOwner) {
-      Object currentOwner = getOwner(key);
-      return currentOwner != null && currentOwner.equals(lockOwner);
+      InfinispanLock lock = lockContainer.getLock(key);
+      return lock != null && lock.isLockOwner(lockOwner);
    }
 
    @Override
@@ -10,11 +10,15 @@
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
-import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -32,6 +36,12 @@
  * In addition, it has an asynchronous interface. {@link #acquire(Object, long, TimeUnit)}  will not acquire the lock
  * immediately (except if it is free) but will return a {@link ExtendedLockPromise}. This promise allow to test if the
  * lock is acquired asynchronously and cancel the lock acquisition, without any blocking.
+ * <p/>
+ * The lock can be acquired in exclusive mode, by a single lock owner, or in shared mode, by any number of lock owners
+ * (see {@link #acquireShared(Object, long, TimeUnit)}). The requests are granted in FIFO order, so a shared request
+ * waits behind an exclusive request queued before it. A lock owner holding the lock in shared mode can upgrade it by
+ * requesting it in exclusive mode: the upgrade goes to the head of the queue and it is granted when the other shared
+ * lock owners release the lock.
  *
  * @author Pedro Ruivo
  * @since 8.0
@@ -40,14 +50,13 @@ public class InfinispanLock {
 
    private static final Log log = LogFactory.getLog(InfinispanLock.class);
    private static final boolean trace = log.isTraceEnabled();
-   private static final AtomicReferenceFieldUpdater<InfinispanLock, LockPlaceHolder> OWNER_UPDATER =
-         newUpdater(InfinispanLock.class, LockPlaceHolder.class, "current");
    private static final AtomicReferenceFieldUpdater<LockPlaceHolder, LockState> STATE_UPDATER =
          newUpdater(LockPlaceHolder.class, LockState.class, "lockState");
 
 
-   private final Queue<LockPlaceHolder> pendingRequest;
+   private final Deque<LockPlaceHolder> pendingRequest;
    private final ConcurrentMap<Object, LockPlaceHolder> lockOwners;
+   private final Set<LockPlaceHolder> sharedOwners;
    private final Runnable releaseRunnable;
    private TimeService timeService;
    private volatile LockPlaceHolder current;
@@ -59,8 +68,9 @@ public class InfinispanLock {
     */
    public InfinispanLock(TimeService timeService) {
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
+      pendingRequest = new ConcurrentLinkedDeque<>();
       lockOwners = new ConcurrentHashMap<>();
+      sharedOwners = ConcurrentHashMap.newKeySet();
       current = null;
       releaseRunnable = null;
    }
@@ -73,8 +83,9 @@ public InfinispanLock(TimeService timeService) {
     */
    public InfinispanLock(TimeService timeService, Runnable releaseRunnable) {
       this.timeService = timeService;
-      pendingRequest = new ConcurrentLinkedQueue<>();
+      pendingRequest = new ConcurrentLinkedDeque<>();
       lockOwners = new ConcurrentHashMap<>();
+      sharedOwners = ConcurrentHashMap.newKeySet();
       current = null;
       this.releaseRunnable = releaseRunnable;
    }
@@ -89,10 +100,11 @@ public void setTimeService(TimeService timeService) {
    }
 
    /**
-    * It tries to acquire this lock.
+    * It tries to acquire this lock in exclusive mode.
     * <p/>
     * If it is invoked multiple times with the same owner, the same {@link ExtendedLockPromise} is returned until it has
-    * timed-out or {@link #release(Object)}  is invoked.
+    * timed-out or {@link #release(Object)}  is invoked. If the owner already holds (or waits for) the lock in shared
+    * mode, the lock is upgraded to exclusive mode.
     * <p/>
     * If the lock is free, it is immediately acquired, otherwise the lock owner is queued.
     *
@@ -103,38 +115,64 @@ public void setTimeService(TimeService timeService) {
     * @throws NullPointerException if {@code lockOwner} or {@code timeUnit} is {@code null}.
     */
    public ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUnit) {
+      return acquire(lockOwner, time, timeUnit, false);
+   }
+
+   /**
+    * It tries to acquire this lock in shared mode.
+    * <p/>
+    * The lock is immediately acquired if it is free or held by other lock owners in shared mode, and no exclusive
+    * request is queued. Otherwise the lock owner is queued. If the owner already holds (or waits for) the lock in any
+    * mode, the same {@link ExtendedLockPromise} is returned.
+    *
+    * @param lockOwner the lock owner who needs to acquire the lock.
+    * @param time      the timeout value.
+    * @param timeUnit  the timeout unit.
+    * @return an {@link ExtendedLockPromise}.
+    * @throws NullPointerException if {@code lockOwner} or {@code timeUnit} is {@code null}.
+    */
+   public ExtendedLockPromise acquireShared(Object lockOwner, long time, TimeUnit timeUnit) {
+      return acquire(lockOwner, time, timeUnit, true);
+   }
+
+   private ExtendedLockPromise acquire(Object lockOwner, long time, TimeUnit timeUnit, boolean shared) {
       Objects.requireNonNull(lockOwner, "Lock Owner should be non-null");
       Objects.requireNonNull(timeUnit, "Time Unit should be non-null");
 
       if (trace) {
-         log.tracef("Acquire lock for %s. Timeout=%s (%s)", lockOwner, time, timeUnit);
+         log.tracef("Acquire %s lock for %s. Timeout=%s (%s)", shared ? "shared" : "exclusive", lockOwner, time, timeUnit);
       }
 
-      LockPlaceHolder lockPlaceHolder = lockOwners.get(lockOwner);
-      if (lockPlaceHolder != null) {
-         if (trace) {
-            log.tracef("Lock owner already exists: %s", lockPlaceHolder);
-         }
-         return lockPlaceHolder;
-      }
-
-      lockPlaceHolder = createLockInfo(lockOwner, time, timeUnit);
-      LockPlaceHolder other = lockOwners.putIfAbsent(lockOwner, lockPlaceHolder);
-
-      if (other != null) {
-         if (trace) {
-            log.tracef("Lock owner already exists: %s", other);
+      do {
+         LockPlaceHolder existing = lockOwners.get(lockOwner);
+         if (existing == null) {
+            LockPlaceHolder lockPlaceHolder = createLockInfo(lockOwner, time, timeUnit, shared, null);
+            if (lockOwners.putIfAbsent(lockOwner, lockPlaceHolder) == null) {
+               if (trace) {
+                  log.tracef("Created a new one: %s", lockPlaceHolder);
+               }
+               pendingRequest.add(lockPlaceHolder);
+               tryAcquire(null);
+               return lockPlaceHolder;
+            }
+         } else if (shared || !existing.shared) {
+            if (trace) {
+               log.tracef("Lock owner already exists: %s", existing);
+            }
+            return existing;
+         } else {
+            //the upgrade has priority over the other requests: the lock owner may already hold the shared lock
+            LockPlaceHolder upgrade = createLockInfo(lockOwner, time, timeUnit, false, existing);
+            if (lockOwners.replace(lockOwner, existing, upgrade)) {
+               if (trace) {
+                  log.tracef("Upgrading %s to %s", existing, upgrade);
+               }
+               pendingRequest.addFirst(upgrade);
+               tryAcquire(null);
+               return upgrade;
+            }
          }
-         return other;
-      }
-
-      if (trace) {
-         log.tracef("Created a new one: %s", lockPlaceHolder);
-      }
-
-      pendingRequest.add(lockPlaceHolder);
-      tryAcquire(null);
-      return lockPlaceHolder;
+      } while (true);
    }
 
    /**
@@ -168,19 +206,51 @@ public void release(Object lockOwner) {
       if (trace) {
          log.tracef("Release lock for %s? %s", wantToRelease, released);
       }
-
-      LockPlaceHolder currentLocked = current;
-      if (currentLocked == wantToRelease) {
-         tryAcquire(wantToRelease);
+      if (wantToRelease.upgradeOf != null) {
+         //the shared lock is released with the upgrade
+         wantToRelease.upgradeOf.setReleased();
       }
+
+      tryAcquire(wantToRelease);
    }
 
    /**
-    * @return the current lock owner or {@code null} if it is not acquired.
+    * @return the current lock owner or {@code null} if it is not acquired. If the lock is held in shared mode, one of
+    * the shared lock owners is returned.
     */
    public Object getLockOwner() {
       LockPlaceHolder lockPlaceHolder = current;
-      return lockPlaceHolder == null ? null : lockPlaceHolder.owner;
+      if (lockPlaceHolder != null) {
+         return lockPlaceHolder.owner;
+      }
+      Iterator<LockPlaceHolder> iterator = sharedOwners.iterator();
+      return iterator.hasNext() ? iterator.next().owner : null;
+   }
+
+   /**
+    * It tests if the lock is held by {@code lockOwner}, in exclusive or shared mode.
+    *
+    * @param lockOwner the lock owner to test.
+    * @return {@code true} if {@code lockOwner} holds the lock.
+    */
+   public boolean isLockOwner(Object lockOwner) {
+      LockPlaceHolder lockPlaceHolder = current;
+      if (lockPlaceHolder != null) {
+         return lockPlaceHolder.owner.equals(lockOwner);
+      }
+      for (LockPlaceHolder sharedOwner : sharedOwners) {
+         if (sharedOwner.owner.equals(lockOwner)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   /**
+    * @return {@code true} if the lock is held in shared mode.
+    */
+   public boolean isSharedLocked() {
+      return !sharedOwners.isEmpty();
    }
 
    /**
@@ -191,7 +261,7 @@ public Object getLockOwner() {
     * @return {@code true} if the lock is acquired.
     */
    public boolean isLocked() {
-      return current != null;
+      return current != null || !sharedOwners.isEmpty();
    }
 
    /**
@@ -207,6 +277,29 @@ public void deadlockCheck(DeadlockChecker deadlockChecker) {
             pending.checkDeadlock(deadlockChecker, holder.owner);
          }
       }
+      //an exclusive request waits for every shared lock owner
+      for (LockPlaceHolder sharedOwner : sharedOwners) {
+         for (LockPlaceHolder pending : pendingRequest) {
+            if (!pending.shared) {
+               pending.checkDeadlock(deadlockChecker, sharedOwner.owner);
+            }
+         }
+      }
+      //the requests are granted in FIFO order, so a request also waits for the exclusive requests queued before it
+      List<Object> queuedExclusiveOwners = null;
+      for (LockPlaceHolder pending : pendingRequest) {
+         if (queuedExclusiveOwners != null) {
+            for (Object exclusiveOwner : queuedExclusiveOwners) {
+               pending.checkDeadlock(deadlockChecker, exclusiveOwner);
+            }
+         }
+         if (!pending.shared && pending.lockState == LockState.WAITING) {
+            if (queuedExclusiveOwners == null) {
+               queuedExclusiveOwners = new ArrayList<>(4);
+            }
+            queuedExclusiveOwners.add(pending.owner);
+         }
+      }
    }
 
    /**
@@ -225,18 +318,12 @@ private void onCanceled(LockPlaceHolder canceled) {
       if (trace) {
          log.tracef("Release lock for %s. It was canceled.", canceled.owner);
       }
-      LockPlaceHolder currentLocked = current;
-      if (currentLocked == canceled) {
-         tryAcquire(canceled);
-      }
-   }
-
-   private boolean casRelease(LockPlaceHolder lockPlaceHolder) {
-      return cas(lockPlaceHolder, null);
+      //the canceled request may be blocking the requests queued behind it
+      tryAcquire(null);
    }
 
-   private boolean remove(Object lockOwner) {
-      return lockOwners.remove(lockOwner) != null;
+   private boolean remove(LockPlaceHolder lockPlaceHolder) {
+      return lockOwners.remove(lockPlaceHolder.owner, lockPlaceHolder);
    }
 
    private void triggerReleased() {
@@ -245,69 +332,99 @@ private void triggerReleased() {
       }
    }
 
-   private boolean cas(LockPlaceHolder release, LockPlaceHolder acquire) {
-      boolean cas = OWNER_UPDATER.compareAndSet(this, release, acquire);
-      if (trace) {
-         log.tracef("Lock Owner CAS(%s, %s) => %s", release, acquire, cas);
-      }
-      return cas;
-   }
-
    private void tryAcquire(LockPlaceHolder release) {
-      LockPlaceHolder toRelease = release;
-      do {
-         LockPlaceHolder toAcquire = pendingRequest.peek();
-         if (trace) {
-            log.tracef("Try acquire. Next in queue=%s. Current=%s", toAcquire, current);
-         }
-         if (toAcquire == null && toRelease == null) {
-            return;
-         } else if (toAcquire == null) {
-            //nothing to acquire, but we have to release the current.
-            if (casRelease(toRelease)) {
-               toRelease = null;
-               continue; //in the meanwhile, we could have a new request. recheck!
+      List<LockPlaceHolder> acquired = null;
+      //the grant decisions are made under the lock, but the listeners are notified outside it
+      synchronized (this) {
+         if (release != null) {
+            if (current == release) {
+               current = null;
+            } else {
+               sharedOwners.remove(release);
+            }
+            if (release.upgradeOf != null) {
+               sharedOwners.remove(release.upgradeOf);
             }
-            return;
          }
-         if (cas(toRelease, toAcquire)) {
-            //we set the current lock owner, so we must remove it from the queue
-            pendingRequest.remove(toAcquire);
-            if (toAcquire.setAcquire()) {
+         LockPlaceHolder toAcquire;
+         while ((toAcquire = pendingRequest.peek()) != null) {
+            if (trace) {
+               log.tracef("Try acquire. Next in queue=%s. Current=%s. Shared=%s", toAcquire, current, sharedOwners);
+            }
+            if (toAcquire.lockState != LockState.WAITING) {
+               //oh oh, probably it timed-out or it was released before acquiring the lock. try the next in queue
+               pendingRequest.remove(toAcquire);
+               continue;
+            }
+            if (!canAcquire(toAcquire)) {
                if (trace) {
-                  log.tracef("%s successfully acquired the lock.", toAcquire);
+                  log.tracef("Unable to acquire. Lock is held.");
                }
-               return;
+               break;
             }
-            if (trace) {
-               log.tracef("%s failed to acquire (invalid state). Retrying.", toAcquire);
+            if (!toAcquire.casState(LockState.WAITING, LockState.ACQUIRED)) {
+               continue; //the state changed in the meanwhile. it is removed in the next iteration
             }
-            //oh oh, probably the nextPending Timed-Out. we are going to retry with the next in queue
-            toRelease = toAcquire;
-         } else {
+            pendingRequest.remove(toAcquire);
+            if (acquired == null) {
+               acquired = new ArrayList<>(4);
+            }
+            acquired.add(toAcquire);
             if (trace) {
-               log.tracef("Unable to acquire. Lock is held.");
+               log.tracef("%s successfully acquired the lock.", toAcquire);
             }
-            //other thread already set the current lock owner
-            return;
+            if (toAcquire.shared) {
+               sharedOwners.add(toAcquire);
+               continue; //the next in queue may be shared too
+            }
+            current = toAcquire;
+            LockPlaceHolder upgraded = toAcquire.upgradeOf;
+            if (upgraded != null) {
+               sharedOwners.remove(upgraded);
+               if (upgraded.casState(LockState.WAITING, LockState.ACQUIRED)) {
+                  //the shared request was still queued, but the lock owner now holds the exclusive lock
+                  pendingRequest.remove(upgraded);
+                  acquired.add(upgraded);
+               }
+            }
+            break;
          }
-      } while (true);
+      }
+      if (acquired != null) {
+         acquired.forEach(LockPlaceHolder::notifyListeners);
+      }
+   }
+
+   private boolean canAcquire(LockPlaceHolder toAcquire) {
+      if (current != null) {
+         return false;
+      } else if (toAcquire.shared) {
+         return true;
+      }
+      int numberOfSharedOwners = sharedOwners.size();
+      return numberOfSharedOwners == 0 ||
+            (numberOfSharedOwners == 1 && toAcquire.upgradeOf != null && sharedOwners.contains(toAcquire.upgradeOf));
    }
 
-   private LockPlaceHolder createLockInfo(Object lockOwner, long time, TimeUnit timeUnit) {
-      return new LockPlaceHolder(lockOwner, timeService.expectedEndTime(time, timeUnit));
+   private LockPlaceHolder createLockInfo(Object lockOwner, long time, TimeUnit timeUnit, boolean shared,
+                                          LockPlaceHolder upgradeOf) {
+      return new LockPlaceHolder(lockOwner, timeService.expectedEndTime(time, timeUnit), shared, upgradeOf);
    }
 
    private class LockPlaceHolder implements ExtendedLockPromise {
 
       private final Object owner;
       private final long timeout;
+      private final boolean shared;
+      private final LockPlaceHolder upgradeOf;
       private final CompletableFuture<Void> notifier;
       volatile LockState lockState;
 
-      private LockPlaceHolder(Object owner, long timeout) {
+      private LockPlaceHolder(Object owner, long timeout, boolean shared, LockPlaceHolder upgradeOf) {
          this.owner = owner;
          this.timeout = timeout;
+         this.shared = shared;
+         this.upgradeOf = upgradeOf;
          lockState = LockState.WAITING;
          notifier = new CompletableFuture<>();
       }
@@ -380,8 +497,7 @@ public Object getRequestor() {
 
       @Override
       public Object getOwner() {
-         LockPlaceHolder owner = current;
-         return owner != null ? owner.owner : null;
+         return getLockOwner();
       }
 
       @Override
@@ -389,6 +505,8 @@ public String toString() {
          return "LockPlaceHolder{" +
                "lockState=" + lockState +
                ", owner=" + owner +
+               ", shared=" + shared +
+               ", upgrade=" + (upgradeOf != null) +
                '}';
       }
 
@@ -427,13 +545,6 @@ private void checkDeadlock(DeadlockChecker checker, Object currentOwner) {
          }
       }
 
-      private boolean setAcquire() {
-         if (casState(LockState.WAITING, LockState.ACQUIRED)) {
-            notifyListeners();
-         }
-         return lockState == LockState.ACQUIRED;
-      }
-
       private boolean setReleased() {
          do {
             LockState state = lockState;
@@ -470,7 +581,12 @@ private boolean casState(LockState expect, LockState update) {
       }
 
       private void cleanup() {
-         if (remove(owner)) {
+         if (upgradeOf != null && lockState != LockState.RELEASED && upgradeOf.lockState != LockState.RELEASED) {
+            //the upgrade failed but the lock owner still holds (or waits for) the shared lock
+            lockOwners.replace(owner, this, upgradeOf);
+            return;
+         }
+         if (remove(this)) {
             triggerReleased();
          }
       }
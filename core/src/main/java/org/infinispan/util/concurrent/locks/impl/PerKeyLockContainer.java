@@ -48,6 +48,19 @@ public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, Time
       return reference.get();
    }
 
+   @Override
+   public ExtendedLockPromise acquireShared(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+      ByRef<ExtendedLockPromise> reference = ByRef.create(null);
+      lockMap.compute(key, (aKey, lock) -> {
+         if (lock == null) {
+            lock = createInfinispanLock(aKey);
+         }
+         reference.set(lock.acquireShared(lockOwner, time, timeUnit));
+         return lock;
+      });
+      return reference.get();
+   }
+
    @Override
    public InfinispanLock getLock(Object key) {
       return lockMap.get(key);
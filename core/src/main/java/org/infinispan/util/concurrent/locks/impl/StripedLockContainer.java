@@ -44,6 +44,11 @@ public ExtendedLockPromise acquire(Object key, Object lockOwner, long time, Time
       return getLock(key).acquire(lockOwner, time, timeUnit);
    }
 
+   @Override
+   public ExtendedLockPromise acquireShared(Object key, Object lockOwner, long time, TimeUnit timeUnit) {
+      return getLock(key).acquireShared(lockOwner, time, timeUnit);
+   }
+
    @Override
    public void release(Object key, Object lockOwner) {
       getLock(key).release(lockOwner);
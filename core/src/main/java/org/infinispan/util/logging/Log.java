@@ -1412,4 +1412,19 @@ TimeoutException timeoutWaitingForView(int expectedViewId, int currentViewId,
    @LogMessage(level = WARN)
    @Message(value = "Classpath does not look correct. Make sure you are not mixing uber and jars", id = 411)
    void warnAboutUberJarDuplicates();
+
+   @Message(value = "staggeredGetPercentile must be between 0 and 100, exclusive, we got %s", id = 412)
+   CacheConfigurationException invalidStaggeredGetPercentile(double percentile);
+
+   @Message(value = "antiEntropyInterval must be greater than or equal to 0, we got %d", id = 413)
+   CacheConfigurationException invalidAntiEntropyInterval(long interval);
+
+   @Message(value = "asyncBatchSize must be greater than or equal to 0, we got %d", id = 414)
+   CacheConfigurationException invalidAsyncBatchSize(int batchSize);
+
+   @Message(value = "Batching can only be used with asynchronous backup strategy.", id = 415)
+   CacheConfigurationException asyncBatchSyncBackup();
+
+   @Message(value = "asyncBatchInterval must be greater than 0, we got %d", id = 416)
+   CacheConfigurationException invalidAsyncBatchInterval(long interval);
 }
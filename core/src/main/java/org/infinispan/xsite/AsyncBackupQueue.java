@@ -0,0 +1,235 @@
+package org.infinispan.xsite;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.commands.VisitableCommand;
+import org.infinispan.commands.tx.PrepareCommand;
+import org.infinispan.commands.write.ClearCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
+import org.infinispan.commands.write.RemoveCommand;
+import org.infinispan.commands.write.ReplaceCommand;
+import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.util.ByteString;
+import org.infinispan.util.TimeService;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Queues the modifications backed up asynchronously to a site and sends them in batches.
+ * <p>
+ * Only the last modification of each key is kept while it is queued, and a clear discards all the queued
+ * modifications. The queue is flushed when it contains {@link BackupConfiguration#asyncBatchSize()} keys or every
+ * {@link BackupConfiguration#asyncBatchInterval()} milliseconds, whichever comes first. Batches are sent in the order
+ * they were created, so the backup site sees the modifications of a key in the order they were queued.
+ *
+ * @since 9.0
+ */
+public class AsyncBackupQueue {
+
+   private static final Log log = LogFactory.getLog(AsyncBackupQueue.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final XSiteBatchCommand.Modification REMOVE = new XSiteBatchCommand.Modification(null, null);
+
+   private final String cacheName;
+   private final ByteString cacheByteName;
+   private final XSiteBackup backup;
+   private final int batchSize;
+   private final Transport transport;
+   private final StreamingMarshaller marshaller;
+   private final TimeService timeService;
+   // Flushes hold it while they create and send the batch, so that the batches are sent in order
+   private final Object sendLock = new Object();
+
+   // The fields below are guarded by "this"
+   private Map<Object, XSiteBatchCommand.Modification> pending = new HashMap<>();
+   private boolean clear;
+   private long oldestPendingTime;
+
+   private final AtomicLong modificationsQueued = new AtomicLong();
+   private final AtomicLong modificationsCoalesced = new AtomicLong();
+   private final AtomicLong batchesSent = new AtomicLong();
+   private final AtomicLong bytesSent = new AtomicLong();
+
+   public AsyncBackupQueue(String cacheName, BackupConfiguration configuration, Transport transport,
+                           StreamingMarshaller marshaller, TimeService timeService) {
+      this.cacheName = cacheName;
+      this.cacheByteName = ByteString.fromString(cacheName);
+      this.backup = new XSiteBackup(configuration.site(), false, configuration.replicationTimeout());
+      this.batchSize = configuration.asyncBatchSize();
+      this.transport = transport;
+      this.marshaller = marshaller;
+      this.timeService = timeService;
+   }
+
+   /**
+    * @return {@code true} if the command was queued, {@code false} if it cannot be batched and must be sent on its
+    *       own after {@link #flush()}.
+    */
+   public boolean enqueue(VisitableCommand command) {
+      List<WriteCommand> modifications;
+      if (command instanceof PrepareCommand) {
+         modifications = Arrays.asList(((PrepareCommand) command).getModifications());
+      } else if (command instanceof WriteCommand) {
+         modifications = Collections.singletonList((WriteCommand) command);
+      } else {
+         return false;
+      }
+      for (WriteCommand modification : modifications) {
+         if (!canBatch(modification)) {
+            return false;
+         }
+      }
+
+      boolean full;
+      synchronized (this) {
+         if (pending.isEmpty() && !clear) {
+            oldestPendingTime = timeService.time();
+         }
+         for (WriteCommand modification : modifications) {
+            add(modification);
+         }
+         full = pending.size() >= batchSize;
+      }
+      if (full) {
+         flush();
+      }
+      return true;
+   }
+
+   /**
+    * Sends the queued modifications, if any, to the backup site.
+    */
+   public void flush() {
+      synchronized (sendLock) {
+         Map<Object, XSiteBatchCommand.Modification> batch;
+         boolean clearBatch;
+         synchronized (this) {
+            if (pending.isEmpty() && !clear) {
+               return;
+            }
+            batch = pending;
+            clearBatch = clear;
+            pending = new HashMap<>();
+            clear = false;
+         }
+         send(batch, clearBatch);
+      }
+   }
+
+   public String getSite() {
+      return backup.getSiteName();
+   }
+
+   /**
+    * @return The number of keys with queued modifications.
+    */
+   public synchronized int getPendingKeys() {
+      return pending.size();
+   }
+
+   /**
+    * @return How long, in milliseconds, the oldest queued modification has been waiting, or 0 if the queue is empty.
+    */
+   public long getLag() {
+      long start;
+      synchronized (this) {
+         if (pending.isEmpty() && !clear) {
+            return 0;
+         }
+         start = oldestPendingTime;
+      }
+      return timeService.timeDuration(start, TimeUnit.MILLISECONDS);
+   }
+
+   public long getModificationsQueued() {
+      return modificationsQueued.get();
+   }
+
+   /**
+    * @return The number of queued modifications that were overwritten by a later modification before being sent.
+    */
+   public long getModificationsCoalesced() {
+      return modificationsCoalesced.get();
+   }
+
+   public long getBatchesSent() {
+      return batchesSent.get();
+   }
+
+   /**
+    * @return The number of compressed bytes sent to the backup site.
+    */
+   public long getBytesSent() {
+      return bytesSent.get();
+   }
+
+   private static boolean canBatch(WriteCommand command) {
+      return command instanceof PutKeyValueCommand || command instanceof RemoveCommand ||
+            command instanceof ReplaceCommand || command instanceof PutMapCommand || command instanceof ClearCommand;
+   }
+
+   private void add(WriteCommand command) {
+      if (command instanceof PutKeyValueCommand) {
+         PutKeyValueCommand put = (PutKeyValueCommand) command;
+         add(put.getKey(), new XSiteBatchCommand.Modification(put.getValue(), put.getMetadata()));
+      } else if (command instanceof RemoveCommand) {
+         add(((RemoveCommand) command).getKey(), REMOVE);
+      } else if (command instanceof ReplaceCommand) {
+         ReplaceCommand replace = (ReplaceCommand) command;
+         add(replace.getKey(), new XSiteBatchCommand.Modification(replace.getNewValue(), replace.getMetadata()));
+      } else if (command instanceof PutMapCommand) {
+         PutMapCommand putMap = (PutMapCommand) command;
+         for (Map.Entry<Object, Object> entry : putMap.getMap().entrySet()) {
+            add(entry.getKey(), new XSiteBatchCommand.Modification(entry.getValue(), putMap.getMetadata()));
+         }
+      } else if (command instanceof ClearCommand) {
+         modificationsQueued.incrementAndGet();
+         modificationsCoalesced.addAndGet(pending.size());
+         pending.clear();
+         clear = true;
+      }
+   }
+
+   private void add(Object key, XSiteBatchCommand.Modification modification) {
+      modificationsQueued.incrementAndGet();
+      if (pending.put(key, modification) != null) {
+         modificationsCoalesced.incrementAndGet();
+      }
+   }
+
+   private void send(Map<Object, XSiteBatchCommand.Modification> batch, boolean clearBatch) {
+      try {
+         XSiteBatchCommand command = XSiteBatchCommand.create(cacheByteName, marshaller, clearBatch, batch);
+         if (trace) {
+            log.tracef("Sending %s to site %s", command, backup.getSiteName());
+         }
+         transport.backupRemotely(Collections.singletonList(backup), command);
+         batchesSent.incrementAndGet();
+         bytesSent.addAndGet(command.getCompressedLength());
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         log.warnXsiteBackupFailed(cacheName, backup.getSiteName(), e);
+      } catch (Exception e) {
+         log.warnXsiteBackupFailed(cacheName, backup.getSiteName(), e);
+      }
+   }
+
+   @Override
+   public String toString() {
+      return "AsyncBackupQueue{" +
+            "site=" + backup.getSiteName() +
+            ", batchSize=" + batchSize +
+            ", pendingKeys=" + getPendingKeys() +
+            '}';
+   }
+}
@@ -18,6 +18,12 @@ public interface BackupReceiver {
 
    Object handleRemoteCommand(VisitableCommand command) throws Throwable;
 
+   /**
+    * It applies a batch of modifications queued asynchronously by the remote site. The keys in the batch are written in
+    * parallel and the method only returns when all of them have been applied.
+    */
+   Object handleRemoteBatch(XSiteBatchCommand command) throws Throwable;
+
    /**
     * It handles the state transfer control from a remote site. The control command must be broadcast to the entire
     * cluster in which the cache exists.
@@ -41,6 +41,13 @@ public interface BackupSender {
 
    OfflineStatus getOfflineStatus(String siteName);
 
+   /**
+    * @return The queue of the modifications backed up asynchronously to the site, or {@code null} if the site does not
+    *       use batching.
+    * @see org.infinispan.configuration.cache.BackupConfiguration#isAsyncBatchingEnabled()
+    */
+   AsyncBackupQueue getAsyncBackupQueue(String siteName);
+
    /**
     * Returns a Map having as entries the site names and as value Boolean.TRUE if the site is online and Boolean.FALSE
     * if it is offline.
@@ -13,6 +13,7 @@
 import org.infinispan.commands.write.RemoveCommand;
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.cache.BackupConfiguration;
@@ -22,8 +23,10 @@
 import org.infinispan.configuration.global.GlobalConfiguration;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
+import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.remoting.transport.AggregateBackupResponse;
 import org.infinispan.remoting.transport.BackupResponse;
 import org.infinispan.remoting.transport.Transport;
@@ -47,7 +50,14 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
-
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+import static org.infinispan.factories.KnownComponentNames.TIMEOUT_SCHEDULE_EXECUTOR;
 import static org.infinispan.util.logging.events.Messages.MESSAGES;
 
 /**
@@ -68,6 +78,11 @@ public class BackupSenderImpl implements BackupSender {
    private final Map<String, CustomFailurePolicy> siteFailurePolicy = new HashMap<>();
    private final ConcurrentMap<String, OfflineStatus> offlineStatus = CollectionFactory.makeConcurrentMap();
    private EventLogManager eventLogManager;
+   private StreamingMarshaller marshaller;
+   private ScheduledExecutorService timeoutExecutor;
+   private ExecutorService asyncTransportExecutor;
+   private final Map<String, AsyncBackupQueue> asyncQueues = new HashMap<>();
+   private final List<ScheduledFuture<?>> flushTasks = new ArrayList<>();
 
    private final String localSiteName;
    private String cacheName;
@@ -81,7 +96,10 @@ public BackupSenderImpl(String localSiteName) {
 
    @Inject
    public void init(Cache cache, Transport transport, TransactionTable txTable, GlobalConfiguration gc,
-                    TimeService timeService, CommandsFactory commandsFactory, EventLogManager eventLogManager) {
+                    TimeService timeService, CommandsFactory commandsFactory, EventLogManager eventLogManager,
+                    @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller,
+                    @ComponentName(TIMEOUT_SCHEDULE_EXECUTOR) ScheduledExecutorService timeoutExecutor,
+                    @ComponentName(ASYNC_TRANSPORT_EXECUTOR) ExecutorService asyncTransportExecutor) {
       this.cache = cache;
       this.transport = transport;
       this.txTable = txTable;
@@ -89,6 +107,9 @@ public void init(Cache cache, Transport transport, TransactionTable txTable, Glo
       this.timeService = timeService;
       this.commandsFactory = commandsFactory;
       this.eventLogManager = eventLogManager;
+      this.marshaller = marshaller;
+      this.timeoutExecutor = timeoutExecutor;
+      this.asyncTransportExecutor = asyncTransportExecutor;
    }
 
    @Start
@@ -119,9 +140,25 @@ public void siteOffline() {
                                                       }
                                                    });
          offlineStatus.put(siteName, offline);
+         if (bc.isAsyncBatchingEnabled() && !siteName.equals(localSiteName)) {
+            AsyncBackupQueue queue = new AsyncBackupQueue(cacheName, bc, transport, marshaller, timeService);
+            asyncQueues.put(siteName, queue);
+            long interval = bc.asyncBatchInterval();
+            flushTasks.add(timeoutExecutor.scheduleWithFixedDelay(() -> asyncTransportExecutor.execute(queue::flush),
+                                                                  interval, interval, TimeUnit.MILLISECONDS));
+         }
       }
    }
 
+   @Stop
+   public void stop() {
+      flushTasks.forEach(task -> task.cancel(false));
+      flushTasks.clear();
+      // Send what is still queued, the site would never receive it otherwise
+      asyncQueues.values().forEach(AsyncBackupQueue::flush);
+      asyncQueues.clear();
+   }
+
    @Override
    public BackupResponse backupPrepare(PrepareCommand command) throws Exception {
       List<WriteCommand> modifications = filterModifications(command.getModifications());
@@ -212,9 +249,35 @@ public TakeSiteOfflineResponse takeSiteOffline(String siteName) {
    }
 
    private BackupResponse backupCommand(VisitableCommand command, List<XSiteBackup> xSiteBackups) throws Exception {
+      if (!asyncQueues.isEmpty()) {
+         xSiteBackups = enqueueAsyncBackups(command, xSiteBackups);
+         if (xSiteBackups.isEmpty()) {
+            return EMPTY_RESPONSE;
+         }
+      }
       return transport.backupRemotely(xSiteBackups, commandsFactory.buildSingleXSiteRpcCommand(command));
    }
 
+   /**
+    * Queues the command for the sites with batching enabled.
+    *
+    * @return The sites to which the command must be sent directly.
+    */
+   private List<XSiteBackup> enqueueAsyncBackups(VisitableCommand command, List<XSiteBackup> xSiteBackups) {
+      List<XSiteBackup> remaining = new ArrayList<>(xSiteBackups.size());
+      for (XSiteBackup backup : xSiteBackups) {
+         AsyncBackupQueue queue = asyncQueues.get(backup.getSiteName());
+         if (queue == null) {
+            remaining.add(backup);
+         } else if (!queue.enqueue(command)) {
+            // The modifications already queued must reach the site before this command
+            queue.flush();
+            remaining.add(backup);
+         }
+      }
+      return remaining;
+   }
+
    private BackupResponse sendTo1PCBackups(CommitCommand command) throws Exception {
       final LocalTransaction localTx = txTable.getLocalTransaction(command.getGlobalTransaction());
       List<WriteCommand> modifications = filterModifications(localTx.getModifications());
@@ -402,6 +465,11 @@ public OfflineStatus getOfflineStatus(String site) {
       return offlineStatus.get(site);
    }
 
+   @Override
+   public AsyncBackupQueue getAsyncBackupQueue(String site) {
+      return asyncQueues.get(site);
+   }
+
    @Override
    public Map<String, Boolean> status() {
       Map<String, Boolean> result = new HashMap<>(offlineStatus.size());
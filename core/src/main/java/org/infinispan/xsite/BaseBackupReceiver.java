@@ -15,6 +15,7 @@
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
@@ -31,10 +32,15 @@
 
 import javax.transaction.TransactionManager;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
+
 /**
  * Common implementation logic for {@link org.infinispan.xsite.BackupReceiver}
  *
@@ -47,10 +53,12 @@ public abstract class BaseBackupReceiver implements BackupReceiver {
    protected final Cache<Object, Object> cache;
    protected final TimeService timeService;
    private final BackupCacheUpdater siteUpdater;
+   private final StreamingMarshaller marshaller;
 
    protected BaseBackupReceiver(Cache<Object, Object> cache) {
       this.cache = cache;
       this.timeService = cache.getAdvancedCache().getComponentRegistry().getTimeService();
+      this.marshaller = cache.getAdvancedCache().getComponentRegistry().getComponent(StreamingMarshaller.class, CACHE_MARSHALLER);
       siteUpdater = new BackupCacheUpdater(cache);
    }
 
@@ -69,6 +77,11 @@ public final Object handleRemoteCommand(VisitableCommand command) throws Throwab
       return command.acceptVisitor(null, siteUpdater);
    }
 
+   @Override
+   public final Object handleRemoteBatch(XSiteBatchCommand command) throws Throwable {
+      return siteUpdater.applyBatch(command.isClear(), command.getModifications(marshaller));
+   }
+
    public static final class BackupCacheUpdater extends AbstractVisitor {
 
       private static Log log = LogFactory.getLog(BackupCacheUpdater.class);
@@ -165,6 +178,34 @@ public Object visitRollbackCommand(TxInvocationContext ctx, RollbackCommand comm
          return null;
       }
 
+      /**
+       * Applies a batch of modifications sent by an {@link AsyncBackupQueue}. A batch contains at most one
+       * modification per key, so the keys are written in parallel. The next batch from the same site is only applied
+       * after this one completes, which keeps the order of the modifications of a key.
+       */
+      Object applyBatch(boolean clear, Map<Object, XSiteBatchCommand.Modification> modifications) throws Throwable {
+         log.tracef("Processing a remote batch of %d modifications, clear=%s", modifications.size(), clear);
+         if (clear) {
+            backupCache.clear();
+         }
+         CompletableFuture<?>[] futures = new CompletableFuture[modifications.size()];
+         int i = 0;
+         for (Map.Entry<Object, XSiteBatchCommand.Modification> entry : modifications.entrySet()) {
+            XSiteBatchCommand.Modification modification = entry.getValue();
+            if (modification.isRemove()) {
+               futures[i++] = backupCache.removeAsync(entry.getKey());
+            } else {
+               futures[i++] = backupCache.putAsync(entry.getKey(), modification.getValue(), modification.getMetadata());
+            }
+         }
+         try {
+            CompletableFuture.allOf(futures).join();
+         } catch (CompletionException e) {
+            throw e.getCause();
+         }
+         return null;
+      }
+
       private TransactionTable txTable() {
          return backupCache.getComponentRegistry().getComponent(TransactionTable.class);
       }
@@ -25,6 +25,7 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.ToLongFunction;
 
 /**
  * Managed bean exposing sys admin operations for Cross-Site replication functionality.
@@ -253,6 +254,26 @@ public String getTakeOfflineAfterFailures(@Parameter(name = "site", description
       return String.valueOf(offlineStatus.getTakeOffline().afterFailures());
    }
 
+   @ManagedOperation(description = "Returns the number of keys queued on this node for the asynchronous backup to the given site.", displayName = "Returns the number of keys queued for the asynchronous backup to a site.")
+   public String getAsyncBackupQueueSize(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      return asyncBackupQueueStatistic(site, AsyncBackupQueue::getPendingKeys);
+   }
+
+   @ManagedOperation(description = "Returns how long, in milliseconds, the oldest modification queued on this node for the asynchronous backup to the given site has been waiting.", displayName = "Returns the lag of the asynchronous backup to a site.")
+   public String getAsyncBackupLag(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      return asyncBackupQueueStatistic(site, AsyncBackupQueue::getLag);
+   }
+
+   @ManagedOperation(description = "Returns the number of batches sent by this node to the given site.", displayName = "Returns the number of batches sent to a site.")
+   public String getAsyncBackupBatchesSent(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      return asyncBackupQueueStatistic(site, AsyncBackupQueue::getBatchesSent);
+   }
+
+   @ManagedOperation(description = "Returns the number of modifications queued on this node for the given site that were overwritten by a later modification of the same key before being sent.", displayName = "Returns the number of coalesced modifications for a site.")
+   public String getAsyncBackupModificationsCoalesced(@Parameter(name = "site", description = "The name of the backup site") String site) {
+      return asyncBackupQueueStatistic(site, AsyncBackupQueue::getModificationsCoalesced);
+   }
+
    @ManagedOperation(description = "Brings the given site back online on all the cluster.", displayName = "Brings the given site back online on all the cluster.")
    public String bringSiteOnline(@Parameter(name = "site", description = "The name of the backup site") String site) {
       OfflineStatus offlineStatus = backupSender.getOfflineStatus(site);
@@ -392,6 +413,15 @@ private String incorrectSiteName(String site) {
       return "Incorrect site name: " + site;
    }
 
+   private String asyncBackupQueueStatistic(String site, ToLongFunction<AsyncBackupQueue> statistic) {
+      if (backupSender.getOfflineStatus(site) == null)
+         return incorrectSiteName(site);
+      AsyncBackupQueue queue = backupSender.getAsyncBackupQueue(site);
+      if (queue == null)
+         return "Site " + site + " does not use batching";
+      return String.valueOf(statistic.applyAsLong(queue));
+   }
+
    private Map<Address, Response> invokeRemotely(XSiteAdminCommand command) {
       return rpcManager.invokeRemotely(null, command,
                                        rpcManager.getRpcOptionsBuilder(ResponseMode.SYNCHRONOUS_IGNORE_LEAVERS, DeliverOrder.NONE).build());
@@ -0,0 +1,226 @@
+package org.infinispan.xsite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.infinispan.commons.marshall.StreamingMarshaller;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.metadata.Metadata;
+import org.infinispan.util.ByteString;
+
+/**
+ * RPC command to replicate a batch of modifications, queued by an {@link AsyncBackupQueue}, to the backup site.
+ * <p>
+ * The batch contains at most one modification per key, so the modifications can be applied in any order. The keys,
+ * values and metadata are marshalled with the cache marshaller and compressed when the command is created, the backup
+ * site decompresses them with {@link #getModifications(StreamingMarshaller)}.
+ *
+ * @since 9.0
+ */
+public class XSiteBatchCommand extends XSiteReplicateCommand {
+
+   public static final byte COMMAND_ID = 63;
+
+   private boolean clear;
+   private int size;
+   private int uncompressedLength;
+   private byte[] payload;
+
+   public XSiteBatchCommand(ByteString cacheName, boolean clear, int size, int uncompressedLength, byte[] payload) {
+      super(cacheName);
+      this.clear = clear;
+      this.size = size;
+      this.uncompressedLength = uncompressedLength;
+      this.payload = payload;
+   }
+
+   public XSiteBatchCommand(ByteString cacheName) {
+      super(cacheName);
+   }
+
+   public XSiteBatchCommand() {
+      super(null);
+   }
+
+   /**
+    * Marshals and compresses a batch of modifications.
+    */
+   public static XSiteBatchCommand create(ByteString cacheName, StreamingMarshaller marshaller, boolean clear,
+                                          Map<Object, Modification> modifications) throws IOException, InterruptedException {
+      Object[] array = new Object[modifications.size() * 3];
+      int i = 0;
+      for (Map.Entry<Object, Modification> entry : modifications.entrySet()) {
+         array[i++] = entry.getKey();
+         array[i++] = entry.getValue().getValue();
+         array[i++] = entry.getValue().getMetadata();
+      }
+      byte[] bytes = marshaller.objectToByteBuffer(array);
+      return new XSiteBatchCommand(cacheName, clear, modifications.size(), bytes.length, compress(bytes));
+   }
+
+   @Override
+   public Object performInLocalSite(BackupReceiver receiver) throws Throwable {
+      return receiver.handleRemoteBatch(this);
+   }
+
+   @Override
+   public Object perform(InvocationContext ctx) throws Throwable {
+      throw new UnsupportedOperationException("The batch can only be applied in the backup site");
+   }
+
+   /**
+    * @return {@code true} if the cache must be cleared before the modifications are applied.
+    */
+   public boolean isClear() {
+      return clear;
+   }
+
+   /**
+    * @return The number of modifications in the batch.
+    */
+   public int getSize() {
+      return size;
+   }
+
+   /**
+    * @return The size of the compressed batch, in bytes.
+    */
+   public int getCompressedLength() {
+      return payload == null ? 0 : payload.length;
+   }
+
+   /**
+    * Decompresses and unmarshalls the modifications, by key.
+    */
+   public Map<Object, Modification> getModifications(StreamingMarshaller marshaller) throws IOException, ClassNotFoundException {
+      Object[] array = (Object[]) marshaller.objectFromByteBuffer(decompress(payload, uncompressedLength));
+      Map<Object, Modification> modifications = new HashMap<>(size);
+      for (int i = 0; i < array.length; i += 3) {
+         modifications.put(array[i], new Modification(array[i + 1], (Metadata) array[i + 2]));
+      }
+      return modifications;
+   }
+
+   @Override
+   public byte getCommandId() {
+      return COMMAND_ID;
+   }
+
+   @Override
+   public void writeTo(ObjectOutput output) throws IOException {
+      output.writeBoolean(clear);
+      output.writeInt(size);
+      output.writeInt(uncompressedLength);
+      output.writeInt(payload.length);
+      output.write(payload);
+   }
+
+   @Override
+   public void readFrom(ObjectInput input) throws IOException, ClassNotFoundException {
+      clear = input.readBoolean();
+      size = input.readInt();
+      uncompressedLength = input.readInt();
+      payload = new byte[input.readInt()];
+      input.readFully(payload);
+   }
+
+   @Override
+   public boolean isReturnValueExpected() {
+      return false;
+   }
+
+   @Override
+   public boolean canBlock() {
+      return true;
+   }
+
+   @Override
+   public String toString() {
+      return "XSiteBatchCommand{" +
+            "cacheName=" + cacheName +
+            ", clear=" + clear +
+            ", size=" + size +
+            ", uncompressedLength=" + uncompressedLength +
+            ", compressedLength=" + getCompressedLength() +
+            '}';
+   }
+
+   private static byte[] compress(byte[] bytes) {
+      Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+      try {
+         deflater.setInput(bytes);
+         deflater.finish();
+         ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 2));
+         byte[] buffer = new byte[4096];
+         while (!deflater.finished()) {
+            int length = deflater.deflate(buffer);
+            out.write(buffer, 0, length);
+         }
+         return out.toByteArray();
+      } finally {
+         deflater.end();
+      }
+   }
+
+   private static byte[] decompress(byte[] bytes, int uncompressedLength) throws IOException {
+      Inflater inflater = new Inflater();
+      try {
+         inflater.setInput(bytes);
+         byte[] result = new byte[uncompressedLength];
+         int length = 0;
+         while (length < uncompressedLength && !inflater.finished()) {
+            int read = inflater.inflate(result, length, uncompressedLength - length);
+            if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+               break;
+            }
+            length += read;
+         }
+         if (length != uncompressedLength) {
+            throw new IOException("Truncated batch: expected " + uncompressedLength + " bytes, got " + length);
+         }
+         return result;
+      } catch (DataFormatException e) {
+         throw new IOException(e);
+      } finally {
+         inflater.end();
+      }
+   }
+
+   /**
+    * The last modification of a key: either a write of the value with the metadata, or a removal if the value is
+    * {@code null}.
+    */
+   public static final class Modification {
+      private final Object value;
+      private final Metadata metadata;
+
+      public Modification(Object value, Metadata metadata) {
+         this.value = value;
+         this.metadata = metadata;
+      }
+
+      public Object getValue() {
+         return value;
+      }
+
+      public Metadata getMetadata() {
+         return metadata;
+      }
+
+      public boolean isRemove() {
+         return value == null;
+      }
+
+      @Override
+      public String toString() {
+         return isRemove() ? "Modification{remove}" : "Modification{value=" + value + ", metadata=" + metadata + '}';
+      }
+   }
+}
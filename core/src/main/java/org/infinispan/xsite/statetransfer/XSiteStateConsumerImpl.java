@@ -1,27 +1,31 @@
 package org.infinispan.xsite.statetransfer;
 
 import org.infinispan.commands.CommandsFactory;
-import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commands.write.PutMapCommand;
 import org.infinispan.commons.CacheException;
 import org.infinispan.commons.util.EnumUtil;
 import org.infinispan.context.Flag;
 import org.infinispan.context.InvocationContext;
 import org.infinispan.context.InvocationContextFactory;
-import org.infinispan.context.SingleKeyNonTxInvocationContext;
 import org.infinispan.context.impl.TxInvocationContext;
 import org.infinispan.factories.annotations.Inject;
 import org.infinispan.interceptors.InterceptorChain;
+import org.infinispan.metadata.Metadata;
 import org.infinispan.statetransfer.CommitManager;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
 import javax.transaction.TransactionManager;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.infinispan.context.Flag.*;
 
 /**
  * It contains the logic needed to consume the state sent from other site.
+ * <p>
+ * The entries of a chunk are grouped by metadata and each group is written with a single {@link PutMapCommand}.
  *
  * @author Pedro Ruivo
  * @since 7.0
@@ -105,10 +109,10 @@ private void applyStateInTransaction(XSiteState[] chunk) throws Exception {
          InvocationContext ctx = invocationContextFactory.createInvocationContext(transactionManager.getTransaction(),
                                                                                   true);
          ((TxInvocationContext) ctx).getCacheTransaction().setStateTransferFlag(PUT_FOR_X_SITE_STATE_TRANSFER);
-         for (XSiteState siteState : chunk) {
-            interceptorChain.invoke(ctx, createPut(siteState));
+         for (Map.Entry<Metadata, Map<Object, Object>> group : groupByMetadata(chunk).entrySet()) {
+            interceptorChain.invoke(ctx, createPutMap(group.getValue(), group.getKey()));
             if (trace) {
-               log.tracef("Successfully applied key'%s'", siteState);
+               log.tracef("Successfully applied keys %s", group.getValue().keySet());
             }
          }
          transactionManager.commit();
@@ -123,16 +127,14 @@ private void applyStateInTransaction(XSiteState[] chunk) throws Exception {
    }
 
    private void applyStateInNonTransaction(XSiteState[] chunk) {
-      SingleKeyNonTxInvocationContext ctx = (SingleKeyNonTxInvocationContext) invocationContextFactory
-            .createSingleKeyNonTxInvocationContext();
-
-      for (XSiteState siteState : chunk) {
-         PutKeyValueCommand command = createPut(siteState);
+      for (Map.Entry<Metadata, Map<Object, Object>> group : groupByMetadata(chunk).entrySet()) {
+         Map<Object, Object> entries = group.getValue();
+         PutMapCommand command = createPutMap(entries, group.getKey());
+         InvocationContext ctx = invocationContextFactory.createInvocationContext(true, entries.size());
          ctx.setLockOwner(command.getKeyLockOwner());
          interceptorChain.invoke(ctx, command);
-         ctx.resetState(); //re-use same context. Old context is not longer needed
          if (trace) {
-            log.tracef("Successfully applied key'%s'", siteState);
+            log.tracef("Successfully applied keys %s", entries.keySet());
          }
       }
       if (debug) {
@@ -140,9 +142,24 @@ private void applyStateInNonTransaction(XSiteState[] chunk) {
       }
    }
 
-   private PutKeyValueCommand createPut(XSiteState state) {
-      return commandsFactory.buildPutKeyValueCommand(state.key(), state.value(), state.metadata(),
-                                                     STATE_TRANSFER_PUT_FLAGS);
+   /**
+    * Groups the entries with equal metadata, so that each group can be written by a single {@link PutMapCommand}.
+    */
+   private static Map<Metadata, Map<Object, Object>> groupByMetadata(XSiteState[] chunk) {
+      Map<Metadata, Map<Object, Object>> groups = new HashMap<>();
+      for (XSiteState state : chunk) {
+         Map<Object, Object> group = groups.get(state.metadata());
+         if (group == null) {
+            group = new HashMap<>();
+            groups.put(state.metadata(), group);
+         }
+         group.put(state.key(), state.value());
+      }
+      return groups;
+   }
+
+   private PutMapCommand createPutMap(Map<Object, Object> entries, Metadata metadata) {
+      return commandsFactory.buildPutMapCommand(entries, metadata, STATE_TRANSFER_PUT_FLAGS);
    }
 
    private void safeRollback() {
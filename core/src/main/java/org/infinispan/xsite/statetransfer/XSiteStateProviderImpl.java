@@ -1,15 +1,20 @@
 package org.infinispan.xsite.statetransfer;
 
+import org.infinispan.Cache;
 import org.infinispan.commands.CommandsFactory;
 import org.infinispan.commons.CacheException;
+import org.infinispan.commons.marshall.StreamingMarshaller;
 import org.infinispan.commons.util.CollectionFactory;
 import org.infinispan.configuration.cache.BackupConfiguration;
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.XSiteStateTransferConfiguration;
 import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
 import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.factories.annotations.ComponentName;
 import org.infinispan.factories.annotations.Inject;
+import org.infinispan.factories.annotations.Start;
+import org.infinispan.factories.annotations.Stop;
 import org.infinispan.filter.CollectionKeyFilter;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.interceptors.locking.ClusteringDependentLogic;
@@ -21,23 +26,36 @@
 import org.infinispan.remoting.transport.RetryOnFailureXSiteCommand;
 import org.infinispan.statetransfer.StateTransferLock;
 import org.infinispan.util.ReadOnlyDataContainerBackedKeySet;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.concurrent.WithinThreadExecutor;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 import org.infinispan.xsite.XSiteBackup;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.infinispan.factories.KnownComponentNames.ASYNC_TRANSPORT_EXECUTOR;
+import static org.infinispan.factories.KnownComponentNames.CACHE_MARSHALLER;
 import static org.infinispan.persistence.spi.AdvancedCacheLoader.CacheLoaderTask;
 import static org.infinispan.persistence.spi.AdvancedCacheLoader.TaskContext;
 import static org.infinispan.remoting.transport.RetryOnFailureXSiteCommand.MaxRetriesPolicy;
@@ -46,6 +64,11 @@
 
 /**
  * It contains the logic to send state to another site.
+ * <p>
+ * If the data container is a {@link SegmentedDataContainer}, up to {@link XSiteStateTransferConfiguration#parallelSegments()}
+ * segments are iterated and sent concurrently, each in its own chunks. If {@link XSiteStateTransferConfiguration#maxBandwidth()}
+ * is set, the chunks are delayed so that their marshalled size does not exceed it. The additional segment workers run in
+ * a pool owned by this component, as they block while sending their chunks.
  *
  * @author Pedro Ruivo
  * @since 7.0
@@ -69,17 +92,26 @@ public class XSiteStateProviderImpl implements XSiteStateProvider {
    private Configuration configuration;
    private XSiteStateTransferManager stateTransferManager;
    private StateTransferLock stateTransferLock;
+   private StreamingMarshaller marshaller;
+   private TimeService timeService;
+   private String cacheName;
+
+   /**
+    * Runs the segment workers of the state push tasks, {@code null} if no backup sends segments in parallel.
+    */
+   private volatile ExecutorService segmentWorkerExecutor;
 
    public XSiteStateProviderImpl() {
       runningStateTransfer = CollectionFactory.makeConcurrentMap();
    }
 
    @Inject
-   public void inject(DataContainer dataContainer, PersistenceManager persistenceManager, RpcManager rpcManager,
+   public void inject(Cache cache, DataContainer dataContainer, PersistenceManager persistenceManager, RpcManager rpcManager,
                       ClusteringDependentLogic clusteringDependentLogic, CommandsFactory commandsFactory,
                       @ComponentName(value = ASYNC_TRANSPORT_EXECUTOR) ExecutorService executorService,
                       Configuration configuration, XSiteStateTransferManager xSiteStateTransferManager,
-                      StateTransferLock stateTransferLock) {
+                      StateTransferLock stateTransferLock,
+                      @ComponentName(CACHE_MARSHALLER) StreamingMarshaller marshaller, TimeService timeService) {
       this.dataContainer = dataContainer;
       this.persistenceManager = persistenceManager;
       this.clusteringDependentLogic = clusteringDependentLogic;
@@ -89,6 +121,43 @@ public void inject(DataContainer dataContainer, PersistenceManager persistenceMa
       this.configuration = configuration;
       this.stateTransferManager = xSiteStateTransferManager;
       this.stateTransferLock = stateTransferLock;
+      this.marshaller = marshaller;
+      this.timeService = timeService;
+      this.cacheName = cache.getName();
+   }
+
+   @Start
+   public void start() {
+      int maxSegmentWorkers = 0;
+      for (BackupConfiguration backupConfiguration : configuration.sites().allBackups()) {
+         maxSegmentWorkers += Math.max(backupConfiguration.stateTransfer().parallelSegments() - 1, 0);
+      }
+      if (maxSegmentWorkers > 0) {
+         // The segment workers block on the cross-site RPCs and the bandwidth throttle, so they must not take threads
+         // from a shared executor. There is no queue: if all the threads are busy, the task thread sends the segments.
+         ThreadPoolExecutor executor = new ThreadPoolExecutor(maxSegmentWorkers, maxSegmentWorkers, 60L,
+               TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            private final AtomicInteger threadId = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+               Thread t = new Thread(r, "XSiteStateTransferSegmentWorker-" + cacheName + "-" + threadId.getAndIncrement());
+               t.setDaemon(true);
+               return t;
+            }
+         });
+         executor.allowCoreThreadTimeOut(true);
+         segmentWorkerExecutor = executor;
+      }
+   }
+
+   @Stop
+   public void stop() {
+      if (segmentWorkerExecutor != null) {
+         // interrupt the workers waiting for the remote site or the throttle
+         segmentWorkerExecutor.shutdownNow();
+         segmentWorkerExecutor = null;
+      }
    }
 
    @Override
@@ -180,6 +249,9 @@ private void sendFromSharedBuffer(XSiteBackup xSiteBackup, List<XSiteState> shar
          return;
       }
       XSiteState[] privateBuffer = sharedBuffer.toArray(new XSiteState[sharedBuffer.size()]);
+      if (task.throttle != null) {
+         task.throttle.acquire(marshalledSize(privateBuffer));
+      }
 
       if (trace) {
          log.debugf("Sending chunk to site '%s'. Chunk contains %s", xSiteBackup.getSiteName(),
@@ -193,6 +265,14 @@ private void sendFromSharedBuffer(XSiteBackup xSiteBackup, List<XSiteState> shar
       remoteSite.execute(rpcManager.getTransport(), task.waitTime, TimeUnit.MILLISECONDS);
    }
 
+   /**
+    * The transport marshals the command itself, so the chunk is marshalled once more to know its size. It is only done
+    * when the bandwidth is limited.
+    */
+   private int marshalledSize(XSiteState[] chunk) throws IOException, InterruptedException {
+      return marshaller.objectToBuffer(chunk).getLength();
+   }
+
    private void waitForTopology(int topologyId) throws InterruptedException {
       stateTransferLock.waitForTopology(topologyId, 1, TimeUnit.DAYS);
    }
@@ -205,9 +285,11 @@ private class StatePushTask implements Runnable {
       private final RetryPolicy retryPolicy;
       private final long waitTime;
       private final int minTopologyId;
+      private final int parallelSegments;
+      private final BandwidthThrottle throttle;
       private volatile boolean finished;
       private volatile boolean canceled;
-      private boolean error;
+      private volatile boolean error;
 
       public StatePushTask(String siteName, Address origin, XSiteStateTransferConfiguration configuration, int minTopologyId) {
          this.minTopologyId = minTopologyId;
@@ -216,6 +298,8 @@ public StatePushTask(String siteName, Address origin, XSiteStateTransferConfigur
          this.retryPolicy = new MaxRetriesPolicy(configuration.maxRetries());
          this.origin = origin;
          this.xSiteBackup = new XSiteBackup(siteName, true, configuration.timeout());
+         this.parallelSegments = configuration.parallelSegments();
+         this.throttle = configuration.maxBandwidth() > 0 ? new BandwidthThrottle(configuration.maxBandwidth()) : null;
          this.canceled = false;
          this.finished = false;
          this.error = false;
@@ -230,46 +314,23 @@ public void run() {
 
             waitForTopology(minTopologyId);
 
-            final List<XSiteState> chunk = new ArrayList<>(chunkSize <= 0 ? DEFAULT_CHUNK_SIZE : chunkSize);
+            final List<XSiteState> chunk = newChunk();
 
             if (debug) {
                log.debugf("[X-Site State Transfer - %s] start DataContainer iteration", xSiteBackup.getSiteName());
             }
 
-            for (InternalCacheEntry ice : dataContainer) {
-               if (canceled) {
-                  log.debugf("[X-Site State Transfer - %s] State transfer canceled!", xSiteBackup.getSiteName());
-                  return;
-               }
-               if (chunkSize > 0 && chunk.size() == chunkSize) {
-                  try {
-                     sendFromSharedBuffer(xSiteBackup, chunk, this);
-                  } catch (Throwable t) {
-                     error = true;
-                     log.unableToSendXSiteState(xSiteBackup.getSiteName(), t);
-                     return;
-                  }
-                  chunk.clear();
-               }
-               if (shouldSendKey(ice.getKey())) {
-                  if (trace) {
-                     log.tracef("Added key '%s' to current chunk", ice.getKey());
-                  }
-                  chunk.add(XSiteState.fromDataContainer(ice));
-               }
+            if (parallelSegments > 1 && dataContainer instanceof SegmentedDataContainer) {
+               sendSegments();
+            } else if (sendEntries(dataContainer.iterator(), chunk)) {
+               sendChunk(chunk);
             }
-
             if (canceled) {
+               log.debugf("[X-Site State Transfer - %s] State transfer canceled!", xSiteBackup.getSiteName());
                return;
             }
-            if (chunk.size() > 0) {
-               try {
-                  sendFromSharedBuffer(xSiteBackup, chunk, this);
-               } catch (Throwable t) {
-                  error = true;
-                  log.unableToSendXSiteState(xSiteBackup.getSiteName(), t);
-                  return;
-               }
+            if (error) {
+               return;
             }
 
             if (debug) {
@@ -306,9 +367,9 @@ public void run() {
             } else if (debug) {
                log.debugf("[X-Site State Transfer - %s] skip Persistence iteration", xSiteBackup.getSiteName());
             }
-         } catch (InterruptedException e) {
+         } catch (Throwable t) {
             error = true;
-            log.unableToSendXSiteState(xSiteBackup.getSiteName(), e);
+            log.unableToSendXSiteState(xSiteBackup.getSiteName(), t);
          } finally {
             finished = true;
             log.debugf("[X-Site State Transfer - %s] State transfer finished!", xSiteBackup.getSiteName());
@@ -318,6 +379,73 @@ public void run() {
          }
       }
 
+      private List<XSiteState> newChunk() {
+         return new ArrayList<>(chunkSize <= 0 ? DEFAULT_CHUNK_SIZE : chunkSize);
+      }
+
+      private void sendSegments() throws InterruptedException {
+         Queue<Integer> pendingSegments = new ConcurrentLinkedQueue<>();
+         for (int i = 0; i < configuration.clustering().hash().numSegments(); i++) {
+            pendingSegments.add(i);
+         }
+         int numWorkers = Math.min(parallelSegments, pendingSegments.size());
+         List<SegmentWorker> workers = new ArrayList<>(numWorkers - 1);
+         ExecutorService workerExecutor = segmentWorkerExecutor;
+         for (int i = 1; i < numWorkers && workerExecutor != null; i++) {
+            SegmentWorker worker = new SegmentWorker(this, pendingSegments);
+            try {
+               workerExecutor.execute(worker);
+            } catch (RejectedExecutionException e) {
+               // the remaining segments will be sent by the workers that did start
+               break;
+            }
+            workers.add(worker);
+         }
+         new SegmentWorker(this, pendingSegments).run();
+         for (SegmentWorker worker : workers) {
+            worker.awaitCompletion();
+         }
+      }
+
+      /**
+       * Adds the entries owned by the local node to the chunk, sending it whenever it is full, until the iterator is
+       * exhausted or the state transfer is canceled or failed. The last, partial, chunk is not sent.
+       *
+       * @return {@code true} if all the entries were added.
+       */
+      private boolean sendEntries(Iterator<? extends InternalCacheEntry<?, ?>> iterator, List<XSiteState> chunk) {
+         while (iterator.hasNext()) {
+            InternalCacheEntry<?, ?> ice = iterator.next();
+            if (canceled || error) {
+               return false;
+            }
+            if (chunkSize > 0 && chunk.size() == chunkSize) {
+               if (!sendChunk(chunk)) {
+                  return false;
+               }
+            }
+            if (shouldSendKey(ice.getKey())) {
+               if (trace) {
+                  log.tracef("Added key '%s' to current chunk", ice.getKey());
+               }
+               chunk.add(XSiteState.fromDataContainer(ice));
+            }
+         }
+         return !canceled && !error;
+      }
+
+      private boolean sendChunk(List<XSiteState> chunk) {
+         try {
+            sendFromSharedBuffer(xSiteBackup, chunk, this);
+         } catch (Throwable t) {
+            error = true;
+            log.unableToSendXSiteState(xSiteBackup.getSiteName(), t);
+            return false;
+         }
+         chunk.clear();
+         return true;
+      }
+
       @Override
       public String toString() {
          return "StatePushTask{" +
@@ -327,6 +455,83 @@ public String toString() {
       }
    }
 
+   /**
+    * Iterates over the segments taken from a queue shared with the other workers of the same {@link StatePushTask}.
+    */
+   private final class SegmentWorker implements Runnable {
+      private final StatePushTask task;
+      private final Queue<Integer> pendingSegments;
+      private final AtomicBoolean claimed = new AtomicBoolean();
+      private final CountDownLatch done = new CountDownLatch(1);
+
+      SegmentWorker(StatePushTask task, Queue<Integer> pendingSegments) {
+         this.task = task;
+         this.pendingSegments = pendingSegments;
+      }
+
+      @Override
+      public void run() {
+         if (!claimed.compareAndSet(false, true)) {
+            return;
+         }
+         try {
+            @SuppressWarnings("unchecked")
+            SegmentedDataContainer<Object, Object> segmentedContainer = (SegmentedDataContainer<Object, Object>) dataContainer;
+            List<XSiteState> chunk = task.newChunk();
+            Integer segmentId;
+            while ((segmentId = pendingSegments.poll()) != null) {
+               if (!task.sendEntries(segmentedContainer.iterator(Collections.singleton(segmentId)), chunk)) {
+                  return;
+               }
+            }
+            task.sendChunk(chunk);
+         } catch (Throwable t) {
+            // e.g. the iteration failed, the push must not report success
+            task.error = true;
+            log.unableToSendXSiteState(task.xSiteBackup.getSiteName(), t);
+         } finally {
+            done.countDown();
+         }
+      }
+
+      void awaitCompletion() throws InterruptedException {
+         if (claimed.compareAndSet(false, true)) {
+            // the queue is already empty
+            return;
+         }
+         done.await();
+      }
+   }
+
+   /**
+    * Limits the rate at which the chunks of a {@link StatePushTask} are sent. Each chunk reserves a time slot
+    * proportional to its marshalled size, and waits until the slot starts.
+    */
+   private final class BandwidthThrottle {
+      private final long bytesPerSecond;
+      private long nextSendTime;
+
+      BandwidthThrottle(long bytesPerSecond) {
+         this.bytesPerSecond = bytesPerSecond;
+         this.nextSendTime = timeService.time();
+      }
+
+      void acquire(int bytes) throws InterruptedException {
+         long delay;
+         synchronized (this) {
+            long now = timeService.time();
+            if (nextSendTime < now) {
+               nextSendTime = now;
+            }
+            delay = nextSendTime - now;
+            nextSendTime += TimeUnit.SECONDS.toNanos(bytes) / bytesPerSecond;
+         }
+         if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+         }
+      }
+   }
+
    private class CacheLoaderFilter<K> extends CollectionKeyFilter<K> {
 
       public CacheLoaderFilter(Collection<? extends K> rejectedKeys) {
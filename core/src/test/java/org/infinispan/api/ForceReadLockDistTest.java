@@ -0,0 +1,92 @@
+package org.infinispan.api;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.transaction.LockingMode;
+import org.testng.annotations.Test;
+
+import javax.transaction.TransactionManager;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+
+/**
+ * Tests that the shared locks acquired by {@link Flag#FORCE_READ_LOCK} in a primary owner that does not own any of the
+ * keys modified by the transaction are released when the transaction completes.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "api.ForceReadLockDistTest")
+public class ForceReadLockDistTest extends MultipleCacheManagersTest {
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, true);
+      builder.transaction().lockingMode(LockingMode.PESSIMISTIC);
+      builder.clustering().hash().numOwners(1);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testReadLockReleasedAfterCommit() throws Exception {
+      MagicKey readKey = new MagicKey("read", cache(1));
+      MagicKey writeKey = new MagicKey("write", cache(2));
+      cache(0).put(readKey, "v");
+
+      TransactionManager tm = tm(0);
+      tm.begin();
+      assertEquals("v", readLockedGet(readKey));
+      cache(0).put(writeKey, "v");
+      assertLocked(1, readKey);
+      tm.commit();
+
+      assertReadLockReleased(readKey);
+      assertEquals("v", cache(2).get(writeKey));
+   }
+
+   public void testReadLockReleasedAfterRollback() throws Exception {
+      MagicKey readKey = new MagicKey("read", cache(1));
+      MagicKey writeKey = new MagicKey("write", cache(2));
+      cache(0).put(readKey, "v");
+
+      TransactionManager tm = tm(0);
+      tm.begin();
+      assertEquals("v", readLockedGet(readKey));
+      cache(0).put(writeKey, "v");
+      assertLocked(1, readKey);
+      tm.rollback();
+
+      assertReadLockReleased(readKey);
+      assertNull(cache(2).get(writeKey));
+   }
+
+   public void testReadLockReleasedAfterReadOnlyCommit() throws Exception {
+      MagicKey readKey = new MagicKey("read", cache(1));
+      cache(0).put(readKey, "v");
+
+      TransactionManager tm = tm(0);
+      tm.begin();
+      assertEquals("v", readLockedGet(readKey));
+      assertLocked(1, readKey);
+      tm.commit();
+
+      assertReadLockReleased(readKey);
+   }
+
+   private Object readLockedGet(MagicKey key) {
+      AdvancedCache<Object, Object> cache = advancedCache(0);
+      return cache.withFlags(Flag.FORCE_READ_LOCK).get(key);
+   }
+
+   private void assertReadLockReleased(MagicKey readKey) {
+      assertNotLocked(1, readKey);
+      eventually(() -> checkTxCount(1, 0, 0));
+      // A writer gets the lock straight away
+      cache(2).getAdvancedCache().withFlags(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT).put(readKey, "v2");
+      assertEquals("v2", cache(1).get(readKey));
+   }
+}
@@ -0,0 +1,109 @@
+package org.infinispan.api;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.Flag;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.transaction.LockingMode;
+import org.infinispan.util.concurrent.TimeoutException;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests the shared locks acquired by {@link Flag#FORCE_READ_LOCK}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "api.ForceReadLockTest")
+public class ForceReadLockTest extends SingleCacheManagerTest {
+   private TransactionManager tm;
+   private AdvancedCache<String, String> advancedCache;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder cacheConfiguration = TestCacheManagerFactory.getDefaultCacheConfiguration(true);
+      cacheConfiguration.transaction().lockingMode(LockingMode.PESSIMISTIC);
+      EmbeddedCacheManager cacheManager = TestCacheManagerFactory.createCacheManager(cacheConfiguration);
+      advancedCache = cacheManager.<String, String>getCache().getAdvancedCache();
+      tm = TestingUtil.getTransactionManager(advancedCache);
+      return cacheManager;
+   }
+
+   public void testReadLockIsShared() throws Exception {
+      advancedCache.put("k", "v");
+      assertEventuallyNotLocked(advancedCache, "k");
+      LockManager lockManager = TestingUtil.extractLockManager(advancedCache);
+
+      tm.begin();
+      assertEquals("v", advancedCache.withFlags(Flag.FORCE_READ_LOCK).get("k"));
+      Transaction reader1 = tm.suspend();
+
+      tm.begin();
+      assertEquals("v", advancedCache.withFlags(Flag.FORCE_READ_LOCK).get("k"));
+      Transaction reader2 = tm.suspend();
+
+      assertTrue(lockManager.getLock("k").isSharedLocked());
+      assertWriteFails();
+
+      tm.resume(reader2);
+      tm.commit();
+      assertLocked(advancedCache, "k");
+      assertWriteFails();
+
+      tm.resume(reader1);
+      tm.commit();
+      assertEventuallyNotLocked(advancedCache, "k");
+   }
+
+   public void testUpgrade() throws Exception {
+      advancedCache.put("k", "v");
+      LockManager lockManager = TestingUtil.extractLockManager(advancedCache);
+
+      tm.begin();
+      assertEquals("v", advancedCache.withFlags(Flag.FORCE_READ_LOCK).get("k"));
+      assertTrue(lockManager.getLock("k").isSharedLocked());
+      advancedCache.put("k", "v2");
+      assertFalse(lockManager.getLock("k").isSharedLocked());
+      assertLocked(advancedCache, "k");
+      tm.commit();
+
+      assertEventuallyNotLocked(advancedCache, "k");
+      assertEquals("v2", advancedCache.get("k"));
+   }
+
+   public void testWriteLockWins() throws Exception {
+      advancedCache.put("k", "v");
+      LockManager lockManager = TestingUtil.extractLockManager(advancedCache);
+
+      tm.begin();
+      advancedCache.withFlags(Flag.FORCE_WRITE_LOCK, Flag.FORCE_READ_LOCK).get("k");
+      assertLocked(advancedCache, "k");
+      assertFalse(lockManager.getLock("k").isSharedLocked());
+      tm.commit();
+
+      assertEventuallyNotLocked(advancedCache, "k");
+   }
+
+   private void assertWriteFails() throws Exception {
+      tm.begin();
+      try {
+         advancedCache.withFlags(Flag.ZERO_LOCK_ACQUISITION_TIMEOUT).put("k", "v2");
+         fail("TimeoutException expected");
+      } catch (TimeoutException e) {
+         //expected
+      } finally {
+         tm.rollback();
+      }
+   }
+}
@@ -0,0 +1,148 @@
+package org.infinispan.api;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryVisited;
+import org.infinispan.notifications.cachelistener.event.CacheEntryVisitedEvent;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.util.concurrent.IsolationLevel;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that reads on a local, non-transactional cache can reuse their invocation context and command safely.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "api.LocalReadReuseTest")
+public class LocalReadReuseTest extends SingleCacheManagerTest {
+   private static final int NUM_KEYS = 1000;
+   private static final int NUM_READS = 100000;
+   // Leaves some room for allocations not caused by the reads, e.g. in the JIT compiler or in the TestNG listeners
+   private static final long MAX_BYTES_PER_READ = 16;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.locking().isolationLevel(IsolationLevel.REPEATABLE_READ);
+      builder.jmxStatistics().disable();
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testConsecutiveReads() {
+      cache.put("k1", "v1");
+      cache.put("k2", "v2");
+      assertEquals("v1", cache.get("k1"));
+      assertEquals("v2", cache.get("k2"));
+      assertNull(cache.get("k3"));
+      assertEquals("v1", cache.get("k1"));
+   }
+
+   public void testNestedRead() {
+      cache.put("outer", "v1");
+      cache.put("inner", "v2");
+      NestedReadListener listener = new NestedReadListener(cache);
+      cache.addListener(listener);
+      try {
+         assertEquals("v1", cache.get("outer"));
+         assertEquals(2, listener.nestedValues.size());
+         assertEquals("v2", listener.nestedValues.get(0));
+         assertEquals("v2", listener.nestedValues.get(1));
+      } finally {
+         cache.removeListener(listener);
+      }
+   }
+
+   public void testReadAfterFailure() {
+      cache.put("k", "v");
+      FailingListener listener = new FailingListener();
+      cache.addListener(listener);
+      try {
+         cache.get("k");
+         fail("The listener should have failed the read");
+      } catch (CacheException e) {
+         // expected
+      } finally {
+         cache.removeListener(listener);
+      }
+      assertEquals("v", cache.get("k"));
+      assertNull(cache.get("missing"));
+   }
+
+   public void testReadsDoNotAllocate() {
+      java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+      if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+         throw new SkipException("Per-thread allocation counters are not supported by this JVM");
+      }
+      com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+      if (!allocationMXBean.isThreadAllocatedMemorySupported() || !allocationMXBean.isThreadAllocatedMemoryEnabled()) {
+         throw new SkipException("Per-thread allocation counters are not enabled");
+      }
+
+      String[] keys = new String[NUM_KEYS];
+      String[] missingKeys = new String[NUM_KEYS];
+      for (int i = 0; i < NUM_KEYS; i++) {
+         keys[i] = "key" + i;
+         missingKeys[i] = "missing" + i;
+         cache.put(keys[i], keys[i]);
+      }
+
+      // Warm up, so that the lazily initialized structures and the JIT compiler don't count
+      readAll(keys, missingKeys);
+
+      long threadId = Thread.currentThread().getId();
+      long before = allocationMXBean.getThreadAllocatedBytes(threadId);
+      int reads = readAll(keys, missingKeys);
+      long allocated = allocationMXBean.getThreadAllocatedBytes(threadId) - before;
+      long bytesPerRead = allocated / reads;
+      assertTrue("Reads allocated " + bytesPerRead + " bytes each", bytesPerRead < MAX_BYTES_PER_READ);
+   }
+
+   private int readAll(String[] keys, String[] missingKeys) {
+      int reads = 0;
+      for (int i = 0; i < NUM_READS; i += 2) {
+         assertEquals(keys[i % NUM_KEYS], cache.get(keys[i % NUM_KEYS]));
+         assertNull(cache.get(missingKeys[i % NUM_KEYS]));
+         reads += 2;
+      }
+      return reads;
+   }
+
+   @Listener
+   public static class NestedReadListener {
+      final Cache<Object, Object> cache;
+      final List<Object> nestedValues = new ArrayList<>();
+
+      NestedReadListener(Cache<Object, Object> cache) {
+         this.cache = cache;
+      }
+
+      @CacheEntryVisited
+      public void visited(CacheEntryVisitedEvent<Object, Object> event) {
+         if ("outer".equals(event.getKey())) {
+            nestedValues.add(cache.get("inner"));
+         }
+      }
+   }
+
+   @Listener
+   public static class FailingListener {
+      @CacheEntryVisited
+      public void visited(CacheEntryVisitedEvent<Object, Object> event) {
+         throw new IllegalStateException("Induced failure");
+      }
+   }
+}
@@ -99,6 +99,28 @@ private static void configurationCheck90(EmbeddedCacheManager cm) {
       GlobalConfiguration globalConfiguration = cm.getCacheManagerConfiguration();
       assertEquals(4, globalConfiguration.transport().initialClusterSize());
       assertEquals(30000, globalConfiguration.transport().initialClusterTimeout());
+
+      Configuration c = cm.getCacheConfiguration("dist");
+      assertTrue(c.clustering().staggeredGets());
+      assertEquals(99d, c.clustering().staggeredGetPercentile());
+      assertTrue(c.clustering().topologyAwareReads());
+      assertEquals(60000, c.clustering().antiEntropyInterval());
+      assertTrue(c.clustering().stateTransfer().pipelined());
+      assertEquals(65536, c.clustering().stateTransfer().chunkBytes());
+      assertEquals(1048576, c.clustering().stateTransfer().maxInFlightBytes());
+      assertEquals(8, c.clustering().stateTransfer().parallelSegments());
+      assertEquals(4, c.persistence().preloadThreads());
+      BackupConfiguration backup = c.sites().allBackups().get(0);
+      assertEquals(4, backup.stateTransfer().parallelSegments());
+      assertEquals(10485760, backup.stateTransfer().maxBandwidth());
+      backup = c.sites().allBackups().get(1);
+      assertEquals(500, backup.asyncBatchSize());
+      assertEquals(50, backup.asyncBatchInterval());
+      assertTrue(backup.isAsyncBatchingEnabled());
+
+      c = cm.getCacheConfiguration("local");
+      SingleFileStoreConfiguration fileStore = (SingleFileStoreConfiguration) c.persistence().stores().get(0);
+      assertTrue(fileStore.mappedIndex());
    }
 
    private static void configurationCheck82(EmbeddedCacheManager cm) {
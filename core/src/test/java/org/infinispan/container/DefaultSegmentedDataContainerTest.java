@@ -0,0 +1,101 @@
+package org.infinispan.container;
+
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.mockito.Mockito;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.DefaultSegmentedDataContainerTest")
+public class DefaultSegmentedDataContainerTest extends SimpleDataContainerTest {
+
+   private static final int NUM_SEGMENTS = 8;
+   private static final KeyPartitioner PARTITIONER = key -> (key.hashCode() & Integer.MAX_VALUE) % NUM_SEGMENTS;
+
+   @Override
+   protected DataContainer createContainer() {
+      DefaultSegmentedDataContainer<Object, String> dc = new DefaultSegmentedDataContainer<>(NUM_SEGMENTS, 16);
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      ActivationManager activationManager = mock(ActivationManager.class);
+      doNothing().when(activationManager).onUpdate(Mockito.anyObject(), Mockito.anyBoolean());
+      dc.initialize(PARTITIONER, mock(PassivationManager.class), internalEntryFactory, activationManager, TIME_SERVICE,
+            mock(ExpirationManager.class));
+      return dc;
+   }
+
+   private SegmentedDataContainer<Object, String> segmented() {
+      return (SegmentedDataContainer<Object, String>) dc;
+   }
+
+   public void testSegmentScopedOperations() {
+      for (int i = 0; i < 100; i++) {
+         dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      }
+      Set<Integer> segments = new HashSet<>();
+      segments.add(1);
+      segments.add(5);
+
+      int expected = 0;
+      for (int i = 0; i < 100; i++) {
+         if (segments.contains(PARTITIONER.getSegment(i))) expected++;
+      }
+      assertEquals(expected, segmented().size(segments));
+      assertEquals(expected, segmented().sizeIncludingExpired(segments));
+
+      int count = 0;
+      for (Iterator<InternalCacheEntry<Object, String>> it = segmented().iterator(segments); it.hasNext(); count++) {
+         InternalCacheEntry<Object, String> entry = it.next();
+         assert segments.contains(PARTITIONER.getSegment(entry.getKey()));
+      }
+      assertEquals(expected, count);
+      assertEquals(100, dc.size());
+   }
+
+   public void testSegmentIteratorSkipsExpired() {
+      dc.put(1, "v", new EmbeddedMetadata.Builder().lifespan(0, TimeUnit.MINUTES).build());
+      dc.put(9, "v", new EmbeddedMetadata.Builder().build());
+      Set<Integer> segments = Collections.singleton(PARTITIONER.getSegment(1));
+      assertEquals(1, segmented().size(segments));
+      assertEquals(2, segmented().sizeIncludingExpired(segments));
+      assertEquals(9, segmented().iterator(segments).next().getKey());
+   }
+
+   public void testAddAndRemoveSegments() {
+      Set<Integer> segments = Collections.singleton(3);
+      segmented().addSegments(segments);
+      assertEquals(0, segmented().sizeIncludingExpired(segments));
+
+      for (int i = 0; i < 100; i++) {
+         dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      }
+      int removed = segmented().sizeIncludingExpired(segments);
+      segmented().removeSegments(segments);
+      assertEquals(0, segmented().sizeIncludingExpired(segments));
+      assertFalse(segmented().iterator(segments).hasNext());
+      assertEquals(100 - removed, dc.sizeIncludingExpired());
+      assertNull(dc.get(3));
+      assertNotNull(dc.get(4));
+
+      // Writes to a removed segment create it again on demand
+      dc.put(3, "v3", new EmbeddedMetadata.Builder().build());
+      assertEquals("v3", dc.get(3).getValue());
+      assertEquals(1, segmented().sizeIncludingExpired(segments));
+   }
+}
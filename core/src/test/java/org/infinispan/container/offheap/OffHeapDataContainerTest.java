@@ -0,0 +1,165 @@
+package org.infinispan.container.offheap;
+
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.InternalEntryFactoryImpl;
+import org.infinispan.container.SimpleDataContainerTest;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.eviction.EvictionManager;
+import org.infinispan.eviction.EvictionType;
+import org.infinispan.eviction.PassivationManager;
+import org.infinispan.expiration.ExpirationManager;
+import org.infinispan.marshall.TestObjectStreamMarshaller;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.mockito.Mockito;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+@Test(groups = "unit", testName = "container.offheap.OffHeapDataContainerTest")
+public class OffHeapDataContainerTest extends SimpleDataContainerTest {
+
+   private TestObjectStreamMarshaller marshaller;
+
+   @BeforeClass(alwaysRun = true)
+   public void createMarshaller() {
+      marshaller = new TestObjectStreamMarshaller();
+   }
+
+   @AfterClass(alwaysRun = true)
+   public void stopMarshaller() {
+      marshaller.stop();
+   }
+
+   @AfterMethod(alwaysRun = true)
+   public void deallocate() {
+      if (dc != null) {
+         ((OffHeapDataContainer) dc).deallocate();
+      }
+   }
+
+   @Override
+   protected DataContainer createContainer() {
+      return initialize(new OffHeapDataContainer<Object, String>(64, 16));
+   }
+
+   private OffHeapDataContainer<Object, String> initialize(OffHeapDataContainer<Object, String> container) {
+      InternalEntryFactoryImpl internalEntryFactory = new InternalEntryFactoryImpl();
+      internalEntryFactory.injectTimeService(TIME_SERVICE);
+      ActivationManager activationManager = mock(ActivationManager.class);
+      doNothing().when(activationManager).onUpdate(Mockito.anyObject(), Mockito.anyBoolean());
+      container.initialize(marshaller, internalEntryFactory, mock(EvictionManager.class),
+            mock(PassivationManager.class), activationManager, TIME_SERVICE, mock(ExpirationManager.class));
+      return container;
+   }
+
+   /**
+    * Entries are copies, so the last used timestamp is checked on the entry returned by each read.
+    */
+   @Override
+   public void testUpdatingLastUsed() throws Exception {
+      long idle = 600000;
+      dc.put("k", "v", new EmbeddedMetadata.Builder().maxIdle(idle, TimeUnit.MILLISECONDS).build());
+      long oldTime = System.currentTimeMillis();
+      Thread.sleep(100); // for time calc granularity
+      InternalCacheEntry ice = dc.get("k");
+      assertEquals(transienttype(), ice.getClass());
+      assertTrue(ice.getLastUsed() > oldTime);
+
+      oldTime = System.currentTimeMillis();
+      Thread.sleep(100); // for time calc granularity
+      assertNotNull(dc.get("k"));
+      assertTrue(dc.peek("k").getLastUsed() > oldTime);
+   }
+
+   public void testReplaceAndRemove() {
+      for (int i = 0; i < 1000; i++) {
+         dc.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+      }
+      for (int i = 0; i < 1000; i += 2) {
+         dc.put(i, "w" + i, new EmbeddedMetadata.Builder().build());
+      }
+      assertEquals(1000, dc.sizeIncludingExpired());
+      for (int i = 0; i < 1000; i++) {
+         assertEquals((i % 2 == 0 ? "w" : "v") + i, dc.get(i).getValue());
+      }
+      for (int i = 0; i < 1000; i += 2) {
+         assertEquals("w" + i, dc.remove(i).getValue());
+      }
+      assertEquals(500, dc.sizeIncludingExpired());
+      assertNull(dc.get(0));
+      assertNotNull(dc.get(1));
+      dc.clear();
+      assertEquals(0, dc.sizeIncludingExpired());
+      assertEquals(0, ((OffHeapDataContainer) dc).allocatedBytes());
+   }
+
+   public void testCompute() {
+      dc.put("k", "v", new EmbeddedMetadata.Builder().build());
+      dc.compute("k", (k, oldEntry, factory) -> factory.create(k, oldEntry.getValue() + "1", oldEntry.getMetadata()));
+      assertEquals("v1", dc.get("k").getValue());
+      dc.compute("k", (k, oldEntry, factory) -> null);
+      assertNull(dc.get("k"));
+      dc.compute("k", (k, oldEntry, factory) -> factory.create(k, "new", new EmbeddedMetadata.Builder().build()));
+      assertEquals("new", dc.get("k").getValue());
+   }
+
+   public void testComputeUpdatesInPlace() {
+      dc.put("k", "v", new EmbeddedMetadata.Builder().build());
+      InternalCacheEntry returned = dc.compute("k", (k, oldEntry, factory) -> {
+         oldEntry.setValue("updated");
+         return oldEntry;
+      });
+      assertEquals("updated", returned.getValue());
+      assertEquals("updated", dc.get("k").getValue());
+      assertEquals(1, dc.sizeIncludingExpired());
+   }
+
+   public void testComputeUnchangedIsNotStored() {
+      OffHeapDataContainer<Object, String> bounded = initialize(new OffHeapDataContainer<>(64, 16, 2, EvictionType.COUNT));
+      try {
+         bounded.put("k1", "v1", new EmbeddedMetadata.Builder().build());
+         bounded.put("k2", "v2", new EmbeddedMetadata.Builder().build());
+         InternalCacheEntry returned = bounded.compute("k1", (k, oldEntry, factory) -> oldEntry);
+         assertEquals("v1", returned.getValue());
+         // Storing it again would have made k1 the most recently used entry
+         bounded.put("k3", "v3", new EmbeddedMetadata.Builder().build());
+         assertNull(bounded.peek("k1"));
+         assertNotNull(bounded.peek("k2"));
+      } finally {
+         bounded.deallocate();
+      }
+   }
+
+   public void testLruEviction() {
+      OffHeapDataContainer<Object, String> bounded = initialize(new OffHeapDataContainer<>(64, 16, 10, EvictionType.COUNT));
+      try {
+         for (int i = 0; i < 10; i++) {
+            bounded.put(i, "v" + i, new EmbeddedMetadata.Builder().build());
+         }
+         // Access the first entry so it becomes the most recently used one
+         assertNotNull(bounded.get(0));
+         bounded.put(10, "v10", new EmbeddedMetadata.Builder().build());
+         assertEquals(10, bounded.sizeIncludingExpired());
+         assertNotNull(bounded.peek(0));
+         assertNull(bounded.peek(1));
+
+         bounded.resize(5);
+         assertEquals(5, bounded.sizeIncludingExpired());
+         assertNotNull(bounded.peek(0));
+         assertNotNull(bounded.peek(10));
+      } finally {
+         bounded.deallocate();
+      }
+   }
+}
@@ -0,0 +1,171 @@
+package org.infinispan.distribution;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.cache.impl.CacheImpl;
+import org.infinispan.commands.read.GetKeyValueCommand;
+import org.infinispan.commands.write.PutKeyValueCommand;
+import org.infinispan.commons.CacheException;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.interceptors.distribution.NonTxDistributionInterceptor;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryCreated;
+import org.infinispan.notifications.cachelistener.event.CacheEntryCreatedEvent;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.concurrent.locks.LockManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the async operations of a non-transactional distributed cache complete when the remote owner replies,
+ * without waiting for it on the caller's thread.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distribution.DistNonBlockingAsyncOpsTest")
+public class DistNonBlockingAsyncOpsTest extends MultipleCacheManagersTest {
+
+   private RejectingExecutor asyncExecutor;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+
+      // The operations must not need an async executor thread
+      asyncExecutor = new RejectingExecutor();
+      TestingUtil.replaceField(asyncExecutor, "asyncExecutor", cache(0).getAdvancedCache(), CacheImpl.class);
+   }
+
+   public void testAsyncOperationsWaitForRemoteOwner() throws Exception {
+      Cache<Object, Object> owner = cache(1);
+      MagicKey key = new MagicKey(owner);
+      CyclicBarrier barrier = new CyclicBarrier(2);
+
+      BlockingInterceptor putInterceptor = new BlockingInterceptor(barrier, PutKeyValueCommand.class, false, false);
+      owner.getAdvancedCache().getSequentialInterceptorChain()
+            .addInterceptorBefore(putInterceptor, NonTxDistributionInterceptor.class);
+      try {
+         CompletableFuture<Object> putFuture = cache(0).putAsync(key, "v");
+         // putAsync returned before the owner received the put, and the put is now blocked on the owner
+         barrier.await(10, SECONDS);
+         assertFalse(putFuture.isDone());
+         barrier.await(10, SECONDS);
+         assertNull(putFuture.get(10, SECONDS));
+      } finally {
+         owner.getAdvancedCache().getSequentialInterceptorChain().removeInterceptor(BlockingInterceptor.class);
+      }
+
+      BlockingInterceptor getInterceptor = new BlockingInterceptor(barrier, GetKeyValueCommand.class, false, false);
+      owner.getAdvancedCache().getSequentialInterceptorChain()
+            .addInterceptorBefore(getInterceptor, NonTxDistributionInterceptor.class);
+      try {
+         CompletableFuture<Object> getFuture = cache(0).getAsync(key);
+         barrier.await(10, SECONDS);
+         assertFalse(getFuture.isDone());
+         barrier.await(10, SECONDS);
+         assertEquals("v", getFuture.get(10, SECONDS));
+      } finally {
+         owner.getAdvancedCache().getSequentialInterceptorChain().removeInterceptor(BlockingInterceptor.class);
+      }
+      assertEquals(0, asyncExecutor.rejected.get());
+   }
+
+   public void testLockedKeyDoesNotBlockCaller() throws Exception {
+      MagicKey key = new MagicKey(cache(0));
+      LockManager lockManager = TestingUtil.extractLockManager(cache(0));
+      Object otherOwner = new Object();
+      lockManager.lock(key, otherOwner, 10, SECONDS).lock();
+      CompletableFuture<Object> putFuture;
+      try {
+         // The caller returns while the primary owner's lock is still held by the other owner
+         putFuture = cache(0).putAsync(key, "v");
+         assertFalse(putFuture.isDone());
+      } finally {
+         lockManager.unlock(key, otherOwner);
+      }
+      assertNull(putFuture.get(10, SECONDS));
+      assertEquals("v", cache(1).get(key));
+      assertEquals(0, asyncExecutor.rejected.get());
+   }
+
+   public void testRemoteFailureCompletesFuture() throws Exception {
+      Cache<Object, Object> owner = cache(1);
+      MagicKey key = new MagicKey(owner);
+      FailingListener listener = new FailingListener();
+      owner.addListener(listener);
+      try {
+         cache(0).putAsync(key, "v").get(10, SECONDS);
+         fail("The put should have failed on the owner");
+      } catch (ExecutionException e) {
+         assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof CacheException);
+      } finally {
+         owner.removeListener(listener);
+      }
+
+      assertNull(cache(0).getAsync(key).get(10, SECONDS));
+   }
+
+   private static class RejectingExecutor extends AbstractExecutorService {
+      final AtomicInteger rejected = new AtomicInteger();
+
+      @Override
+      public void execute(Runnable command) {
+         rejected.incrementAndGet();
+         throw new RejectedExecutionException("The async executor should not be used");
+      }
+
+      @Override
+      public void shutdown() {
+      }
+
+      @Override
+      public List<Runnable> shutdownNow() {
+         return Collections.emptyList();
+      }
+
+      @Override
+      public boolean isShutdown() {
+         return false;
+      }
+
+      @Override
+      public boolean isTerminated() {
+         return false;
+      }
+
+      @Override
+      public boolean awaitTermination(long timeout, TimeUnit unit) {
+         return false;
+      }
+   }
+
+   @Listener
+   public static class FailingListener {
+      @CacheEntryCreated
+      public void created(CacheEntryCreatedEvent<Object, Object> event) {
+         if (event.isPre()) {
+            throw new IllegalStateException("Induced failure");
+         }
+      }
+   }
+}
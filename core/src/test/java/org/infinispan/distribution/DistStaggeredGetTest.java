@@ -0,0 +1,155 @@
+package org.infinispan.distribution;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.commands.remote.ClusteredGetCommand;
+import org.infinispan.commands.read.GetCacheEntryCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.interceptors.DDSequentialInterceptor;
+import org.infinispan.interceptors.distribution.NonTxDistributionInterceptor;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that staggered remote gets are answered by the second owner when the owner asked first does not reply.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distribution.DistStaggeredGetTest")
+public class DistStaggeredGetTest extends MultipleCacheManagersTest {
+   private static final int NUM_READS = 20;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().staggeredGets(true).staggeredGetPercentile(90)
+            .hash().numOwners(2)
+            .l1().disable();
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testMissingKey() {
+      MagicKey key = new MagicKey(cache(1), cache(2));
+      assertNull(cache(0).get(key));
+   }
+
+   public void testSlowOwnerDoesNotDelayGet() throws Exception {
+      MagicKey key = new MagicKey(cache(1), cache(2));
+      cache(1).put(key, "v");
+
+      // Time both owners
+      for (int i = 0; i < 10; i++) {
+         assertEquals("v", cache(0).get(key));
+      }
+      Transport transport = TestingUtil.extractGlobalComponent(manager(0), Transport.class);
+      assertTrue(transport.estimateResponseTime(address(1), 90) >= 0);
+      assertTrue(transport.estimateResponseTime(address(2), 90) >= 0);
+
+      // A regular remote get would be sent to both owners every time
+      ClusteredGetCountingRpcManager rpcManager = ClusteredGetCountingRpcManager.replaceRpcManager(cache(0));
+      for (int i = 0; i < NUM_READS; i++) {
+         assertEquals("v", cache(0).get(key));
+      }
+      assertTrue("Sent " + rpcManager.clusteredGets.get() + " remote gets for " + NUM_READS + " reads",
+                 rpcManager.clusteredGets.get() < 2 * NUM_READS);
+
+      AtomicBoolean delayed = new AtomicBoolean();
+      CountDownLatch release = new CountDownLatch(1);
+      for (Cache<Object, Object> owner : caches().subList(1, 3)) {
+         owner.getAdvancedCache().getSequentialInterceptorChain()
+               .addInterceptorBefore(new DelayFirstGetInterceptor(delayed, release), NonTxDistributionInterceptor.class);
+      }
+      try {
+         // The owner asked first never replies, so the value must come from the other owner
+         assertEquals("v", cache(0).getAsync(key).get(10, SECONDS));
+         assertTrue(delayed.get());
+      } finally {
+         release.countDown();
+         for (Cache<Object, Object> owner : caches().subList(1, 3)) {
+            owner.getAdvancedCache().getSequentialInterceptorChain().removeInterceptor(DelayFirstGetInterceptor.class);
+         }
+      }
+   }
+
+   public void testOnlyRemoteGetsAreTimed() {
+      // No other test sends remote gets from cache(2)
+      Transport transport = TestingUtil.extractGlobalComponent(manager(2), Transport.class);
+      MagicKey key = new MagicKey(cache(0), cache(1));
+      for (int i = 0; i < 10; i++) {
+         cache(2).put(key, "v" + i);
+      }
+      assertEquals(-1, transport.estimateResponseTime(address(0), 90));
+      assertEquals(-1, transport.estimateResponseTime(address(1), 90));
+
+      assertEquals("v9", cache(2).get(key));
+      // The get completes with the first reply, the other owner may not have replied yet
+      assertTrue(transport.estimateResponseTime(address(0), 90) >= 0 ||
+                 transport.estimateResponseTime(address(1), 90) >= 0);
+   }
+
+   static class ClusteredGetCountingRpcManager extends AbstractControlledRpcManager {
+      final AtomicInteger clusteredGets = new AtomicInteger();
+
+      ClusteredGetCountingRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      static ClusteredGetCountingRpcManager replaceRpcManager(Cache<?, ?> cache) {
+         RpcManager current = cache.getAdvancedCache().getRpcManager();
+         ClusteredGetCountingRpcManager rpcManager = new ClusteredGetCountingRpcManager(current);
+         TestingUtil.replaceComponent(cache, RpcManager.class, rpcManager, true);
+         return rpcManager;
+      }
+
+      @Override
+      public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients,
+                                                                           ReplicableCommand rpc, RpcOptions options) {
+         if (rpc instanceof ClusteredGetCommand) {
+            // Count every owner asked, not every RPC
+            clusteredGets.addAndGet(recipients.size());
+         }
+         return super.invokeRemotelyAsync(recipients, rpc, options);
+      }
+   }
+
+   static class DelayFirstGetInterceptor extends DDSequentialInterceptor {
+      private final AtomicBoolean delayed;
+      private final CountDownLatch release;
+
+      DelayFirstGetInterceptor(AtomicBoolean delayed, CountDownLatch release) {
+         this.delayed = delayed;
+         this.release = release;
+      }
+
+      @Override
+      public CompletableFuture<Void> visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryCommand command)
+            throws Throwable {
+         if (!ctx.isOriginLocal() && delayed.compareAndSet(false, true)) {
+            release.await(30, SECONDS);
+         }
+         return ctx.continueInvocation();
+      }
+   }
+}
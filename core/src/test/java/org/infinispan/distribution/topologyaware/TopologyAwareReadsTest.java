@@ -0,0 +1,136 @@
+package org.infinispan.distribution.topologyaware;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.read.GetCacheEntryCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.context.InvocationContext;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.interceptors.DDSequentialInterceptor;
+import org.infinispan.interceptors.distribution.NonTxDistributionInterceptor;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that remote gets are sent to the closest owner first, and that a closest owner that does not reply doesn't
+ * delay them until the remote timeout.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "distribution.topologyaware.TopologyAwareReadsTest")
+@CleanupAfterMethod
+public class TopologyAwareReadsTest extends MultipleCacheManagersTest {
+   private static final int NUM_READS = 20;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().topologyAwareReads(true).staggeredGetPercentile(99)
+            .remoteTimeout(60, SECONDS)
+            .hash().numOwners(2)
+            .l1().disable();
+      // Node 1 is in the same rack as node 0, node 2 is in another rack
+      addClusterEnabledCacheManager("r0", "m0", builder);
+      addClusterEnabledCacheManager("r0", "m1", builder);
+      addClusterEnabledCacheManager("r1", "m2", builder);
+      waitForClusterToForm();
+   }
+
+   private void addClusterEnabledCacheManager(String rack, String machine, ConfigurationBuilder builder) {
+      GlobalConfigurationBuilder gcb = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      gcb.transport().rackId(rack).machineId(machine);
+      EmbeddedCacheManager cm = TestCacheManagerFactory.createClusteredCacheManager(gcb, builder);
+      cacheManagers.add(cm);
+   }
+
+   public void testReadFromClosestOwner() {
+      MagicKey key = new MagicKey(cache(2), cache(1));
+      cache(2).put(key, "v");
+      warmUp(key);
+
+      AtomicInteger closestReads = addCountingInterceptor(cache(1));
+      AtomicInteger otherReads = addCountingInterceptor(cache(2));
+      for (int i = 0; i < NUM_READS; i++) {
+         assertEquals("v", cache(0).get(key));
+      }
+      assertEquals(NUM_READS, closestReads.get());
+      // The other owner is only asked when the closest one is slower than usual
+      assertTrue("The other owner was asked " + otherReads.get() + " times", otherReads.get() < NUM_READS / 2);
+   }
+
+   public void testClosestOwnerDoesNotReply() throws Exception {
+      MagicKey key = new MagicKey(cache(2), cache(1));
+      cache(2).put(key, "v");
+      warmUp(key);
+
+      CountDownLatch release = new CountDownLatch(1);
+      cache(1).getAdvancedCache().getSequentialInterceptorChain()
+            .addInterceptorBefore(new BlockingGetInterceptor(release), NonTxDistributionInterceptor.class);
+      try {
+         // The remote timeout is 60 seconds, so the value must come from the other owner
+         assertEquals("v", cache(0).getAsync(key).get(10, SECONDS));
+      } finally {
+         release.countDown();
+      }
+   }
+
+   private void warmUp(MagicKey key) {
+      // Time both owners
+      for (int i = 0; i < 10; i++) {
+         assertEquals("v", cache(0).get(key));
+      }
+      Transport transport = TestingUtil.extractGlobalComponent(manager(0), Transport.class);
+      assertTrue(transport.estimateResponseTime(address(1), 99) >= 0);
+   }
+
+   private AtomicInteger addCountingInterceptor(Cache<Object, Object> cache) {
+      CountingGetInterceptor interceptor = new CountingGetInterceptor();
+      cache.getAdvancedCache().getSequentialInterceptorChain()
+            .addInterceptorBefore(interceptor, NonTxDistributionInterceptor.class);
+      return interceptor.count;
+   }
+
+   static class CountingGetInterceptor extends DDSequentialInterceptor {
+      final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public CompletableFuture<Void> visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryCommand command)
+            throws Throwable {
+         if (!ctx.isOriginLocal()) {
+            count.incrementAndGet();
+         }
+         return ctx.continueInvocation();
+      }
+   }
+
+   static class BlockingGetInterceptor extends DDSequentialInterceptor {
+      private final CountDownLatch release;
+
+      BlockingGetInterceptor(CountDownLatch release) {
+         this.release = release;
+      }
+
+      @Override
+      public CompletableFuture<Void> visitGetCacheEntryCommand(InvocationContext ctx, GetCacheEntryCommand command)
+            throws Throwable {
+         if (!ctx.isOriginLocal()) {
+            release.await(30, SECONDS);
+         }
+         return ctx.continueInvocation();
+      }
+   }
+}
@@ -0,0 +1,53 @@
+package org.infinispan.distribution.topologyaware;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.infinispan.distribution.TestAddress;
+import org.infinispan.distribution.TestTopologyAwareAddress;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.AbstractInfinispanTest;
+import org.testng.annotations.Test;
+
+/**
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "distribution.topologyaware.TopologyProximityTest")
+public class TopologyProximityTest extends AbstractInfinispanTest {
+   private final Address self = new TestTopologyAwareAddress(0, "s0", "r0", "m0");
+   private final Address sameMachine = new TestTopologyAwareAddress(1, "s0", "r0", "m0");
+   private final Address sameRack = new TestTopologyAwareAddress(2, "s0", "r0", "m1");
+   private final Address sameSite = new TestTopologyAwareAddress(3, "s0", "r1", "m0");
+   private final Address otherSite = new TestTopologyAwareAddress(4, "s1", "r0", "m0");
+
+   public void testDistance() {
+      assertEquals(TopologyLevel.NODE.ordinal(), TopologyProximity.distance(self, self));
+      assertEquals(TopologyLevel.MACHINE.ordinal(), TopologyProximity.distance(self, sameMachine));
+      assertEquals(TopologyLevel.RACK.ordinal(), TopologyProximity.distance(self, sameRack));
+      assertEquals(TopologyLevel.SITE.ordinal(), TopologyProximity.distance(self, sameSite));
+      assertEquals(TopologyProximity.MAX_DISTANCE, TopologyProximity.distance(self, otherSite));
+      assertEquals(TopologyProximity.MAX_DISTANCE, TopologyProximity.distance(self, new TestAddress(5)));
+   }
+
+   public void testSortByDistance() {
+      List<Address> owners = new ArrayList<>(Arrays.asList(otherSite, sameSite, sameRack, sameMachine));
+      TopologyProximity.sortByDistance(self, owners);
+      assertEquals(Arrays.asList(sameMachine, sameRack, sameSite, otherSite), owners);
+   }
+
+   public void testSortIsStable() {
+      Address otherSite2 = new TestTopologyAwareAddress(5, "s2", "r0", "m0");
+      List<Address> owners = new ArrayList<>(Arrays.asList(otherSite2, otherSite, sameSite));
+      TopologyProximity.sortByDistance(self, owners);
+      assertEquals(Arrays.asList(sameSite, otherSite2, otherSite), owners);
+   }
+
+   public void testClosest() {
+      assertEquals(sameRack, TopologyProximity.closest(self, Arrays.asList(otherSite, sameRack, sameSite)));
+      Address otherSite2 = new TestTopologyAwareAddress(5, "s2", "r0", "m0");
+      assertEquals(otherSite2, TopologyProximity.closest(self, Arrays.asList(otherSite2, otherSite)));
+   }
+}
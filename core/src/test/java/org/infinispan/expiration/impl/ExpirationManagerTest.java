@@ -10,7 +10,13 @@
 
 import org.infinispan.configuration.cache.Configuration;
 import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DefaultDataContainer;
+import org.infinispan.container.InternalEntryFactoryImpl;
+import org.infinispan.eviction.ActivationManager;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.persistence.manager.PersistenceManager;
 import org.infinispan.test.AbstractInfinispanTest;
+import org.infinispan.util.ControlledTimeService;
 import org.testng.annotations.Test;
 
 import java.util.concurrent.ScheduledExecutorService;
@@ -18,6 +24,7 @@
 import java.util.concurrent.TimeUnit;
 
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
 import static org.testng.AssertJUnit.assertNull;
 
 @Test(groups = "unit", testName = "expiration.impl.ExpirationManagerTest")
@@ -55,4 +62,37 @@ public void testWakeupInterval() {
       assertEquals(mockFuture, em.expirationTask);
       verify(mockService).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class)); // expect that the executor was never used!!
    }
+
+   public void testIndexedExpiration() {
+      ControlledTimeService timeService = new ControlledTimeService(0);
+      Configuration cfg = getCfg().expiration().wakeUpInterval(100L).indexed(true).build();
+      DefaultDataContainer<Object, Object> dc = DefaultDataContainer.unBoundedDataContainer(16);
+      ExpirationManagerImpl<Object, Object> em = new ExpirationManagerImpl<>();
+      em.initialize(mock(ScheduledExecutorService.class), "", cfg, dc, mock(PersistenceManager.class), null,
+            timeService);
+      InternalEntryFactoryImpl entryFactory = new InternalEntryFactoryImpl();
+      entryFactory.injectTimeService(timeService);
+      dc.initialize(null, null, entryFactory, mock(ActivationManager.class), null, timeService, null, em);
+
+      dc.put("mortal", "v", new EmbeddedMetadata.Builder().lifespan(150, TimeUnit.MILLISECONDS).build());
+      dc.put("updated", "v", new EmbeddedMetadata.Builder().lifespan(150, TimeUnit.MILLISECONDS).build());
+      dc.put("updated", "v2", new EmbeddedMetadata.Builder().lifespan(1000, TimeUnit.MILLISECONDS).build());
+      dc.put("immortal", "v", new EmbeddedMetadata.Builder().build());
+      assertEquals(3, em.getExpirationIndexSize());
+
+      timeService.advance(200);
+      em.processExpiration();
+      assertNull(dc.peek("mortal"));
+      assertNotNull(dc.peek("updated"));
+      assertNotNull(dc.peek("immortal"));
+      assertEquals(1, em.getLastExpiredCount());
+      assertEquals(50, em.getExpirationLag());
+      assertEquals(1, em.getExpirationIndexSize());
+
+      timeService.advance(1000);
+      em.processExpiration();
+      assertNull(dc.peek("updated"));
+      assertNotNull(dc.peek("immortal"));
+      assertEquals(0, em.getExpirationIndexSize());
+   }
 }
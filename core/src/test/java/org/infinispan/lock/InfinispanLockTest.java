@@ -225,6 +225,184 @@ public void testCancel() throws InterruptedException {
       assertFalse(lock.isLocked());
    }
 
+   public void testSharedLock() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+      final String lockOwner3 = "LO3";
+      final String lockOwner4 = "LO4";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      final LockPromise lockPromise1 = lock.acquireShared(lockOwner1, 1, TimeUnit.DAYS);
+      final LockPromise lockPromise2 = lock.acquireShared(lockOwner2, 1, TimeUnit.DAYS);
+
+      //both readers hold the lock
+      assertTrue(lockPromise1.isAvailable());
+      assertTrue(lockPromise2.isAvailable());
+      lockPromise1.lock();
+      lockPromise2.lock();
+      assertTrue(lock.isSharedLocked());
+      assertTrue(lock.isLockOwner(lockOwner1));
+      assertTrue(lock.isLockOwner(lockOwner2));
+
+      //the writer waits for the readers and the next reader waits for the writer
+      final LockPromise lockPromise3 = lock.acquire(lockOwner3, 1, TimeUnit.DAYS);
+      final LockPromise lockPromise4 = lock.acquireShared(lockOwner4, 1, TimeUnit.DAYS);
+      assertFalse(lockPromise3.isAvailable());
+      assertFalse(lockPromise4.isAvailable());
+
+      lock.release(lockOwner1);
+      assertFalse(lockPromise3.isAvailable());
+      lock.release(lockOwner2);
+      assertTrue(lockPromise3.isAvailable());
+      lockPromise3.lock();
+      assertEquals(lockOwner3, lock.getLockOwner());
+      assertFalse(lock.isSharedLocked());
+      assertFalse(lockPromise4.isAvailable());
+
+      lock.release(lockOwner3);
+      assertTrue(lockPromise4.isAvailable());
+      lockPromise4.lock();
+      assertEquals(lockOwner4, lock.getLockOwner());
+
+      lock.release(lockOwner4);
+      assertFalse(lock.isLocked());
+      assertNull(lock.getLockOwner());
+   }
+
+   public void testSharedLockReentrant() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      final LockPromise exclusive = lock.acquire(lockOwner1, 1, TimeUnit.DAYS);
+      //the exclusive lock covers the shared lock
+      assertTrue(exclusive == lock.acquireShared(lockOwner1, 1, TimeUnit.DAYS));
+      exclusive.lock();
+      assertFalse(lock.isSharedLocked());
+
+      lock.release(lockOwner1);
+      assertFalse(lock.isLocked());
+   }
+
+   public void testUpgrade() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+      final String lockOwner3 = "LO3";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      lock.acquireShared(lockOwner1, 1, TimeUnit.DAYS).lock();
+      lock.acquireShared(lockOwner2, 1, TimeUnit.DAYS).lock();
+      final LockPromise lockPromise3 = lock.acquire(lockOwner3, 1, TimeUnit.DAYS);
+
+      //the upgrade waits for the other reader, but not for the queued writer
+      final LockPromise upgrade = lock.acquire(lockOwner1, 1, TimeUnit.DAYS);
+      assertFalse(upgrade.isAvailable());
+      assertTrue(upgrade == lock.acquire(lockOwner1, 1, TimeUnit.DAYS));
+
+      lock.release(lockOwner2);
+      assertTrue(upgrade.isAvailable());
+      assertFalse(lockPromise3.isAvailable());
+      upgrade.lock();
+      assertEquals(lockOwner1, lock.getLockOwner());
+      assertFalse(lock.isSharedLocked());
+
+      //releasing the upgraded lock releases the shared lock too
+      lock.release(lockOwner1);
+      assertFalse(lock.containsLockOwner(lockOwner1));
+      assertTrue(lockPromise3.isAvailable());
+      lockPromise3.lock();
+      assertEquals(lockOwner3, lock.getLockOwner());
+
+      lock.release(lockOwner3);
+      assertFalse(lock.isLocked());
+   }
+
+   public void testUpgradeTimeout() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      lock.acquireShared(lockOwner1, 1, TimeUnit.DAYS).lock();
+      lock.acquireShared(lockOwner2, 1, TimeUnit.DAYS).lock();
+
+      final LockPromise upgrade = lock.acquire(lockOwner1, 0, TimeUnit.MILLISECONDS);
+      try {
+         upgrade.lock();
+         fail("TimeoutException expected");
+      } catch (TimeoutException e) {
+         //expected
+      }
+
+      //the failed upgrade keeps the shared lock
+      assertTrue(lock.isLockOwner(lockOwner1));
+      assertTrue(lock.isLockOwner(lockOwner2));
+      assertTrue(lock.containsLockOwner(lockOwner1));
+
+      lock.release(lockOwner1);
+      lock.release(lockOwner2);
+      assertFalse(lock.isLocked());
+   }
+
+   public void testSharedLockDeadlock() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      lock.acquireShared(lockOwner1, 1, TimeUnit.DAYS).lock();
+      lock.acquireShared(lockOwner2, 1, TimeUnit.DAYS).lock();
+
+      //both readers try to upgrade. one of them must give up
+      final LockPromise upgrade1 = lock.acquire(lockOwner1, 1, TimeUnit.DAYS);
+      final LockPromise upgrade2 = lock.acquire(lockOwner2, 1, TimeUnit.DAYS);
+      lock.deadlockCheck((pending, current) -> pending.equals(lockOwner2));
+
+      try {
+         upgrade2.lock();
+         fail("DeadlockDetectedException expected");
+      } catch (DeadlockDetectedException e) {
+         //expected
+      }
+      assertFalse(upgrade1.isAvailable());
+
+      lock.release(lockOwner2);
+      assertTrue(upgrade1.isAvailable());
+      upgrade1.lock();
+      assertEquals(lockOwner1, lock.getLockOwner());
+
+      lock.release(lockOwner1);
+      assertFalse(lock.isLocked());
+   }
+
+   public void testSharedLockDeadlockWithQueuedWriter() throws InterruptedException {
+      final String lockOwner1 = "LO1";
+      final String lockOwner2 = "LO2";
+      final String lockOwner3 = "LO3";
+
+      final InfinispanLock lock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
+      lock.acquire(lockOwner1, 1, TimeUnit.DAYS).lock();
+
+      //the reader waits for the writer queued before it
+      final LockPromise lockPromise2 = lock.acquire(lockOwner2, 1, TimeUnit.DAYS);
+      final LockPromise lockPromise3 = lock.acquireShared(lockOwner3, 1, TimeUnit.DAYS);
+      lock.deadlockCheck((pending, current) -> pending.equals(lockOwner3) && current.equals(lockOwner2));
+
+      try {
+         lockPromise3.lock();
+         fail("DeadlockDetectedException expected");
+      } catch (DeadlockDetectedException e) {
+         //expected
+      }
+      assertFalse(lockPromise2.isAvailable());
+
+      lock.release(lockOwner1);
+      assertTrue(lockPromise2.isAvailable());
+      lockPromise2.lock();
+      assertEquals(lockOwner2, lock.getLockOwner());
+
+      lock.release(lockOwner2);
+      lock.release(lockOwner3);
+      assertFalse(lock.isLocked());
+   }
+
    public void testSingleCounter() throws ExecutionException, InterruptedException {
       final NotThreadSafeCounter counter = new NotThreadSafeCounter();
       final InfinispanLock counterLock = new InfinispanLock(AbstractCacheTest.TIME_SERVICE);
@@ -406,6 +406,26 @@ public void testStoreAndRemove() throws PersistenceException {
       assertEquals("k4", set.iterator().next().getKey());
    }
 
+   public void testWriteAndDeleteBatch() throws PersistenceException {
+      assertIsEmpty();
+
+      cl.write(marshalledEntry("k0", "v0", null));
+      cl.writeBatch(Arrays.asList(marshalledEntry("k0", "v0-updated", null), marshalledEntry("k1", "v1", null),
+            marshalledEntry("k2", "v2", null), marshalledEntry("k3", "v3", null)));
+
+      assertSize(TestingUtil.allEntries(cl), 4);
+      assertEquals("v0-updated", unwrap(cl.load("k0").getValue()));
+      assertEquals("v2", unwrap(cl.load("k2").getValue()));
+
+      cl.deleteBatch(Arrays.asList("k0", "k2", "missing"));
+
+      Set<MarshalledEntry> set = TestingUtil.allEntries(cl);
+      assertSize(set, 2);
+      assertNull(cl.load("k0"));
+      assertNull(cl.load("k2"));
+      assertEquals("v3", unwrap(cl.load("k3").getValue()));
+   }
+
    public void testPurgeExpired() throws Exception {
       assertIsEmpty();
       // Increased lifespan and idle timeouts to accommodate slower cache stores
@@ -0,0 +1,92 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManagerImpl;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the parallel preload of a shared store only loads the segments each node owned before a graceful shutdown
+ * of the cluster.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.ClusteredParallelPreloadTest")
+@CleanupAfterMethod
+public class ClusteredParallelPreloadTest extends MultipleCacheManagersTest {
+   private static final int CLUSTER_SIZE = 3;
+   private static final int NUM_KEYS = 300;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      TestingUtil.recursiveFileRemove(TestingUtil.tmpDirectory(getClass().getSimpleName()));
+      createStatefulCacheManagers();
+   }
+
+   private void createStatefulCacheManagers() {
+      for (int i = 0; i < CLUSTER_SIZE; i++) {
+         String stateDirectory = TestingUtil.tmpDirectory(getClass().getSimpleName() + File.separator + i);
+         GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+         global.globalState().enable().persistentLocation(stateDirectory);
+
+         ConfigurationBuilder config = new ConfigurationBuilder();
+         config.clustering().cacheMode(CacheMode.DIST_SYNC).hash().numOwners(1);
+         config.persistence().preloadThreads(4)
+               .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+               .storeName(getClass().getName())
+               .shared(true)
+               .preload(true);
+         addClusterEnabledCacheManager(global, config);
+      }
+   }
+
+   public void testPreloadSkipsSegmentsNotOwned() throws Throwable {
+      waitForClusterToForm();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      cache(0).shutdown();
+      TestingUtil.killCacheManagers(cacheManagers);
+      cacheManagers.clear();
+
+      createStatefulCacheManagers();
+      waitForClusterToForm();
+
+      try {
+         ConsistentHash ch = advancedCache(0).getDistributionManager().getConsistentHash();
+         for (Cache<Object, Object> cache : caches()) {
+            PersistenceManagerImpl persistenceManager =
+                  (PersistenceManagerImpl) TestingUtil.extractComponent(cache, PersistenceManager.class);
+            // Every node reads all the keys of the shared store, but only preloads those it owns
+            int owned = 0;
+            for (Object key : cache.getAdvancedCache().getDataContainer().keySet()) {
+               assertTrue(ch.isKeyLocalToNode(address(cache), key));
+               owned++;
+            }
+            assertEquals(owned, persistenceManager.getPreloadedEntries());
+            assertEquals(NUM_KEYS - owned, persistenceManager.getPreloadSkippedEntries());
+            assertTrue(persistenceManager.getPreloadSkippedEntries() > 0);
+         }
+         for (int i = 0; i < NUM_KEYS; i++) {
+            assertEquals("v" + i, cache(0).get("k" + i));
+         }
+      } finally {
+         // The store is shared by all the tests in the JVM
+         cache(0).clear();
+      }
+   }
+}
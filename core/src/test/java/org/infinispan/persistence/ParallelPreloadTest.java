@@ -0,0 +1,83 @@
+package org.infinispan.persistence;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.manager.EmbeddedCacheManager;
+import org.infinispan.persistence.dummy.DummyInMemoryStoreConfigurationBuilder;
+import org.infinispan.persistence.manager.PersistenceManager;
+import org.infinispan.persistence.manager.PersistenceManagerImpl;
+import org.infinispan.test.SingleCacheManagerTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the preload with several threads, writing directly to the data container.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.ParallelPreloadTest")
+public class ParallelPreloadTest extends SingleCacheManagerTest {
+
+   private static final int NUM_KEYS = 1000;
+
+   @Override
+   protected EmbeddedCacheManager createCacheManager() throws Exception {
+      ConfigurationBuilder builder = new ConfigurationBuilder();
+      builder.persistence().preloadThreads(4)
+            .addStore(DummyInMemoryStoreConfigurationBuilder.class)
+            .preload(true)
+            .storeName(getClass().getName());
+      return TestCacheManagerFactory.createCacheManager(builder);
+   }
+
+   public void testPreload() {
+      cache.clear();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache.put("key" + i, "value" + i);
+      }
+      cache.put("mortal", "value", 10, TimeUnit.MINUTES);
+      InternalCacheEntry<Object, Object> mortal = cache.getAdvancedCache().getDataContainer().get("mortal");
+
+      cache.stop();
+      cache.start();
+
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      assertEquals(NUM_KEYS + 1, dataContainer.size());
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("value" + i, dataContainer.get("key" + i).getValue());
+      }
+      InternalCacheEntry<Object, Object> preloaded = dataContainer.get("mortal");
+      assertEquals(TimeUnit.MINUTES.toMillis(10), preloaded.getLifespan());
+      assertEquals(mortal.getCreated(), preloaded.getCreated());
+
+      PersistenceManagerImpl persistenceManager =
+            (PersistenceManagerImpl) TestingUtil.extractComponent(cache, PersistenceManager.class);
+      assertFalse(persistenceManager.isPreloading());
+      assertEquals(NUM_KEYS + 1, persistenceManager.getPreloadedEntries());
+      assertEquals(0, persistenceManager.getPreloadSkippedEntries());
+      assertTrue(persistenceManager.getPreloadDuration() >= 0);
+   }
+
+   public void testPreloadSkipsExpiredEntries() {
+      cache.clear();
+      cache.put("expiring", "value", 1, TimeUnit.MILLISECONDS);
+      cache.put("immortal", "value");
+
+      cache.stop();
+      TestingUtil.sleepThread(10);
+      cache.start();
+
+      DataContainer<Object, Object> dataContainer = cache.getAdvancedCache().getDataContainer();
+      assertFalse(dataContainer.containsKey("expiring"));
+      assertTrue(dataContainer.containsKey("immortal"));
+   }
+}
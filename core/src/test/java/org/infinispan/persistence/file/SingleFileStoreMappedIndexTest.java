@@ -0,0 +1,103 @@
+package org.infinispan.persistence.file;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.cache.SingleFileStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the single-file cache store tests with the memory-mapped index.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.file.SingleFileStoreMappedIndexTest")
+public class SingleFileStoreMappedIndexTest extends SingleFileStoreTest {
+
+   private static final int NUM_KEYS = 3000;
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      clearTempDir();
+      SingleFileStore store = new SingleFileStore();
+      ConfigurationBuilder configurationBuilder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      configurationBuilder
+            .persistence()
+               .addStore(SingleFileStoreConfigurationBuilder.class)
+                  .location(this.tmpDirectory)
+                  .mappedIndex(true);
+      store.init(createContext(configurationBuilder.build()));
+      return store;
+   }
+
+   public void testRestartWithIndex() {
+      writeAndDelete();
+      cl.stop();
+      assertEquals(1, indexFiles().length);
+      cl.start();
+      assertFalse(((SingleFileStore) cl).isIndexRebuilt());
+      assertEntries();
+   }
+
+   public void testRestartWithoutIndex() {
+      writeAndDelete();
+      cl.stop();
+      for (File indexFile : indexFiles()) {
+         assertTrue(indexFile.delete());
+      }
+      cl.start();
+      assertTrue(((SingleFileStore) cl).isIndexRebuilt());
+      assertEntries();
+   }
+
+   public void testReuseFreeSpace() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      long fileSize = new File(tmpDirectory).listFiles((dir, name) -> name.endsWith(".dat"))[0].length();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cl.delete("k" + i);
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("j" + i, "v" + i, -1)));
+      }
+      assertEquals(NUM_KEYS, cl.size());
+      assertEquals(fileSize, new File(tmpDirectory).listFiles((dir, name) -> name.endsWith(".dat"))[0].length());
+   }
+
+   private void writeAndDelete() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      for (int i = 0; i < NUM_KEYS; i += 2) {
+         cl.delete("k" + i);
+      }
+      for (int i = 1; i < NUM_KEYS; i += 4) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "updated" + i, -1)));
+      }
+   }
+
+   private void assertEntries() {
+      assertEquals(NUM_KEYS / 2, cl.size());
+      for (int i = 0; i < NUM_KEYS; i++) {
+         if (i % 2 == 0) {
+            assertFalse(cl.contains("k" + i));
+            assertNull(cl.load("k" + i));
+         } else {
+            String value = (i % 4 == 1 ? "updated" : "v") + i;
+            assertEquals(value, cl.load("k" + i).getValue());
+         }
+      }
+   }
+
+   private File[] indexFiles() {
+      return new File(tmpDirectory).listFiles((dir, name) -> name.endsWith(".idx"));
+   }
+}
@@ -0,0 +1,155 @@
+package org.infinispan.remoting.jgroups;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.infinispan.test.TestingUtil.extractGlobalComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.CacheException;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.notifications.Listener;
+import org.infinispan.notifications.cachelistener.annotation.CacheEntryModified;
+import org.infinispan.notifications.cachelistener.event.CacheEntryModifiedEvent;
+import org.infinispan.remoting.transport.Transport;
+import org.infinispan.remoting.transport.jgroups.BatchedRpcCommand;
+import org.infinispan.remoting.transport.jgroups.CommandAwareRpcDispatcher;
+import org.infinispan.remoting.transport.jgroups.JGroupsTransport;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.jgroups.blocks.RpcDispatcher;
+import org.jgroups.util.Buffer;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the responses of the commands batched by the JGroups transport are matched to the right requests.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "remoting.jgroups.CommandBatchingTest")
+public class CommandBatchingTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 50;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      // A long window, so that the concurrent puts are batched
+      global.transport().addProperty(JGroupsTransport.BATCHING_WINDOW, "10000");
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(1);
+      createCluster(global, builder, 2);
+      waitForClusterToForm();
+   }
+
+   public void testConcurrentPuts() throws Exception {
+      List<MagicKey> keys = new ArrayList<>(NUM_KEYS);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         keys.add(new MagicKey("k" + i, cache(1)));
+      }
+
+      CommandAwareRpcDispatcher dispatcher = ((JGroupsTransport) extractGlobalComponent(manager(1), Transport.class))
+            .getCommandAwareRpcDispatcher();
+      RpcDispatcher.Marshaller originalMarshaller = dispatcher.getMarshaller();
+      BatchCountingMarshaller countingMarshaller = new BatchCountingMarshaller(originalMarshaller);
+      dispatcher.setRequestMarshaller(countingMarshaller);
+      List<CompletableFuture<Object>> futures = new ArrayList<>(NUM_KEYS);
+      try {
+         for (int i = 0; i < NUM_KEYS; i++) {
+            futures.add(cache(0).putAsync(keys.get(i), "v" + i));
+         }
+         for (CompletableFuture<Object> future : futures) {
+            assertNull(future.get(10, SECONDS));
+         }
+      } finally {
+         dispatcher.setRequestMarshaller(originalMarshaller);
+      }
+      // The owner must have received at least one message with several commands
+      assertTrue("Largest batch received: " + countingMarshaller.maxBatchSize.get(),
+                 countingMarshaller.maxBatchSize.get() > 1);
+
+      futures.clear();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         futures.add(cache(0).putAsync(keys.get(i), "w" + i));
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, futures.get(i).get(10, SECONDS));
+         assertEquals("w" + i, cache(1).get(keys.get(i)));
+      }
+   }
+
+   public void testFailureOnlyAffectsItsCommand() throws Exception {
+      MagicKey good = new MagicKey("good", cache(1));
+      MagicKey bad = new MagicKey("bad", cache(1));
+      cache(0).put(good, "v");
+      cache(0).put(bad, "v");
+
+      Cache<Object, Object> owner = cache(1);
+      FailingListener listener = new FailingListener(bad);
+      owner.addListener(listener);
+      try {
+         CompletableFuture<Object> goodFuture = cache(0).putAsync(good, "w");
+         CompletableFuture<Object> badFuture = cache(0).putAsync(bad, "w");
+         assertEquals("v", goodFuture.get(10, SECONDS));
+         try {
+            badFuture.get(10, SECONDS);
+            fail("The put should have failed on the owner");
+         } catch (ExecutionException e) {
+            assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof CacheException);
+         }
+      } finally {
+         owner.removeListener(listener);
+      }
+      assertEquals("w", cache(1).get(good));
+      assertEquals("v", cache(1).get(bad));
+   }
+
+   static class BatchCountingMarshaller implements RpcDispatcher.Marshaller {
+      final AtomicInteger maxBatchSize = new AtomicInteger();
+      private final RpcDispatcher.Marshaller delegate;
+
+      BatchCountingMarshaller(RpcDispatcher.Marshaller delegate) {
+         this.delegate = delegate;
+      }
+
+      @Override
+      public Buffer objectToBuffer(Object obj) throws Exception {
+         return delegate.objectToBuffer(obj);
+      }
+
+      @Override
+      public Object objectFromBuffer(byte[] buf, int offset, int length) throws Exception {
+         Object obj = delegate.objectFromBuffer(buf, offset, length);
+         if (obj instanceof BatchedRpcCommand) {
+            int size = ((BatchedRpcCommand) obj).size();
+            maxBatchSize.accumulateAndGet(size, Math::max);
+         }
+         return obj;
+      }
+   }
+
+   @Listener
+   public static class FailingListener {
+      private final Object key;
+
+      FailingListener(Object key) {
+         this.key = key;
+      }
+
+      @CacheEntryModified
+      public void modified(CacheEntryModifiedEvent<Object, Object> event) {
+         if (event.isPre() && key.equals(event.getKey())) {
+            throw new IllegalStateException("Induced failure");
+         }
+      }
+   }
+}
@@ -0,0 +1,75 @@
+package org.infinispan.remoting.transport;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Collections;
+
+import org.infinispan.distribution.TestAddress;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the response time estimates of {@link ResponseTimeTracker}.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "remoting.transport.ResponseTimeTrackerTest")
+public class ResponseTimeTrackerTest {
+
+   public void testNormalQuantile() {
+      assertEquals(0, ResponseTimeTracker.normalQuantile(0.5), 1e-3);
+      assertEquals(1.645, ResponseTimeTracker.normalQuantile(0.95), 1e-3);
+      assertEquals(2.326, ResponseTimeTracker.normalQuantile(0.99), 1e-3);
+      assertEquals(-1.645, ResponseTimeTracker.normalQuantile(0.05), 1e-3);
+   }
+
+   public void testUnknownMember() {
+      ResponseTimeTracker tracker = new ResponseTimeTracker();
+      assertEquals(-1, tracker.estimateResponseTime(new TestAddress(1), 95));
+   }
+
+   public void testConstantResponseTime() {
+      ResponseTimeTracker tracker = new ResponseTimeTracker();
+      Address member = new TestAddress(1);
+      for (int i = 0; i < 10; i++) {
+         tracker.recordResponseTime(member, 1000);
+      }
+      assertEquals(1000, tracker.estimateResponseTime(member, 50));
+      assertEquals(1000, tracker.estimateResponseTime(member, 99));
+   }
+
+   public void testHigherPercentileWaitsLonger() {
+      ResponseTimeTracker tracker = new ResponseTimeTracker();
+      Address member = new TestAddress(1);
+      for (int i = 0; i < 100; i++) {
+         tracker.recordResponseTime(member, i % 2 == 0 ? 1000 : 3000);
+      }
+      long median = tracker.estimateResponseTime(member, 50);
+      long high = tracker.estimateResponseTime(member, 99);
+      assertTrue("median=" + median, median > 1000 && median < 3000);
+      assertTrue("median=" + median + ", high=" + high, high > median);
+   }
+
+   public void testSlowMemberRanksLast() {
+      ResponseTimeTracker tracker = new ResponseTimeTracker();
+      Address fast = new TestAddress(1);
+      Address slow = new TestAddress(2);
+      for (int i = 0; i < 20; i++) {
+         tracker.recordResponseTime(fast, 1000);
+         tracker.recordResponseTime(slow, 50000);
+      }
+      assertTrue(tracker.estimateResponseTime(fast, 95) < tracker.estimateResponseTime(slow, 95));
+   }
+
+   public void testRetainAll() {
+      ResponseTimeTracker tracker = new ResponseTimeTracker();
+      Address stays = new TestAddress(1);
+      Address leaves = new TestAddress(2);
+      tracker.recordResponseTime(stays, 1000);
+      tracker.recordResponseTime(leaves, 1000);
+
+      tracker.retainAll(Collections.singletonList(stays));
+      assertEquals(1000, tracker.estimateResponseTime(stays, 95));
+      assertEquals(-1, tracker.estimateResponseTime(leaves, 95));
+   }
+}
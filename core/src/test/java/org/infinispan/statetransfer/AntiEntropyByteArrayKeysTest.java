@@ -0,0 +1,90 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.commons.equivalence.ByteArrayEquivalence;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the anti-entropy check compares byte array keys and values by content.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.AntiEntropyByteArrayKeysTest")
+@CleanupAfterMethod
+public class AntiEntropyByteArrayKeysTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 200;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().antiEntropyInterval(1, TimeUnit.HOURS).hash().numOwners(2).numSegments(20);
+      builder.dataContainer().keyEquivalence(ByteArrayEquivalence.INSTANCE)
+            .valueEquivalence(ByteArrayEquivalence.INSTANCE);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   public void testConsistentOwners() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put(("k" + i).getBytes(), ("v" + i).getBytes());
+      }
+
+      for (Cache<Object, Object> cache : caches()) {
+         checkAllSegments(cache);
+      }
+      for (Cache<Object, Object> cache : caches()) {
+         AntiEntropyManagerImpl manager = antiEntropyManager(cache);
+         assertEquals(0, manager.getSegmentsMismatched());
+         assertEquals(0, manager.getKeysRepaired());
+      }
+   }
+
+   public void testRepairBackup() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put(("k" + i).getBytes(), ("v" + i).getBytes());
+      }
+
+      // Both nodes own all the segments, so the primary owner of k0 compares it with the other node
+      byte[] modified = "k0".getBytes();
+      ConsistentHash ch = advancedCache(0).getDistributionManager().getReadConsistentHash();
+      int segment = ch.getSegment(modified);
+      Address primary = ch.locatePrimaryOwnerForSegment(segment);
+      Cache<Object, Object> primaryCache = address(0).equals(primary) ? cache(0) : cache(1);
+      Cache<Object, Object> backupCache = address(0).equals(primary) ? cache(1) : cache(0);
+      DataContainer<Object, Object> backupContainer = backupCache.getAdvancedCache().getDataContainer();
+      backupContainer.put(modified, "x".getBytes(), new EmbeddedMetadata.Builder().build());
+
+      AntiEntropyManagerImpl primaryManager = antiEntropyManager(primaryCache);
+      assertTrue(primaryManager.checkSegment(segment));
+      assertTrue(Arrays.equals("v0".getBytes(), (byte[]) backupContainer.get(modified).getValue()));
+      assertEquals(1, primaryManager.getKeysRepaired());
+   }
+
+   private void checkAllSegments(Cache<Object, Object> cache) throws InterruptedException {
+      ConsistentHash ch = cache.getAdvancedCache().getDistributionManager().getReadConsistentHash();
+      Address self = address(cache);
+      for (int segment = 0; segment < ch.getNumSegments(); segment++) {
+         assertEquals(ch.locatePrimaryOwnerForSegment(segment).equals(self),
+               antiEntropyManager(cache).checkSegment(segment));
+      }
+   }
+
+   private static AntiEntropyManagerImpl antiEntropyManager(Cache<Object, Object> cache) {
+      return (AntiEntropyManagerImpl) TestingUtil.extractComponent(cache, AntiEntropyManager.class);
+   }
+}
@@ -0,0 +1,130 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.distribution.MagicKey;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.metadata.EmbeddedMetadata;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the anti-entropy check finds and repairs the entries that differ between the owners of a segment.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.AntiEntropyTest")
+@CleanupAfterMethod
+public class AntiEntropyTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 200;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      ConfigurationBuilder builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      // The test runs the checks itself
+      builder.clustering().antiEntropyInterval(1, TimeUnit.HOURS).hash().numOwners(2).numSegments(20);
+      createCluster(builder, 3);
+      waitForClusterToForm();
+   }
+
+   public void testConsistentOwners() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      for (Cache<Object, Object> cache : caches()) {
+         checkAllSegments(cache);
+      }
+      for (Cache<Object, Object> cache : caches()) {
+         AntiEntropyManagerImpl manager = antiEntropyManager(cache);
+         assertEquals(0, manager.getSegmentsMismatched());
+         assertEquals(0, manager.getKeysRepaired());
+      }
+   }
+
+   public void testRepairBackup() throws Exception {
+      MagicKey modified = new MagicKey("modified", cache(0), cache(1));
+      MagicKey removed = new MagicKey("removed", cache(0), cache(1));
+      MagicKey added = new MagicKey("added", cache(0), cache(1));
+      cache(0).put(modified, "v");
+      cache(0).put(removed, "v");
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      // Make the backup diverge from the primary owner
+      DataContainer<Object, Object> backupContainer = cache(1).getAdvancedCache().getDataContainer();
+      backupContainer.put(modified, "x", new EmbeddedMetadata.Builder().build());
+      backupContainer.remove(removed);
+      backupContainer.put(added, "x", new EmbeddedMetadata.Builder().build());
+
+      ConsistentHash ch = advancedCache(0).getDistributionManager().getReadConsistentHash();
+      AntiEntropyManagerImpl primaryManager = antiEntropyManager(cache(0));
+      assertTrue(primaryManager.checkSegment(ch.getSegment(modified)));
+      assertTrue(primaryManager.checkSegment(ch.getSegment(removed)));
+      assertTrue(primaryManager.checkSegment(ch.getSegment(added)));
+
+      assertEquals("v", backupContainer.get(modified).getValue());
+      assertEquals("v", backupContainer.get(removed).getValue());
+      assertNull(backupContainer.get(added));
+      assertEquals(3, primaryManager.getKeysRepaired());
+      assertTrue(primaryManager.getSegmentsMismatched() > 0);
+      assertTrue(primaryManager.getHashesExchanged() > 0);
+
+      // Only the keys that differ were written
+      for (int i = 0; i < NUM_KEYS; i++) {
+         for (Cache<Object, Object> cache : caches()) {
+            assertEquals("v" + i, cache.get("k" + i));
+         }
+      }
+
+      primaryManager.resetStatistics();
+      checkAllSegments(cache(0));
+      assertEquals(0, primaryManager.getKeysRepaired());
+   }
+
+   public void testCheckNextSegment() throws Exception {
+      AntiEntropyManagerImpl manager = antiEntropyManager(cache(0));
+      ConsistentHash ch = advancedCache(0).getDistributionManager().getReadConsistentHash();
+      int primarySegments = ch.getPrimarySegmentsForOwner(address(0)).size();
+      for (int i = 0; i < primarySegments; i++) {
+         assertTrue(manager.checkNextSegment());
+      }
+      assertEquals(primarySegments, manager.getSegmentsCompared());
+      assertEquals(0, manager.getSegmentsMismatched());
+   }
+
+   public void testBackupOnlyNode() throws Exception {
+      MagicKey key = new MagicKey("key", cache(0), cache(1));
+      cache(0).put(key, "v");
+      ConsistentHash ch = advancedCache(0).getDistributionManager().getReadConsistentHash();
+      // The backup does not start the check, only the primary owner does
+      assertFalse(antiEntropyManager(cache(1)).checkSegment(ch.getSegment(key)));
+   }
+
+   private void checkAllSegments(Cache<Object, Object> cache) throws InterruptedException {
+      ConsistentHash ch = cache.getAdvancedCache().getDistributionManager().getReadConsistentHash();
+      Address self = address(cache);
+      for (int segment = 0; segment < ch.getNumSegments(); segment++) {
+         List<Address> owners = ch.locateOwnersForSegment(segment);
+         assertEquals(owners.get(0).equals(self), antiEntropyManager(cache).checkSegment(segment));
+      }
+   }
+
+   private static AntiEntropyManagerImpl antiEntropyManager(Cache<Object, Object> cache) {
+      return (AntiEntropyManagerImpl) TestingUtil.extractComponent(cache, AntiEntropyManager.class);
+   }
+}
@@ -0,0 +1,108 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.ReplicableCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.container.entries.InternalCacheEntry;
+import org.infinispan.remoting.responses.Response;
+import org.infinispan.remoting.rpc.RpcManager;
+import org.infinispan.remoting.rpc.RpcOptions;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.util.AbstractControlledRpcManager;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the pipelined state transfer keeps the size of the values in flight below {@code maxInFlightBytes}, when
+ * the values are bigger than the default buffer size predictions.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.PipelinedStateTransferLargeValuesTest")
+public class PipelinedStateTransferLargeValuesTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 40;
+   private static final int VALUE_SIZE = 100 * 1024;
+   private static final int CHUNK_BYTES = 128 * 1024;
+   private static final int MAX_IN_FLIGHT_BYTES = 512 * 1024;
+
+   private ConfigurationBuilder builder;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      builder.clustering().hash().numOwners(2).numSegments(20)
+            .stateTransfer().pipelined(true).chunkBytes(CHUNK_BYTES).maxInFlightBytes(MAX_IN_FLIGHT_BYTES)
+            .parallelSegments(4);
+      createCluster(builder, 1);
+      waitForClusterToForm();
+   }
+
+   public void testInFlightBytesAreLimited() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         byte[] value = new byte[VALUE_SIZE];
+         value[0] = (byte) i;
+         cache(0).put("k" + i, value);
+      }
+      InFlightBytesRpcManager rpcManager = InFlightBytesRpcManager.replaceRpcManager(cache(0));
+
+      addClusterEnabledCacheManager(builder);
+      Cache<Object, Object> joiner = cache(1);
+      TestingUtil.waitForRehashToComplete(cache(0), joiner);
+
+      assertEquals(NUM_KEYS, joiner.getAdvancedCache().getDataContainer().size());
+      for (int i = 0; i < NUM_KEYS; i++) {
+         byte[] value = (byte[]) joiner.get("k" + i);
+         assertEquals(VALUE_SIZE, value.length);
+         assertEquals((byte) i, value[0]);
+      }
+      long maxInFlightBytes = rpcManager.maxInFlightBytes.get();
+      assertTrue("No values were sent", maxInFlightBytes > 0);
+      assertTrue("Up to " + maxInFlightBytes + " bytes were in flight", maxInFlightBytes <= MAX_IN_FLIGHT_BYTES);
+   }
+
+   static class InFlightBytesRpcManager extends AbstractControlledRpcManager {
+      final AtomicLong inFlightBytes = new AtomicLong();
+      final AtomicLong maxInFlightBytes = new AtomicLong();
+
+      InFlightBytesRpcManager(RpcManager realOne) {
+         super(realOne);
+      }
+
+      static InFlightBytesRpcManager replaceRpcManager(Cache<?, ?> cache) {
+         RpcManager current = cache.getAdvancedCache().getRpcManager();
+         InFlightBytesRpcManager rpcManager = new InFlightBytesRpcManager(current);
+         TestingUtil.replaceComponent(cache, RpcManager.class, rpcManager, true);
+         return rpcManager;
+      }
+
+      @Override
+      public CompletableFuture<Map<Address, Response>> invokeRemotelyAsync(Collection<Address> recipients,
+                                                                           ReplicableCommand rpc, RpcOptions options) {
+         if (!(rpc instanceof StateResponseCommand)) {
+            return super.invokeRemotelyAsync(recipients, rpc, options);
+         }
+         long bytes = 0;
+         for (StateChunk chunk : ((StateResponseCommand) rpc).getStateChunks()) {
+            for (InternalCacheEntry ice : chunk.getCacheEntries()) {
+               bytes += ((byte[]) ice.getValue()).length;
+            }
+         }
+         long sent = bytes;
+         long current = inFlightBytes.addAndGet(sent);
+         maxInFlightBytes.accumulateAndGet(current, Math::max);
+         // The sender gets its credits back only after the bytes are no longer counted as in flight
+         return super.invokeRemotelyAsync(recipients, rpc, options)
+               .whenComplete((responses, throwable) -> inFlightBytes.addAndGet(-sent));
+      }
+   }
+}
@@ -0,0 +1,57 @@
+package org.infinispan.statetransfer;
+
+import static org.testng.AssertJUnit.assertEquals;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that the pipelined state transfer sends all the entries, when several segments and chunks are in flight.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.PipelinedStateTransferTest")
+public class PipelinedStateTransferTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 2000;
+
+   private ConfigurationBuilder builder;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      builder = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      // Small chunks and a small in-flight limit, so that the senders have to wait for credits
+      builder.clustering().hash().numOwners(2).numSegments(40)
+            .stateTransfer().pipelined(true).chunkBytes(1024).maxInFlightBytes(4096).parallelSegments(4);
+      createCluster(builder, 2);
+      waitForClusterToForm();
+   }
+
+   public void testJoinAndLeave() {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      addClusterEnabledCacheManager(builder);
+      Cache<Object, Object> joiner = cache(2);
+      TestingUtil.waitForRehashToComplete(cache(0), cache(1), joiner);
+      assertAllKeys(joiner);
+
+      killMember(0);
+      TestingUtil.waitForRehashToComplete(cache(0), cache(1));
+      for (Cache<Object, Object> cache : caches()) {
+         // With numOwners = 2 and 2 members, every member owns all the keys
+         assertEquals(NUM_KEYS, cache.getAdvancedCache().getDataContainer().size());
+         assertAllKeys(cache);
+      }
+   }
+
+   private void assertAllKeys(Cache<Object, Object> cache) {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals("v" + i, cache.get("k" + i));
+      }
+   }
+}
@@ -0,0 +1,129 @@
+package org.infinispan.statetransfer;
+
+import static org.infinispan.test.TestingUtil.wrapPerCacheInboundInvocationHandler;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.Cache;
+import org.infinispan.commands.remote.CacheRpcCommand;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.configuration.global.GlobalConfigurationBuilder;
+import org.infinispan.distribution.ch.ConsistentHash;
+import org.infinispan.remoting.inboundhandler.AbstractDelegatingHandler;
+import org.infinispan.remoting.inboundhandler.DeliverOrder;
+import org.infinispan.remoting.inboundhandler.PerCacheInboundInvocationHandler;
+import org.infinispan.remoting.inboundhandler.Reply;
+import org.infinispan.test.MultipleCacheManagersTest;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.test.fwk.CleanupAfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that a node restarted with a persistent store only requests the segments that changed while it was down.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "statetransfer.ResumedStateTransferTest")
+@CleanupAfterMethod
+public class ResumedStateTransferTest extends MultipleCacheManagersTest {
+   private static final int NUM_KEYS = 100;
+
+   @Override
+   protected void createCacheManagers() throws Throwable {
+      TestingUtil.recursiveFileRemove(TestingUtil.tmpDirectory(this.getClass().getSimpleName()));
+      createStatefulCacheManager("A");
+      createStatefulCacheManager("B");
+      waitForClusterToForm();
+   }
+
+   private void createStatefulCacheManager(String id) {
+      String stateDirectory = TestingUtil.tmpDirectory(this.getClass().getSimpleName() + File.separator + id);
+      GlobalConfigurationBuilder global = GlobalConfigurationBuilder.defaultClusteredBuilder();
+      global.globalState().enable().persistentLocation(stateDirectory);
+
+      ConfigurationBuilder config = getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+      config.clustering().hash().numOwners(2);
+      config.persistence().addSingleFileStore().location(stateDirectory).preload(true);
+      addClusterEnabledCacheManager(global, config);
+   }
+
+   public void testRestartWithoutChanges() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      killMember(1);
+      Set<Integer> requestedSegments = restartNode();
+      assertEquals(Collections.emptySet(), requestedSegments);
+      assertAllValues(cache(1), "v");
+   }
+
+   public void testRestartWithoutChangesByteArrayValues() throws Exception {
+      // byte[] values don't override hashCode(), the digests must still match
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, ("v" + i).getBytes());
+      }
+
+      killMember(1);
+      Set<Integer> requestedSegments = restartNode();
+      assertEquals(Collections.emptySet(), requestedSegments);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertTrue(Arrays.equals(("v" + i).getBytes(),
+               (byte[]) cache(1).getAdvancedCache().getDataContainer().get("k" + i).getValue()));
+      }
+   }
+
+   public void testRestartAfterChanges() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         cache(0).put("k" + i, "v" + i);
+      }
+
+      killMember(1);
+      ConsistentHash ch = cache(0).getAdvancedCache().getDistributionManager().getReadConsistentHash();
+      cache(0).put("k0", "w0");
+      int changedSegment = ch.getSegment("k0");
+
+      Set<Integer> requestedSegments = restartNode();
+      assertTrue(requestedSegments.contains(changedSegment));
+      assertTrue(requestedSegments.size() < ch.getNumSegments());
+      assertEquals("w0", cache(1).getAdvancedCache().getDataContainer().get("k0").getValue());
+   }
+
+   private Set<Integer> restartNode() throws Exception {
+      SegmentRequestRecorder recorder = wrapPerCacheInboundInvocationHandler(cache(0),
+            (wrapOn, current) -> new SegmentRequestRecorder(current), true);
+      createStatefulCacheManager("B");
+      waitForClusterToForm();
+      return recorder.requestedSegments;
+   }
+
+   private void assertAllValues(Cache<Object, Object> cache, String prefix) {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         assertEquals(prefix + i, cache.getAdvancedCache().getDataContainer().get("k" + i).getValue());
+      }
+   }
+
+   private static class SegmentRequestRecorder extends AbstractDelegatingHandler {
+      final Set<Integer> requestedSegments = Collections.synchronizedSet(new HashSet<>());
+
+      SegmentRequestRecorder(PerCacheInboundInvocationHandler delegate) {
+         super(delegate);
+      }
+
+      @Override
+      protected boolean beforeHandle(CacheRpcCommand command, Reply reply, DeliverOrder order) {
+         if (command instanceof StateRequestCommand
+               && ((StateRequestCommand) command).getType() == StateRequestCommand.Type.START_STATE_TRANSFER) {
+            requestedSegments.addAll(((StateRequestCommand) command).getSegments());
+         }
+         return super.beforeHandle(command, reply, order);
+      }
+   }
+}
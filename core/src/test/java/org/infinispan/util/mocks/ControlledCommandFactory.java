@@ -50,12 +50,14 @@
 import org.infinispan.commands.write.ReplaceCommand;
 import org.infinispan.commands.write.WriteCommand;
 import org.infinispan.commons.api.functional.EntryView;
+import org.infinispan.container.entries.InternalCacheEntry;
 import org.infinispan.context.Flag;
 import org.infinispan.factories.ComponentRegistry;
 import org.infinispan.functional.impl.Params;
 import org.infinispan.manager.EmbeddedCacheManager;
 import org.infinispan.metadata.Metadata;
 import org.infinispan.remoting.transport.Address;
+import org.infinispan.statetransfer.AntiEntropyCommand;
 import org.infinispan.statetransfer.StateChunk;
 import org.infinispan.statetransfer.StateRequestCommand;
 import org.infinispan.statetransfer.StateResponseCommand;
@@ -296,6 +298,13 @@ public StateResponseCommand buildStateResponseCommand(Address sender, int topolo
       return actual.buildStateResponseCommand(sender, topologyId, stateChunks);
    }
 
+   @Override
+   public AntiEntropyCommand buildAntiEntropyCommand(AntiEntropyCommand.Type type, int topologyId, int segmentId,
+                                                     int level, int[] indices, Collection<InternalCacheEntry> entries,
+                                                     Collection<Object> removedKeys) {
+      return actual.buildAntiEntropyCommand(type, topologyId, segmentId, level, indices, entries, removedKeys);
+   }
+
    @Override
    public String getCacheName() {
       return actual.getCacheName();
@@ -32,6 +32,11 @@ public Object handleRemoteCommand(VisitableCommand command) throws Throwable {
       return delegate.handleRemoteCommand(command);
    }
 
+   @Override
+   public Object handleRemoteBatch(XSiteBatchCommand command) throws Throwable {
+      return delegate.handleRemoteBatch(command);
+   }
+
    @Override
    public void handleStateTransferControl(XSiteStateTransferControlCommand command) throws Exception {
       delegate.handleStateTransferControl(command);
@@ -0,0 +1,171 @@
+package org.infinispan.xsite;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertNotNull;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.BackupConfiguration;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
+import org.infinispan.configuration.cache.CacheMode;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.DistributionManager;
+import org.infinispan.remoting.transport.Address;
+import org.infinispan.test.TestingUtil;
+import org.testng.annotations.Test;
+
+/**
+ * Tests the asynchronous backup with batching enabled.
+ *
+ * @since 9.0
+ */
+@Test(groups = "xsite", testName = "xsite.NonTxAsyncBatchBackupTest")
+public class NonTxAsyncBatchBackupTest extends AbstractTwoSitesTest {
+
+   private static final int BATCH_SIZE = 10;
+
+   public NonTxAsyncBatchBackupTest() {
+      super.lonBackupStrategy = BackupConfiguration.BackupStrategy.ASYNC;
+   }
+
+   @Override
+   protected ConfigurationBuilder getNycActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   @Override
+   protected ConfigurationBuilder getLonActiveConfig() {
+      return getDefaultClusteredCacheConfig(CacheMode.DIST_SYNC, false);
+   }
+
+   @Override
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      // The test flushes the queues itself, unless the batch is full
+      builder.asyncBatchSize(BATCH_SIZE).asyncBatchInterval(600000);
+   }
+
+   @Override
+   protected void clearContent() throws Throwable {
+      super.clearContent();
+      // Send the clear queued by the cleanup, so it doesn't reach the backup site during the next test
+      flushAll();
+      eventually(() -> backup(LON).isEmpty());
+   }
+
+   public void testCoalesce() {
+      long coalescedBefore = totalCoalesced();
+      for (int i = 0; i < 5; i++) {
+         cache(LON, 0).put("k", "v" + i);
+      }
+      assertNull(backup(LON).get("k"));
+      assertEquals(1, totalPendingKeys());
+      assertTrue(totalLag() >= 0);
+
+      flushAll();
+      eventually(() -> "v4".equals(backup(LON).get("k")));
+      assertEquals(0, totalPendingKeys());
+      assertEquals(0, totalLag());
+      assertEquals(4, totalCoalesced() - coalescedBefore);
+   }
+
+   public void testRemove() {
+      cache(LON, 0).put("k", "v");
+      flushAll();
+      eventually(() -> "v".equals(backup(LON).get("k")));
+
+      cache(LON, 1).put("k", "v2");
+      cache(LON, 1).remove("k");
+      flushAll();
+      eventually(() -> backup(LON).get("k") == null);
+   }
+
+   public void testClear() {
+      // The clear is queued by the originator, the writes by the primary owner
+      String k1 = primaryKey(0, "k1");
+      String k2 = primaryKey(0, "k2");
+      String k3 = primaryKey(0, "k3");
+      cache(LON, 0).put(k1, "v1");
+      flushAll();
+      eventually(() -> "v1".equals(backup(LON).get(k1)));
+
+      cache(LON, 0).put(k2, "v2");
+      cache(LON, 0).clear();
+      cache(LON, 0).put(k3, "v3");
+      flushAll();
+      eventually(() -> "v3".equals(backup(LON).get(k3)));
+      assertNull(backup(LON).get(k1));
+      assertNull(backup(LON).get(k2));
+   }
+
+   public void testFullBatchIsSent() {
+      Map<String, String> map = new HashMap<>();
+      for (int i = 0; i < BATCH_SIZE; i++) {
+         map.put("k" + i, "v" + i);
+      }
+      long batchesSent = queue(cache(LON, 0)).getBatchesSent();
+      // The whole map is backed up by the originator
+      cache(LON, 0).putAll(map);
+      eventually(() -> {
+         for (int i = 0; i < BATCH_SIZE; i++) {
+            if (!("v" + i).equals(backup(LON).get("k" + i))) {
+               return false;
+            }
+         }
+         return true;
+      });
+      AsyncBackupQueue queue = queue(cache(LON, 0));
+      assertEquals(batchesSent + 1, queue.getBatchesSent());
+      assertTrue(queue.getBytesSent() > 0);
+   }
+
+   private void flushAll() {
+      for (Cache<?, ?> cache : caches(LON)) {
+         queue(cache).flush();
+      }
+   }
+
+   private String primaryKey(int index, String prefix) {
+      Address address = cache(LON, index).getAdvancedCache().getRpcManager().getAddress();
+      DistributionManager distributionManager = cache(LON, index).getAdvancedCache().getDistributionManager();
+      for (int i = 0; ; i++) {
+         String key = prefix + "-" + i;
+         if (address.equals(distributionManager.getPrimaryLocation(key))) {
+            return key;
+         }
+      }
+   }
+
+   private long totalCoalesced() {
+      long coalesced = 0;
+      for (Cache<?, ?> cache : caches(LON)) {
+         coalesced += queue(cache).getModificationsCoalesced();
+      }
+      return coalesced;
+   }
+
+   private int totalPendingKeys() {
+      int pending = 0;
+      for (Cache<?, ?> cache : caches(LON)) {
+         pending += queue(cache).getPendingKeys();
+      }
+      return pending;
+   }
+
+   private long totalLag() {
+      long lag = 0;
+      for (Cache<?, ?> cache : caches(LON)) {
+         lag += queue(cache).getLag();
+      }
+      return lag;
+   }
+
+   private static AsyncBackupQueue queue(Cache<?, ?> cache) {
+      AsyncBackupQueue queue = TestingUtil.extractComponent(cache, BackupSender.class).getAsyncBackupQueue(NYC);
+      assertNotNull(queue);
+      return queue;
+   }
+}
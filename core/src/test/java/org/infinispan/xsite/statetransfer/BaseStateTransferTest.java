@@ -539,27 +539,27 @@ private boolean containsKey(XSiteState[] states, Object key) {
       return false;
    }
 
-   private void startStateTransfer(String fromSite, String toSite) {
+   protected void startStateTransfer(String fromSite, String toSite) {
       XSiteAdminOperations operations = extractComponent(cache(fromSite, 0), XSiteAdminOperations.class);
       assertEquals(XSiteAdminOperations.SUCCESS, operations.pushState(toSite));
    }
 
-   private void takeSiteOffline(String localSite, String remoteSite) {
+   protected void takeSiteOffline(String localSite, String remoteSite) {
       XSiteAdminOperations operations = extractComponent(cache(localSite, 0), XSiteAdminOperations.class);
       assertEquals(XSiteAdminOperations.SUCCESS, operations.takeSiteOffline(remoteSite));
    }
 
-   private void assertOffline(String localSite, String remoteSite) {
+   protected void assertOffline(String localSite, String remoteSite) {
       XSiteAdminOperations operations = extractComponent(cache(localSite, 0), XSiteAdminOperations.class);
       assertEquals(XSiteAdminOperations.OFFLINE, operations.siteStatus(remoteSite));
    }
 
-   private void assertOnline(String localSite, String remoteSite) {
+   protected void assertOnline(String localSite, String remoteSite) {
       XSiteAdminOperations operations = extractComponent(cache(localSite, 0), XSiteAdminOperations.class);
       assertEquals(XSiteAdminOperations.ONLINE, operations.siteStatus(remoteSite));
    }
 
-   private int chunkSize(String site) {
+   protected int chunkSize(String site) {
       return cache(site, 0).getCacheConfiguration().sites().allBackups().get(0).stateTransfer().chunkSize();
    }
 
@@ -0,0 +1,131 @@
+package org.infinispan.xsite.statetransfer;
+
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.BackupConfigurationBuilder;
+import org.infinispan.container.DataContainer;
+import org.infinispan.container.SegmentedDataContainer;
+import org.infinispan.test.TestingUtil;
+import org.infinispan.xsite.XSiteAdminOperations;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.infinispan.test.TestingUtil.extractComponent;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+import static org.testng.AssertJUnit.fail;
+
+/**
+ * Tests the cross-site state transfer pushing several segments in parallel, with a bandwidth limit, using a distributed
+ * synchronous non-transactional cache
+ *
+ * @since 9.0
+ */
+@Test(groups = "xsite", testName = "xsite.statetransfer.DistSyncNonTxParallelStateTransferTest")
+public class DistSyncNonTxParallelStateTransferTest extends DistSyncNonTxStateTransferTest {
+
+   private static final long MAX_BANDWIDTH = 1024 * 1024;
+   private static final int VALUE_SIZE = 10 * 1024;
+   private static final int NUM_KEYS = 300;
+
+   @Override
+   protected void adaptLONConfiguration(BackupConfigurationBuilder builder) {
+      super.adaptLONConfiguration(builder);
+      builder.stateTransfer().parallelSegments(4).maxBandwidth(MAX_BANDWIDTH);
+   }
+
+   public void testStateTransferIsThrottled() throws InterruptedException {
+      takeSiteOffline(LON, NYC);
+      assertOffline(LON, NYC);
+
+      char[] chars = new char[VALUE_SIZE];
+      Arrays.fill(chars, 'x');
+      String value = new String(chars);
+      for (int i = 0; i < NUM_KEYS; ++i) {
+         cache(LON, 0).put("throttled-" + i, value);
+      }
+
+      long start = System.nanoTime();
+      startStateTransfer(LON, NYC);
+      eventually(new Condition() {
+         @Override
+         public boolean isSatisfied() throws Exception {
+            return extractComponent(cache(LON, 0), XSiteAdminOperations.class).getRunningStateTransfer().isEmpty();
+         }
+      }, TimeUnit.SECONDS.toMillis(60));
+      long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      assertOnline(LON, NYC);
+
+      // Each of the 2 nodes pushes its own entries, and one of them pushes at least half of the total size.
+      // Only the first chunk of a node is sent without waiting, so the push can't be faster than this.
+      long minBytes = (long) NUM_KEYS * VALUE_SIZE / 2 - 2 * VALUE_SIZE * chunkSize(LON);
+      long minDurationMillis = TimeUnit.SECONDS.toMillis(minBytes) / MAX_BANDWIDTH;
+      assertTrue("State transfer took " + durationMillis + " ms, expected at least " + minDurationMillis + " ms",
+                 durationMillis >= minDurationMillis);
+
+      assertInSite(NYC, new AssertCondition<Object, Object>() {
+         @Override
+         public void assertInCache(Cache<Object, Object> cache) {
+            for (int i = 0; i < NUM_KEYS; ++i) {
+               assertEquals(value, cache.get("throttled-" + i));
+            }
+         }
+      });
+   }
+
+   public void testSegmentIterationFailureFailsThePush() throws InterruptedException {
+      takeSiteOffline(LON, NYC);
+      assertOffline(LON, NYC);
+      for (int i = 0; i < NUM_KEYS; ++i) {
+         cache(LON, 0).put("failed-" + i, "value");
+      }
+
+      int numNodes = site(LON).cacheManagers().size();
+      DataContainer[] originals = new DataContainer[numNodes];
+      for (int i = 0; i < numNodes; ++i) {
+         XSiteStateProvider provider = extractComponent(cache(LON, i), XSiteStateProvider.class);
+         originals[i] = TestingUtil.extractField(provider, "dataContainer");
+         TestingUtil.replaceField(failingSegmentIteration(originals[i]), "dataContainer", provider,
+                                  XSiteStateProviderImpl.class);
+      }
+      try {
+         startStateTransfer(LON, NYC);
+         eventually(new Condition() {
+            @Override
+            public boolean isSatisfied() throws Exception {
+               return extractComponent(cache(LON, 0), XSiteAdminOperations.class).getRunningStateTransfer().isEmpty();
+            }
+         }, TimeUnit.SECONDS.toMillis(60));
+         assertEquals(XSiteStateTransferManager.STATUS_ERROR,
+                      extractComponent(cache(LON, 0), XSiteAdminOperations.class).getPushStateStatus().get(NYC));
+      } finally {
+         for (int i = 0; i < numNodes; ++i) {
+            TestingUtil.replaceField(originals[i], "dataContainer",
+                                     extractComponent(cache(LON, i), XSiteStateProvider.class),
+                                     XSiteStateProviderImpl.class);
+         }
+         extractComponent(cache(LON, 0), XSiteAdminOperations.class).clearPushStateStatus();
+      }
+   }
+
+   private static DataContainer failingSegmentIteration(DataContainer dataContainer) {
+      if (!(dataContainer instanceof SegmentedDataContainer)) {
+         fail("The data container is not segmented: " + dataContainer);
+      }
+      return (DataContainer) Proxy.newProxyInstance(DistSyncNonTxParallelStateTransferTest.class.getClassLoader(),
+            new Class[]{SegmentedDataContainer.class}, (proxy, method, args) -> {
+               if (method.getName().equals("iterator") && args != null && args.length == 1 && args[0] instanceof Set) {
+                  throw new IllegalStateException("Induced failure");
+               }
+               try {
+                  return method.invoke(dataContainer, args);
+               } catch (InvocationTargetException e) {
+                  throw e.getCause();
+               }
+            });
+   }
+}
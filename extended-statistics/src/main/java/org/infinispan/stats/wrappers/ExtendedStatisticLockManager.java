@@ -115,6 +115,17 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
       return lockPromise;
    }
 
+   @Override
+   public KeyAwareLockPromise lockShared(Object key, Object lockOwner, long time, TimeUnit unit) {
+      //the statistics are collected per key, so only the exclusive locks are tracked
+      return actual.lockShared(key, lockOwner, time, unit);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAllShared(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      return actual.lockAllShared(keys, lockOwner, time, unit);
+   }
+
    @Override
    public void unlock(Object key, Object lockOwner) {
       final long timestamp = timeService.time();
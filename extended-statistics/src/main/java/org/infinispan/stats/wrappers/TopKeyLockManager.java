@@ -52,6 +52,16 @@ public KeyAwareLockPromise lockAll(Collection<?> keys, Object lockOwner, long ti
       return lockPromise;
    }
 
+   @Override
+   public KeyAwareLockPromise lockShared(Object key, Object lockOwner, long time, TimeUnit unit) {
+      return current.lockShared(key, lockOwner, time, unit);
+   }
+
+   @Override
+   public KeyAwareLockPromise lockAllShared(Collection<?> keys, Object lockOwner, long time, TimeUnit unit) {
+      return current.lockAllShared(keys, lockOwner, time, unit);
+   }
+
    @Override
    public void unlock(Object key, Object lockOwner) {
       current.unlock(key, lockOwner);
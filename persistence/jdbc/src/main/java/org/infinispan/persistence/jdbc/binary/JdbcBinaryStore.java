@@ -8,6 +8,7 @@
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
@@ -136,6 +137,37 @@ public final void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Groups the entries by bucket, so that each bucket is only loaded and written once.
+    */
+   @Override
+   public final void writeBatch(Iterable entries) {
+      long now = ctx.getTimeService().wallClockTime();
+      List<Object> expired = new ArrayList<>();
+      Map<Integer, List<MarshalledEntry>> entriesByBucket = new HashMap<>();
+      for (Object o : entries) {
+         MarshalledEntry entry = (MarshalledEntry) o;
+         InternalMetadata m = entry.getMetadata();
+         if (m != null && m.isExpired(now)) {
+            expired.add(entry.getKey());
+         } else {
+            entriesByBucket.computeIfAbsent(getBuckedId(entry.getKey()), k -> new ArrayList<>()).add(entry);
+         }
+      }
+      for (Map.Entry<Integer, List<MarshalledEntry>> e : entriesByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            storeInBucket(e.getValue(), bucketId);
+         } finally {
+            unlock(bucketId);
+         }
+      }
+      if (!expired.isEmpty()) {
+         deleteBatch(expired);
+      }
+   }
+
    @Override
    public final MarshalledEntry load(Object key) {
       Integer bucketId = getBuckedId(key);
@@ -176,6 +208,32 @@ public final boolean delete(Object key) {
       }
    }
 
+   @Override
+   public final void deleteBatch(Iterable keys) {
+      Map<Integer, List<Object>> keysByBucket = new HashMap<>();
+      for (Object key : keys) {
+         keysByBucket.computeIfAbsent(getBuckedId(key), k -> new ArrayList<>()).add(key);
+      }
+      for (Map.Entry<Integer, List<Object>> e : keysByBucket.entrySet()) {
+         Integer bucketId = e.getKey();
+         lockBucketForWriting(bucketId);
+         try {
+            Bucket bucket = loadBucket(bucketId);
+            if (bucket != null) {
+               boolean removed = false;
+               for (Object key : e.getValue()) {
+                  removed |= bucket.removeEntry(key);
+               }
+               if (removed) {
+                  updateBucket(bucket);
+               }
+            }
+         } finally {
+            unlock(bucketId);
+         }
+      }
+   }
+
    @Override
    public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
       Connection conn = null;
@@ -590,6 +648,23 @@ protected void storeInBucket(MarshalledEntry me, Integer bucketId) {
       }
    }
 
+   private void storeInBucket(List<MarshalledEntry> entries, Integer bucketId) {
+      Bucket bucket = loadBucket(bucketId);
+      boolean insert = bucket == null;
+      if (insert) {
+         bucket = new Bucket(keyEquivalence);
+         bucket.setBucketId(bucketId);
+      }
+      for (MarshalledEntry me : entries) {
+         bucket.addEntry(me.getKey(), me);
+      }
+      if (insert) {
+         insertBucket(bucket);
+      } else {
+         updateBucket(bucket);
+      }
+   }
+
    protected boolean removeKeyFromBucket(Object key, Integer bucketId) {
       Bucket bucket = loadBucket(bucketId);
       if (bucket == null) {
@@ -3,6 +3,7 @@
 import java.util.Map;
 import java.util.Properties;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
 import org.infinispan.configuration.parsing.XmlConfigHelper;
 import org.infinispan.commons.util.TypedProperties;
@@ -49,6 +50,13 @@ public JdbcBinaryStoreConfigurationBuilder concurrencyLevel(int concurrencyLevel
       return self();
    }
 
+   @Override
+   public void validate() {
+      super.validate();
+      if (table.isSegmentColumnSet())
+         throw new CacheConfigurationException("The binary store does not support a segment column.");
+   }
+
    @Override
    public JdbcBinaryStoreConfiguration create() {
       return new JdbcBinaryStoreConfiguration(attributes.protect(), async.create(), singletonStore.create(), connectionFactory != null ? connectionFactory.create() : null, table.create());
@@ -111,7 +111,9 @@ public void validate() {
       if (binaryTable.tableNamePrefix().equals(stringTable.tableNamePrefix()))
          throw new CacheConfigurationException("There cannot be the same tableNamePrefix on both the binary and " +
                "String tables.");
-
+      if (binaryTable.isSegmentColumnSet())
+         throw new CacheConfigurationException("The binary table does not support a segment column.");
+      stringTable.validateSegmentColumn();
    }
 
    public JdbcMixedStoreConfigurationBuilder lockConcurrencyLevel(int l) {
@@ -333,6 +333,12 @@ private void parseTableElements(XMLExtendedStreamReader reader, TableManipulatio
                builder.timestampColumnType(column.type);
                break;
             }
+            case SEGMENT_COLUMN: {
+               Column column = parseTableElementAttributes(reader);
+               builder.segmentColumnName(column.name);
+               builder.segmentColumnType(column.type);
+               break;
+            }
             default: {
                throw ParseUtils.unexpectedElement(reader);
             }
@@ -67,6 +67,12 @@ public JdbcStringBasedStoreConfigurationBuilder withProperties(Properties props)
       return this;
    }
 
+   @Override
+   public void validate() {
+      super.validate();
+      table.validateSegmentColumn();
+   }
+
    @Override
    public JdbcStringBasedStoreConfiguration create() {
       return new JdbcStringBasedStoreConfiguration(attributes.protect(), async.create(), singletonStore.create(), connectionFactory != null ? connectionFactory.create() : null,
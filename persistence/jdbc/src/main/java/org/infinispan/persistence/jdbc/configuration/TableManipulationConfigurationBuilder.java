@@ -121,9 +121,38 @@ public S timestampColumnType(String timestampColumnType) {
       return self();
    }
 
+   /**
+    * The name of the database column used to store the segment of each entry. This is optional, and only supported by
+    * the string-based store: with a segment column, iterating over the entries of some segments (e.g. during state
+    * transfer) reads only their rows, using an index on this column.
+    */
+   public S segmentColumnName(String segmentColumnName) {
+      attributes.attribute(SEGMENT_COLUMN_NAME).set(segmentColumnName);
+      return self();
+   }
+
+   /**
+    * The type of the database column used to store the segment of each entry
+    */
+   public S segmentColumnType(String segmentColumnType) {
+      attributes.attribute(SEGMENT_COLUMN_TYPE).set(segmentColumnType);
+      return self();
+   }
+
+   boolean isSegmentColumnSet() {
+      return attributes.attribute(SEGMENT_COLUMN_NAME).get() != null || attributes.attribute(SEGMENT_COLUMN_TYPE).get() != null;
+   }
+
+   void validateSegmentColumn() {
+      if (isSegmentColumnSet()) {
+         validateIfSet(SEGMENT_COLUMN_NAME, SEGMENT_COLUMN_TYPE);
+      }
+   }
+
    @Override
    public void validate() {
       validateIfSet(ID_COLUMN_NAME, ID_COLUMN_TYPE, DATA_COLUMN_NAME, DATA_COLUMN_TYPE, TIMESTAMP_COLUMN_NAME, TIMESTAMP_COLUMN_TYPE, TABLE_NAME_PREFIX);
+      validateSegmentColumn();
    }
 
    private void validateIfSet(AttributeDefinition<?>... definitions) {
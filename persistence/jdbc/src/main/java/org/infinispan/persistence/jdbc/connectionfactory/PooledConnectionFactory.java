@@ -31,6 +31,7 @@ public class PooledConnectionFactory extends ConnectionFactory {
 
    private static final Log log = LogFactory.getLog(PooledConnectionFactory.class, Log.class);
    private static final boolean trace = log.isTraceEnabled();
+   private static final int MAX_STATEMENTS_PER_CONNECTION = 16;
    private ComboPooledDataSource pooledDataSource;
 
    @Override
@@ -60,6 +61,11 @@ public void start(ConnectionFactoryConfiguration config, ClassLoader classLoader
       pooledDataSource.setJdbcUrl(pooledConfiguration.connectionUrl());
       pooledDataSource.setUser(pooledConfiguration.username());
       pooledDataSource.setPassword(pooledConfiguration.password());
+      if (pooledDataSource.getMaxStatements() == 0 && pooledDataSource.getMaxStatementsPerConnection() == 0) {
+         // The stores prepare the same few statements over and over, let the pool cache them for each connection
+         // unless the statement cache is configured in c3p0.properties
+         pooledDataSource.setMaxStatementsPerConnection(MAX_STATEMENTS_PER_CONNECTION);
+      }
       if (trace) {
          log.tracef("Started connection factory with config: %s", config);
       }
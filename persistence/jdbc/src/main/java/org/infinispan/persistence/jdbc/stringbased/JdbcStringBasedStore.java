@@ -8,6 +8,7 @@
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -18,6 +19,7 @@
 import org.infinispan.commons.io.ByteBuffer;
 import org.infinispan.commons.util.Util;
 import org.infinispan.configuration.global.GlobalConfiguration;
+import org.infinispan.distribution.ch.KeyPartitioner;
 import org.infinispan.filter.KeyFilter;
 import org.infinispan.marshall.core.MarshalledEntry;
 import org.infinispan.persistence.TaskContextImpl;
@@ -34,6 +36,7 @@
 import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
 import org.infinispan.persistence.spi.InitializationContext;
 import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.persistence.spi.SegmentedAdvancedCacheLoader;
 import org.infinispan.util.KeyValuePair;
 import org.infinispan.util.logging.LogFactory;
 
@@ -66,13 +69,15 @@
  * <b>Rehashing</b>. When a node leaves/joins, Infinispan moves around persistent state as part of rehashing process.
  * For this it needs access to the underlaying key objects, so if distribution is used, the mapper needs to be an
  * {@link org.infinispan.persistence.keymappers.TwoWayKey2StringMapper} otherwise the cache won't start (same constraint as with preloading).
+ * If the table has a segment column, only the rows of the segments being transferred, and the rows without a segment, are
+ * read.
  *
  * @author Mircea.Markus@jboss.com
  * @see org.infinispan.persistence.keymappers.Key2StringMapper
  * @see org.infinispan.persistence.keymappers.DefaultTwoWayKey2StringMapper
  */
 @ConfiguredBy(JdbcStringBasedStoreConfiguration.class)
-public class JdbcStringBasedStore implements AdvancedLoadWriteStore {
+public class JdbcStringBasedStore implements AdvancedLoadWriteStore, SegmentedAdvancedCacheLoader {
 
    private static final Log log = LogFactory.getLog(JdbcStringBasedStore.class, Log.class);
    private static final boolean trace = log.isTraceEnabled();
@@ -85,6 +90,9 @@ public class JdbcStringBasedStore implements AdvancedLoadWriteStore {
    private InitializationContext ctx;
    private String cacheName;
    private GlobalConfiguration globalConfiguration;
+   private KeyPartitioner keyPartitioner;
+   // true if the segment column was computed with the cache's number of segments, except for the NULL values
+   private boolean segmentColumnValid;
 
 
    @Override
@@ -120,6 +128,14 @@ public void start() {
       if (isDistributed()) {
          enforceTwoWayMapper("distribution/rehashing");
       }
+      if (tableManager.hasSegmentColumn()) {
+         keyPartitioner = ctx.getCache().getAdvancedCache().getComponentRegistry().getComponent(KeyPartitioner.class);
+         if (keyPartitioner == null) {
+            throw new PersistenceException("The segment column requires the cache's KeyPartitioner");
+         }
+         int numSegments = ctx.getCache().getCacheConfiguration().clustering().hash().numSegments();
+         segmentColumnValid = tableManager.initSegmentColumn(numSegments);
+      }
    }
 
    @Override
@@ -171,6 +187,114 @@ public void write(MarshalledEntry entry) {
       }
    }
 
+   /**
+    * Writes all the entries using a single connection and JDBC batch updates of at most
+    * {@link TableManager#getBatchSize()} statements.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      Connection connection = null;
+      try {
+         connection = connectionFactory.getConnection();
+         if (tableManager.isUpsertSupported()) {
+            executeBatchUpsert(connection, entries);
+         } else {
+            executeBatchLegacyUpdate(connection, entries);
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureStoringKeys(ex);
+         throw new PersistenceException("Error while storing string keys to database", ex);
+      } catch (InterruptedException e) {
+         if (trace) {
+            log.trace("Interrupted while marshalling to store");
+         }
+         Thread.currentThread().interrupt();
+      } finally {
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
+   private void executeBatchUpsert(Connection connection, Iterable<MarshalledEntry> entries)
+         throws InterruptedException, SQLException {
+      String sql = tableManager.getUpsertRowSql();
+      if (trace) {
+         log.tracef("Running batched sql '%s'", sql);
+      }
+      PreparedStatement ps = null;
+      try {
+         ps = connection.prepareStatement(sql);
+         int batched = 0;
+         for (MarshalledEntry entry : entries) {
+            prepareInsertStatement(entry, key2Str(entry.getKey()), ps);
+            ps.addBatch();
+            batched = executeBatchIfFull(ps, batched + 1);
+         }
+         if (batched > 0) {
+            ps.executeBatch();
+         }
+      } finally {
+         JdbcUtil.safeClose(ps);
+      }
+   }
+
+   private void executeBatchLegacyUpdate(Connection connection, Iterable<MarshalledEntry> entries)
+         throws InterruptedException, SQLException {
+      if (trace) {
+         log.tracef("Running batched sql '%s' and '%s'", tableManager.getUpdateRowSql(), tableManager.getInsertRowSql());
+      }
+      PreparedStatement selectPs = null;
+      PreparedStatement updatePs = null;
+      PreparedStatement insertPs = null;
+      try {
+         selectPs = connection.prepareStatement(tableManager.getSelectIdRowSql());
+         updatePs = connection.prepareStatement(tableManager.getUpdateRowSql());
+         insertPs = connection.prepareStatement(tableManager.getInsertRowSql());
+         int updates = 0;
+         int inserts = 0;
+         for (MarshalledEntry entry : entries) {
+            String keyStr = key2Str(entry.getKey());
+            selectPs.setString(1, keyStr);
+            boolean exists;
+            ResultSet rs = selectPs.executeQuery();
+            try {
+               exists = rs.next();
+            } finally {
+               JdbcUtil.safeClose(rs);
+            }
+            if (exists) {
+               prepareUpdateStatement(entry, keyStr, updatePs);
+               updatePs.addBatch();
+               updates = executeBatchIfFull(updatePs, updates + 1);
+            } else {
+               prepareInsertStatement(entry, keyStr, insertPs);
+               insertPs.addBatch();
+               inserts = executeBatchIfFull(insertPs, inserts + 1);
+            }
+         }
+         if (updates > 0) {
+            updatePs.executeBatch();
+         }
+         if (inserts > 0) {
+            insertPs.executeBatch();
+         }
+      } finally {
+         JdbcUtil.safeClose(selectPs);
+         JdbcUtil.safeClose(updatePs);
+         JdbcUtil.safeClose(insertPs);
+      }
+   }
+
+   /**
+    * @return the number of statements still waiting in the batch
+    */
+   private int executeBatchIfFull(PreparedStatement ps, int batched) throws SQLException {
+      if (batched < tableManager.getBatchSize()) {
+         return batched;
+      }
+      ps.executeBatch();
+      return 0;
+   }
+
    private void executeUpsert(Connection connection, MarshalledEntry entry, String keyStr)
          throws InterruptedException, SQLException {
       PreparedStatement ps = null;
@@ -179,7 +303,7 @@ private void executeUpsert(Connection connection, MarshalledEntry entry, String
          log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
       } try {
          ps = connection.prepareStatement(sql);
-         prepareUpdateStatement(entry, keyStr, ps);
+         prepareInsertStatement(entry, keyStr, ps);
          ps.executeUpdate();
       } finally {
          JdbcUtil.safeClose(ps);
@@ -197,7 +321,8 @@ private void executeLegacyUpdate(Connection connection, MarshalledEntry entry, S
          ps = connection.prepareStatement(sql);
          ps.setString(1, keyStr);
          ResultSet rs = ps.executeQuery();
-         if (rs.next()) {
+         boolean exists = rs.next();
+         if (exists) {
             sql = tableManager.getUpdateRowSql();
          } else {
             sql = tableManager.getInsertRowSql();
@@ -208,7 +333,11 @@ private void executeLegacyUpdate(Connection connection, MarshalledEntry entry, S
             log.tracef("Running sql '%s'. Key string is '%s'", sql, keyStr);
          }
          ps = connection.prepareStatement(sql);
-         prepareUpdateStatement(entry, keyStr, ps);
+         if (exists) {
+            prepareUpdateStatement(entry, keyStr, ps);
+         } else {
+            prepareInsertStatement(entry, keyStr, ps);
+         }
          ps.executeUpdate();
       } finally {
          JdbcUtil.safeClose(ps);
@@ -273,6 +402,35 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      Connection connection = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManager.getDeleteRowSql();
+         if (trace) {
+            log.tracef("Running batched sql '%s'", sql);
+         }
+         connection = connectionFactory.getConnection();
+         ps = connection.prepareStatement(sql);
+         int batched = 0;
+         for (Object key : keys) {
+            ps.setString(1, key2Str(key));
+            ps.addBatch();
+            batched = executeBatchIfFull(ps, batched + 1);
+         }
+         if (batched > 0) {
+            ps.executeBatch();
+         }
+      } catch (SQLException ex) {
+         log.sqlFailureRemovingKeys(ex);
+         throw new PersistenceException("Error while removing string keys from database", ex);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(connection);
+      }
+   }
+
    @Override
    public void clear() throws PersistenceException {
       Connection conn = null;
@@ -294,30 +452,21 @@ public void clear() throws PersistenceException {
       }
    }
 
+   /**
+    * If the keys can be mapped back from the strings, the ids of the expired rows are streamed with the fetch size and
+    * the rows are deleted in batches, so that the listener is notified of each purged key. Otherwise all the expired
+    * rows are deleted with a single statement.
+    */
    @Override
-   public void purge(Executor executor, PurgeListener task) {
-      //todo we should make the notification to the purge listener here
+   public void purge(Executor executor, final PurgeListener task) {
       ExecutorCompletionService<Void> ecs = new ExecutorCompletionService<Void>(executor);
       Future<Void> future = ecs.submit(new Callable<Void>() {
          @Override
          public Void call() throws Exception {
-            Connection conn = null;
-            PreparedStatement ps = null;
-            try {
-               String sql = tableManager.getDeleteExpiredRowsSql();
-               conn = connectionFactory.getConnection();
-               ps = conn.prepareStatement(sql);
-               ps.setLong(1, ctx.getTimeService().wallClockTime());
-               int result = ps.executeUpdate();
-               if (trace) {
-                  log.tracef("Successfully purged %d rows.", result);
-               }
-            } catch (SQLException ex) {
-               log.failedClearingJdbcCacheStore(ex);
-               throw new PersistenceException("Failed clearing string based JDBC store", ex);
-            } finally {
-               JdbcUtil.safeClose(ps);
-               connectionFactory.releaseConnection(conn);
+            if (task != null && key2StringMapper instanceof TwoWayKey2StringMapper) {
+               purgeAndNotify(task);
+            } else {
+               purgeAll();
             }
             return null;
          }
@@ -332,6 +481,130 @@ public Void call() throws Exception {
       }
    }
 
+   private void purgeAll() {
+      Connection conn = null;
+      PreparedStatement ps = null;
+      try {
+         String sql = tableManager.getDeleteExpiredRowsSql();
+         conn = connectionFactory.getConnection();
+         ps = conn.prepareStatement(sql);
+         ps.setLong(1, ctx.getTimeService().wallClockTime());
+         int result = ps.executeUpdate();
+         if (trace) {
+            log.tracef("Successfully purged %d rows.", result);
+         }
+      } catch (SQLException ex) {
+         log.failedClearingJdbcCacheStore(ex);
+         throw new PersistenceException("Failed clearing string based JDBC store", ex);
+      } finally {
+         JdbcUtil.safeClose(ps);
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   private void purgeAndNotify(PurgeListener task) {
+      // Some drivers can't run other statements on the connection while streaming, so the rows are deleted using
+      // a second connection
+      Connection selectConn = null;
+      Connection deleteConn = null;
+      PreparedStatement selectPs = null;
+      PreparedStatement deletePs = null;
+      ResultSet rs = null;
+      boolean streaming = false;
+      try {
+         long now = ctx.getTimeService().wallClockTime();
+         String selectSql = tableManager.getSelectExpiredIdsSql();
+         String deleteSql = tableManager.getDeleteExpiredRowSql();
+         if (trace) {
+            log.tracef("Running sql '%s' and batched sql '%s'", selectSql, deleteSql);
+         }
+         selectConn = connectionFactory.getConnection();
+         streaming = beginStreaming(selectConn);
+         selectPs = selectConn.prepareStatement(selectSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+         selectPs.setLong(1, now);
+         selectPs.setFetchSize(tableManager.getFetchSize());
+         rs = selectPs.executeQuery();
+
+         deleteConn = connectionFactory.getConnection();
+         deletePs = deleteConn.prepareStatement(deleteSql);
+         TwoWayKey2StringMapper mapper = (TwoWayKey2StringMapper) key2StringMapper;
+         String[] batch = new String[tableManager.getBatchSize()];
+         int batched = 0;
+         int purged = 0;
+         while (rs.next()) {
+            String keyStr = rs.getString(1);
+            deletePs.setString(1, keyStr);
+            deletePs.setLong(2, now);
+            deletePs.addBatch();
+            batch[batched++] = keyStr;
+            if (batched == batch.length) {
+               purged += executePurgeBatch(deletePs, batch, batched, mapper, task);
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            purged += executePurgeBatch(deletePs, batch, batched, mapper, task);
+         }
+         if (trace) {
+            log.tracef("Successfully purged %d rows.", purged);
+         }
+      } catch (SQLException ex) {
+         log.failedClearingJdbcCacheStore(ex);
+         throw new PersistenceException("Failed clearing string based JDBC store", ex);
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(selectPs);
+         JdbcUtil.safeClose(deletePs);
+         if (streaming) {
+            endStreaming(selectConn);
+         }
+         connectionFactory.releaseConnection(selectConn);
+         connectionFactory.releaseConnection(deleteConn);
+      }
+   }
+
+   /**
+    * Notifies the listener of the rows that were deleted, skipping those updated since they were selected.
+    *
+    * @return the number of deleted rows
+    */
+   private int executePurgeBatch(PreparedStatement deletePs, String[] batch, int batched, TwoWayKey2StringMapper mapper,
+                                 PurgeListener task) throws SQLException {
+      int[] results = deletePs.executeBatch();
+      int purged = 0;
+      for (int i = 0; i < batched; i++) {
+         // Some drivers don't report the updated row counts
+         if (i >= results.length || results[i] != 0) {
+            task.entryPurged(mapper.getKeyMapping(batch[i]));
+            purged++;
+         }
+      }
+      return purged;
+   }
+
+   /**
+    * Disables auto-commit if the driver only streams the results inside a transaction.
+    *
+    * @return true if the auto-commit has to be restored by {@link #endStreaming(Connection)}
+    */
+   private boolean beginStreaming(Connection conn) throws SQLException {
+      if (tableManager.isStreamingInTransactionOnly() && conn.getAutoCommit()) {
+         conn.setAutoCommit(false);
+         return true;
+      }
+      return false;
+   }
+
+   private void endStreaming(Connection conn) {
+      try {
+         // The transaction only read the rows
+         conn.rollback();
+         conn.setAutoCommit(true);
+      } catch (SQLException e) {
+         log.debug("Failed to restore the auto-commit of the connection", e);
+      }
+   }
+
    @Override
    public boolean contains(Object key) {
       //we can do better if needed...
@@ -340,7 +613,17 @@ public boolean contains(Object key) {
 
 
    @Override
-   public void process(final KeyFilter filter, final CacheLoaderTask task, Executor executor, final boolean fetchValue, final boolean fetchMetadata) {
+   public void process(KeyFilter filter, CacheLoaderTask task, Executor executor, boolean fetchValue, boolean fetchMetadata) {
+      process(null, filter, task, executor, fetchValue, fetchMetadata);
+   }
+
+   /**
+    * Reads only the rows of the given segments, and the rows without a segment, if the table has a segment column.
+    * Otherwise all the rows are read, but the task only gets the entries of the given segments.
+    */
+   @Override
+   public void process(final Set segments, final KeyFilter filter, final CacheLoaderTask task, Executor executor,
+                       final boolean fetchValue, final boolean fetchMetadata) {
 
       ExecutorCompletionService<Void> ecs = new ExecutorCompletionService<Void>(executor);
       Future<Void> future = ecs.submit(new Callable<Void>() {
@@ -348,43 +631,56 @@ public void process(final KeyFilter filter, final CacheLoaderTask task, Executor
          public Void call() throws Exception {
             Connection conn = null;
             PreparedStatement ps = null;
-            ResultSet rs = null;
+            boolean streaming = false;
             try {
-               String sql = tableManager.getLoadNonExpiredAllRowsSql();
+               boolean bySegment = segments != null && segmentColumnValid;
+               // The segment of the rows that were not selected by segment must be checked here
+               KeyFilter segmentFilter = segments != null && keyPartitioner != null ?
+                     key -> segments.contains(keyPartitioner.getSegment(key)) && (filter == null || filter.accept(key)) :
+                     filter;
+               String sql = bySegment ? tableManager.getLoadNonExpiredRowsForSegmentSql() : tableManager.getLoadNonExpiredAllRowsSql();
                if (trace) {
                   log.tracef("Running sql %s", sql);
                }
                conn = connectionFactory.getConnection();
+               streaming = beginStreaming(conn);
                ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-               ps.setLong(1, ctx.getTimeService().wallClockTime());
                ps.setFetchSize(tableManager.getFetchSize());
-               rs = ps.executeQuery();
+               long now = ctx.getTimeService().wallClockTime();
 
                TaskContext taskContext = new TaskContextImpl();
-               while (rs.next()) {
-                  String keyStr = rs.getString(2);
-                  Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
-                  if (taskContext.isStopped()) break;
-                  if (filter != null && !filter.accept(key))
-                     continue;
-                  InputStream inputStream = rs.getBinaryStream(1);
-                  MarshalledEntry entry;
-                  if (fetchValue || fetchMetadata) {
-                     KeyValuePair<ByteBuffer, ByteBuffer> kvp = JdbcUtil.unmarshall(ctx.getMarshaller(), inputStream);
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
-                           key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
-                  } else {
-                     entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object)null, null);
+               if (bySegment) {
+                  for (Object segment : segments) {
+                     if (taskContext.isStopped()) break;
+                     ps.setInt(1, (Integer) segment);
+                     ps.setLong(2, now);
+                     processRows(ps, filter, task, taskContext, fetchValue, fetchMetadata);
+                  }
+                  JdbcUtil.safeClose(ps);
+                  ps = null;
+                  if (!taskContext.isStopped()) {
+                     sql = tableManager.getLoadNonExpiredRowsWithoutSegmentSql();
+                     if (trace) {
+                        log.tracef("Running sql %s", sql);
+                     }
+                     ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                     ps.setFetchSize(tableManager.getFetchSize());
+                     ps.setLong(1, now);
+                     processRows(ps, segmentFilter, task, taskContext, fetchValue, fetchMetadata);
                   }
-                  task.processEntry(entry, taskContext);
+               } else {
+                  ps.setLong(1, now);
+                  processRows(ps, segmentFilter, task, taskContext, fetchValue, fetchMetadata);
                }
                return null;
             } catch (SQLException e) {
                log.sqlFailureFetchingAllStoredEntries(e);
                throw new PersistenceException("SQL error while fetching all StoredEntries", e);
             } finally {
-               JdbcUtil.safeClose(rs);
                JdbcUtil.safeClose(ps);
+               if (streaming) {
+                  endStreaming(conn);
+               }
                connectionFactory.releaseConnection(conn);
             }
          }
@@ -399,6 +695,32 @@ public Void call() throws Exception {
       }
    }
 
+   private void processRows(PreparedStatement ps, KeyFilter filter, CacheLoaderTask task, TaskContext taskContext,
+                            boolean fetchValue, boolean fetchMetadata) throws SQLException, InterruptedException {
+      ResultSet rs = ps.executeQuery();
+      try {
+         while (rs.next()) {
+            String keyStr = rs.getString(2);
+            Object key = ((TwoWayKey2StringMapper) key2StringMapper).getKeyMapping(keyStr);
+            if (taskContext.isStopped()) break;
+            if (filter != null && !filter.accept(key))
+               continue;
+            InputStream inputStream = rs.getBinaryStream(1);
+            MarshalledEntry entry;
+            if (fetchValue || fetchMetadata) {
+               KeyValuePair<ByteBuffer, ByteBuffer> kvp = JdbcUtil.unmarshall(ctx.getMarshaller(), inputStream);
+               entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(
+                     key, fetchValue ? kvp.getKey() : null, fetchMetadata ? kvp.getValue() : null);
+            } else {
+               entry = ctx.getMarshalledEntryFactory().newMarshalledEntry(key, (Object)null, null);
+            }
+            task.processEntry(entry, taskContext);
+         }
+      } finally {
+         JdbcUtil.safeClose(rs);
+      }
+   }
+
    @Override
    public int size() {
       Connection conn = null;
@@ -428,6 +750,16 @@ private void prepareUpdateStatement(MarshalledEntry entry, String key, PreparedS
       ps.setString(3, key);
    }
 
+   /**
+    * Sets the parameters of the insert and upsert statements, which also set the segment column if there's one.
+    */
+   private void prepareInsertStatement(MarshalledEntry entry, String key, PreparedStatement ps) throws InterruptedException, SQLException {
+      prepareUpdateStatement(entry, key, ps);
+      if (keyPartitioner != null) {
+         ps.setInt(4, keyPartitioner.getSegment(entry.getKey()));
+      }
+   }
+
    private String key2Str(Object key) throws PersistenceException {
       if (!key2StringMapper.isSupportedType(key.getClass())) {
          throw new UnsupportedKeyTypeException(key);
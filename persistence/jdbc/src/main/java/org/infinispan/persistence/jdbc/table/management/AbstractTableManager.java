@@ -8,6 +8,7 @@
 
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
@@ -18,6 +19,9 @@
  */
 public abstract class AbstractTableManager implements TableManager {
 
+   private static final String META_TABLE_SUFFIX = "_META";
+   private static final String SEGMENTS_COLUMN = "SEGMENTS";
+
    private final Log log;
    protected final ConnectionFactory connectionFactory;
    protected final TableManipulationConfiguration config;
@@ -36,9 +40,13 @@ public abstract class AbstractTableManager implements TableManager {
    protected String loadAllRowsSql;
    protected String countRowsSql;
    protected String loadAllNonExpiredRowsSql;
+   protected String loadNonExpiredRowsForSegmentSql;
+   protected String loadNonExpiredRowsWithoutSegmentSql;
    protected String deleteAllRows;
    protected String selectExpiredRowsSql;
    protected String deleteExpiredRowsSql;
+   protected String selectExpiredIdsSql;
+   protected String deleteExpiredRowSql;
 
    AbstractTableManager(ConnectionFactory connectionFactory, TableManipulationConfiguration config, DbMetaData metaData, Log log) {
       this.connectionFactory = connectionFactory;
@@ -108,14 +116,31 @@ public void createTable(Connection conn) throws PersistenceException {
       if (cacheName == null || cacheName.trim().length() == 0)
          throw new PersistenceException("cacheName needed in order to create table");
 
-      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s, %6$s %7$s, PRIMARY KEY (%2$s))",
+      String segmentColumn = hasSegmentColumn() ?
+            String.format(", %s %s", config.segmentColumnName(), config.segmentColumnType()) : "";
+      String ddl = String.format("CREATE TABLE %1$s (%2$s %3$s NOT NULL, %4$s %5$s, %6$s %7$s%8$s, PRIMARY KEY (%2$s))",
                                  getTableName(), config.idColumnName(), config.idColumnType(), config.dataColumnName(),
-                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType());
+                                 config.dataColumnType(), config.timestampColumnName(), config.timestampColumnType(),
+                                 segmentColumn);
 
       if (log.isTraceEnabled()) {
          log.tracef("Creating table with following DDL: '%s'.", ddl);
       }
       executeUpdateSql(conn, ddl);
+
+      if (hasSegmentColumn()) {
+         String indexDdl = String.format("CREATE INDEX %s ON %s (%s)", getSegmentIndexName(), getTableName(),
+                                         config.segmentColumnName());
+         if (log.isTraceEnabled()) {
+            log.tracef("Creating segment index with following DDL: '%s'.", indexDdl);
+         }
+         executeUpdateSql(conn, indexDdl);
+      }
+   }
+
+   protected String getSegmentIndexName() {
+      return identifierQuoteString + getTableName().getName() + "_" + config.segmentColumnName() + "_idx" +
+            identifierQuoteString;
    }
 
    public void executeUpdateSql(Connection conn, String sql) throws PersistenceException {
@@ -139,6 +164,96 @@ public void dropTable(Connection conn) throws PersistenceException {
          log.tracef("Dropping table with following DDL '%s'", dropTableDdl);
       }
       executeUpdateSql(conn, dropTableDdl);
+      if (hasSegmentColumn() && tableExists(conn, getMetaTableName())) {
+         executeUpdateSql(conn, "DROP TABLE " + getMetaTableName());
+      }
+   }
+
+   @Override
+   public boolean initSegmentColumn(int numSegments) throws PersistenceException {
+      Connection conn = null;
+      try {
+         conn = connectionFactory.getConnection();
+         TableName metaTableName = getMetaTableName();
+         if (config.createOnStart()) {
+            if (!segmentColumnExists(conn)) {
+               // The table was created before the segment column was configured, so all its rows have no segment
+               executeUpdateSql(conn, String.format("ALTER TABLE %s ADD %s %s", getTableName(),
+                                                    config.segmentColumnName(), config.segmentColumnType()));
+               executeUpdateSql(conn, String.format("CREATE INDEX %s ON %s (%s)", getSegmentIndexName(),
+                                                    getTableName(), config.segmentColumnName()));
+            }
+            if (!tableExists(conn, metaTableName)) {
+               executeUpdateSql(conn, String.format("CREATE TABLE %s (%s %s NOT NULL)", metaTableName,
+                                                    SEGMENTS_COLUMN, config.segmentColumnType()));
+            }
+         } else if (!tableExists(conn, metaTableName)) {
+            log.debugf("Table %s does not exist, the segments of table %s are not used", metaTableName,
+                       getTableName());
+            return false;
+         }
+
+         Integer storedNumSegments = readNumSegments(conn, metaTableName);
+         if (storedNumSegments == null || storedNumSegments != numSegments) {
+            // The stored segments were computed with a different number of segments, or the number is not known
+            log.debugf("Resetting the segments of table %s, computed with %s segments instead of %d", getTableName(),
+                       storedNumSegments, numSegments);
+            executeUpdateSql(conn, String.format("UPDATE %s SET %s = NULL", getTableName(),
+                                                 config.segmentColumnName()));
+            String sql = storedNumSegments == null ? String.format("INSERT INTO %s (%s) VALUES (?)", metaTableName,
+                                                                   SEGMENTS_COLUMN)
+                                                   : String.format("UPDATE %s SET %s = ?", metaTableName,
+                                                                   SEGMENTS_COLUMN);
+            PreparedStatement ps = conn.prepareStatement(sql);
+            try {
+               ps.setInt(1, numSegments);
+               ps.executeUpdate();
+            } finally {
+               JdbcUtil.safeClose(ps);
+            }
+         }
+         return true;
+      } catch (SQLException e) {
+         throw new PersistenceException("Failed to initialize the segment column of table " + getTableName(), e);
+      } finally {
+         connectionFactory.releaseConnection(conn);
+      }
+   }
+
+   private boolean segmentColumnExists(Connection conn) throws SQLException {
+      ResultSet rs = null;
+      try {
+         TableName tableName = getTableName();
+         DatabaseMetaData metaData = conn.getMetaData();
+         rs = metaData.getColumns(null, tableName.getSchema(), tableName.getName(), null);
+         while (rs.next()) {
+            if (config.segmentColumnName().equalsIgnoreCase(rs.getString("COLUMN_NAME")))
+               return true;
+         }
+         return false;
+      } finally {
+         JdbcUtil.safeClose(rs);
+      }
+   }
+
+   private Integer readNumSegments(Connection conn, TableName metaTableName) throws SQLException {
+      Statement statement = null;
+      ResultSet rs = null;
+      try {
+         statement = conn.createStatement();
+         rs = statement.executeQuery(String.format("SELECT %s FROM %s", SEGMENTS_COLUMN, metaTableName));
+         return rs.next() ? rs.getInt(1) : null;
+      } finally {
+         JdbcUtil.safeClose(rs);
+         JdbcUtil.safeClose(statement);
+      }
+   }
+
+   /**
+    * @return the table that stores the number of segments used to compute the values of the segment column
+    */
+   protected TableName getMetaTableName() {
+      return new TableName(identifierQuoteString, config.tableNamePrefix(), cacheName + META_TABLE_SUFFIX);
    }
 
    public int getFetchSize() {
@@ -154,6 +269,16 @@ public boolean isUpsertSupported() {
       return !metaData.isUpsertDisabled();
    }
 
+   @Override
+   public boolean hasSegmentColumn() {
+      return config.segmentColumnName() != null;
+   }
+
+   @Override
+   public boolean isStreamingInTransactionOnly() {
+      return false;
+   }
+
    public String getIdentifierQuoteString() {
       return identifierQuoteString;
    }
@@ -165,11 +290,36 @@ public TableName getTableName() {
       return tableName;
    }
 
+   /**
+    * @return the columns set by the insert and upsert statements, in the order of their parameters
+    */
+   protected String getInsertColumns() {
+      return getInsertColumns("");
+   }
+
+   /**
+    * @return the columns set by the insert and upsert statements, each prefixed with the given qualifier
+    */
+   protected String getInsertColumns(String qualifier) {
+      StringBuilder columns = new StringBuilder()
+            .append(qualifier).append(config.dataColumnName()).append(", ")
+            .append(qualifier).append(config.timestampColumnName()).append(", ")
+            .append(qualifier).append(config.idColumnName());
+      if (hasSegmentColumn()) {
+         columns.append(", ").append(qualifier).append(config.segmentColumnName());
+      }
+      return columns.toString();
+   }
+
+   protected String getInsertParameters() {
+      return hasSegmentColumn() ? "?, ?, ?, ?" : "?, ?, ?";
+   }
+
    @Override
    public String getInsertRowSql() {
       if (insertRowSql == null) {
-         insertRowSql = String.format("INSERT INTO %s (%s,%s,%s) VALUES (?,?,?)", getTableName(),
-                                      config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+         insertRowSql = String.format("INSERT INTO %s (%s) VALUES (%s)", getTableName(), getInsertColumns(),
+                                      getInsertParameters());
       }
       return insertRowSql;
    }
@@ -226,6 +376,28 @@ public String getLoadNonExpiredAllRowsSql() {
       return loadAllNonExpiredRowsSql;
    }
 
+   @Override
+   public String getLoadNonExpiredRowsForSegmentSql() {
+      if (loadNonExpiredRowsForSegmentSql == null) {
+         loadNonExpiredRowsForSegmentSql = String.format("SELECT %1$s, %2$s, %3$s FROM %4$s WHERE %5$s = ? AND (%3$s > ? OR %3$s < 0)",
+                                                         config.dataColumnName(), config.idColumnName(),
+                                                         config.timestampColumnName(), getTableName(),
+                                                         config.segmentColumnName());
+      }
+      return loadNonExpiredRowsForSegmentSql;
+   }
+
+   @Override
+   public String getLoadNonExpiredRowsWithoutSegmentSql() {
+      if (loadNonExpiredRowsWithoutSegmentSql == null) {
+         loadNonExpiredRowsWithoutSegmentSql = String.format("SELECT %1$s, %2$s, %3$s FROM %4$s WHERE %5$s IS NULL AND (%3$s > ? OR %3$s < 0)",
+                                                             config.dataColumnName(), config.idColumnName(),
+                                                             config.timestampColumnName(), getTableName(),
+                                                             config.segmentColumnName());
+      }
+      return loadNonExpiredRowsWithoutSegmentSql;
+   }
+
    @Override
    public String getLoadAllRowsSql() {
       if (loadAllRowsSql == null) {
@@ -259,15 +431,35 @@ public String getDeleteExpiredRowsSql() {
       return deleteExpiredRowsSql;
    }
 
+   @Override
+   public String getSelectExpiredIdsSql() {
+      if (selectExpiredIdsSql == null) {
+         selectExpiredIdsSql = String.format("SELECT %1$s FROM %2$s WHERE %3$s < ? AND %3$s > 0", config.idColumnName(),
+                                             getTableName(), config.timestampColumnName());
+      }
+      return selectExpiredIdsSql;
+   }
+
+   @Override
+   public String getDeleteExpiredRowSql() {
+      if (deleteExpiredRowSql == null) {
+         // Does not delete the row if it was updated since it was selected
+         deleteExpiredRowSql = String.format("DELETE FROM %1$s WHERE %2$s = ? AND %3$s < ? AND %3$s > 0", getTableName(),
+                                             config.idColumnName(), config.timestampColumnName());
+      }
+      return deleteExpiredRowSql;
+   }
+
    @Override
    public String getUpsertRowSql() {
       if (upsertRowSql == null) {
          upsertRowSql = String.format("MERGE INTO %1$s " +
-                              "USING (VALUES (?, ?, ?)) AS tmp (%2$s, %3$s, %4$s) " +
-                              "ON (%2$s = tmp.%2$s) " +
-                              "WHEN MATCHED THEN UPDATE SET %3$s = tmp.%3$s, %4$s = tmp.%4$s " +
-                              "WHEN NOT MATCHED THEN INSERT (%2$s, %3$s, %4$s) VALUES (tmp.%2$s, tmp.%3$s, tmp.%4$s)",
-                              getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName());
+                              "USING (VALUES (%5$s)) AS tmp (%6$s) " +
+                              "ON (%1$s.%4$s = tmp.%4$s) " +
+                              "WHEN MATCHED THEN UPDATE SET %2$s = tmp.%2$s, %3$s = tmp.%3$s " +
+                              "WHEN NOT MATCHED THEN INSERT (%6$s) VALUES (%7$s)",
+                              getTableName(), config.dataColumnName(), config.timestampColumnName(), config.idColumnName(),
+                              getInsertParameters(), getInsertColumns(), getInsertColumns("tmp."));
 
       }
       return upsertRowSql;
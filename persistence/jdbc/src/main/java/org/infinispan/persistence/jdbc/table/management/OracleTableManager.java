@@ -41,4 +41,25 @@ public boolean tableExists(Connection connection, TableName tableName) throws Pe
          JdbcUtil.safeClose(rs);
       }
    }
+
+   @Override
+   public String getUpsertRowSql() {
+      if (upsertRowSql == null) {
+         StringBuilder source = new StringBuilder()
+               .append("? ").append(config.dataColumnName())
+               .append(", ? ").append(config.timestampColumnName())
+               .append(", ? ").append(config.idColumnName());
+         if (hasSegmentColumn()) {
+            source.append(", ? ").append(config.segmentColumnName());
+         }
+         upsertRowSql = String.format("MERGE INTO %1$s tgt " +
+                                      "USING (SELECT %5$s FROM DUAL) tmp " +
+                                      "ON (tgt.%4$s = tmp.%4$s) " +
+                                      "WHEN MATCHED THEN UPDATE SET tgt.%2$s = tmp.%2$s, tgt.%3$s = tmp.%3$s " +
+                                      "WHEN NOT MATCHED THEN INSERT (%6$s) VALUES (%7$s)",
+                                      getTableName(), config.dataColumnName(), config.timestampColumnName(),
+                                      config.idColumnName(), source, getInsertColumns(), getInsertColumns("tmp."));
+      }
+      return upsertRowSql;
+   }
 }
\ No newline at end of file
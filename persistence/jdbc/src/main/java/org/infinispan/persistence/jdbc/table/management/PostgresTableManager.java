@@ -55,6 +55,22 @@ public String getDeleteRowSql() {
       return deleteRowSql;
    }
 
+   @Override
+   public String getDeleteExpiredRowSql() {
+      if (deleteExpiredRowSql == null) {
+         deleteExpiredRowSql = String.format("DELETE FROM %1$s WHERE %2$s = cast(? as %3$s) AND %4$s < ? AND %4$s > 0",
+                                             getTableName(), config.idColumnName(), config.idColumnType(),
+                                             config.timestampColumnName());
+      }
+      return deleteExpiredRowSql;
+   }
+
+   @Override
+   public boolean isStreamingInTransactionOnly() {
+      // The driver only uses a cursor for the fetch size when auto-commit is disabled
+      return true;
+   }
+
    @Override
    public boolean isUpsertSupported() {
       // ON CONFLICT added in Postgres 9.5
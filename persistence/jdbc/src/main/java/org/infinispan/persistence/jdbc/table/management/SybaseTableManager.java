@@ -52,4 +52,14 @@ public String getDeleteRowSql() {
       }
       return deleteRowSql;
    }
+
+   @Override
+   public String getDeleteExpiredRowSql() {
+      if (deleteExpiredRowSql == null) {
+         deleteExpiredRowSql = String.format("DELETE FROM %1$s WHERE %2$s = convert(%3$s,?) AND %4$s < ? AND %4$s > 0",
+                                             getTableName(), config.idColumnName(), config.idColumnType(),
+                                             config.timestampColumnName());
+      }
+      return deleteExpiredRowSql;
+   }
 }
\ No newline at end of file
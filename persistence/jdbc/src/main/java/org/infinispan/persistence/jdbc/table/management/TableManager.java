@@ -31,6 +31,29 @@ public interface TableManager {
 
    boolean isUpsertSupported();
 
+   /**
+    * @return true if the table stores the segment of each entry, set as the last parameter of the insert and upsert
+    * statements
+    */
+   boolean hasSegmentColumn();
+
+   /**
+    * Makes sure that the values of the segment column were computed with {@code numSegments} segments, and records
+    * the number of segments in a metadata table. The segments of all the rows are reset to NULL if they were computed
+    * with a different number of segments, or if the number is not known. If the table was created without the segment
+    * column, the column is added, and the existing rows have no segment.
+    *
+    * @return false if the segment column can't be used, because the metadata table does not exist and the tables are
+    * not created on start
+    */
+   boolean initSegmentColumn(int numSegments) throws PersistenceException;
+
+   /**
+    * @return true if the driver only streams the results with the fetch size inside a transaction, i.e. when auto-commit
+    * is disabled, and reads the whole result otherwise
+    */
+   boolean isStreamingInTransactionOnly();
+
    TableName getTableName();
 
    String getIdentifierQuoteString();
@@ -51,6 +74,14 @@ public interface TableManager {
 
    String getLoadNonExpiredAllRowsSql();
 
+   String getLoadNonExpiredRowsForSegmentSql();
+
+   /**
+    * @return the query for the rows whose segment is not known, because they were written before the segment column
+    * was added or before the number of segments changed
+    */
+   String getLoadNonExpiredRowsWithoutSegmentSql();
+
    String getLoadAllRowsSql();
 
    String getDeleteAllRowsSql();
@@ -58,4 +89,8 @@ public interface TableManager {
    String getSelectExpiredRowsSql();
 
    String getDeleteExpiredRowsSql();
+
+   String getSelectExpiredIdsSql();
+
+   String getDeleteExpiredRowSql();
 }
\ No newline at end of file
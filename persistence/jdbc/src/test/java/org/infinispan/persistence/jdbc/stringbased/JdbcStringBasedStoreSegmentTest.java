@@ -0,0 +1,155 @@
+package org.infinispan.persistence.jdbc.stringbased;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.infinispan.configuration.cache.Configuration;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.distribution.ch.KeyPartitioner;
+import org.infinispan.distribution.ch.impl.HashFunctionPartitioner;
+import org.infinispan.persistence.jdbc.configuration.JdbcStringBasedStoreConfigurationBuilder;
+import org.infinispan.persistence.spi.AdvancedLoadWriteStore;
+import org.infinispan.persistence.spi.InitializationContext;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.infinispan.test.fwk.UnitTestDatabaseManager;
+import org.infinispan.util.concurrent.WithinThreadExecutor;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the {@link JdbcStringBasedStore} tests with a segment column, and checks that only the rows of the requested
+ * segments are processed.
+ *
+ * @since 9.0
+ */
+@Test(groups = "functional", testName = "persistence.jdbc.stringbased.JdbcStringBasedStoreSegmentTest")
+public class JdbcStringBasedStoreSegmentTest extends JdbcStringBasedStoreTest {
+
+   private static final int NUM_KEYS = 50;
+
+   private KeyPartitioner keyPartitioner;
+
+   @Override
+   protected AdvancedLoadWriteStore createStore() throws Exception {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
+      UnitTestDatabaseManager.configureUniqueConnectionFactory(storeBuilder);
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      storeBuilder.table().segmentColumnName("SEGMENT_COLUMN").segmentColumnType("INT");
+      Configuration configuration = builder.build();
+
+      keyPartitioner = new HashFunctionPartitioner();
+      keyPartitioner.init(configuration.clustering().hash());
+      InitializationContext ctx = createContext(configuration);
+      ctx.getCache().getAdvancedCache().getComponentRegistry().registerComponent(keyPartitioner, KeyPartitioner.class);
+      JdbcStringBasedStore stringBasedCacheStore = new JdbcStringBasedStore();
+      stringBasedCacheStore.init(ctx);
+      return stringBasedCacheStore;
+   }
+
+   public void testProcessSegments() throws Exception {
+      Set<Integer> segments = new HashSet<>();
+      Set<Object> expectedKeys = new HashSet<>();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         cl.write(marshalledEntry(internalCacheEntry(key, "v" + i, -1)));
+         if (i % 5 == 0) {
+            segments.add(keyPartitioner.getSegment(key));
+         }
+      }
+      for (int i = 0; i < NUM_KEYS; i++) {
+         String key = "k" + i;
+         if (segments.contains(keyPartitioner.getSegment(key))) {
+            expectedKeys.add(key);
+         }
+      }
+      // the updates keep the segment of the rows
+      for (int i = 0; i < NUM_KEYS; i += 2) {
+         cl.write(marshalledEntry(internalCacheEntry("k" + i, "updated" + i, -1)));
+      }
+
+      assertProcessedKeys((JdbcStringBasedStore) cl, segments, expectedKeys);
+   }
+
+   public void testProcessRowsWithoutSegment() throws Exception {
+      String connectionUrl = String.format("jdbc:h2:mem:%s_%d;DB_CLOSE_DELAY=-1", getClass().getSimpleName(),
+                                           System.nanoTime());
+      // The rows are written before the segment column is configured
+      JdbcStringBasedStore store = startStore(connectionUrl, false, 60);
+      for (int i = 0; i < NUM_KEYS; i++) {
+         store.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      store.stop();
+
+      store = startStore(connectionUrl, true, 60);
+      try {
+         store.write(marshalledEntry(internalCacheEntry("new", "v", -1)));
+         checkProcessSegments(store, keyPartitioner);
+      } finally {
+         store.stop();
+      }
+
+      // The segments stored with 60 segments are ignored
+      store = startStore(connectionUrl, true, 30);
+      try {
+         checkProcessSegments(store, keyPartitioner);
+      } finally {
+         store.stop();
+      }
+   }
+
+   private void checkProcessSegments(JdbcStringBasedStore store, KeyPartitioner keyPartitioner) {
+      Set<Integer> segments = new HashSet<>();
+      for (int i = 0; i < NUM_KEYS; i += 5) {
+         segments.add(keyPartitioner.getSegment("k" + i));
+      }
+      segments.add(keyPartitioner.getSegment("new"));
+      Set<Object> expectedKeys = new HashSet<>();
+      for (int i = 0; i < NUM_KEYS; i++) {
+         if (segments.contains(keyPartitioner.getSegment("k" + i))) {
+            expectedKeys.add("k" + i);
+         }
+      }
+      expectedKeys.add("new");
+      assertProcessedKeys(store, segments, expectedKeys);
+   }
+
+   private JdbcStringBasedStore startStore(String connectionUrl, boolean segmentColumn, int numSegments) {
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.clustering().hash().numSegments(numSegments);
+      JdbcStringBasedStoreConfigurationBuilder storeBuilder = builder
+            .persistence()
+               .addStore(JdbcStringBasedStoreConfigurationBuilder.class);
+      storeBuilder.connectionPool()
+            .driverClass(org.h2.Driver.class)
+            .connectionUrl(connectionUrl)
+            .username("sa");
+      UnitTestDatabaseManager.buildTableManipulation(storeBuilder.table(), false);
+      if (segmentColumn) {
+         storeBuilder.table().segmentColumnName("SEGMENT_COLUMN").segmentColumnType("INT");
+      }
+      Configuration configuration = builder.build();
+
+      keyPartitioner = new HashFunctionPartitioner();
+      keyPartitioner.init(configuration.clustering().hash());
+      InitializationContext ctx = createContext(configuration);
+      ctx.getCache().getAdvancedCache().getComponentRegistry().registerComponent(keyPartitioner, KeyPartitioner.class);
+      JdbcStringBasedStore store = new JdbcStringBasedStore();
+      store.init(ctx);
+      store.start();
+      return store;
+   }
+
+   private void assertProcessedKeys(JdbcStringBasedStore store, Set<Integer> segments, Set<Object> expectedKeys) {
+      Set<Object> keys = Collections.synchronizedSet(new HashSet<>());
+      store.process(segments, null, (me, taskContext) -> keys.add(me.getKey()), new WithinThreadExecutor(), false,
+                    false);
+      assertFalse(keys.isEmpty());
+      assertEquals(expectedKeys, keys);
+   }
+}
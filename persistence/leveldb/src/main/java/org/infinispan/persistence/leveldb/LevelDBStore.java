@@ -34,6 +34,7 @@
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
 import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.WriteBatch;
 
 @ConfiguredBy(LevelDBStoreConfiguration.class)
 public class LevelDBStore implements AdvancedLoadWriteStore {
@@ -403,6 +404,68 @@ public void write(MarshalledEntry me)  {
       }
    }
 
+   /**
+    * Applies all the writes atomically, using a single LevelDB {@link WriteBatch}.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      try {
+         List<MarshalledEntry> expiring = new ArrayList<>();
+         semaphore.acquire();
+         try {
+            if (stopped) {
+               throw new PersistenceException("LevelDB is stopped");
+            }
+            WriteBatch batch = db.createWriteBatch();
+            try {
+               for (Object o : entries) {
+                  MarshalledEntry me = (MarshalledEntry) o;
+                  batch.put(marshall(me.getKey()), marshall(me));
+                  InternalMetadata meta = me.getMetadata();
+                  if (meta != null && meta.expiryTime() > -1) {
+                     expiring.add(me);
+                  }
+               }
+               db.write(batch);
+            } finally {
+               batch.close();
+            }
+         } finally {
+            semaphore.release();
+         }
+         for (MarshalledEntry me : expiring) {
+            addNewExpiry(me);
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         semaphore.acquire();
+         try {
+            if (stopped) {
+               throw new PersistenceException("LevelDB is stopped");
+            }
+            WriteBatch batch = db.createWriteBatch();
+            try {
+               for (Object key : keys) {
+                  batch.delete(marshall(key));
+               }
+               db.write(batch);
+            } finally {
+               batch.close();
+            }
+         } finally {
+            semaphore.release();
+         }
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
    @Override
    public MarshalledEntry load(Object key)  {
       try {
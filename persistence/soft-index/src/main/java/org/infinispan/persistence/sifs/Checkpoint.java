@@ -0,0 +1,194 @@
+package org.infinispan.persistence.sifs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Consistent snapshot of the index, persisted in the index directory. It contains the position of the root node and
+ * the free blocks of each index segment, and the size of each data file the snapshot covers - after a crash, the index
+ * is loaded from the snapshot and only the records appended to the data files after these sizes are replayed.
+ * <p>
+ * The nodes of the snapshot are never overwritten in place and the index space they occupy is not reused until the
+ * next checkpoint is persisted, neither are the compacted data files deleted.
+ *
+ * @since 9.0
+ */
+class Checkpoint {
+   private static final Log log = LogFactory.getLog(Checkpoint.class);
+   private static final int MAGIC = 0xC4EC4907;
+   static final String FILE_NAME = "checkpoint";
+
+   final long seqId;
+   final Segment[] segments;
+   final Map<Integer, Long> fileSizes;
+
+   Checkpoint(long seqId, Segment[] segments, Map<Integer, Long> fileSizes) {
+      this.seqId = seqId;
+      this.segments = segments;
+      this.fileSizes = fileSizes;
+   }
+
+   /**
+    * Writes the checkpoint to a temporary file, which is synced and atomically renamed.
+    */
+   void write(String indexDir) throws IOException {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeInt(MAGIC);
+      out.writeLong(seqId);
+      out.writeInt(segments.length);
+      for (Segment segment : segments) {
+         out.writeLong(segment.rootOffset);
+         out.writeShort(segment.rootOccupied);
+         out.writeLong(segment.indexFileSize);
+         out.writeLong(segment.size);
+         out.writeInt(segment.freeBlocks.size());
+         for (Map.Entry<Integer, List<Index.IndexSpace>> entry : segment.freeBlocks.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue().size());
+            for (Index.IndexSpace space : entry.getValue()) {
+               out.writeLong(space.offset);
+               out.writeShort(space.length);
+            }
+         }
+      }
+      out.writeInt(fileSizes.size());
+      for (Map.Entry<Integer, Long> entry : fileSizes.entrySet()) {
+         out.writeInt(entry.getKey());
+         out.writeLong(entry.getValue());
+      }
+      CRC32 crc = new CRC32();
+      crc.update(bytes.toByteArray());
+      out.writeLong(crc.getValue());
+      out.flush();
+
+      File tmp = new File(indexDir, FILE_NAME + ".tmp");
+      try (FileOutputStream stream = new FileOutputStream(tmp)) {
+         bytes.writeTo(stream);
+         stream.getChannel().force(true);
+      }
+      Files.move(tmp.toPath(), new File(indexDir, FILE_NAME).toPath(), StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+   }
+
+   /**
+    * @return The last checkpoint persisted in the directory, or null if there's none or it's not readable.
+    */
+   static Checkpoint read(String indexDir) {
+      File file = new File(indexDir, FILE_NAME);
+      if (!file.exists()) {
+         return null;
+      }
+      try {
+         byte[] bytes = Files.readAllBytes(file.toPath());
+         if (bytes.length < 12) {
+            throw new IOException("Truncated checkpoint");
+         }
+         CRC32 crc = new CRC32();
+         crc.update(bytes, 0, bytes.length - 8);
+         if (ByteBuffer.wrap(bytes).getLong(bytes.length - 8) != crc.getValue()) {
+            throw new IOException("Checkpoint checksum does not match");
+         }
+         DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+         if (in.readInt() != MAGIC) {
+            throw new IOException("Invalid checkpoint header");
+         }
+         long seqId = in.readLong();
+         Segment[] segments = new Segment[in.readInt()];
+         for (int i = 0; i < segments.length; ++i) {
+            long rootOffset = in.readLong();
+            short rootOccupied = in.readShort();
+            long indexFileSize = in.readLong();
+            long size = in.readLong();
+            TreeMap<Integer, List<Index.IndexSpace>> freeBlocks = new TreeMap<>();
+            int numLists = in.readInt();
+            for (int j = 0; j < numLists; ++j) {
+               int blockLength = in.readInt();
+               int listSize = in.readInt();
+               List<Index.IndexSpace> list = new ArrayList<>(listSize);
+               for (int k = 0; k < listSize; ++k) {
+                  list.add(new Index.IndexSpace(in.readLong(), in.readShort()));
+               }
+               freeBlocks.put(blockLength, list);
+            }
+            segments[i] = new Segment(rootOffset, rootOccupied, indexFileSize, size, freeBlocks);
+         }
+         int numFiles = in.readInt();
+         Map<Integer, Long> fileSizes = new HashMap<>();
+         for (int i = 0; i < numFiles; ++i) {
+            fileSizes.put(in.readInt(), in.readLong());
+         }
+         return new Checkpoint(seqId, segments, fileSizes);
+      } catch (IOException e) {
+         log.warn("Cannot read index checkpoint from " + file + ", the index will be rebuilt", e);
+         return null;
+      }
+   }
+
+   static void delete(String indexDir) {
+      File file = new File(indexDir, FILE_NAME);
+      if (file.exists() && !file.delete()) {
+         log.warn("Cannot delete index checkpoint " + file);
+      }
+   }
+
+   /**
+    * State of single index segment in the checkpoint.
+    */
+   static class Segment {
+      final long rootOffset;
+      final short rootOccupied;
+      final long indexFileSize;
+      final long size;
+      final TreeMap<Integer, List<Index.IndexSpace>> freeBlocks;
+
+      Segment(long rootOffset, short rootOccupied, long indexFileSize, long size, TreeMap<Integer, List<Index.IndexSpace>> freeBlocks) {
+         this.rootOffset = rootOffset;
+         this.rootOccupied = rootOccupied;
+         this.indexFileSize = indexFileSize;
+         this.size = size;
+         this.freeBlocks = freeBlocks;
+      }
+   }
+
+   /**
+    * The state a segment has captured for the checkpoint. The index space freed before the capture is released by the
+    * segment only after the checkpoint is persisted, as the previous checkpoint may still reference it.
+    */
+   static class Pending {
+      final Segment state;
+      private volatile Boolean persisted;
+
+      Pending(Segment state) {
+         this.state = state;
+      }
+
+      void complete(boolean persisted) {
+         this.persisted = persisted;
+      }
+
+      /**
+       * @return Null if the checkpoint was neither persisted nor abandoned yet.
+       */
+      Boolean isPersisted() {
+         return persisted;
+      }
+   }
+}
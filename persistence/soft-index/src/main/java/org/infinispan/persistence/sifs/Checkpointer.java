@@ -0,0 +1,61 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.TimeUnit;
+
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Periodically persists the index {@link Checkpoint}.
+ *
+ * @since 9.0
+ */
+class Checkpointer extends Thread {
+   private static final Log log = LogFactory.getLog(Checkpointer.class);
+
+   private final SoftIndexFileStore store;
+   private final long intervalNanos;
+   private boolean stopped;
+
+   public Checkpointer(SoftIndexFileStore store, long interval) {
+      super("BCS-Checkpointer");
+      this.setDaemon(true);
+      this.store = store;
+      this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(interval);
+      start();
+   }
+
+   @Override
+   public void run() {
+      try {
+         while (awaitNextCheckpoint()) {
+            try {
+               store.checkpoint();
+            } catch (InterruptedException e) {
+               throw e;
+            } catch (Exception e) {
+               log.error("Cannot persist index checkpoint", e);
+            }
+         }
+      } catch (InterruptedException e) {
+         log.debug("Checkpointer was interrupted");
+      }
+   }
+
+   private synchronized boolean awaitNextCheckpoint() throws InterruptedException {
+      long deadline = System.nanoTime() + intervalNanos;
+      long now;
+      while (!stopped && (now = System.nanoTime()) < deadline) {
+         TimeUnit.NANOSECONDS.timedWait(this, deadline - now);
+      }
+      return !stopped;
+   }
+
+   public void stopOperations() throws InterruptedException {
+      synchronized (this) {
+         stopped = true;
+         notifyAll();
+      }
+      this.join();
+   }
+}
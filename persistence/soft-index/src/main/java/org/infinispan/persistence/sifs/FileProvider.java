@@ -8,6 +8,7 @@
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
@@ -188,6 +189,32 @@ public Iterator<Integer> getFileIterator() {
       return set.iterator();
    }
 
+   /**
+    * @return The current size of all data files.
+    */
+   public Map<Integer, Long> getFileSizes() {
+      Map<Integer, Long> sizes = new HashMap<Integer, Long>();
+      for (String file : dataDir.list()) {
+         if (file.matches("[0-9]*")) {
+            sizes.put(Integer.parseInt(file), new File(dataDir, file).length());
+         }
+      }
+      return sizes;
+   }
+
+   /**
+    * Forces all data written to the file to the storage device.
+    */
+   public void force(int fileId) throws IOException {
+      File file = new File(dataDir, String.valueOf(fileId));
+      if (!file.exists()) {
+         return;
+      }
+      try (FileChannel channel = new RandomAccessFile(file, "rw").getChannel()) {
+         channel.force(false);
+      }
+   }
+
    public void clear() throws IOException {
       lock.writeLock().lock();
       log.debug("Dropping all data");
@@ -0,0 +1,82 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative values with power-of-two buckets: bucket 0 counts zeros and bucket {@code i} counts the
+ * values between 2<sup>i-1</sup> and 2<sup>i</sup>-1. It is written by a single thread, and can be read by any
+ * thread.
+ *
+ * @since 9.0
+ */
+public class Histogram {
+   private static final int BUCKETS = 64;
+
+   private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+   private volatile long count;
+   private volatile long sum;
+   private volatile long max;
+
+   /**
+    * Must be called only from a single thread.
+    */
+   void record(long value) {
+      int bucket = BUCKETS - Long.numberOfLeadingZeros(Math.max(value, 0));
+      counts.lazySet(bucket, counts.get(bucket) + 1);
+      sum += value;
+      if (value > max) {
+         max = value;
+      }
+      count++;
+   }
+
+   public long getCount() {
+      return count;
+   }
+
+   public long getMax() {
+      return max;
+   }
+
+   public double getMean() {
+      long count = this.count;
+      return count == 0 ? 0 : (double) sum / count;
+   }
+
+   /**
+    * @return The upper bound of the bucket holding the given percentile (between 0 and 100) of the values.
+    */
+   public long getPercentile(double percentile) {
+      long[] buckets = getBuckets();
+      long total = 0;
+      for (long c : buckets) {
+         total += c;
+      }
+      long rank = (long) Math.ceil(total * percentile / 100);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+         seen += buckets[i];
+         if (seen >= rank && seen > 0) {
+            return i == 0 ? 0 : Math.min((1L << i) - 1, max);
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * @return The number of values in each bucket.
+    */
+   public long[] getBuckets() {
+      long[] buckets = new long[BUCKETS];
+      for (int i = 0; i < BUCKETS; i++) {
+         buckets[i] = counts.get(i);
+      }
+      return buckets;
+   }
+
+   @Override
+   public String toString() {
+      return String.format("count=%d, mean=%.1f, p50=%d, p99=%d, max=%d", count, getMean(), getPercentile(50),
+            getPercentile(99), max);
+   }
+}
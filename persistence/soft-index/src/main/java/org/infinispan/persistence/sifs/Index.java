@@ -44,10 +44,18 @@ class Index {
    private final Segment[] segments;
    private final TimeService timeService;
    private final Equivalence<Object> keyEquivalence;
+   private final boolean checkpointing;
+   // files compacted since the last checkpoint, deleted when the next checkpoint is persisted
+   private final List<Integer> deferredDeletes = new ArrayList<>();
 
+   /**
+    * @param checkpoint The checkpoint the segments that were not shut down gracefully are loaded from, or null.
+    * @param checkpointing If true, the index keeps the last checkpoint intact until the next one is persisted.
+    */
    public Index(FileProvider fileProvider, String indexDir, int segments, int minNodeSize, int maxNodeSize,
                 IndexQueue indexQueue, TemporaryTable temporaryTable, Compactor compactor,
-                TimeService timeService, Equivalence<Object> keyEquivalence) throws IOException {
+                TimeService timeService, Equivalence<Object> keyEquivalence,
+                Checkpoint checkpoint, boolean checkpointing) throws IOException {
       this.fileProvider = fileProvider;
       this.compactor = compactor;
       this.timeService = timeService;
@@ -55,11 +63,13 @@ public Index(FileProvider fileProvider, String indexDir, int segments, int minNo
       this.indexDir = indexDir;
       this.minNodeSize = minNodeSize;
       this.maxNodeSize = maxNodeSize;
+      this.checkpointing = checkpointing;
       new File(indexDir).mkdirs();
 
       this.segments = new Segment[segments];
       for (int i = 0; i < segments; ++i) {
-         this.segments[i] = new Segment(i, indexQueue.subQueue(i), temporaryTable);
+         this.segments[i] = new Segment(i, indexQueue.subQueue(i), temporaryTable,
+               checkpoint == null ? null : checkpoint.segments[i]);
       }
    }
 
@@ -73,6 +83,16 @@ public boolean isLoaded() {
       return true;
    }
 
+   /**
+    * @return True if the index was loaded from the checkpoint, and only the log written after it has to be replayed
+    */
+   public boolean isCheckpointLoaded() {
+      for (int i = 0; i < segments.length; ++i) {
+         if (!segments[i].loadedFromCheckpoint) return false;
+      }
+      return true;
+   }
+
    public void start() {
       for (int i = 0; i < segments.length; ++i) {
          segments[i].start();
@@ -164,6 +184,51 @@ public long size() throws InterruptedException {
       return size;
    }
 
+   /**
+    * Asks all segments to capture their state for a checkpoint. The requests are queued after all the updates already
+    * in the index queue.
+    */
+   public List<IndexRequest> requestCheckpoint() throws InterruptedException {
+      List<IndexRequest> requests = new ArrayList<>(segments.length);
+      for (Segment seg : segments) {
+         IndexRequest request = IndexRequest.checkpointRequest();
+         seg.indexQueue.put(request);
+         requests.add(request);
+      }
+      return requests;
+   }
+
+   /**
+    * @return Files that were compacted since the last checkpoint and can be deleted when the next one is persisted.
+    */
+   public List<Integer> drainDeferredDeletes() {
+      synchronized (deferredDeletes) {
+         List<Integer> files = new ArrayList<>(deferredDeletes);
+         deferredDeletes.clear();
+         return files;
+      }
+   }
+
+   /**
+    * Returns files obtained from {@link #drainDeferredDeletes()} when the checkpoint could not be persisted.
+    */
+   public void restoreDeferredDeletes(List<Integer> files) {
+      synchronized (deferredDeletes) {
+         deferredDeletes.addAll(files);
+      }
+   }
+
+   public boolean isDeletePending(int file) {
+      synchronized (deferredDeletes) {
+         return deferredDeletes.contains(file);
+      }
+   }
+
+   public void deleteFile(int file) {
+      fileProvider.deleteFile(file);
+      compactor.releaseStats(file);
+   }
+
    class Segment extends Thread {
       private final BlockingQueue<IndexRequest> indexQueue;
       private final TemporaryTable temporaryTable;
@@ -171,14 +236,23 @@ class Segment extends Thread {
       private final ReadWriteLock rootLock = new ReentrantReadWriteLock();
       private final File indexFileFile;
       private final boolean loaded;
+      private final boolean loadedFromCheckpoint;
       private FileChannel indexFile;
       private long indexFileSize = 0;
       private AtomicLong size = new AtomicLong();
+      // nodes stored in epoch lower or equal to checkpointEpoch belong to the last checkpoint
+      private int epoch = 1;
+      private int checkpointEpoch = 0;
+      // space freed since the last checkpoint was captured, and space freed before that
+      private List<IndexSpace> pendingFree = new ArrayList<>();
+      private List<IndexSpace> checkpointFree = new ArrayList<>();
+      private Checkpoint.Pending pendingCheckpoint;
 
       private volatile IndexNode root;
 
 
-      private Segment(int id, BlockingQueue<IndexRequest> indexQueue, TemporaryTable temporaryTable) throws IOException {
+      private Segment(int id, BlockingQueue<IndexRequest> indexQueue, TemporaryTable temporaryTable,
+                      Checkpoint.Segment checkpoint) throws IOException {
          super("BCS-IndexUpdater-" + id);
          this.setDaemon(true);
          this.indexQueue = indexQueue;
@@ -197,10 +271,23 @@ private Segment(int id, BlockingQueue<IndexRequest> indexQueue, TemporaryTable t
             loadFreeBlocks(freeBlocksOffset);
             indexFileSize = freeBlocksOffset;
             loaded = true;
+            loadedFromCheckpoint = false;
+         } else if (checkpoint != null) {
+            // the nodes stored after the checkpoint are not referenced from it
+            indexFile.truncate(checkpoint.indexFileSize);
+            size.set(checkpoint.size);
+            root = new IndexNode(this, checkpoint.rootOffset, checkpoint.rootOccupied);
+            for (Map.Entry<Integer, List<IndexSpace>> entry : checkpoint.freeBlocks.entrySet()) {
+               freeBlocks.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
+            indexFileSize = checkpoint.indexFileSize;
+            loaded = false;
+            loadedFromCheckpoint = true;
          } else {
             this.indexFile.truncate(0);
             root = IndexNode.emptyWithLeaves(this);
             loaded = false;
+            loadedFromCheckpoint = false;
             // reserve space for shutdown
             indexFileSize = INDEX_FILE_HEADER_SIZE;
          }
@@ -240,6 +327,9 @@ public void run() {
                }
                final IndexRequest request = indexQueue.take();
                if (trace) log.trace("Indexing " + request);
+               if (pendingCheckpoint != null) {
+                  releaseCheckpointFree();
+               }
                IndexNode.OverwriteHook overwriteHook;
                IndexNode.RecordChange recordChange;
                switch (request.getType()) {
@@ -256,10 +346,19 @@ public void run() {
                   case DELETE_FILE:
                      // the last segment that processes the delete request actually deletes the file
                      if (request.countDown()) {
-                        fileProvider.deleteFile(request.getFile());
-                        compactor.releaseStats(request.getFile());
+                        if (checkpointing) {
+                           // the last checkpoint may still point to records in this file
+                           synchronized (deferredDeletes) {
+                              deferredDeletes.add(request.getFile());
+                           }
+                        } else {
+                           deleteFile(request.getFile());
+                        }
                      }
                      continue;
+                  case CHECKPOINT:
+                     request.setResult(captureCheckpoint());
+                     continue;
                   case STOP:
                      assert indexQueue.poll() == null;
                      shutdown();
@@ -338,9 +437,66 @@ public void setOverwritten(boolean overwritten, int prevFile, int prevOffset) {
          }
       }
 
+      private Checkpoint.Pending captureCheckpoint() throws IOException {
+         IndexSpace rootSpace = root.getSpace();
+         if (rootSpace == null) {
+            // the root is kept only in memory
+            rootSpace = allocateIndexSpace(root.length());
+            root.store(rootSpace);
+         }
+         checkpointEpoch = epoch++;
+         indexFile.force(false);
+         TreeMap<Integer, List<IndexSpace>> free = new TreeMap<>();
+         for (Map.Entry<Integer, List<IndexSpace>> entry : freeBlocks.entrySet()) {
+            free.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+         }
+         for (IndexSpace space : pendingFree) {
+            List<IndexSpace> list = free.get(space.length);
+            if (list == null) {
+               free.put(space.length, list = new ArrayList<>());
+            }
+            list.add(space);
+         }
+         if (pendingCheckpoint != null && pendingCheckpoint.isPersisted() == null) {
+            // the previous checkpoint was interrupted
+            pendingCheckpoint.complete(false);
+         }
+         releaseCheckpointFree();
+         checkpointFree = pendingFree;
+         pendingFree = new ArrayList<>();
+         pendingCheckpoint = new Checkpoint.Pending(
+               new Checkpoint.Segment(rootSpace.offset, (short) rootSpace.length, indexFileSize, size.get(), free));
+         return pendingCheckpoint;
+      }
+
+      private void releaseCheckpointFree() {
+         Boolean persisted = pendingCheckpoint == null ? Boolean.TRUE : pendingCheckpoint.isPersisted();
+         if (persisted == null) {
+            return;
+         } else if (persisted) {
+            for (IndexSpace space : checkpointFree) {
+               releaseIndexSpace(space.offset, space.length);
+            }
+         } else {
+            // the previous checkpoint is still the last persisted one
+            pendingFree.addAll(checkpointFree);
+         }
+         checkpointFree = new ArrayList<>();
+         pendingCheckpoint = null;
+      }
+
       private void shutdown() throws IOException {
-         IndexSpace rootSpace = allocateIndexSpace(root.length());
-         root.store(rootSpace);
+         // the index is persisted completely, the last checkpoint won't be used
+         pendingFree.addAll(checkpointFree);
+         for (IndexSpace space : pendingFree) {
+            releaseIndexSpace(space.offset, space.length);
+         }
+         pendingFree.clear();
+         IndexSpace rootSpace = root.getSpace();
+         if (rootSpace == null) {
+            rootSpace = allocateIndexSpace(root.length());
+            root.store(rootSpace);
+         }
          indexFile.position(indexFileSize);
          ByteBuffer buffer = ByteBuffer.allocate(4);
          buffer.putInt(0, freeBlocks.size());
@@ -417,6 +573,9 @@ public CountDownLatch pauseAndClear() throws InterruptedException, IOException {
          indexFile.truncate(0);
          indexFileSize = INDEX_FILE_HEADER_SIZE;
          freeBlocks.clear();
+         pendingFree.clear();
+         checkpointFree.clear();
+         pendingCheckpoint = null;
          size.set(0);
          return pause;
       }
@@ -473,6 +632,15 @@ IndexSpace allocateIndexSpace(int length) {
       // this should be accessed only from the updater thread
       void freeIndexSpace(long offset, int length) {
          if (length <= 0) throw new IllegalArgumentException("Offset=" + offset + ", length=" + length);
+         if (checkpointing) {
+            // the space may be referenced from the last checkpoint
+            pendingFree.add(new IndexSpace(offset, length));
+         } else {
+            releaseIndexSpace(offset, length);
+         }
+      }
+
+      private void releaseIndexSpace(long offset, int length) {
          // TODO: fragmentation!
          // TODO: memory bounds!
          if (offset + length < indexFileSize) {
@@ -491,6 +659,14 @@ void freeIndexSpace(long offset, int length) {
          }
       }
 
+      int getEpoch() {
+         return epoch;
+      }
+
+      boolean canOverwrite(int nodeEpoch) {
+         return !checkpointing || nodeEpoch > checkpointEpoch;
+      }
+
       public Lock rootReadLock() {
          return rootLock.readLock();
       }
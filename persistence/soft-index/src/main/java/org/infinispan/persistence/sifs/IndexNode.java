@@ -46,6 +46,8 @@ class IndexNode {
    private LeafNode[] leafNodes;
    private ReadWriteLock lock = new ReentrantReadWriteLock();
    private long offset = -1;
+   // the checkpoint epoch of the segment when this node was stored, nodes loaded from the file have epoch 0
+   private int epoch;
    private int contentLength = -1;
    private int totalLength = -1;
    private int occupiedSpace;
@@ -164,10 +166,25 @@ public void replaceContent(IndexNode other) throws IOException {
       }
    }
 
+   /**
+    * @return False if the node is part of the last index checkpoint and must not be overwritten in place
+    */
+   boolean canOverwrite() {
+      return offset < 0 || segment.canOverwrite(epoch);
+   }
+
+   /**
+    * @return The space occupied by this node in the index file, or null if it was not stored yet.
+    */
+   Index.IndexSpace getSpace() {
+      return offset < 0 ? null : new Index.IndexSpace(offset, occupiedSpace);
+   }
+
    // called only internally or for root
    void store(Index.IndexSpace indexSpace) throws IOException {
       this.offset = indexSpace.offset;
       this.occupiedSpace = indexSpace.length;
+      this.epoch = segment.getEpoch();
       ByteBuffer buffer = ByteBuffer.allocate(length());
       buffer.putShort((short) prefix.length);
       buffer.put(prefix);
@@ -403,7 +420,7 @@ private static JoinSplitResult manageLength(Index.Segment segment, Stack<Path> s
          Path parent = stack.peek();
          if (parent.node.innerNodes.length == 1) {
             // we have no siblings - we can't merge with them even when we're really short
-            if (copy.length() <= node.occupiedSpace) {
+            if (copy.length() <= node.occupiedSpace && node.canOverwrite()) {
                node.replaceContent(copy);
                return null;
             } else {
@@ -446,15 +463,13 @@ private static JoinSplitResult manageLength(Index.Segment segment, Stack<Path> s
             to = joinWith;
          }
          garbage.push(joiner);
-      } else if (copy.length() <= node.occupiedSpace) {
-         if (copy.innerNodes != null && copy.innerNodes.length == 1 && stack.isEmpty()) {
-            IndexNode child = copy.innerNodes[0].getIndexNode(copy.segment);
-            return new JoinSplitResult(0, 0, Collections.singletonList(child));
-         } else {
-            // special case where we only overwrite the key
-            node.replaceContent(copy);
-            return null;
-         }
+      } else if (copy.length() <= node.occupiedSpace && copy.innerNodes != null && copy.innerNodes.length == 1 && stack.isEmpty()) {
+         IndexNode child = copy.innerNodes[0].getIndexNode(copy.segment);
+         return new JoinSplitResult(0, 0, Collections.singletonList(child));
+      } else if (copy.length() <= node.occupiedSpace && node.canOverwrite()) {
+         // special case where we only overwrite the key
+         node.replaceContent(copy);
+         return null;
       } else if (stack.isEmpty()) {
          from = to = 0;
       } else {
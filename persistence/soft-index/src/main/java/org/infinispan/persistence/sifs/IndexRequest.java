@@ -18,7 +18,8 @@ public enum Type {
       CLEAR,
       DELETE_FILE,
       STOP,
-      GET_SIZE
+      GET_SIZE,
+      CHECKPOINT
    }
 
    private final Type type;
@@ -76,6 +77,10 @@ public static IndexRequest sizeRequest() {
       return new IndexRequest(Type.GET_SIZE, null, null, -1, -1, -1, -1, -1);
    }
 
+   public static IndexRequest checkpointRequest() {
+      return new IndexRequest(Type.CHECKPOINT, null, null, -1, -1, -1, -1, -1);
+   }
+
    public Type getType() {
       return type;
    }
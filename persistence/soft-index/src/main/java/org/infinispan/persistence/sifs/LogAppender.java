@@ -1,8 +1,15 @@
 package org.infinispan.persistence.sifs;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.infinispan.commons.io.ByteBuffer;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfiguration;
+import org.infinispan.persistence.sifs.configuration.SyncPolicy;
+import org.infinispan.util.TimeService;
 import org.infinispan.util.logging.Log;
 import org.infinispan.util.logging.LogFactory;
 
@@ -11,6 +18,10 @@
  * It writes the records to append-only log files, inserts the entry position into TemporaryTable and queues the position
  * to be persisted in Index.
  *
+ * The records of all the requests pending in the queue are written with a single write call, and synced together
+ * according to the {@link SyncPolicy} (group commit) before the requests are confirmed. With
+ * {@link SyncPolicy#BATCH}, the appender may wait up to the max batch delay for more requests before the sync.
+ *
  * @author Radim Vansa &lt;rvansa@redhat.com&gt;
  */
 public class LogAppender extends Thread {
@@ -18,19 +29,34 @@ public class LogAppender extends Thread {
 
    private final SyncProcessingQueue<LogRequest> queue;
    private final BlockingQueue<IndexRequest> indexQueue;
-   private final boolean syncWrites;
+   private final SyncPolicy syncPolicy;
+   private final long syncIntervalNanos;
+   private final long maxBatchDelayNanos;
    private final TemporaryTable temporaryTable;
    private final int maxFileSize;
    private final Compactor compactor;
    private final FileProvider fileProvider;
+   private final TimeService timeService;
+   // Records of the current batch, written to the log with a single call
+   private final java.nio.ByteBuffer writeBuffer;
+   // Requests written to the log file, but not yet published to TemporaryTable and Index
+   private final List<LogRequest> unpublished = new ArrayList<>();
+   private final Histogram batchSizes = new Histogram();
+   private final Histogram syncTimes = new Histogram();
    private LogRequest pausedRequest;
    private long seqId = 0;
 
+   // Only accessed by the appender thread
+   private int batchSize;
+   private long batchStart;
+   private boolean unsynced;
+   private long lastSync;
+
    LogAppender(SyncProcessingQueue<LogRequest> inboundQueue,
                BlockingQueue<IndexRequest> indexQueue,
                TemporaryTable temporaryTable,
                Compactor compactor,
-               FileProvider fileProvider, boolean syncWrites, int maxFileSize) {
+               FileProvider fileProvider, TimeService timeService, SoftIndexFileStoreConfiguration configuration) {
       super("BCS-LogAppender");
       this.setDaemon(true);
       this.queue = inboundQueue;
@@ -38,8 +64,12 @@ public class LogAppender extends Thread {
       this.temporaryTable = temporaryTable;
       this.compactor = compactor;
       this.fileProvider = fileProvider;
-      this.syncWrites = syncWrites;
-      this.maxFileSize = maxFileSize;
+      this.timeService = timeService;
+      this.syncPolicy = configuration.syncPolicy();
+      this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(configuration.syncInterval());
+      this.maxBatchDelayNanos = TimeUnit.MILLISECONDS.toNanos(configuration.maxBatchDelay());
+      this.maxFileSize = configuration.maxFileSize();
+      this.writeBuffer = java.nio.ByteBuffer.allocateDirect(Math.min(configuration.maxBatchBytes(), maxFileSize));
       start();
    }
 
@@ -47,6 +77,13 @@ public void setSeqId(long seqId) {
       this.seqId = seqId;
    }
 
+   /**
+    * @return The sequence id of the next record, should be called only when the appender is paused.
+    */
+   public long getSeqId() {
+      return seqId;
+   }
+
    public void pause() throws InterruptedException {
       LogRequest pause = LogRequest.pauseRequest();
       queue.pushAndWait(pause);
@@ -64,15 +101,38 @@ public void resumeAfterPause() {
       pausedRequest = null;
    }
 
+   /**
+    * @return The number of requests waiting to be written.
+    */
+   public int getQueueDepth() {
+      return queue.size();
+   }
+
+   /**
+    * @return The number of requests written and confirmed together.
+    */
+   public Histogram getBatchSizes() {
+      return batchSizes;
+   }
+
+   /**
+    * @return The duration of the syncs, in microseconds.
+    */
+   public Histogram getSyncTimes() {
+      return syncTimes;
+   }
+
    @Override
    public void run() {
       try {
          FileProvider.Log logFile = fileProvider.getFileForLog();
          int currentOffset = 0;
+         lastSync = timeService.time();
          while (true) {
             LogRequest request = queue.pop();
             if (request != null) {
                if (request.isClear()) {
+                  completeBatch(logFile);
                   logFile.close();
                   queue.notifyNoWait();
                   request.pause();
@@ -81,35 +141,65 @@ public void run() {
                   log.debug("Appending records to " + logFile.fileId);
                   continue;
                } else if (request.isStop()) {
+                  completeBatch(logFile);
+                  if (unsynced && syncPolicy != SyncPolicy.NONE) {
+                     sync(logFile);
+                  }
                   queue.notifyNoWait();
                   break;
                } else if (request.isPause()) {
+                  completeBatch(logFile);
                   queue.notifyNoWait();
                   request.pause();
                   continue;
                }
                if (currentOffset + request.length() > maxFileSize) {
-                  // switch to next file
+                  // switch to next file, which is not synced any more after it is closed
+                  flush(logFile);
+                  if (unsynced && syncPolicy != SyncPolicy.NONE) {
+                     sync(logFile);
+                  }
                   logFile.close();
                   compactor.completeFile(logFile.fileId);
                   currentOffset = 0;
                   logFile = fileProvider.getFileForLog();
                   log.debug("Appending records to " + logFile.fileId);
                }
-               long seqId = nextSeqId();
-               EntryRecord.writeEntry(logFile.fileChannel, request.getSerializedKey(), request.getSerializedMetadata(), request.getSerializedValue(), seqId, request.getExpiration());
+               if (batchSize == 0) {
+                  batchStart = timeService.time();
+               }
+               append(logFile, request, nextSeqId());
                int offset = request.getSerializedValue() == null ? ~currentOffset : currentOffset;
-               temporaryTable.set(request.getKey(), logFile.fileId, offset);
-               IndexRequest indexRequest = IndexRequest.update(request.getKey(), raw(request.getSerializedKey()),
-                     logFile.fileId, offset, request.length());
-               request.setIndexRequest(indexRequest);
-               indexQueue.put(indexRequest);
+               request.setIndexRequest(IndexRequest.update(request.getKey(), raw(request.getSerializedKey()),
+                     logFile.fileId, offset, request.length()));
+               unpublished.add(request);
+               batchSize++;
                currentOffset += request.length();
+               if (syncPolicy == SyncPolicy.WRITE) {
+                  flush(logFile);
+                  sync(logFile);
+               }
             } else {
-               if (syncWrites) {
-                  logFile.fileChannel.force(false);
+               if (batchSize > 0 && syncPolicy == SyncPolicy.BATCH && maxBatchDelayNanos > 0
+                     && writeBuffer.position() < writeBuffer.capacity()) {
+                  // wait for more requests to share the sync with
+                  long remaining = maxBatchDelayNanos - timeService.timeDuration(batchStart, TimeUnit.NANOSECONDS);
+                  if (remaining > 0 && queue.awaitElement(remaining)) {
+                     continue;
+                  }
+               }
+               completeBatch(logFile);
+               long timeout = 0;
+               if (syncPolicy == SyncPolicy.PERIODIC && unsynced) {
+                  long untilSync = syncIntervalNanos - timeService.timeDuration(lastSync, TimeUnit.NANOSECONDS);
+                  if (untilSync <= 0) {
+                     sync(logFile);
+                  } else {
+                     // make sure that the sync happens even if there are no more writes
+                     timeout = Math.max(TimeUnit.NANOSECONDS.toMillis(untilSync), 1);
+                  }
                }
-               queue.notifyAndWait();
+               queue.notifyAndWait(timeout);
             }
          }
       } catch (Exception e) {
@@ -118,6 +208,64 @@ public void run() {
       }
    }
 
+   /**
+    * Adds the record to the write buffer, writing the buffer to the log file first if the record does not fit.
+    */
+   private void append(FileProvider.Log logFile, LogRequest request, long seqId) throws IOException, InterruptedException {
+      if (request.length() > writeBuffer.remaining()) {
+         flush(logFile);
+      }
+      if (request.length() > writeBuffer.remaining()) {
+         EntryRecord.writeEntry(logFile.fileChannel, request.getSerializedKey(), request.getSerializedMetadata(),
+               request.getSerializedValue(), seqId, request.getExpiration());
+         unsynced = true;
+      } else {
+         EntryRecord.writeEntry(writeBuffer, request.getSerializedKey(), request.getSerializedMetadata(),
+               request.getSerializedValue(), seqId, request.getExpiration());
+      }
+   }
+
+   /**
+    * Writes the buffered records to the log file, and then makes them visible to readers through TemporaryTable and
+    * Index.
+    */
+   private void flush(FileProvider.Log logFile) throws IOException, InterruptedException {
+      if (writeBuffer.position() > 0) {
+         writeBuffer.flip();
+         EntryRecord.write(logFile.fileChannel, writeBuffer);
+         writeBuffer.clear();
+         unsynced = true;
+      }
+      for (LogRequest request : unpublished) {
+         IndexRequest indexRequest = request.getIndexRequest();
+         temporaryTable.set(request.getKey(), indexRequest.getFile(), indexRequest.getOffset());
+         indexQueue.put(indexRequest);
+      }
+      unpublished.clear();
+   }
+
+   /**
+    * Writes the current batch and syncs it if the policy requires that, so that its requests can be confirmed.
+    */
+   private void completeBatch(FileProvider.Log logFile) throws IOException, InterruptedException {
+      flush(logFile);
+      if (batchSize > 0) {
+         if (syncPolicy == SyncPolicy.BATCH && unsynced) {
+            sync(logFile);
+         }
+         batchSizes.record(batchSize);
+         batchSize = 0;
+      }
+   }
+
+   private void sync(FileProvider.Log logFile) throws IOException {
+      long start = timeService.time();
+      logFile.fileChannel.force(false);
+      lastSync = timeService.time();
+      syncTimes.record(TimeUnit.NANOSECONDS.toMicros(lastSync - start));
+      unsynced = false;
+   }
+
    private byte[] raw(ByteBuffer buffer) {
       if (buffer.getBuf().length == buffer.getLength()) {
          return buffer.getBuf();
@@ -0,0 +1,147 @@
+package org.infinispan.persistence.sifs;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.infinispan.commons.marshall.Marshaller;
+import org.infinispan.persistence.spi.PersistenceException;
+import org.infinispan.util.logging.Log;
+import org.infinispan.util.logging.LogFactory;
+
+/**
+ * Builds the index from the records read from the log when the store starts. The thread reading the log only parses
+ * the record headers; the records are dispatched to worker threads according to the hash of the serialized key, so
+ * that all records of a key are processed in order by the same worker. The workers unmarshall the keys, check the
+ * sequence ids against the records that are already indexed and queue the updates into the index queue, which are
+ * applied by the index segments in parallel.
+ *
+ * @since 9.0
+ */
+class LogReplayer {
+   private static final Log log = LogFactory.getLog(LogReplayer.class);
+   private static final boolean trace = log.isTraceEnabled();
+   private static final int QUEUE_LENGTH = 1024;
+   // Tells a worker to stop, compared by identity
+   private static final Record END = new Record(-1, -1, -1, null, -1);
+
+   private final SoftIndexFileStore store;
+   private final Marshaller marshaller;
+   private final TemporaryTable temporaryTable;
+   private final IndexQueue indexQueue;
+   private final Worker[] workers;
+   private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+   LogReplayer(SoftIndexFileStore store, Marshaller marshaller, TemporaryTable temporaryTable, IndexQueue indexQueue, int threads) {
+      this.store = store;
+      this.marshaller = marshaller;
+      this.temporaryTable = temporaryTable;
+      this.indexQueue = indexQueue;
+      this.workers = new Worker[threads];
+      for (int i = 0; i < threads; ++i) {
+         workers[i] = new Worker(i);
+         workers[i].start();
+      }
+   }
+
+   /**
+    * @return False if the replay has failed and no more records should be read.
+    */
+   public boolean replay(int file, int offset, int size, byte[] serializedKey, long seqId) throws InterruptedException {
+      if (error.get() != null) {
+         return false;
+      }
+      int worker = (Arrays.hashCode(serializedKey) & Integer.MAX_VALUE) % workers.length;
+      workers[worker].queue.put(new Record(file, offset, size, serializedKey, seqId));
+      return true;
+   }
+
+   /**
+    * Waits until all records are processed by the workers.
+    *
+    * @throws PersistenceException if any of the records could not be processed.
+    */
+   public void finish() throws PersistenceException {
+      stop();
+      Throwable t = error.get();
+      if (t != null) {
+         throw new PersistenceException("Cannot build the index", t);
+      }
+   }
+
+   /**
+    * Stops the workers, ignoring any errors.
+    */
+   public void stop() {
+      try {
+         for (Worker worker : workers) {
+            worker.queue.put(END);
+         }
+         for (Worker worker : workers) {
+            worker.join();
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         error.compareAndSet(null, e);
+      }
+   }
+
+   private void apply(Record record) throws Exception {
+      Object key = marshaller.objectFromByteBuffer(record.serializedKey);
+      if (trace) {
+         log.tracef("Loaded %d:%d (seqId %d)", record.file, record.offset, record.seqId);
+      }
+      // We may check the seqId safely as this is the only thread writing this key to index
+      if (store.isSeqIdOld(record.seqId, key, record.serializedKey)) {
+         indexQueue.put(IndexRequest.foundOld(key, record.serializedKey, record.file, record.offset));
+         return;
+      }
+      temporaryTable.set(key, record.file, record.offset);
+      indexQueue.put(IndexRequest.update(key, record.serializedKey, record.file, record.offset, record.size));
+   }
+
+   private class Worker extends Thread {
+      private final BlockingQueue<Record> queue = new ArrayBlockingQueue<>(QUEUE_LENGTH);
+
+      Worker(int id) {
+         super("BCS-LogReplayer-" + id);
+         setDaemon(true);
+      }
+
+      @Override
+      public void run() {
+         try {
+            Record record;
+            while ((record = queue.take()) != END) {
+               // Keep draining the queue after an error, so that the reading thread does not block
+               if (error.get() == null) {
+                  try {
+                     apply(record);
+                  } catch (Throwable t) {
+                     error.compareAndSet(null, t);
+                  }
+               }
+            }
+         } catch (InterruptedException e) {
+            error.compareAndSet(null, e);
+         }
+      }
+   }
+
+   private static class Record {
+      final int file;
+      final int offset;
+      final int size;
+      final byte[] serializedKey;
+      final long seqId;
+
+      Record(int file, int offset, int size, byte[] serializedKey, long seqId) {
+         this.file = file;
+         this.offset = offset;
+         this.size = size;
+         this.serializedKey = serializedKey;
+         this.seqId = seqId;
+      }
+   }
+}
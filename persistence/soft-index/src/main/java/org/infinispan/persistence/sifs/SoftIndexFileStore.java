@@ -1,7 +1,12 @@
 package org.infinispan.persistence.sifs;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -62,6 +67,8 @@
  *                   space for each file.
  * - Index:          B+-tree of IndexNodes. The tree is dropped and built a new if the process
  *                   crashes, it does not need to flush disk operations. On disk it is kept as single random-accessed file, with free blocks list stored in memory.
+ *                   With checkpoints enabled, a consistent snapshot of the tree is persisted periodically
+ *                   (see Checkpoint) and after a crash only the log appended after it is replayed.
  *
  * As IndexUpdater may easily become a bottleneck under heavy load, the IndexUpdater thread,
  * UpdateQueue and tree of IndexNodes may be multiplied several times - the Index is divided
@@ -111,6 +118,9 @@ public class SoftIndexFileStore implements AdvancedLoadWriteStore {
    private LogAppender logAppender;
    private Index index;
    private Compactor compactor;
+   private Checkpointer checkpointer;
+   // the size of the data files when they were last forced for a checkpoint
+   private Map<Integer, Long> forcedFileSizes = new HashMap<>();
    private StreamingMarshaller marshaller;
    private ByteBufferFactory byteBufferFactory;
    private MarshalledEntryFactory marshalledEntryFactory;
@@ -140,11 +150,19 @@ public void start() {
       indexQueue = new IndexQueue(configuration.indexSegments(), configuration.indexQueueLength(), keyEquivalence);
       fileProvider = new FileProvider(configuration.dataLocation(), configuration.openFilesLimit());
       compactor = new Compactor(fileProvider, temporaryTable, indexQueue, marshaller, timeService, configuration.maxFileSize(), configuration.compactionThreshold());
-      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, configuration.syncWrites(), configuration.maxFileSize());
+      logAppender = new LogAppender(storeQueue, indexQueue, temporaryTable, compactor, fileProvider, timeService, configuration);
+      boolean checkpointing = configuration.checkpointInterval() > 0;
+      Checkpoint checkpoint = null;
+      if (checkpointing) {
+         checkpoint = Checkpoint.read(configuration.indexLocation());
+         if (checkpoint != null && !isValid(checkpoint)) {
+            checkpoint = null;
+         }
+      }
       try {
          index = new Index(fileProvider, configuration.indexLocation(), configuration.indexSegments(),
                configuration.minNodeSize(), configuration.maxNodeSize(),
-               indexQueue, temporaryTable, compactor, timeService, keyEquivalence);
+               indexQueue, temporaryTable, compactor, timeService, keyEquivalence, checkpoint, checkpointing);
       } catch (IOException e) {
          throw new PersistenceException("Cannot open index file in " + configuration.indexLocation(), e);
       }
@@ -155,39 +173,123 @@ public void start() {
          log.debug("Not building the index - loaded from persisted state");
       } else if (configuration.purgeOnStartup()) {
          log.debug("Not building the index - purge will be executed");
+      } else if (index.isCheckpointLoaded()) {
+         log.debug("Loaded the index from checkpoint, replaying the log appended after it");
+         maxSeqId.set(checkpoint.seqId - 1);
+         buildIndex(checkpoint.fileSizes, maxSeqId);
       } else {
          log.debug("Building the index");
-         forEachOnDisk(false, false, new EntryFunctor() {
+         buildIndex(Collections.<Integer, Long>emptyMap(), maxSeqId);
+      }
+      if (!index.isCheckpointLoaded()) {
+         // the index space of an older checkpoint is not protected any more
+         Checkpoint.delete(configuration.indexLocation());
+      }
+      logAppender.setSeqId(maxSeqId.get() + 1);
+      if (checkpointing) {
+         checkpointer = new Checkpointer(this, configuration.checkpointInterval());
+      }
+   }
+
+   private boolean isValid(Checkpoint checkpoint) {
+      if (checkpoint.segments.length != configuration.indexSegments()) {
+         log.debug("Ignoring the index checkpoint, the number of index segments has changed");
+         return false;
+      }
+      for (Map.Entry<Integer, Long> entry : checkpoint.fileSizes.entrySet()) {
+         if (fileProvider.getFileSize(entry.getKey()) < entry.getValue()) {
+            log.debug("Ignoring the index checkpoint, file " + entry.getKey() + " is shorter than the checkpoint expects");
+            return false;
+         }
+      }
+      return true;
+   }
+
+   /**
+    * Reads the log starting at the given offsets (from the beginning of the files that are not present) and updates
+    * the index with the records, using one thread per index segment.
+    */
+   private void buildIndex(Map<Integer, Long> startOffsets, final AtomicLong maxSeqId) {
+      final LogReplayer replayer = new LogReplayer(this, marshaller, temporaryTable, indexQueue, configuration.indexSegments());
+      final List<Integer> files = new ArrayList<>();
+      try {
+         forEachOnDisk(false, false, startOffsets, new EntryFunctor() {
             @Override
-            public boolean apply(int file, int offset, int size, byte[] serializedKey, byte[] serializedMetadata, byte[] serializedValue, long seqId, long expiration) throws IOException, ClassNotFoundException {
+            public boolean apply(int file, int offset, int size, byte[] serializedKey, byte[] serializedMetadata, byte[] serializedValue, long seqId, long expiration) throws InterruptedException {
                long prevSeqId;
                while (seqId > (prevSeqId = maxSeqId.get()) && !maxSeqId.compareAndSet(prevSeqId, seqId));
-               Object key = marshaller.objectFromByteBuffer(serializedKey);
-               if (trace) {
-                  log.tracef("Loaded %d:%d (seqId %d, expiration %d)", file, offset, seqId, expiration);
-               }
-               try {
-                  // We may check the seqId safely as we are the only thread writing to index
-                  if (isSeqIdOld(seqId, key, serializedKey)) {
-                     indexQueue.put(IndexRequest.foundOld(key, serializedKey, file, offset));
-                     return true;
-                  }
-                  temporaryTable.set(key, file, offset);
-                  indexQueue.put(IndexRequest.update(key, serializedKey, file, offset, size));
-               } catch (InterruptedException e) {
-                  log.error("Interrupted building of index, the index won't be built properly!", e);
-                  return false;
-               }
-               return true;
+               return replayer.replay(file, offset, size, serializedKey, seqId);
             }
          }, new FileFunctor() {
             @Override
             public void afterFile(int file) {
-               compactor.completeFile(file);
+               files.add(file);
             }
          });
+      } catch (PersistenceException e) {
+         replayer.stop();
+         throw e;
+      }
+      replayer.finish();
+      // the file stats may be complete only after all records were indexed
+      for (int file : files) {
+         compactor.completeFile(file);
       }
-      logAppender.setSeqId(maxSeqId.get() + 1);
+   }
+
+   /**
+    * Persists a consistent snapshot of the index, so that only the log appended after it has to be replayed when the
+    * store is not stopped gracefully.
+    */
+   synchronized void checkpoint() throws IOException, InterruptedException {
+      long seqId;
+      List<Integer> compactedFiles;
+      Map<Integer, Long> fileSizes;
+      List<IndexRequest> requests;
+      logAppender.pause();
+      try {
+         seqId = logAppender.getSeqId();
+         compactedFiles = index.drainDeferredDeletes();
+         fileSizes = fileProvider.getFileSizes();
+         fileSizes.keySet().removeAll(compactedFiles);
+         // the segments capture their state after applying all records written so far
+         requests = index.requestCheckpoint();
+      } finally {
+         logAppender.resumeAfterPause();
+      }
+      List<Checkpoint.Pending> pending = new ArrayList<>(requests.size());
+      boolean persisted = false;
+      try {
+         Checkpoint.Segment[] segments = new Checkpoint.Segment[requests.size()];
+         for (int i = 0; i < segments.length; ++i) {
+            Checkpoint.Pending segment = (Checkpoint.Pending) requests.get(i).getResult();
+            pending.add(segment);
+            segments[i] = segment.state;
+         }
+         // the index may point to records written by the compactor after the file sizes were read
+         Map<Integer, Long> currentSizes = fileProvider.getFileSizes();
+         currentSizes.keySet().removeAll(compactedFiles);
+         for (Map.Entry<Integer, Long> entry : currentSizes.entrySet()) {
+            if (!entry.getValue().equals(forcedFileSizes.get(entry.getKey()))) {
+               fileProvider.force(entry.getKey());
+            }
+         }
+         new Checkpoint(seqId, segments, fileSizes).write(configuration.indexLocation());
+         forcedFileSizes = currentSizes;
+         persisted = true;
+      } finally {
+         for (Checkpoint.Pending segment : pending) {
+            segment.complete(persisted);
+         }
+         if (persisted) {
+            for (int file : compactedFiles) {
+               index.deleteFile(file);
+            }
+         } else {
+            index.restoreDeferredDeletes(compactedFiles);
+         }
+      }
+      if (trace) log.tracef("Persisted index checkpoint at seqId %d", seqId);
    }
 
    protected boolean isSeqIdOld(long seqId, Object key, byte[] serializedKey) throws IOException {
@@ -233,9 +335,39 @@ protected boolean isIndexLoaded() {
       return index.isLoaded();
    }
 
+   protected boolean isCheckpointLoaded() {
+      return index.isCheckpointLoaded();
+   }
+
+   /**
+    * @return The number of writes waiting for the log appender.
+    */
+   public int getLogQueueDepth() {
+      return logAppender.getQueueDepth();
+   }
+
+   /**
+    * @return The number of writes confirmed together by the log appender since the store was started.
+    */
+   public Histogram getLogBatchSizes() {
+      return logAppender.getBatchSizes();
+   }
+
+   /**
+    * @return The duration of the syncs of the log since the store was started, in microseconds.
+    */
+   public Histogram getLogSyncTimes() {
+      return logAppender.getSyncTimes();
+   }
+
    @Override
    public void stop() {
       try {
+         if (checkpointer != null) {
+            checkpointer.stopOperations();
+            checkpointer = null;
+         }
+         forcedFileSizes = new HashMap<>();
          logAppender.stopOperations();
          logAppender = null;
          compactor.stopOperations();
@@ -256,6 +388,9 @@ public void stop() {
 
    @Override
    public synchronized void clear() throws PersistenceException {
+      Checkpoint.delete(configuration.indexLocation());
+      index.drainDeferredDeletes();
+      forcedFileSizes = new HashMap<>();
       try {
          logAppender.clearAndPause();
          compactor.clearAndPause();
@@ -300,6 +435,36 @@ public void purge(Executor threadPool, PurgeListener listener) {
 
    @Override
    public void write(MarshalledEntry entry) {
+      checkKeyLength(entry);
+      try {
+         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   /**
+    * Hands all the entries over to the log appender at once, so that they are appended and synced together instead of
+    * waiting for each entry in turn.
+    */
+   @Override
+   public void writeBatch(Iterable entries) {
+      try {
+         List<LogRequest> requests = new ArrayList<>();
+         for (Object o : entries) {
+            MarshalledEntry entry = (MarshalledEntry) o;
+            checkKeyLength(entry);
+            requests.add(LogRequest.storeRequest(entry));
+         }
+         storeQueue.pushAllAndWait(requests);
+      } catch (PersistenceException e) {
+         throw e;
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
+   private void checkKeyLength(MarshalledEntry entry) {
       int keyLength = entry.getKeyBytes().getLength();
       if (keyLength > maxKeyLength) {
          throw new PersistenceException("Configuration 'maxNodeSize' is too low - with maxNodeSize="
@@ -309,11 +474,6 @@ public void write(MarshalledEntry entry) {
          // TODO this limitation could be removed by different key length encoding
          throw new PersistenceException("SoftIndexFileStore is limited to keys with serialized size <= 32767 bytes");
       }
-      try {
-         storeQueue.pushAndWait(LogRequest.storeRequest(entry));
-      } catch (Exception e) {
-         throw new PersistenceException(e);
-      }
    }
 
    @Override
@@ -327,6 +487,19 @@ public boolean delete(Object key) {
       }
    }
 
+   @Override
+   public void deleteBatch(Iterable keys) {
+      try {
+         List<LogRequest> requests = new ArrayList<>();
+         for (Object key : keys) {
+            requests.add(LogRequest.deleteRequest(key, toBuffer(marshaller.objectToByteBuffer(key))));
+         }
+         storeQueue.pushAllAndWait(requests);
+      } catch (Exception e) {
+         throw new PersistenceException(e);
+      }
+   }
+
    @Override
    public boolean contains(Object key) {
       try {
@@ -451,10 +624,19 @@ private interface FileFunctor {
    }
 
    private void forEachOnDisk(boolean readMetadata, boolean readValues, EntryFunctor functor, FileFunctor fileFunctor) throws PersistenceException {
+      forEachOnDisk(readMetadata, readValues, Collections.<Integer, Long>emptyMap(), functor, fileFunctor);
+   }
+
+   private void forEachOnDisk(boolean readMetadata, boolean readValues, Map<Integer, Long> startOffsets, EntryFunctor functor, FileFunctor fileFunctor) throws PersistenceException {
       try {
          Iterator<Integer> iterator = fileProvider.getFileIterator();
          while (iterator.hasNext()) {
             int file = iterator.next();
+            if (index.isDeletePending(file)) {
+               log.debug("File " + file + " was compacted and will be deleted");
+               fileFunctor.afterFile(file);
+               continue;
+            }
             log.debug("Loading entries from file " + file);
             FileProvider.Handle handle = fileProvider.getFile(file);
             if (handle == null) {
@@ -463,7 +645,8 @@ private void forEachOnDisk(boolean readMetadata, boolean readValues, EntryFuncto
                continue;
             }
             try {
-               int offset = 0;
+               Long startOffset = startOffsets.get(file);
+               int offset = startOffset == null ? 0 : startOffset.intValue();
                for (;;) {
                   EntryHeader header = EntryRecord.readEntryHeader(handle, offset);
                   if (header == null) {
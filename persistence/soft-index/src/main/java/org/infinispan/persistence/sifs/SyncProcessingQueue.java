@@ -1,6 +1,7 @@
 package org.infinispan.persistence.sifs;
 
 import java.util.ArrayDeque;
+import java.util.Collection;
 
 /**
  * Multiple producer-single consumer queue. The producers are expected to call pushAndWait(),
@@ -46,6 +47,23 @@ public void pushAndWait(T element) throws InterruptedException {
       waitFor(push(element));
    }
 
+   /**
+    * Pushes all the elements at once and waits until all of them have been processed, so that the consumer can
+    * process them in a single loop.
+    */
+   public void pushAllAndWait(Collection<? extends T> elements) throws InterruptedException {
+      long lastIndex;
+      synchronized (queue) {
+         for (T element : elements) {
+            queue.push(element);
+         }
+         queue.notify();
+         pushIndex += elements.size();
+         lastIndex = pushIndex;
+      }
+      waitFor(lastIndex);
+   }
+
    public long push(T element) {
       synchronized (queue) {
          queue.push(element);
@@ -85,6 +103,14 @@ public T pop() {
    }
 
    public void notifyAndWait() {
+      notifyAndWait(0);
+   }
+
+   /**
+    * Like {@link #notifyAndWait()}, but waits at most {@code timeout} milliseconds for a new element, or forever if
+    * the timeout is 0.
+    */
+   public void notifyAndWait(long timeout) {
       poppedInRow = 0;
       popIndex = processorPopIndex;
       synchronized (sync) {
@@ -93,7 +119,7 @@ public void notifyAndWait() {
       synchronized (queue) {
          if (queue.isEmpty()) {
             try {
-               queue.wait();
+               queue.wait(timeout);
             } catch (InterruptedException e) {
                return;
             }
@@ -101,6 +127,34 @@ public void notifyAndWait() {
       }
    }
 
+   /**
+    * Waits at most {@code timeoutNanos} for an element to be pushed, without notifying the producers about the
+    * elements popped so far. Used by the consumer to collect more elements before it processes them together.
+    *
+    * @return {@code true} if the queue is not empty.
+    */
+   public boolean awaitElement(long timeoutNanos) {
+      synchronized (queue) {
+         if (queue.isEmpty() && timeoutNanos > 0) {
+            try {
+               queue.wait(timeoutNanos / 1000000, (int) (timeoutNanos % 1000000));
+            } catch (InterruptedException e) {
+               Thread.currentThread().interrupt();
+            }
+         }
+         return !queue.isEmpty();
+      }
+   }
+
+   /**
+    * @return The number of elements waiting to be popped.
+    */
+   public int size() {
+      synchronized (queue) {
+         return queue.size();
+      }
+   }
+
    public void notifyNoWait() {
       poppedInRow = 0;
       popIndex = processorPopIndex;
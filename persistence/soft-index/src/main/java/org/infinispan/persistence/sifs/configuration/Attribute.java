@@ -11,14 +11,19 @@
 public enum Attribute {
    // must be first
    UNKNOWN(null),
+   CHECKPOINT_INTERVAL("checkpoint-interval"),
    COMPACTION_THRESHOLD("compaction-threshold"),
    PATH("path"),
    INDEX_QUEUE_LENGTH("max-queue-length"),
    SEGMENTS("segments"),
+   MAX_BATCH_BYTES("max-batch-bytes"),
+   MAX_BATCH_DELAY("max-batch-delay"),
    MAX_FILE_SIZE("max-file-size"),
    MAX_NODE_SIZE("max-node-size"),
    MIN_NODE_SIZE("min-node-size"),
    OPEN_FILES_LIMIT("open-files-limit"),
+   SYNC_INTERVAL("sync-interval"),
+   SYNC_POLICY("sync-policy"),
    SYNC_WRITES("sync-writes")
    ;
 
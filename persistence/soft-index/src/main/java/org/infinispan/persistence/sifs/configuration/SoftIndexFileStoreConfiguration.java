@@ -22,13 +22,19 @@ public class SoftIndexFileStoreConfiguration extends AbstractStoreConfiguration
    static final AttributeDefinition<Integer> MIN_NODE_SIZE = AttributeDefinition.builder("minNodeSize", -1).immutable().build();
    static final AttributeDefinition<Integer> MAX_NODE_SIZE = AttributeDefinition.builder("maxNodeSize", 4096).immutable().build();
    static final AttributeDefinition<Integer> INDEX_QUEUE_LENGTH = AttributeDefinition.builder("indexQueueLength", 1000).immutable().build();
+   static final AttributeDefinition<Long> CHECKPOINT_INTERVAL = AttributeDefinition.builder("checkpointInterval", 0L).immutable().build();
    static final AttributeDefinition<Boolean> SYNC_WRITES = AttributeDefinition.builder("syncWrites", false).immutable().build();
+   static final AttributeDefinition<SyncPolicy> SYNC_POLICY = AttributeDefinition.builder("syncPolicy", SyncPolicy.NONE).immutable().build();
+   static final AttributeDefinition<Long> SYNC_INTERVAL = AttributeDefinition.builder("syncInterval", 1000L).immutable().build();
+   static final AttributeDefinition<Long> MAX_BATCH_DELAY = AttributeDefinition.builder("maxBatchDelay", 0L).immutable().build();
+   static final AttributeDefinition<Integer> MAX_BATCH_BYTES = AttributeDefinition.builder("maxBatchBytes", 1024 * 1024).immutable().build();
    static final AttributeDefinition<Integer> OPEN_FILES_LIMIT = AttributeDefinition.builder("openFilesLimit", 1000).immutable().build();
    static final AttributeDefinition<Double> COMPACTION_THRESHOLD = AttributeDefinition.builder("compactionThreshold", 0.5d).immutable().build();
 
    public static AttributeSet attributeDefinitionSet() {
       return new AttributeSet(SoftIndexFileStoreConfiguration.class, AbstractStoreConfiguration.attributeDefinitionSet(), DATA_LOCATION, INDEX_LOCATION, INDEX_SEGMENTS, MAX_FILE_SIZE,
-            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, SYNC_WRITES, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
+            MIN_NODE_SIZE, MAX_NODE_SIZE, INDEX_QUEUE_LENGTH, CHECKPOINT_INTERVAL, SYNC_WRITES, SYNC_POLICY, SYNC_INTERVAL, MAX_BATCH_DELAY,
+            MAX_BATCH_BYTES, OPEN_FILES_LIMIT, COMPACTION_THRESHOLD);
    }
 
    public SoftIndexFileStoreConfiguration(AttributeSet attributes, AsyncStoreConfiguration async, SingletonStoreConfiguration singletonStore) {
@@ -63,10 +69,49 @@ public int indexQueueLength() {
       return attributes.attribute(INDEX_QUEUE_LENGTH).get();
    }
 
+   /**
+    * @return The interval between two checkpoints of the index, in milliseconds. 0 means that the index is not
+    *       checkpointed and it is rebuilt from the whole log if the store is not stopped gracefully.
+    */
+   public long checkpointInterval() {
+      return attributes.attribute(CHECKPOINT_INTERVAL).get();
+   }
+
    public boolean syncWrites() {
       return attributes.attribute(SYNC_WRITES).get();
    }
 
+   /**
+    * @return When the written entries are forced to the disk. If {@link #syncWrites()} is enabled and no policy is
+    *       set, the entries are forced in batches.
+    */
+   public SyncPolicy syncPolicy() {
+      SyncPolicy syncPolicy = attributes.attribute(SYNC_POLICY).get();
+      return syncPolicy == SyncPolicy.NONE && syncWrites() ? SyncPolicy.BATCH : syncPolicy;
+   }
+
+   /**
+    * @return The interval between two syncs with {@link SyncPolicy#PERIODIC}, in milliseconds.
+    */
+   public long syncInterval() {
+      return attributes.attribute(SYNC_INTERVAL).get();
+   }
+
+   /**
+    * @return How long a batch of writes may wait for more writes before it is forced to the disk with
+    *       {@link SyncPolicy#BATCH}, in milliseconds.
+    */
+   public long maxBatchDelay() {
+      return attributes.attribute(MAX_BATCH_DELAY).get();
+   }
+
+   /**
+    * @return The maximum number of bytes written to the log with a single write call.
+    */
+   public int maxBatchBytes() {
+      return attributes.attribute(MAX_BATCH_BYTES).get();
+   }
+
    public int openFilesLimit() {
       return attributes.attribute(OPEN_FILES_LIMIT).get();
    }
@@ -1,5 +1,6 @@
 package org.infinispan.persistence.sifs.configuration;
 
+import org.infinispan.commons.CacheConfigurationException;
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.configuration.cache.AbstractStoreConfigurationBuilder;
 import org.infinispan.configuration.cache.PersistenceConfigurationBuilder;
@@ -49,11 +50,59 @@ public SoftIndexFileStoreConfigurationBuilder indexQueueLength(int indexQueueLen
       attributes.attribute(INDEX_QUEUE_LENGTH).set(indexQueueLength);
       return this;
    }
+
+   /**
+    * Sets the interval between two checkpoints of the index, in milliseconds. When the store is not stopped
+    * gracefully, the index is loaded from the last checkpoint and only the log appended after it is replayed. Defaults
+    * to 0, which disables the checkpoints.
+    */
+   public SoftIndexFileStoreConfigurationBuilder checkpointInterval(long checkpointInterval) {
+      attributes.attribute(CHECKPOINT_INTERVAL).set(checkpointInterval);
+      return this;
+   }
+
    public SoftIndexFileStoreConfigurationBuilder syncWrites(boolean syncWrites) {
       attributes.attribute(SYNC_WRITES).set(syncWrites);
       return this;
    }
 
+   /**
+    * Sets when the written entries are forced to the disk. Defaults to {@link SyncPolicy#NONE}, or to
+    * {@link SyncPolicy#BATCH} if {@link #syncWrites(boolean)} is enabled.
+    */
+   public SoftIndexFileStoreConfigurationBuilder syncPolicy(SyncPolicy syncPolicy) {
+      attributes.attribute(SYNC_POLICY).set(syncPolicy);
+      return this;
+   }
+
+   /**
+    * Sets the interval between two syncs with {@link SyncPolicy#PERIODIC}, in milliseconds.
+    */
+   public SoftIndexFileStoreConfigurationBuilder syncInterval(long syncInterval) {
+      attributes.attribute(SYNC_INTERVAL).set(syncInterval);
+      return this;
+   }
+
+   /**
+    * Sets how long a batch of writes may wait for more writes before it is forced to the disk with
+    * {@link SyncPolicy#BATCH}, in milliseconds. Waiting increases the latency of the writes, but reduces the number
+    * of syncs when there are many concurrent writers. Defaults to 0, which forces the batch as soon as there are no
+    * more writes waiting.
+    */
+   public SoftIndexFileStoreConfigurationBuilder maxBatchDelay(long maxBatchDelay) {
+      attributes.attribute(MAX_BATCH_DELAY).set(maxBatchDelay);
+      return this;
+   }
+
+   /**
+    * Sets the maximum number of bytes written to the log with a single write call. A batch is not delayed any further
+    * once it reaches this size.
+    */
+   public SoftIndexFileStoreConfigurationBuilder maxBatchBytes(int maxBatchBytes) {
+      attributes.attribute(MAX_BATCH_BYTES).set(maxBatchBytes);
+      return this;
+   }
+
    public SoftIndexFileStoreConfigurationBuilder openFilesLimit(int openFilesLimit) {
       attributes.attribute(OPEN_FILES_LIMIT).set(openFilesLimit);
       return this;
@@ -64,6 +113,23 @@ public SoftIndexFileStoreConfigurationBuilder compactionThreshold(double compact
       return this;
    }
 
+   @Override
+   public void validate() {
+      super.validate();
+      if (attributes.attribute(SYNC_POLICY).get() == SyncPolicy.PERIODIC && attributes.attribute(SYNC_INTERVAL).get() <= 0) {
+         throw new CacheConfigurationException("The sync interval of the soft-index file store must be positive");
+      }
+      if (attributes.attribute(MAX_BATCH_DELAY).get() < 0) {
+         throw new CacheConfigurationException("The max batch delay of the soft-index file store must not be negative");
+      }
+      if (attributes.attribute(MAX_BATCH_BYTES).get() <= 0) {
+         throw new CacheConfigurationException("The max batch bytes of the soft-index file store must be positive");
+      }
+      if (attributes.attribute(CHECKPOINT_INTERVAL).get() < 0) {
+         throw new CacheConfigurationException("The checkpoint interval of the soft-index file store must not be negative");
+      }
+   }
+
    @Override
    public SoftIndexFileStoreConfiguration create() {
       return new SoftIndexFileStoreConfiguration(attributes.protect(),
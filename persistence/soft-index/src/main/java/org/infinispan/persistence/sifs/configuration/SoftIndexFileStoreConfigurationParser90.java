@@ -103,6 +103,18 @@ private void parseData(XMLExtendedStreamReader reader, SoftIndexFileStoreConfigu
             case SYNC_WRITES:
                builder.syncWrites(Boolean.parseBoolean(value));
                break;
+            case SYNC_POLICY:
+               builder.syncPolicy(SyncPolicy.valueOf(value));
+               break;
+            case SYNC_INTERVAL:
+               builder.syncInterval(Long.parseLong(value));
+               break;
+            case MAX_BATCH_DELAY:
+               builder.maxBatchDelay(Long.parseLong(value));
+               break;
+            case MAX_BATCH_BYTES:
+               builder.maxBatchBytes(Integer.parseInt(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
@@ -130,6 +142,9 @@ private void parseIndex(XMLExtendedStreamReader reader, SoftIndexFileStoreConfig
             case MAX_NODE_SIZE:
                builder.maxNodeSize(Integer.parseInt(value));
                break;
+            case CHECKPOINT_INTERVAL:
+               builder.checkpointInterval(Long.parseLong(value));
+               break;
             default:
                throw ParseUtils.unexpectedAttribute(reader, i);
          }
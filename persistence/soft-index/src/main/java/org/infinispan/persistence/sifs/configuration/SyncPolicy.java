@@ -0,0 +1,29 @@
+package org.infinispan.persistence.sifs.configuration;
+
+/**
+ * Defines when the {@link org.infinispan.persistence.sifs.SoftIndexFileStore} forces the written entries to the disk.
+ *
+ * @since 9.0
+ */
+public enum SyncPolicy {
+   /**
+    * The entries are never forced to the disk explicitly, the writes are confirmed once they are passed to the
+    * operating system.
+    */
+   NONE,
+   /**
+    * Every entry is forced to the disk separately, before its write is confirmed.
+    */
+   WRITE,
+   /**
+    * All the entries written together are forced to the disk at once, before their writes are confirmed (group
+    * commit). The batch can be delayed to collect more entries, see
+    * {@link SoftIndexFileStoreConfiguration#maxBatchDelay()}.
+    */
+   BATCH,
+   /**
+    * The entries are forced to the disk periodically, see {@link SoftIndexFileStoreConfiguration#syncInterval()}.
+    * The writes are confirmed without waiting for the disk, so the writes of the last interval may be lost on a crash.
+    */
+   PERIODIC
+}
@@ -0,0 +1,96 @@
+package org.infinispan.persistence.sifs;
+
+import static org.infinispan.test.TestingUtil.recursiveFileRemove;
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertFalse;
+import static org.testng.AssertJUnit.assertNull;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
+
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.test.fwk.TestCacheManagerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with index checkpoints, and checks the recovery from a checkpoint.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreCheckpointTest")
+public class SoftIndexFileStoreCheckpointTest extends SoftIndexFileStoreTest {
+
+   private static final int NUM_KEYS = 300;
+
+   @Override
+   protected void configureStore(SoftIndexFileStoreConfigurationBuilder storeBuilder) {
+      // the checkpoints are taken explicitly
+      storeBuilder.checkpointInterval(60000);
+   }
+
+   public void testRecoveryFromCheckpoint() throws Exception {
+      for (int i = 0; i < NUM_KEYS; i++) {
+         store.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      store.checkpoint();
+      for (int i = 0; i < NUM_KEYS; i += 2) {
+         store.write(marshalledEntry(internalCacheEntry("k" + i, "updated" + i, -1)));
+      }
+      for (int i = 0; i < NUM_KEYS; i += 3) {
+         store.delete("k" + i);
+      }
+      for (int i = NUM_KEYS; i < 2 * NUM_KEYS; i++) {
+         store.write(marshalledEntry(internalCacheEntry("k" + i, "v" + i, -1)));
+      }
+      assertEquals(2 * NUM_KEYS - (NUM_KEYS + 2) / 3, store.size());
+
+      // the copy of a running store is what a crash would leave on the disk
+      String crashDirectory = tmpDirectory + "-crash";
+      recursiveFileRemove(crashDirectory);
+      copy(new File(tmpDirectory).toPath(), new File(crashDirectory).toPath());
+      SoftIndexFileStore recovered = new SoftIndexFileStore();
+      ConfigurationBuilder builder = TestCacheManagerFactory.getDefaultCacheConfiguration(false);
+      builder.persistence()
+            .addStore(SoftIndexFileStoreConfigurationBuilder.class)
+               .indexLocation(crashDirectory).dataLocation(crashDirectory + "/data")
+               .maxFileSize(1000)
+               .checkpointInterval(60000);
+      recovered.init(createContext(builder.build()));
+      recovered.start();
+      try {
+         assertFalse(recovered.isIndexLoaded());
+         assertTrue(recovered.isCheckpointLoaded());
+         assertEquals(2 * NUM_KEYS - (NUM_KEYS + 2) / 3, recovered.size());
+         for (int i = 0; i < 2 * NUM_KEYS; i++) {
+            if (i < NUM_KEYS && i % 3 == 0) {
+               assertNull(recovered.load("k" + i));
+            } else {
+               String value = (i < NUM_KEYS && i % 2 == 0 ? "updated" : "v") + i;
+               assertEquals(value, recovered.load("k" + i).getValue());
+            }
+         }
+      } finally {
+         recovered.stop();
+         recursiveFileRemove(crashDirectory);
+      }
+   }
+
+   private static void copy(Path source, Path target) throws IOException {
+      try (Stream<Path> paths = Files.walk(source)) {
+         for (Path path : (Iterable<Path>) paths::iterator) {
+            Path copy = target.resolve(source.relativize(path));
+            if (Files.isDirectory(path)) {
+               Files.createDirectories(copy);
+            } else {
+               Files.copy(path, copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,61 @@
+package org.infinispan.persistence.sifs;
+
+import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.AssertJUnit.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.infinispan.persistence.sifs.configuration.SoftIndexFileStoreConfigurationBuilder;
+import org.infinispan.persistence.sifs.configuration.SyncPolicy;
+import org.testng.annotations.Test;
+
+/**
+ * Runs the soft-index file store tests with the writes synced in batches.
+ *
+ * @since 9.0
+ */
+@Test(groups = "unit", testName = "persistence.SoftIndexFileStoreGroupCommitTest")
+public class SoftIndexFileStoreGroupCommitTest extends SoftIndexFileStoreTest {
+
+   private static final int NUM_THREADS = 8;
+   private static final int NUM_KEYS = 200;
+
+   @Override
+   protected void configureStore(SoftIndexFileStoreConfigurationBuilder storeBuilder) {
+      storeBuilder.syncPolicy(SyncPolicy.BATCH).maxBatchDelay(1).maxBatchBytes(512);
+   }
+
+   public void testConcurrentWritesAreBatched() throws Exception {
+      List<Future<Void>> futures = new ArrayList<>();
+      for (int t = 0; t < NUM_THREADS; t++) {
+         int thread = t;
+         futures.add(fork(() -> {
+            for (int i = 0; i < NUM_KEYS; i++) {
+               store.write(marshalledEntry(internalCacheEntry("key" + thread + "-" + i, "value" + i, -1)));
+            }
+            return null;
+         }));
+      }
+      for (Future<Void> future : futures) {
+         future.get();
+      }
+
+      for (int t = 0; t < NUM_THREADS; t++) {
+         for (int i = 0; i < NUM_KEYS; i++) {
+            assertEquals("value" + i, store.load("key" + t + "-" + i).getValue());
+         }
+      }
+      Histogram batchSizes = store.getLogBatchSizes();
+      Histogram syncTimes = store.getLogSyncTimes();
+      assertTrue(batchSizes.getCount() > 0);
+      assertTrue(syncTimes.getCount() > 0);
+      // Each thread waits for its write to be synced, so a batch has at most one write from each thread
+      assertTrue(batchSizes.getMax() <= NUM_THREADS);
+      // But the writes of concurrent threads must share some of the syncs
+      assertTrue("Largest batch: " + batchSizes.getMax(), batchSizes.getMax() > 1);
+      assertTrue("Syncs: " + syncTimes.getCount(), syncTimes.getCount() < NUM_THREADS * NUM_KEYS);
+      assertEquals(0, store.getLogQueueDepth());
+   }
+}
@@ -84,15 +84,19 @@ public void stop() {
       };
       ConfigurationBuilder builder = TestCacheManagerFactory
             .getDefaultCacheConfiguration(false);
-      builder.persistence()
+      SoftIndexFileStoreConfigurationBuilder storeBuilder = builder.persistence()
                .addStore(SoftIndexFileStoreConfigurationBuilder.class)
                   .indexLocation(tmpDirectory).dataLocation(tmpDirectory + "/data")
                   .maxFileSize(1000);
+      configureStore(storeBuilder);
 
       store.init(createContext(builder.build()));
       return store;
    }
 
+   protected void configureStore(SoftIndexFileStoreConfigurationBuilder storeBuilder) {
+   }
+
    @Override
    protected boolean storePurgesAllExpired() {
       return false;
@@ -126,7 +126,7 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
    }
 
    def getFilter(name: String, compatEnabled: Boolean, useRawData: Boolean, binaryParams: List[Bytes]): CacheEventFilter[Bytes, Bytes] = {
-      val (factory, m) = findFactory(name, compatEnabled, cacheEventFilterFactories, "key/value filter", useRawData)
+      val (factory, m) = findFilterFactory(name, compatEnabled, useRawData)
       val params = unmarshallParams(binaryParams, m, useRawData)
       factory.getFilter[Bytes, Bytes](params.toArray)
    }
@@ -143,6 +143,13 @@ class ClientListenerRegistry(configuration: HotRodServerConfiguration) extends L
       factory.getFilterConverter[Bytes, Bytes, Bytes](params.toArray)
    }
 
+   def findFilterFactory(name: String, compatEnabled: Boolean, useRawData: Boolean): (CacheEventFilterFactory, Marshaller) = {
+      if (name == NearCacheBloomFilterFactory.Name)
+         (NearCacheBloomFilterFactory, marshaller.getOrElse(new GenericJBossMarshaller()))
+      else
+         findFactory(name, compatEnabled, cacheEventFilterFactories, "key/value filter", useRawData)
+   }
+
    def findConverterFactory(name: String, compatEnabled: Boolean, 
          factories: ConcurrentMap[String, CacheEventConverterFactory], factoryType: String, 
          useRawData: Boolean): (CacheEventConverterFactory, Marshaller) = {
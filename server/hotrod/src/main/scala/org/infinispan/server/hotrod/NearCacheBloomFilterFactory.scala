@@ -0,0 +1,49 @@
+package org.infinispan.server.hotrod
+
+import java.io.{ObjectInput, ObjectOutput}
+
+import org.infinispan.commons.marshall.AbstractExternalizer
+import org.infinispan.commons.util.BloomFilter
+import org.infinispan.metadata.Metadata
+import org.infinispan.notifications.cachelistener.filter.{CacheEventFilter, CacheEventFilterFactory, EventType}
+
+import scala.collection.JavaConversions
+
+/**
+ * Filters the events sent to a near cache client down to the keys it may have cached, as given by the Bloom filter
+ * that the client passes as the only parameter. The filter is built from the marshalled keys, so it works on the raw
+ * keys stored by the server, and accepts every event when compatibility mode stores them unmarshalled.
+ *
+ * @since 9.0
+ */
+object NearCacheBloomFilterFactory extends CacheEventFilterFactory {
+   val Name = "___near-cache-bloom-filter"
+
+   override def getFilter[K, V](params: Array[AnyRef]): CacheEventFilter[K, V] =
+      new NearCacheBloomFilter(params(0).asInstanceOf[Bytes]).asInstanceOf[CacheEventFilter[K, V]]
+
+   class NearCacheBloomFilter(val filterBytes: Bytes) extends CacheEventFilter[AnyRef, AnyRef] {
+      private val keys = BloomFilter.fromBytes(filterBytes)
+
+      override def accept(key: AnyRef, oldValue: AnyRef, oldMetadata: Metadata, newValue: AnyRef,
+            newMetadata: Metadata, eventType: EventType): Boolean = key match {
+         case k: Bytes => keys.mightContain(k)
+         case _ => true
+      }
+   }
+
+   class NearCacheBloomFilterExternalizer extends AbstractExternalizer[NearCacheBloomFilter] {
+      override def getTypeClasses = JavaConversions.setAsJavaSet(Set[java.lang.Class[_ <: NearCacheBloomFilter]](classOf[NearCacheBloomFilter]))
+
+      override def readObject(input: ObjectInput): NearCacheBloomFilter = {
+         val bytes = new Array[Byte](input.readInt())
+         input.readFully(bytes)
+         new NearCacheBloomFilter(bytes)
+      }
+
+      override def writeObject(output: ObjectOutput, filter: NearCacheBloomFilter): Unit = {
+         output.writeInt(filter.filterBytes.length)
+         output.write(filter.filterBytes)
+      }
+   }
+}
@@ -0,0 +1,79 @@
+package org.infinispan.server.memcached
+
+import java.nio.charset.{Charset, StandardCharsets}
+
+/**
+ * Memcached binary protocol constants, as defined in
+ * <a href="https://github.com/memcached/memcached/wiki/BinaryProtocolRevamped">the binary protocol specification</a>.
+ *
+ * @since 9.0
+ */
+object BinaryProtocolUtil {
+
+   val MAGIC_REQUEST: Short = 0x80
+   val MAGIC_RESPONSE: Short = 0x81
+   val HEADER_LENGTH = 24
+
+   /**
+    * Binary keys are decoded as ISO-8859-1, which maps every byte to a character and back, so any key can be stored
+    * and retrieved. ASCII keys, which is what the text protocol allows, map to the same strings with both protocols.
+    */
+   val KEY_CHARSET: Charset = StandardCharsets.ISO_8859_1
+
+   val MAX_KEY_LENGTH = 250
+
+   // Opcodes
+   val GET: Short = 0x00
+   val SET: Short = 0x01
+   val ADD: Short = 0x02
+   val REPLACE: Short = 0x03
+   val DELETE: Short = 0x04
+   val INCREMENT: Short = 0x05
+   val DECREMENT: Short = 0x06
+   val QUIT: Short = 0x07
+   val FLUSH: Short = 0x08
+   val GETQ: Short = 0x09
+   val NOOP: Short = 0x0a
+   val VERSION: Short = 0x0b
+   val GETK: Short = 0x0c
+   val GETKQ: Short = 0x0d
+   val APPEND: Short = 0x0e
+   val PREPEND: Short = 0x0f
+   val STAT: Short = 0x10
+   val SETQ: Short = 0x11
+   val ADDQ: Short = 0x12
+   val REPLACEQ: Short = 0x13
+   val DELETEQ: Short = 0x14
+   val INCREMENTQ: Short = 0x15
+   val DECREMENTQ: Short = 0x16
+   val QUITQ: Short = 0x17
+   val FLUSHQ: Short = 0x18
+   val APPENDQ: Short = 0x19
+   val PREPENDQ: Short = 0x1a
+
+   // Response status
+   val NO_ERROR: Short = 0x0000
+   val KEY_NOT_FOUND: Short = 0x0001
+   val KEY_EXISTS: Short = 0x0002
+   val VALUE_TOO_LARGE: Short = 0x0003
+   val INVALID_ARGUMENTS: Short = 0x0004
+   val ITEM_NOT_STORED: Short = 0x0005
+   val NON_NUMERIC_VALUE: Short = 0x0006
+   val UNKNOWN_COMMAND: Short = 0x0081
+   val INTERNAL_ERROR: Short = 0x0084
+   val TEMPORARY_FAILURE: Short = 0x0086
+
+   /**
+    * Increments and decrements with this expiration fail if the key does not exist, instead of creating it.
+    */
+   val NO_AUTO_CREATE = 0xffffffff
+
+   /**
+    * Quiet commands only send a response when they fail, except quiet gets which only send a response on a hit.
+    */
+   def isQuiet(opcode: Short): Boolean = opcode match {
+      case GETQ | GETKQ | SETQ | ADDQ | REPLACEQ | DELETEQ | INCREMENTQ | DECREMENTQ | QUITQ | FLUSHQ | APPENDQ | PREPENDQ => true
+      case _ => false
+   }
+
+}
@@ -0,0 +1,410 @@
+package org.infinispan.server.memcached
+
+import java.io.{IOException, StreamCorruptedException}
+import java.util
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit.{MILLISECONDS => MILLIS}
+
+import io.netty.buffer.ByteBuf
+import io.netty.channel.{Channel, ChannelFutureListener, ChannelHandlerContext}
+import io.netty.handler.codec.ByteToMessageDecoder
+import io.netty.util.CharsetUtil
+import org.infinispan.{AdvancedCache, Version}
+import org.infinispan.container.versioning.NumericVersion
+import org.infinispan.context.Flag
+import org.infinispan.metadata.Metadata
+import org.infinispan.server.core.transport.NettyTransport
+import org.infinispan.server.memcached.BinaryProtocolUtil._
+import org.infinispan.server.memcached.TextProtocolUtil.MAX_UNSIGNED_LONG
+import org.infinispan.server.memcached.logging.Log
+
+/**
+ * A Memcached binary protocol decoder. Every request is a fixed size header followed by a body of known length, so
+ * requests are only decoded once they have been fully received, and keys and values are copied straight out of the
+ * buffer without parsing any text.
+ * <p>
+ * Responses are written as soon as each request has been executed, but they are only flushed once all the requests
+ * received so far have been decoded, so a pipelined batch of requests, e.g. a multi-get made of quiet gets followed
+ * by a no-op, is answered with as few writes as possible.
+ * <p>
+ * Entries are shared with the text protocol: values are stored as they are received, with the same
+ * {@link MemcachedMetadata}, and the cas value of an entry is its numeric version.
+ * <p>
+ * Requests whose body is longer than {@code maxBodyLength} are rejected as soon as their header is received, and their
+ * body is skipped as it arrives, so they are never buffered.
+ *
+ * @since 9.0
+ */
+class MemcachedBinaryDecoder(memcachedCache: AdvancedCache[String, Array[Byte]], scheduler: ScheduledExecutorService,
+                             val transport: NettyTransport, maxBodyLength: Int,
+                             val cacheIgnoreAware: String => Boolean = Function.const(false))
+extends ByteToMessageDecoder with Log {
+
+   private val cache =
+      if (memcachedCache.getCacheConfiguration.compatibility().enabled())
+         memcachedCache.getAdvancedCache.withFlags(Flag.OPERATION_MEMCACHED)
+      else memcachedCache
+
+   private val isTrace = isTraceEnabled
+
+   // The bytes of the body of a rejected request that have not been received yet
+   private var bytesToDiscard = 0L
+
+   override def decode(ctx: ChannelHandlerContext, in: ByteBuf, out: util.List[AnyRef]): Unit = {
+      if (bytesToDiscard > 0) {
+         val discarded = math.min(bytesToDiscard, in.readableBytes).toInt
+         in.skipBytes(discarded)
+         bytesToDiscard -= discarded
+         if (bytesToDiscard > 0) return
+      }
+      if (in.readableBytes < HEADER_LENGTH) return
+
+      val start = in.readerIndex
+      val magic = in.getUnsignedByte(start)
+      if (magic != MAGIC_REQUEST) {
+         // There is no way to find the start of the next request, so the connection cannot be used any more
+         throw new StreamCorruptedException("Invalid magic byte: 0x%02x".format(magic))
+      }
+      val bodyLength = in.getUnsignedInt(start + 8)
+      if (bodyLength > maxBodyLength) {
+         // Reject the request before waiting for its body, which is discarded as it's received
+         val request = new BinaryRequest(in.getUnsignedByte(start + 1), in.getInt(start + 12), in.getLong(start + 16))
+         in.skipBytes(HEADER_LENGTH)
+         bytesToDiscard = bodyLength
+         writeError(ctx.channel, request, VALUE_TOO_LARGE, "Too large.")
+         return
+      }
+      if (in.readableBytes - HEADER_LENGTH < bodyLength) return
+
+      in.skipBytes(1) // magic
+      val opcode = in.readUnsignedByte
+      val keyLength = in.readUnsignedShort
+      val extrasLength = in.readUnsignedByte
+      in.skipBytes(1 + 2 + 4) // data type, vbucket id and body length
+      val opaque = in.readInt
+      val cas = in.readLong
+      val valueLength = bodyLength.toInt - extrasLength - keyLength
+
+      val request = new BinaryRequest(opcode, opaque, cas)
+      if (valueLength < 0 || keyLength > MAX_KEY_LENGTH) {
+         in.skipBytes(bodyLength.toInt)
+         writeError(ctx.channel, request, INVALID_ARGUMENTS, "Invalid key or body length")
+         return
+      }
+      request.extras = in.readSlice(extrasLength)
+      request.key = in.toString(in.readerIndex, keyLength, KEY_CHARSET)
+      in.skipBytes(keyLength)
+      request.value = new Array[Byte](valueLength)
+      in.readBytes(request.value)
+
+      if (isTrace) trace("Decoded binary request %s", request)
+
+      try {
+         val cacheName = cache.getName
+         if (cacheIgnoreAware(cacheName)) throw new CacheUnavailableException(cacheName)
+         execute(ctx.channel, request)
+      } catch {
+         case e: BinaryProtocolException => writeError(ctx.channel, request, e.status, e.getMessage)
+         case e: NumberFormatException =>
+            writeError(ctx.channel, request, NON_NUMERIC_VALUE, "Non-numeric server-side value for incr or decr")
+         case e: CacheUnavailableException => writeError(ctx.channel, request, TEMPORARY_FAILURE, e.getMessage)
+         case e: Exception =>
+            debug(e, "Error executing binary request %s", request)
+            writeError(ctx.channel, request, INTERNAL_ERROR, String.valueOf(e.getMessage))
+      }
+   }
+
+   override def channelReadComplete(ctx: ChannelHandlerContext): Unit = {
+      // Flush all the responses to the requests decoded from the data read so far at once
+      ctx.flush()
+      super.channelReadComplete(ctx)
+   }
+
+   override def exceptionCaught(ctx: ChannelHandlerContext, cause: Throwable): Unit = {
+      if (!cause.isInstanceOf[IOException])
+         debug(cause, "Closing binary protocol connection %s", ctx.channel)
+      ctx.close()
+   }
+
+   private def execute(ch: Channel, request: BinaryRequest): Unit = {
+      request.opcode match {
+         // Gets and sets are the most typical operations, so they're first
+         case GET | GETQ | GETK | GETKQ => get(ch, request)
+         case SET | SETQ | ADD | ADDQ | REPLACE | REPLACEQ => store(ch, request)
+         case DELETE | DELETEQ => delete(ch, request)
+         case INCREMENT | INCREMENTQ | DECREMENT | DECREMENTQ => incrDecr(ch, request)
+         case APPEND | APPENDQ | PREPEND | PREPENDQ => appendPrepend(ch, request)
+         case NOOP => writeResponse(ch, request, NO_ERROR)
+         case VERSION => writeResponse(ch, request, NO_ERROR, value = Version.getVersion.getBytes(CharsetUtil.UTF_8))
+         case FLUSH | FLUSHQ => flush(ch, request)
+         case STAT => stats(ch, request)
+         case QUIT =>
+            ch.writeAndFlush(response(ch, request, NO_ERROR, 0, 0, 0)).addListener(ChannelFutureListener.CLOSE)
+         case QUITQ => ch.close()
+         case _ => throw new BinaryProtocolException(UNKNOWN_COMMAND, "Unknown command: 0x%02x".format(request.opcode))
+      }
+   }
+
+   private def get(ch: Channel, request: BinaryRequest): Unit = {
+      val withKey = request.opcode == GETK || request.opcode == GETKQ
+      val entry = cache.getCacheEntry(request.key)
+      if (entry == null) {
+         if (!request.isQuiet) {
+            if (withKey)
+               writeResponse(ch, request, KEY_NOT_FOUND, key = request.keyBytes)
+            else
+               writeResponse(ch, request, KEY_NOT_FOUND, value = "Not found".getBytes(CharsetUtil.UTF_8))
+         }
+      } else {
+         val key = if (withKey) request.keyBytes else Array.emptyByteArray
+         val value = entry.getValue
+         val buf = response(ch, request, NO_ERROR, casOf(entry.getMetadata), 4, key.length, value.length)
+         buf.writeInt(flagsOf(entry.getMetadata).toInt)
+         buf.writeBytes(key)
+         buf.writeBytes(value)
+         ch.write(buf, ch.voidPromise)
+      }
+   }
+
+   private def store(ch: Channel, request: BinaryRequest): Unit = {
+      if (request.extras.readableBytes != 8)
+         throw new BinaryProtocolException(INVALID_ARGUMENTS, "Invalid extras length for a storage command")
+      val flags = request.extras.readUnsignedInt
+      val expiration = request.extras.readInt
+      val metadata = buildMetadata(flags, expiration)
+      val status = request.opcode match {
+         case ADD | ADDQ =>
+            // Generate new version only if key not present
+            if (cache.get(request.key) == null && cache.putIfAbsent(request.key, request.value, metadata) == null)
+               NO_ERROR
+            else KEY_EXISTS
+         case _ if request.cas != 0 =>
+            replaceIfUnmodified(request, request.value, metadata)
+         case SET | SETQ =>
+            cache.put(request.key, request.value, metadata)
+            NO_ERROR
+         case REPLACE | REPLACEQ =>
+            // Generate new version only if key present
+            if (cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).get(request.key) != null
+                  && cache.replace(request.key, request.value, metadata) != null)
+               NO_ERROR
+            else KEY_NOT_FOUND
+      }
+      writeModificationResponse(ch, request, status, metadata)
+   }
+
+   private def delete(ch: Channel, request: BinaryRequest): Unit = {
+      val status =
+         if (request.cas != 0) {
+            val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(request.key)
+            if (entry == null) KEY_NOT_FOUND
+            else if (casOf(entry.getMetadata) != request.cas) KEY_EXISTS
+            else if (cache.remove(request.key, entry.getValue)) NO_ERROR
+            else KEY_EXISTS
+         } else {
+            if (cache.remove(request.key) != null) NO_ERROR else KEY_NOT_FOUND
+         }
+      writeModificationResponse(ch, request, status, null)
+   }
+
+   private def incrDecr(ch: Channel, request: BinaryRequest): Unit = {
+      if (request.extras.readableBytes != 20)
+         throw new BinaryProtocolException(INVALID_ARGUMENTS, "Invalid extras length for incr or decr")
+      val delta = unsigned(request.extras.readLong)
+      val initial = unsigned(request.extras.readLong)
+      val expiration = request.extras.readInt
+      val increment = request.opcode == INCREMENT || request.opcode == INCREMENTQ
+
+      var result: Option[(BigInt, Metadata)] = None
+      while (result.isEmpty) {
+         val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(request.key)
+         if (entry == null) {
+            if (expiration == NO_AUTO_CREATE) {
+               writeResponse(ch, request, KEY_NOT_FOUND)
+               return
+            }
+            val metadata = buildMetadata(0, expiration)
+            if (cache.putIfAbsent(request.key, initial.toString.getBytes, metadata) == null)
+               result = Some((initial, metadata))
+         } else {
+            val prev = entry.getValue
+            val prevCounter = BigInt(new String(prev))
+            val counter =
+               if (increment) (prevCounter + delta) & MAX_UNSIGNED_LONG // Wraps around, like Memcached does
+               else (prevCounter - delta).max(0)
+            val metadata = buildMetadata(flagsOf(entry.getMetadata), 0, entry.getMetadata.lifespan())
+            if (cache.replace(request.key, prev, counter.toString.getBytes, metadata))
+               result = Some((counter, metadata))
+         }
+         // Otherwise there was a concurrent modification, so try again with the new value
+      }
+
+      val (counter, metadata) = result.get
+      if (!request.isQuiet) {
+         val buf = response(ch, request, NO_ERROR, casOf(metadata), 0, 0, 8)
+         buf.writeLong(counter.toLong)
+         ch.write(buf, ch.voidPromise)
+      }
+   }
+
+   private def appendPrepend(ch: Channel, request: BinaryRequest): Unit = {
+      val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(request.key)
+      val status =
+         if (entry == null) ITEM_NOT_STORED
+         else if (request.cas != 0 && casOf(entry.getMetadata) != request.cas) KEY_EXISTS
+         else {
+            val prev = entry.getValue
+            val concatenated = request.opcode match {
+               case APPEND | APPENDQ => concat(prev, request.value)
+               case PREPEND | PREPENDQ => concat(request.value, prev)
+            }
+            val metadata = buildMetadata(flagsOf(entry.getMetadata), 0, entry.getMetadata.lifespan())
+            if (cache.replace(request.key, prev, concatenated, metadata)) {
+               writeModificationResponse(ch, request, NO_ERROR, metadata)
+               return
+            }
+            // If there's a concurrent modification on this key, treat it as we couldn't replace it
+            ITEM_NOT_STORED
+         }
+      writeModificationResponse(ch, request, status, null)
+   }
+
+   private def flush(ch: Channel, request: BinaryRequest): Unit = {
+      val flushDelay = if (request.extras.readableBytes == 4) request.extras.readInt else 0
+      val flushFunction = (cache: AdvancedCache[String, Array[Byte]]) => cache.clear()
+      if (flushDelay == 0)
+         flushFunction(cache)
+      else
+         scheduler.schedule(new DelayedFlushAll(cache, flushFunction), MemcachedDecoder.toMillis(flushDelay), MILLIS)
+      if (!request.isQuiet) writeResponse(ch, request, NO_ERROR)
+   }
+
+   private def stats(ch: Channel, request: BinaryRequest): Unit = {
+      val stats = cache.getAdvancedCache.getStats
+      def stat(name: String, value: Any) =
+         writeResponse(ch, request, NO_ERROR, key = name.getBytes(CharsetUtil.UTF_8),
+            value = value.toString.getBytes(CharsetUtil.UTF_8))
+      stat("pid", 0)
+      stat("uptime", stats.getTimeSinceStart)
+      stat("time", MILLIS.toSeconds(System.currentTimeMillis))
+      stat("version", cache.getVersion)
+      stat("curr_items", stats.getCurrentNumberOfEntries)
+      stat("total_items", stats.getTotalNumberOfEntries)
+      stat("cmd_get", stats.getRetrievals)
+      stat("cmd_set", stats.getStores)
+      stat("get_hits", stats.getHits)
+      stat("get_misses", stats.getMisses)
+      stat("delete_misses", stats.getRemoveMisses)
+      stat("delete_hits", stats.getRemoveHits)
+      stat("evictions", stats.getEvictions)
+      stat("bytes_read", transport.getTotalBytesRead)
+      stat("bytes_written", transport.getTotalBytesWritten)
+      // An empty stat terminates the list
+      writeResponse(ch, request, NO_ERROR)
+   }
+
+   private def replaceIfUnmodified(request: BinaryRequest, value: Array[Byte], metadata: Metadata): Short = {
+      val entry = cache.withFlags(Flag.SKIP_LISTENER_NOTIFICATION).getCacheEntry(request.key)
+      if (entry == null) KEY_NOT_FOUND
+      else if (casOf(entry.getMetadata) != request.cas) KEY_EXISTS
+      // Generate new version only if key present and version has not changed, otherwise it's wasteful
+      else if (cache.replace(request.key, entry.getValue, value, metadata)) NO_ERROR
+      else KEY_EXISTS
+   }
+
+   private def buildMetadata(flags: Long, expiration: Int, lifespanMillis: Long = -1): Metadata = {
+      val metadata = new MemcachedMetadataBuilder
+      metadata.version(MemcachedDecoder.generateVersion(cache.getComponentRegistry))
+      metadata.flags(flags)
+      if (expiration > 0)
+         metadata.lifespan(MemcachedDecoder.toMillis(expiration))
+      else if (lifespanMillis > 0)
+         metadata.lifespan(lifespanMillis)
+      metadata.build()
+   }
+
+   private def casOf(metadata: Metadata): Long = metadata.version() match {
+      case v: NumericVersion => v.getVersion
+      case _ => 0
+   }
+
+   private def flagsOf(metadata: Metadata): Long = metadata match {
+      case meta: MemcachedMetadata => meta.flags
+      case _ => 0
+   }
+
+   private def unsigned(l: Long): BigInt = if (l >= 0) BigInt(l) else BigInt(l) + MAX_UNSIGNED_LONG + 1
+
+   private def concat(a: Array[Byte], b: Array[Byte]): Array[Byte] = {
+      val data = new Array[Byte](a.length + b.length)
+      Array.copy(a, 0, data, 0, a.length)
+      Array.copy(b, 0, data, a.length, b.length)
+      data
+   }
+
+   private def writeModificationResponse(ch: Channel, request: BinaryRequest, status: Short, metadata: Metadata): Unit = {
+      if (status != NO_ERROR)
+         writeError(ch, request, status, statusMessage(status))
+      else if (!request.isQuiet)
+         writeResponse(ch, request, NO_ERROR, cas = if (metadata != null) casOf(metadata) else 0)
+   }
+
+   private def statusMessage(status: Short): String = status match {
+      case KEY_NOT_FOUND => "Not found"
+      case KEY_EXISTS => "Data exists for key."
+      case ITEM_NOT_STORED => "Not stored."
+      case _ => ""
+   }
+
+   private def writeError(ch: Channel, request: BinaryRequest, status: Short, message: String): Unit =
+      writeResponse(ch, request, status, value = message.getBytes(CharsetUtil.UTF_8))
+
+   private def writeResponse(ch: Channel, request: BinaryRequest, status: Short, cas: Long = 0,
+                             key: Array[Byte] = Array.emptyByteArray, value: Array[Byte] = Array.emptyByteArray): Unit = {
+      val buf = response(ch, request, status, cas, 0, key.length, value.length)
+      buf.writeBytes(key)
+      buf.writeBytes(value)
+      ch.write(buf, ch.voidPromise)
+   }
+
+   /**
+    * Allocates a response buffer and writes the header, leaving the body to the caller.
+    */
+   private def response(ch: Channel, request: BinaryRequest, status: Short, cas: Long,
+                        extrasLength: Int, keyLength: Int, valueLength: Int): ByteBuf = {
+      val bodyLength = extrasLength + keyLength + valueLength
+      val buf = ch.alloc.buffer(HEADER_LENGTH + bodyLength)
+      buf.writeByte(MAGIC_RESPONSE)
+      buf.writeByte(request.opcode)
+      buf.writeShort(keyLength)
+      buf.writeByte(extrasLength)
+      buf.writeByte(0) // data type
+      buf.writeShort(status)
+      buf.writeInt(bodyLength)
+      buf.writeInt(request.opaque)
+      buf.writeLong(cas)
+      buf
+   }
+}
+
+private class BinaryRequest(val opcode: Short, val opaque: Int, val cas: Long) {
+   var extras: ByteBuf = _
+   var key: String = _
+   var value: Array[Byte] = _
+
+   def isQuiet: Boolean = BinaryProtocolUtil.isQuiet(opcode)
+
+   def keyBytes: Array[Byte] = key.getBytes(BinaryProtocolUtil.KEY_CHARSET)
+
+   override def toString = {
+      new java.lang.StringBuilder().append("BinaryRequest").append("{")
+      .append("opcode=0x").append(Integer.toHexString(opcode))
+      .append(", opaque=").append(opaque)
+      .append(", cas=").append(cas)
+      .append(", key=").append(key)
+      .append(", valueLength=").append(if (value != null) value.length else 0)
+      .append("}").toString
+   }
+}
+
+private class BinaryProtocolException(val status: Short, message: String) extends Exception(message)
@@ -43,7 +43,7 @@ class MemcachedDecoder(memcachedCache: AdvancedCache[String, Array[Byte]], sched
                        val transport: NettyTransport, val cacheIgnoreAware: String => Boolean = Function.const(false))
 extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConstants {
 
-   val SecondsInAMonth = 60 * 60 * 24 * 30
+   val SecondsInAMonth = MemcachedDecoder.SecondsInAMonth
    val DefaultTimeUnit = TimeUnit.MILLISECONDS
    var defaultLifespanTime: Long = _
    var defaultMaxIdleTime: Long = _
@@ -385,21 +385,8 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConsta
       new MemcachedParameters(length, lifespan, -1, streamVersion, noReply, flags, "", 0)
    }
 
-   protected def generateVersion(cache: Cache[String, Array[Byte]]): EntryVersion = {
-      val registry = getCacheRegistry
-      val cacheVersionGenerator = registry.getComponent(classOf[VersionGenerator])
-      if (cacheVersionGenerator == null) {
-         // It could be null, for example when not running in compatibility mode.
-         // The reason for that is that if no other component depends on the
-         // version generator, the factory does not get invoked.
-         val newVersionGenerator = new NumericVersionGenerator()
-         .clustered(registry.getComponent(classOf[RpcManager]) != null)
-         registry.registerComponent(newVersionGenerator, classOf[VersionGenerator])
-         newVersionGenerator.generateNew()
-      } else {
-         cacheVersionGenerator.generateNew()
-      }
-   }
+   protected def generateVersion(cache: Cache[String, Array[Byte]]): EntryVersion =
+      MemcachedDecoder.generateVersion(getCacheRegistry)
 
 
    protected def readValue(b: ByteBuf) {
@@ -725,26 +712,7 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConsta
       null
    }
 
-   /**
-    * Transforms lifespan pass as seconds into milliseconds
-    * following this rule:
-    *
-    * If lifespan is bigger than number of seconds in 30 days,
-    * then it is considered unix time. After converting it to
-    * milliseconds, we substract the current time in and the
-    * result is returned.
-    *
-    * Otherwise it's just considered number of seconds from
-    * now and it's returned in milliseconds unit.
-    */
-   protected def toMillis(lifespan: Int): Long = {
-      if (lifespan > SecondsInAMonth) {
-         val unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis
-         if (unixTimeExpiry < 0) 0 else unixTimeExpiry
-      } else {
-         TimeUnit.SECONDS.toMillis(lifespan)
-      }
-   }
+   protected def toMillis(lifespan: Int): Long = MemcachedDecoder.toMillis(lifespan)
 
    protected def writeResponse(ch: Channel, response: AnyRef): AnyRef = {
       try {
@@ -895,6 +863,50 @@ extends ReplayingDecoder[MemcachedDecoderState](DECODE_HEADER) with ServerConsta
    }
 }
 
+object MemcachedDecoder {
+
+   val SecondsInAMonth = 60 * 60 * 24 * 30
+
+   /**
+    * Generates the version of a new or modified entry, which Memcached clients see as its cas value.
+    */
+   def generateVersion(registry: ComponentRegistry): EntryVersion = {
+      val cacheVersionGenerator = registry.getComponent(classOf[VersionGenerator])
+      if (cacheVersionGenerator == null) {
+         // It could be null, for example when not running in compatibility mode.
+         // The reason for that is that if no other component depends on the
+         // version generator, the factory does not get invoked.
+         val newVersionGenerator = new NumericVersionGenerator()
+         .clustered(registry.getComponent(classOf[RpcManager]) != null)
+         registry.registerComponent(newVersionGenerator, classOf[VersionGenerator])
+         newVersionGenerator.generateNew()
+      } else {
+         cacheVersionGenerator.generateNew()
+      }
+   }
+
+   /**
+    * Transforms lifespan pass as seconds into milliseconds
+    * following this rule:
+    *
+    * If lifespan is bigger than number of seconds in 30 days,
+    * then it is considered unix time. After converting it to
+    * milliseconds, we substract the current time in and the
+    * result is returned.
+    *
+    * Otherwise it's just considered number of seconds from
+    * now and it's returned in milliseconds unit.
+    */
+   def toMillis(lifespan: Int): Long = {
+      if (lifespan > SecondsInAMonth) {
+         val unixTimeExpiry = TimeUnit.SECONDS.toMillis(lifespan) - System.currentTimeMillis
+         if (unixTimeExpiry < 0) 0 else unixTimeExpiry
+      } else {
+         TimeUnit.SECONDS.toMillis(lifespan)
+      }
+   }
+}
+
 class MemcachedParameters(val valueLength: Int, val lifespan: Int,
                           val maxIdle: Int, val streamVersion: Long,
                           val noReply: Boolean, val flags: Long, val delta: String,
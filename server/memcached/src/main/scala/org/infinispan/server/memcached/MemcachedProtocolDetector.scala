@@ -0,0 +1,28 @@
+package org.infinispan.server.memcached
+
+import java.util
+
+import io.netty.buffer.ByteBuf
+import io.netty.channel.{ChannelHandler, ChannelHandlerContext}
+import io.netty.handler.codec.ByteToMessageDecoder
+import org.infinispan.server.memcached.BinaryProtocolUtil.MAGIC_REQUEST
+import org.infinispan.server.memcached.logging.Log
+
+/**
+ * Finds out which Memcached protocol a client speaks from the first byte it sends: binary requests start with a magic
+ * byte which cannot start a text command. The detector then replaces itself with the matching decoder, which gets
+ * all the data received so far.
+ *
+ * @since 9.0
+ */
+class MemcachedProtocolDetector(textDecoder: => ChannelHandler, binaryDecoder: => ChannelHandler)
+extends ByteToMessageDecoder with Log {
+
+   override def decode(ctx: ChannelHandlerContext, in: ByteBuf, out: util.List[AnyRef]): Unit = {
+      if (in.isReadable) {
+         val binary = in.getUnsignedByte(in.readerIndex) == MAGIC_REQUEST
+         if (isTraceEnabled) trace("Using the %s protocol for %s", if (binary) "binary" else "text", ctx.channel)
+         ctx.pipeline.replace(this, ctx.name, if (binary) binaryDecoder else textDecoder)
+      }
+   }
+}
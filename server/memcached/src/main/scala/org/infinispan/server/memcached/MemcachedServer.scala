@@ -1,6 +1,6 @@
 package org.infinispan.server.memcached
 
-import io.netty.channel.{Channel, ChannelInitializer}
+import io.netty.channel.{Channel, ChannelInboundHandler, ChannelInitializer}
 import org.infinispan.server.core.AbstractProtocolServer
 import java.util.concurrent.Executors
 import org.infinispan.manager.EmbeddedCacheManager
@@ -12,7 +12,8 @@ import org.infinispan.server.memcached.logging.Log
 
 /**
  * Memcached server defining its decoder/encoder settings. In fact, Memcached does not use an encoder since there's
- * no really common headers between protocol operations.
+ * no really common headers between protocol operations. Both the text and the binary protocols are served on the same
+ * port, the protocol being detected when the client sends its first request.
  *
  * @author Galder Zamarreño
  * @since 4.1
@@ -39,9 +40,17 @@ class MemcachedServer extends AbstractProtocolServer("Memcached") with Log {
 
    override def getEncoder = null
 
-   override def getDecoder: MemcachedDecoder =
+   /**
+    * Returns a decoder that speaks the protocol, text or binary, that the client uses.
+    */
+   override def getDecoder: ChannelInboundHandler = new MemcachedProtocolDetector(getTextDecoder, getBinaryDecoder)
+
+   def getTextDecoder: MemcachedDecoder =
       new MemcachedDecoder(memcachedCache, scheduler, transport, isCacheIgnored)
 
+   def getBinaryDecoder: MemcachedBinaryDecoder =
+      new MemcachedBinaryDecoder(memcachedCache, scheduler, transport, configuration.maxBodyLength, isCacheIgnored)
+
    override def stop {
       super.stop
       scheduler.shutdown()
@@ -14,13 +14,23 @@
  */
 @BuiltBy(MemcachedServerConfigurationBuilder.class)
 public class MemcachedServerConfiguration extends ProtocolServerConfiguration {
+   public static final int DEFAULT_MAX_BODY_LENGTH = 1024 * 1024;
+   private final int maxBodyLength;
 
-   MemcachedServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, Set<String> ignoredCaches) {
+   MemcachedServerConfiguration(String defaultCacheName, String name, String host, int port, int idleTimeout, int recvBufSize, int sendBufSize, SslConfiguration ssl, boolean tcpNoDelay, int workerThreads, Set<String> ignoredCaches, int maxBodyLength) {
       super(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl, tcpNoDelay, workerThreads, ignoredCaches);
+      this.maxBodyLength = maxBodyLength;
+   }
+
+   /**
+    * The maximum length, in bytes, of the body of a binary protocol request.
+    */
+   public int maxBodyLength() {
+      return maxBodyLength;
    }
 
    @Override
    public String toString() {
-      return "MemcachedServerConfiguration [" + super.toString() + "]";
+      return "MemcachedServerConfiguration [maxBodyLength=" + maxBodyLength + ", " + super.toString() + "]";
    }
 }
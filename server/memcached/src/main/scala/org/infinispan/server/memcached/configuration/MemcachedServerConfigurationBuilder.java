@@ -2,6 +2,8 @@
 
 import org.infinispan.commons.configuration.Builder;
 import org.infinispan.server.core.configuration.ProtocolServerConfigurationBuilder;
+import org.infinispan.server.memcached.logging.JavaLog;
+import org.infinispan.util.logging.LogFactory;
 
 /**
  * MemcachedServerConfigurationBuilder.
@@ -11,6 +13,8 @@
  */
 public class MemcachedServerConfigurationBuilder extends ProtocolServerConfigurationBuilder<MemcachedServerConfiguration, MemcachedServerConfigurationBuilder> implements
       Builder<MemcachedServerConfiguration> {
+   private static final JavaLog log = LogFactory.getLog(MemcachedServerConfigurationBuilder.class, JavaLog.class);
+   private int maxBodyLength = MemcachedServerConfiguration.DEFAULT_MAX_BODY_LENGTH;
 
    public MemcachedServerConfigurationBuilder() {
       super(11211);
@@ -31,9 +35,26 @@ public MemcachedServerConfigurationBuilder cache(String cache) {
       return this;
    }
 
+   /**
+    * Sets the maximum length, in bytes, of the body of a binary protocol request, i.e. of its extras, key and value.
+    * Larger requests are rejected before their body is read. Defaults to 1 MB, the default item size limit of Memcached
+    */
+   public MemcachedServerConfigurationBuilder maxBodyLength(int maxBodyLength) {
+      this.maxBodyLength = maxBodyLength;
+      return this;
+   }
+
    @Override
    public MemcachedServerConfiguration create() {
-      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, ignoredCaches);
+      return new MemcachedServerConfiguration(defaultCacheName, name, host, port, idleTimeout, recvBufSize, sendBufSize, ssl.create(), tcpNoDelay, workerThreads, ignoredCaches, maxBodyLength);
+   }
+
+   @Override
+   public void validate() {
+      super.validate();
+      if (maxBodyLength <= 0) {
+         throw log.illegalMaxBodyLength(maxBodyLength);
+      }
    }
 
    public MemcachedServerConfiguration build(boolean validate) {
@@ -51,6 +72,7 @@ public MemcachedServerConfiguration build() {
    @Override
    public Builder<?> read(MemcachedServerConfiguration template) {
       super.read(template);
+      this.maxBodyLength = template.maxBodyLength();
       return this;
    }
 }
@@ -15,4 +15,7 @@
 public interface JavaLog extends org.infinispan.util.logging.Log {
    @Message(value = "Cache '%s' has expiration enabled which violates the Memcached protocol", id = 11001)
    CacheConfigurationException invalidExpiration(String cacheName);
+
+   @Message(value = "Illegal maximum body length %d, it must be greater than 0", id = 11002)
+   CacheConfigurationException illegalMaxBodyLength(int maxBodyLength);
 }
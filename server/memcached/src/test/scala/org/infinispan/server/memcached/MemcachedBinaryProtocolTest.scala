@@ -0,0 +1,209 @@
+package org.infinispan.server.memcached
+
+import java.io.DataInputStream
+import java.lang.reflect.Method
+import java.net.Socket
+import java.nio.ByteBuffer
+import java.util.concurrent.TimeUnit
+
+import net.spy.memcached.{CASResponse, MemcachedClient}
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.server.memcached.BinaryProtocolUtil._
+import org.infinispan.server.memcached.configuration.MemcachedServerConfiguration
+import org.infinispan.server.memcached.test.MemcachedTestingUtil._
+import org.infinispan.test.TestingUtil._
+import org.testng.Assert._
+import org.testng.annotations.{AfterClass, Test}
+
+/**
+ * Tests the Memcached binary protocol, which is served on the same port as the text protocol.
+ *
+ * @since 9.0
+ */
+@Test(groups = Array("functional"), testName = "server.memcached.MemcachedBinaryProtocolTest")
+class MemcachedBinaryProtocolTest extends MemcachedSingleNodeTest {
+
+   private var binaryClient: MemcachedClient = _
+
+   override def createCacheManager: EmbeddedCacheManager = {
+      val cm = super.createCacheManager
+      binaryClient = createMemcachedBinaryClient(60000, server.getPort)
+      cm
+   }
+
+   @AfterClass(alwaysRun = true)
+   override def destroyAfterClass() {
+      killMemcachedClient(binaryClient)
+      super.destroyAfterClass()
+   }
+
+   def testSetAndGet(m: Method) {
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(binaryClient.get(k(m)), v(m))
+   }
+
+   def testSharedWithTextProtocol(m: Method) {
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(client.get(k(m)), v(m))
+      assertTrue(client.set(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(binaryClient.get(k(m)), v(m, "v1-"))
+   }
+
+   def testGetMultipleKeys(m: Method) {
+      val keys = for (i <- 0 until 10) yield k(m, "k" + i + "-")
+      for (key <- keys)
+         assertTrue(binaryClient.set(key, 0, "v-" + key).get(timeout, TimeUnit.SECONDS).booleanValue)
+      // Multi-gets are quiet gets followed by a no-op, so the missing key must not get a response
+      val ret = binaryClient.getBulk(keys :+ k(m, "missing-"): _*)
+      assertEquals(ret.size, keys.size)
+      for (key <- keys)
+         assertEquals(ret.get(key), "v-" + key)
+   }
+
+   def testAddAndReplace(m: Method) {
+      assertFalse(binaryClient.replace(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.add(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertFalse(binaryClient.add(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.replace(k(m), 0, v(m, "v1-")).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(binaryClient.get(k(m)), v(m, "v1-"))
+   }
+
+   def testCas(m: Method) {
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      val value = binaryClient.gets(k(m))
+      assertEquals(value.getValue, v(m))
+      assertTrue(value.getCas != 0)
+      assertEquals(binaryClient.cas(k(m), value.getCas, v(m, "v1-")), CASResponse.OK)
+      assertEquals(binaryClient.cas(k(m), value.getCas, v(m, "v2-")), CASResponse.EXISTS)
+      assertEquals(binaryClient.get(k(m)), v(m, "v1-"))
+      assertEquals(binaryClient.cas(k(m, "missing-"), value.getCas, v(m)), CASResponse.NOT_FOUND)
+   }
+
+   def testDelete(m: Method) {
+      assertFalse(binaryClient.delete(k(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.delete(k(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertNull(binaryClient.get(k(m)))
+   }
+
+   def testIncrementAndDecrement(m: Method) {
+      assertEquals(binaryClient.incr(k(m), 1), -1L)
+      assertEquals(binaryClient.incr(k(m), 1, 10L), 10L)
+      assertEquals(binaryClient.incr(k(m), 5), 15L)
+      assertEquals(binaryClient.decr(k(m), 20), 0L)
+      // Counters are stored as text, like the text protocol does
+      assertEquals(client.get(k(m)), "0")
+   }
+
+   def testAppendAndPrepend(m: Method) {
+      assertTrue(binaryClient.set(k(m), 0, "b").get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.append(0, k(m), "c").get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertTrue(binaryClient.prepend(0, k(m), "a").get(timeout, TimeUnit.SECONDS).booleanValue)
+      assertEquals(binaryClient.get(k(m)), "abc")
+   }
+
+   def testVersion() {
+      assertFalse(binaryClient.getVersions.isEmpty)
+   }
+
+   def testQuietGetsAreAnsweredOnHitsOnly(m: Method) {
+      assertTrue(binaryClient.set(k(m), 0, v(m)).get(timeout, TimeUnit.SECONDS).booleanValue)
+      val socket = new Socket(server.getHost, server.getPort)
+      try {
+         val out = socket.getOutputStream
+         // Pipeline a miss, a hit and a no-op, all written at once
+         out.write(request(GETKQ, k(m, "missing-"), 1) ++ request(GETKQ, k(m), 2) ++ request(NOOP, "", 3))
+         out.flush()
+         val in = new DataInputStream(socket.getInputStream)
+
+         val hit = readResponse(in)
+         assertEquals(hit.opcode, GETKQ.toInt)
+         assertEquals(hit.status, NO_ERROR.toInt)
+         assertEquals(hit.opaque, 2)
+         assertTrue(hit.cas != 0)
+         assertEquals(new String(hit.key, KEY_CHARSET), k(m))
+
+         val noop = readResponse(in)
+         assertEquals(noop.opcode, NOOP.toInt)
+         assertEquals(noop.opaque, 3)
+      } finally {
+         socket.close()
+      }
+   }
+
+   def testUnknownCommand() {
+      val socket = new Socket(server.getHost, server.getPort)
+      try {
+         socket.getOutputStream.write(request(0x7f, "", 1))
+         val response = readResponse(new DataInputStream(socket.getInputStream))
+         assertEquals(response.status, UNKNOWN_COMMAND.toInt)
+         assertEquals(response.opaque, 1)
+      } finally {
+         socket.close()
+      }
+   }
+
+   def testBodyTooLarge(m: Method) {
+      val socket = new Socket(server.getHost, server.getPort)
+      try {
+         val keyBytes = k(m).getBytes(KEY_CHARSET)
+         val valueLength = MemcachedServerConfiguration.DEFAULT_MAX_BODY_LENGTH
+         val buf = ByteBuffer.allocate(HEADER_LENGTH + 8 + keyBytes.length + valueLength)
+         buf.put(MAGIC_REQUEST.toByte).put(SET.toByte).putShort(keyBytes.length.toShort)
+         buf.put(8.toByte).put(0.toByte).putShort(0.toShort) // extras length, data type and vbucket id
+         buf.putInt(8 + keyBytes.length + valueLength).putInt(1).putLong(0)
+         buf.putInt(0).putInt(0) // flags and expiration
+         buf.put(keyBytes)
+         val out = socket.getOutputStream
+         // The body is sent after the header, and the request that follows it must still be answered
+         out.write(buf.array, 0, HEADER_LENGTH)
+         out.flush()
+         out.write(buf.array, HEADER_LENGTH, buf.capacity - HEADER_LENGTH)
+         out.write(request(NOOP, "", 2))
+         out.flush()
+         val in = new DataInputStream(socket.getInputStream)
+
+         val rejected = readResponse(in)
+         assertEquals(rejected.status, VALUE_TOO_LARGE.toInt)
+         assertEquals(rejected.opaque, 1)
+
+         val noop = readResponse(in)
+         assertEquals(noop.opcode, NOOP.toInt)
+         assertEquals(noop.opaque, 2)
+         assertNull(binaryClient.get(k(m)))
+      } finally {
+         socket.close()
+      }
+   }
+
+   private def request(opcode: Int, key: String, opaque: Int): Array[Byte] = {
+      val keyBytes = key.getBytes(KEY_CHARSET)
+      val buf = ByteBuffer.allocate(HEADER_LENGTH + keyBytes.length)
+      buf.put(MAGIC_REQUEST.toByte).put(opcode.toByte).putShort(keyBytes.length.toShort)
+      buf.put(0.toByte).put(0.toByte).putShort(0.toShort) // extras length, data type and vbucket id
+      buf.putInt(keyBytes.length).putInt(opaque).putLong(0)
+      buf.put(keyBytes)
+      buf.array
+   }
+
+   private def readResponse(in: DataInputStream): Response = {
+      assertEquals(in.readUnsignedByte, MAGIC_RESPONSE.toInt)
+      val opcode = in.readUnsignedByte
+      val keyLength = in.readUnsignedShort
+      val extrasLength = in.readUnsignedByte
+      in.readUnsignedByte // data type
+      val status = in.readUnsignedShort
+      val bodyLength = in.readInt
+      val opaque = in.readInt
+      val cas = in.readLong
+      in.skipBytes(extrasLength)
+      val key = new Array[Byte](keyLength)
+      in.readFully(key)
+      val value = new Array[Byte](bodyLength - extrasLength - keyLength)
+      in.readFully(value)
+      new Response(opcode, status, opaque, cas, key, value)
+   }
+
+   private class Response(val opcode: Int, val status: Int, val opaque: Int, val cas: Long,
+                          val key: Array[Byte], val value: Array[Byte])
+}
@@ -14,22 +14,33 @@ import scala.collection.JavaConversions._
 
 final class NettyRestServer (
       val cacheManager: EmbeddedCacheManager, val configuration: RestServerConfiguration,
-      netty: NettyJaxrsServer, onStop: EmbeddedCacheManager => Unit) extends Lifecycle with Log with CacheIgnoreAware {
+      netty: Option[NettyJaxrsServer], onStop: EmbeddedCacheManager => Unit) extends Lifecycle with Log with CacheIgnoreAware {
+
+   private var transport: Option[RestNettyTransport] = None
 
    override def start(): Unit = {
-      netty.start()
-      val deployment = netty.getDeployment
       configuration.getIgnoredCaches.foreach(ignoreCache)
       val restCacheManager = new RestCacheManager(cacheManager, isCacheIgnored)
-      val server = new Server(configuration, restCacheManager)
-      deployment.getRegistry.addSingletonResource(server)
-      deployment.getProviderFactory.register(new RestAccessLoggingHandler, classOf[ContainerResponseFilter],
-         classOf[ContainerRequestFilter])
+      netty match {
+         case Some(jaxrs) =>
+            jaxrs.start()
+            val deployment = jaxrs.getDeployment
+            val server = new Server(configuration, restCacheManager)
+            deployment.getRegistry.addSingletonResource(server)
+            deployment.getProviderFactory.register(new RestAccessLoggingHandler, classOf[ContainerResponseFilter],
+               classOf[ContainerRequestFilter])
+         case None =>
+            val nativeTransport = new RestNettyTransport(configuration, restCacheManager)
+            nativeTransport.start()
+            transport = Some(nativeTransport)
+      }
       logStartRestServer(configuration.host(), configuration.port())
    }
 
    override def stop(): Unit = {
-      netty.stop()
+      netty.foreach(_.stop())
+      transport.foreach(_.stop())
+      transport = None
       onStop(cacheManager)
    }
 
@@ -54,14 +65,18 @@ object NettyRestServer extends Log {
       // Start caches first, if not started
       startCaches(cm)
 
-      val netty = new NettyJaxrsServer()
-      val deployment = new ResteasyDeployment()
-      netty.setDeployment(deployment)
-      netty.setHostname(config.host())
-      netty.setPort(config.port())
-      netty.setRootResourcePath("")
-      netty.setSecurityDomain(null)
-      new NettyRestServer(cm, config, netty, onStop)
+      if (config.nativeTransport()) {
+         new NettyRestServer(cm, config, None, onStop)
+      } else {
+         val netty = new NettyJaxrsServer()
+         val deployment = new ResteasyDeployment()
+         netty.setDeployment(deployment)
+         netty.setHostname(config.host())
+         netty.setPort(config.port())
+         netty.setRootResourcePath("")
+         netty.setSecurityDomain(null)
+         new NettyRestServer(cm, config, Some(netty), onStop)
+      }
    }
 
    private def createCacheManager(cfgFile: String): EmbeddedCacheManager = {
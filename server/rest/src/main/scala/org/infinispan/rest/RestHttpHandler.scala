@@ -0,0 +1,446 @@
+package org.infinispan.rest
+
+import java.nio.charset.StandardCharsets.UTF_8
+import java.time.format.DateTimeFormatter
+import java.time.{ZoneId, ZonedDateTime}
+import java.util.concurrent.TimeUnit.{MILLISECONDS => MILLIS}
+import java.util.{Date, Locale}
+
+import io.netty.buffer.{ByteBuf, Unpooled}
+import io.netty.channel.{ChannelFutureListener, ChannelHandlerContext, SimpleChannelInboundHandler}
+import io.netty.handler.codec.http.HttpHeaders.Names._
+import io.netty.handler.codec.http.HttpResponseStatus._
+import io.netty.handler.codec.http.HttpVersion.HTTP_1_1
+import io.netty.handler.codec.http._
+import io.netty.handler.stream.ChunkedInput
+import org.infinispan.commons.hash.MurmurHash3
+import org.infinispan.commons.util.CloseableIterator
+import org.infinispan.container.entries.InternalCacheEntry
+import org.infinispan.metadata.Metadata
+import org.infinispan.rest.RestHttpHandler._
+import org.infinispan.rest.configuration.{ExtendedHeaders, RestServerConfiguration}
+import org.infinispan.rest.logging.Log
+
+/**
+ * Serves the REST API straight from Netty's HTTP codec, without going through RESTEasy. Entry values are written to
+ * the channel by wrapping the stored byte arrays, request bodies are copied once into the array that gets stored, and
+ * key listings are streamed as chunks while the cache is iterated.
+ *
+ * Only byte array and String values can be read through this handler; other values, which are only found in caches
+ * shared with other endpoints in compatibility mode, need the JAX-RS resource in {@link Server}. Requests on a
+ * connection are handled in the order they arrive, so pipelined requests are answered in order.
+ *
+ * @since 9.0
+ */
+class RestHttpHandler(configuration: RestServerConfiguration, manager: RestCacheManager)
+      extends SimpleChannelInboundHandler[FullHttpRequest] with Log {
+
+   override def channelRead0(ctx: ChannelHandlerContext, request: FullHttpRequest): Unit = {
+      if (isTraceEnabled) trace("Received %s %s", request.getMethod, request.getUri)
+      val response =
+         if (!request.getDecoderResult.isSuccess) status(BAD_REQUEST)
+         else {
+            try {
+               handle(request)
+            } catch {
+               case e: CacheNotFoundException => status(NOT_FOUND)
+               case e: CacheUnavailableException => status(SERVICE_UNAVAILABLE, e.getMessage)
+               case e: NumberFormatException => status(BAD_REQUEST, e.getMessage)
+            }
+         }
+      val keepAlive = HttpHeaders.isKeepAlive(request)
+      HttpHeaders.setKeepAlive(response, keepAlive)
+      val future = response match {
+         case streamed: StreamedResponse =>
+            ctx.write(streamed)
+            ctx.writeAndFlush(streamed.content)
+         case _ =>
+            ctx.writeAndFlush(response)
+      }
+      if (!keepAlive) future.addListener(ChannelFutureListener.CLOSE)
+   }
+
+   override def exceptionCaught(ctx: ChannelHandlerContext, cause: Throwable): Unit = {
+      logExceptionReported(cause)
+      if (ctx.channel.isActive) {
+         ctx.writeAndFlush(status(INTERNAL_SERVER_ERROR, cause.toString)).addListener(ChannelFutureListener.CLOSE)
+      }
+   }
+
+   private def handle(request: FullHttpRequest): HttpResponse = {
+      val uri = request.getUri
+      val queryStart = uri.indexOf('?')
+      val path = if (queryStart < 0) uri else uri.substring(0, queryStart)
+      if (!path.startsWith(PathPrefix))
+         return status(NOT_FOUND)
+
+      path.substring(PathPrefix.length).split("/", -1).map(decodePathSegment) match {
+         case Array(cacheName) if !cacheName.isEmpty =>
+            request.getMethod match {
+               case HttpMethod.GET => getKeys(request, cacheName)
+               case HttpMethod.DELETE => clearCache(request, cacheName)
+               case _ => status(METHOD_NOT_ALLOWED)
+            }
+         case Array(cacheName, key) if !cacheName.isEmpty && !key.isEmpty =>
+            val extended = new QueryStringDecoder(uri).parameters.containsKey("extended")
+            request.getMethod match {
+               case HttpMethod.GET => getEntry(request, cacheName, key, extended, withBody = true)
+               case HttpMethod.HEAD => getEntry(request, cacheName, key, extended, withBody = false)
+               case HttpMethod.PUT | HttpMethod.POST => putEntry(request, cacheName, key)
+               case HttpMethod.DELETE => removeEntry(request, cacheName, key)
+               case _ => status(METHOD_NOT_ALLOWED)
+            }
+         case _ => status(NOT_FOUND)
+      }
+   }
+
+   private def getKeys(request: FullHttpRequest, cacheName: String): HttpResponse = {
+      val cache = manager.getCache(cacheName)
+      selectKeysFormat(request.headers.get(ACCEPT)) match {
+         case Some(format) =>
+            val response = new StreamedResponse(
+               new KeysChunkedInput(cache.keySet.iterator, format, cacheName))
+            response.headers.set(CONTENT_TYPE, format.contentType)
+            HttpHeaders.setTransferEncodingChunked(response)
+            response
+         case None => status(NOT_ACCEPTABLE)
+      }
+   }
+
+   private def getEntry(request: FullHttpRequest, cacheName: String, key: String, extended: Boolean,
+                        withBody: Boolean): HttpResponse = {
+      manager.getInternalEntry[AnyRef](cacheName, key) match {
+         case ice: InternalCacheEntry[String, AnyRef] =>
+            val lastMod = lastModified(ice)
+            val expires = if (ice.canExpire) new Date(ice.getExpiryTime) else null
+            if (!freshEnough(expires, request.headers.get(CACHE_CONTROL)))
+               return status(NOT_FOUND)
+
+            val (contentType, value) = (ice.getMetadata, ice.getValue) match {
+               case (meta: MimeMetadata, bytes: Array[Byte]) => (meta.contentType, bytes)
+               case (_, bytes: Array[Byte]) => (ApplicationOctetStream, bytes)
+               case (_, s: String) => (Server.TextPlainUtf8, s.getBytes(UTF_8))
+               case _ => return status(NOT_ACCEPTABLE,
+                  "Only byte array and String values can be read through the native REST transport")
+            }
+            val etag = ice.getMetadata match {
+               case meta: MimeMetadata => calcETAG(meta, value)
+               case _ => null
+            }
+            // Like the JAX-RS resource, only entries stored through REST are subject to preconditions
+            val failed = if (etag != null) evaluatePreconditions(request, lastMod, etag) else None
+            failed match {
+               case Some(failedStatus) => status(failedStatus)
+               case None =>
+                  val response = new DefaultFullHttpResponse(HTTP_1_1, OK,
+                     if (withBody) Unpooled.wrappedBuffer(value) else Unpooled.EMPTY_BUFFER)
+                  val headers = response.headers
+                  if (contentType != null) headers.set(CONTENT_TYPE, contentType)
+                  headers.set(LAST_MODIFIED, formatDate(lastMod))
+                  if (etag != null) headers.set(ETAG, etag)
+                  if (expires != null) {
+                     headers.set(EXPIRES, formatDate(expires))
+                     val maxAgeSeconds = calcFreshness(expires)
+                     headers.set(CACHE_CONTROL,
+                        if (maxAgeSeconds > 0) HttpHeaders.Values.MAX_AGE + "=" + maxAgeSeconds
+                        else HttpHeaders.Values.NO_CACHE)
+                  }
+                  addMortality(headers, ice.getMetadata)
+                  if (extended && configuration.extendedHeaders() == ExtendedHeaders.ON_DEMAND) {
+                     setIfNotNull(headers, "Cluster-Primary-Owner", manager.getPrimaryOwner(cacheName, key))
+                     setIfNotNull(headers, "Cluster-Node-Name", manager.getNodeName)
+                     setIfNotNull(headers, "Cluster-Server-Address", manager.getServerAddress)
+                  }
+                  // HEAD responses announce the length of the body a GET would have returned
+                  HttpHeaders.setContentLength(response, value.length)
+                  response
+            }
+         case _ => status(NOT_FOUND)
+      }
+   }
+
+   private def putEntry(request: FullHttpRequest, cacheName: String, key: String): HttpResponse = {
+      val cache = manager.getCache(cacheName)
+      if (request.getMethod == HttpMethod.POST && cache.containsKey(key))
+         return status(CONFLICT)
+
+      val headers = request.headers
+      val useAsync = java.lang.Boolean.parseBoolean(headers.get("performAsync"))
+      val contentType = Option(headers.get(CONTENT_TYPE)).getOrElse(ApplicationOctetStream)
+      val ttl = Option(headers.get(Server.TimeToLiveHeader)).map(_.toLong).getOrElse(-1L)
+      val idleTime = Option(headers.get(Server.MaxIdleTimeHeader)).map(_.toLong).getOrElse(-1L)
+      val data = toByteArray(request.content)
+      val metadata = Server.createMetadata(cache.getCacheConfiguration, contentType, ttl, idleTime)
+
+      val prevCond = manager.getInternalEntry[AnyRef](cacheName, key, skipListener = true) match {
+         case ice: InternalCacheEntry[String, AnyRef] =>
+            (ice.getMetadata, ice.getValue) match {
+               case (meta: MimeMetadata, prev: Array[Byte]) =>
+                  evaluatePreconditions(request, lastModified(ice), calcETAG(meta, prev)) match {
+                     case Some(failed) => return status(failed)
+                     case None => Some(prev)
+                  }
+               case _ => None
+            }
+         case _ => None
+      }
+
+      if (useAsync) {
+         cache.putAsync(key, data, metadata)
+         status(OK)
+      } else prevCond match {
+         case None =>
+            cache.put(key, data, metadata)
+            status(OK)
+         case Some(prev) =>
+            if (cache.replace(key, prev, data, metadata)) status(OK) else status(PRECONDITION_FAILED)
+      }
+   }
+
+   private def removeEntry(request: FullHttpRequest, cacheName: String, key: String): HttpResponse = {
+      manager.getInternalEntry[AnyRef](cacheName, key) match {
+         case ice: InternalCacheEntry[String, AnyRef] =>
+            val failed = (ice.getMetadata, ice.getValue) match {
+               case (meta: MimeMetadata, value: Array[Byte]) =>
+                  evaluatePreconditions(request, lastModified(ice), calcETAG(meta, value))
+               case _ => None
+            }
+            failed match {
+               case Some(failedStatus) => status(failedStatus)
+               case None =>
+                  val cache = manager.getCache(cacheName)
+                  if (java.lang.Boolean.parseBoolean(request.headers.get("performAsync")))
+                     cache.removeAsync(key)
+                  else
+                     cache.remove(key)
+                  status(OK)
+            }
+         case _ => status(NOT_FOUND)
+      }
+   }
+
+   private def clearCache(request: FullHttpRequest, cacheName: String): HttpResponse = {
+      val headers = request.headers
+      if (ConditionalHeaders.exists(headers.contains)) {
+         status(NOT_IMPLEMENTED, "Preconditions were not implemented yet for PUT, POST, and DELETE methods.")
+      } else {
+         manager.getCache(cacheName).clear()
+         status(OK)
+      }
+   }
+
+   /**
+    * Evaluates the conditional request headers against the entry, the same way JAX-RS does.
+    *
+    * @return the status of the response to send back if a precondition failed
+    */
+   private def evaluatePreconditions(request: HttpRequest, lastMod: Date, etag: String): Option[HttpResponseStatus] = {
+      val headers = request.headers
+      val isRead = request.getMethod == HttpMethod.GET || request.getMethod == HttpMethod.HEAD
+      val ifMatch = headers.get(IF_MATCH)
+      if (ifMatch != null && !matchesETag(ifMatch, etag))
+         return Some(PRECONDITION_FAILED)
+      val ifUnmodifiedSince = parseDate(headers.get(IF_UNMODIFIED_SINCE))
+      if (ifUnmodifiedSince.isDefined && lastMod.after(ifUnmodifiedSince.get))
+         return Some(PRECONDITION_FAILED)
+      val ifNoneMatch = headers.get(IF_NONE_MATCH)
+      if (ifNoneMatch != null && matchesETag(ifNoneMatch, etag))
+         return Some(if (isRead) NOT_MODIFIED else PRECONDITION_FAILED)
+      val ifModifiedSince = parseDate(headers.get(IF_MODIFIED_SINCE))
+      if (isRead && ifNoneMatch == null && ifModifiedSince.isDefined && !lastMod.after(ifModifiedSince.get))
+         return Some(NOT_MODIFIED)
+      None
+   }
+
+   private def matchesETag(header: String, etag: String): Boolean =
+      header.split(",").map(_.trim).exists(tag => tag == "*" || (etag != null && stripWeak(tag) == etag))
+
+   private def stripWeak(tag: String): String = if (tag.startsWith("W/")) tag.substring(2) else tag
+
+   private def freshEnough(expires: Date, cacheControl: String): Boolean = {
+      if (cacheControl == null) true
+      else cacheControl.split(",").find(_.contains("min-fresh")) match {
+         case Some(directive) => directive.split("=").last.trim.toInt < calcFreshness(expires)
+         case None => true
+      }
+   }
+
+   private def calcFreshness(expires: Date): Int = expires match {
+      case null => Int.MaxValue
+      case expiry => ((expiry.getTime - System.currentTimeMillis) / 1000).toInt
+   }
+
+   private def addMortality(headers: HttpHeaders, meta: Metadata): Unit = {
+      if (meta.lifespan() > -1)
+         headers.set(Server.TimeToLiveHeader, MILLIS.toSeconds(meta.lifespan()).toString)
+      if (meta.maxIdle() > -1)
+         headers.set(Server.MaxIdleTimeHeader, MILLIS.toSeconds(meta.maxIdle()).toString)
+   }
+
+   private def setIfNotNull(headers: HttpHeaders, name: String, value: AnyRef): Unit =
+      if (value != null) headers.set(name, value)
+
+   private def selectKeysFormat(accept: String): Option[KeysFormat] = {
+      if (accept == null) Some(TextPlain)
+      else accept.split(",").iterator.map(parseMediaType).collectFirst {
+         case "*/*" | "text/*" | "text/plain" => TextPlain
+         case "text/plain;charset=utf-8" => TextPlainUtf8
+         case "application/json" => Json
+         case "application/xml" => Xml
+         case "text/html" => Html
+      }
+   }
+
+   /**
+    * Lower-cases the media type and drops its parameters, except for the charset which selects a listing format.
+    */
+   private def parseMediaType(mediaType: String): String = {
+      val parts = mediaType.split(";").map(_.trim.toLowerCase(Locale.ENGLISH))
+      parts.tail.find(_.startsWith("charset=")) match {
+         case Some(charset) => parts.head + ";" + charset.replace(" ", "")
+         case None => parts.head
+      }
+   }
+
+}
+
+object RestHttpHandler {
+
+   val PathPrefix = "/rest/"
+
+   private val ApplicationOctetStream = "application/octet-stream"
+
+   private val ChunkSize = 8192
+
+   private val ConditionalHeaders = Seq(IF_MATCH, IF_NONE_MATCH, IF_MODIFIED_SINCE, IF_UNMODIFIED_SINCE)
+
+   private val HttpDateFormat = DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US)
+         .withZone(ZoneId.of("GMT"))
+
+   private val hashFunc = MurmurHash3.getInstance
+
+   // Must match the entity tags generated by the JAX-RS resource, so both can be used on the same cache
+   private def calcETAG(meta: MimeMetadata, value: Array[Byte]): String =
+      "\"" + meta.contentType + hashFunc.hash(value) + "\""
+
+   private def lastModified(ice: InternalCacheEntry[_, _]): Date = new Date(ice.getCreated / 1000 * 1000)
+
+   private def formatDate(date: Date): String = HttpDateFormat.format(date.toInstant)
+
+   private def parseDate(header: String): Option[Date] = {
+      if (header == null) None
+      else {
+         try {
+            Some(Date.from(ZonedDateTime.parse(header, HttpDateFormat).toInstant))
+         } catch {
+            case e: Exception => None
+         }
+      }
+   }
+
+   private def toByteArray(content: ByteBuf): Array[Byte] = {
+      val bytes = new Array[Byte](content.readableBytes)
+      content.getBytes(content.readerIndex, bytes)
+      bytes
+   }
+
+   /**
+    * Decodes a path segment. Unlike in query strings, '+' stands for itself in paths.
+    */
+   private def decodePathSegment(segment: String): String =
+      QueryStringDecoder.decodeComponent(segment.replace("+", "%2B"), UTF_8)
+
+   private def status(status: HttpResponseStatus): FullHttpResponse = {
+      val response = new DefaultFullHttpResponse(HTTP_1_1, status)
+      HttpHeaders.setContentLength(response, 0)
+      response
+   }
+
+   private def status(status: HttpResponseStatus, message: String): FullHttpResponse = {
+      val content = Unpooled.copiedBuffer(String.valueOf(message), UTF_8)
+      val response = new DefaultFullHttpResponse(HTTP_1_1, status, content)
+      response.headers.set(CONTENT_TYPE, Server.TextPlainUtf8)
+      HttpHeaders.setContentLength(response, content.readableBytes)
+      response
+   }
+
+   /**
+    * A response whose body is written in chunks after the response itself.
+    */
+   private class StreamedResponse(val content: ChunkedInput[HttpContent])
+         extends DefaultHttpResponse(HTTP_1_1, OK)
+
+   /**
+    * How keys are listed for each of the media types supported by the JAX-RS resource.
+    */
+   private abstract class KeysFormat(val contentType: String) {
+      def prefix: String = ""
+      def key(cacheName: String, key: String, first: Boolean): String
+      def suffix: String = ""
+   }
+
+   private object TextPlain extends KeysFormat("text/plain") {
+      override def key(cacheName: String, key: String, first: Boolean) = key + System.lineSeparator
+   }
+
+   private object TextPlainUtf8 extends KeysFormat(Server.TextPlainUtf8) {
+      override def key(cacheName: String, key: String, first: Boolean) = key + System.lineSeparator
+   }
+
+   private object Json extends KeysFormat("application/json") {
+      override def prefix = "keys=["
+      override def key(cacheName: String, key: String, first: Boolean) =
+         (if (first) "\"" else ",\"") + Escaper.escapeJson(key) + "\""
+      override def suffix = "]"
+   }
+
+   private object Xml extends KeysFormat("application/xml") {
+      override def prefix = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n\n<keys>"
+      override def key(cacheName: String, key: String, first: Boolean) =
+         "<key>" + Escaper.escapeXml(key) + "</key>"
+      override def suffix = "</keys>"
+   }
+
+   private object Html extends KeysFormat("text/html") {
+      override def prefix = "<html><body>"
+      override def key(cacheName: String, key: String, first: Boolean) = {
+         val hkey = Escaper.escapeHtml(key)
+         "<a href=\"" + cacheName + "/" + hkey + "\">" + hkey + "</a><br/>"
+      }
+      override def suffix = "</body></html>"
+   }
+
+   /**
+    * Lists the keys of a cache in chunks of roughly {@link #ChunkSize} bytes, so that the whole key set is never
+    * held in memory and the chunks are only produced as fast as the client reads them.
+    */
+   private class KeysChunkedInput(keys: CloseableIterator[String], format: KeysFormat, cacheName: String)
+         extends ChunkedInput[HttpContent] {
+
+      private var first = true
+      private var done = false
+
+      override def isEndOfInput: Boolean = done
+
+      override def readChunk(ctx: ChannelHandlerContext): HttpContent = {
+         if (done) return null
+         val buf = ctx.alloc.buffer(ChunkSize)
+         if (first) buf.writeBytes(format.prefix.getBytes(UTF_8))
+         while (keys.hasNext && buf.readableBytes < ChunkSize) {
+            buf.writeBytes(format.key(cacheName, keys.next, first).getBytes(UTF_8))
+            first = false
+         }
+         if (keys.hasNext) {
+            new DefaultHttpContent(buf)
+         } else {
+            buf.writeBytes(format.suffix.getBytes(UTF_8))
+            done = true
+            keys.close()
+            new DefaultLastHttpContent(buf)
+         }
+      }
+
+      override def close(): Unit = keys.close()
+   }
+
+}
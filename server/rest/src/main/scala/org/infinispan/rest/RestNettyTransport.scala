@@ -0,0 +1,66 @@
+package org.infinispan.rest
+
+import io.netty.bootstrap.ServerBootstrap
+import io.netty.buffer.PooledByteBufAllocator
+import io.netty.channel.group.DefaultChannelGroup
+import io.netty.channel.nio.NioEventLoopGroup
+import io.netty.channel.socket.nio.NioServerSocketChannel
+import io.netty.channel.{Channel, ChannelInitializer, ChannelOption}
+import io.netty.handler.codec.http.{HttpObjectAggregator, HttpServerCodec}
+import io.netty.handler.stream.ChunkedWriteHandler
+import io.netty.util.concurrent.{DefaultEventExecutorGroup, DefaultThreadFactory, ImmediateEventExecutor}
+import org.infinispan.rest.configuration.RestServerConfiguration
+import org.infinispan.rest.logging.Log
+
+/**
+ * Netty HTTP/1.1 server for the REST endpoint, used instead of RESTEasy's when
+ * {@link RestServerConfiguration#nativeTransport()} is enabled.
+ *
+ * Cache operations may block, so requests are handled by a separate executor group rather than by the I/O threads.
+ * Each connection sticks to one executor, which keeps pipelined requests in order.
+ *
+ * @since 9.0
+ */
+private[rest] class RestNettyTransport(configuration: RestServerConfiguration, manager: RestCacheManager)
+      extends Log {
+
+   private val serverChannels = new DefaultChannelGroup("Rest-Channels", ImmediateEventExecutor.INSTANCE)
+   private val acceptedChannels = new DefaultChannelGroup("Rest-Accepted", ImmediateEventExecutor.INSTANCE)
+
+   private val masterGroup = new NioEventLoopGroup(1, new DefaultThreadFactory("RestServerMaster"))
+   private val workerGroup = new NioEventLoopGroup(0, new DefaultThreadFactory("RestServerWorker"))
+   private val handlerGroup = new DefaultEventExecutorGroup(Runtime.getRuntime.availableProcessors * 2,
+      new DefaultThreadFactory("RestServerHandler"))
+
+   def start(): Unit = {
+      val bootstrap = new ServerBootstrap()
+      bootstrap.group(masterGroup, workerGroup)
+      bootstrap.channel(classOf[NioServerSocketChannel])
+      bootstrap.childHandler(new ChannelInitializer[Channel] {
+         override def initChannel(ch: Channel): Unit = {
+            acceptedChannels.add(ch)
+            val pipeline = ch.pipeline
+            pipeline.addLast("codec", new HttpServerCodec)
+            pipeline.addLast("aggregator", new HttpObjectAggregator(configuration.maxContentLength))
+            pipeline.addLast("chunked", new ChunkedWriteHandler)
+            pipeline.addLast(handlerGroup, "handler", new RestHttpHandler(configuration, manager))
+         }
+      })
+      bootstrap.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+      bootstrap.childOption[java.lang.Boolean](ChannelOption.TCP_NODELAY, true)
+
+      val ch = bootstrap.bind(configuration.host, configuration.port).sync().channel()
+      serverChannels.add(ch)
+   }
+
+   def stop(): Unit = {
+      serverChannels.close().awaitUninterruptibly()
+      acceptedChannels.close().awaitUninterruptibly()
+      if (isDebugEnabled)
+         debug("Channel group completely closed, release external resources")
+      masterGroup.shutdownGracefully()
+      workerGroup.shutdownGracefully()
+      handlerGroup.shutdownGracefully()
+   }
+
+}
@@ -388,25 +388,8 @@ class Server(configuration: RestServerConfiguration, manager: RestCacheManager)
       Response.ok.build
    }
 
-   def createMetadata(cfg: Configuration, dataType: String, ttl: Long, idleTime: Long): Metadata = {
-      val metadata = new MimeMetadataBuilder
-      metadata.contentType(dataType)
-      (ttl, idleTime) match {
-         case (0, 0) =>
-            metadata.lifespan(cfg.expiration().lifespan(), MILLIS)
-                  .maxIdle(cfg.expiration().maxIdle(), MILLIS)
-         case (0, maxIdle) =>
-            metadata.lifespan(cfg.expiration().lifespan(), MILLIS)
-                  .maxIdle(maxIdle, SECS)
-         case (lifespan, 0) =>
-            metadata.lifespan(lifespan, SECS)
-                  .maxIdle(cfg.expiration().maxIdle(), MILLIS)
-         case (lifespan, maxIdle) =>
-            metadata.lifespan(lifespan, SECS)
-                  .maxIdle(maxIdle, SECS)
-      }
-      metadata.build()
-   }
+   def createMetadata(cfg: Configuration, dataType: String, ttl: Long, idleTime: Long): Metadata =
+      Server.createMetadata(cfg, dataType, ttl, idleTime)
 
    private def putOrReplace(cache: AdvancedCache[String, Array[Byte]],
            key: String, data: Array[Byte], dataType: String,
@@ -527,6 +510,26 @@ object Server {
    lazy val JsonMapper = new ObjectMapper
    lazy val Xstream = new XStream
 
+   def createMetadata(cfg: Configuration, dataType: String, ttl: Long, idleTime: Long): Metadata = {
+      val metadata = new MimeMetadataBuilder
+      metadata.contentType(dataType)
+      (ttl, idleTime) match {
+         case (0, 0) =>
+            metadata.lifespan(cfg.expiration().lifespan(), MILLIS)
+                  .maxIdle(cfg.expiration().maxIdle(), MILLIS)
+         case (0, maxIdle) =>
+            metadata.lifespan(cfg.expiration().lifespan(), MILLIS)
+                  .maxIdle(maxIdle, SECS)
+         case (lifespan, 0) =>
+            metadata.lifespan(lifespan, SECS)
+                  .maxIdle(cfg.expiration().maxIdle(), MILLIS)
+         case (lifespan, maxIdle) =>
+            metadata.lifespan(lifespan, SECS)
+                  .maxIdle(maxIdle, SECS)
+      }
+      metadata.build()
+   }
+
    val DatePatternRfc1123LocaleUS = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US)
    DatePatternRfc1123LocaleUS.setTimeZone(TimeZone.getTimeZone("GMT"))
 
@@ -10,12 +10,17 @@ public class RestServerConfiguration {
    private final String host;
    private final int port;
    private Set<String> ignoredCaches;
+   private final boolean nativeTransport;
+   private final int maxContentLength;
 
-   RestServerConfiguration(ExtendedHeaders extendedHeaders, String host, int port, Set<String> ignoredCaches) {
+   RestServerConfiguration(ExtendedHeaders extendedHeaders, String host, int port, Set<String> ignoredCaches,
+                           boolean nativeTransport, int maxContentLength) {
       this.extendedHeaders = extendedHeaders;
       this.host = host;
       this.port = port;
       this.ignoredCaches = ignoredCaches;
+      this.nativeTransport = nativeTransport;
+      this.maxContentLength = maxContentLength;
    }
 
    public ExtendedHeaders extendedHeaders() {
@@ -33,4 +38,18 @@ public String host() {
    public Set<String> getIgnoredCaches() {
       return ignoredCaches;
    }
+
+   /**
+    * Whether requests are served by the Netty HTTP pipeline instead of the RESTEasy JAX-RS resource.
+    */
+   public boolean nativeTransport() {
+      return nativeTransport;
+   }
+
+   /**
+    * The maximum size, in bytes, of a request body accepted by the Netty HTTP pipeline.
+    */
+   public int maxContentLength() {
+      return maxContentLength;
+   }
 }
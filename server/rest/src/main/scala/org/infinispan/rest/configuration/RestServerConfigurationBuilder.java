@@ -1,6 +1,8 @@
 package org.infinispan.rest.configuration;
 
 import org.infinispan.commons.configuration.Builder;
+import org.infinispan.rest.logging.JavaLog;
+import org.infinispan.util.logging.LogFactory;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -13,10 +15,14 @@
  */
 public class RestServerConfigurationBuilder implements Builder<RestServerConfiguration> {
 
+   private static final JavaLog log = LogFactory.getLog(RestServerConfigurationBuilder.class, JavaLog.class);
+
    private ExtendedHeaders extendedHeaders = ExtendedHeaders.ON_DEMAND;
    private int port = 8080;
    private String host = "localhost";
    private Set<String> ignoredCaches = new HashSet<String>();
+   private boolean nativeTransport = false;
+   private int maxContentLength = 10 * 1024 * 1024;
 
    public RestServerConfigurationBuilder extendedHeaders(ExtendedHeaders extendedHeaders) {
       this.extendedHeaders = extendedHeaders;
@@ -38,14 +44,34 @@ public RestServerConfigurationBuilder ignoredCaches(Set<String> ignoredCaches) {
       return this;
    }
 
+   /**
+    * Serves requests with a Netty HTTP pipeline which reads and writes entries straight from and to the channel
+    * buffers, instead of going through RESTEasy. Only byte array and String values can be read through it, other
+    * values need the JAX-RS resource. Defaults to false.
+    */
+   public RestServerConfigurationBuilder nativeTransport(boolean nativeTransport) {
+      this.nativeTransport = nativeTransport;
+      return this;
+   }
+
+   /**
+    * The maximum size, in bytes, of a request body when {@link #nativeTransport(boolean)} is enabled. Larger requests
+    * are rejected with 413 Request Entity Too Large. Defaults to 10 MiB.
+    */
+   public RestServerConfigurationBuilder maxContentLength(int maxContentLength) {
+      this.maxContentLength = maxContentLength;
+      return this;
+   }
+
    @Override
    public void validate() {
-      // Nothing to do
+      if (maxContentLength <= 0)
+         throw log.illegalMaxContentLength(maxContentLength);
    }
 
    @Override
    public RestServerConfiguration create() {
-      return new RestServerConfiguration(extendedHeaders, host, port, ignoredCaches);
+      return new RestServerConfiguration(extendedHeaders, host, port, ignoredCaches, nativeTransport, maxContentLength);
    }
 
    @Override
@@ -53,6 +79,8 @@ public Builder<?> read(RestServerConfiguration template) {
       this.extendedHeaders = template.extendedHeaders();
       this.host = template.host();
       this.port = template.port();
+      this.nativeTransport = template.nativeTransport();
+      this.maxContentLength = template.maxContentLength();
       return this;
    }
 
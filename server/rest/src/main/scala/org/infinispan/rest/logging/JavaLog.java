@@ -30,4 +30,7 @@ public interface JavaLog extends org.infinispan.util.logging.Log {
    @Message(value = "REST server starting, listening on %s:%s", id = 12003)
    void startRestServer(String host, int port);
 
+   @Message(value = "Maximum content length must be greater than 0: %d", id = 12004)
+   IllegalArgumentException illegalMaxContentLength(int maxContentLength);
+
 }
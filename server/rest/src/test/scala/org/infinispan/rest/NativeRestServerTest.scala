@@ -0,0 +1,202 @@
+package org.infinispan.rest
+
+import java.io.{BufferedReader, InputStreamReader}
+import java.lang.reflect.Method
+import java.net.Socket
+import java.nio.charset.StandardCharsets.UTF_8
+import javax.servlet.http.HttpServletResponse._
+
+import org.apache.commons.httpclient.methods._
+import org.infinispan.commons.api.BasicCacheContainer
+import org.infinispan.manager.EmbeddedCacheManager
+import org.infinispan.rest.configuration.RestServerConfigurationBuilder
+import org.infinispan.test.TestingUtil
+import org.infinispan.test.fwk.TestCacheManagerFactory
+import org.testng.AssertJUnit._
+import org.testng.annotations.{AfterClass, BeforeClass, Test}
+
+/**
+ * Tests the REST endpoint served by the Netty HTTP pipeline instead of RESTEasy.
+ *
+ * @since 9.0
+ */
+@Test(groups = Array("functional"), testName = "rest.NativeRestServerTest")
+class NativeRestServerTest extends RestServerTestBase {
+
+   val Port = 8890
+   val cacheName = BasicCacheContainer.DEFAULT_CACHE_NAME
+   val fullPath = s"http://localhost:$Port/rest/$cacheName"
+   private var cacheManager: EmbeddedCacheManager = null
+
+   @BeforeClass(alwaysRun = true)
+   def setUp() {
+      cacheManager = TestCacheManagerFactory.fromXml("test-config.xml")
+      addServer("native", cacheManager, new RestServerConfigurationBuilder()
+         .port(Port).nativeTransport(true).maxContentLength(1024).build())
+      startServers()
+      createClient()
+   }
+
+   @AfterClass(alwaysRun = true)
+   def tearDown() {
+      destroyClient()
+      stopServers()
+      TestingUtil.killCacheManagers(cacheManager)
+   }
+
+   def testPutGetRemove(m: Method) {
+      val fullPathKey = s"$fullPath/${m.getName}"
+      val put = new PutMethod(fullPathKey)
+      put.setRequestEntity(new ByteArrayRequestEntity("data".getBytes, "application/octet-stream"))
+      assertEquals(SC_OK, call(put).getStatusCode)
+
+      val get = call(new GetMethod(fullPathKey))
+      assertEquals(SC_OK, get.getStatusCode)
+      assertEquals("application/octet-stream", get.getResponseHeader("Content-Type").getValue)
+      assertNotNull(get.getResponseHeader("ETag"))
+      assertNotNull(get.getResponseHeader("Last-Modified"))
+      assertEquals("data", get.getResponseBodyAsString)
+
+      val head = call(new HeadMethod(fullPathKey))
+      assertEquals(SC_OK, head.getStatusCode)
+      assertEquals("application/octet-stream", head.getResponseHeader("Content-Type").getValue)
+      assertNull(head.getResponseBodyAsString)
+
+      assertEquals(SC_OK, call(new DeleteMethod(fullPathKey)).getStatusCode)
+      assertEquals(SC_NOT_FOUND, call(new GetMethod(fullPathKey)).getStatusCode)
+      assertEquals(SC_NOT_FOUND, call(new DeleteMethod(fullPathKey)).getStatusCode)
+   }
+
+   def testSharedWithEmbeddedCache(m: Method) {
+      val cache = cacheManager.getCache[String, Array[Byte]]()
+      cache.put(m.getName, "embedded".getBytes)
+      val get = call(new GetMethod(s"$fullPath/${m.getName}"))
+      assertEquals(SC_OK, get.getStatusCode)
+      assertEquals("application/octet-stream", get.getResponseHeader("Content-Type").getValue)
+      assertEquals("embedded", get.getResponseBodyAsString)
+
+      val put = new PutMethod(s"$fullPath/${m.getName}")
+      put.setRequestEntity(new StringRequestEntity("rest", "text/plain", "UTF-8"))
+      call(put)
+      assertEquals("rest", new String(cache.get(m.getName), UTF_8))
+   }
+
+   def testPostConflict(m: Method) {
+      val fullPathKey = s"$fullPath/${m.getName}"
+      val post = new PostMethod(fullPathKey)
+      post.setRequestEntity(new StringRequestEntity("data", "application/text", null))
+      assertEquals(SC_OK, call(post).getStatusCode)
+      assertEquals(SC_CONFLICT, call(post).getStatusCode)
+   }
+
+   def testPreconditions(m: Method) {
+      val fullPathKey = s"$fullPath/${m.getName}"
+      val put = new PutMethod(fullPathKey)
+      put.setRequestEntity(new StringRequestEntity("data", "application/text", null))
+      call(put)
+      val etag = call(new GetMethod(fullPathKey)).getResponseHeader("ETag").getValue
+
+      val notModified = new GetMethod(fullPathKey)
+      notModified.setRequestHeader("If-None-Match", etag)
+      assertEquals(SC_NOT_MODIFIED, call(notModified).getStatusCode)
+
+      val matching = new GetMethod(fullPathKey)
+      matching.setRequestHeader("If-Match", etag)
+      assertEquals(SC_OK, call(matching).getStatusCode)
+
+      val conditionalPut = new PutMethod(fullPathKey)
+      conditionalPut.setRequestHeader("If-Match", "\"stale\"")
+      conditionalPut.setRequestEntity(new StringRequestEntity("data2", "application/text", null))
+      assertEquals(SC_PRECONDITION_FAILED, call(conditionalPut).getStatusCode)
+      assertEquals("data", call(new GetMethod(fullPathKey)).getResponseBodyAsString)
+   }
+
+   def testExpiration(m: Method) {
+      val fullPathKey = s"$fullPath/${m.getName}"
+      val put = new PutMethod(fullPathKey)
+      put.setRequestHeader("timeToLiveSeconds", "100")
+      put.setRequestEntity(new StringRequestEntity("data", "application/text", null))
+      call(put)
+      val get = call(new GetMethod(fullPathKey))
+      assertEquals("100", get.getResponseHeader("timeToLiveSeconds").getValue)
+      assertNotNull(get.getResponseHeader("Expires"))
+      assertTrue(get.getResponseHeader("Cache-Control").getValue.startsWith("max-age="))
+   }
+
+   def testKeyListing(m: Method) {
+      val cache = cacheManager.getCache[String, Array[Byte]]()
+      cache.clear()
+      // Enough keys to need several chunks
+      for (i <- 0 until 2000) cache.put(s"${m.getName}-$i", Array[Byte](1))
+      cache.put("\"a\"", Array[Byte](1))
+
+      val plain = getCollection("text/plain;charset=UTF-8")
+      assertEquals(2001, plain.split("\n").length)
+      assertTrue(plain.contains(s"${m.getName}-1999\n"))
+
+      val json = getCollection("application/json")
+      assertTrue(json.startsWith("keys=["))
+      assertTrue(json.contains("\\\"a\\\""))
+      assertTrue(json.endsWith("]"))
+
+      assertTrue(getCollection("application/xml").contains("<key>&quot;a&quot;</key>"))
+      assertTrue(getCollection("text/html").contains(s"""<a href="$cacheName/&quot;a&quot;">&quot;a&quot;</a>"""))
+
+      val unsupported = new GetMethod(fullPath)
+      unsupported.setRequestHeader("Accept", "application/x-java-serialized-object")
+      assertEquals(SC_NOT_ACCEPTABLE, call(unsupported).getStatusCode)
+
+      assertEquals(SC_OK, call(new DeleteMethod(fullPath)).getStatusCode)
+      assertTrue(cache.isEmpty)
+   }
+
+   def testUnknownCache() {
+      assertEquals(SC_NOT_FOUND, call(new GetMethod(s"http://localhost:$Port/rest/nonexistent/key")).getStatusCode)
+      assertEquals(SC_NOT_FOUND, call(new GetMethod(s"http://localhost:$Port/other/$cacheName")).getStatusCode)
+   }
+
+   def testRequestTooLarge(m: Method) {
+      val put = new PutMethod(s"$fullPath/${m.getName}")
+      put.setRequestEntity(new ByteArrayRequestEntity(new Array[Byte](2048), "application/octet-stream"))
+      assertEquals(SC_REQUEST_ENTITY_TOO_LARGE, call(put).getStatusCode)
+   }
+
+   def testPipelining(m: Method) {
+      val cache = cacheManager.getCache[String, Array[Byte]]()
+      for (i <- 0 until 3) cache.put(s"${m.getName}-$i", s"v$i".getBytes)
+      val socket = new Socket("localhost", Port)
+      try {
+         // All requests are written before reading any response, which must come back in order
+         val requests = for (i <- 0 until 3)
+            yield s"GET /rest/$cacheName/${m.getName}-$i HTTP/1.1\r\nHost: localhost\r\n\r\n"
+         socket.getOutputStream.write(requests.mkString.getBytes(UTF_8))
+         socket.getOutputStream.flush()
+         val in = new BufferedReader(new InputStreamReader(socket.getInputStream, UTF_8))
+         for (i <- 0 until 3) {
+            assertEquals("HTTP/1.1 200 OK", in.readLine())
+            var contentLength = -1
+            var line = in.readLine()
+            while (!line.isEmpty) {
+               if (line.toLowerCase.startsWith("content-length:"))
+                  contentLength = line.substring("content-length:".length).trim.toInt
+               line = in.readLine()
+            }
+            val body = new Array[Char](contentLength)
+            assertEquals(contentLength, in.read(body, 0, contentLength))
+            assertEquals(s"v$i", new String(body))
+         }
+      } finally {
+         socket.close()
+      }
+   }
+
+   private def getCollection(variant: String): String = {
+      val get = new GetMethod(fullPath)
+      get.addRequestHeader("Accept", variant)
+      val coll = call(get)
+      assertEquals(SC_OK, coll.getStatusCode)
+      assertEquals(variant, coll.getResponseHeader("Content-Type").getValue)
+      coll.getResponseBodyAsString
+   }
+
+}